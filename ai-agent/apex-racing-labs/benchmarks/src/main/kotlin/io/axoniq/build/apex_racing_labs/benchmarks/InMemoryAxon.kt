@@ -0,0 +1,34 @@
+package io.axoniq.build.apex_racing_labs.benchmarks
+
+import io.axoniq.build.apex_racing_labs.race_rating.RaceRatingServiceCommandHandler
+import io.axoniq.build.apex_racing_labs.race_rating.RaceRatingState
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Race Rating fixture test: the annotated entity and command
+ * handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun raceRating(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(String::class.java, RaceRatingState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("RaceRatingService")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { c -> RaceRatingServiceCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
@@ -0,0 +1,114 @@
+package io.axoniq.build.apex_racing_labs.benchmarks
+
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
+import io.axoniq.build.apex_racing_labs.user_statistics_view.UserStatisticsEntity
+import io.axoniq.build.apex_racing_labs.user_statistics_view.UserStatisticsRepository
+import io.axoniq.build.apex_racing_labs.user_statistics_view.UserStatisticsViewComponent
+import io.axoniq.build.apex_racing_labs.user_statistics_view.api.DriverPerformanceRated
+import io.axoniq.build.apex_racing_labs.user_statistics_view.api.RaceRated
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [UserStatisticsViewComponent] event handlers writing to PostgreSQL, started in a throwaway
+ * container, through the application's JPA repositories. Only the projection's own entities and repositories are
+ * loaded, not the whole application context. Each event is handled in its own transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class UserStatisticsProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [UserStatisticsEntity::class])
+    @EnableJpaRepositories(basePackageClasses = [UserStatisticsRepository::class])
+    @Import(UserStatisticsViewComponent::class, ProjectionVersions::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<*>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: UserStatisticsViewComponent
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(UserStatisticsViewComponent::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onRaceRated() {
+        val id = sequence.incrementAndGet()
+        val event = RaceRated("race-$id", "user-${id % 100}", "Great race", (id % 5).toInt() + 1)
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun onDriverPerformanceRated() {
+        val id = sequence.incrementAndGet()
+        val event = DriverPerformanceRated("user-${id % 100}", "driver-${id % 20}", "race-$id", (id % 5).toInt() + 1)
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    private fun handle(handler: (ProcessingContext) -> Unit) {
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            handler(ctx)
+            CompletableFuture.completedFuture(null)
+        }.join()
+    }
+}
@@ -1,25 +1,37 @@
 package io.axoniq.build.apex_racing_labs.driver_comparison_view
 
 import io.axoniq.build.apex_racing_labs.driver_comparison_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
+import java.time.Instant
 import java.time.LocalDate
 
 /**
  * Driver Comparison View component that provides head-to-head driver comparison analytics.
  * This component handles events to build a read model for driver comparisons and responds to queries
  * for driver profiles and comparison charts.
+ * Ratings are kept in the columnar [DriverStatisticsStore] next to the database, which maintains the overall
+ * ratings incrementally and serves the head-to-head comparisons.
  */
 @Component
 class DriverComparisonViewComponent(
     private val driverRepository: DriverComparisonRepository,
-    private val raceComparisonRepository: RaceComparisonRepository
+    private val raceComparisonRepository: RaceComparisonRepository,
+    private val statistics: DriverStatisticsStore,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverComparisonViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "driver-comparison-view"
     }
 
     /**
@@ -34,7 +46,7 @@ class DriverComparisonViewComponent(
             ?: throw IllegalArgumentException("Driver not found: ${query.driverId}")
 
         // Calculate overall rating if not already set
-        val overallRating = driver.overallRating ?: calculateOverallRating(driver)
+        val overallRating = driver.overallRating ?: statistics.overallRating(driver.driverId)
 
         return DriverProfileResult(
             teamId = driver.teamId,
@@ -60,11 +72,8 @@ class DriverComparisonViewComponent(
         val rivalDriver = driverRepository.findByDriverId(query.rivalDriverId)
             ?: throw IllegalArgumentException("Rival driver not found: ${query.rivalDriverId}")
 
-        // Get head-to-head race comparisons
-        val driverRaces = raceComparisonRepository.findHeadToHeadComparisons(query.driverId, query.rivalDriverId)
-        val rivalRaces = raceComparisonRepository.findHeadToHeadComparisons(query.rivalDriverId, query.driverId)
-
-        val headToHeadRaces = mergeRaceComparisons(driverRaces, rivalRaces)
+        // Get head-to-head race comparisons from the statistics columns of both drivers
+        val headToHeadRaces = statistics.headToHead(query.driverId, query.rivalDriverId)
 
         return DriverComparisonResult(
             driverId = driver.driverId,
@@ -80,8 +89,9 @@ class DriverComparisonViewComponent(
      * Creates a new driver entry in the view when a driver is created.
      */
     @EventHandler
-    fun on(event: DriverCreated) {
+    fun on(event: DriverCreated, processingContext: ProcessingContext) {
         logger.info("Handling DriverCreated event for driver: {} - {}", event.driverId, event.driverName)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val driver = DriverEntity(
             driverId = event.driverId,
@@ -99,9 +109,10 @@ class DriverComparisonViewComponent(
      * Updates driver performance ratings in race comparisons.
      */
     @EventHandler
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Handling DriverPerformanceRated event for driver: {} in race: {}", 
                    event.driverId, event.raceId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val driver = driverRepository.findByDriverId(event.driverId)
             ?: throw IllegalArgumentException("Driver not found: ${event.driverId}")
@@ -118,13 +129,13 @@ class DriverComparisonViewComponent(
                 driver = driver
             )
         } else {
-            raceComparison = raceComparison.copy(driverRating = event.rating.toDouble())
+            raceComparison = raceComparison.copy(driverRating = event.rating.toDouble(), updatedAt = Instant.now())
         }
 
         raceComparisonRepository.save(raceComparison)
 
         // Update overall rating
-        updateOverallRating(driver)
+        updateOverallRating(driver, raceComparison)
 
         logger.info("Updated performance rating for driver: {} in race: {}", event.driverId, event.raceId)
     }
@@ -134,42 +145,36 @@ class DriverComparisonViewComponent(
      * Updates existing driver ratings in race comparisons.
      */
     @EventHandler
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Handling DriverRatingUpdated event for driver: {} in race: {}", 
                    event.driverId, event.raceId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val raceComparison = raceComparisonRepository.findByRaceIdAndDriverDriverId(event.raceId, event.driverId)
             ?: throw IllegalArgumentException("Race comparison not found for driver: ${event.driverId} in race: ${event.raceId}")
 
-        val updatedComparison = raceComparison.copy(driverRating = event.newRating.toDouble())
+        val updatedComparison = raceComparison.copy(driverRating = event.newRating.toDouble(), updatedAt = Instant.now())
         raceComparisonRepository.save(updatedComparison)
 
         val driver = driverRepository.findByDriverId(event.driverId)!!
-        updateOverallRating(driver)
+        updateOverallRating(driver, updatedComparison)
 
         logger.info("Updated rating from {} to {} for driver: {} in race: {}", 
                    event.previousRating, event.newRating, event.driverId, event.raceId)
     }
 
     /**
-     * Calculates overall rating for a driver based on their race performances.
-     */
-    private fun calculateOverallRating(driver: DriverEntity): Double? {
-        val raceRatings = raceComparisonRepository.findByDriverDriverId(driver.driverId)
-            .mapNotNull { it.driverRating }
-
-        return if (raceRatings.isNotEmpty()) {
-            raceRatings.average()
-        } else {
-            null
-        }
-    }
-
-    /**
-     * Updates the overall rating for a driver and saves it to the database.
+     * Records the race rating in the statistics store and saves the driver's new overall rating, kept up to date
+     * from the running sum and count of its ratings rather than recomputed over all its races.
      */
-    private fun updateOverallRating(driver: DriverEntity) {
-        val newOverallRating = calculateOverallRating(driver)
+    private fun updateOverallRating(driver: DriverEntity, raceComparison: RaceComparisonEntity) {
+        val newOverallRating = statistics.rate(
+            driver.driverId,
+            raceComparison.raceId,
+            raceComparison.raceDate,
+            raceComparison.trackName,
+            raceComparison.driverRating
+        )
         val updatedDriver = driver.copy(overallRating = newOverallRating)
         driverRepository.save(updatedDriver)
     }
@@ -182,42 +187,4 @@ class DriverComparisonViewComponent(
         // This should ideally query a team service or repository
         return "Team $teamId"
     }
-
-    /**
-     * Merges race comparison data from both drivers to create head-to-head comparisons.
-     */
-    private fun mergeRaceComparisons(driverRaces: List<RaceComparisonEntity>, 
-                                   rivalRaces: List<RaceComparisonEntity>): List<RaceComparison> {
-        val raceMap = mutableMapOf<String, RaceComparison>()
-
-        // Add driver's race data
-        driverRaces.forEach { race ->
-            raceMap[race.raceId] = RaceComparison(
-                rivalRating = null,
-                driverRating = race.driverRating,
-                raceId = race.raceId,
-                raceDate = race.raceDate,
-                trackName = race.trackName
-            )
-        }
-
-        // Add rival's race data
-        rivalRaces.forEach { race ->
-            val existing = raceMap[race.raceId]
-            if (existing != null) {
-                raceMap[race.raceId] = existing.copy(rivalRating = race.driverRating)
-            } else {
-                raceMap[race.raceId] = RaceComparison(
-                    rivalRating = race.driverRating,
-                    driverRating = null,
-                    raceId = race.raceId,
-                    raceDate = race.raceDate,
-                    trackName = race.trackName
-                )
-            }
-        }
-
-        return raceMap.values.sortedByDescending { it.raceDate }
-    }
 }
-
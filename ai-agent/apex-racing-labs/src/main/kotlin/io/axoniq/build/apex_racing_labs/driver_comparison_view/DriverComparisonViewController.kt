@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.driver_comparison_view
 
 import io.axoniq.build.apex_racing_labs.driver_comparison_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/driver-comparison")
 class DriverComparisonViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverComparisonViewController::class.java)
@@ -25,10 +29,15 @@ class DriverComparisonViewController(
      * Returns driver details including overall rating and team information.
      */
     @GetMapping("/profile/{driverId}")
-    fun getDriverProfile(@PathVariable driverId: String): CompletableFuture<DriverProfileResult> {
+    fun getDriverProfile(
+        @PathVariable driverId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DriverProfileResult>> {
         logger.info("REST request for driver profile: {}", driverId)
-        val query = DriverProfile(driverId)
-        return queryGateway.query(query, DriverProfileResult::class.java, null)
+        return projectionVersions.conditionalGet(DriverComparisonViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DriverProfile(driverId)
+            queryGateway.query(query, DriverProfileResult::class.java, null)
+        }
     }
 
     /**
@@ -38,10 +47,13 @@ class DriverComparisonViewController(
     @GetMapping("/comparison/{driverId}/vs/{rivalDriverId}")
     fun getDriverComparison(
         @PathVariable driverId: String,
-        @PathVariable rivalDriverId: String
-    ): CompletableFuture<DriverComparisonResult> {
+        @PathVariable rivalDriverId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DriverComparisonResult>> {
         logger.info("REST request for driver comparison: {} vs {}", driverId, rivalDriverId)
-        val query = DriverComparisonCharts(driverId, rivalDriverId)
-        return queryGateway.query(query, DriverComparisonResult::class.java, null)
+        return projectionVersions.conditionalGet(DriverComparisonViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DriverComparisonCharts(driverId, rivalDriverId)
+            queryGateway.query(query, DriverComparisonResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
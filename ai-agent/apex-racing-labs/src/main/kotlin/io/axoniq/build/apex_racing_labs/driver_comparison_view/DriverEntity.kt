@@ -1,6 +1,7 @@
 package io.axoniq.build.apex_racing_labs.driver_comparison_view
 
 import jakarta.persistence.*
+import java.time.Instant
 import java.time.LocalDate
 
 /**
@@ -28,9 +29,10 @@ data class DriverEntity(
 /**
  * JPA entity representing race comparison data for drivers.
  * This entity stores individual race performance ratings for driver comparisons.
+ * The update time lets the [DriverStatisticsCheckpointer] pick up ratings written since its last checkpoint.
  */
 @Entity
-@Table(name = "race_comparison")
+@Table(name = "race_comparison", indexes = [Index(name = "idx_race_comparison_updated_at", columnList = "updated_at")])
 data class RaceComparisonEntity(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -48,7 +50,10 @@ data class RaceComparisonEntity(
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id")
-    val driver: DriverEntity
+    val driver: DriverEntity,
+
+    @Column(name = "updated_at", nullable = false)
+    val updatedAt: Instant = Instant.now()
 ) {
     constructor() : this(null, "", LocalDate.now(), "", null, null, DriverEntity())
 }
@@ -0,0 +1,21 @@
+package io.axoniq.build.apex_racing_labs.driver_comparison_view
+
+import jakarta.persistence.*
+import java.time.Instant
+
+/**
+ * Checkpoint of the columns of one driver in the [DriverStatisticsStore], encoded by the store itself.
+ */
+@Entity
+@Table(name = "driver_statistics_checkpoint")
+class DriverStatisticsCheckpointEntity(
+    @Id
+    @Column(name = "driver_id")
+    val driverId: String = "",
+
+    @Column(name = "encoded_columns", nullable = false)
+    val columns: ByteArray = ByteArray(0),
+
+    @Column(name = "checkpointed_at", nullable = false)
+    val checkpointedAt: Instant = Instant.now()
+)
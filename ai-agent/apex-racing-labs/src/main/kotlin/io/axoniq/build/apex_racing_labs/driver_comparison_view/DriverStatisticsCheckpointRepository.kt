@@ -0,0 +1,16 @@
+package io.axoniq.build.apex_racing_labs.driver_comparison_view
+
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Query
+import org.springframework.stereotype.Repository
+import java.time.Instant
+
+/**
+ * Repository for the checkpoints of the driver statistics.
+ */
+@Repository
+interface DriverStatisticsCheckpointRepository : JpaRepository<DriverStatisticsCheckpointEntity, String> {
+
+    @Query("SELECT MAX(c.checkpointedAt) FROM DriverStatisticsCheckpointEntity c")
+    fun findLatestCheckpointTime(): Instant?
+}
@@ -0,0 +1,108 @@
+package io.axoniq.build.apex_racing_labs.driver_comparison_view
+
+import jakarta.annotation.PostConstruct
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Restores the [DriverStatisticsStore] at startup and checkpoints it to the database.
+ *
+ * The store is restored from the checkpoints of all drivers, then brought up to date with the ratings written
+ * after the latest checkpoint. This happens before the event processors start, so the overall ratings the event
+ * handlers compute from the store always include every earlier rating. Every [interval] the drivers whose ratings
+ * changed are checkpointed, after picking up the ratings written since the previous run, which includes the ratings
+ * written by other instances. Each catch-up looks back an extra [OVERLAP]; re-applying a rating is harmless.
+ */
+@Component
+class DriverStatisticsCheckpointer(
+    private val store: DriverStatisticsStore,
+    private val checkpointRepository: DriverStatisticsCheckpointRepository,
+    private val raceComparisonRepository: RaceComparisonRepository,
+    @Value("\${apex-racing-labs.driver-statistics.checkpoint-interval:PT30S}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(DriverStatisticsCheckpointer::class.java)
+        private val OVERLAP: Duration = Duration.ofMinutes(1)
+        private val SHUTDOWN_TIMEOUT: Duration = Duration.ofSeconds(10)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "driver-statistics-checkpointer").apply { isDaemon = true }
+    }
+
+    @Volatile
+    private var caughtUpUntil: Instant = Instant.EPOCH
+
+    @PostConstruct
+    fun restore() {
+        val startedAt = Instant.now()
+        val latestCheckpoint = checkpointRepository.findLatestCheckpointTime()
+        checkpointRepository.findAll().forEach { checkpoint -> store.restore(checkpoint.driverId, checkpoint.columns) }
+        val caughtUp = catchUp(latestCheckpoint?.minus(OVERLAP) ?: Instant.EPOCH)
+        caughtUpUntil = startedAt
+        logger.info("Restored statistics of {} drivers, applying {} ratings since the latest checkpoint",
+            store.driverCount, caughtUp)
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::checkpointSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    /**
+     * Lets a running checkpoint finish before taking a final one, so the two never write at the same time.
+     */
+    @PreDestroy
+    fun stop() {
+        executor.shutdown()
+        executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+        checkpointSafely()
+    }
+
+    /**
+     * Applies the ratings written since the previous run and checkpoints the drivers whose ratings changed.
+     */
+    fun checkpoint() {
+        val startedAt = Instant.now()
+        catchUp(caughtUpUntil.minus(OVERLAP))
+        caughtUpUntil = startedAt
+        val changed = store.drainDirty()
+        if (changed.isEmpty()) {
+            return
+        }
+        try {
+            checkpointRepository.saveAll(changed.map { (driverId, columns) ->
+                DriverStatisticsCheckpointEntity(driverId, columns, startedAt)
+            })
+        } catch (e: Exception) {
+            store.markDirty(changed.keys)
+            throw e
+        }
+        logger.debug("Checkpointed statistics of {} drivers", changed.size)
+    }
+
+    private fun catchUp(since: Instant): Int {
+        val rows = raceComparisonRepository.findRatingsUpdatedSince(since)
+        rows.forEach { row -> store.rate(row.driverId, row.raceId, row.raceDate, row.trackName, row.driverRating) }
+        return rows.size
+    }
+
+    private fun checkpointSafely() {
+        try {
+            checkpoint()
+        } catch (e: Exception) {
+            logger.error("Failed to checkpoint the driver statistics", e)
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.axoniq.build.apex_racing_labs.driver_comparison_view
+
+import io.axoniq.build.apex_racing_labs.driver_comparison_view.api.RaceComparison
+import org.springframework.stereotype.Component
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.ByteBuffer
+import java.nio.DoubleBuffer
+import java.nio.IntBuffer
+import java.time.LocalDate
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+/**
+ * Columnar in-memory store of the race ratings of every driver, serving the driver comparison view.
+ *
+ * Each driver has two fixed-width columns in direct (off-heap) buffers: the races it was rated in, as indexes into
+ * a shared race dictionary, and its rating in each of them. Next to the columns it keeps the running sum and count
+ * of its ratings, so recording a rating and reading the overall rating are O(1). Head-to-head comparisons walk the
+ * columns of the driver with the fewest races and look up the rival's rating per race, without loading any entity.
+ *
+ * Drivers whose ratings changed are tracked as dirty until the [DriverStatisticsCheckpointer] writes their columns
+ * to the database. Reads and writes are guarded by a read-write lock.
+ */
+@Component
+class DriverStatisticsStore {
+
+    private class Race(val raceId: String, val raceDate: LocalDate, val trackName: String)
+
+    private class DriverColumns {
+        var size = 0
+        var races: IntBuffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY * Int.SIZE_BYTES).asIntBuffer()
+        var ratings: DoubleBuffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY * Double.SIZE_BYTES).asDoubleBuffer()
+        val slots = HashMap<Int, Int>()
+        var sum = 0.0
+        var count = 0
+
+        fun average(): Double? = if (count > 0) sum / count else null
+
+        fun rating(slot: Int): Double? = ratings.get(slot).takeUnless { it.isNaN() }
+
+        /**
+         * Sets the rating of a race, NaN for none, keeping the running sum and count in line. Returns whether it changed.
+         */
+        fun set(race: Int, rating: Double): Boolean {
+            val slot = slots[race]
+            if (slot == null) {
+                ensureCapacity()
+                races.put(size, race)
+                ratings.put(size, rating)
+                slots[race] = size++
+                add(rating, 1)
+                return true
+            }
+            val previous = ratings.get(slot)
+            if (previous == rating || (previous.isNaN() && rating.isNaN())) {
+                return false
+            }
+            add(previous, -1)
+            ratings.put(slot, rating)
+            add(rating, 1)
+            return true
+        }
+
+        private fun add(rating: Double, sign: Int) {
+            if (!rating.isNaN()) {
+                sum += sign * rating
+                count += sign
+            }
+        }
+
+        private fun ensureCapacity() {
+            if (size < races.capacity()) {
+                return
+            }
+            val capacity = races.capacity() * 2
+            races = ByteBuffer.allocateDirect(capacity * Int.SIZE_BYTES).asIntBuffer().put(0, races, 0, size)
+            ratings = ByteBuffer.allocateDirect(capacity * Double.SIZE_BYTES).asDoubleBuffer().put(0, ratings, 0, size)
+        }
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 16
+    }
+
+    private val lock = ReentrantReadWriteLock()
+    private val races = ArrayList<Race>()
+    private val raceIndex = HashMap<String, Int>()
+    private val drivers = HashMap<String, DriverColumns>()
+    private val dirty = HashSet<String>()
+
+    val driverCount: Int
+        get() = lock.read { drivers.size }
+
+    /**
+     * Records the rating of a driver in a race and returns the driver's new overall rating. The race date and track
+     * name are taken from the first rating of the race.
+     */
+    fun rate(driverId: String, raceId: String, raceDate: LocalDate, trackName: String, rating: Double?): Double? =
+        lock.write {
+            val columns = drivers.getOrPut(driverId) { DriverColumns() }
+            if (columns.set(raceOf(raceId, raceDate, trackName), rating ?: Double.NaN)) {
+                dirty.add(driverId)
+            }
+            columns.average()
+        }
+
+    /**
+     * The average of the driver's race ratings, or null when it has none.
+     */
+    fun overallRating(driverId: String): Double? = lock.read { drivers[driverId]?.average() }
+
+    /**
+     * The races both drivers were rated in, with both ratings, most recent first.
+     */
+    fun headToHead(driverId: String, rivalDriverId: String): List<RaceComparison> = lock.read {
+        val driver = drivers[driverId] ?: return emptyList()
+        val rival = drivers[rivalDriverId] ?: return emptyList()
+        val (walked, probed) = if (driver.size <= rival.size) driver to rival else rival to driver
+        val comparisons = ArrayList<RaceComparison>()
+        for (slot in 0 until walked.size) {
+            val race = walked.races.get(slot)
+            val rivalSlot = probed.slots[race] ?: continue
+            val (driverRating, rivalRating) = if (walked === driver) {
+                walked.rating(slot) to probed.rating(rivalSlot)
+            } else {
+                probed.rating(rivalSlot) to walked.rating(slot)
+            }
+            val info = races[race]
+            comparisons.add(RaceComparison(rivalRating, driverRating, info.raceId, info.raceDate, info.trackName))
+        }
+        comparisons.sortedByDescending { it.raceDate }
+    }
+
+    /**
+     * Returns the drivers whose ratings changed since the previous call, with their encoded columns.
+     */
+    fun drainDirty(): Map<String, ByteArray> = lock.write {
+        dirty.associateWith { driverId -> encode(drivers.getValue(driverId)) }.also { dirty.clear() }
+    }
+
+    /**
+     * Marks drivers as dirty again, when writing the columns returned by [drainDirty] failed.
+     */
+    fun markDirty(driverIds: Collection<String>) = lock.write {
+        dirty.addAll(driverIds.filter { it in drivers })
+    }
+
+    /**
+     * Replaces the columns of a driver with ones previously returned by [drainDirty].
+     */
+    fun restore(driverId: String, encoded: ByteArray) = lock.write {
+        val columns = DriverColumns()
+        DataInputStream(ByteArrayInputStream(encoded)).use { input ->
+            repeat(input.readInt()) {
+                val raceId = input.readUTF()
+                val raceDate = LocalDate.ofEpochDay(input.readLong())
+                val trackName = input.readUTF()
+                columns.set(raceOf(raceId, raceDate, trackName), input.readDouble())
+            }
+        }
+        drivers[driverId] = columns
+    }
+
+    private fun encode(columns: DriverColumns): ByteArray {
+        val bytes = ByteArrayOutputStream(16 + columns.size * 32)
+        DataOutputStream(bytes).use { output ->
+            output.writeInt(columns.size)
+            for (slot in 0 until columns.size) {
+                val race = races[columns.races.get(slot)]
+                output.writeUTF(race.raceId)
+                output.writeLong(race.raceDate.toEpochDay())
+                output.writeUTF(race.trackName)
+                output.writeDouble(columns.ratings.get(slot))
+            }
+        }
+        return bytes.toByteArray()
+    }
+
+    private fun raceOf(raceId: String, raceDate: LocalDate, trackName: String): Int =
+        raceIndex.getOrPut(raceId) {
+            races.add(Race(raceId, raceDate, trackName))
+            races.size - 1
+        }
+}
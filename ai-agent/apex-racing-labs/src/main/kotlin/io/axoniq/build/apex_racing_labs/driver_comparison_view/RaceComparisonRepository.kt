@@ -4,6 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository
 import org.springframework.data.jpa.repository.Query
 import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import java.time.Instant
+import java.time.LocalDate
 
 /**
  * Repository interface for race comparison data.
@@ -30,5 +32,23 @@ interface RaceComparisonRepository : JpaRepository<RaceComparisonEntity, Long> {
            "AND rc.driver.driverId = :driverId")
     fun findHeadToHeadComparisons(@Param("driverId") driverId: String, 
                                  @Param("rivalDriverId") rivalDriverId: String): List<RaceComparisonEntity>
+
+    /**
+     * Finds the ratings updated since the given time as flat rows, without loading entities.
+     */
+    @Query("SELECT rc.driver.driverId AS driverId, rc.raceId AS raceId, rc.raceDate AS raceDate, " +
+           "rc.trackName AS trackName, rc.driverRating AS driverRating " +
+           "FROM RaceComparisonEntity rc WHERE rc.updatedAt >= :since")
+    fun findRatingsUpdatedSince(@Param("since") since: Instant): List<DriverRatingRow>
 }
 
+/**
+ * Flat projection of a driver's rating in a race.
+ */
+interface DriverRatingRow {
+    val driverId: String
+    val raceId: String
+    val raceDate: LocalDate
+    val trackName: String
+    val driverRating: Double?
+}
@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.driver_history_view
 
 import io.axoniq.build.apex_racing_labs.driver_history_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -16,10 +18,16 @@ import java.time.LocalDate
 @Component
 class DriverHistoryViewComponent(
     private val driverHistoryRepository: DriverHistoryRepository,
-    private val driverRaceHistoryRepository: DriverRaceHistoryRepository
+    private val driverRaceHistoryRepository: DriverRaceHistoryRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverHistoryViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "driver-history-view"
     }
 
     /**
@@ -59,8 +67,9 @@ class DriverHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Handling DriverPerformanceRated event for driver: ${event.driverId}, race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Update or create driver history
         val driverHistory = driverHistoryRepository.findById(event.driverId).orElse(null)
@@ -114,8 +123,9 @@ class DriverHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Handling DriverRatingUpdated event for driver: ${event.driverId}, race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val raceHistory = driverRaceHistoryRepository.findByDriverIdAndRaceId(event.driverId, event.raceId)
         if (raceHistory != null) {
@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.driver_history_view
 
 import io.axoniq.build.apex_racing_labs.driver_history_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/driver-history")
 class DriverHistoryViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverHistoryViewController::class.java)
@@ -27,9 +31,14 @@ class DriverHistoryViewController(
      * @return Driver performance history data
      */
     @GetMapping("/{driverId}")
-    fun getDriverHistory(@PathVariable driverId: String): CompletableFuture<DriverHistoryResult> {
+    fun getDriverHistory(
+        @PathVariable driverId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DriverHistoryResult>> {
         logger.info("Received request to get driver history for driver: $driverId")
-        val query = DriverPerformanceHistory(driverId)
-        return queryGateway.query(query, DriverHistoryResult::class.java, null)
+        return projectionVersions.conditionalGet(DriverHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DriverPerformanceHistory(driverId)
+            queryGateway.query(query, DriverHistoryResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.driver_management
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.driver_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Driver Management Service.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/drivers")
 class DriverManagementServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverManagementServiceController::class.java)
@@ -28,7 +30,7 @@ class DriverManagementServiceController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping
-    fun createDriver(@RequestBody request: CreateDriverRequest): ResponseEntity<String> {
+    fun createDriver(@RequestBody request: CreateDriverRequest): Mono<ResponseEntity<String>> {
         val command = CreateDriver(
             teamId = request.teamId,
             driverId = request.driverId,
@@ -36,13 +38,12 @@ class DriverManagementServiceController(
         )
         logger.info("Dispatching CreateDriver command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateDriver command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create driver")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateDriver command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create driver"))
+            }
     }
 
     /**
@@ -52,17 +53,16 @@ class DriverManagementServiceController(
      * @return ResponseEntity with success or error message
      */
     @DeleteMapping("/{driverId}")
-    fun removeDriver(@PathVariable driverId: String): ResponseEntity<String> {
+    fun removeDriver(@PathVariable driverId: String): Mono<ResponseEntity<String>> {
         val command = RemoveDriver(driverId = driverId)
         logger.info("Dispatching RemoveDriver command: $command")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver removal accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RemoveDriver command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove driver")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver removal accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RemoveDriver command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove driver"))
+            }
     }
 
     /**
@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.driver_performance_view
 
 import io.axoniq.build.apex_racing_labs.driver_performance_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -17,10 +19,16 @@ import java.math.RoundingMode
 @Component
 class DriverPerformanceViewComponent(
     private val driverPerformanceRepository: DriverPerformanceRepository,
-    private val userDriverRatingRepository: UserDriverRatingRepository
+    private val userDriverRatingRepository: UserDriverRatingRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverPerformanceViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "driver-performance-view"
     }
 
     /**
@@ -58,8 +66,9 @@ class DriverPerformanceViewComponent(
      * Creates or updates driver performance data when a new rating is submitted.
      */
     @EventHandler
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Processing DriverPerformanceRated event for driverId: ${event.driverId}, raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val performanceId = "${event.driverId}-${event.raceId}"
         val existingPerformance = driverPerformanceRepository.findByDriverIdAndRaceId(event.driverId, event.raceId)
@@ -117,8 +126,9 @@ class DriverPerformanceViewComponent(
      * Updates existing driver performance data when a rating is modified.
      */
     @EventHandler
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Processing DriverRatingUpdated event for driverId: ${event.driverId}, raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val existingPerformance = driverPerformanceRepository.findByDriverIdAndRaceId(event.driverId, event.raceId)
         if (existingPerformance != null) {
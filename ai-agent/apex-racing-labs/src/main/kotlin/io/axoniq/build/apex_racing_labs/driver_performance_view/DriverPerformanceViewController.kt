@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.driver_performance_view
 
 import io.axoniq.build.apex_racing_labs.driver_performance_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/driver-performance")
 class DriverPerformanceViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverPerformanceViewController::class.java)
@@ -27,11 +31,13 @@ class DriverPerformanceViewController(
     @GetMapping("/{driverId}/race/{raceId}")
     fun getDriverRacePerformance(
         @PathVariable driverId: String,
-        @PathVariable raceId: String
-    ): CompletableFuture<DriverRacePerformanceResult> {
+        @PathVariable raceId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DriverRacePerformanceResult>> {
         logger.info("REST request for driver performance - driverId: $driverId, raceId: $raceId")
-        
-        val query = DriverRacePerformance(driverId, raceId)
-        return queryGateway.query(query, DriverRacePerformanceResult::class.java, null)
+        return projectionVersions.conditionalGet(DriverPerformanceViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DriverRacePerformance(driverId, raceId)
+            queryGateway.query(query, DriverRacePerformanceResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.driver_rating
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.driver_rating.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Driver Performance Rating Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/driver-ratings")
 class DriverPerformanceRatingServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriverPerformanceRatingServiceController::class.java)
@@ -29,17 +31,18 @@ class DriverPerformanceRatingServiceController(
      * @return ResponseEntity with HTTP 202 Accepted on success or appropriate error response
      */
     @PostMapping("/rate")
-    fun rateDriverPerformance(@RequestBody request: RateDriverPerformance): ResponseEntity<String> {
+    fun rateDriverPerformance(@RequestBody request: RateDriverPerformance): Mono<ResponseEntity<String>> {
         logger.info("Received request to rate driver performance: $request")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            logger.info("Successfully dispatched RateDriverPerformance command")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver performance rating accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RateDriverPerformance command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to rate driver performance")
-        }
+        return commandDispatcher.send(request)
+            .then(Mono.fromSupplier {
+                logger.info("Successfully dispatched RateDriverPerformance command")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver performance rating accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RateDriverPerformance command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to rate driver performance"))
+            }
     }
 
     /**
@@ -50,17 +53,18 @@ class DriverPerformanceRatingServiceController(
      * @return ResponseEntity with HTTP 202 Accepted on success or appropriate error response
      */
     @PostMapping("/update")
-    fun updateDriverRating(@RequestBody request: UpdateDriverRating): ResponseEntity<String> {
+    fun updateDriverRating(@RequestBody request: UpdateDriverRating): Mono<ResponseEntity<String>> {
         logger.info("Received request to update driver rating: $request")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            logger.info("Successfully dispatched UpdateDriverRating command")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver rating update accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch UpdateDriverRating command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update driver rating")
-        }
+        return commandDispatcher.send(request)
+            .then(Mono.fromSupplier {
+                logger.info("Successfully dispatched UpdateDriverRating command")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Driver rating update accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch UpdateDriverRating command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update driver rating"))
+            }
     }
 }
 
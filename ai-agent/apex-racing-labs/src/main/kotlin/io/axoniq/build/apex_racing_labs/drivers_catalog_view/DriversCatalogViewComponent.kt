@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.drivers_catalog_view
 
 import io.axoniq.build.apex_racing_labs.drivers_catalog_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -14,11 +16,17 @@ import org.springframework.stereotype.Component
  */
 @Component
 class DriversCatalogViewComponent(
-    private val driverRepository: DriverRepository
+    private val driverRepository: DriverRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DriversCatalogViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "drivers-catalog-view"
     }
 
     /**
@@ -85,8 +93,9 @@ class DriversCatalogViewComponent(
      * @param event The driver created event
      */
     @EventHandler
-    fun on(event: DriverCreated) {
+    fun on(event: DriverCreated, processingContext: ProcessingContext) {
         logger.info("Handling DriverCreated event for driver: {}", event.driverId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         // Find team name - for now using teamId as teamName since team name is not in the event
         val teamName = event.teamId // This could be enhanced to lookup actual team name
@@ -111,8 +120,9 @@ class DriversCatalogViewComponent(
      * @param event The driver removed event
      */
     @EventHandler
-    fun on(event: DriverRemoved) {
+    fun on(event: DriverRemoved, processingContext: ProcessingContext) {
         logger.info("Handling DriverRemoved event for driver: {}", event.driverId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val driverEntity = driverRepository.findById(event.driverId)
 
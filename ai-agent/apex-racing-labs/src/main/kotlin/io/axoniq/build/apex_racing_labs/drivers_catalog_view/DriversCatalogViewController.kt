@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.drivers_catalog_view
 
 import io.axoniq.build.apex_racing_labs.drivers_catalog_view.api.*
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/drivers-catalog")
 class DriversCatalogViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -30,11 +34,14 @@ class DriversCatalogViewController(
      * @return CompletableFuture containing the available drivers result
      */
     @GetMapping("/available")
-    fun getAvailableDrivers(): CompletableFuture<AvailableDriversResult> {
+    fun getAvailableDrivers(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AvailableDriversResult>> {
         logger.info("REST request for available drivers")
-
-        val query = AvailableDrivers()
-        return queryGateway.query(query, AvailableDriversResult::class.java, null)
+        return projectionVersions.conditionalGet(DriversCatalogViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AvailableDrivers()
+            queryGateway.query(query, AvailableDriversResult::class.java, null)
+        }
     }
 
     /**
@@ -46,10 +53,14 @@ class DriversCatalogViewController(
      * @return CompletableFuture containing the driver details result
      */
     @GetMapping("/{driverId}")
-    fun getDriverDetails(@PathVariable driverId: String): CompletableFuture<DriverDetailsResult> {
+    fun getDriverDetails(
+        @PathVariable driverId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DriverDetailsResult>> {
         logger.info("REST request for driver details: {}", driverId)
-
-        val query = DriverDetails(driverId = driverId)
-        return queryGateway.query(query, DriverDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(DriversCatalogViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DriverDetails(driverId = driverId)
+            queryGateway.query(query, DriverDetailsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package io.axoniq.build.apex_racing_labs.metrics
+
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import jakarta.annotation.PreDestroy
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.processors.streaming.StreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.ApplicationContext
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import org.springframework.util.ClassUtils
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Publishes how far each event processor trails the head of the event store, as the gauge
+ * `apexracinglabs.projection.lag`: the head position minus the position of the processor's slowest segment, tagged with
+ * the processor name. A processor that has not processed any event yet trails by the whole store.
+ *
+ * The event processors are named after the packages of the beans with `@EventHandler` methods and looked up in the
+ * Axon configuration and its modules. Positions are sampled every
+ * `apex-racing-labs.metrics.lag-interval` on a background thread, so scraping never waits for the event store.
+ */
+@Component
+class ProjectionLagMonitor(
+    private val configuration: AxonConfiguration,
+    private val applicationContext: ApplicationContext,
+    private val meterRegistry: MeterRegistry,
+    @Value("\${apex-racing-labs.metrics.lag-interval:PT5S}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProjectionLagMonitor::class.java)
+    }
+
+    private val lags = ConcurrentHashMap<String, AtomicLong>()
+
+    private val processorNames: List<String> by lazy {
+        applicationContext.beanDefinitionNames
+            .mapNotNull { name -> applicationContext.getType(name)?.let(ClassUtils::getUserClass) }
+            .filter { type -> type.declaredMethods.any { it.isAnnotationPresent(EventHandler::class.java) } }
+            .map { it.packageName }
+            .distinct()
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "projection-lag-monitor").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::sampleSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Samples the head of the event store and the position of every event processor.
+     */
+    fun sample() {
+        val head = configuration.getComponent(EventStore::class.java).latestToken(null).join()
+            .position().orElse(0)
+        processorNames.forEach { name ->
+            val processor = processor(name) ?: return@forEach
+            val processed = processor.processingStatus().values
+                .map { status -> status.currentPosition.orElse(0) }
+                .minOrNull() ?: return@forEach
+            lagGauge(name).set(maxOf(0, head - processed))
+        }
+    }
+
+    private fun lagGauge(processorName: String): AtomicLong =
+        lags.computeIfAbsent(processorName) { name ->
+            AtomicLong().also { lag ->
+                Gauge.builder("apexracinglabs.projection.lag", lag) { it.get().toDouble() }
+                    .description("Number of events in the event store an event processor has not processed yet")
+                    .tags("processor", name.substringAfterLast('.'))
+                    .register(meterRegistry)
+            }
+        }
+
+    private fun processor(name: String): StreamingEventProcessor? {
+        fun search(config: Configuration): Sequence<StreamingEventProcessor> =
+            sequenceOf(config.getOptionalComponent(PooledStreamingEventProcessor::class.java, name).orElse(null))
+                .filterNotNull<StreamingEventProcessor>() + config.moduleConfigurations.asSequence().flatMap(::search)
+        return search(configuration).firstOrNull()
+    }
+
+    private fun sampleSafely() {
+        try {
+            sample()
+        } catch (e: Exception) {
+            logger.warn("Failed to sample projection lag", e)
+        }
+    }
+}
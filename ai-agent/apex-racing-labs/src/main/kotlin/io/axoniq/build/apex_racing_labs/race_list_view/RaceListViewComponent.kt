@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.race_list_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.race_list_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -9,14 +11,20 @@ import org.springframework.stereotype.Component
 
 /**
  * Race List View component that handles race listing queries and maintains race data.
- * Provides chronological race listings with ratings and search functionality.
+ * Provides chronological race listings with ratings.
  */
 @Component
 class RaceListViewComponent(
-    private val raceRepository: RaceRepository
+    private val raceRepository: RaceRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RaceListViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "race-list-view"
     }
 
     /**
@@ -43,37 +51,14 @@ class RaceListViewComponent(
         return RaceListResult(races = raceItems)
     }
 
-    /**
-     * Handles RaceSearchResults query to search races by track name.
-     * Returns races that match the search term in their track name.
-     */
-    @QueryHandler
-    fun handle(query: RaceSearchResults): RaceSearchResult {
-        logger.info("Processing RaceSearchResults query for search term: '{}'", query.searchTerm)
-
-        val matchingRaces = raceRepository.findByTrackNameContainingIgnoreCase(query.searchTerm)
-        val searchItems = matchingRaces.map { race ->
-            RaceSearchItem(
-                raceId = race.raceId,
-                raceDate = race.raceDate,
-                trackName = race.trackName
-            )
-        }
-
-        logger.debug("Found {} races matching search term '{}'", searchItems.size, query.searchTerm)
-        return RaceSearchResult(
-            success = true,
-            races = searchItems
-        )
-    }
-
     /**
      * Handles RaceCreated event to add a new race to the view.
      * Creates a new race entry with initial status and no ratings.
      */
     @EventHandler
-    fun on(event: RaceCreated) {
+    fun on(event: RaceCreated, processingContext: ProcessingContext) {
         logger.info("Processing RaceCreated event for race: {}", event.raceId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val raceEntity = RaceEntity(
             raceId = event.raceId,
@@ -93,8 +78,9 @@ class RaceListViewComponent(
      * Updates the race status to cancelled in the view.
      */
     @EventHandler
-    fun on(event: RaceCancelled) {
+    fun on(event: RaceCancelled, processingContext: ProcessingContext) {
         logger.info("Processing RaceCancelled event for race: {}", event.raceId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingRace = raceRepository.findById(event.raceId).orElse(null)
         if (existingRace != null) {
@@ -111,8 +97,9 @@ class RaceListViewComponent(
      * Recalculates total ratings and average rating when a new rating is added.
      */
     @EventHandler
-    fun on(event: RaceRated) {
+    fun on(event: RaceRated, processingContext: ProcessingContext) {
         logger.info("Processing RaceRated event for race: {} with rating: {}", event.raceId, event.rating)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingRace = raceRepository.findById(event.raceId).orElse(null)
         if (existingRace != null) {
@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.race_management
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.race_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 import java.time.LocalDate
 
 /**
@@ -16,7 +18,7 @@ import java.time.LocalDate
 @RestController
 @RequestMapping("/api/race-management")
 class RaceManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RaceManagementController::class.java)
@@ -29,7 +31,7 @@ class RaceManagementController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping("/races")
-    fun createRace(@RequestBody request: CreateRaceRequest): ResponseEntity<String> {
+    fun createRace(@RequestBody request: CreateRaceRequest): Mono<ResponseEntity<String>> {
         val command = CreateRace(
             raceId = request.raceId,
             participatingDriverIds = request.participatingDriverIds,
@@ -39,13 +41,12 @@ class RaceManagementController(
 
         logger.info("Dispatching CreateRace command: {}", command)
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Race creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateRace command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create race")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Race creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateRace command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create race"))
+            }
     }
 
     /**
@@ -55,18 +56,17 @@ class RaceManagementController(
      * @return ResponseEntity with success or error message
      */
     @DeleteMapping("/races/{raceId}")
-    fun cancelRace(@PathVariable raceId: String): ResponseEntity<String> {
+    fun cancelRace(@PathVariable raceId: String): Mono<ResponseEntity<String>> {
         val command = CancelRace(raceId = raceId)
 
         logger.info("Dispatching CancelRace command: {}", command)
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Race cancellation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CancelRace command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to cancel race")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Race cancellation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CancelRace command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to cancel race"))
+            }
     }
 
     /**
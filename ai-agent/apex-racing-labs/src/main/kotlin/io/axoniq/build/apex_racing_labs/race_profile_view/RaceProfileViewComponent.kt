@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.race_profile_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.race_profile_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -17,11 +19,17 @@ import org.springframework.transaction.annotation.Transactional
 class RaceProfileViewComponent(
     private val raceProfileRepository: RaceProfileRepository,
     private val userCommentRepository: UserCommentRepository,
-    private val driverInfoRepository: DriverInfoRepository
+    private val driverInfoRepository: DriverInfoRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RaceProfileViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "race-profile-view"
     }
 
     /**
@@ -68,8 +76,9 @@ class RaceProfileViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: RaceCreated) {
+    fun on(event: RaceCreated, processingContext: ProcessingContext) {
         logger.info("Handling RaceCreated event for raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val raceProfile = RaceProfileEntity(
             raceId = event.raceId,
@@ -99,8 +108,9 @@ class RaceProfileViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: RaceRated) {
+    fun on(event: RaceRated, processingContext: ProcessingContext) {
         logger.info("Handling RaceRated event for raceId: ${event.raceId}, userId: ${event.userId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Save or update user comment
         val existingComment = userCommentRepository.findByRaceIdAndUserId(event.raceId, event.userId)
@@ -129,8 +139,9 @@ class RaceProfileViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Handling DriverPerformanceRated event for driverId: ${event.driverId}, raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Update driver average rating (simplified - in real implementation would calculate from all ratings)
         val driverInfo = driverInfoRepository.findByRaceIdAndDriverId(event.raceId, event.driverId)
@@ -147,8 +158,9 @@ class RaceProfileViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Handling DriverRatingUpdated event for driverId: ${event.driverId}, raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val driverInfo = driverInfoRepository.findByRaceIdAndDriverId(event.raceId, event.driverId)
         if (driverInfo != null) {
@@ -164,8 +176,9 @@ class RaceProfileViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: RaceCancelled) {
+    fun on(event: RaceCancelled, processingContext: ProcessingContext) {
         logger.info("Handling RaceCancelled event for raceId: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val raceProfile = raceProfileRepository.findById(event.raceId).orElse(null)
         if (raceProfile != null) {
@@ -1,10 +1,13 @@
 package io.axoniq.build.apex_racing_labs.race_profile_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.race_profile_view.api.RaceProfile
 import io.axoniq.build.apex_racing_labs.race_profile_view.api.RaceProfileResult
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/race-profiles")
 class RaceProfileViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -27,10 +31,14 @@ class RaceProfileViewController(
      * Returns race information with ratings, comments, and participating drivers.
      */
     @GetMapping("/{raceId}")
-    fun getRaceProfile(@PathVariable raceId: String): CompletableFuture<RaceProfileResult> {
+    fun getRaceProfile(
+        @PathVariable raceId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<RaceProfileResult>> {
         logger.info("REST request for race profile with raceId: $raceId")
-
-        val query = RaceProfile(raceId)
-        return queryGateway.query(query, RaceProfileResult::class.java, null)
+        return projectionVersions.conditionalGet(RaceProfileViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = RaceProfile(raceId)
+            queryGateway.query(query, RaceProfileResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
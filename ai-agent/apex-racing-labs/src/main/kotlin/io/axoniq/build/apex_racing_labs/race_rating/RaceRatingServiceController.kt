@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.race_rating
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.race_rating.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Race Rating Service operations.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/race-rating")
 class RaceRatingServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RaceRatingServiceController::class.java)
@@ -28,7 +30,7 @@ class RaceRatingServiceController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/rate")
-    fun rateRace(@RequestBody request: RateRaceRequest): ResponseEntity<String> {
+    fun rateRace(@RequestBody request: RateRaceRequest): Mono<ResponseEntity<String>> {
         val command = RateRace(
             raceId = request.raceId,
             userId = request.userId,
@@ -37,13 +39,12 @@ class RaceRatingServiceController(
         )
 
         logger.info("Dispatching RateRace command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Race rating accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RateRace command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to rate race: ${ex.message}")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Race rating accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RateRace command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to rate race: ${ex.message}"))
+            }
     }
     
     /**
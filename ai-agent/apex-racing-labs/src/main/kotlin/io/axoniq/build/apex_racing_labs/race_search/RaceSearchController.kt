@@ -1,12 +1,12 @@
 package io.axoniq.build.apex_racing_labs.race_search
 
-import io.axoniq.build.apex_racing_labs.race_search.api.SearchRaces
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.apex_racing_labs.race_search.api.RaceSearchResult
+import io.axoniq.build.apex_racing_labs.race_search.api.RaceSearchResults
+import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
-import org.springframework.http.HttpStatus
-import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import java.util.concurrent.CompletableFuture
 
 /**
  * REST Controller for Race Search Service
@@ -15,39 +15,24 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/race-search")
 class RaceSearchController(
-    private val commandGateway: CommandGateway
+    private val queryGateway: QueryGateway
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RaceSearchController::class.java)
     }
 
     /**
-     * Search for races endpoint
-     * Accepts search requests and dispatches SearchRaces command
+     * Search for races by track, driver or team name, best matches first.
+     * Pass the returned nextCursor to read the next page.
      */
-    @PostMapping("/search")
-    fun searchRaces(@RequestBody request: SearchRacesRequest): ResponseEntity<String> {
-        val command = SearchRaces(
-            searchTerm = request.searchTerm,
-            userId = request.userId
-        )
-        
-        logger.info("Dispatching SearchRaces command: $command")
-
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Race search request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch SearchRaces command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to process race search request")
-        }
+    @GetMapping
+    fun searchRaces(
+        @RequestParam searchTerm: String,
+        @RequestParam(required = false) cursor: String?,
+        @RequestParam(required = false) pageSize: Int?
+    ): CompletableFuture<RaceSearchResult> {
+        logger.info("Received search request for term: '{}'", searchTerm)
+        val query = RaceSearchResults(searchTerm = searchTerm, cursor = cursor, pageSize = pageSize)
+        return queryGateway.query(query, RaceSearchResult::class.java, null)
     }
 }
-
-/**
- * Request model for race search endpoint
- */
-data class SearchRacesRequest(
-    val searchTerm: String,
-    val userId: String?
-)
\ No newline at end of file
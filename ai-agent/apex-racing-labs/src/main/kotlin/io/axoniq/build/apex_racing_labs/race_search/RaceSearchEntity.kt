@@ -0,0 +1,74 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import jakarta.persistence.*
+import java.time.Instant
+import java.time.LocalDate
+
+/**
+ * Search document of a race: the race fields the search index is built from.
+ * Participating driver ids are stored comma-separated; driver names are resolved through [RaceSearchDriverEntity].
+ */
+@Entity
+@Table(name = "race_search_races", indexes = [Index(name = "idx_race_search_races_updated_at", columnList = "updated_at")])
+data class RaceSearchRaceEntity(
+    @Id
+    @Column(name = "race_id")
+    val raceId: String = "",
+
+    @Column(name = "race_date", nullable = false)
+    val raceDate: LocalDate = LocalDate.now(),
+
+    @Column(name = "track_name", nullable = false)
+    val trackName: String = "",
+
+    @Column(name = "participating_driver_ids", nullable = false, columnDefinition = "TEXT")
+    val participatingDriverIds: String = "",
+
+    @Column(name = "updated_at", nullable = false)
+    val updatedAt: Instant = Instant.now()
+) {
+    fun driverIds(): List<String> = participatingDriverIds.split(',').filter { it.isNotEmpty() }
+}
+
+/**
+ * Search document of a driver. Removed drivers are flagged rather than deleted, so the index learns about the removal.
+ */
+@Entity
+@Table(name = "race_search_drivers", indexes = [Index(name = "idx_race_search_drivers_updated_at", columnList = "updated_at")])
+data class RaceSearchDriverEntity(
+    @Id
+    @Column(name = "driver_id")
+    val driverId: String = "",
+
+    @Column(name = "driver_name", nullable = false)
+    val driverName: String = "",
+
+    @Column(name = "team_id", nullable = false)
+    val teamId: String = "",
+
+    @Column(name = "removed", nullable = false)
+    val removed: Boolean = false,
+
+    @Column(name = "updated_at", nullable = false)
+    val updatedAt: Instant = Instant.now()
+)
+
+/**
+ * Search document of a team. Removed teams are flagged rather than deleted, so the index learns about the removal.
+ */
+@Entity
+@Table(name = "race_search_teams", indexes = [Index(name = "idx_race_search_teams_updated_at", columnList = "updated_at")])
+data class RaceSearchTeamEntity(
+    @Id
+    @Column(name = "team_id")
+    val teamId: String = "",
+
+    @Column(name = "team_name", nullable = false)
+    val teamName: String = "",
+
+    @Column(name = "removed", nullable = false)
+    val removed: Boolean = false,
+
+    @Column(name = "updated_at", nullable = false)
+    val updatedAt: Instant = Instant.now()
+)
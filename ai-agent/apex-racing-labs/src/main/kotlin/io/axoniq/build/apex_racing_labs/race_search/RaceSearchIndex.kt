@@ -0,0 +1,169 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import org.springframework.stereotype.Component
+import java.text.Normalizer
+import java.time.LocalDate
+import java.util.Locale
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+/**
+ * In-process inverted index for race search.
+ *
+ * Every race is indexed under the tokens of its track name and of the names of its participating drivers and
+ * their teams, plus the prefixes of those tokens, so "silv" finds "Silverstone". Postings map a term to the races
+ * containing it together with a weight: track names weigh more than driver names, which weigh more than team
+ * names, and a whole-token match weighs twice a prefix match. A search requires every query token to match and
+ * scores a race by summing the best weight of each token.
+ *
+ * Driver and team names are kept apart from the races, so a renamed or removed driver or team only reindexes
+ * the races it takes part in. Reads and writes are guarded by a read-write lock; searches never touch the database.
+ */
+@Component
+class RaceSearchIndex {
+
+    /**
+     * A race matching a search, with its relevance score.
+     */
+    data class Hit(val raceId: String, val raceDate: LocalDate, val trackName: String, val score: Double)
+
+    private class IndexedRace(
+        val raceDate: LocalDate,
+        val trackName: String,
+        val driverIds: List<String>,
+        var terms: Map<String, Double> = emptyMap()
+    )
+
+    private data class IndexedDriver(val driverName: String, val teamId: String)
+
+    companion object {
+        private const val MIN_PREFIX = 2
+        private const val MAX_PREFIX = 15
+        private const val TRACK_WEIGHT = 3.0
+        private const val DRIVER_WEIGHT = 2.0
+        private const val TEAM_WEIGHT = 1.0
+        private const val EXACT_BOOST = 2.0
+        private val SEPARATORS = Regex("[^\\p{L}\\p{N}]+")
+        private val DIACRITICS = Regex("\\p{M}+")
+
+        /**
+         * Search result order: best score first, then most recent race, then race id for a stable order.
+         */
+        val RANKING: Comparator<Hit> = compareByDescending<Hit> { it.score }
+            .thenByDescending { it.raceDate }
+            .thenBy { it.raceId }
+
+        /**
+         * Splits text into lowercase tokens, ignoring accents and punctuation.
+         */
+        fun tokenize(text: String): List<String> =
+            Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replace(DIACRITICS, "")
+                .lowercase(Locale.ROOT)
+                .split(SEPARATORS)
+                .filter { it.isNotEmpty() }
+    }
+
+    private val lock = ReentrantReadWriteLock()
+    private val races = HashMap<String, IndexedRace>()
+    private val drivers = HashMap<String, IndexedDriver>()
+    private val teams = HashMap<String, String>()
+    private val racesByDriver = HashMap<String, MutableSet<String>>()
+    private val postings = HashMap<String, HashMap<String, Double>>()
+
+    val raceCount: Int
+        get() = lock.read { races.size }
+
+    fun putRace(raceId: String, raceDate: LocalDate, trackName: String, driverIds: List<String>) = lock.write {
+        races[raceId]?.driverIds?.forEach { driverId -> racesByDriver[driverId]?.remove(raceId) }
+        val race = IndexedRace(raceDate, trackName, driverIds)
+        races[raceId] = race
+        driverIds.forEach { driverId -> racesByDriver.getOrPut(driverId) { HashSet() }.add(raceId) }
+        reindex(raceId, race)
+    }
+
+    fun putDriver(driverId: String, driverName: String, teamId: String) = lock.write {
+        if (drivers.put(driverId, IndexedDriver(driverName, teamId)) != IndexedDriver(driverName, teamId)) {
+            reindexRacesOf(setOf(driverId))
+        }
+    }
+
+    fun removeDriver(driverId: String) = lock.write {
+        if (drivers.remove(driverId) != null) {
+            reindexRacesOf(setOf(driverId))
+        }
+    }
+
+    fun putTeam(teamId: String, teamName: String) = lock.write {
+        if (teams.put(teamId, teamName) != teamName) {
+            reindexRacesOf(driversOf(teamId))
+        }
+    }
+
+    fun removeTeam(teamId: String) = lock.write {
+        if (teams.remove(teamId) != null) {
+            reindexRacesOf(driversOf(teamId))
+        }
+    }
+
+    /**
+     * Returns all races matching every token of [text], in [RANKING] order.
+     */
+    fun search(text: String): List<Hit> = lock.read {
+        val tokens = tokenize(text)
+            .map { token -> if (token.length > MAX_PREFIX && token !in postings) token.take(MAX_PREFIX) else token }
+            .distinct()
+        if (tokens.isEmpty()) {
+            return emptyList()
+        }
+        val matches = tokens.map { token -> postings[token] ?: return emptyList() }.sortedBy { it.size }
+        var scores: Map<String, Double> = matches.first()
+        for (posting in matches.drop(1)) {
+            scores = scores.mapNotNull { (raceId, score) -> posting[raceId]?.let { raceId to score + it } }.toMap()
+        }
+        scores.map { (raceId, score) ->
+            val race = races.getValue(raceId)
+            Hit(raceId, race.raceDate, race.trackName, score)
+        }.sortedWith(RANKING)
+    }
+
+    private fun driversOf(teamId: String): Set<String> =
+        drivers.filterValues { it.teamId == teamId }.keys
+
+    private fun reindexRacesOf(driverIds: Set<String>) {
+        driverIds.flatMap { racesByDriver[it].orEmpty() }.toSet().forEach { raceId ->
+            reindex(raceId, races.getValue(raceId))
+        }
+    }
+
+    private fun reindex(raceId: String, race: IndexedRace) {
+        race.terms.keys.forEach { term ->
+            val posting = postings.getValue(term)
+            posting.remove(raceId)
+            if (posting.isEmpty()) {
+                postings.remove(term)
+            }
+        }
+        race.terms = termsOf(race)
+        race.terms.forEach { (term, weight) -> postings.getOrPut(term) { HashMap() }[raceId] = weight }
+    }
+
+    private fun termsOf(race: IndexedRace): Map<String, Double> {
+        val terms = HashMap<String, Double>()
+        fun add(text: String, weight: Double) = tokenize(text).forEach { token ->
+            terms.merge(token, weight * EXACT_BOOST, ::maxOf)
+            for (length in MIN_PREFIX..minOf(token.length - 1, MAX_PREFIX)) {
+                terms.merge(token.substring(0, length), weight, ::maxOf)
+            }
+        }
+        add(race.trackName, TRACK_WEIGHT)
+        race.driverIds.forEach { driverId ->
+            drivers[driverId]?.let { driver ->
+                add(driver.driverName, DRIVER_WEIGHT)
+                teams[driver.teamId]?.let { teamName -> add(teamName, TEAM_WEIGHT) }
+            }
+        }
+        return terms
+    }
+}
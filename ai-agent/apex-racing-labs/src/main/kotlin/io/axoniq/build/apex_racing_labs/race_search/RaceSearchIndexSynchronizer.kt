@@ -0,0 +1,85 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps the [RaceSearchIndex] of this instance in line with the search documents.
+ *
+ * The first run loads every document, so the index survives restarts without replaying events. Later runs load
+ * the documents updated since the previous run, which also picks up documents written by other instances.
+ * Each run looks back an extra [OVERLAP], so a document whose transaction committed after a later one was read
+ * is not missed; re-applying a document is harmless.
+ */
+@Component
+class RaceSearchIndexSynchronizer(
+    private val index: RaceSearchIndex,
+    private val raceRepository: RaceSearchRaceRepository,
+    private val driverRepository: RaceSearchDriverRepository,
+    private val teamRepository: RaceSearchTeamRepository,
+    @Value("\${apex-racing-labs.race-search.refresh-interval:PT1S}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(RaceSearchIndexSynchronizer::class.java)
+        private val OVERLAP: Duration = Duration.ofMinutes(1)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "race-search-index-synchronizer").apply { isDaemon = true }
+    }
+
+    @Volatile
+    private var synchronizedUntil: Instant? = null
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        logger.info("Starting race search index synchronization every {}", interval)
+        executor.scheduleWithFixedDelay(::synchronizeSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Applies the search documents updated since the previous run to the index.
+     */
+    fun synchronize() {
+        val startedAt = Instant.now()
+        val since = synchronizedUntil?.minus(OVERLAP) ?: Instant.EPOCH
+        teamRepository.findByUpdatedAtGreaterThanEqual(since).forEach { team ->
+            if (team.removed) index.removeTeam(team.teamId) else index.putTeam(team.teamId, team.teamName)
+        }
+        driverRepository.findByUpdatedAtGreaterThanEqual(since).forEach { driver ->
+            if (driver.removed) index.removeDriver(driver.driverId)
+            else index.putDriver(driver.driverId, driver.driverName, driver.teamId)
+        }
+        raceRepository.findByUpdatedAtGreaterThanEqual(since).forEach { race ->
+            index.putRace(race.raceId, race.raceDate, race.trackName, race.driverIds())
+        }
+        if (synchronizedUntil == null) {
+            logger.info("Loaded {} races into the race search index", index.raceCount)
+        }
+        synchronizedUntil = startedAt
+    }
+
+    private fun synchronizeSafely() {
+        try {
+            synchronize()
+        } catch (e: Exception) {
+            logger.error("Failed to synchronize the race search index", e)
+        }
+    }
+}
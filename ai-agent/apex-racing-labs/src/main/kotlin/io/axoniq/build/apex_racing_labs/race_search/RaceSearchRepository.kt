@@ -0,0 +1,29 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.stereotype.Repository
+import java.time.Instant
+
+/**
+ * Repository for the race search documents.
+ */
+@Repository
+interface RaceSearchRaceRepository : JpaRepository<RaceSearchRaceEntity, String> {
+    fun findByUpdatedAtGreaterThanEqual(since: Instant): List<RaceSearchRaceEntity>
+}
+
+/**
+ * Repository for the driver search documents.
+ */
+@Repository
+interface RaceSearchDriverRepository : JpaRepository<RaceSearchDriverEntity, String> {
+    fun findByUpdatedAtGreaterThanEqual(since: Instant): List<RaceSearchDriverEntity>
+}
+
+/**
+ * Repository for the team search documents.
+ */
+@Repository
+interface RaceSearchTeamRepository : JpaRepository<RaceSearchTeamEntity, String> {
+    fun findByUpdatedAtGreaterThanEqual(since: Instant): List<RaceSearchTeamEntity>
+}
@@ -0,0 +1,119 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import io.axoniq.build.apex_racing_labs.paging.InvalidPageCursor
+import io.axoniq.build.apex_racing_labs.paging.KeysetPaging
+import io.axoniq.build.apex_racing_labs.race_search.api.*
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.queryhandling.annotations.QueryHandler
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+import java.time.Instant
+import java.time.LocalDate
+import java.time.format.DateTimeParseException
+
+/**
+ * Race Search view component.
+ * Stores the search documents of races, drivers and teams, and answers searches from the in-process
+ * [RaceSearchIndex], which [RaceSearchIndexSynchronizer] keeps in line with those documents.
+ */
+@Component
+class RaceSearchViewComponent(
+    private val raceRepository: RaceSearchRaceRepository,
+    private val driverRepository: RaceSearchDriverRepository,
+    private val teamRepository: RaceSearchTeamRepository,
+    private val raceSearchIndex: RaceSearchIndex,
+    private val keysetPaging: KeysetPaging
+) {
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(RaceSearchViewComponent::class.java)
+    }
+
+    /**
+     * Handles RaceSearchResults query by matching the search term against track, driver and team names.
+     * Results are ranked by relevance and paged with a cursor over the ranking.
+     */
+    @QueryHandler
+    fun handle(query: RaceSearchResults): RaceSearchResult {
+        logger.info("Processing RaceSearchResults query for search term: '{}'", query.searchTerm)
+
+        val hits = raceSearchIndex.search(query.searchTerm)
+        val page = keysetPaging.page(
+            query.cursor,
+            query.pageSize,
+            keyColumns = 3,
+            { key, limit -> hitsAfter(hits, key).take(limit) },
+            { hit -> listOf(hit.score.toString(), hit.raceDate.toString(), hit.raceId) }
+        )
+
+        logger.debug("Found {} races matching search term '{}'", hits.size, query.searchTerm)
+        return RaceSearchResult(
+            success = true,
+            races = page.items.map { RaceSearchItem(it.raceId, it.raceDate, it.trackName, it.score) },
+            nextCursor = page.nextCursor
+        )
+    }
+
+    @EventHandler
+    fun on(event: RaceCreated) {
+        logger.info("Indexing race {} for search", event.raceId)
+        raceRepository.save(
+            RaceSearchRaceEntity(
+                raceId = event.raceId,
+                raceDate = event.raceDate,
+                trackName = event.trackName,
+                participatingDriverIds = event.participatingDriverIds.joinToString(","),
+                updatedAt = Instant.now()
+            )
+        )
+    }
+
+    @EventHandler
+    fun on(event: DriverCreated) {
+        logger.info("Indexing driver {} for race search", event.driverId)
+        driverRepository.save(
+            RaceSearchDriverEntity(
+                driverId = event.driverId,
+                driverName = event.driverName,
+                teamId = event.teamId,
+                updatedAt = Instant.now()
+            )
+        )
+    }
+
+    @EventHandler
+    fun on(event: DriverRemoved) {
+        logger.info("Removing driver {} from race search", event.driverId)
+        driverRepository.findById(event.driverId).ifPresent { driver ->
+            driverRepository.save(driver.copy(removed = true, updatedAt = Instant.now()))
+        }
+    }
+
+    @EventHandler
+    fun on(event: TeamCreated) {
+        logger.info("Indexing team {} for race search", event.teamId)
+        teamRepository.save(RaceSearchTeamEntity(teamId = event.teamId, teamName = event.teamName, updatedAt = Instant.now()))
+    }
+
+    @EventHandler
+    fun on(event: TeamRemoved) {
+        logger.info("Removing team {} from race search", event.teamId)
+        teamRepository.findById(event.teamId).ifPresent { team ->
+            teamRepository.save(team.copy(removed = true, updatedAt = Instant.now()))
+        }
+    }
+
+    private fun hitsAfter(hits: List<RaceSearchIndex.Hit>, key: List<String>?): List<RaceSearchIndex.Hit> {
+        if (key == null) {
+            return hits
+        }
+        val last = try {
+            RaceSearchIndex.Hit(key[2], LocalDate.parse(key[1]), "", key[0].toDouble())
+        } catch (e: NumberFormatException) {
+            throw InvalidPageCursor("Invalid page cursor", e)
+        } catch (e: DateTimeParseException) {
+            throw InvalidPageCursor("Invalid page cursor", e)
+        }
+        return hits.dropWhile { RaceSearchIndex.RANKING.compare(it, last) <= 0 }
+    }
+}
@@ -1,5 +1,6 @@
-package io.axoniq.build.apex_racing_labs.race_list_view.api
+package io.axoniq.build.apex_racing_labs.race_search.api
 
+import kotlin.Int
 import kotlin.String
 import org.axonframework.queryhandling.annotations.Query
 
@@ -9,4 +10,6 @@ import org.axonframework.queryhandling.annotations.Query
 )
 public data class RaceSearchResults(
   public val searchTerm: String,
+  public val cursor: String?,
+  public val pageSize: Int?,
 )
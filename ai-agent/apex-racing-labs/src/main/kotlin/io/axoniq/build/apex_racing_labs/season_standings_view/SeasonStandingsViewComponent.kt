@@ -1,11 +1,17 @@
 package io.axoniq.build.apex_racing_labs.season_standings_view
 
+import io.axoniq.build.apex_racing_labs.paging.InvalidPageCursor
+import io.axoniq.build.apex_racing_labs.paging.KeysetPaging
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.season_standings_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.data.domain.PageRequest
 import org.springframework.stereotype.Component
+import reactor.core.publisher.Flux
 import java.math.BigDecimal
 import java.math.RoundingMode
 
@@ -16,35 +22,43 @@ import java.math.RoundingMode
  */
 @Component
 class SeasonStandingsViewComponent(
-    private val teamStandingsRepository: TeamStandingsRepository
+    private val teamStandingsRepository: TeamStandingsRepository,
+    private val keysetPaging: KeysetPaging,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(SeasonStandingsViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "season-standings-view"
     }
 
     /**
      * Handles queries for season team standings.
-     * Returns the current season standings with team positions and ratings.
+     * Returns one keyset page of the standings with team positions and ratings.
      */
     @QueryHandler
     fun handle(query: SeasonTeamStandings): SeasonStandingsResult {
         logger.info("Processing SeasonTeamStandings query for Season Standings View component")
 
-        val standings = teamStandingsRepository.findAllByOrderByPosition()
-        
-        val teamStandingInfoList = standings.map { entity ->
-            TeamStandingInfo(
-                totalRaces = entity.totalRaces,
-                teamId = entity.teamId,
-                averageRating = entity.averageRating?.toDouble(),
-                teamName = entity.teamName,
-                position = entity.position
-            )
-        }
+        val page = keysetPaging.page(query.cursor, query.pageSize, keyColumns = 2, ::findStandingsPage, ::keyOf)
+        val teamStandingInfoList = page.items.map { it.toInfo() }
 
         logger.debug("Retrieved {} team standings for season rankings", teamStandingInfoList.size)
-        return SeasonStandingsResult(standings = teamStandingInfoList)
+        return SeasonStandingsResult(standings = teamStandingInfoList, nextCursor = page.nextCursor)
+    }
+
+    /**
+     * Handles streaming queries for season team standings.
+     * Emits all standings in position order, reading them page by page as the subscriber consumes them.
+     */
+    @QueryHandler
+    fun handle(query: StreamSeasonTeamStandings): Flux<TeamStandingInfo> {
+        logger.info("Processing StreamSeasonTeamStandings query for Season Standings View component")
+        return keysetPaging.stream(::findStandingsPage, ::keyOf).map { it.toInfo() }
     }
 
     /**
@@ -52,9 +66,10 @@ class SeasonStandingsViewComponent(
      * Recalculates team standings based on updated driver performance ratings.
      */
     @EventHandler
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Processing DriverRatingUpdated event for driver {} with new rating {} in Season Standings View",
                    event.driverId, event.newRating)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // In a real implementation, we would need to:
         // 1. Find the team for this driver
@@ -69,9 +84,10 @@ class SeasonStandingsViewComponent(
      * Updates team race counts and prepares standings for new races.
      */
     @EventHandler
-    fun on(event: RaceCreated) {
+    fun on(event: RaceCreated, processingContext: ProcessingContext) {
         logger.info("Processing RaceCreated event for race {} with {} participating drivers in Season Standings View", 
                    event.raceId, event.participatingDriverIds.size)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // In a real implementation, we would need to:
         // 1. Map drivers to their teams
@@ -87,9 +103,10 @@ class SeasonStandingsViewComponent(
      * May influence team standings based on race performance metrics.
      */
     @EventHandler
-    fun on(event: RaceRated) {
+    fun on(event: RaceRated, processingContext: ProcessingContext) {
         logger.info("Processing RaceRated event for race {} with rating {} in Season Standings View",
                    event.raceId, event.rating)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         // In a real implementation, we would consider race ratings
         // as part of the overall team performance calculation
@@ -102,9 +119,10 @@ class SeasonStandingsViewComponent(
      * Recalculates team average ratings and standings positions.
      */
     @EventHandler
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Processing DriverPerformanceRated event for driver {} with rating {} in Season Standings View", 
                    event.driverId, event.rating)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // In a real implementation, we would need to:
         // 1. Find the team for this driver
@@ -114,5 +132,20 @@ class SeasonStandingsViewComponent(
         logger.debug("Updated team performance metrics for driver {} with rating {}", 
                     event.driverId, event.rating)
     }
-}
 
+    private fun findStandingsPage(cursor: List<String>?, limit: Int): List<TeamStandingsEntity> {
+        val position = cursor?.let { it[0].toIntOrNull() ?: throw InvalidPageCursor("Invalid page cursor") } ?: Int.MIN_VALUE
+        val teamId = cursor?.get(1) ?: ""
+        return teamStandingsRepository.findStandingsAfter(position, teamId, PageRequest.of(0, limit))
+    }
+
+    private fun keyOf(entity: TeamStandingsEntity): List<String> = listOf(entity.position.toString(), entity.teamId)
+
+    private fun TeamStandingsEntity.toInfo(): TeamStandingInfo = TeamStandingInfo(
+        totalRaces = totalRaces,
+        teamId = teamId,
+        averageRating = averageRating?.toDouble(),
+        teamName = teamName,
+        position = position
+    )
+}
@@ -1,10 +1,15 @@
 package io.axoniq.build.apex_racing_labs.season_standings_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.season_standings_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import reactor.core.publisher.Flux
 import java.util.concurrent.CompletableFuture
 
 /**
@@ -14,25 +19,40 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/season-standings")
 class SeasonStandingsViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(SeasonStandingsViewController::class.java)
     }
 
     /**
-     * Gets the current season team standings with positions and average ratings.
-     * Returns a list of teams ordered by their current standings position.
+     * Gets one page of the current season team standings with positions and average ratings.
+     * Teams are ordered by their current standings position; pass the returned nextCursor for the next page.
      */
     @GetMapping
-    fun getSeasonStandings(): CompletableFuture<SeasonStandingsResult> {
-        logger.info("REST request for season team standings")
+    fun getSeasonStandings(
+        @RequestParam(required = false) cursor: String?,
+        @RequestParam(required = false) pageSize: Int?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<SeasonStandingsResult>> {
+        logger.info("REST request for season team standings after cursor {}", cursor)
+        return projectionVersions.conditionalGet(SeasonStandingsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = SeasonTeamStandings(cursor, pageSize)
+            queryGateway.query(query, SeasonStandingsResult::class.java, null)
+                .thenApply { result ->
+                    logger.debug("Retrieved season standings with {} teams", result.standings.size)
+                    result
+                }
+        }
+    }
 
-        val query = SeasonTeamStandings()
-        return queryGateway.query(query, SeasonStandingsResult::class.java, null)
-            .thenApply { result ->
-                logger.debug("Retrieved season standings with {} teams", result.standings.size)
-                result
-            }
+    /**
+     * Streams all season team standings in position order as newline-delimited JSON.
+     */
+    @GetMapping("/stream", produces = [MediaType.APPLICATION_NDJSON_VALUE])
+    fun streamSeasonStandings(): Flux<TeamStandingInfo> {
+        logger.info("REST request to stream season team standings")
+        return Flux.from(queryGateway.streamingQuery(StreamSeasonTeamStandings(), TeamStandingInfo::class.java, null))
     }
 }
\ No newline at end of file
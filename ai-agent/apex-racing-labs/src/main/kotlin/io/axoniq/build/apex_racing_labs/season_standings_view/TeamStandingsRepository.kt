@@ -1,6 +1,9 @@
 package io.axoniq.build.apex_racing_labs.season_standings_view
 
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 
 /**
  * Repository interface for accessing TeamStandingsEntity data.
@@ -17,5 +20,19 @@ interface TeamStandingsRepository : JpaRepository<TeamStandingsEntity, String> {
      * Finds team standings by season for filtering seasonal data.
      */
     fun findBySeasonOrderByPosition(season: String): List<TeamStandingsEntity>
+
+    /**
+     * Finds the next keyset page of the standings, ordered by position and then team ID.
+     */
+    @Query(
+        "select t from TeamStandingsEntity t " +
+            "where t.position > :position or (t.position = :position and t.teamId > :teamId) " +
+            "order by t.position, t.teamId"
+    )
+    fun findStandingsAfter(
+        @Param("position") position: Int,
+        @Param("teamId") teamId: String,
+        pageable: Pageable
+    ): List<TeamStandingsEntity>
 }
 
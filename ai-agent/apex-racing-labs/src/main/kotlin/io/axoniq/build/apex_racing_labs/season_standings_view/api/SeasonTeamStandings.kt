@@ -1,9 +1,14 @@
 package io.axoniq.build.apex_racing_labs.season_standings_view.api
 
+import kotlin.Int
+import kotlin.String
 import org.axonframework.queryhandling.annotations.Query
 
 @Query(
   name = "SeasonTeamStandings",
   namespace = "apex-racing-labs",
 )
-public class SeasonTeamStandings()
+public data class SeasonTeamStandings(
+  public val cursor: String?,
+  public val pageSize: Int?,
+)
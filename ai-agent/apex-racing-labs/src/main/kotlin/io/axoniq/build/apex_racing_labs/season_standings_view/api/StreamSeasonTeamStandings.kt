@@ -0,0 +1,9 @@
+package io.axoniq.build.apex_racing_labs.season_standings_view.api
+
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "StreamSeasonTeamStandings",
+  namespace = "apex-racing-labs",
+)
+public class StreamSeasonTeamStandings()
@@ -0,0 +1,94 @@
+package io.axoniq.build.apex_racing_labs.snapshot
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect
+import com.fasterxml.jackson.annotation.PropertyAccessor
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.axonframework.eventstreaming.EventCriteria
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+import java.security.MessageDigest
+import java.time.Instant
+
+/**
+ * Stores Jackson-serialized snapshots of event-sourced entities in the entity_snapshots table,
+ * keyed by entity type and the event criteria the entity is sourced from.
+ */
+@Component
+class SnapshotStore(
+    private val snapshotRepository: SnapshotRepository,
+    objectMapper: ObjectMapper
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(SnapshotStore::class.java)
+    }
+
+    /**
+     * A deserialized snapshot and the position it was taken at.
+     */
+    data class Snapshot<E>(val entity: E, val position: Long)
+
+    // Entity state lives in private fields without setters, so snapshots bind to fields rather than properties
+    private val snapshotMapper: ObjectMapper = objectMapper.copy()
+        .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+        .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+        .setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+
+    /**
+     * Returns the latest snapshot for the entity sourced by [criteria], or null when there is none or it can no
+     * longer be read, in which case the entity is sourced from its full event stream.
+     */
+    fun <E> load(entityType: Class<E>, criteria: EventCriteria): Snapshot<E>? {
+        val canonical = canonicalCriteria(criteria)
+        val snapshot = snapshotRepository.findById(SnapshotId(entityType.name, hash(canonical))).orElse(null)
+            ?: return null
+        if (snapshot.criteria != canonical) {
+            return null
+        }
+        return try {
+            Snapshot(deserialize(snapshot.payload, entityType), snapshot.position)
+        } catch (e: Exception) {
+            logger.warn("Ignoring unreadable snapshot of {} {}", entityType.simpleName, snapshot.entityId, e)
+            null
+        }
+    }
+
+    fun store(entityType: Class<*>, entityId: String, criteria: EventCriteria, position: Long, payload: String) {
+        val canonical = canonicalCriteria(criteria)
+        val written = snapshotRepository.upsert(
+            entityType = entityType.name,
+            criteriaHash = hash(canonical),
+            entityId = entityId,
+            criteria = canonical,
+            position = position,
+            payload = payload,
+            createdAt = Instant.now()
+        )
+        if (written > 0) {
+            logger.debug("Stored snapshot of {} {} at position {}", entityType.simpleName, entityId, position)
+        }
+    }
+
+    fun serialize(entity: Any): String = snapshotMapper.writeValueAsString(entity)
+
+    fun <E> deserialize(payload: String, entityType: Class<E>): E = snapshotMapper.readValue(payload, entityType)
+
+    /**
+     * Order-independent representation of the criteria, so equal criteria always map to the same snapshot.
+     */
+    fun canonicalCriteria(criteria: EventCriteria): String =
+        criteria.flatten()
+            .map { criterion ->
+                val tags = criterion.tags().map { "${it.key()}=${it.value()}" }.sorted().joinToString(",")
+                val types = criterion.types().map { it.fullName() }.sorted().joinToString(",")
+                "tags[$tags]types[$types]"
+            }
+            .sorted()
+            .joinToString(";")
+
+    private fun hash(value: String): String =
+        MessageDigest.getInstance("SHA-256").digest(value.toByteArray()).joinToString("") { "%02x".format(it) }
+}
@@ -1,13 +1,15 @@
 package io.axoniq.build.apex_racing_labs.team_management
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.team_management.api.CreateTeam
 import io.axoniq.build.apex_racing_labs.team_management.api.RemoveTeam
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Team Management Service component.
@@ -16,7 +18,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/teams")
 class TeamManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TeamManagementController::class.java)
@@ -28,7 +30,7 @@ class TeamManagementController(
      * @return Response indicating success or failure
      */
     @PostMapping
-    fun createTeam(@RequestBody request: CreateTeamRequest): ResponseEntity<String> {
+    fun createTeam(@RequestBody request: CreateTeamRequest): Mono<ResponseEntity<String>> {
         val command = CreateTeam(
             teamId = request.teamId,
             teamName = request.teamName
@@ -36,13 +38,12 @@ class TeamManagementController(
 
         logger.info("Dispatching CreateTeam command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Team creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateTeam command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create team")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Team creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateTeam command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create team"))
+            }
     }
 
     /**
@@ -51,18 +52,17 @@ class TeamManagementController(
      * @return Response indicating success or failure
      */
     @DeleteMapping("/{teamId}")
-    fun removeTeam(@PathVariable teamId: String): ResponseEntity<String> {
+    fun removeTeam(@PathVariable teamId: String): Mono<ResponseEntity<String>> {
         val command = RemoveTeam(teamId = teamId)
 
         logger.info("Dispatching RemoveTeam command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Team removal accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RemoveTeam command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove team")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Team removal accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RemoveTeam command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove team"))
+            }
     }
 
     /**
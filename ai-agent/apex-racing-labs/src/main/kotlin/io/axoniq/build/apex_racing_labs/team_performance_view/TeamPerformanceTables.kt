@@ -0,0 +1,109 @@
+package io.axoniq.build.apex_racing_labs.team_performance_view
+
+import io.axoniq.build.apex_racing_labs.projection.BatchedTable
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.stereotype.Repository
+import java.sql.Date
+import java.time.LocalDate
+
+/**
+ * A row of the team_performance table as written by the Team Performance View event handlers.
+ * The average rating is not part of it: it is recalculated from the race information when that is written.
+ */
+data class TeamPerformanceRow(val teamId: String, val teamName: String, val totalRaces: Int)
+
+/**
+ * A row of the team_race_info table; [id] is null until the row is inserted.
+ */
+data class TeamRaceInfoRow(
+    val id: Long?,
+    val raceId: String,
+    val raceDate: LocalDate,
+    val trackName: String,
+    val averageRating: Double,
+    val teamId: String
+)
+
+/**
+ * The team_race_info rows of one race, the unit in which the Team Performance View reads and writes them.
+ */
+data class TeamRaceInfos(val raceId: String, val rows: List<TeamRaceInfoRow>)
+
+/**
+ * Batched JDBC access to the team_performance table of the Team Performance View component, see [BatchedTable].
+ * Upserts are sent as one JDBC batch per flush, which the driver rewrites into multi-row inserts.
+ */
+@Repository
+class TeamPerformanceTable(
+    private val jdbcTemplate: NamedParameterJdbcTemplate
+) : BatchedTable<String, TeamPerformanceRow>("team_performance") {
+
+    override fun idOf(row: TeamPerformanceRow): String = row.teamId
+
+    override fun load(ids: Collection<String>): List<TeamPerformanceRow> =
+        jdbcTemplate.query(
+            "SELECT team_id, team_name, total_races FROM $table WHERE team_id IN (:ids)",
+            mapOf("ids" to ids)
+        ) { rs, _ -> TeamPerformanceRow(rs.getString("team_id"), rs.getString("team_name"), rs.getInt("total_races")) }
+
+    override fun upsert(rows: Collection<TeamPerformanceRow>) {
+        jdbcTemplate.jdbcTemplate.batchUpdate(
+            "INSERT INTO $table (team_id, team_name, total_races) VALUES (?, ?, ?) " +
+                "ON CONFLICT (team_id) DO UPDATE SET team_name = EXCLUDED.team_name, total_races = EXCLUDED.total_races",
+            rows.map { arrayOf<Any?>(it.teamId, it.teamName, it.totalRaces) }
+        )
+    }
+}
+
+/**
+ * Batched JDBC access to the team_race_info table of the Team Performance View component, see [BatchedTable],
+ * keyed by race. New rows are inserted and existing rows updated with one JDBC batch each per flush; then the
+ * average ratings of the teams of the written rows are recalculated with one statement.
+ */
+@Repository
+class TeamRaceInfoTable(
+    private val jdbcTemplate: NamedParameterJdbcTemplate
+) : BatchedTable<String, TeamRaceInfos>("team_race_info") {
+
+    override fun idOf(row: TeamRaceInfos): String = row.raceId
+
+    override fun load(ids: Collection<String>): List<TeamRaceInfos> =
+        jdbcTemplate.query(
+            "SELECT id, race_id, race_date, track_name, average_rating, team_id FROM $table " +
+                "WHERE race_id IN (:ids) ORDER BY id",
+            mapOf("ids" to ids)
+        ) { rs, _ ->
+            TeamRaceInfoRow(
+                id = rs.getLong("id"),
+                raceId = rs.getString("race_id"),
+                raceDate = rs.getDate("race_date").toLocalDate(),
+                trackName = rs.getString("track_name"),
+                averageRating = rs.getDouble("average_rating"),
+                teamId = rs.getString("team_id")
+            )
+        }.groupBy { it.raceId }.map { (raceId, rows) -> TeamRaceInfos(raceId, rows) }
+
+    override fun upsert(rows: Collection<TeamRaceInfos>) {
+        val (inserted, updated) = rows.flatMap { it.rows }.partition { it.id == null }
+        if (inserted.isNotEmpty()) {
+            jdbcTemplate.jdbcTemplate.batchUpdate(
+                "INSERT INTO $table (race_id, race_date, track_name, average_rating, team_id) VALUES (?, ?, ?, ?, ?)",
+                inserted.map { arrayOf<Any?>(it.raceId, Date.valueOf(it.raceDate), it.trackName, it.averageRating, it.teamId) }
+            )
+        }
+        if (updated.isNotEmpty()) {
+            jdbcTemplate.jdbcTemplate.batchUpdate(
+                "UPDATE $table SET average_rating = ? WHERE id = ?",
+                updated.map { arrayOf<Any?>(it.averageRating, it.id) }
+            )
+        }
+        val teamIds = rows.flatMap { it.rows }.map { it.teamId }.distinct()
+        if (teamIds.isNotEmpty()) {
+            jdbcTemplate.update(
+                "UPDATE team_performance t SET average_rating = " +
+                    "(SELECT AVG(r.average_rating) FROM $table r WHERE r.team_id = t.team_id) WHERE t.team_id IN (:teamIds)",
+                mapOf("teamIds" to teamIds)
+            )
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package io.axoniq.build.apex_racing_labs.team_performance_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.team_performance_view.api.*
+import io.axoniq.build.apex_racing_labs.projection.ProjectionBatch
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
-import org.springframework.transaction.annotation.Transactional
-import java.time.LocalDate
 
 /**
  * Team Performance Statistics View component that handles team performance analytics and statistics.
  * This component listens to racing-related events and maintains aggregated performance data
  * for teams, including race participation, ratings, and best performances.
+ *
+ * Event handlers write through [ProjectionBatch]es of [TeamPerformanceTable] and [TeamRaceInfoTable]: a team,
+ * and the race information of a race, are read at most once per event processing batch, and written with one
+ * batch upsert when the batch commits. The average ratings of the teams are then recalculated in one statement,
+ * instead of after every rating. The batch of the teams is always taken first, so new teams are written before
+ * the race information that refers to them.
  */
 @Component
 class TeamPerformanceViewComponent(
     private val teamPerformanceRepository: TeamPerformanceRepository,
-    private val teamRaceInfoRepository: TeamRaceInfoRepository
+    private val teamRaceInfoRepository: TeamRaceInfoRepository,
+    private val teamPerformanceTable: TeamPerformanceTable,
+    private val teamRaceInfoTable: TeamRaceInfoTable,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TeamPerformanceViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "team-performance-view"
     }
 
     /**
@@ -58,9 +73,12 @@ class TeamPerformanceViewComponent(
      * Updates team performance statistics when a new race is created.
      */
     @EventHandler
-    @Transactional
-    fun on(event: RaceCreated) {
+    fun on(event: RaceCreated, processingContext: ProcessingContext) {
         logger.info("Processing RaceCreated event for race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+        val teams = teamPerformanceTable.batch(processingContext)
+        val raceInfos = raceInfos(processingContext)
 
         // For each participating driver, we need to determine their team and update team statistics
         event.participatingDriverIds.forEach { driverId ->
@@ -69,30 +87,21 @@ class TeamPerformanceViewComponent(
             val teamId = "team-${driverId.take(3)}"
             val teamName = "Team ${driverId.take(3).uppercase()}"
 
-            val teamPerformance = teamPerformanceRepository.findById(teamId)
-                .orElse(TeamPerformanceEntity(
-                    teamId = teamId,
-                    teamName = teamName,
-                    totalRaces = 0,
-                    averageRating = null
-                ))
-
-            val updatedTeamPerformance = teamPerformance.copy(
-                totalRaces = teamPerformance.totalRaces + 1
-            )
-
-            teamPerformanceRepository.save(updatedTeamPerformance)
+            val teamPerformance = teams.find(teamId)
+                ?: TeamPerformanceRow(teamId = teamId, teamName = teamName, totalRaces = 0)
+            teams.save(teamPerformance.copy(totalRaces = teamPerformance.totalRaces + 1))
 
             // Create race info entry
-            val raceInfo = TeamRaceInfoEntity(
+            val raceInfo = TeamRaceInfoRow(
+                id = null,
                 raceId = event.raceId,
                 raceDate = event.raceDate,
                 trackName = event.trackName,
                 averageRating = 0.0, // Will be updated when ratings come in
-                teamPerformance = updatedTeamPerformance
+                teamId = teamId
             )
-
-            teamRaceInfoRepository.save(raceInfo)
+            val race = raceInfos.find(event.raceId) ?: TeamRaceInfos(event.raceId, emptyList())
+            raceInfos.save(race.copy(rows = race.rows + raceInfo))
         }
     }
 
@@ -101,21 +110,13 @@ class TeamPerformanceViewComponent(
      * Updates team performance statistics when a race receives a rating.
      */
     @EventHandler
-    @Transactional
-    fun on(event: RaceRated) {
+    fun on(event: RaceRated, processingContext: ProcessingContext) {
         logger.info("Processing RaceRated event for race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        // Find all race info entities for this race and update their ratings
-        val raceInfoEntities = teamRaceInfoRepository.findByRaceId(event.raceId)
-        
-        raceInfoEntities.forEach { raceInfo ->
-            val updatedRaceInfo = raceInfo.copy(
-                averageRating = event.rating.toDouble()
-            )
-            teamRaceInfoRepository.save(updatedRaceInfo)
-
-            // Update team's overall average rating
-            updateTeamAverageRating(raceInfo.teamPerformance?.teamId ?: "")
+        // Update the ratings of all race info entries of this race; the team averages follow when they are written
+        raceInfos(processingContext).update(event.raceId) { race ->
+            race.copy(rows = race.rows.map { it.copy(averageRating = event.rating.toDouble()) })
         }
     }
 
@@ -124,13 +125,13 @@ class TeamPerformanceViewComponent(
      * Updates team performance statistics when a driver's performance is rated.
      */
     @EventHandler
-    @Transactional
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Processing DriverPerformanceRated event for driver: ${event.driverId} in race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Determine driver's team and update race performance
         val teamId = "team-${event.driverId.take(3)}"
-        updateRacePerformance(event.raceId, teamId, event.rating.toDouble())
+        updateRacePerformance(event.raceId, teamId, event.rating.toDouble(), processingContext)
     }
 
     /**
@@ -138,47 +139,31 @@ class TeamPerformanceViewComponent(
      * Updates team performance statistics when a driver's rating is updated.
      */
     @EventHandler
-    @Transactional
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Processing DriverRatingUpdated event for driver: ${event.driverId} in race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Determine driver's team and update race performance
         val teamId = "team-${event.driverId.take(3)}"
-        updateRacePerformance(event.raceId, teamId, event.newRating.toDouble())
+        updateRacePerformance(event.raceId, teamId, event.newRating.toDouble(), processingContext)
     }
 
     /**
      * Updates the race performance for a specific team and race.
      */
-    private fun updateRacePerformance(raceId: String, teamId: String, rating: Double) {
-        val raceInfoEntities = teamRaceInfoRepository.findByRaceId(raceId)
-
-        raceInfoEntities.forEach { raceInfo ->
-            if (raceInfo.teamPerformance?.teamId == teamId) {
-                val updatedRaceInfo = raceInfo.copy(averageRating = rating)
-                teamRaceInfoRepository.save(updatedRaceInfo)
-                updateTeamAverageRating(teamId)
-            }
+    private fun updateRacePerformance(raceId: String, teamId: String, rating: Double, processingContext: ProcessingContext) {
+        val raceInfos = raceInfos(processingContext)
+        val race = raceInfos.find(raceId) ?: return
+        if (race.rows.any { it.teamId == teamId }) {
+            raceInfos.save(race.copy(rows = race.rows.map { if (it.teamId == teamId) it.copy(averageRating = rating) else it }))
         }
     }
 
     /**
-     * Recalculates and updates the team's overall average rating.
+     * The batch of the race information, taken after the batch of the teams so it is flushed after it.
      */
-    private fun updateTeamAverageRating(teamId: String) {
-        if (teamId.isBlank()) return
-
-        val teamPerformance = teamPerformanceRepository.findById(teamId).orElse(null) ?: return
-        val raceInfos = teamRaceInfoRepository.findByTeamPerformanceTeamId(teamId)
-
-        val averageRating = if (raceInfos.isNotEmpty()) {
-            raceInfos.map { it.averageRating }.average()
-        } else {
-            null
-        }
-
-        val updatedTeamPerformance = teamPerformance.copy(averageRating = averageRating)
-        teamPerformanceRepository.save(updatedTeamPerformance)
+    private fun raceInfos(processingContext: ProcessingContext): ProjectionBatch<String, TeamRaceInfos> {
+        teamPerformanceTable.batch(processingContext)
+        return teamRaceInfoTable.batch(processingContext)
     }
 }
-
@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.team_performance_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.team_performance_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/team-performance")
 class TeamPerformanceViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TeamPerformanceViewController::class.java)
@@ -25,10 +29,14 @@ class TeamPerformanceViewController(
      * Returns comprehensive performance data including total races, average rating, and best race performances.
      */
     @GetMapping("/{teamId}/statistics")
-    fun getTeamPerformanceStatistics(@PathVariable teamId: String): CompletableFuture<TeamPerformanceResult> {
+    fun getTeamPerformanceStatistics(
+        @PathVariable teamId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<TeamPerformanceResult>> {
         logger.info("Received request for team performance statistics: $teamId")
-
-        val query = TeamPerformanceStatistics(teamId = teamId)
-        return queryGateway.query(query, TeamPerformanceResult::class.java, null)
+        return projectionVersions.conditionalGet(TeamPerformanceViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = TeamPerformanceStatistics(teamId = teamId)
+            queryGateway.query(query, TeamPerformanceResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.teams_catalog_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.teams_catalog_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -14,11 +16,17 @@ import org.springframework.stereotype.Component
  */
 @Component
 class TeamsCatalogViewComponent(
-    private val teamRepository: TeamRepository
+    private val teamRepository: TeamRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TeamsCatalogViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "teams-catalog-view"
     }
 
     /**
@@ -71,8 +79,9 @@ class TeamsCatalogViewComponent(
      * @param event The TeamCreated event
      */
     @EventHandler
-    fun on(event: TeamCreated) {
+    fun on(event: TeamCreated, processingContext: ProcessingContext) {
         logger.info("Processing TeamCreated event for teamId: {}", event.teamId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val team = Team(
             teamId = event.teamId,
@@ -91,8 +100,9 @@ class TeamsCatalogViewComponent(
      * @param event The TeamRemoved event
      */
     @EventHandler
-    fun on(event: TeamRemoved) {
+    fun on(event: TeamRemoved, processingContext: ProcessingContext) {
         logger.info("Processing TeamRemoved event for teamId: {}", event.teamId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val existingTeam = teamRepository.findById(event.teamId)
         if (existingTeam.isPresent) {
@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.teams_catalog_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.teams_catalog_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/teams")
 class TeamsCatalogViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -28,10 +32,15 @@ class TeamsCatalogViewController(
      * @return CompletableFuture containing team details
      */
     @GetMapping("/{teamId}")
-    fun getTeamDetails(@PathVariable teamId: String): CompletableFuture<TeamDetailsResult> {
+    fun getTeamDetails(
+        @PathVariable teamId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<TeamDetailsResult>> {
         logger.info("REST request for team details: {}", teamId)
-        val query = TeamDetails(teamId)
-        return queryGateway.query(query, TeamDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(TeamsCatalogViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = TeamDetails(teamId)
+            queryGateway.query(query, TeamDetailsResult::class.java, null)
+        }
     }
 
     /**
@@ -40,9 +49,13 @@ class TeamsCatalogViewController(
      * @return CompletableFuture containing list of available teams
      */
     @GetMapping("/available")
-    fun getAvailableTeams(): CompletableFuture<AvailableTeamsResult> {
+    fun getAvailableTeams(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AvailableTeamsResult>> {
         logger.info("REST request for available teams")
-        val query = AvailableTeams()
-        return queryGateway.query(query, AvailableTeamsResult::class.java, null)
+        return projectionVersions.conditionalGet(TeamsCatalogViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AvailableTeams()
+            queryGateway.query(query, AvailableTeamsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
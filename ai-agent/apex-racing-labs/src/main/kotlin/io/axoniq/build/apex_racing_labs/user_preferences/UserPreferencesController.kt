@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.user_preferences
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.user_preferences.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * UserPreferencesController - REST controller for the User Preferences Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/user-preferences")
 class UserPreferencesController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(UserPreferencesController::class.java)
@@ -25,38 +27,36 @@ class UserPreferencesController(
      * Endpoint to select a favorite team for a user.
      */
     @PostMapping("/favorite-team")
-    fun selectFavoriteTeam(@RequestBody request: SelectFavoriteTeamRequest): ResponseEntity<String> {
+    fun selectFavoriteTeam(@RequestBody request: SelectFavoriteTeamRequest): Mono<ResponseEntity<String>> {
         val command = SelectFavoriteTeam(
             teamId = request.teamId,
             userId = request.userId
         )
         logger.info("Dispatching SelectFavoriteTeam command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Favorite team selection accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch SelectFavoriteTeam command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to select favorite team")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Favorite team selection accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch SelectFavoriteTeam command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to select favorite team"))
+            }
     }
 
     /**
      * Endpoint to select a favorite driver for a user.
      */
     @PostMapping("/favorite-driver")
-    fun selectFavoriteDriver(@RequestBody request: SelectFavoriteDriverRequest): ResponseEntity<String> {
+    fun selectFavoriteDriver(@RequestBody request: SelectFavoriteDriverRequest): Mono<ResponseEntity<String>> {
         val command = SelectFavoriteDriver(
             userId = request.userId,
             driverId = request.driverId
         )
         logger.info("Dispatching SelectFavoriteDriver command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Favorite driver selection accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch SelectFavoriteDriver command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to select favorite driver")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Favorite driver selection accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch SelectFavoriteDriver command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to select favorite driver"))
+            }
     }
 }
 
@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.user_registration
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.user_registration.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the User Registration Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/user-registration")
 class UserRegistrationServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
 
     companion object {
@@ -30,17 +32,18 @@ class UserRegistrationServiceController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/create-account")
-    fun createAccount(@RequestBody request: CreateAccount): ResponseEntity<String> {
+    fun createAccount(@RequestBody request: CreateAccount): Mono<ResponseEntity<String>> {
         logger.info("Received create account request for email: ${request.email}")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            logger.info("Account creation accepted for email: ${request.email}")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Account creation request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to process account creation request", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create account: ${ex.message}")
-        }
+        return commandDispatcher.send(request)
+            .then(Mono.fromSupplier {
+                logger.info("Account creation accepted for email: ${request.email}")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Account creation request accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to process account creation request", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create account: ${ex.message}"))
+            }
     }
 
     /**
@@ -51,17 +54,18 @@ class UserRegistrationServiceController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/verify-email")
-    fun verifyEmail(@RequestBody request: VerifyEmail): ResponseEntity<String> {
+    fun verifyEmail(@RequestBody request: VerifyEmail): Mono<ResponseEntity<String>> {
         logger.info("Received email verification request with token: ${request.verificationToken}")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            logger.info("Email verification accepted for token: ${request.verificationToken}")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Email verification request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to process email verification request", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to verify email: ${ex.message}")
-        }
+        return commandDispatcher.send(request)
+            .then(Mono.fromSupplier {
+                logger.info("Email verification accepted for token: ${request.verificationToken}")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Email verification request accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to process email verification request", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to verify email: ${ex.message}"))
+            }
     }
 }
 
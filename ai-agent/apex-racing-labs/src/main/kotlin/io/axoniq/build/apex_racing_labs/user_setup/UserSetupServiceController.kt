@@ -1,12 +1,14 @@
 package io.axoniq.build.apex_racing_labs.user_setup
 
+import io.axoniq.build.apex_racing_labs.command.ReactiveCommandDispatcher
 import io.axoniq.build.apex_racing_labs.user_setup.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for User Setup Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/user-setup")
 class UserSetupServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(UserSetupServiceController::class.java)
@@ -29,14 +31,13 @@ class UserSetupServiceController(
      * @return ResponseEntity indicating success or failure of the setup completion
      */
     @PostMapping("/complete")
-    fun completeInitialSetup(@RequestBody request: CompleteInitialSetup): ResponseEntity<String> {
+    fun completeInitialSetup(@RequestBody request: CompleteInitialSetup): Mono<ResponseEntity<String>> {
         logger.info("Dispatching CompleteInitialSetup command for user: ${request.userId}")
-        return try {
-            commandGateway.sendAndWait(request)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("User setup completion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CompleteInitialSetup command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete user setup")
-        }
+        return commandDispatcher.send(request)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("User setup completion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CompleteInitialSetup command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete user setup"))
+            }
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package io.axoniq.build.apex_racing_labs.user_statistics_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.user_statistics_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -18,11 +20,17 @@ import java.math.RoundingMode
 @Component
 class UserStatisticsViewComponent(
     private val userStatisticsRepository: UserStatisticsRepository,
-    private val ratingComparisonRepository: RatingComparisonRepository
+    private val ratingComparisonRepository: RatingComparisonRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(UserStatisticsViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "user-statistics-view"
     }
 
     /**
@@ -74,8 +82,9 @@ class UserStatisticsViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: RaceRated) {
+    fun on(event: RaceRated, processingContext: ProcessingContext) {
         logger.info("Processing RaceRated event for user: ${event.userId}, race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Find or create user statistics
         val userStats = userStatisticsRepository.findById(event.userId).orElse(
@@ -110,8 +119,9 @@ class UserStatisticsViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverPerformanceRated) {
+    fun on(event: DriverPerformanceRated, processingContext: ProcessingContext) {
         logger.info("Processing DriverPerformanceRated event for user: ${event.userId}, race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Find existing comparison or create new one
         val existingComparison = ratingComparisonRepository.findByUserIdAndRaceId(event.userId, event.raceId)
@@ -146,8 +156,9 @@ class UserStatisticsViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: DriverRatingUpdated) {
+    fun on(event: DriverRatingUpdated, processingContext: ProcessingContext) {
         logger.info("Processing DriverRatingUpdated event for user: ${event.userId}, race: ${event.raceId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingComparison = ratingComparisonRepository.findByUserIdAndRaceId(event.userId, event.raceId)
 
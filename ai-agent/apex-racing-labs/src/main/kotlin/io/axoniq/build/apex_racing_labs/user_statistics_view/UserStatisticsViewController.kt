@@ -1,9 +1,12 @@
 package io.axoniq.build.apex_racing_labs.user_statistics_view
 
+import io.axoniq.build.apex_racing_labs.query.ProjectionVersions
 import io.axoniq.build.apex_racing_labs.user_statistics_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/user-statistics")
 class UserStatisticsViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -28,9 +32,14 @@ class UserStatisticsViewController(
      * @return CompletableFuture containing UserStatisticsResult
      */
     @GetMapping("/{userId}")
-    fun getUserStatistics(@PathVariable userId: String): CompletableFuture<UserStatisticsResult> {
+    fun getUserStatistics(
+        @PathVariable userId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<UserStatisticsResult>> {
         logger.info("REST request for user statistics: $userId")
-        val query = PersonalVsCommunityStatistics(userId)
-        return queryGateway.query(query, UserStatisticsResult::class.java, null)
+        return projectionVersions.conditionalGet(UserStatisticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PersonalVsCommunityStatistics(userId)
+            queryGateway.query(query, UserStatisticsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package io.axoniq.build.apex_racing_labs.driver_comparison_view
+
+import io.axoniq.build.apex_racing_labs.driver_comparison_view.api.RaceComparison
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.time.LocalDate
+
+/**
+ * Test class for the columnar driver statistics store
+ */
+class DriverStatisticsStoreTest {
+
+    private val monza = LocalDate.of(2024, 9, 1)
+    private val silverstone = LocalDate.of(2024, 7, 7)
+    private val store = DriverStatisticsStore()
+
+    @Test
+    fun `given ratings in several races, when a rating is updated, then the overall rating follows incrementally`() {
+        store.rate("driver-1", "race-1", silverstone, "Silverstone", 6.0)
+        assertThat(store.rate("driver-1", "race-2", monza, "Monza", 8.0)).isEqualTo(7.0)
+
+        assertThat(store.rate("driver-1", "race-1", silverstone, "Silverstone", 10.0)).isEqualTo(9.0)
+        assertThat(store.overallRating("driver-1")).isEqualTo(9.0)
+        assertThat(store.overallRating("driver-2")).isNull()
+    }
+
+    @Test
+    fun `given two drivers, when comparing head to head, then only shared races are returned most recent first`() {
+        store.rate("driver-1", "race-1", silverstone, "Silverstone", 6.0)
+        store.rate("driver-1", "race-2", monza, "Monza", 8.0)
+        store.rate("driver-1", "race-3", LocalDate.of(2024, 5, 26), "Monaco", 5.0)
+        store.rate("driver-2", "race-2", monza, "Monza", 7.0)
+        store.rate("driver-2", "race-1", silverstone, "Silverstone", 9.0)
+
+        assertThat(store.headToHead("driver-1", "driver-2")).containsExactly(
+            RaceComparison(7.0, 8.0, "race-2", monza, "Monza"),
+            RaceComparison(9.0, 6.0, "race-1", silverstone, "Silverstone")
+        )
+        assertThat(store.headToHead("driver-2", "driver-1").first())
+            .isEqualTo(RaceComparison(8.0, 7.0, "race-2", monza, "Monza"))
+    }
+
+    @Test
+    fun `given more races than the initial column capacity, when rating, then the columns grow`() {
+        repeat(100) { race -> store.rate("driver-1", "race-$race", monza, "Monza", race.toDouble()) }
+
+        assertThat(store.overallRating("driver-1")).isEqualTo(49.5)
+    }
+
+    @Test
+    fun `given checkpointed columns, when restoring them into a new store, then the statistics are the same`() {
+        store.rate("driver-1", "race-1", silverstone, "Silverstone", 6.0)
+        store.rate("driver-1", "race-2", monza, "Monza", 8.0)
+        store.rate("driver-2", "race-2", monza, "Monza", 7.0)
+        val checkpoint = store.drainDirty()
+
+        val restored = DriverStatisticsStore()
+        checkpoint.forEach { (driverId, columns) -> restored.restore(driverId, columns) }
+
+        assertThat(store.drainDirty()).isEmpty()
+        assertThat(restored.overallRating("driver-1")).isEqualTo(7.0)
+        assertThat(restored.headToHead("driver-1", "driver-2"))
+            .isEqualTo(store.headToHead("driver-1", "driver-2"))
+    }
+
+    @Test
+    fun `given an unchanged rating, when rating again, then the driver is not marked dirty`() {
+        store.rate("driver-1", "race-1", silverstone, "Silverstone", 6.0)
+        store.drainDirty()
+
+        store.rate("driver-1", "race-1", silverstone, "Silverstone", 6.0)
+
+        assertThat(store.drainDirty()).isEmpty()
+    }
+}
@@ -0,0 +1,60 @@
+package io.axoniq.build.apex_racing_labs.race_search
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.time.LocalDate
+
+/**
+ * Test class for the in-process race search index
+ */
+class RaceSearchIndexTest {
+
+    private val index = RaceSearchIndex().apply {
+        putTeam("team-1", "Scuderia Rossa")
+        putDriver("driver-1", "Sébastien Ogier", "team-1")
+        putDriver("driver-2", "Lewis Hamilton", "team-1")
+        putRace("race-1", LocalDate.of(2024, 7, 7), "Silverstone Circuit", listOf("driver-2"))
+        putRace("race-2", LocalDate.of(2024, 9, 1), "Monza", listOf("driver-1", "driver-2"))
+        putRace("race-3", LocalDate.of(2024, 5, 26), "Circuit de Monaco", emptyList())
+    }
+
+    @Test
+    fun `given a prefix of a track name, when searching, then the race is found`() {
+        assertThat(index.search("silv").map { it.raceId }).containsExactly("race-1")
+    }
+
+    @Test
+    fun `given accents and case differences, when searching a driver name, then the races of the driver are found`() {
+        assertThat(index.search("SEBASTIEN").map { it.raceId }).containsExactly("race-2")
+    }
+
+    @Test
+    fun `given several terms, when searching, then only races matching every term are returned`() {
+        assertThat(index.search("hamilton monza").map { it.raceId }).containsExactly("race-2")
+        assertThat(index.search("hamilton monaco")).isEmpty()
+    }
+
+    @Test
+    fun `given matches in different fields, when searching, then track matches rank before driver and team matches`() {
+        index.putDriver("driver-3", "Carlos Circuit", "team-1")
+        index.putRace("race-4", LocalDate.of(2024, 10, 1), "Suzuka", listOf("driver-3"))
+
+        assertThat(index.search("circuit").map { it.raceId }).containsExactly("race-1", "race-3", "race-4")
+    }
+
+    @Test
+    fun `given a removed driver, when searching the driver name, then the driver's races no longer match`() {
+        index.removeDriver("driver-1")
+
+        assertThat(index.search("ogier")).isEmpty()
+        assertThat(index.search("monza").map { it.raceId }).containsExactly("race-2")
+    }
+
+    @Test
+    fun `given a renamed team, when searching, then races match the new team name only`() {
+        index.putTeam("team-1", "Silver Arrows")
+
+        assertThat(index.search("scuderia")).isEmpty()
+        assertThat(index.search("arrows").map { it.raceId }).containsExactly("race-2", "race-1")
+    }
+}
@@ -0,0 +1,35 @@
+package io.axoniq.build.apex_racing_labs.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.kotlin.registerKotlinModule
+import io.axoniq.build.apex_racing_labs.race_rating.RaceRatingState
+import io.axoniq.build.apex_racing_labs.race_rating.api.RaceCancelled
+import io.axoniq.build.apex_racing_labs.race_rating.api.RaceRated
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+
+/**
+ * Test class for serializing this application's snapshotted entity state with the snapshot mapper
+ */
+class SnapshotStoreTest {
+
+    private val snapshotStore = SnapshotStore(mock(SnapshotRepository::class.java), ObjectMapper().registerKotlinModule())
+
+    @Test
+    fun `given evolved race rating state, when serialized and deserialized, then state is restored`() {
+        val state = RaceRatingState()
+        state.evolve(RaceRated("race-1", "user-1", "Great race", 5))
+        state.evolve(RaceRated("race-1", "user-2", null, 3))
+        state.evolve(RaceCancelled("race-1"))
+
+        val restored = snapshotStore.deserialize(snapshotStore.serialize(state), RaceRatingState::class.java)
+
+        assertThat(restored.getRaceId()).isEqualTo("race-1")
+        assertThat(restored.getCancelled()).isTrue()
+        assertThat(restored.getUserRatings()).containsExactly(
+            RaceRatingState.UserRating("user-1", "Great race", 5),
+            RaceRatingState.UserRating("user-2", null, 3)
+        )
+    }
+}
@@ -0,0 +1,62 @@
+package io.axoniq.build.apex_racing_labs.snapshot
+
+import io.axoniq.build.apex_racing_labs.race_rating.RaceRatingState
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.eventsourcing.annotations.EventSourcedEntity
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.env.YamlPropertySourceLoader
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider
+import org.springframework.core.env.EnumerablePropertySource
+import org.springframework.core.env.Environment
+import org.springframework.core.env.StandardEnvironment
+import org.springframework.core.io.ClassPathResource
+import org.springframework.core.type.filter.AnnotationTypeFilter
+
+/**
+ * Test class for the snapshot thresholds configured for this application's event-sourced entities. The snapshot
+ * package itself is the one of dance-test, where its sourcing, caching and threshold resolution are tested.
+ */
+class SnapshottingConfigurationEnhancerTest {
+
+    companion object {
+        private const val PREFIX = "apex-racing-labs.snapshots"
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun enhancerWith(environment: Environment) = SnapshottingConfigurationEnhancer(
+        mock(ObjectProvider::class.java) as ObjectProvider<SnapshotStore>,
+        mock(ObjectProvider::class.java) as ObjectProvider<EntityStateCache>,
+        environment
+    )
+
+    private fun applicationEnvironment() = StandardEnvironment().apply {
+        YamlPropertySourceLoader().load("application", ClassPathResource("application.yml"))
+            .forEach { propertySources.addLast(it) }
+    }
+
+    @Test
+    fun `given the application configuration, when resolved, then race rating is snapshotted`() {
+        val enhancer = enhancerWith(applicationEnvironment())
+
+        assertThat(RaceRatingState::class.java.isAnnotationPresent(EventSourcedEntity::class.java)).isTrue()
+        assertThat(enhancer.thresholdFor(RaceRatingState::class.java)).isPositive()
+    }
+
+    @Test
+    fun `given the application configuration, when read, then every threshold names an event-sourced entity`() {
+        val scanner = ClassPathScanningCandidateComponentProvider(false)
+        scanner.addIncludeFilter(AnnotationTypeFilter(EventSourcedEntity::class.java))
+        val entities = scanner.findCandidateComponents("io.axoniq.build.apex_racing_labs")
+            .map { it.beanClassName!!.substringAfterLast('.') }
+        val configured = applicationEnvironment().propertySources
+            .filterIsInstance<EnumerablePropertySource<*>>()
+            .flatMap { it.propertyNames.toList() }
+            .filter { it.startsWith("$PREFIX.thresholds.") }
+            .map { it.removePrefix("$PREFIX.thresholds.") }
+
+        assertThat(configured).isNotEmpty
+        assertThat(entities).containsAll(configured)
+    }
+}
@@ -0,0 +1,131 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.benchmarks
+
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.GalleryCatalogQueryComponent
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.GalleryProject
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.GalleryProjectRepository
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api.ProjectSharedToGallery
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api.VoteRegistered
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.time.LocalDateTime
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [GalleryCatalogQueryComponent] event handlers writing to PostgreSQL, started in a throwaway
+ * container, through the application's JPA repositories. Only the gallery's own tables and beans are loaded, not the
+ * whole application context. Each event is handled in its own unit of work and transaction, as in an event
+ * processor. [onVoteRegistered] spreads the votes of new participants over a gallery of projects shared in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class GalleryCatalogProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [GalleryProject::class])
+    @EnableJpaRepositories(basePackageClasses = [GalleryProjectRepository::class])
+    @Import(GalleryCatalogQueryComponent::class, ProjectionVersions::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<Nothing>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: GalleryCatalogQueryComponent
+    private lateinit var transactionTemplate: TransactionTemplate
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(GalleryCatalogQueryComponent::class.java)
+        transactionTemplate = TransactionTemplate(context.getBean(PlatformTransactionManager::class.java))
+        (0 until GALLERY_SIZE).chunked(100).forEach { ids ->
+            handle { ctx -> ids.forEach { id -> component.on(projectShared("gallery-$id"), ctx) } }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onProjectSharedToGallery() {
+        val event = projectShared("project-${sequence.incrementAndGet()}")
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun onVoteRegistered() {
+        val id = sequence.incrementAndGet()
+        val event = VoteRegistered("voter-$id", "UP", "gallery-${id % GALLERY_SIZE}")
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    private fun projectShared(projectId: String) =
+        ProjectSharedToGallery(LocalDateTime.now(), "participant-$projectId", "Project $projectId", projectId)
+
+    private fun handle(handler: (ProcessingContext) -> Unit) {
+        transactionTemplate.executeWithoutResult {
+            unitOfWorkFactory.create().executeWithResult { ctx ->
+                handler(ctx)
+                CompletableFuture.completedFuture(null)
+            }.join()
+        }
+    }
+
+    private companion object {
+        const val GALLERY_SIZE = 1000
+    }
+}
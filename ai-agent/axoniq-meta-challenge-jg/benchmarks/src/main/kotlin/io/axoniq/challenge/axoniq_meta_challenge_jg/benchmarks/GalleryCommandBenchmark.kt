@@ -0,0 +1,58 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.benchmarks
+
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.api.ProjectSharingResult
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.api.ShareProjectToGallery
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.configuration.AxonConfiguration
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of sharing a project to the gallery, dispatched through the command gateway. Every invocation is by a
+ * new participant, so the measurement covers dispatch, loading an empty entity, running the handler and appending
+ * the resulting event. Voting is left out, as its handler fails a random tenth of the votes on purpose.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class GalleryCommandBenchmark {
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var commandGateway: CommandGateway
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.galleryManagement()
+        commandGateway = configuration.getComponent(CommandGateway::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun shareProjectToGallery(): ProjectSharingResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            ShareProjectToGallery("app-$id", "participant-$id", "Project $id"),
+            ProjectSharingResult::class.java
+        )
+    }
+}
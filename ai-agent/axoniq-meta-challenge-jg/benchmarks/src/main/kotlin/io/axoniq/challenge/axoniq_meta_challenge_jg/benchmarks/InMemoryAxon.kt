@@ -0,0 +1,34 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.benchmarks
+
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.GalleryManagementCommandHandler
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.GalleryManagementState
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Gallery Management fixture test: the annotated entity and command
+ * handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun galleryManagement(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(String::class.java, GalleryManagementState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("GalleryManagement")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { GalleryManagementCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
@@ -1,20 +1,25 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
 /**
  * REST Controller for Admin Dashboard - exposes administrative endpoints
  * for AxonIQ employees to access challenge, participant, and prize data
+ * All endpoints are tagged with the version of their data and answer `If-None-Match` conditionally.
  */
 @RestController
 @RequestMapping("/api/admin-dashboard")
 class AdminDashboardController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -25,40 +30,62 @@ class AdminDashboardController(
      * Get prize collection instructions for a specific participant
      */
     @GetMapping("/prize-instructions/{participantId}")
-    fun getPrizeInstructions(@PathVariable participantId: String): CompletableFuture<PrizeInstructionsData> {
+    fun getPrizeInstructions(
+        @PathVariable participantId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PrizeInstructionsData>> {
         logger.info("Getting prize instructions for participant: $participantId")
-        val query = PrizeCollectionInstructions(participantId)
-        return queryGateway.query(query, PrizeInstructionsData::class.java, null)
+        val key = AdminDashboardQueryComponent.PRIZE_INSTRUCTIONS_KEY
+        return projectionVersions.conditionalGet(key, ifNoneMatch, PrizeInstructionsData::version) {
+            val query = PrizeCollectionInstructions(participantId)
+            queryGateway.query(query, PrizeInstructionsData::class.java, null)
+        }
     }
     
     /**
      * Get detailed completion data for a specific participant
      */
     @GetMapping("/completion-details/{participantId}")
-    fun getCompletionDetails(@PathVariable participantId: String): CompletableFuture<DetailedCompletionData> {
+    fun getCompletionDetails(
+        @PathVariable participantId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DetailedCompletionData>> {
         logger.info("Getting completion details for participant: $participantId")
-        val query = DetailedChallengeCompletion(participantId)
-        return queryGateway.query(query, DetailedCompletionData::class.java, null)
+        val key = AdminDashboardQueryComponent.completionKey(participantId)
+        return projectionVersions.conditionalGet(key, ifNoneMatch, DetailedCompletionData::version) {
+            val query = DetailedChallengeCompletion(participantId)
+            queryGateway.query(query, DetailedCompletionData::class.java, null)
+        }
     }
 
     /**
      * Get all running challenges
      */
     @GetMapping("/running-challenges")
-    fun getRunningChallenges(): CompletableFuture<AllRunningChallengesData> {
+    fun getRunningChallenges(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AllRunningChallengesData>> {
         logger.info("Getting all running challenges")
-        val query = AllRunningChallenges()
-        return queryGateway.query(query, AllRunningChallengesData::class.java, null)
+        val key = AdminDashboardQueryComponent.RUNNING_CHALLENGES_KEY
+        return projectionVersions.conditionalGet(key, ifNoneMatch, AllRunningChallengesData::version) {
+            val query = AllRunningChallenges()
+            queryGateway.query(query, AllRunningChallengesData::class.java, null)
+        }
     }
     
     /**
      * Get participant results dashboard data
      */
     @GetMapping("/participant-results")
-    fun getParticipantResults(): CompletableFuture<ParticipantResultsData> {
+    fun getParticipantResults(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ParticipantResultsData>> {
         logger.info("Getting participant results dashboard")
-        val query = ParticipantResultsDashboard()
-        return queryGateway.query(query, ParticipantResultsData::class.java, null)
+        val key = AdminDashboardQueryComponent.PARTICIPANT_RESULTS_KEY
+        return projectionVersions.conditionalGet(key, ifNoneMatch, ParticipantResultsData::version) {
+            val query = ParticipantResultsDashboard()
+            queryGateway.query(query, ParticipantResultsData::class.java, null)
+        }
     }
 }
 
@@ -6,6 +6,7 @@ import java.time.LocalDateTime
 /**
  * JPA Entity for Admin Dashboard - stores administrative data for managing challenges,
  * participants, and prizes for AxonIQ employees
+ * The version is bumped by every event applied to the row, and served in the ETags of the admin dashboard.
  */
 @Entity
 @Table(name = "admin_dashboard")
@@ -35,7 +36,10 @@ data class AdminDashboardEntity(
     val prizeClaimed: Boolean = false,
 
     @Column
-    val startTime: LocalDateTime? = null
+    val startTime: LocalDateTime? = null,
+
+    @Column(nullable = false)
+    val version: Long = 0
 ) {
     // Default constructor for JPA
     constructor() : this(
@@ -47,7 +51,8 @@ data class AdminDashboardEntity(
         participantEmail = "",
         isEligible = false,
         prizeClaimed = false,
-        startTime = null
+        startTime = null,
+        version = 0
     )
 }
 
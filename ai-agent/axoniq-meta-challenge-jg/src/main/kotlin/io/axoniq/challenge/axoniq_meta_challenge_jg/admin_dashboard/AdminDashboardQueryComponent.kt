@@ -1,7 +1,9 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -11,14 +13,42 @@ import java.time.LocalDateTime
 /**
  * Query component for Admin Dashboard - handles administrative queries and events
  * for AxonIQ employees to review challenges, participants, and prizes
+ * Every event bumps the version of the participant's row, which the completion details serve as their ETag; the
+ * running challenges and participant results are tagged with the sum of the versions of all rows.
  */
 @Component
 class AdminDashboardQueryComponent(
-    private val repository: AdminDashboardRepository
+    private val repository: AdminDashboardRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AdminDashboardQueryComponent::class.java)
+
+        /**
+         * Version of the prize collection instructions; bump it whenever the instructions below change.
+         */
+        const val PRIZE_INSTRUCTIONS_VERSION = 1L
+
+        /**
+         * Key of the prize collection instructions in the [ProjectionVersions], the same for every participant.
+         */
+        const val PRIZE_INSTRUCTIONS_KEY = "admin-prize-instructions"
+
+        /**
+         * Key of the running challenges in the [ProjectionVersions].
+         */
+        const val RUNNING_CHALLENGES_KEY = "admin-running-challenges"
+
+        /**
+         * Key of the participant results in the [ProjectionVersions].
+         */
+        const val PARTICIPANT_RESULTS_KEY = "admin-participant-results"
+
+        /**
+         * Key of a participant's completion details in the [ProjectionVersions].
+         */
+        fun completionKey(participantId: String) = "admin-completion:$participantId"
     }
 
     /**
@@ -34,7 +64,8 @@ class AdminDashboardQueryComponent(
         return PrizeInstructionsData(
             requiredIdentification = "Government-issued photo ID",
             boothLocation = "AxonIQ Booth #42, Main Conference Hall",
-            availableHours = "9:00 AM - 5:00 PM, Monday-Friday"
+            availableHours = "9:00 AM - 5:00 PM, Monday-Friday",
+            version = PRIZE_INSTRUCTIONS_VERSION
         )
     }
 
@@ -55,7 +86,8 @@ class AdminDashboardQueryComponent(
             participantId = participant.participantId,
             applicationCreated = true, // Default assumption - would be tracked separately
             projectShared = true, // Default assumption - would be tracked separately
-            completionTime = participant.completionTime ?: LocalDateTime.now()
+            completionTime = participant.completionTime ?: LocalDateTime.now(),
+            version = participant.version
         )
     }
 
@@ -72,7 +104,7 @@ class AdminDashboardQueryComponent(
             ChallengeStatus()
         }
 
-        return AllRunningChallengesData(runningChallenges = runningChallenges)
+        return AllRunningChallengesData(runningChallenges = runningChallenges, version = repository.sumVersions())
     }
 
     /**
@@ -92,20 +124,20 @@ class AdminDashboardQueryComponent(
                 )
             }
 
-        return ParticipantResultsData(eligibleParticipants = eligibleParticipants)
+        return ParticipantResultsData(eligibleParticipants = eligibleParticipants, version = repository.sumVersions())
     }
 
     /**
      * Event handler for EligibilityDetermined - updates participant eligibility status
      */
     @EventHandler
-    fun on(event: EligibilityDetermined) {
+    fun on(event: EligibilityDetermined, processingContext: ProcessingContext) {
         logger.info("Handling EligibilityDetermined event for participant: ${event.participantId}")
 
         val participant = repository.findById(event.participantId)
         if (participant.isPresent) {
-            val updated = participant.get().copy(isEligible = event.isEligible)
-            repository.save(updated)
+            val updated = participant.get().let { it.copy(isEligible = event.isEligible, version = it.version + 1) }
+            save(updated, processingContext)
         } else {
             logger.warn("Participant not found for eligibility update: ${event.participantId}")
         }
@@ -115,14 +147,14 @@ class AdminDashboardQueryComponent(
      * Event handler for WinnersSelected - updates winner status for selected participants
      */
     @EventHandler
-    fun on(event: WinnersSelected) {
+    fun on(event: WinnersSelected, processingContext: ProcessingContext) {
         logger.info("Handling WinnersSelected event for ${event.winnerIds.size} winners")
 
         event.winnerIds.forEach { winnerId ->
             val participant = repository.findById(winnerId)
             if (participant.isPresent) {
-                val updated = participant.get().copy(isWinner = true)
-                repository.save(updated)
+                val updated = participant.get().let { it.copy(isWinner = true, version = it.version + 1) }
+                save(updated, processingContext)
             } else {
                 logger.warn("Participant not found for winner update: $winnerId")
             }
@@ -133,16 +165,15 @@ class AdminDashboardQueryComponent(
      * Event handler for ChallengeStarted - creates or updates participant record when challenge starts
      */
     @EventHandler
-    fun on(event: ChallengeStarted) {
+    fun on(event: ChallengeStarted, processingContext: ProcessingContext) {
         logger.info("Handling ChallengeStarted event for participant: ${event.participantId}")
 
         val existingParticipant = repository.findById(event.participantId)
         if (existingParticipant.isPresent) {
-            val updated = existingParticipant.get().copy(
-                challengeStatus = "RUNNING",
-                startTime = LocalDateTime.now()
-            )
-            repository.save(updated)
+            val updated = existingParticipant.get().let {
+                it.copy(challengeStatus = "RUNNING", startTime = LocalDateTime.now(), version = it.version + 1)
+            }
+            save(updated, processingContext)
         } else {
             // Create new participant record
             val newParticipant = AdminDashboardEntity(
@@ -150,9 +181,10 @@ class AdminDashboardQueryComponent(
                 challengeId = "default-challenge", // Would be provided in real implementation
                 challengeStatus = "RUNNING",
                 participantEmail = "unknown@example.com", // Would be fetched from participant service
-                startTime = LocalDateTime.now()
+                startTime = LocalDateTime.now(),
+                version = 1
             )
-            repository.save(newParticipant)
+            save(newParticipant, processingContext)
         }
     }
 
@@ -170,16 +202,28 @@ class AdminDashboardQueryComponent(
      * Event handler for PrizeClaimed - updates prize claimed status for participant
      */
     @EventHandler
-    fun on(event: PrizeClaimed) {
+    fun on(event: PrizeClaimed, processingContext: ProcessingContext) {
         logger.info("Handling PrizeClaimed event for participant: ${event.participantId}")
 
         val participant = repository.findById(event.participantId)
         if (participant.isPresent) {
-            val updated = participant.get().copy(prizeClaimed = true)
-            repository.save(updated)
+            val updated = participant.get().let { it.copy(prizeClaimed = true, version = it.version + 1) }
+            save(updated, processingContext)
         } else {
             logger.warn("Participant not found for prize claim update: ${event.participantId}")
         }
     }
-}
 
+    /**
+     * Saves the updated row, and once it is committed advances the version of the participant's completion details
+     * and forgets those of the views over all participants.
+     */
+    private fun save(participant: AdminDashboardEntity, processingContext: ProcessingContext) {
+        repository.save(participant)
+        processingContext.runOnAfterCommit {
+            projectionVersions.advance(completionKey(participant.participantId), participant.version)
+            projectionVersions.forget(RUNNING_CHALLENGES_KEY)
+            projectionVersions.forget(PARTICIPANT_RESULTS_KEY)
+        }
+    }
+}
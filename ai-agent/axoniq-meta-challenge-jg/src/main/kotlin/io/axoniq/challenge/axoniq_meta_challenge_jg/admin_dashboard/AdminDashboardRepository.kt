@@ -27,5 +27,11 @@ interface AdminDashboardRepository : JpaRepository<AdminDashboardEntity, String>
      */
     @Query("SELECT DISTINCT a.challengeId FROM AdminDashboardEntity a WHERE a.challengeStatus = 'RUNNING'")
     fun findRunningChallengeIds(): List<String>
+
+    /**
+     * Sum of the versions of all participants, which grows with every change to any of them
+     */
+    @Query("SELECT COALESCE(SUM(a.version), 0) FROM AdminDashboardEntity a")
+    fun sumVersions(): Long
 }
 
@@ -2,6 +2,7 @@ package io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard.api
 
 import java.time.LocalDateTime
 import kotlin.Boolean
+import kotlin.Long
 import kotlin.String
 
 public data class DetailedCompletionData(
@@ -11,4 +12,5 @@ public data class DetailedCompletionData(
   public val applicationCreated: Boolean,
   public val projectShared: Boolean,
   public val completionTime: LocalDateTime,
+  public val version: Long,
 )
@@ -1,7 +1,9 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.admin_dashboard.api
 
+import kotlin.Long
 import kotlin.collections.List
 
 public data class ParticipantResultsData(
   public val eligibleParticipants: List<ParticipantResult>,
+  public val version: Long,
 )
@@ -1,20 +1,26 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
 /**
  * REST Controller for Challenge Dashboard endpoints.
  * Provides HTTP access to challenge overview and participant progress data.
+ * Both endpoints are tagged with the version of their data and answer `If-None-Match` conditionally, so polling
+ * dashboards get a 304 without a query while nothing changed.
  */
 @RestController
 @RequestMapping("/api/challenge-dashboard")
 class ChallengeDashboardController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ChallengeDashboardController::class.java)
@@ -25,10 +31,15 @@ class ChallengeDashboardController(
      * Returns challenge title, requirements, and estimated completion time.
      */
     @GetMapping("/overview")
-    fun getChallengeOverview(): CompletableFuture<ChallengeOverviewData> {
+    fun getChallengeOverview(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ChallengeOverviewData>> {
         logger.info("Received request for challenge overview")
-        val query = ChallengeOverview()
-        return queryGateway.query(query, ChallengeOverviewData::class.java, null)
+        val key = ChallengeDashboardQueryComponent.OVERVIEW_KEY
+        return projectionVersions.conditionalGet(key, ifNoneMatch, ChallengeOverviewData::version) {
+            val query = ChallengeOverview()
+            queryGateway.query(query, ChallengeOverviewData::class.java, null)
+        }
     }
 
     /**
@@ -36,9 +47,15 @@ class ChallengeDashboardController(
      * Returns detailed progress information including completion percentage and milestone status.
      */
     @GetMapping("/progress/{participantId}")
-    fun getProgressDashboard(@PathVariable participantId: String): CompletableFuture<ProgressDashboardData> {
+    fun getProgressDashboard(
+        @PathVariable participantId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ProgressDashboardData>> {
         logger.info("Received request for progress dashboard for participant: $participantId")
-        val query = ProgressDashboard(participantId)
-        return queryGateway.query(query, ProgressDashboardData::class.java, null)
+        val key = ChallengeDashboardQueryComponent.progressKey(participantId)
+        return projectionVersions.conditionalGet(key, ifNoneMatch, ProgressDashboardData::version) {
+            val query = ProgressDashboard(participantId)
+            queryGateway.query(query, ProgressDashboardData::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.hibernate.type.SqlTypes
 /**
  * JPA Entity representing the Challenge Dashboard view model.
  * Tracks participant progress and challenge information for the Challenge Dashboard component.
+ * The version is bumped by every event applied to the row, and served as the ETag of the participant's progress.
  */
 @Entity
 @Table(name = "challenge_dashboard")
@@ -35,6 +36,9 @@ data class ChallengeDashboardEntity(
     val projectShared: Boolean = false,
 
     @Column(name = "challenge_started")
-    val challengeStarted: Boolean = false
+    val challengeStarted: Boolean = false,
+
+    @Column(name = "version", nullable = false)
+    val version: Long = 0
 )
 
@@ -1,7 +1,9 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -11,13 +13,30 @@ import org.springframework.stereotype.Component
  * Query component for the Challenge Dashboard.
  * Handles queries for challenge overview and progress dashboard data,
  * and processes events to maintain the read model.
+ * Every event bumps the version of the participant's row, which the progress dashboard serves as its ETag.
  */
 @Component
 class ChallengeDashboardQueryComponent(
-    private val repository: ChallengeDashboardRepository
+    private val repository: ChallengeDashboardRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ChallengeDashboardQueryComponent::class.java)
+
+        /**
+         * Version of the challenge overview; bump it whenever the overview below changes.
+         */
+        const val OVERVIEW_VERSION = 1L
+
+        /**
+         * Key of the challenge overview in the [ProjectionVersions].
+         */
+        const val OVERVIEW_KEY = "challenge-overview"
+
+        /**
+         * Key of a participant's progress dashboard in the [ProjectionVersions].
+         */
+        fun progressKey(participantId: String) = "challenge-progress:$participantId"
     }
 
     /**
@@ -36,7 +55,8 @@ class ChallengeDashboardQueryComponent(
                 "Cast vote for community projects",
                 "Meet eligibility requirements"
             ),
-            estimatedCompletionTime = 120 // 2 hours in minutes
+            estimatedCompletionTime = 120, // 2 hours in minutes
+            version = OVERVIEW_VERSION
         )
     }
 
@@ -58,7 +78,8 @@ class ChallengeDashboardQueryComponent(
             stepInstructions = entity.stepInstructions,
             applicationCreated = entity.applicationCreated,
             isEligible = entity.isEligible,
-            projectShared = entity.projectShared
+            projectShared = entity.projectShared,
+            version = entity.version
         )
     }
 
@@ -67,18 +88,19 @@ class ChallengeDashboardQueryComponent(
      * Updates the read model when a participant casts a vote.
      */
     @EventHandler
-    fun on(event: VoteRegistered) {
+    fun on(event: VoteRegistered, processingContext: ProcessingContext) {
         logger.info("Processing VoteRegistered event for participant: ${event.participantId}")
 
         val entity = repository.findById(event.participantId)
             .orElse(ChallengeDashboardEntity(participantId = event.participantId))
 
         val updatedEntity = entity.copy(
+            version = entity.version + 1,
             voteCast = true,
             completionPercentage = calculateCompletionPercentage(entity.copy(voteCast = true))
         )
 
-        repository.save(updatedEntity)
+        save(updatedEntity, processingContext)
         logger.info("Updated vote status for participant: ${event.participantId}")
     }
 
@@ -87,18 +109,19 @@ class ChallengeDashboardQueryComponent(
      * Updates the read model when a participant's eligibility is determined.
      */
     @EventHandler
-    fun on(event: EligibilityDetermined) {
+    fun on(event: EligibilityDetermined, processingContext: ProcessingContext) {
         logger.info("Processing EligibilityDetermined event for participant: ${event.participantId}, eligible: ${event.isEligible}")
 
         val entity = repository.findById(event.participantId)
             .orElse(ChallengeDashboardEntity(participantId = event.participantId))
 
         val updatedEntity = entity.copy(
+            version = entity.version + 1,
             isEligible = event.isEligible,
             completionPercentage = calculateCompletionPercentage(entity.copy(isEligible = event.isEligible))
         )
 
-        repository.save(updatedEntity)
+        save(updatedEntity, processingContext)
         logger.info("Updated eligibility status for participant: ${event.participantId}")
     }
 
@@ -107,7 +130,7 @@ class ChallengeDashboardQueryComponent(
      * Updates the read model when a participant starts the challenge.
      */
     @EventHandler
-    fun on(event: ChallengeStarted) {
+    fun on(event: ChallengeStarted, processingContext: ProcessingContext) {
         logger.info("Processing ChallengeStarted event for participant: ${event.participantId}")
 
         val entity = repository.findById(event.participantId)
@@ -121,12 +144,13 @@ class ChallengeDashboardQueryComponent(
         )
 
         val updatedEntity = entity.copy(
+            version = entity.version + 1,
             challengeStarted = true,
             stepInstructions = stepInstructions,
             completionPercentage = calculateCompletionPercentage(entity.copy(challengeStarted = true, stepInstructions = stepInstructions))
         )
         
-        repository.save(updatedEntity)
+        save(updatedEntity, processingContext)
         logger.info("Challenge started for participant: ${event.participantId}")
     }
 
@@ -135,18 +159,19 @@ class ChallengeDashboardQueryComponent(
      * Updates the read model when a participant shares their project.
      */
     @EventHandler
-    fun on(event: ProjectSharedToGallery) {
+    fun on(event: ProjectSharedToGallery, processingContext: ProcessingContext) {
         logger.info("Processing ProjectSharedToGallery event for participant: ${event.participantId}")
 
         val entity = repository.findById(event.participantId)
             .orElse(ChallengeDashboardEntity(participantId = event.participantId))
 
         val updatedEntity = entity.copy(
+            version = entity.version + 1,
             projectShared = true,
             completionPercentage = calculateCompletionPercentage(entity.copy(projectShared = true))
         )
 
-        repository.save(updatedEntity)
+        save(updatedEntity, processingContext)
         logger.info("Project shared status updated for participant: ${event.participantId}")
     }
 
@@ -155,21 +180,32 @@ class ChallengeDashboardQueryComponent(
      * Updates the read model when a participant successfully generates their application.
      */
     @EventHandler
-    fun on(event: ApplicationGeneratedSuccessfully) {
+    fun on(event: ApplicationGeneratedSuccessfully, processingContext: ProcessingContext) {
         logger.info("Processing ApplicationGeneratedSuccessfully event for participant: ${event.participantId}")
 
         val entity = repository.findById(event.participantId)
             .orElse(ChallengeDashboardEntity(participantId = event.participantId))
         
         val updatedEntity = entity.copy(
+            version = entity.version + 1,
             applicationCreated = true,
             completionPercentage = calculateCompletionPercentage(entity.copy(applicationCreated = true))
         )
 
-        repository.save(updatedEntity)
+        save(updatedEntity, processingContext)
         logger.info("Application creation status updated for participant: ${event.participantId}")
     }
 
+    /**
+     * Saves the updated row, and advances the version of the participant's progress once the row is committed.
+     */
+    private fun save(entity: ChallengeDashboardEntity, processingContext: ProcessingContext) {
+        repository.save(entity)
+        processingContext.runOnAfterCommit {
+            projectionVersions.advance(progressKey(entity.participantId), entity.version)
+        }
+    }
+
     /**
      * Calculates the completion percentage based on completed milestones.
      * Each milestone contributes equally to the overall completion percentage.
@@ -1,6 +1,7 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard.api
 
 import kotlin.Int
+import kotlin.Long
 import kotlin.String
 import kotlin.collections.List
 
@@ -8,4 +9,5 @@ public data class ChallengeOverviewData(
   public val challengeTitle: String,
   public val requirements: List<String>,
   public val estimatedCompletionTime: Int,
+  public val version: Long,
 )
@@ -2,6 +2,7 @@ package io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_dashboard.api
 
 import kotlin.Boolean
 import kotlin.Int
+import kotlin.Long
 import kotlin.String
 import kotlin.collections.List
 
@@ -13,4 +14,5 @@ public data class ProgressDashboardData(
   public val applicationCreated: Boolean,
   public val isEligible: Boolean,
   public val projectShared: Boolean,
+  public val version: Long,
 )
@@ -1,12 +1,14 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_management
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.challenge_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.challenge.axoniq_meta_challenge_jg.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST Controller for Challenge Management operations.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/challenge-management")
 class ChallengeManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ChallengeManagementController::class.java)
@@ -25,51 +27,48 @@ class ChallengeManagementController(
      * Endpoint to begin a challenge for a participant
      */
     @PostMapping("/begin")
-    fun beginChallenge(@RequestBody request: BeginChallengeRequest): ResponseEntity<String> {
+    fun beginChallenge(@RequestBody request: BeginChallengeRequest): Mono<ResponseEntity<String>> {
         val command = BeginChallenge(participantId = request.participantId)
         logger.info("Dispatching BeginChallenge command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge begin request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch BeginChallenge command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to begin challenge")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge begin request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch BeginChallenge command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to begin challenge"))
+            }
     }
 
     /**
      * Endpoint to check challenge completion status for a participant
      */
     @PostMapping("/check-completion")
-    fun checkChallengeCompletion(@RequestBody request: CheckChallengeCompletionRequest): ResponseEntity<String> {
+    fun checkChallengeCompletion(@RequestBody request: CheckChallengeCompletionRequest): Mono<ResponseEntity<String>> {
         val command = CheckChallengeCompletion(participantId = request.participantId)
         logger.info("Dispatching CheckChallengeCompletion command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge completion check accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CheckChallengeCompletion command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to check challenge completion")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge completion check accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CheckChallengeCompletion command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to check challenge completion"))
+            }
     }
 
     /**
      * Endpoint to attempt challenge restart for a participant
      */
     @PostMapping("/attempt-restart")
-    fun attemptChallengeRestart(@RequestBody request: AttemptChallengeRestartRequest): ResponseEntity<String> {
+    fun attemptChallengeRestart(@RequestBody request: AttemptChallengeRestartRequest): Mono<ResponseEntity<String>> {
         val command = AttemptChallengeRestart(participantId = request.participantId)
         logger.info("Dispatching AttemptChallengeRestart command: $command")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge restart attempt accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch AttemptChallengeRestart command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to attempt challenge restart")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Challenge restart attempt accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch AttemptChallengeRestart command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to attempt challenge restart"))
+            }
     }
 }
 
@@ -1,20 +1,26 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
 /**
  * REST Controller for Gallery Catalog component providing HTTP endpoints for gallery project queries.
  * Exposes endpoints to retrieve completed applications, gallery projects list, and project details.
+ * All endpoints are tagged with the version of their data and answer `If-None-Match` conditionally; a participant
+ * without a project or an unknown project is tagged with version 0.
  */
 @RestController
 @RequestMapping("/api/gallery-catalog")
 class GalleryCatalogController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -26,10 +32,16 @@ class GalleryCatalogController(
      * Maps to CompletedApplication query handler in the Gallery Catalog component.
      */
     @GetMapping("/completed-applications/{participantId}")
-    fun getCompletedApplication(@PathVariable participantId: String): CompletableFuture<CompletedApplicationData> {
+    fun getCompletedApplication(
+        @PathVariable participantId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<CompletedApplicationData?>> {
         logger.info("REST request for completed application, participantId: $participantId")
-        val query = CompletedApplication(participantId)
-        return queryGateway.query(query, CompletedApplicationData::class.java, null)
+        val key = GalleryCatalogQueryComponent.applicationKey(participantId)
+        return projectionVersions.conditionalGet<CompletedApplicationData?>(key, ifNoneMatch, { it?.version ?: 0 }) {
+            val query = CompletedApplication(participantId)
+            queryGateway.query(query, CompletedApplicationData::class.java, null)
+        }
     }
 
     /**
@@ -37,10 +49,15 @@ class GalleryCatalogController(
      * Maps to GalleryProjects query handler in the Gallery Catalog component.
      */
     @GetMapping("/projects")
-    fun getGalleryProjects(): CompletableFuture<GalleryProjectsList> {
+    fun getGalleryProjects(
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<GalleryProjectsList>> {
         logger.info("REST request for gallery projects list")
-        val query = GalleryProjects()
-        return queryGateway.query(query, GalleryProjectsList::class.java, null)
+        val key = GalleryCatalogQueryComponent.PROJECTS_KEY
+        return projectionVersions.conditionalGet(key, ifNoneMatch, GalleryProjectsList::version) {
+            val query = GalleryProjects()
+            queryGateway.query(query, GalleryProjectsList::class.java, null)
+        }
     }
 
     /**
@@ -48,9 +65,15 @@ class GalleryCatalogController(
      * Maps to ProjectDetails query handler in the Gallery Catalog component.
      */
     @GetMapping("/projects/{projectId}")
-    fun getProjectDetails(@PathVariable projectId: String): CompletableFuture<ProjectDetailsData> {
+    fun getProjectDetails(
+        @PathVariable projectId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ProjectDetailsData?>> {
         logger.info("REST request for project details, projectId: $projectId")
-        val query = ProjectDetails(projectId)
-        return queryGateway.query(query, ProjectDetailsData::class.java, null)
+        val key = GalleryCatalogQueryComponent.projectKey(projectId)
+        return projectionVersions.conditionalGet<ProjectDetailsData?>(key, ifNoneMatch, { it?.version ?: 0 }) {
+            val query = ProjectDetails(projectId)
+            queryGateway.query(query, ProjectDetailsData::class.java, null)
+        }
     }
-}
\ No newline at end of file
+}
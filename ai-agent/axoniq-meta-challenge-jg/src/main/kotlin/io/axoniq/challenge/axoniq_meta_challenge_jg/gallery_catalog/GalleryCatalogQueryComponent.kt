@@ -1,24 +1,60 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
 
 import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api.*
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
+import org.springframework.transaction.annotation.Transactional
 
 /**
  * Gallery Catalog query component that provides gallery project listing and detailed project information.
  * This component handles queries for completed applications, gallery projects list, and project details.
  * It also processes events to maintain the read model for gallery projects.
+ *
+ * Votes are counted in [GalleryProjectVoteShard] rows rather than on the project row, so votes for a popular
+ * project do not all contend on one row lock. Project details sum the shards; [GalleryVoteAggregator]
+ * periodically copies the sums into the project rows. A vote is only added to its shard when its
+ * [GalleryProjectVote] row is new, so redelivered votes are not counted twice.
+ *
+ * Sharing a project bumps the version of its row. A participant's completed application is served with the version
+ * of the row, the project list with the sum of the versions of all rows, and the project details with the version
+ * of the row plus its votes, so every counted vote changes their ETag without touching the project row.
  */
 @Component
 class GalleryCatalogQueryComponent(
-    private val galleryProjectRepository: GalleryProjectRepository
+    private val galleryProjectRepository: GalleryProjectRepository,
+    private val voteRepository: GalleryProjectVoteRepository,
+    private val voteShardRepository: GalleryProjectVoteShardRepository,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${axoniq-meta-challenge-jg.gallery.vote-shards:16}") private val voteShards: Int
 ) {
     
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(GalleryCatalogQueryComponent::class.java)
+
+        /**
+         * Key of the gallery project list in the [ProjectionVersions].
+         */
+        const val PROJECTS_KEY = "gallery-projects"
+
+        /**
+         * Key of a participant's completed application in the [ProjectionVersions].
+         */
+        fun applicationKey(participantId: String) = "gallery-application:$participantId"
+
+        /**
+         * Key of a project's details in the [ProjectionVersions].
+         */
+        fun projectKey(projectId: String) = "gallery-project:$projectId"
+    }
+
+    init {
+        require(voteShards > 0) { "The number of vote shards must be positive" }
     }
 
     /**
@@ -35,7 +71,8 @@ class GalleryCatalogQueryComponent(
             CompletedApplicationData(
                 applicationTitle = it.projectTitle,
                 applicationId = it.applicationId ?: it.projectId,
-                isReadyForSharing = it.applicationId != null
+                isReadyForSharing = it.applicationId != null,
+                version = it.version
             )
         }
     }
@@ -48,7 +85,8 @@ class GalleryCatalogQueryComponent(
     fun handle(query: GalleryProjects): GalleryProjectsList {
         logger.info("Handling GalleryProjects query to retrieve all gallery projects")
 
-        val projects = galleryProjectRepository.findAll()
+        val rows = galleryProjectRepository.findAll()
+        val projects = rows
             .sortedByDescending { it.submissionTime }
             .map { project ->
                 ProjectSummary(
@@ -60,7 +98,7 @@ class GalleryCatalogQueryComponent(
             }
 
         logger.debug("Retrieved ${projects.size} gallery projects")
-        return GalleryProjectsList(projects)
+        return GalleryProjectsList(projects, version = rows.sumOf { it.version })
     }
     
     /**
@@ -74,31 +112,36 @@ class GalleryCatalogQueryComponent(
         val project = galleryProjectRepository.findById(query.projectId).orElse(null)
         
         return project?.let {
+            val votes = voteShardRepository.sumVotes(it.projectId)
             ProjectDetailsData(
                 submissionTime = it.submissionTime,
                 creatorName = it.creatorName,
                 projectTitle = it.projectTitle,
                 projectId = it.projectId,
-                voteCount = it.voteCount
+                voteCount = votes.toInt(),
+                version = it.version + votes
             )
         }
     }
 
     /**
      * Event handler for VoteRegistered events to update vote counts for gallery projects.
-     * Increments the vote count when a vote is registered for a project.
+     * Adds the vote to the shard selected by the voter, so concurrent votes for a project land on different rows,
+     * unless the voter's vote for the project was counted before. The version of the project's details is forgotten
+     * once the vote is committed, as it depends on the votes of the other shards.
      */
     @EventHandler
-    fun on(event: VoteRegistered) {
+    @Transactional
+    fun on(event: VoteRegistered, processingContext: ProcessingContext) {
         logger.info("Handling VoteRegistered event for projectId: ${event.projectId}, voteType: ${event.voteType}")
 
-        val project = galleryProjectRepository.findById(event.projectId).orElse(null)
-
-        project?.let {
-            val updatedProject = it.copy(voteCount = it.voteCount + 1)
-            galleryProjectRepository.save(updatedProject)
-            logger.debug("Updated vote count for project ${event.projectId} to ${updatedProject.voteCount}")
-        } ?: logger.warn("Project with ID ${event.projectId} not found for vote registration")
+        if (voteRepository.insertIfAbsent(event.projectId, event.participantId) == 0) {
+            logger.debug("Vote of ${event.participantId} for project ${event.projectId} was already counted")
+            return
+        }
+        val shard = Math.floorMod(event.participantId.hashCode(), voteShards)
+        voteShardRepository.incrementVote(event.projectId, shard)
+        processingContext.runOnAfterCommit { projectionVersions.forget(projectKey(event.projectId)) }
     }
     
     /**
@@ -106,7 +149,7 @@ class GalleryCatalogQueryComponent(
      * Creates new gallery project records when projects are shared to the gallery.
      */
     @EventHandler
-    fun on(event: ProjectSharedToGallery) {
+    fun on(event: ProjectSharedToGallery, processingContext: ProcessingContext) {
         logger.info("Handling ProjectSharedToGallery event for projectId: ${event.projectId}")
 
         val existingProject = galleryProjectRepository.findById(event.projectId).orElse(null)
@@ -119,19 +162,33 @@ class GalleryCatalogQueryComponent(
                 creatorName = "", // Will be updated when participant details are available
                 projectTitle = event.projectTitle,
                 voteCount = 0,
-                applicationId = event.projectId
+                applicationId = event.projectId,
+                version = 1
             )
-            galleryProjectRepository.save(newProject)
+            save(newProject, processingContext)
             logger.debug("Created new gallery project entry for projectId: ${event.projectId}")
         } else {
             val updatedProject = existingProject.copy(
                 submissionTime = event.submissionTime,
                 projectTitle = event.projectTitle,
-                applicationId = event.projectId
+                applicationId = event.projectId,
+                version = existingProject.version + 1
             )
-            galleryProjectRepository.save(updatedProject)
+            save(updatedProject, processingContext)
             logger.debug("Updated existing gallery project entry for projectId: ${event.projectId}")
         }
     }
-}
 
+    /**
+     * Saves the shared project, and once it is committed advances the version of the participant's completed
+     * application and forgets those of the project list and details, which also depend on other rows.
+     */
+    private fun save(project: GalleryProject, processingContext: ProcessingContext) {
+        galleryProjectRepository.save(project)
+        processingContext.runOnAfterCommit {
+            projectionVersions.advance(applicationKey(project.participantId), project.version)
+            projectionVersions.forget(PROJECTS_KEY)
+            projectionVersions.forget(projectKey(project.projectId))
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
 
 import jakarta.persistence.*
+import java.io.Serializable
 import java.time.LocalDateTime
 
 /**
  * JPA Entity representing a gallery project in the Gallery Catalog view component.
  * This entity stores project information including submission details, creator info, and voting data.
+ * The version is bumped whenever the project is shared, and served in the ETags of the gallery endpoints.
  */
 @Entity
 @Table(name = "gallery_projects")
@@ -30,6 +32,64 @@ data class GalleryProject(
     val voteCount: Int = 0,
 
     @Column(name = "application_id", nullable = true)
-    val applicationId: String? = null
+    val applicationId: String? = null,
+
+    @Column(name = "version", nullable = false)
+    val version: Long = 0
 )
 
+
+/**
+ * Composite key of a vote counter shard.
+ */
+data class GalleryProjectVoteShardId(
+    val projectId: String = "",
+    val shard: Int = 0
+) : Serializable
+
+/**
+ * JPA Entity holding one shard of a gallery project's vote counter.
+ * Votes are spread over several shard rows so concurrent votes for the same project rarely update the same row;
+ * the project's vote count is the sum of its shards.
+ */
+@Entity
+@Table(name = "gallery_project_vote_shards")
+@IdClass(GalleryProjectVoteShardId::class)
+data class GalleryProjectVoteShard(
+    @Id
+    @Column(name = "project_id")
+    val projectId: String = "",
+
+    @Id
+    @Column(name = "shard")
+    val shard: Int = 0,
+
+    @Column(name = "vote_count", nullable = false)
+    val voteCount: Long = 0
+)
+
+/**
+ * Composite key of a counted vote.
+ */
+data class GalleryProjectVoteId(
+    val projectId: String = "",
+    val participantId: String = ""
+) : Serializable
+
+/**
+ * JPA Entity recording that a participant's vote for a gallery project was counted.
+ * A participant votes at most once per project, so this row makes counting a redelivered vote a no-op
+ * whatever order the processor's segments handle the votes in.
+ */
+@Entity
+@Table(name = "gallery_project_votes")
+@IdClass(GalleryProjectVoteId::class)
+data class GalleryProjectVote(
+    @Id
+    @Column(name = "project_id")
+    val projectId: String = "",
+
+    @Id
+    @Column(name = "participant_id")
+    val participantId: String = ""
+)
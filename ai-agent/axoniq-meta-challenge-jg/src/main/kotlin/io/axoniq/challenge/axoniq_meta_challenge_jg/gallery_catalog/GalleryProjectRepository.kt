@@ -1,7 +1,11 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
 
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
 
 /**
  * Repository interface for Gallery Catalog component to manage gallery project entities.
@@ -17,3 +21,68 @@ interface GalleryProjectRepository : JpaRepository<GalleryProject, String> {
     fun findByParticipantId(participantId: String): GalleryProject?
 }
 
+
+/**
+ * Repository for the counted votes of gallery projects.
+ */
+@Repository
+interface GalleryProjectVoteRepository : JpaRepository<GalleryProjectVote, GalleryProjectVoteId> {
+
+    /**
+     * Records a participant's vote for a project unless it was recorded before. Returns 1 when the vote is new
+     * and 0 when it was already counted.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO gallery_project_votes (project_id, participant_id) VALUES (:projectId, :participantId) " +
+            "ON CONFLICT (project_id, participant_id) DO NOTHING",
+        nativeQuery = true
+    )
+    fun insertIfAbsent(
+        @Param("projectId") projectId: String,
+        @Param("participantId") participantId: String
+    ): Int
+}
+
+/**
+ * Repository for the vote counter shards of gallery projects.
+ */
+@Repository
+interface GalleryProjectVoteShardRepository : JpaRepository<GalleryProjectVoteShard, GalleryProjectVoteShardId> {
+
+    /**
+     * Adds one vote to a shard, creating it when absent. Callers count each vote only once.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO gallery_project_vote_shards AS s (project_id, shard, vote_count) " +
+            "VALUES (:projectId, :shard, 1) " +
+            "ON CONFLICT (project_id, shard) DO UPDATE SET vote_count = s.vote_count + 1",
+        nativeQuery = true
+    )
+    fun incrementVote(
+        @Param("projectId") projectId: String,
+        @Param("shard") shard: Int
+    ): Int
+
+    /**
+     * Sums the shards of a project.
+     */
+    @Query("SELECT COALESCE(SUM(s.voteCount), 0) FROM GalleryProjectVoteShard s WHERE s.projectId = :projectId")
+    fun sumVotes(@Param("projectId") projectId: String): Long
+
+    /**
+     * Writes the summed shards into the vote count of every gallery project whose count is behind.
+     * Returns the number of projects updated.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "UPDATE gallery_projects p SET vote_count = t.total " +
+            "FROM (SELECT project_id, CAST(SUM(vote_count) AS integer) AS total " +
+            "FROM gallery_project_vote_shards GROUP BY project_id) t " +
+            "WHERE p.project_id = t.project_id AND p.vote_count <> t.total",
+        nativeQuery = true
+    )
+    fun aggregateIntoProjects(): Int
+}
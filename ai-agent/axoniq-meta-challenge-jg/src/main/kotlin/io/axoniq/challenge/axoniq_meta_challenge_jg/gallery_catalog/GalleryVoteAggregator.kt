@@ -0,0 +1,58 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
+
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Copies the summed vote counter shards into the vote count of the gallery project rows.
+ *
+ * The shards are the source of truth and project details read them directly; the aggregated count keeps the
+ * project rows usable for listings and reports. Each run is a single set-based update that only touches
+ * projects whose count changed, so the project rows are written at most once per interval however many
+ * votes arrive.
+ */
+@Component
+class GalleryVoteAggregator(
+    private val voteShardRepository: GalleryProjectVoteShardRepository,
+    @Value("\${axoniq-meta-challenge-jg.gallery.vote-aggregation-interval:PT10S}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(GalleryVoteAggregator::class.java)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "gallery-vote-aggregator").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        logger.info("Starting gallery vote aggregation every {}", interval)
+        executor.scheduleWithFixedDelay(::aggregateSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    private fun aggregateSafely() {
+        try {
+            val updated = voteShardRepository.aggregateIntoProjects()
+            if (updated > 0) {
+                logger.debug("Aggregated vote counts of {} gallery projects", updated)
+            }
+        } catch (e: Exception) {
+            logger.error("Failed to aggregate gallery vote counts", e)
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api
 
 import kotlin.Boolean
+import kotlin.Long
 import kotlin.String
 
 public data class CompletedApplicationData(
   public val applicationTitle: String,
   public val applicationId: String,
   public val isReadyForSharing: Boolean,
+  public val version: Long,
 )
@@ -1,7 +1,9 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api
 
+import kotlin.Long
 import kotlin.collections.List
 
 public data class GalleryProjectsList(
   public val projects: List<ProjectSummary>,
+  public val version: Long,
 )
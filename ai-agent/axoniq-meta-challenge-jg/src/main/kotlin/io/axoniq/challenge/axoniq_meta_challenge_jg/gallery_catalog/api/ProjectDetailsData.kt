@@ -2,6 +2,7 @@ package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api
 
 import java.time.LocalDateTime
 import kotlin.Int
+import kotlin.Long
 import kotlin.String
 
 public data class ProjectDetailsData(
@@ -10,4 +11,5 @@ public data class ProjectDetailsData(
   public val projectTitle: String,
   public val projectId: String,
   public val voteCount: Int,
+  public val version: Long,
 )
@@ -1,5 +1,6 @@
 package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management
 
+import io.axoniq.challenge.axoniq_meta_challenge_jg.command.ReactiveCommandDispatcher
 import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.api.*
 import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
@@ -7,6 +8,8 @@ import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * Gallery Management REST Controller
@@ -18,7 +21,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/gallery")
 class GalleryManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(GalleryManagementController::class.java)
@@ -31,7 +34,7 @@ class GalleryManagementController(
      * @return ResponseEntity indicating success or failure of the sharing operation
      */
     @PostMapping("/share")
-    fun shareProject(@RequestBody request: ShareProjectToGalleryRequest): ResponseEntity<String> {
+    fun shareProject(@RequestBody request: ShareProjectToGalleryRequest): Mono<ResponseEntity<String>> {
         val command = ShareProjectToGallery(
             applicationId = request.applicationId,
             participantId = request.participantId,
@@ -39,13 +42,12 @@ class GalleryManagementController(
         )
         
         logger.info("Dispatching ShareProjectToGallery command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Project sharing request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ShareProjectToGallery command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to share project to gallery")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Project sharing request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ShareProjectToGallery command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to share project to gallery"))
+            }
     }
     
     /**
@@ -55,7 +57,7 @@ class GalleryManagementController(
      * @return ResponseEntity indicating success or failure of the voting operation
      */
     @PostMapping("/vote")
-    fun voteForProject(@RequestBody request: VoteForProjectRequest): ResponseEntity<String> {
+    fun voteForProject(@RequestBody request: VoteForProjectRequest): Mono<ResponseEntity<String>> {
         val command = VoteForProject(
             participantId = request.participantId,
             voteType = request.voteType,
@@ -63,13 +65,12 @@ class GalleryManagementController(
         )
         
         logger.info("Dispatching VoteForProject command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Vote submission accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch VoteForProject command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit vote")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Vote submission accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch VoteForProject command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit vote"))
+            }
     }
 }
 
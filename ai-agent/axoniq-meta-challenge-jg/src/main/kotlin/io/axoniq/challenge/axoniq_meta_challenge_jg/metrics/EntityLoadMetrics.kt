@@ -0,0 +1,128 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.metrics
+
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import org.axonframework.common.infra.ComponentDescriptor
+import org.axonframework.configuration.ComponentRegistry
+import org.axonframework.configuration.ConfigurationEnhancer
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.EventStoreTransaction
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.modelling.StateManager
+import org.axonframework.modelling.repository.ManagedEntity
+import org.axonframework.modelling.repository.Repository
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.stereotype.Component
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Measures how long loading an event-sourced entity takes and how many events it replays.
+ *
+ * Decorates the [StateManager] so that every registered repository is wrapped in one that times its loads, and the
+ * [EventStore] so that the events sourced within a processing context are counted. A load replayed the events that
+ * were sourced in its processing context while it ran. Meters are tagged with the simple name of the entity:
+ *
+ * - `axoniqmetachallengejg.entity.load`: time to load an entity, including reading its events, with outcome success
+ *   or failure.
+ * - `axoniqmetachallengejg.entity.load.events`: number of events replayed per load. Loads served from the entities
+ *   already loaded in the same processing context replay none.
+ *
+ * Both decorators are applied before the other decorators of their components, so the repositories those register,
+ * such as snapshotting ones, are metered as well.
+ */
+@Component
+class EntityLoadMetrics(private val meterRegistry: ObjectProvider<MeterRegistry>) : ConfigurationEnhancer {
+
+    private val sourcedEventsKey = Context.ResourceKey.withLabel<AtomicInteger>("sourcedEvents")
+
+    override fun enhance(registry: ComponentRegistry) {
+        registry.registerDecorator(StateManager::class.java, -1) { _, _, delegate -> MeteredStateManager(delegate) }
+        registry.registerDecorator(EventStore::class.java, -1) { _, _, delegate -> CountingEventStore(delegate) }
+    }
+
+    private inner class MeteredStateManager(private val delegate: StateManager) : StateManager by delegate {
+
+        override fun <ID, T> register(repository: Repository<ID, T>): StateManager {
+            delegate.register(
+                if (repository is Repository.LifecycleManagement<ID, T>) MeteredRepository(repository) else repository
+            )
+            return this
+        }
+    }
+
+    private inner class MeteredRepository<ID, E>(
+        private val delegate: Repository.LifecycleManagement<ID, E>
+    ) : Repository.LifecycleManagement<ID, E> by delegate {
+
+        private val entityName = delegate.entityType().simpleName
+        private val successTimer by lazy { timer("success") }
+        private val failureTimer by lazy { timer("failure") }
+        private val replayedEvents by lazy {
+            DistributionSummary.builder("axoniqmetachallengejg.entity.load.events")
+                .description("Number of events replayed to load an event-sourced entity")
+                .tags("entity", entityName)
+                .register(meterRegistry.getObject())
+        }
+
+        override fun load(identifier: ID, processingContext: ProcessingContext): CompletableFuture<ManagedEntity<ID, E>> =
+            metered(processingContext) { delegate.load(identifier, processingContext) }
+
+        override fun loadOrCreate(identifier: ID, processingContext: ProcessingContext): CompletableFuture<ManagedEntity<ID, E>> =
+            metered(processingContext) { delegate.loadOrCreate(identifier, processingContext) }
+
+        override fun describeTo(descriptor: ComponentDescriptor) {
+            descriptor.describeWrapperOf(delegate)
+        }
+
+        private fun metered(
+            processingContext: ProcessingContext,
+            load: () -> CompletableFuture<ManagedEntity<ID, E>>
+        ): CompletableFuture<ManagedEntity<ID, E>> {
+            val sourced = processingContext.computeResourceIfAbsent(sourcedEventsKey) { AtomicInteger() }
+            val sourcedBefore = sourced.get()
+            val start = System.nanoTime()
+            return load().whenComplete { _, error ->
+                val elapsed = System.nanoTime() - start
+                if (error != null) {
+                    failureTimer.record(elapsed, TimeUnit.NANOSECONDS)
+                } else {
+                    successTimer.record(elapsed, TimeUnit.NANOSECONDS)
+                    replayedEvents.record((sourced.get() - sourcedBefore).toDouble())
+                }
+            }
+        }
+
+        private fun timer(outcome: String): Timer =
+            Timer.builder("axoniqmetachallengejg.entity.load")
+                .description("Time to load an event-sourced entity")
+                .tags("entity", entityName, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry.getObject())
+    }
+
+    private inner class CountingEventStore(private val delegate: EventStore) : EventStore by delegate {
+
+        override fun transaction(processingContext: ProcessingContext): EventStoreTransaction {
+            val transaction = delegate.transaction(processingContext)
+            return object : EventStoreTransaction by transaction {
+                override fun source(condition: SourcingCondition): MessageStream<out EventMessage> {
+                    val sourced = processingContext.computeResourceIfAbsent(sourcedEventsKey) { AtomicInteger() }
+                    @Suppress("UNCHECKED_CAST")
+                    return (transaction.source(condition) as MessageStream<EventMessage>)
+                        .onNext { sourced.incrementAndGet() }
+                }
+            }
+        }
+
+        override fun describeTo(descriptor: ComponentDescriptor) {
+            descriptor.describeWrapperOf(delegate)
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.snapshot
+
+import jakarta.persistence.*
+import java.io.Serializable
+import java.time.Instant
+
+/**
+ * Composite key of a snapshot: the entity type and a hash of the event criteria the entity is sourced from.
+ */
+data class SnapshotId(
+    val entityType: String = "",
+    val criteriaHash: String = ""
+) : Serializable
+
+/**
+ * JPA entity holding the latest snapshot of an event-sourced entity.
+ * [position] is the global index of the consistency marker the state was sourced up to;
+ * loading continues with the events after it.
+ */
+@Entity
+@Table(name = "entity_snapshots")
+@IdClass(SnapshotId::class)
+data class SnapshotEntity(
+    @Id
+    @Column(name = "entity_type")
+    val entityType: String = "",
+
+    @Id
+    @Column(name = "criteria_hash", length = 64)
+    val criteriaHash: String = "",
+
+    @Column(name = "entity_id", nullable = false)
+    val entityId: String = "",
+
+    @Column(name = "criteria", nullable = false, columnDefinition = "text")
+    val criteria: String = "",
+
+    @Column(name = "position", nullable = false)
+    val position: Long = 0,
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    val payload: String = "",
+
+    @Column(name = "created_at", nullable = false)
+    val createdAt: Instant = Instant.EPOCH
+)
@@ -0,0 +1,66 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog
+
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_catalog.api.VoteRegistered
+import io.axoniq.challenge.axoniq_meta_challenge_jg.query.ProjectionVersions
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import java.time.Duration
+
+/**
+ * Test class for counting gallery votes delivered by several segments
+ */
+class GalleryCatalogQueryComponentTest {
+
+    private val counted = mutableSetOf<Pair<String, String>>()
+    private val shards = mutableMapOf<Pair<String, Int>, Long>()
+
+    private val voteRepository = mock(GalleryProjectVoteRepository::class.java).also {
+        `when`(it.insertIfAbsent(anyString(), anyString())).thenAnswer { invocation ->
+            if (counted.add(invocation.getArgument<String>(0) to invocation.getArgument<String>(1))) 1 else 0
+        }
+    }
+    private val voteShardRepository = mock(GalleryProjectVoteShardRepository::class.java).also {
+        `when`(it.incrementVote(anyString(), anyInt())).thenAnswer { invocation ->
+            shards.merge(invocation.getArgument<String>(0) to invocation.getArgument<Int>(1), 1, Long::plus)
+            1
+        }
+    }
+    private val component = GalleryCatalogQueryComponent(
+        mock(GalleryProjectRepository::class.java), voteRepository, voteShardRepository,
+        ProjectionVersions(100, Duration.ofSeconds(30)), 2
+    )
+    private val processingContext = mock(ProcessingContext::class.java)
+
+    private fun handle(event: VoteRegistered) = component.on(event, processingContext)
+
+    private fun votes(projectId: String): Long = shards.filterKeys { it.first == projectId }.values.sum()
+
+    @Test
+    fun `given votes handled by two segments out of order, when both are handled, then every vote is counted`() {
+        val votes = (1..6).map { VoteRegistered("participant-$it", "UP", "project-1") }
+        val (segmentZero, segmentOne) = votes.partition { Math.floorMod(it.participantId.hashCode(), 2) == 0 }
+
+        segmentOne.forEach(::handle)
+        segmentZero.forEach(::handle)
+
+        assertThat(votes("project-1")).isEqualTo(6)
+    }
+
+    @Test
+    fun `given a segment that redelivers its votes after another segment moved on, when handled, then no vote is counted twice`() {
+        val early = VoteRegistered("participant-1", "UP", "project-1")
+        val late = VoteRegistered("participant-2", "UP", "project-1")
+
+        handle(late)
+        handle(early)
+        handle(late)
+        handle(early)
+
+        assertThat(votes("project-1")).isEqualTo(2)
+    }
+}
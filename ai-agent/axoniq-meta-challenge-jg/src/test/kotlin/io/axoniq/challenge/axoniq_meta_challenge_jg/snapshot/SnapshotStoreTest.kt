@@ -0,0 +1,34 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.GalleryManagementState
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.api.ProjectSharedToGallery
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.api.VoteRegistered
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import java.time.LocalDateTime
+
+/**
+ * Test class for serializing this application's snapshotted entity state with the snapshot mapper
+ */
+class SnapshotStoreTest {
+
+    private val snapshotStore = SnapshotStore(mock(SnapshotRepository::class.java), ObjectMapper().findAndRegisterModules())
+
+    @Test
+    fun `given evolved gallery management state, when serialized and deserialized, then state is restored`() {
+        val state = GalleryManagementState()
+        state.evolve(ProjectSharedToGallery(LocalDateTime.of(2025, 5, 1, 12, 0), "participant-1", "My project", "project-1"))
+        state.evolve(VoteRegistered("participant-1", "UPVOTE", "project-2"))
+        state.evolve(VoteRegistered("participant-1", "UPVOTE", "project-3"))
+
+        val restored = snapshotStore.deserialize(snapshotStore.serialize(state), GalleryManagementState::class.java)
+
+        assertThat(restored.getParticipantId()).isEqualTo("participant-1")
+        assertThat(restored.getProjectId()).isEqualTo("project-1")
+        assertThat(restored.getHasSharedProject()).isTrue()
+        assertThat(restored.getHasVoted()).isTrue()
+        assertThat(restored.getVotedProjectIds()).containsExactly("project-2", "project-3")
+    }
+}
@@ -0,0 +1,62 @@
+package io.axoniq.challenge.axoniq_meta_challenge_jg.snapshot
+
+import io.axoniq.challenge.axoniq_meta_challenge_jg.gallery_management.GalleryManagementState
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.eventsourcing.annotations.EventSourcedEntity
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.env.YamlPropertySourceLoader
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider
+import org.springframework.core.env.EnumerablePropertySource
+import org.springframework.core.env.Environment
+import org.springframework.core.env.StandardEnvironment
+import org.springframework.core.io.ClassPathResource
+import org.springframework.core.type.filter.AnnotationTypeFilter
+
+/**
+ * Test class for the snapshot thresholds configured for this application's event-sourced entities. The snapshot
+ * package itself is the one of dance-test, where its sourcing, caching and threshold resolution are tested.
+ */
+class SnapshottingConfigurationEnhancerTest {
+
+    companion object {
+        private const val PREFIX = "axoniq-meta-challenge-jg.snapshots"
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun enhancerWith(environment: Environment) = SnapshottingConfigurationEnhancer(
+        mock(ObjectProvider::class.java) as ObjectProvider<SnapshotStore>,
+        mock(ObjectProvider::class.java) as ObjectProvider<EntityStateCache>,
+        environment
+    )
+
+    private fun applicationEnvironment() = StandardEnvironment().apply {
+        YamlPropertySourceLoader().load("application", ClassPathResource("application.yml"))
+            .forEach { propertySources.addLast(it) }
+    }
+
+    @Test
+    fun `given the application configuration, when resolved, then gallery management is snapshotted`() {
+        val enhancer = enhancerWith(applicationEnvironment())
+
+        assertThat(GalleryManagementState::class.java.isAnnotationPresent(EventSourcedEntity::class.java)).isTrue()
+        assertThat(enhancer.thresholdFor(GalleryManagementState::class.java)).isPositive()
+    }
+
+    @Test
+    fun `given the application configuration, when read, then every threshold names an event-sourced entity`() {
+        val scanner = ClassPathScanningCandidateComponentProvider(false)
+        scanner.addIncludeFilter(AnnotationTypeFilter(EventSourcedEntity::class.java))
+        val entities = scanner.findCandidateComponents("io.axoniq.challenge.axoniq_meta_challenge_jg")
+            .map { it.beanClassName!!.substringAfterLast('.') }
+        val configured = applicationEnvironment().propertySources
+            .filterIsInstance<EnumerablePropertySource<*>>()
+            .flatMap { it.propertyNames.toList() }
+            .filter { it.startsWith("$PREFIX.thresholds.") }
+            .map { it.removePrefix("$PREFIX.thresholds.") }
+
+        assertThat(configured).isNotEmpty
+        assertThat(entities).containsAll(configured)
+    }
+}
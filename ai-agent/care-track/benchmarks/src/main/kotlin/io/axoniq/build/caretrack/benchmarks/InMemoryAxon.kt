@@ -0,0 +1,34 @@
+package io.axoniq.build.caretrack.benchmarks
+
+import io.axoniq.build.caretrack.medical_record_management.MedicalRecordManagementCommandHandler
+import io.axoniq.build.caretrack.medical_record_management.MedicalRecordManagementState
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Medical Record Management fixture test: the annotated entity and
+ * command handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun medicalRecordManagement(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(String::class.java, MedicalRecordManagementState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("MedicalRecordManagement")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { MedicalRecordManagementCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
@@ -0,0 +1,131 @@
+package io.axoniq.build.caretrack.benchmarks
+
+import io.axoniq.build.caretrack.account_purge.AccountPurgeJob
+import io.axoniq.build.caretrack.account_purge.AccountPurgeJobRepository
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
+import io.axoniq.build.caretrack.medical_history_view.DiagnosisEntity
+import io.axoniq.build.caretrack.medical_history_view.DiagnosisRepository
+import io.axoniq.build.caretrack.medical_history_view.MedicalHistoryViewComponent
+import io.axoniq.build.caretrack.medical_history_view.api.PatientDiagnosisRecorded
+import io.axoniq.build.caretrack.medical_history_view.api.TreatmentDiscontinued
+import io.axoniq.build.caretrack.medical_history_view.api.TreatmentPrescribed
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.time.LocalDate
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [MedicalHistoryViewComponent] event handlers writing to PostgreSQL, started in a throwaway
+ * container, through the application's JPA repositories. Only the projection's own entities and repositories are
+ * loaded, with the [AccountTombstones] its query handlers consult, not the whole application context. Each event is
+ * handled in its own transaction. [onTreatmentLifecycle] alternates prescribing a treatment with discontinuing the
+ * previous one, which is looked up first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class MedicalHistoryProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [DiagnosisEntity::class, AccountPurgeJob::class])
+    @EnableJpaRepositories(basePackageClasses = [DiagnosisRepository::class, AccountPurgeJobRepository::class])
+    @Import(MedicalHistoryViewComponent::class, AccountTombstones::class, ProjectionVersions::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<Nothing>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: MedicalHistoryViewComponent
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+    private val diagnosisDate = LocalDate.now()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(MedicalHistoryViewComponent::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onPatientDiagnosisRecorded() {
+        val id = sequence.incrementAndGet()
+        val event = PatientDiagnosisRecorded(
+            "doctor-${id % 10}", "patient-${id % 100}", "MODERATE", null, "diagnosis-$id", "Hypertension", diagnosisDate
+        )
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun onTreatmentLifecycle() {
+        val id = sequence.incrementAndGet()
+        if (id % 2 == 0L) {
+            val event = TreatmentDiscontinued("doctor-${id % 10}", "Resolved", "patient-${id % 100}", "treatment-${id - 1}")
+            handle { ctx -> component.on(event, ctx) }
+        } else {
+            val event = TreatmentPrescribed(
+                "doctor-${id % 10}", "Twice daily", "10mg", "patient-${id % 100}", "Lisinopril", "30 days", "treatment-$id"
+            )
+            handle { ctx -> component.on(event, ctx) }
+        }
+    }
+
+    private fun handle(handler: (ProcessingContext) -> Unit) {
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            handler(ctx)
+            CompletableFuture.completedFuture(null)
+        }.join()
+    }
+}
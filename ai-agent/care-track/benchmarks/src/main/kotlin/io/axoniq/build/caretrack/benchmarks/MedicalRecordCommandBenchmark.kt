@@ -0,0 +1,71 @@
+package io.axoniq.build.caretrack.benchmarks
+
+import io.axoniq.build.caretrack.medical_record_management.api.DiagnosisEntryResult
+import io.axoniq.build.caretrack.medical_record_management.api.EnterPatientDiagnosis
+import io.axoniq.build.caretrack.medical_record_management.api.PrescribeTreatment
+import io.axoniq.build.caretrack.medical_record_management.api.TreatmentPrescriptionResult
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.configuration.AxonConfiguration
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.time.LocalDate
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the Medical Record Management command handlers, dispatched through the command gateway.
+ * Every invocation targets a new patient, so the measurement covers dispatch, loading an empty entity,
+ * running the handler and appending the resulting event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class MedicalRecordCommandBenchmark {
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var commandGateway: CommandGateway
+    private val sequence = AtomicLong()
+    private val diagnosisDate = LocalDate.now()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.medicalRecordManagement()
+        commandGateway = configuration.getComponent(CommandGateway::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun enterPatientDiagnosis(): DiagnosisEntryResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            EnterPatientDiagnosis("doctor-${id % 10}", "patient-$id", "MODERATE", null, "Hypertension", diagnosisDate),
+            DiagnosisEntryResult::class.java
+        )
+    }
+
+    @Benchmark
+    fun prescribeTreatment(): TreatmentPrescriptionResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            PrescribeTreatment("doctor-${id % 10}", "Twice daily", "10mg", "patient-$id", "Lisinopril", "30 days"),
+            TreatmentPrescriptionResult::class.java
+        )
+    }
+}
@@ -0,0 +1,86 @@
+package io.axoniq.build.caretrack.benchmarks
+
+import io.axoniq.build.caretrack.medical_record_management.MedicalRecordManagementState
+import io.axoniq.build.caretrack.medical_record_management.api.PatientDiagnosisRecorded
+import io.axoniq.build.caretrack.medical_record_management.api.TreatmentPrescribed
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventhandling.gateway.EventGateway
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.axonframework.modelling.StateManager
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.time.LocalDate
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cost of rehydrating a [MedicalRecordManagementState] from its event stream, as a function of the stream length.
+ * The stream is a diagnosis followed by prescribed treatments of the same patient. It is appended once per trial;
+ * each invocation sources it in a fresh unit of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class MedicalRecordRehydrationBenchmark {
+
+    @Param("1", "10", "100", "1000")
+    var streamLength: Int = 0
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var unitOfWorkFactory: UnitOfWorkFactory
+    private lateinit var stateManager: StateManager
+    private val patientId = "patient-rehydration"
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.medicalRecordManagement()
+        unitOfWorkFactory = configuration.getComponent(UnitOfWorkFactory::class.java)
+        stateManager = configuration.getComponent(StateManager::class.java)
+
+        val eventGateway = configuration.getComponent(EventGateway::class.java)
+        val events = ArrayList<Any>(streamLength)
+        events.add(PatientDiagnosisRecorded("doctor-1", patientId, "MODERATE", null, "diagnosis-1", "Hypertension", LocalDate.now()))
+        repeat(streamLength - 1) { i ->
+            events.add(TreatmentPrescribed("doctor-1", "Twice daily", "10mg", patientId, "Lisinopril", "30 days", "treatment-$i"))
+        }
+        // Appended in batches to keep the seeding unit of work small
+        events.chunked(100).forEach { batch ->
+            unitOfWorkFactory.create().executeWithResult { ctx -> eventGateway.publish(ctx, batch) }.join()
+        }
+
+        // A load that sources fewer events than were appended would time the wrong thing, so the trial fails instead
+        val eventStore = configuration.getComponent(EventStore::class.java)
+        val sourced = unitOfWorkFactory.create().executeWithResult { ctx ->
+            eventStore.transaction(ctx)
+                .source(SourcingCondition.conditionFor(MedicalRecordManagementState.resolveCriteria(patientId)))
+                .reduce(0) { count, _ -> count + 1 }
+        }.join()
+        check(sourced == streamLength) { "The entity criteria source $sourced of the $streamLength appended events" }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun loadEntity(): MedicalRecordManagementState =
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            stateManager.loadEntity(MedicalRecordManagementState::class.java, patientId, ctx)
+        }.join()
+}
@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.account_deletion_service
 
 import io.axoniq.build.caretrack.account_deletion_service.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Account Deletion Service
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/account-deletion")
 class AccountDeletionServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AccountDeletionServiceController::class.java)
@@ -29,19 +31,18 @@ class AccountDeletionServiceController(
     fun deletePatientAccount(
         @PathVariable patientId: String,
         @RequestBody request: DeletePatientAccountRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = DeletePatientAccount(
             confirmationCode = request.confirmationCode,
             patientId = patientId
         )
         logger.info("Dispatching DeletePatientAccount command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Patient account deletion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch DeletePatientAccount command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete patient account")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Patient account deletion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch DeletePatientAccount command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete patient account"))
+            }
     }
 
     /**
@@ -52,19 +53,18 @@ class AccountDeletionServiceController(
     fun deleteDoctorAccount(
         @PathVariable doctorId: String,
         @RequestBody request: DeleteDoctorAccountRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = DeleteDoctorAccount(
             confirmationCode = request.confirmationCode,
             doctorId = doctorId
         )
         logger.info("Dispatching DeleteDoctorAccount command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Doctor account deletion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch DeleteDoctorAccount command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete doctor account")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Doctor account deletion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch DeleteDoctorAccount command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete doctor account"))
+            }
     }
 
     data class DeletePatientAccountRequest(
@@ -1,6 +1,7 @@
 package io.axoniq.build.caretrack.account_deletion_view
 
 import io.axoniq.build.caretrack.account_deletion_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -18,6 +19,11 @@ class AccountDeletionViewComponent(
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AccountDeletionViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "account-deletion-view"
     }
 
     /**
@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.account_deletion_view
 
 import io.axoniq.build.caretrack.account_deletion_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/account-deletion")
 class AccountDeletionViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -27,10 +31,15 @@ class AccountDeletionViewController(
      * @return CompletableFuture with AccountDeletionInformationResult
      */
     @GetMapping("/patient/{patientId}")
-    fun getPatientAccountDeletionInfo(@PathVariable patientId: String): CompletableFuture<AccountDeletionInformationResult> {
+    fun getPatientAccountDeletionInfo(
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AccountDeletionInformationResult>> {
         logger.info("Received request for patient account deletion information: {}", patientId)
-        val query = AccountDeletionInformation(patientId)
-        return queryGateway.query(query, AccountDeletionInformationResult::class.java, null)
+        return projectionVersions.conditionalGet(AccountDeletionViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AccountDeletionInformation(patientId)
+            queryGateway.query(query, AccountDeletionInformationResult::class.java, null)
+        }
     }
 
     /**
@@ -39,9 +48,14 @@ class AccountDeletionViewController(
      * @return CompletableFuture with DoctorAccountDeletionInformationResult
      */
     @GetMapping("/doctor/{doctorId}")
-    fun getDoctorAccountDeletionInfo(@PathVariable doctorId: String): CompletableFuture<DoctorAccountDeletionInformationResult> {
+    fun getDoctorAccountDeletionInfo(
+        @PathVariable doctorId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DoctorAccountDeletionInformationResult>> {
         logger.info("Received request for doctor account deletion information: {}", doctorId)
-        val query = DoctorAccountDeletionInformation(doctorId)
-        return queryGateway.query(query, DoctorAccountDeletionInformationResult::class.java, null)
+        return projectionVersions.conditionalGet(AccountDeletionViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DoctorAccountDeletionInformation(doctorId)
+            queryGateway.query(query, DoctorAccountDeletionInformationResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
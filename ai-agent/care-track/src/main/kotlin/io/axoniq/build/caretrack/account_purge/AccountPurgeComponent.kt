@@ -0,0 +1,54 @@
+package io.axoniq.build.caretrack.account_purge
+
+import io.axoniq.build.caretrack.account_deletion_service.api.DoctorAccountDeleted
+import io.axoniq.build.caretrack.account_deletion_service.api.PatientAccountDeleted
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+
+/**
+ * Account Purge component - records a purge job per deleted account.
+ * The event handlers only insert the job, so an account deletion never holds a projection thread; the
+ * [AccountPurgePipeline] removes the account's data from the views in the background.
+ */
+@Component
+class AccountPurgeComponent(
+    private val jobRepository: AccountPurgeJobRepository,
+    private val tombstones: AccountTombstones
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(AccountPurgeComponent::class.java)
+    }
+
+    /**
+     * Handles PatientAccountDeleted event to schedule the purge of the patient's data.
+     * @param event The PatientAccountDeleted event
+     * @param processingContext The processing context of the event
+     */
+    @EventHandler
+    fun on(event: PatientAccountDeleted, processingContext: ProcessingContext) {
+        schedule(AccountPurgeJob.PATIENT, event.patientId, processingContext)
+    }
+
+    /**
+     * Handles DoctorAccountDeleted event to schedule the purge of the doctor's data.
+     * @param event The DoctorAccountDeleted event
+     * @param processingContext The processing context of the event
+     */
+    @EventHandler
+    fun on(event: DoctorAccountDeleted, processingContext: ProcessingContext) {
+        schedule(AccountPurgeJob.DOCTOR, event.doctorId, processingContext)
+    }
+
+    private fun schedule(accountType: String, accountId: String, processingContext: ProcessingContext) {
+        val jobId = AccountPurgeJob.jobId(accountType, accountId)
+        if (!jobRepository.existsById(jobId)) {
+            logger.info("Scheduling purge of {} account {}", accountType.lowercase(), accountId)
+            jobRepository.save(AccountPurgeJob(jobId = jobId, accountType = accountType, accountId = accountId))
+        }
+        processingContext.runOnAfterCommit { tombstones.add(accountType, accountId) }
+    }
+}
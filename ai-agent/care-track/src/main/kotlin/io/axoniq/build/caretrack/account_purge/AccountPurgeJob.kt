@@ -0,0 +1,49 @@
+package io.axoniq.build.caretrack.account_purge
+
+import jakarta.persistence.*
+import java.time.Instant
+
+/**
+ * JPA entity representing the purge of a deleted account's data from the care-track views.
+ * The job is both the checkpoint of the [AccountPurgePipeline], holding the step it reached and the rows it
+ * deleted, and the tombstone query handlers consult to hide the account's data, see [AccountTombstones].
+ * Jobs are kept after completion, so data written for the account by lagging views stays hidden.
+ */
+@Entity
+@Table(
+    name = "account_purge_job",
+    indexes = [
+        Index(name = "idx_account_purge_job_completed", columnList = "completed_at"),
+        Index(name = "idx_account_purge_job_requested", columnList = "requested_at")
+    ]
+)
+data class AccountPurgeJob(
+    @Id
+    @Column(name = "job_id")
+    val jobId: String = "",
+
+    @Column(name = "account_type", nullable = false)
+    val accountType: String = "",
+
+    @Column(name = "account_id", nullable = false)
+    val accountId: String = "",
+
+    @Column(name = "step", nullable = false)
+    val step: Int = 0,
+
+    @Column(name = "deleted_rows", nullable = false)
+    val deletedRows: Long = 0,
+
+    @Column(name = "requested_at", nullable = false)
+    val requestedAt: Instant = Instant.now(),
+
+    @Column(name = "completed_at")
+    val completedAt: Instant? = null
+) {
+    companion object {
+        const val PATIENT = "PATIENT"
+        const val DOCTOR = "DOCTOR"
+
+        fun jobId(accountType: String, accountId: String) = "$accountType:$accountId"
+    }
+}
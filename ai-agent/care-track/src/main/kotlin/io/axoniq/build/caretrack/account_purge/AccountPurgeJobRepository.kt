@@ -0,0 +1,32 @@
+package io.axoniq.build.caretrack.account_purge
+
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import java.time.Instant
+
+/**
+ * Repository interface for AccountPurgeJob.
+ * Provides data access methods for the account purge pipeline.
+ */
+@Repository
+interface AccountPurgeJobRepository : JpaRepository<AccountPurgeJob, String> {
+
+    /**
+     * Finds the purge jobs that have not completed yet, oldest first.
+     */
+    fun findByCompletedAtIsNullOrderByRequestedAtAsc(): List<AccountPurgeJob>
+
+    /**
+     * Finds the IDs of every purge job.
+     */
+    @Query("SELECT j.jobId FROM AccountPurgeJob j")
+    fun findAllJobIds(): List<String>
+
+    /**
+     * Finds the IDs of the purge jobs requested at or after the given instant.
+     */
+    @Query("SELECT j.jobId FROM AccountPurgeJob j WHERE j.requestedAt >= :since")
+    fun findJobIdsRequestedSince(@Param("since") since: Instant): List<String>
+}
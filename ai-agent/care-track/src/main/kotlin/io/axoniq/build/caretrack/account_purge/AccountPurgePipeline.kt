@@ -0,0 +1,147 @@
+package io.axoniq.build.caretrack.account_purge
+
+import io.axoniq.build.caretrack.appointment_view.DayAgendaCache
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionTemplate
+import java.sql.Timestamp
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Removes the data of deleted accounts from the care-track views, one [AccountPurgeJob] at a time.
+ *
+ * A job walks the purge steps of its account type, one table each. Every step deletes the account's rows in chunks
+ * of `caretrack.account-purge.chunk-size`, each chunk in its own short transaction that also checkpoints the job's
+ * progress, so a purge resumes where it stopped after a restart and never holds locks or writes a large amount of
+ * WAL in one transaction. The pipeline pauses `caretrack.account-purge.throttle` between chunks, leaving the
+ * database to the projections, and looks for pending jobs every `caretrack.account-purge.interval`.
+ *
+ * Family permissions are purged after the permitted copies that reference them, and the patient health dashboard
+ * after its appointments, treatments and diagnoses. For a doctor only the appointment view is purged: diagnoses
+ * and treatments are part of the medical history of their patients. The cached day agendas are dropped after a
+ * patient is purged, as they may list the patient's appointments, and the versions of the purged views move on.
+ */
+@Component
+class AccountPurgePipeline(
+    private val jobRepository: AccountPurgeJobRepository,
+    private val tombstones: AccountTombstones,
+    private val dayAgendaCache: DayAgendaCache,
+    private val jdbcTemplate: JdbcTemplate,
+    private val transactionTemplate: TransactionTemplate,
+    @Value("\${caretrack.account-purge.chunk-size:500}") private val chunkSize: Int,
+    @Value("\${caretrack.account-purge.throttle:PT0.1S}") private val throttle: Duration,
+    @Value("\${caretrack.account-purge.interval:PT10S}") private val interval: Duration
+) {
+
+    /**
+     * Deletes the rows of [table], identified by [key], that match [condition] on the account ID.
+     */
+    private class PurgeStep(val table: String, key: String, condition: String) {
+        val deleteChunk = "DELETE FROM $table WHERE $key IN (SELECT $key FROM $table WHERE $condition LIMIT ?)"
+    }
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(AccountPurgePipeline::class.java)
+
+        private const val PERMISSIONS_OF_PATIENT = "permission_id IN (SELECT id FROM family_health_permissions WHERE patient_id = ?)"
+
+        private val STEPS = mapOf(
+            AccountPurgeJob.PATIENT to listOf(
+                PurgeStep("permitted_diagnoses", "id", PERMISSIONS_OF_PATIENT),
+                PurgeStep("permitted_treatments", "id", PERMISSIONS_OF_PATIENT),
+                PurgeStep("permitted_appointments", "id", PERMISSIONS_OF_PATIENT),
+                PurgeStep("family_health_permissions", "id", "patient_id = ?"),
+                PurgeStep("family_member_view", "id", "patient_id = ?"),
+                PurgeStep("invitations", "invitation_id", "patient_id = ?"),
+                PurgeStep("notifications", "notification_id", "patient_id = ?"),
+                PurgeStep("notification_counter", "patient_id", "patient_id = ?"),
+                PurgeStep("appointment", "appointment_id", "patient_id = ?"),
+                PurgeStep("appointments", "appointment_id", "patient_id = ?"),
+                PurgeStep("diagnoses", "diagnosis_id", "patient_id = ?"),
+                PurgeStep("treatments", "treatment_id", "patient_id = ?"),
+                PurgeStep("patient_health", "patient_id", "patient_id = ?")
+            ),
+            AccountPurgeJob.DOCTOR to listOf(
+                PurgeStep("appointment", "appointment_id", "doctor_id = ?")
+            )
+        )
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "account-purge-pipeline").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::purgeSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Runs every pending purge job to completion.
+     */
+    fun purgePending() {
+        tombstones.refresh()
+        jobRepository.findByCompletedAtIsNullOrderByRequestedAtAsc().forEach(::purge)
+    }
+
+    private fun purge(job: AccountPurgeJob) {
+        val steps = STEPS[job.accountType].orEmpty()
+        var step = job.step
+        var deletedRows = job.deletedRows
+        while (step < steps.size) {
+            val deleted = deleteChunk(job, steps, step)
+            deletedRows += deleted
+            if (deleted < chunkSize) {
+                step++
+            }
+            if (deleted > 0) {
+                Thread.sleep(throttle.toMillis())
+            }
+        }
+        jdbcTemplate.update(
+            "UPDATE account_purge_job SET completed_at = ? WHERE job_id = ?",
+            Timestamp.from(Instant.now()), job.jobId
+        )
+        if (job.accountType == AccountPurgeJob.PATIENT) {
+            dayAgendaCache.clear()
+        }
+        tombstones.bumpViews()
+        logger.info("Purged {} rows of {} account {}", deletedRows, job.accountType.lowercase(), job.accountId)
+    }
+
+    private fun deleteChunk(job: AccountPurgeJob, steps: List<PurgeStep>, step: Int): Int =
+        transactionTemplate.execute {
+            val deleted = jdbcTemplate.update(steps[step].deleteChunk, job.accountId, chunkSize)
+            val nextStep = if (deleted < chunkSize) step + 1 else step
+            jdbcTemplate.update(
+                "UPDATE account_purge_job SET step = ?, deleted_rows = deleted_rows + ? WHERE job_id = ?",
+                nextStep, deleted, job.jobId
+            )
+            deleted
+        } ?: 0
+
+    private fun purgeSafely() {
+        try {
+            purgePending()
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+        } catch (e: Exception) {
+            logger.error("Failed to purge deleted accounts", e)
+        }
+    }
+}
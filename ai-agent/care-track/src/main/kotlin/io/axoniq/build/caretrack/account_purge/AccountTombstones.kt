@@ -0,0 +1,92 @@
+package io.axoniq.build.caretrack.account_purge
+
+import io.axoniq.build.caretrack.appointment_view.AppointmentQueryComponent
+import io.axoniq.build.caretrack.family_health_view.FamilyHealthViewComponent
+import io.axoniq.build.caretrack.family_member_view.FamilyMemberViewComponent
+import io.axoniq.build.caretrack.invitation_view.InvitationViewComponent
+import io.axoniq.build.caretrack.medical_history_view.MedicalHistoryViewComponent
+import io.axoniq.build.caretrack.notification_view.NotificationViewComponent
+import io.axoniq.build.caretrack.patient_health_view.PatientHealthViewComponent
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import jakarta.annotation.PostConstruct
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * In-process set of the deleted accounts, so query handlers hide the data of an account from the moment it is
+ * deleted, while the [AccountPurgePipeline] is still removing it, and when a lagging view writes data for it
+ * afterwards. Loaded from the purge jobs at startup and refreshed by the pipeline, which picks up the accounts
+ * deleted through other instances.
+ *
+ * A refresh only loads the jobs requested since the previous one, less [REFRESH_OVERLAP], so jobs committed late or
+ * stamped by an instance whose clock is behind are not missed, without reading every job on each pipeline run.
+ *
+ * The versions of the views that hide or purge the data of deleted accounts move on whenever an account is found
+ * deleted, and again once its data was purged, so no tag handed out before still matches.
+ */
+@Component
+class AccountTombstones(
+    private val jobRepository: AccountPurgeJobRepository,
+    private val projectionVersions: ProjectionVersions
+) {
+
+    companion object {
+        private val REFRESH_OVERLAP: Duration = Duration.ofMinutes(1)
+
+        private val VIEW_KEYS = listOf(
+            AppointmentQueryComponent.VIEW_KEY,
+            FamilyHealthViewComponent.VIEW_KEY,
+            FamilyMemberViewComponent.VIEW_KEY,
+            InvitationViewComponent.VIEW_KEY,
+            MedicalHistoryViewComponent.VIEW_KEY,
+            NotificationViewComponent.VIEW_KEY,
+            PatientHealthViewComponent.VIEW_KEY
+        )
+    }
+
+    private val jobIds: MutableSet<String> = ConcurrentHashMap.newKeySet()
+
+    @Volatile
+    private var refreshedAt: Instant? = null
+
+    @PostConstruct
+    fun refresh() {
+        val startedAt = Instant.now()
+        val jobs = refreshedAt?.let { jobRepository.findJobIdsRequestedSince(it.minus(REFRESH_OVERLAP)) }
+            ?: jobRepository.findAllJobIds()
+        if (jobIds.addAll(jobs)) {
+            bumpViews()
+        }
+        refreshedAt = startedAt
+    }
+
+    /**
+     * Whether the patient account was deleted.
+     */
+    fun isPatientDeleted(patientId: String): Boolean =
+        AccountPurgeJob.jobId(AccountPurgeJob.PATIENT, patientId) in jobIds
+
+    /**
+     * Whether the doctor account was deleted.
+     */
+    fun isDoctorDeleted(doctorId: String): Boolean =
+        AccountPurgeJob.jobId(AccountPurgeJob.DOCTOR, doctorId) in jobIds
+
+    /**
+     * Records an account whose purge job was committed.
+     */
+    fun add(accountType: String, accountId: String) {
+        if (jobIds.add(AccountPurgeJob.jobId(accountType, accountId))) {
+            bumpViews()
+        }
+    }
+
+    /**
+     * Moves the versions of the views that hide or purge the data of deleted accounts on.
+     */
+    fun bumpViews() {
+        VIEW_KEYS.forEach(projectionVersions::bump)
+    }
+}
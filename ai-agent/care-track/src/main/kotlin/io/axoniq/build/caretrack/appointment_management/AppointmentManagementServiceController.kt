@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.appointment_management
 
 import io.axoniq.build.caretrack.appointment_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Appointment Management Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/appointments")
 class AppointmentManagementServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AppointmentManagementServiceController::class.java)
@@ -25,15 +27,14 @@ class AppointmentManagementServiceController(
      * Endpoint to schedule a new patient appointment.
      */
     @PostMapping("/schedule")
-    fun schedulePatientAppointment(@RequestBody command: SchedulePatientAppointment): ResponseEntity<String> {
+    fun schedulePatientAppointment(@RequestBody command: SchedulePatientAppointment): Mono<ResponseEntity<String>> {
         logger.info("Received SchedulePatientAppointment request: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Appointment scheduling request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to schedule patient appointment", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to schedule patient appointment")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Appointment scheduling request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to schedule patient appointment", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to schedule patient appointment"))
+            }
     }
 
     /**
@@ -43,19 +44,18 @@ class AppointmentManagementServiceController(
     fun markAppointmentMissed(
         @PathVariable appointmentId: String,
         @RequestBody request: MarkAppointmentMissedRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = MarkAppointmentMissed(
             doctorId = request.doctorId,
             appointmentId = appointmentId
         )
         logger.info("Received MarkAppointmentMissed request: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Mark appointment missed request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to mark appointment as missed", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark appointment as missed")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Mark appointment missed request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to mark appointment as missed", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark appointment as missed"))
+            }
     }
 
     /**
@@ -65,19 +65,18 @@ class AppointmentManagementServiceController(
     fun markAppointmentAttended(
         @PathVariable appointmentId: String,
         @RequestBody request: MarkAppointmentAttendedRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = MarkAppointmentAttended(
             doctorId = request.doctorId,
             appointmentId = appointmentId
         )
         logger.info("Received MarkAppointmentAttended request: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Mark appointment attended request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to mark appointment as attended", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark appointment as attended")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Mark appointment attended request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to mark appointment as attended", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark appointment as attended"))
+            }
     }
 
     /**
@@ -87,20 +86,19 @@ class AppointmentManagementServiceController(
     fun cancelPatientAppointment(
         @PathVariable appointmentId: String,
         @RequestBody request: CancelPatientAppointmentRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = CancelPatientAppointment(
             doctorId = request.doctorId,
             cancellationReason = request.cancellationReason,
             appointmentId = appointmentId
         )
         logger.info("Received CancelPatientAppointment request: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Cancel appointment request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to cancel patient appointment", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to cancel patient appointment")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Cancel appointment request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to cancel patient appointment", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to cancel patient appointment"))
+            }
     }
 
     // Request DTOs for endpoints
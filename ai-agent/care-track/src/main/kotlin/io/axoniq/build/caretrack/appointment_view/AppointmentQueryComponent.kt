@@ -1,25 +1,37 @@
 package io.axoniq.build.caretrack.appointment_view
 
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
 import io.axoniq.build.caretrack.appointment_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
 import java.time.LocalDate
 import java.time.LocalDateTime
-import java.time.LocalTime
 
 /**
  * Query component for appointment view.
  * Handles appointment-related queries and maintains the appointment read model.
+ * Today's appointments of a doctor are served from the [DayAgendaCache].
+ * The appointments of deleted accounts are hidden while they are purged, see [AccountTombstones].
  */
 @Component
 class AppointmentQueryComponent(
-    private val appointmentRepository: AppointmentRepository
+    private val appointmentRepository: AppointmentRepository,
+    private val dayAgendaCache: DayAgendaCache,
+    private val tombstones: AccountTombstones,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AppointmentQueryComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "appointment-view"
     }
 
     /**
@@ -31,24 +43,10 @@ class AppointmentQueryComponent(
     fun handle(query: TodaysAppointments): TodaysAppointmentsResult {
         logger.info("Handling TodaysAppointments query for doctor: ${query.doctorId}")
 
-        val today = LocalDate.now()
-        val startOfDay = today.atStartOfDay()
-        val endOfDay = today.atTime(LocalTime.MAX)
-
-        val appointments = appointmentRepository.findTodaysAppointmentsByDoctorId(
-            query.doctorId,
-            startOfDay, 
-            endOfDay
-        )
-
-        val appointmentInfos = appointments.map { appointment ->
-            TodayAppointmentInfo(
-                purpose = appointment.purpose,
-                patientName = appointment.patientName ?: "Unknown",
-                appointmentTime = appointment.appointmentDate,
-                appointmentId = appointment.appointmentId
-            )
+        if (tombstones.isDoctorDeleted(query.doctorId)) {
+            return TodaysAppointmentsResult(emptyList())
         }
+        val appointmentInfos = dayAgendaCache.agenda(query.doctorId, LocalDate.now())
 
         logger.debug("Found ${appointmentInfos.size} appointments for doctor ${query.doctorId} today")
         return TodaysAppointmentsResult(appointmentInfos)
@@ -64,6 +62,7 @@ class AppointmentQueryComponent(
         logger.info("Handling AppointmentDetails query for appointment: ${query.appointmentId}")
 
         val appointment = appointmentRepository.findById(query.appointmentId)
+            .filter { !tombstones.isPatientDeleted(it.patientId) && !tombstones.isDoctorDeleted(it.doctorId) }
             .orElseThrow { IllegalArgumentException("Appointment not found: ${query.appointmentId}") }
 
         return AppointmentDetailsResult(
@@ -85,6 +84,9 @@ class AppointmentQueryComponent(
     fun handle(query: PatientUpcomingAppointments): PatientUpcomingAppointmentsResult {
         logger.info("Handling PatientUpcomingAppointments query for patient: ${query.patientId}")
 
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return PatientUpcomingAppointmentsResult(emptyList())
+        }
         val now = LocalDateTime.now()
         val appointments = appointmentRepository.findUpcomingAppointmentsByPatientId(query.patientId, now)
         
@@ -103,10 +105,13 @@ class AppointmentQueryComponent(
 
     /**
      * Handles AppointmentScheduled event to create new appointment entry in the view.
+     * The appointment is added to its doctor's cached day agenda once the entry is committed, before the version of
+     * the view moves on.
      * @param event The AppointmentScheduled event
+     * @param processingContext The processing context of the event
      */
     @EventHandler
-    fun on(event: AppointmentScheduled) {
+    fun on(event: AppointmentScheduled, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentScheduled event for appointment: ${event.appointmentId}")
 
         val appointment = AppointmentEntity(
@@ -119,6 +124,18 @@ class AppointmentQueryComponent(
         )
 
         appointmentRepository.save(appointment)
+        processingContext.runOnAfterCommit {
+            dayAgendaCache.scheduled(
+                event.doctorId,
+                TodayAppointmentInfo(
+                    purpose = appointment.purpose,
+                    patientName = appointment.patientName ?: "Unknown",
+                    appointmentTime = appointment.appointmentDate,
+                    appointmentId = appointment.appointmentId
+                )
+            )
+            projectionVersions.bump(VIEW_KEY)
+        }
         logger.debug("Created appointment entry for: ${event.appointmentId}")
     }
 
@@ -127,8 +144,9 @@ class AppointmentQueryComponent(
      * @param event The AppointmentCancelled event
      */
     @EventHandler
-    fun on(event: AppointmentCancelled) {
+    fun on(event: AppointmentCancelled, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentCancelled event for appointment: ${event.appointmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val appointment = appointmentRepository.findById(event.appointmentId)
             .orElseThrow { IllegalArgumentException("Appointment not found: ${event.appointmentId}") }
@@ -143,8 +161,9 @@ class AppointmentQueryComponent(
      * @param event The AppointmentAttended event
      */
     @EventHandler
-    fun on(event: AppointmentAttended) {
+    fun on(event: AppointmentAttended, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentAttended event for appointment: ${event.appointmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val appointment = appointmentRepository.findById(event.appointmentId)
             .orElseThrow { IllegalArgumentException("Appointment not found: ${event.appointmentId}") }
@@ -159,8 +178,9 @@ class AppointmentQueryComponent(
      * @param event The AppointmentMissed event
      */
     @EventHandler
-    fun on(event: AppointmentMissed) {
+    fun on(event: AppointmentMissed, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentMissed event for appointment: ${event.appointmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val appointment = appointmentRepository.findById(event.appointmentId)
             .orElseThrow { IllegalArgumentException("Appointment not found: ${event.appointmentId}") }
@@ -18,13 +18,27 @@ interface AppointmentRepository : JpaRepository<AppointmentEntity, String> {
      * @param endOfDay The end of the day
      * @return List of appointments for today
      */
-    @Query("SELECT a FROM AppointmentEntity a WHERE a.doctorId = :doctorId AND a.appointmentDate >= :startOfDay AND a.appointmentDate <= :endOfDay ORDER BY a.appointmentDate ASC")
+    @Query("SELECT a FROM AppointmentEntity a WHERE a.doctorId = :doctorId AND a.appointmentDate >= :startOfDay AND a.appointmentDate <= :endOfDay ORDER BY a.appointmentDate ASC, a.appointmentId ASC")
     fun findTodaysAppointmentsByDoctorId(
         @Param("doctorId") doctorId: String,
         @Param("startOfDay") startOfDay: LocalDateTime,
         @Param("endOfDay") endOfDay: LocalDateTime
     ): List<AppointmentEntity>
 
+    /**
+     * Finds the appointments of several doctors within a time range, used to preload day agendas.
+     * @param doctorIds The doctors' IDs
+     * @param start The start of the range
+     * @param end The end of the range
+     * @return List of appointments within the range
+     */
+    @Query("SELECT a FROM AppointmentEntity a WHERE a.doctorId IN :doctorIds AND a.appointmentDate >= :start AND a.appointmentDate <= :end ORDER BY a.appointmentDate ASC, a.appointmentId ASC")
+    fun findAppointmentsByDoctorIdsBetween(
+        @Param("doctorIds") doctorIds: Collection<String>,
+        @Param("start") start: LocalDateTime,
+        @Param("end") end: LocalDateTime
+    ): List<AppointmentEntity>
+
     /**
      * Finds upcoming appointments for a specific patient.
      * @param patientId The patient's ID
@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.appointment_view
 
 import io.axoniq.build.caretrack.appointment_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/appointments")
 class AppointmentViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(AppointmentViewController::class.java)
@@ -26,10 +30,15 @@ class AppointmentViewController(
      * @return CompletableFuture containing today's appointments result
      */
     @GetMapping("/today/{doctorId}")
-    fun getTodaysAppointments(@PathVariable doctorId: String): CompletableFuture<TodaysAppointmentsResult> {
+    fun getTodaysAppointments(
+        @PathVariable doctorId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<TodaysAppointmentsResult>> {
         logger.info("REST request for today's appointments for doctor: $doctorId")
-        val query = TodaysAppointments(doctorId)
-        return queryGateway.query(query, TodaysAppointmentsResult::class.java, null)
+        return projectionVersions.conditionalGet(AppointmentQueryComponent.VIEW_KEY, ifNoneMatch) {
+            val query = TodaysAppointments(doctorId)
+            queryGateway.query(query, TodaysAppointmentsResult::class.java, null)
+        }
     }
 
     /**
@@ -38,10 +47,15 @@ class AppointmentViewController(
      * @return CompletableFuture containing appointment details result
      */
     @GetMapping("/{appointmentId}")
-    fun getAppointmentDetails(@PathVariable appointmentId: String): CompletableFuture<AppointmentDetailsResult> {
+    fun getAppointmentDetails(
+        @PathVariable appointmentId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AppointmentDetailsResult>> {
         logger.info("REST request for appointment details: $appointmentId")
-        val query = AppointmentDetails(appointmentId)
-        return queryGateway.query(query, AppointmentDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(AppointmentQueryComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AppointmentDetails(appointmentId)
+            queryGateway.query(query, AppointmentDetailsResult::class.java, null)
+        }
     }
 
     /**
@@ -50,9 +64,14 @@ class AppointmentViewController(
      * @return CompletableFuture containing patient's upcoming appointments result
      */
     @GetMapping("/patient/{patientId}/upcoming")
-    fun getPatientUpcomingAppointments(@PathVariable patientId: String): CompletableFuture<PatientUpcomingAppointmentsResult> {
+    fun getPatientUpcomingAppointments(
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PatientUpcomingAppointmentsResult>> {
         logger.info("REST request for upcoming appointments for patient: $patientId")
-        val query = PatientUpcomingAppointments(patientId)
-        return queryGateway.query(query, PatientUpcomingAppointmentsResult::class.java, null)
+        return projectionVersions.conditionalGet(AppointmentQueryComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PatientUpcomingAppointments(patientId)
+            queryGateway.query(query, PatientUpcomingAppointmentsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
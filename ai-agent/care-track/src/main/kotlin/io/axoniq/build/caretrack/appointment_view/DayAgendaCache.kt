@@ -0,0 +1,186 @@
+package io.axoniq.build.caretrack.appointment_view
+
+import io.axoniq.build.caretrack.appointment_view.api.TodayAppointmentInfo
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.Clock
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * In-process cache of the day agenda of each doctor: the doctor's appointments of the current day, sorted by time.
+ * Part of the Appointment View component, so front desks polling today's appointments are served from memory.
+ *
+ * An agenda is loaded from the database the first time it is asked for, and kept up to date by the scheduled
+ * appointments once their transaction committed. Cancelled, attended and missed appointments stay on the agenda,
+ * as the agenda lists every appointment of the day. Loads that raced with a scheduled appointment are served but
+ * not cached, so they cannot hide it. At midnight the agendas of the previous day are dropped, the version of the
+ * appointment view moves on, and the agendas of the new day are preloaded for the doctors that were asked for the
+ * previous day. The least recently used doctors are dropped beyond the configured size.
+ *
+ * Only the appointments scheduled through this instance are added to the agendas, so a cached agenda is trusted for
+ * `caretrack.appointments.agenda-max-age` at most; after that it is loaded from the database again, picking up the
+ * appointments scheduled through other instances.
+ *
+ * The current day is told by [clock], the system clock unless one is given.
+ */
+@Component
+class DayAgendaCache(
+    private val appointmentRepository: AppointmentRepository,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${caretrack.appointments.agenda-cache-size:5000}") private val maxDoctors: Int,
+    @Value("\${caretrack.appointments.agenda-max-age:PT30S}") private val maxAge: Duration,
+    private val clock: Clock = Clock.systemDefaultZone()
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(DayAgendaCache::class.java)
+        private val ORDER = compareBy<TodayAppointmentInfo>({ it.appointmentTime }, { it.appointmentId })
+    }
+
+    private class CachedAgenda(val appointments: List<TodayAppointmentInfo>, val loadedAt: Long)
+
+    private inner class DayAgendas(val day: LocalDate) {
+        val agendas = object : LinkedHashMap<String, CachedAgenda>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CachedAgenda>): Boolean =
+                size > maxDoctors
+        }
+    }
+
+    private val lock = Any()
+    private var current = DayAgendas(LocalDate.now(clock))
+    private var modifications = 0L
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "day-agenda-rollover").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        scheduleRollover()
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Returns the appointments of a doctor on a day, sorted by time. Only the current day is cached.
+     */
+    fun agenda(doctorId: String, day: LocalDate): List<TodayAppointmentInfo> {
+        val seen = synchronized(lock) {
+            if (current.day == day) {
+                current.agendas[doctorId]?.takeIf { System.nanoTime() - it.loadedAt < maxAge.toNanos() }
+                    ?.let { return it.appointments }
+            }
+            modifications
+        }
+        val loadedAt = System.nanoTime()
+        val agenda = load(doctorId, day)
+        synchronized(lock) {
+            if (current.day == day && modifications == seen) {
+                current.agendas[doctorId] = CachedAgenda(agenda, loadedAt)
+            }
+        }
+        return agenda
+    }
+
+    /**
+     * Adds a committed appointment to the agenda of its doctor, when that agenda is cached.
+     */
+    fun scheduled(doctorId: String, appointment: TodayAppointmentInfo) {
+        synchronized(lock) {
+            modifications++
+            if (current.day != appointment.appointmentTime.toLocalDate()) {
+                return
+            }
+            val agenda = current.agendas[doctorId] ?: return
+            val appointments = agenda.appointments.filter { it.appointmentId != appointment.appointmentId } + appointment
+            current.agendas[doctorId] = CachedAgenda(appointments.sortedWith(ORDER), agenda.loadedAt)
+        }
+    }
+
+    /**
+     * Drops every cached agenda, after appointments were removed from the view, such as by an account purge.
+     */
+    fun clear() {
+        synchronized(lock) {
+            modifications++
+            current.agendas.clear()
+        }
+    }
+
+    /**
+     * Replaces the agendas of the previous day by those of the current one, preloaded for the doctors that were
+     * asked for the previous day.
+     */
+    fun rollover() {
+        val day = LocalDate.now(clock)
+        val (doctorIds, seen) = synchronized(lock) {
+            if (current.day == day) {
+                return
+            }
+            val doctorIds = current.agendas.keys.toList()
+            current = DayAgendas(day)
+            doctorIds to modifications
+        }
+        projectionVersions.bump(AppointmentQueryComponent.VIEW_KEY)
+        val loadedAt = System.nanoTime()
+        val agendas = preload(doctorIds, day)
+        synchronized(lock) {
+            if (current.day == day && modifications == seen) {
+                agendas.forEach { (doctorId, agenda) ->
+                    current.agendas.putIfAbsent(doctorId, CachedAgenda(agenda, loadedAt))
+                }
+            }
+        }
+        logger.info("Rolled the day agendas over to {}, preloading {} doctors", day, agendas.size)
+    }
+
+    private fun load(doctorId: String, day: LocalDate): List<TodayAppointmentInfo> =
+        appointmentRepository.findTodaysAppointmentsByDoctorId(doctorId, day.atStartOfDay(), day.atTime(LocalTime.MAX))
+            .map(::toInfo)
+
+    private fun preload(doctorIds: List<String>, day: LocalDate): Map<String, List<TodayAppointmentInfo>> {
+        if (doctorIds.isEmpty()) {
+            return emptyMap()
+        }
+        val appointments = doctorIds.chunked(500).flatMap { chunk ->
+            appointmentRepository.findAppointmentsByDoctorIdsBetween(chunk, day.atStartOfDay(), day.atTime(LocalTime.MAX))
+        }.groupBy({ it.doctorId }, ::toInfo)
+        return doctorIds.associateWith { doctorId -> appointments[doctorId].orEmpty() }
+    }
+
+    private fun toInfo(appointment: AppointmentEntity) = TodayAppointmentInfo(
+        purpose = appointment.purpose,
+        patientName = appointment.patientName ?: "Unknown",
+        appointmentTime = appointment.appointmentDate,
+        appointmentId = appointment.appointmentId
+    )
+
+    private fun scheduleRollover() {
+        val nextMidnight = LocalDate.now(clock).plusDays(1).atStartOfDay()
+        val delay = Duration.between(LocalDateTime.now(clock), nextMidnight).plusSeconds(1)
+        executor.schedule({
+            try {
+                rollover()
+            } catch (e: Exception) {
+                logger.error("Failed to roll the day agendas over", e)
+            } finally {
+                scheduleRollover()
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS)
+    }
+}
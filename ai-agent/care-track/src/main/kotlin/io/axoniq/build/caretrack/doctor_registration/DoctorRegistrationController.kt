@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.doctor_registration
 
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import io.axoniq.build.caretrack.doctor_registration.api.RegisterDoctor
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Doctor Registration Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/doctor-registration")
 class DoctorRegistrationController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DoctorRegistrationController::class.java)
@@ -28,17 +30,18 @@ class DoctorRegistrationController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping("/register")
-    fun registerDoctor(@RequestBody request: RegisterDoctor): ResponseEntity<String> {
+    fun registerDoctor(@RequestBody request: RegisterDoctor): Mono<ResponseEntity<String>> {
         logger.info("Received doctor registration request for email: ${request.email}")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            logger.info("Successfully dispatched RegisterDoctor command for email: ${request.email}")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Doctor registration accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RegisterDoctor command for email: ${request.email}", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register doctor")
-        }
+        return commandDispatcher.send(request)
+            .then(Mono.fromSupplier {
+                logger.info("Successfully dispatched RegisterDoctor command for email: ${request.email}")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Doctor registration accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RegisterDoctor command for email: ${request.email}", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register doctor"))
+            }
     }
 }
 
@@ -10,7 +10,11 @@ import java.time.LocalDateTime
  * Part of the Family Health View component for handling family member access to patient health information.
  */
 @Entity
-@Table(name = "family_health_permissions")
+@Table(
+    name = "family_health_permissions",
+    uniqueConstraints = [UniqueConstraint(name = "uk_family_health_permission", columnNames = ["patient_id", "family_member_email"])],
+    indexes = [Index(name = "idx_family_health_permissions_patient", columnList = "patient_id")]
+)
 data class FamilyHealthPermission(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -43,7 +47,10 @@ data class FamilyHealthPermission(
  * Part of the Family Health View component.
  */
 @Entity
-@Table(name = "permitted_diagnoses")
+@Table(
+    name = "permitted_diagnoses",
+    uniqueConstraints = [UniqueConstraint(name = "uk_permitted_diagnosis", columnNames = ["diagnosis_id", "permission_id"])]
+)
 data class PermittedDiagnosis(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -74,7 +81,10 @@ data class PermittedDiagnosis(
  * Part of the Family Health View component.
  */
 @Entity
-@Table(name = "permitted_treatments")
+@Table(
+    name = "permitted_treatments",
+    uniqueConstraints = [UniqueConstraint(name = "uk_permitted_treatment", columnNames = ["treatment_id", "permission_id"])]
+)
 data class PermittedTreatment(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -105,7 +115,10 @@ data class PermittedTreatment(
  * Part of the Family Health View component.
  */
 @Entity
-@Table(name = "permitted_appointments")
+@Table(
+    name = "permitted_appointments",
+    uniqueConstraints = [UniqueConstraint(name = "uk_permitted_appointment", columnNames = ["appointment_id", "permission_id"])]
+)
 data class PermittedAppointment(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,60 @@
+package io.axoniq.build.caretrack.family_health_view
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+/**
+ * In-process cache of the family health permission IDs granted per patient.
+ * Part of the Family Health View component, so medical events for a patient resolve their permitted
+ * family members without a database round-trip. Entries are evicted by the grant, change and revoke
+ * event handlers, and the least recently used patients are dropped beyond the configured size.
+ *
+ * A miss reserves the patient's entry before loading it, and the loaded IDs are only cached when that
+ * reservation is still in place, so a load that raced with an eviction is served but never cached.
+ */
+@Component
+class FamilyHealthPermissionCache(
+    @Value("\${caretrack.family-health.permission-cache-size:10000}") private val maxPatients: Int
+) {
+
+    private sealed class CachedPermissions {
+        class Loading : CachedPermissions()
+        class Loaded(val permissionIds: List<Long>) : CachedPermissions()
+    }
+
+    private val entriesByPatient = object : LinkedHashMap<String, CachedPermissions>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CachedPermissions>): Boolean =
+            size > maxPatients
+    }
+
+    /**
+     * Returns the cached permission IDs for a patient, loading them with [loader] on a miss.
+     */
+    fun permissionIds(patientId: String, loader: (String) -> List<Long>): List<Long> {
+        val reservation = synchronized(entriesByPatient) {
+            when (val entry = entriesByPatient[patientId]) {
+                is CachedPermissions.Loaded -> return entry.permissionIds
+                is CachedPermissions.Loading -> null
+                null -> CachedPermissions.Loading().also { entriesByPatient[patientId] = it }
+            }
+        }
+        val permissionIds = loader(patientId)
+        if (reservation != null) {
+            synchronized(entriesByPatient) {
+                if (entriesByPatient[patientId] === reservation) {
+                    entriesByPatient[patientId] = CachedPermissions.Loaded(permissionIds)
+                }
+            }
+        }
+        return permissionIds
+    }
+
+    /**
+     * Evicts the cached permission IDs of a patient after their grants changed, including a load in progress.
+     */
+    fun evict(patientId: String) {
+        synchronized(entriesByPatient) {
+            entriesByPatient.remove(patientId)
+        }
+    }
+}
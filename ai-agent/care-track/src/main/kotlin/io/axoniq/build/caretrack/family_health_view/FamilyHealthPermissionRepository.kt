@@ -1,6 +1,8 @@
 package io.axoniq.build.caretrack.family_health_view
 
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
 
 /**
@@ -15,5 +17,12 @@ interface FamilyHealthPermissionRepository : JpaRepository<FamilyHealthPermissio
      * Used by the Family Health View component to retrieve permitted health information.
      */
     fun findByPatientIdAndFamilyMemberEmail(patientId: String, familyMemberEmail: String): FamilyHealthPermission?
+
+    /**
+     * Find the IDs of all family health permissions granted for a patient.
+     * Served by the patient_id index, and used to fan out medical events to permitted family members.
+     */
+    @Query("SELECT p.id FROM FamilyHealthPermission p WHERE p.patientId = :patientId")
+    fun findIdsByPatientId(@Param("patientId") patientId: String): List<Long>
 }
 
@@ -1,7 +1,10 @@
 package io.axoniq.build.caretrack.family_health_view
 
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
 import io.axoniq.build.caretrack.family_health_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -10,17 +13,24 @@ import org.springframework.stereotype.Component
 /**
  * Family Health View Component - handles family member access to permitted patient health information.
  * This query component maintains a read model of family member permissions and permitted health data.
+ * The data of deleted patients is hidden while it is purged, see [AccountTombstones].
  */
 @Component
 class FamilyHealthViewComponent(
     private val familyHealthPermissionRepository: FamilyHealthPermissionRepository,
-    private val permittedDiagnosisRepository: PermittedDiagnosisRepository,
-    private val permittedTreatmentRepository: PermittedTreatmentRepository,
-    private val permittedAppointmentRepository: PermittedAppointmentRepository
+    private val permittedHealthDataBatchRepository: PermittedHealthDataBatchRepository,
+    private val permissionCache: FamilyHealthPermissionCache,
+    private val tombstones: AccountTombstones,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(FamilyHealthViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "family-health-view"
     }
 
     /**
@@ -31,6 +41,10 @@ class FamilyHealthViewComponent(
     fun handle(query: DetailedPermittedHealthData): DetailedPermittedHealthDataResult? {
         logger.info("Handling DetailedPermittedHealthData query for patient: ${query.patientId}, family member: ${query.familyMemberEmail}, health area: ${query.healthArea}")
 
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return null
+        }
+
         val permission = familyHealthPermissionRepository
             .findByPatientIdAndFamilyMemberEmail(query.patientId, query.familyMemberEmail)
             ?: return null
@@ -65,6 +79,10 @@ class FamilyHealthViewComponent(
     fun handle(query: PermittedPatientHealthInfo): PermittedPatientHealthInfoResult? {
         logger.info("Handling PermittedPatientHealthInfo query for patient: ${query.patientId}, family member: ${query.familyMemberEmail}")
 
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return null
+        }
+
         val permission = familyHealthPermissionRepository
             .findByPatientIdAndFamilyMemberEmail(query.patientId, query.familyMemberEmail)
             ?: return null
@@ -102,8 +120,9 @@ class FamilyHealthViewComponent(
      * Updates the access level for existing family member permissions in the Family Health View.
      */
     @EventHandler
-    fun on(event: FamilyMemberPermissionsChanged) {
+    fun on(event: FamilyMemberPermissionsChanged, processingContext: ProcessingContext) {
         logger.info("Handling FamilyMemberPermissionsChanged event for patient: ${event.patientId}, family member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val permission = familyHealthPermissionRepository
             .findByPatientIdAndFamilyMemberEmail(event.patientId, event.familyMemberEmail)
@@ -111,6 +130,7 @@ class FamilyHealthViewComponent(
         if (permission != null) {
             val updatedPermission = permission.copy(accessLevel = event.newAccessLevel)
             familyHealthPermissionRepository.save(updatedPermission)
+            evictPermissions(event.patientId, processingContext)
             logger.info("Updated access level to ${event.newAccessLevel} for family member: ${event.familyMemberEmail}")
         } else {
             logger.warn("No existing permission found for patient: ${event.patientId}, family member: ${event.familyMemberEmail}")
@@ -122,8 +142,9 @@ class FamilyHealthViewComponent(
      * Creates new family member permission entries in the Family Health View.
      */
     @EventHandler
-    fun on(event: FamilyMemberAccessGranted) {
+    fun on(event: FamilyMemberAccessGranted, processingContext: ProcessingContext) {
         logger.info("Handling FamilyMemberAccessGranted event for patient: ${event.patientId}, family member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingPermission = familyHealthPermissionRepository
             .findByPatientIdAndFamilyMemberEmail(event.patientId, event.familyMemberEmail)
@@ -141,6 +162,25 @@ class FamilyHealthViewComponent(
             familyHealthPermissionRepository.save(updatedPermission)
             logger.info("Updated existing permission for family member: ${event.familyMemberEmail} with access level: ${event.accessLevel}")
         }
+        evictPermissions(event.patientId, processingContext)
+    }
+
+    /**
+     * Event handler for family member access revoked events.
+     * Removes the family member permission, including its permitted health data, from the Family Health View.
+     */
+    @EventHandler
+    fun on(event: FamilyMemberAccessRevoked, processingContext: ProcessingContext) {
+        logger.info("Handling FamilyMemberAccessRevoked event for patient: ${event.patientId}, family member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+        familyHealthPermissionRepository
+            .findByPatientIdAndFamilyMemberEmail(event.patientId, event.familyMemberEmail)
+            ?.let { permission ->
+                familyHealthPermissionRepository.delete(permission)
+                logger.info("Removed permission for family member: ${event.familyMemberEmail}")
+            }
+        evictPermissions(event.patientId, processingContext)
     }
 
     /**
@@ -148,29 +188,24 @@ class FamilyHealthViewComponent(
      * Adds permitted treatment information to the Family Health View for authorized family members.
      */
     @EventHandler
-    fun on(event: TreatmentPrescribed) {
+    fun on(event: TreatmentPrescribed, processingContext: ProcessingContext) {
         logger.info("Handling TreatmentPrescribed event for patient: ${event.patientId}, treatment: ${event.treatmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val permissions = familyHealthPermissionRepository.findAll()
-            .filter { it.patientId == event.patientId }
-        
-        permissions.forEach { permission ->
-            val existingTreatment = permittedTreatmentRepository
-                .findByTreatmentIdAndPermission(event.treatmentId, permission)
-            
-            if (existingTreatment == null) {
-                val newTreatment = PermittedTreatment(
-                    treatmentId = event.treatmentId,
-                    medicationName = event.medicationName,
-                    dosage = event.dosage,
-                    frequency = event.frequency,
-                    duration = event.duration,
-                    permission = permission
-                )
-                permittedTreatmentRepository.save(newTreatment)
-                logger.info("Added treatment ${event.medicationName} to permissions for family member: ${permission.familyMemberEmail}")
-            }
+        val permissionIds = permittedFamilyMembers(event.patientId)
+        if (permissionIds.isEmpty()) {
+            return
         }
+
+        val treatment = PermittedTreatment(
+            treatmentId = event.treatmentId,
+            medicationName = event.medicationName,
+            dosage = event.dosage,
+            frequency = event.frequency,
+            duration = event.duration
+        )
+        permittedHealthDataBatchRepository.insertTreatments(treatment, permissionIds)
+        logger.info("Added treatment ${event.medicationName} to ${permissionIds.size} family member permissions")
     }
     
     /**
@@ -178,29 +213,24 @@ class FamilyHealthViewComponent(
      * Adds permitted diagnosis information to the Family Health View for authorized family members.
      */
     @EventHandler
-    fun on(event: PatientDiagnosisRecorded) {
+    fun on(event: PatientDiagnosisRecorded, processingContext: ProcessingContext) {
         logger.info("Handling PatientDiagnosisRecorded event for patient: ${event.patientId}, diagnosis: ${event.diagnosisId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val permissions = familyHealthPermissionRepository.findAll()
-            .filter { it.patientId == event.patientId }
-
-        permissions.forEach { permission ->
-            val existingDiagnosis = permittedDiagnosisRepository
-                .findByDiagnosisIdAndPermission(event.diagnosisId, permission)
-
-            if (existingDiagnosis == null) {
-                val newDiagnosis = PermittedDiagnosis(
-                    diagnosisId = event.diagnosisId,
-                    condition = event.condition,
-                    diagnosisDate = event.diagnosisDate,
-                    severity = event.severity,
-                    notes = event.notes,
-                    permission = permission
-                )
-                permittedDiagnosisRepository.save(newDiagnosis)
-                logger.info("Added diagnosis ${event.condition} to permissions for family member: ${permission.familyMemberEmail}")
-            }
+        val permissionIds = permittedFamilyMembers(event.patientId)
+        if (permissionIds.isEmpty()) {
+            return
         }
+
+        val diagnosis = PermittedDiagnosis(
+            diagnosisId = event.diagnosisId,
+            condition = event.condition,
+            diagnosisDate = event.diagnosisDate,
+            severity = event.severity,
+            notes = event.notes
+        )
+        permittedHealthDataBatchRepository.insertDiagnoses(diagnosis, permissionIds)
+        logger.info("Added diagnosis ${event.condition} to ${permissionIds.size} family member permissions")
     }
 
     /**
@@ -208,28 +238,40 @@ class FamilyHealthViewComponent(
      * Adds permitted appointment information to the Family Health View for authorized family members.
      */
     @EventHandler
-    fun on(event: AppointmentScheduled) {
+    fun on(event: AppointmentScheduled, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentScheduled event for patient: ${event.patientId}, appointment: ${event.appointmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val permissions = familyHealthPermissionRepository.findAll()
-            .filter { it.patientId == event.patientId }
-        
-        permissions.forEach { permission ->
-            val existingAppointment = permittedAppointmentRepository
-                .findByAppointmentIdAndPermission(event.appointmentId, permission)
-
-            if (existingAppointment == null) {
-                val newAppointment = PermittedAppointment(
-                    appointmentId = event.appointmentId,
-                    doctorName = "Doctor ${event.doctorId}", // Using doctorId as placeholder for doctor name
-                    appointmentDate = event.appointmentDate,
-                    purpose = event.purpose,
-                    permission = permission
-                )
-                permittedAppointmentRepository.save(newAppointment)
-                logger.info("Added appointment with ${newAppointment.doctorName} to permissions for family member: ${permission.familyMemberEmail}")
-            }
+        val permissionIds = permittedFamilyMembers(event.patientId)
+        if (permissionIds.isEmpty()) {
+            return
         }
+
+        val appointment = PermittedAppointment(
+            appointmentId = event.appointmentId,
+            doctorName = "Doctor ${event.doctorId}", // Using doctorId as placeholder for doctor name
+            appointmentDate = event.appointmentDate,
+            purpose = event.purpose
+        )
+        permittedHealthDataBatchRepository.insertAppointments(appointment, permissionIds)
+        logger.info("Added appointment with ${appointment.doctorName} to ${permissionIds.size} family member permissions")
     }
-}
 
+    /**
+     * Resolves the permissions granted for a patient through the permission cache,
+     * falling back to the patient-indexed lookup on a miss.
+     */
+    private fun permittedFamilyMembers(patientId: String): List<Long> =
+        permissionCache.permissionIds(patientId, familyHealthPermissionRepository::findIdsByPatientId)
+
+    /**
+     * Evicts the cached permissions of a patient right away, so later events of the same batch read the
+     * uncommitted grants, and again once the grants committed or failed to, so no load that raced with the
+     * transaction keeps serving the old grants.
+     */
+    private fun evictPermissions(patientId: String, processingContext: ProcessingContext) {
+        permissionCache.evict(patientId)
+        processingContext.runOnAfterCommit { permissionCache.evict(patientId) }
+        processingContext.onError { _, _, _ -> permissionCache.evict(patientId) }
+    }
+}
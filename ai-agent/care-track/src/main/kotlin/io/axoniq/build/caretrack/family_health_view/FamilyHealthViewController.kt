@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.family_health_view
 
 import io.axoniq.build.caretrack.family_health_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/family-health")
 class FamilyHealthViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -29,16 +33,18 @@ class FamilyHealthViewController(
     fun getDetailedPermittedHealthData(
         @RequestParam patientId: String,
         @RequestParam familyMemberEmail: String,
-        @RequestParam healthArea: String
-    ): CompletableFuture<DetailedPermittedHealthDataResult> {
+        @RequestParam healthArea: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DetailedPermittedHealthDataResult>> {
         logger.info("REST request for detailed health data - patient: $patientId, family member: $familyMemberEmail, health area: $healthArea")
-
-        val query = DetailedPermittedHealthData(
-            patientId = patientId,
-            familyMemberEmail = familyMemberEmail,
-            healthArea = healthArea
-        )
-        return queryGateway.query(query, DetailedPermittedHealthDataResult::class.java, null)
+        return projectionVersions.conditionalGet(FamilyHealthViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DetailedPermittedHealthData(
+                patientId = patientId,
+                familyMemberEmail = familyMemberEmail,
+                healthArea = healthArea
+            )
+            queryGateway.query(query, DetailedPermittedHealthDataResult::class.java, null)
+        }
     }
 
     /**
@@ -48,14 +54,16 @@ class FamilyHealthViewController(
     @GetMapping("/patient/{patientId}")
     fun getPermittedPatientHealthInfo(
         @PathVariable patientId: String,
-        @RequestParam familyMemberEmail: String
-    ): CompletableFuture<PermittedPatientHealthInfoResult> {
+        @RequestParam familyMemberEmail: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PermittedPatientHealthInfoResult>> {
         logger.info("REST request for patient health info - patient: $patientId, family member: $familyMemberEmail")
-
-        val query = PermittedPatientHealthInfo(
-            patientId = patientId,
-            familyMemberEmail = familyMemberEmail
-        )
-        return queryGateway.query(query, PermittedPatientHealthInfoResult::class.java, null)
+        return projectionVersions.conditionalGet(FamilyHealthViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PermittedPatientHealthInfo(
+                patientId = patientId,
+                familyMemberEmail = familyMemberEmail
+            )
+            queryGateway.query(query, PermittedPatientHealthInfoResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
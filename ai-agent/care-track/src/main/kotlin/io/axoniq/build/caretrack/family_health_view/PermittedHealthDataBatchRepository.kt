@@ -0,0 +1,81 @@
+package io.axoniq.build.caretrack.family_health_view
+
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+import java.sql.Timestamp
+import java.sql.Date
+
+/**
+ * Batched writer for permitted health data.
+ * Part of the Family Health View component: copies one medical record to every permitted family member
+ * with a single JDBC batch, which the driver rewrites into multi-row inserts. Rows that already exist for a
+ * permission are skipped through the unique constraints, so redelivered events are harmless.
+ */
+@Repository
+class PermittedHealthDataBatchRepository(
+    private val jdbcTemplate: JdbcTemplate
+) {
+
+    /**
+     * Inserts [treatment] for each of [permissionIds].
+     */
+    @Transactional
+    fun insertTreatments(treatment: PermittedTreatment, permissionIds: List<Long>) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO permitted_treatments (treatment_id, medication_name, dosage, frequency, duration, permission_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (treatment_id, permission_id) DO NOTHING",
+            permissionIds.map { permissionId ->
+                arrayOf<Any?>(
+                    treatment.treatmentId,
+                    treatment.medicationName,
+                    treatment.dosage,
+                    treatment.frequency,
+                    treatment.duration,
+                    permissionId
+                )
+            }
+        )
+    }
+
+    /**
+     * Inserts [diagnosis] for each of [permissionIds].
+     */
+    @Transactional
+    fun insertDiagnoses(diagnosis: PermittedDiagnosis, permissionIds: List<Long>) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO permitted_diagnoses (diagnosis_id, condition, diagnosis_date, severity, notes, permission_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (diagnosis_id, permission_id) DO NOTHING",
+            permissionIds.map { permissionId ->
+                arrayOf<Any?>(
+                    diagnosis.diagnosisId,
+                    diagnosis.condition,
+                    Date.valueOf(diagnosis.diagnosisDate),
+                    diagnosis.severity,
+                    diagnosis.notes,
+                    permissionId
+                )
+            }
+        )
+    }
+
+    /**
+     * Inserts [appointment] for each of [permissionIds].
+     */
+    @Transactional
+    fun insertAppointments(appointment: PermittedAppointment, permissionIds: List<Long>) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO permitted_appointments (appointment_id, doctor_name, appointment_date, purpose, permission_id) " +
+                "VALUES (?, ?, ?, ?, ?) ON CONFLICT (appointment_id, permission_id) DO NOTHING",
+            permissionIds.map { permissionId ->
+                arrayOf<Any?>(
+                    appointment.appointmentId,
+                    appointment.doctorName,
+                    Timestamp.valueOf(appointment.appointmentDate),
+                    appointment.purpose,
+                    permissionId
+                )
+            }
+        )
+    }
+}
@@ -1,7 +1,9 @@
 package io.axoniq.build.caretrack.family_member_view
 
 import io.axoniq.build.caretrack.family_member_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -15,11 +17,17 @@ import org.springframework.stereotype.Component
  */
 @Component
 class FamilyMemberViewComponent(
-    private val familyMemberRepository: FamilyMemberRepository
+    private val familyMemberRepository: FamilyMemberRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(FamilyMemberViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "family-member-view"
     }
 
     /**
@@ -108,8 +116,9 @@ class FamilyMemberViewComponent(
      * Updates the access level for an existing family member.
      */
     @EventHandler
-    fun on(event: FamilyMemberPermissionsChanged) {
+    fun on(event: FamilyMemberPermissionsChanged, processingContext: ProcessingContext) {
         logger.info("Processing FamilyMemberPermissionsChanged event for patient: ${event.patientId}, member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingMember = familyMemberRepository.findByPatientIdAndFamilyMemberEmail(
             event.patientId,
@@ -130,8 +139,9 @@ class FamilyMemberViewComponent(
      * Updates the status of a family member to granted and sets their access level.
      */
     @EventHandler
-    fun on(event: FamilyMemberAccessGranted) {
+    fun on(event: FamilyMemberAccessGranted, processingContext: ProcessingContext) {
         logger.info("Processing FamilyMemberAccessGranted event for patient: ${event.patientId}, member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingMember = familyMemberRepository.findByPatientIdAndFamilyMemberEmail(
             event.patientId,
@@ -155,8 +165,9 @@ class FamilyMemberViewComponent(
      * Creates a new family member entry with pending status when an invitation is sent.
      */
     @EventHandler
-    fun on(event: FamilyMemberInvitationSent) {
+    fun on(event: FamilyMemberInvitationSent, processingContext: ProcessingContext) {
         logger.info("Processing FamilyMemberInvitationSent event for patient: ${event.patientId}, member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingMember = familyMemberRepository.findByPatientIdAndFamilyMemberEmail(
             event.patientId,
@@ -187,8 +198,9 @@ class FamilyMemberViewComponent(
      * Updates the status of a family member to revoked and removes their access level.
      */
     @EventHandler
-    fun on(event: FamilyMemberAccessRevoked) {
+    fun on(event: FamilyMemberAccessRevoked, processingContext: ProcessingContext) {
         logger.info("Processing FamilyMemberAccessRevoked event for patient: ${event.patientId}, member: ${event.familyMemberEmail}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingMember = familyMemberRepository.findByPatientIdAndFamilyMemberEmail(
             event.patientId,
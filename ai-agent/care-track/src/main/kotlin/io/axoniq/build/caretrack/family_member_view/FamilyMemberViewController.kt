@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.family_member_view
 
 import io.axoniq.build.caretrack.family_member_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/family-members")
 class FamilyMemberViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -27,12 +31,14 @@ class FamilyMemberViewController(
     @GetMapping("/{patientId}/permissions/{email}")
     fun getMemberPermissionDetails(
         @PathVariable patientId: String,
-        @PathVariable email: String
-    ): CompletableFuture<MemberPermissionDetailsResult> {
+        @PathVariable email: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<MemberPermissionDetailsResult>> {
         logger.info("REST request for member permission details - Patient: $patientId, Member: $email")
-
-        val query = MemberPermissionDetails(patientId = patientId, familyMemberEmail = email)
-        return queryGateway.query(query, MemberPermissionDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(FamilyMemberViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = MemberPermissionDetails(patientId = patientId, familyMemberEmail = email)
+            queryGateway.query(query, MemberPermissionDetailsResult::class.java, null)
+        }
     }
 
     /**
@@ -40,12 +46,14 @@ class FamilyMemberViewController(
      */
     @GetMapping("/{patientId}/permissions")
     fun getFamilyMemberPermissions(
-        @PathVariable patientId: String
-    ): CompletableFuture<FamilyMemberPermissionsResult> {
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<FamilyMemberPermissionsResult>> {
         logger.info("REST request for family member permissions - Patient: $patientId")
-
-        val query = FamilyMemberPermissions(patientId = patientId)
-        return queryGateway.query(query, FamilyMemberPermissionsResult::class.java, null)
+        return projectionVersions.conditionalGet(FamilyMemberViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = FamilyMemberPermissions(patientId = patientId)
+            queryGateway.query(query, FamilyMemberPermissionsResult::class.java, null)
+        }
     }
 
     /**
@@ -53,11 +61,13 @@ class FamilyMemberViewController(
      */
     @GetMapping("/{patientId}")
     fun getFamilyMemberList(
-        @PathVariable patientId: String
-    ): CompletableFuture<FamilyMemberListResult> {
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<FamilyMemberListResult>> {
         logger.info("REST request for family member list - Patient: $patientId")
-
-        val query = FamilyMemberList(patientId = patientId)
-        return queryGateway.query(query, FamilyMemberListResult::class.java, null)
+        return projectionVersions.conditionalGet(FamilyMemberViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = FamilyMemberList(patientId = patientId)
+            queryGateway.query(query, FamilyMemberListResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package io.axoniq.build.caretrack.invitation_view
 
 import io.axoniq.build.caretrack.invitation_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -15,11 +17,17 @@ import org.springframework.stereotype.Component
  */
 @Component
 class InvitationViewComponent(
-    private val invitationRepository: InvitationRepository
+    private val invitationRepository: InvitationRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(InvitationViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "invitation-view"
     }
 
     /**
@@ -53,8 +61,9 @@ class InvitationViewComponent(
      * @param event The FamilyMemberInvitationSent event
      */
     @EventHandler
-    fun on(event: FamilyMemberInvitationSent) {
+    fun on(event: FamilyMemberInvitationSent, processingContext: ProcessingContext) {
         logger.info("Handling FamilyMemberInvitationSent event for invitation ID: {}", event.invitationId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val invitation = InvitationEntity(
             invitationId = event.invitationId,
@@ -76,8 +85,9 @@ class InvitationViewComponent(
      * @param event The FamilyMemberInvitationDeclined event
      */
     @EventHandler
-    fun on(event: FamilyMemberInvitationDeclined) {
+    fun on(event: FamilyMemberInvitationDeclined, processingContext: ProcessingContext) {
         logger.info("Handling FamilyMemberInvitationDeclined event for invitation ID: {}", event.invitationId)
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val invitation = invitationRepository.findByInvitationId(event.invitationId)
         if (invitation != null) {
@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.invitation_view
 
 import io.axoniq.build.caretrack.invitation_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/invitations")
 class InvitationViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -30,10 +34,14 @@ class InvitationViewController(
      * @return CompletableFuture with invitation details
      */
     @GetMapping("/{id}")
-    fun getInvitationDetails(@PathVariable id: String): CompletableFuture<InvitationDetailsResult> {
+    fun getInvitationDetails(
+        @PathVariable id: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<InvitationDetailsResult>> {
         logger.info("REST request for invitation details, ID: {}", id)
-        
-        val query = InvitationDetails(invitationId = id)
-        return queryGateway.query(query, InvitationDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(InvitationViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = InvitationDetails(invitationId = id)
+            queryGateway.query(query, InvitationDetailsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package io.axoniq.build.caretrack.medical_history_view
 
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
 import io.axoniq.build.caretrack.medical_history_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -12,15 +15,23 @@ import org.springframework.transaction.annotation.Transactional
  * Medical History View component that handles patient medical history and current treatments queries.
  * This component maintains a read model of patient diagnoses and treatments by listening to medical events
  * and provides query handlers for retrieving medical history information.
+ * The data of deleted patients is hidden while it is purged, see [AccountTombstones].
  */
 @Component
 class MedicalHistoryViewComponent(
     private val diagnosisRepository: DiagnosisRepository,
-    private val treatmentRepository: TreatmentRepository
+    private val treatmentRepository: TreatmentRepository,
+    private val tombstones: AccountTombstones,
+    private val projectionVersions: ProjectionVersions
 ) {
     
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(MedicalHistoryViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "medical-history-view"
     }
 
     /**
@@ -33,6 +44,7 @@ class MedicalHistoryViewComponent(
         logger.info("Processing TreatmentDetails query for treatment ID: ${query.treatmentId}")
 
         val treatment = treatmentRepository.findById(query.treatmentId).orElse(null)
+            ?.takeUnless { tombstones.isPatientDeleted(it.patientId) }
             ?: return null
 
         // Note: We don't have doctor name in the entity, using doctorId as placeholder
@@ -55,6 +67,9 @@ class MedicalHistoryViewComponent(
     fun handle(query: PatientMedicalHistory): PatientMedicalHistoryResult {
         logger.info("Processing PatientMedicalHistory query for patient ID: ${query.patientId}")
 
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return PatientMedicalHistoryResult(diagnoses = emptyList())
+        }
         val diagnoses = diagnosisRepository.findByPatientIdOrderByDiagnosisDateDesc(query.patientId)
 
         val diagnosisInfoList = diagnoses.map { diagnosis ->
@@ -78,6 +93,9 @@ class MedicalHistoryViewComponent(
     fun handle(query: PatientCurrentTreatments): PatientCurrentTreatmentsResult {
         logger.info("Processing PatientCurrentTreatments query for patient ID: ${query.patientId}")
 
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return PatientCurrentTreatmentsResult(treatments = emptyList())
+        }
         val treatments = treatmentRepository.findByPatientIdAndStatus(query.patientId, "ACTIVE")
 
         val treatmentInfoList = treatments.map { treatment ->
@@ -102,6 +120,7 @@ class MedicalHistoryViewComponent(
         logger.info("Processing DiagnosisDetails query for diagnosis ID: ${query.diagnosisId}")
 
         val diagnosis = diagnosisRepository.findById(query.diagnosisId).orElse(null)
+            ?.takeUnless { tombstones.isPatientDeleted(it.patientId) }
             ?: return null
 
         return DiagnosisDetailsResult(
@@ -120,8 +139,9 @@ class MedicalHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: TreatmentPrescribed) {
+    fun on(event: TreatmentPrescribed, processingContext: ProcessingContext) {
         logger.info("Processing TreatmentPrescribed event for treatment ID: ${event.treatmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val treatmentEntity = TreatmentEntity(
             treatmentId = event.treatmentId,
@@ -144,8 +164,9 @@ class MedicalHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: TreatmentDiscontinued) {
+    fun on(event: TreatmentDiscontinued, processingContext: ProcessingContext) {
         logger.info("Processing TreatmentDiscontinued event for treatment ID: ${event.treatmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         treatmentRepository.findById(event.treatmentId).ifPresent { treatment ->
             val updatedTreatment = treatment.copy(status = "DISCONTINUED")
@@ -160,8 +181,9 @@ class MedicalHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: PatientDiagnosisRemoved) {
+    fun on(event: PatientDiagnosisRemoved, processingContext: ProcessingContext) {
         logger.info("Processing PatientDiagnosisRemoved event for diagnosis ID: ${event.diagnosisId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         diagnosisRepository.deleteById(event.diagnosisId)
         logger.info("Diagnosis removed for patient: ${event.patientId}")
@@ -173,8 +195,9 @@ class MedicalHistoryViewComponent(
      */
     @EventHandler
     @Transactional
-    fun on(event: PatientDiagnosisRecorded) {
+    fun on(event: PatientDiagnosisRecorded, processingContext: ProcessingContext) {
         logger.info("Processing PatientDiagnosisRecorded event for diagnosis ID: ${event.diagnosisId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val diagnosisEntity = DiagnosisEntity(
             diagnosisId = event.diagnosisId,
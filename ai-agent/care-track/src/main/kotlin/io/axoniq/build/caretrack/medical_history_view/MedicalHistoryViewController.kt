@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.medical_history_view
 
 import io.axoniq.build.caretrack.medical_history_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/medical-history")
 class MedicalHistoryViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -27,10 +31,15 @@ class MedicalHistoryViewController(
      * @return Treatment details
      */
     @GetMapping("/treatments/{treatmentId}")
-    fun getTreatmentDetails(@PathVariable treatmentId: String): CompletableFuture<TreatmentDetailsResult> {
+    fun getTreatmentDetails(
+        @PathVariable treatmentId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<TreatmentDetailsResult>> {
         logger.info("REST request for treatment details: $treatmentId")
-        val query = TreatmentDetails(treatmentId)
-        return queryGateway.query(query, TreatmentDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(MedicalHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = TreatmentDetails(treatmentId)
+            queryGateway.query(query, TreatmentDetailsResult::class.java, null)
+        }
     }
 
     /**
@@ -39,10 +48,15 @@ class MedicalHistoryViewController(
      * @return Patient's medical history including all diagnoses
      */
     @GetMapping("/patients/{patientId}/history")
-    fun getPatientMedicalHistory(@PathVariable patientId: String): CompletableFuture<PatientMedicalHistoryResult> {
+    fun getPatientMedicalHistory(
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PatientMedicalHistoryResult>> {
         logger.info("REST request for patient medical history: $patientId")
-        val query = PatientMedicalHistory(patientId)
-        return queryGateway.query(query, PatientMedicalHistoryResult::class.java, null)
+        return projectionVersions.conditionalGet(MedicalHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PatientMedicalHistory(patientId)
+            queryGateway.query(query, PatientMedicalHistoryResult::class.java, null)
+        }
     }
     
     /**
@@ -51,10 +65,15 @@ class MedicalHistoryViewController(
      * @return Patient's current treatments
      */
     @GetMapping("/patients/{patientId}/treatments")
-    fun getPatientCurrentTreatments(@PathVariable patientId: String): CompletableFuture<PatientCurrentTreatmentsResult> {
+    fun getPatientCurrentTreatments(
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PatientCurrentTreatmentsResult>> {
         logger.info("REST request for patient current treatments: $patientId")
-        val query = PatientCurrentTreatments(patientId)
-        return queryGateway.query(query, PatientCurrentTreatmentsResult::class.java, null)
+        return projectionVersions.conditionalGet(MedicalHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PatientCurrentTreatments(patientId)
+            queryGateway.query(query, PatientCurrentTreatmentsResult::class.java, null)
+        }
     }
 
     /**
@@ -63,9 +82,14 @@ class MedicalHistoryViewController(
      * @return Diagnosis details
      */
     @GetMapping("/diagnoses/{diagnosisId}")
-    fun getDiagnosisDetails(@PathVariable diagnosisId: String): CompletableFuture<DiagnosisDetailsResult> {
+    fun getDiagnosisDetails(
+        @PathVariable diagnosisId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DiagnosisDetailsResult>> {
         logger.info("REST request for diagnosis details: $diagnosisId")
-        val query = DiagnosisDetails(diagnosisId)
-        return queryGateway.query(query, DiagnosisDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(MedicalHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DiagnosisDetails(diagnosisId)
+            queryGateway.query(query, DiagnosisDetailsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
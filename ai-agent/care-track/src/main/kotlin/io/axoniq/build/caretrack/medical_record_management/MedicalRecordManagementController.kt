@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.medical_record_management
 
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import io.axoniq.build.caretrack.medical_record_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Medical Record Management Service.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/medical-records")
 class MedicalRecordManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(MedicalRecordManagementController::class.java)
@@ -25,15 +27,14 @@ class MedicalRecordManagementController(
      * Endpoint to enter a patient diagnosis.
      */
     @PostMapping("/diagnoses")
-    fun enterPatientDiagnosis(@RequestBody command: EnterPatientDiagnosis): ResponseEntity<String> {
+    fun enterPatientDiagnosis(@RequestBody command: EnterPatientDiagnosis): Mono<ResponseEntity<String>> {
         logger.info("Dispatching EnterPatientDiagnosis command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Diagnosis entry accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch EnterPatientDiagnosis command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to enter patient diagnosis")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Diagnosis entry accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch EnterPatientDiagnosis command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to enter patient diagnosis"))
+            }
     }
 
     /**
@@ -44,35 +45,33 @@ class MedicalRecordManagementController(
         @PathVariable patientId: String,
         @PathVariable diagnosisId: String,
         @RequestParam doctorId: String
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = RemovePatientDiagnosis(
             doctorId = doctorId,
             patientId = patientId,
             diagnosisId = diagnosisId
         )
         logger.info("Dispatching RemovePatientDiagnosis command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Diagnosis removal accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RemovePatientDiagnosis command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove patient diagnosis")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Diagnosis removal accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RemovePatientDiagnosis command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove patient diagnosis"))
+            }
     }
 
     /**
      * Endpoint to prescribe a treatment.
      */
     @PostMapping("/treatments")
-    fun prescribeTreatment(@RequestBody command: PrescribeTreatment): ResponseEntity<String> {
+    fun prescribeTreatment(@RequestBody command: PrescribeTreatment): Mono<ResponseEntity<String>> {
         logger.info("Dispatching PrescribeTreatment command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment prescription accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch PrescribeTreatment command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to prescribe treatment")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment prescription accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch PrescribeTreatment command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to prescribe treatment"))
+            }
     }
 
     /**
@@ -84,7 +83,7 @@ class MedicalRecordManagementController(
         @PathVariable treatmentId: String,
         @RequestParam doctorId: String,
         @RequestParam(required = false) reason: String?
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = DiscontinueTreatment(
             doctorId = doctorId,
             reason = reason,
@@ -92,13 +91,12 @@ class MedicalRecordManagementController(
             treatmentId = treatmentId
         )
         logger.info("Dispatching DiscontinueTreatment command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment discontinuation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch DiscontinueTreatment command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to discontinue treatment")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment discontinuation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch DiscontinueTreatment command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to discontinue treatment"))
+            }
     }
 }
 
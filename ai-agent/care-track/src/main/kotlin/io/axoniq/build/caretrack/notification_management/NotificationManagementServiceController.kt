@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.notification_management
 
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import io.axoniq.build.caretrack.notification_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Notification Management Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/notifications")
 class NotificationManagementServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(NotificationManagementServiceController::class.java)
@@ -25,7 +27,7 @@ class NotificationManagementServiceController(
      * Creates an urgent health notification for a patient.
      */
     @PostMapping("/urgent-health")
-    fun createUrgentHealthNotification(@RequestBody request: CreateUrgentHealthNotificationRequest): ResponseEntity<String> {
+    fun createUrgentHealthNotification(@RequestBody request: CreateUrgentHealthNotificationRequest): Mono<ResponseEntity<String>> {
         val command = CreateUrgentHealthNotification(
             message = request.message,
             patientId = request.patientId,
@@ -34,20 +36,19 @@ class NotificationManagementServiceController(
 
         logger.info("Dispatching CreateUrgentHealthNotification command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Urgent health notification created")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateUrgentHealthNotification command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create urgent health notification")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Urgent health notification created"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateUrgentHealthNotification command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create urgent health notification"))
+            }
     }
 
     /**
      * Creates a missed appointment alert for a patient.
      */
     @PostMapping("/missed-appointment")
-    fun createMissedAppointmentAlert(@RequestBody request: CreateMissedAppointmentAlertRequest): ResponseEntity<String> {
+    fun createMissedAppointmentAlert(@RequestBody request: CreateMissedAppointmentAlertRequest): Mono<ResponseEntity<String>> {
         val command = CreateMissedAppointmentAlert(
             patientId = request.patientId,
             appointmentId = request.appointmentId,
@@ -56,20 +57,19 @@ class NotificationManagementServiceController(
         
         logger.info("Dispatching CreateMissedAppointmentAlert command: $command")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Missed appointment alert created")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateMissedAppointmentAlert command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create missed appointment alert")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Missed appointment alert created"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateMissedAppointmentAlert command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create missed appointment alert"))
+            }
     }
 
     /**
      * Creates a treatment notification for a patient.
      */
     @PostMapping("/treatment")
-    fun createTreatmentNotification(@RequestBody request: CreateTreatmentNotificationRequest): ResponseEntity<String> {
+    fun createTreatmentNotification(@RequestBody request: CreateTreatmentNotificationRequest): Mono<ResponseEntity<String>> {
         val command = CreateTreatmentNotification(
             patientId = request.patientId,
             treatmentDetails = request.treatmentDetails
@@ -77,20 +77,19 @@ class NotificationManagementServiceController(
 
         logger.info("Dispatching CreateTreatmentNotification command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment notification created")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateTreatmentNotification command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create treatment notification")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Treatment notification created"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateTreatmentNotification command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create treatment notification"))
+            }
     }
 
     /**
      * Acknowledges an urgent notification by a family member.
      */
     @PostMapping("/acknowledge")
-    fun acknowledgeUrgentNotification(@RequestBody request: AcknowledgeUrgentNotificationRequest): ResponseEntity<String> {
+    fun acknowledgeUrgentNotification(@RequestBody request: AcknowledgeUrgentNotificationRequest): Mono<ResponseEntity<String>> {
         val command = AcknowledgeUrgentNotification(
             familyMemberEmail = request.familyMemberEmail,
             notificationId = request.notificationId
@@ -98,13 +97,12 @@ class NotificationManagementServiceController(
 
         logger.info("Dispatching AcknowledgeUrgentNotification command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Urgent notification acknowledged")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch AcknowledgeUrgentNotification command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to acknowledge urgent notification")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Urgent notification acknowledged"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch AcknowledgeUrgentNotification command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to acknowledge urgent notification"))
+            }
     }
 
     /**
@@ -0,0 +1,22 @@
+package io.axoniq.build.caretrack.notification_view
+
+import jakarta.persistence.*
+
+/**
+ * JPA Entity holding the unacknowledged notification counts of a patient.
+ * Part of the Notification View component: maintained incrementally by [NotificationCounterRepository] as
+ * notifications are created and acknowledged, so inbox badges are read from a single row.
+ */
+@Entity
+@Table(name = "notification_counter")
+data class NotificationCounterEntity(
+    @Id
+    @Column(name = "patient_id")
+    val patientId: String = "",
+
+    @Column(name = "unread", nullable = false)
+    val unread: Int = 0,
+
+    @Column(name = "urgent_unread", nullable = false)
+    val urgentUnread: Int = 0
+)
@@ -0,0 +1,38 @@
+package io.axoniq.build.caretrack.notification_view
+
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Repository
+
+/**
+ * Incremental writer and reader of the per-patient notification counters.
+ * Part of the Notification View component: every change is a single upsert adding to the counts, so concurrent
+ * event handlers never lose an update.
+ */
+@Repository
+class NotificationCounterRepository(
+    private val jdbcTemplate: JdbcTemplate
+) {
+
+    /**
+     * Adds [unread] and [urgentUnread], which may be negative, to the counts of a patient.
+     */
+    fun add(patientId: String, unread: Int, urgentUnread: Int) {
+        jdbcTemplate.update(
+            "INSERT INTO notification_counter (patient_id, unread, urgent_unread) VALUES (?, ?, ?) " +
+                "ON CONFLICT (patient_id) DO UPDATE SET " +
+                "unread = GREATEST(notification_counter.unread + EXCLUDED.unread, 0), " +
+                "urgent_unread = GREATEST(notification_counter.urgent_unread + EXCLUDED.urgent_unread, 0)",
+            patientId, unread, urgentUnread
+        )
+    }
+
+    /**
+     * Returns the counts of a patient, or zero counts when the patient has had no notifications.
+     */
+    fun find(patientId: String): NotificationCounterEntity =
+        jdbcTemplate.query(
+            "SELECT unread, urgent_unread FROM notification_counter WHERE patient_id = ?",
+            { rs, _ -> NotificationCounterEntity(patientId, rs.getInt("unread"), rs.getInt("urgent_unread")) },
+            patientId
+        ).firstOrNull() ?: NotificationCounterEntity(patientId)
+}
@@ -0,0 +1,196 @@
+package io.axoniq.build.caretrack.notification_view
+
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import jakarta.annotation.PostConstruct
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.annotation.DependsOn
+import org.springframework.context.event.EventListener
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.YearMonth
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps the `notifications` table of the Notification View component partitioned by month of creation.
+ *
+ * At startup the table Hibernate created is converted into a PostgreSQL range-partitioned table, with a primary key
+ * of the notification ID and creation time, as a partitioned table requires, and an index for the patient queries.
+ * Existing notifications within the retention period are moved over, and the per-patient counters are rebuilt from
+ * them. Every `caretrack.notifications.maintenance-interval` the partitions of the current month and the
+ * `caretrack.notifications.partitions-ahead` next months are created, and the months older than
+ * `caretrack.notifications.retention-months` are dropped as a whole, after their unacknowledged notifications are
+ * subtracted from the counters. Dropping a partition leaves no dead rows to vacuum, unlike a mass delete.
+ *
+ * Instances sharing the database convert and maintain the table one at a time: each holds a transaction-level
+ * advisory lock and checks again under it whether the table still needs converting, so an instance starting while
+ * another converts waits for it and then finds the table partitioned. The conversion runs in one transaction, so an
+ * instance that fails halfway leaves the table as it was. With `ddl-auto: create` Hibernate recreates a plain table
+ * at each startup, before this component runs, and the conversion is redone.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+class NotificationPartitionManager(
+    private val jdbcTemplate: JdbcTemplate,
+    private val transactionTemplate: TransactionTemplate,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${caretrack.notifications.partitions-ahead:3}") private val monthsAhead: Int,
+    @Value("\${caretrack.notifications.retention-months:24}") private val retentionMonths: Int,
+    @Value("\${caretrack.notifications.maintenance-interval:PT6H}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(NotificationPartitionManager::class.java)
+        private const val TABLE = "notifications"
+        private val PARTITION_NAME = Regex("${TABLE}_y(\\d{4})m(\\d{2})")
+
+        /**
+         * Key of the advisory lock serializing the partition changes of the instances sharing the database.
+         */
+        private const val LOCK_KEY = 0x6e6f7469L
+
+        private fun partitionName(month: YearMonth) = "%s_y%04dm%02d".format(TABLE, month.year, month.monthValue)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "notification-partition-manager").apply { isDaemon = true }
+    }
+
+    @PostConstruct
+    fun initialize() {
+        transactionTemplate.executeWithoutResult {
+            lock()
+            val kind = jdbcTemplate.queryForObject(
+                "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)", String::class.java, TABLE
+            )
+            if (kind != "p") {
+                partition()
+            }
+        }
+        maintain()
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::maintainSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * The start of the oldest month that is retained; older notifications may already have been dropped.
+     */
+    fun retainedSince(): LocalDateTime = oldestRetainedMonth().atDay(1).atStartOfDay()
+
+    /**
+     * Creates the partitions of the current and next months, and drops the partitions past the retention period,
+     * after which the version of the notification view moves on.
+     */
+    fun maintain() {
+        var expired = emptyList<Pair<String, YearMonth>>()
+        transactionTemplate.executeWithoutResult {
+            lock()
+            val current = YearMonth.now()
+            (0..monthsAhead.toLong()).forEach { createPartition(current.plusMonths(it)) }
+            expired = partitions().filter { (_, month) -> month < oldestRetainedMonth() }
+            expired.forEach { (name, month) -> dropPartition(name, month) }
+        }
+        if (expired.isNotEmpty()) {
+            projectionVersions.bump(NotificationViewComponent.VIEW_KEY)
+        }
+    }
+
+    private fun oldestRetainedMonth(): YearMonth = YearMonth.now().minusMonths(retentionMonths.toLong() - 1)
+
+    /**
+     * Waits for the partition changes of other instances, holding the lock until the current transaction ends.
+     */
+    private fun lock() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock($LOCK_KEY)")
+    }
+
+    private fun partition() {
+        val since = retainedSince()
+        transactionTemplate.executeWithoutResult {
+            jdbcTemplate.execute("ALTER TABLE $TABLE RENAME TO ${TABLE}_unpartitioned")
+            jdbcTemplate.execute(
+                "CREATE TABLE $TABLE (LIKE ${TABLE}_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_date)"
+            )
+            jdbcTemplate.execute(
+                "ALTER TABLE $TABLE ADD CONSTRAINT ${TABLE}_partitioned_pkey PRIMARY KEY (notification_id, created_date)"
+            )
+            jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_${TABLE}_patient_priority ON $TABLE (patient_id, priority, created_date)"
+            )
+            val last = jdbcTemplate.queryForObject(
+                "SELECT MAX(created_date) FROM ${TABLE}_unpartitioned", LocalDateTime::class.java
+            )
+            val lastMonth = maxOf(YearMonth.now(), last?.let(YearMonth::from) ?: YearMonth.now())
+            generateSequence(oldestRetainedMonth()) { it.plusMonths(1) }
+                .takeWhile { it <= lastMonth }
+                .forEach(::createPartition)
+            val moved = jdbcTemplate.update(
+                "INSERT INTO $TABLE SELECT * FROM ${TABLE}_unpartitioned WHERE created_date >= ?", since
+            )
+            jdbcTemplate.execute("DROP TABLE ${TABLE}_unpartitioned")
+            jdbcTemplate.update("DELETE FROM notification_counter")
+            jdbcTemplate.update(
+                "INSERT INTO notification_counter (patient_id, unread, urgent_unread) " +
+                    "SELECT patient_id, COUNT(*) FILTER (WHERE NOT acknowledged), " +
+                    "COUNT(*) FILTER (WHERE NOT acknowledged AND priority = 'urgent') FROM $TABLE GROUP BY patient_id"
+            )
+            logger.info("Partitioned the {} table by month, moving {} notifications", TABLE, moved)
+        }
+    }
+
+    private fun createPartition(month: YearMonth) {
+        jdbcTemplate.execute(
+            "CREATE TABLE IF NOT EXISTS ${partitionName(month)} PARTITION OF $TABLE " +
+                "FOR VALUES FROM ('${month.atDay(1)}') TO ('${month.plusMonths(1).atDay(1)}')"
+        )
+    }
+
+    private fun partitions(): List<Pair<String, YearMonth>> =
+        jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+            String::class.java, TABLE
+        ).mapNotNull { name ->
+            PARTITION_NAME.matchEntire(name)?.destructured?.let { (year, month) ->
+                name to YearMonth.of(year.toInt(), month.toInt())
+            }
+        }
+
+    private fun dropPartition(name: String, month: YearMonth) {
+        transactionTemplate.executeWithoutResult {
+            jdbcTemplate.update(
+                "UPDATE notification_counter c SET unread = GREATEST(c.unread - d.unread, 0), " +
+                    "urgent_unread = GREATEST(c.urgent_unread - d.urgent_unread, 0) " +
+                    "FROM (SELECT patient_id, COUNT(*) FILTER (WHERE NOT acknowledged) AS unread, " +
+                    "COUNT(*) FILTER (WHERE NOT acknowledged AND priority = 'urgent') AS urgent_unread " +
+                    "FROM $name GROUP BY patient_id) d WHERE c.patient_id = d.patient_id"
+            )
+            jdbcTemplate.execute("ALTER TABLE $TABLE DETACH PARTITION $name")
+            jdbcTemplate.execute("DROP TABLE IF EXISTS $name")
+        }
+        logger.info("Dropped the notifications of {}, past the retention of {} months", month, retentionMonths)
+    }
+
+    private fun maintainSafely() {
+        try {
+            maintain()
+        } catch (e: Exception) {
+            logger.error("Failed to maintain the notification partitions", e)
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package io.axoniq.build.caretrack.notification_view
 
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
 import org.springframework.data.jpa.repository.Query
 import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import java.time.LocalDateTime
 
 /**
  * Repository interface for NotificationEntity.
@@ -19,10 +21,16 @@ interface NotificationRepository : JpaRepository<NotificationEntity, String> {
     fun findByPatientIdOrderByCreatedDateDesc(patientId: String): List<NotificationEntity>
 
     /**
-     * Finds notifications by patient ID and priority level.
-     * Used by the Notification View component to filter urgent notifications.
+     * Finds the most recent notifications by patient ID and priority level created since the given time.
+     * Used by the Notification View component to filter urgent notifications; the lower bound on the creation
+     * time skips the monthly partitions before it.
      */
-    @Query("SELECT n FROM NotificationEntity n WHERE n.patientId = :patientId AND n.priority = :priority ORDER BY n.createdDate DESC")
-    fun findByPatientIdAndPriority(@Param("patientId") patientId: String, @Param("priority") priority: String): List<NotificationEntity>
+    @Query("SELECT n FROM NotificationEntity n WHERE n.patientId = :patientId AND n.priority = :priority AND n.createdDate >= :since ORDER BY n.createdDate DESC")
+    fun findByPatientIdAndPriority(
+        @Param("patientId") patientId: String,
+        @Param("priority") priority: String,
+        @Param("since") since: LocalDateTime,
+        pageable: Pageable
+    ): List<NotificationEntity>
 }
 
@@ -1,25 +1,49 @@
 package io.axoniq.build.caretrack.notification_view
 
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
 import io.axoniq.build.caretrack.notification_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.annotations.Timestamp
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.data.domain.PageRequest
 import org.springframework.stereotype.Component
+import java.time.Instant
 import java.time.LocalDateTime
+import java.time.ZoneId
 
 /**
  * Notification View Component - handles urgent health notifications and alerts queries.
  * This component maintains a read model for notifications by processing events
  * and providing query capabilities for the notification system.
+ * The notifications of deleted patients are hidden while they are purged, see [AccountTombstones].
+ * Notifications are stored in monthly partitions, see [NotificationPartitionManager], and the unacknowledged
+ * notifications of each patient are counted incrementally for inbox badges. Notifications created before the
+ * retention period, as replayed from old events, are skipped.
  */
 @Component
 class NotificationViewComponent(
-    private val notificationRepository: NotificationRepository
+    private val notificationRepository: NotificationRepository,
+    private val counterRepository: NotificationCounterRepository,
+    private val partitionManager: NotificationPartitionManager,
+    private val tombstones: AccountTombstones,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${caretrack.notifications.max-results:100}") private val maxResults: Int
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(NotificationViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "notification-view"
+
+        private const val URGENT = "urgent"
     }
 
     /**
@@ -31,6 +55,7 @@ class NotificationViewComponent(
         logger.info("Handling UrgentNotificationDetails query for notification ID: ${query.notificationId}")
 
         val notification = notificationRepository.findById(query.notificationId)
+            .filter { !tombstones.isPatientDeleted(it.patientId) }
             .orElseThrow { IllegalArgumentException("Notification not found: ${query.notificationId}") }
 
         return UrgentNotificationDetailsResult(
@@ -51,7 +76,15 @@ class NotificationViewComponent(
     fun handle(query: UrgentHealthNotifications): UrgentHealthNotificationsResult {
         logger.info("Handling UrgentHealthNotifications query for patient ID: ${query.patientId}")
 
-        val notifications = notificationRepository.findByPatientIdAndPriority(query.patientId, "urgent")
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return UrgentHealthNotificationsResult(notifications = emptyList())
+        }
+        val notifications = notificationRepository.findByPatientIdAndPriority(
+            query.patientId,
+            URGENT,
+            partitionManager.retainedSince(),
+            PageRequest.of(0, maxResults)
+        )
         
         val notificationSummaries = notifications.map { notification ->
             NotificationSummary(
@@ -65,25 +98,41 @@ class NotificationViewComponent(
         return UrgentHealthNotificationsResult(notifications = notificationSummaries)
     }
 
+    /**
+     * Handles NotificationBadge query to retrieve the unacknowledged notification counts of a patient.
+     * Part of the Notification View component's query handling capabilities.
+     */
+    @QueryHandler
+    fun handle(query: NotificationBadge): NotificationBadgeResult {
+        logger.debug("Handling NotificationBadge query for patient ID: ${query.patientId}")
+
+        if (tombstones.isPatientDeleted(query.patientId)) {
+            return NotificationBadgeResult(unread = 0, urgentUnread = 0)
+        }
+        val counter = counterRepository.find(query.patientId)
+        return NotificationBadgeResult(unread = counter.unread, urgentUnread = counter.urgentUnread)
+    }
+
     /**
      * Handles TreatmentNotificationCreated event to update the notification read model.
      * Part of the Notification View component's event processing capabilities.
      */
     @EventHandler
-    fun on(event: TreatmentNotificationCreated) {
+    fun on(event: TreatmentNotificationCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) {
         logger.info("Processing TreatmentNotificationCreated event for notification ID: ${event.notificationId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val notification = NotificationEntity(
             notificationId = event.notificationId,
             patientId = event.patientId,
             acknowledged = false,
             message = event.treatmentDetails,
-            createdDate = LocalDateTime.now(),
+            createdDate = createdDate(timestamp),
             notificationType = "treatment",
             priority = "normal"
         )
 
-        notificationRepository.save(notification)
+        save(notification)
         logger.debug("Saved treatment notification: ${event.notificationId}")
     }
 
@@ -92,20 +141,21 @@ class NotificationViewComponent(
      * Part of the Notification View component's event processing capabilities.
      */
     @EventHandler
-    fun on(event: UrgentHealthNotificationCreated) {
+    fun on(event: UrgentHealthNotificationCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) {
         logger.info("Processing UrgentHealthNotificationCreated event for notification ID: ${event.notificationId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val notification = NotificationEntity(
             notificationId = event.notificationId,
             patientId = event.patientId,
             acknowledged = false,
             message = event.message,
-            createdDate = LocalDateTime.now(),
+            createdDate = createdDate(timestamp),
             notificationType = "urgent_health",
             priority = event.priority
         )
 
-        notificationRepository.save(notification)
+        save(notification)
         logger.debug("Saved urgent health notification: ${event.notificationId}")
     }
 
@@ -114,14 +164,18 @@ class NotificationViewComponent(
      * Part of the Notification View component's event processing capabilities.
      */
     @EventHandler
-    fun on(event: UrgentNotificationAcknowledged) {
+    fun on(event: UrgentNotificationAcknowledged, processingContext: ProcessingContext) {
         logger.info("Processing UrgentNotificationAcknowledged event for notification ID: ${event.notificationId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val existingNotification = notificationRepository.findById(event.notificationId)
         if (existingNotification.isPresent) {
             val notification = existingNotification.get()
             val updatedNotification = notification.copy(acknowledged = true)
             notificationRepository.save(updatedNotification)
+            if (!notification.acknowledged) {
+                counterRepository.add(notification.patientId, -1, if (notification.priority == URGENT) -1 else 0)
+            }
             logger.debug("Updated notification acknowledgment: ${event.notificationId}")
         } else {
             logger.warn("Notification not found for acknowledgment: ${event.notificationId}")
@@ -133,21 +187,46 @@ class NotificationViewComponent(
      * Part of the Notification View component's event processing capabilities.
      */
     @EventHandler
-    fun on(event: MissedAppointmentAlertCreated) {
+    fun on(event: MissedAppointmentAlertCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) {
         logger.info("Processing MissedAppointmentAlertCreated event for alert ID: ${event.alertId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val notification = NotificationEntity(
             notificationId = event.alertId,
             patientId = event.patientId,
             acknowledged = false,
             message = event.alertMessage,
-            createdDate = LocalDateTime.now(),
+            createdDate = createdDate(timestamp),
             notificationType = "missed_appointment",
             priority = "high"
         )
 
-        notificationRepository.save(notification)
+        save(notification)
         logger.debug("Saved missed appointment alert: ${event.alertId}")
     }
-}
 
+    /**
+     * The creation time of a notification: the time its event was published, so a replay keeps it in its month.
+     */
+    private fun createdDate(timestamp: Instant): LocalDateTime = timestamp.atZone(ZoneId.systemDefault()).toLocalDateTime()
+
+    /**
+     * Saves a new notification and counts it as unacknowledged, unless it was saved before. A notification created
+     * before the retention period is skipped: the partition of its month has been dropped, or is about to be, so it
+     * has no partition to go into and would not be shown anyway.
+     */
+    private fun save(notification: NotificationEntity) {
+        if (notification.createdDate < partitionManager.retainedSince()) {
+            logger.debug(
+                "Skipped notification {} of {}, past the retention period",
+                notification.notificationId, notification.createdDate
+            )
+            return
+        }
+        val isNew = !notificationRepository.existsById(notification.notificationId)
+        notificationRepository.save(notification)
+        if (isNew) {
+            counterRepository.add(notification.patientId, 1, if (notification.priority == URGENT) 1 else 0)
+        }
+    }
+}
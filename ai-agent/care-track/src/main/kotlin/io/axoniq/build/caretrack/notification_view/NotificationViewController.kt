@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.notification_view
 
 import io.axoniq.build.caretrack.notification_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/notifications")
 class NotificationViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -26,10 +30,15 @@ class NotificationViewController(
      * Part of the Notification View component's REST API.
      */
     @GetMapping("/urgent/{notificationId}")
-    fun getUrgentNotificationDetails(@PathVariable notificationId: String): CompletableFuture<UrgentNotificationDetailsResult> {
+    fun getUrgentNotificationDetails(
+        @PathVariable notificationId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<UrgentNotificationDetailsResult>> {
         logger.info("REST request for urgent notification details: $notificationId")
-        val query = UrgentNotificationDetails(notificationId)
-        return queryGateway.query(query, UrgentNotificationDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(NotificationViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = UrgentNotificationDetails(notificationId)
+            queryGateway.query(query, UrgentNotificationDetailsResult::class.java, null)
+        }
     }
 
     /**
@@ -39,10 +48,29 @@ class NotificationViewController(
     @GetMapping("/urgent")
     fun getUrgentHealthNotifications(
         @RequestParam patientId: String,
-        @RequestParam familyMemberEmail: String
-    ): CompletableFuture<UrgentHealthNotificationsResult> {
+        @RequestParam familyMemberEmail: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<UrgentHealthNotificationsResult>> {
         logger.info("REST request for urgent health notifications - Patient: $patientId, Family Member: $familyMemberEmail")
-        val query = UrgentHealthNotifications(patientId, familyMemberEmail)
-        return queryGateway.query(query, UrgentHealthNotificationsResult::class.java, null)
+        return projectionVersions.conditionalGet(NotificationViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = UrgentHealthNotifications(patientId, familyMemberEmail)
+            queryGateway.query(query, UrgentHealthNotificationsResult::class.java, null)
+        }
+    }
+
+    /**
+     * GET endpoint to retrieve the unacknowledged notification counts of a patient for the inbox badge.
+     * Part of the Notification View component's REST API.
+     */
+    @GetMapping("/badge")
+    fun getNotificationBadge(
+        @RequestParam patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<NotificationBadgeResult>> {
+        logger.debug("REST request for notification badge - Patient: $patientId")
+        return projectionVersions.conditionalGet(NotificationViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = NotificationBadge(patientId)
+            queryGateway.query(query, NotificationBadgeResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package io.axoniq.build.caretrack.notification_view.api
+
+import kotlin.String
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "NotificationBadge",
+  namespace = "caretrack",
+)
+public data class NotificationBadge(
+  public val patientId: String,
+)
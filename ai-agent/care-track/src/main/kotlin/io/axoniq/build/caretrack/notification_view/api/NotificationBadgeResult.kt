@@ -0,0 +1,8 @@
+package io.axoniq.build.caretrack.notification_view.api
+
+import kotlin.Int
+
+public data class NotificationBadgeResult(
+  public val unread: Int,
+  public val urgentUnread: Int,
+)
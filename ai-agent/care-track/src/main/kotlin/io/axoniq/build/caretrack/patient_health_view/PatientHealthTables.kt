@@ -0,0 +1,154 @@
+package io.axoniq.build.caretrack.patient_health_view
+
+import io.axoniq.build.caretrack.projection.BatchedTable
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.stereotype.Repository
+import java.sql.Date
+import java.sql.ResultSet
+import java.sql.Timestamp
+import java.time.LocalDate
+import java.time.LocalDateTime
+
+/**
+ * A row of the patient_health table as written by the Patient Health View event handlers.
+ */
+data class PatientHealthRow(val patientId: String, val patientName: String)
+
+/**
+ * A row of the appointments table as written by the Patient Health View event handlers.
+ */
+data class AppointmentRow(
+    val appointmentId: String,
+    val patientId: String,
+    val doctorName: String,
+    val appointmentDate: LocalDateTime
+)
+
+/**
+ * A row of the treatments table as written by the Patient Health View event handlers.
+ */
+data class TreatmentRow(
+    val treatmentId: String,
+    val patientId: String,
+    val medicationName: String,
+    val dosage: String,
+    val frequency: String,
+    val duration: String
+)
+
+/**
+ * A row of the diagnoses table as written by the Patient Health View event handlers.
+ */
+data class DiagnosisRow(
+    val diagnosisId: String,
+    val patientId: String,
+    val condition: String,
+    val diagnosisDate: LocalDate,
+    val severity: String,
+    val notes: String?
+)
+
+/**
+ * Batched JDBC access to one table of the Patient Health View component, see [BatchedTable].
+ * Upserts and deletes are sent as one JDBC batch per flush, which the driver rewrites into multi-row statements.
+ * An upsert only sets the columns of this view, so rows shared with other views keep their other columns.
+ */
+abstract class PatientHealthTable<R : Any>(
+    private val jdbcTemplate: NamedParameterJdbcTemplate,
+    table: String,
+    private val idColumn: String,
+    private val columns: List<String>
+) : BatchedTable<String, R>(table) {
+
+    abstract fun columnsOf(row: R): List<Any?>
+
+    abstract fun ResultSet.toRow(): R
+
+    override fun load(ids: Collection<String>): List<R> =
+        jdbcTemplate.query(
+            "SELECT ${columns.joinToString(", ")} FROM $table WHERE $idColumn IN (:ids)",
+            mapOf("ids" to ids)
+        ) { rs, _ -> rs.toRow() }
+
+    override fun upsert(rows: Collection<R>) {
+        jdbcTemplate.jdbcTemplate.batchUpdate(
+            "INSERT INTO $table (${columns.joinToString(", ")}) VALUES (${columns.joinToString(", ") { "?" }}) " +
+                "ON CONFLICT ($idColumn) DO UPDATE SET " +
+                columns.filter { it != idColumn }.joinToString(", ") { "$it = EXCLUDED.$it" },
+            rows.map { columnsOf(it).toTypedArray() }
+        )
+    }
+
+    override fun delete(ids: Collection<String>) {
+        jdbcTemplate.jdbcTemplate.batchUpdate("DELETE FROM $table WHERE $idColumn = ?", ids.map { arrayOf<Any?>(it) })
+    }
+}
+
+@Repository
+class PatientHealthRowTable(jdbcTemplate: NamedParameterJdbcTemplate) : PatientHealthTable<PatientHealthRow>(
+    jdbcTemplate, "patient_health", "patient_id", listOf("patient_id", "patient_name")
+) {
+    override fun idOf(row: PatientHealthRow): String = row.patientId
+
+    override fun columnsOf(row: PatientHealthRow): List<Any?> = listOf(row.patientId, row.patientName)
+
+    override fun ResultSet.toRow(): PatientHealthRow = PatientHealthRow(getString("patient_id"), getString("patient_name"))
+}
+
+@Repository
+class AppointmentRowTable(jdbcTemplate: NamedParameterJdbcTemplate) : PatientHealthTable<AppointmentRow>(
+    jdbcTemplate, "appointments", "appointment_id",
+    listOf("appointment_id", "patient_id", "doctor_name", "appointment_date")
+) {
+    override fun idOf(row: AppointmentRow): String = row.appointmentId
+
+    override fun columnsOf(row: AppointmentRow): List<Any?> =
+        listOf(row.appointmentId, row.patientId, row.doctorName, Timestamp.valueOf(row.appointmentDate))
+
+    override fun ResultSet.toRow(): AppointmentRow = AppointmentRow(
+        appointmentId = getString("appointment_id"),
+        patientId = getString("patient_id"),
+        doctorName = getString("doctor_name"),
+        appointmentDate = getTimestamp("appointment_date").toLocalDateTime()
+    )
+}
+
+@Repository
+class TreatmentRowTable(jdbcTemplate: NamedParameterJdbcTemplate) : PatientHealthTable<TreatmentRow>(
+    jdbcTemplate, "treatments", "treatment_id",
+    listOf("treatment_id", "patient_id", "medication_name", "dosage", "frequency", "duration")
+) {
+    override fun idOf(row: TreatmentRow): String = row.treatmentId
+
+    override fun columnsOf(row: TreatmentRow): List<Any?> =
+        listOf(row.treatmentId, row.patientId, row.medicationName, row.dosage, row.frequency, row.duration)
+
+    override fun ResultSet.toRow(): TreatmentRow = TreatmentRow(
+        treatmentId = getString("treatment_id"),
+        patientId = getString("patient_id"),
+        medicationName = getString("medication_name"),
+        dosage = getString("dosage"),
+        frequency = getString("frequency"),
+        duration = getString("duration")
+    )
+}
+
+@Repository
+class DiagnosisRowTable(jdbcTemplate: NamedParameterJdbcTemplate) : PatientHealthTable<DiagnosisRow>(
+    jdbcTemplate, "diagnoses", "diagnosis_id",
+    listOf("diagnosis_id", "patient_id", "condition", "diagnosis_date", "severity", "notes")
+) {
+    override fun idOf(row: DiagnosisRow): String = row.diagnosisId
+
+    override fun columnsOf(row: DiagnosisRow): List<Any?> =
+        listOf(row.diagnosisId, row.patientId, row.condition, Date.valueOf(row.diagnosisDate), row.severity, row.notes)
+
+    override fun ResultSet.toRow(): DiagnosisRow = DiagnosisRow(
+        diagnosisId = getString("diagnosis_id"),
+        patientId = getString("patient_id"),
+        condition = getString("condition"),
+        diagnosisDate = getDate("diagnosis_date").toLocalDate(),
+        severity = getString("severity"),
+        notes = getString("notes")
+    )
+}
@@ -1,7 +1,12 @@
 package io.axoniq.build.caretrack.patient_health_view
 
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
 import io.axoniq.build.caretrack.patient_health_view.api.*
+import io.axoniq.build.caretrack.projection.BatchedTable
+import io.axoniq.build.caretrack.projection.ProjectionBatch
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -11,16 +16,30 @@ import org.springframework.stereotype.Component
  * Patient Health View component that handles patient health dashboard and information queries.
  * This component maintains a read model of patient health data by listening to health-related events
  * and provides query handlers for retrieving patient health information.
+ * Deleted patients are reported as unknown while their data is purged, see [AccountTombstones].
+ *
+ * Event handlers write through [ProjectionBatch]es of the [PatientHealthTable]s: a patient is read at most once
+ * per event processing batch, and the changed rows of each table are written with one batch upsert, and the
+ * removed ones with one batch delete, when the batch commits. The batch of the patients is always taken first,
+ * so new patients are written before the appointments, treatments and diagnoses that refer to them.
  */
 @Component
 class PatientHealthViewComponent(
     private val patientHealthRepository: PatientHealthRepository,
-    private val appointmentRepository: AppointmentRepository,
-    private val treatmentRepository: TreatmentRepository,
-    private val diagnosisRepository: DiagnosisRepository
+    private val patientTable: PatientHealthRowTable,
+    private val appointmentTable: AppointmentRowTable,
+    private val treatmentTable: TreatmentRowTable,
+    private val diagnosisTable: DiagnosisRowTable,
+    private val tombstones: AccountTombstones,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PatientHealthViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "patient-health-view"
     }
 
     /**
@@ -32,7 +51,8 @@ class PatientHealthViewComponent(
         logger.info("Handling DetailedHealthInformation query for patient: ${query.patientId}, health area: ${query.healthArea}")
 
         val patient = patientHealthRepository.findById(query.patientId).orElse(null)
-        
+            ?.takeUnless { tombstones.isPatientDeleted(query.patientId) }
+
         val detailedInfo = when (query.healthArea.lowercase()) {
             "treatments" -> {
                 val treatments = patient?.activeTreatments ?: emptyList()
@@ -64,6 +84,7 @@ class PatientHealthViewComponent(
         logger.info("Handling PersonalHealthDashboard query for patient: ${query.patientId}")
 
         val patient = patientHealthRepository.findById(query.patientId).orElse(null)
+            ?.takeUnless { tombstones.isPatientDeleted(query.patientId) }
 
         if (patient == null) {
             logger.warn("Patient not found: ${query.patientId}")
@@ -106,23 +127,19 @@ class PatientHealthViewComponent(
      * Creates a new appointment entry for the patient.
      */
     @EventHandler
-    fun on(event: AppointmentScheduled) {
+    fun on(event: AppointmentScheduled, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentScheduled event for patient: ${event.patientId}, appointment: ${event.appointmentId}")
-
-        var patient = patientHealthRepository.findById(event.patientId).orElse(null)
-        if (patient == null) {
-            patient = PatientHealthEntity(patientId = event.patientId, patientName = "Patient ${event.patientId}")
-            patient = patientHealthRepository.save(patient)
-        }
-
-        val appointment = AppointmentEntity(
-            appointmentId = event.appointmentId,
-            doctorName = "Dr. ${event.doctorId}",
-            appointmentDate = event.appointmentDate,
-            patient = patient
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+        ensurePatient(event.patientId, processingContext)
+        batch(appointmentTable, processingContext).save(
+            AppointmentRow(
+                appointmentId = event.appointmentId,
+                patientId = event.patientId,
+                doctorName = "Dr. ${event.doctorId}",
+                appointmentDate = event.appointmentDate
+            )
         )
-
-        appointmentRepository.save(appointment)
         logger.info("Appointment scheduled for patient: ${event.patientId}")
     }
 
@@ -131,10 +148,11 @@ class PatientHealthViewComponent(
      * Removes the appointment entry from the system.
      */
     @EventHandler
-    fun on(event: AppointmentCancelled) {
+    fun on(event: AppointmentCancelled, processingContext: ProcessingContext) {
         logger.info("Handling AppointmentCancelled event for appointment: ${event.appointmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        appointmentRepository.deleteById(event.appointmentId)
+        batch(appointmentTable, processingContext).delete(event.appointmentId)
         logger.info("Appointment cancelled: ${event.appointmentId}")
     }
 
@@ -143,25 +161,21 @@ class PatientHealthViewComponent(
      * Creates a new treatment entry for the patient.
      */
     @EventHandler
-    fun on(event: TreatmentPrescribed) {
+    fun on(event: TreatmentPrescribed, processingContext: ProcessingContext) {
         logger.info("Handling TreatmentPrescribed event for patient: ${event.patientId}, treatment: ${event.treatmentId}")
-
-        var patient = patientHealthRepository.findById(event.patientId).orElse(null)
-        if (patient == null) {
-            patient = PatientHealthEntity(patientId = event.patientId, patientName = "Patient ${event.patientId}")
-            patient = patientHealthRepository.save(patient)
-        }
-
-        val treatment = TreatmentEntity(
-            treatmentId = event.treatmentId,
-            medicationName = event.medicationName,
-            dosage = event.dosage,
-            frequency = event.frequency,
-            duration = event.duration,
-            patient = patient
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+        ensurePatient(event.patientId, processingContext)
+        batch(treatmentTable, processingContext).save(
+            TreatmentRow(
+                treatmentId = event.treatmentId,
+                patientId = event.patientId,
+                medicationName = event.medicationName,
+                dosage = event.dosage,
+                frequency = event.frequency,
+                duration = event.duration
+            )
         )
-
-        treatmentRepository.save(treatment)
         logger.info("Treatment prescribed for patient: ${event.patientId}")
     }
 
@@ -170,10 +184,11 @@ class PatientHealthViewComponent(
      * Removes the treatment entry from the active treatments.
      */
     @EventHandler
-    fun on(event: TreatmentDiscontinued) {
+    fun on(event: TreatmentDiscontinued, processingContext: ProcessingContext) {
         logger.info("Handling TreatmentDiscontinued event for patient: ${event.patientId}, treatment: ${event.treatmentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        treatmentRepository.deleteById(event.treatmentId)
+        batch(treatmentTable, processingContext).delete(event.treatmentId)
         logger.info("Treatment discontinued for patient: ${event.patientId}")
     }
 
@@ -182,25 +197,21 @@ class PatientHealthViewComponent(
      * Creates a new diagnosis entry for the patient.
      */
     @EventHandler
-    fun on(event: PatientDiagnosisRecorded) {
+    fun on(event: PatientDiagnosisRecorded, processingContext: ProcessingContext) {
         logger.info("Handling PatientDiagnosisRecorded event for patient: ${event.patientId}, diagnosis: ${event.diagnosisId}")
-
-        var patient = patientHealthRepository.findById(event.patientId).orElse(null)
-        if (patient == null) {
-            patient = PatientHealthEntity(patientId = event.patientId, patientName = "Patient ${event.patientId}")
-            patient = patientHealthRepository.save(patient)
-        }
-        
-        val diagnosis = DiagnosisEntity(
-            diagnosisId = event.diagnosisId,
-            condition = event.condition,
-            diagnosisDate = event.diagnosisDate,
-            severity = event.severity,
-            notes = event.notes,
-            patient = patient
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+        ensurePatient(event.patientId, processingContext)
+        batch(diagnosisTable, processingContext).save(
+            DiagnosisRow(
+                diagnosisId = event.diagnosisId,
+                patientId = event.patientId,
+                condition = event.condition,
+                diagnosisDate = event.diagnosisDate,
+                severity = event.severity,
+                notes = event.notes
+            )
         )
-        
-        diagnosisRepository.save(diagnosis)
         logger.info("Diagnosis recorded for patient: ${event.patientId}")
     }
 
@@ -209,11 +220,29 @@ class PatientHealthViewComponent(
      * Removes the diagnosis entry from the system.
      */
     @EventHandler
-    fun on(event: PatientDiagnosisRemoved) {
+    fun on(event: PatientDiagnosisRemoved, processingContext: ProcessingContext) {
         logger.info("Handling PatientDiagnosisRemoved event for patient: ${event.patientId}, diagnosis: ${event.diagnosisId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        diagnosisRepository.deleteById(event.diagnosisId)
+        batch(diagnosisTable, processingContext).delete(event.diagnosisId)
         logger.info("Diagnosis removed for patient: ${event.patientId}")
     }
-}
 
+    /**
+     * Adds the patient to the view unless it is there already.
+     */
+    private fun ensurePatient(patientId: String, processingContext: ProcessingContext) {
+        val patients = patientTable.batch(processingContext)
+        if (patients.find(patientId) == null) {
+            patients.save(PatientHealthRow(patientId = patientId, patientName = "Patient $patientId"))
+        }
+    }
+
+    /**
+     * The batch of [table], taken after the batch of the patients so it is flushed after it.
+     */
+    private fun <R : Any> batch(table: BatchedTable<String, R>, processingContext: ProcessingContext): ProjectionBatch<String, R> {
+        patientTable.batch(processingContext)
+        return table.batch(processingContext)
+    }
+}
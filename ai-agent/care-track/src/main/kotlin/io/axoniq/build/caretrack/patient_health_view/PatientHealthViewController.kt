@@ -1,9 +1,12 @@
 package io.axoniq.build.caretrack.patient_health_view
 
 import io.axoniq.build.caretrack.patient_health_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/patient-health")
 class PatientHealthViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PatientHealthViewController::class.java)
@@ -26,10 +30,15 @@ class PatientHealthViewController(
      * Returns comprehensive health information including active treatments, upcoming appointments, and recent diagnoses.
      */
     @GetMapping("/{patientId}/dashboard")
-    fun getPersonalHealthDashboard(@PathVariable patientId: String): CompletableFuture<PersonalHealthDashboardResult> {
+    fun getPersonalHealthDashboard(
+        @PathVariable patientId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PersonalHealthDashboardResult>> {
         logger.info("REST request for personal health dashboard for patient: $patientId")
-        val query = PersonalHealthDashboard(patientId)
-        return queryGateway.query(query, PersonalHealthDashboardResult::class.java, null)
+        return projectionVersions.conditionalGet(PatientHealthViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PersonalHealthDashboard(patientId)
+            queryGateway.query(query, PersonalHealthDashboardResult::class.java, null)
+        }
     }
 
     /**
@@ -39,10 +48,13 @@ class PatientHealthViewController(
     @GetMapping("/{patientId}/details")
     fun getDetailedHealthInformation(
         @PathVariable patientId: String,
-        @RequestParam healthArea: String
-    ): CompletableFuture<DetailedHealthInformationResult> {
+        @RequestParam healthArea: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DetailedHealthInformationResult>> {
         logger.info("REST request for detailed health information for patient: $patientId, health area: $healthArea")
-        val query = DetailedHealthInformation(patientId, healthArea)
-        return queryGateway.query(query, DetailedHealthInformationResult::class.java, null)
+        return projectionVersions.conditionalGet(PatientHealthViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DetailedHealthInformation(patientId, healthArea)
+            queryGateway.query(query, DetailedHealthInformationResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package io.axoniq.build.caretrack.patient_registration
 
+import io.axoniq.build.caretrack.command.ReactiveCommandDispatcher
 import io.axoniq.build.caretrack.patient_registration.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Patient Registration Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/patient-registration")
 class PatientRegistrationServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PatientRegistrationServiceController::class.java)
@@ -29,17 +31,18 @@ class PatientRegistrationServiceController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping("/register")
-    fun registerPatient(@RequestBody command: RegisterPatient): ResponseEntity<String> {
+    fun registerPatient(@RequestBody command: RegisterPatient): Mono<ResponseEntity<String>> {
         logger.info("Received patient registration request for email: ${command.email}")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            logger.info("Patient registration command dispatched successfully for email: ${command.email}")
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Patient registration accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RegisterPatient command for email: ${command.email}", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register patient")
-        }
+        return commandDispatcher.send(command)
+            .then(Mono.fromSupplier {
+                logger.info("Patient registration command dispatched successfully for email: ${command.email}")
+                ResponseEntity.status(HttpStatus.ACCEPTED).body("Patient registration accepted")
+            })
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RegisterPatient command for email: ${command.email}", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register patient"))
+            }
     }
 }
 
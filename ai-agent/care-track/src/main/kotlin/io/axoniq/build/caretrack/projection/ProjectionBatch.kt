@@ -0,0 +1,121 @@
+package io.axoniq.build.caretrack.projection
+
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.unitofwork.ProcessingContext
+
+/**
+ * The table of a projection, written through [ProjectionBatch]es: rows are read by ID in one query, written
+ * back with one JDBC batch upsert, and removed with one JDBC batch delete.
+ */
+abstract class BatchedTable<K : Any, R : Any>(val table: String) {
+
+    internal val batchKey: Context.ResourceKey<ProjectionBatch<K, R>> =
+        Context.ResourceKey.withLabel("projectionBatch:$table")
+
+    abstract fun idOf(row: R): K
+
+    /**
+     * Reads the rows with the given IDs. IDs without a row are left out.
+     */
+    abstract fun load(ids: Collection<K>): List<R>
+
+    /**
+     * Inserts or replaces the given rows.
+     */
+    abstract fun upsert(rows: Collection<R>)
+
+    /**
+     * Deletes the rows with the given IDs.
+     */
+    abstract fun delete(ids: Collection<K>)
+
+    /**
+     * Returns the batch of this table for the unit of work of [processingContext], creating it on first use.
+     * The batch is flushed when the unit of work prepares to commit, inside the transaction of the event
+     * processing batch, so rolled back events leave no rows behind.
+     */
+    fun batch(processingContext: ProcessingContext): ProjectionBatch<K, R> {
+        processingContext.getResource(batchKey)?.let { return it }
+        val batch = ProjectionBatch(this)
+        processingContext.putResource(batchKey, batch)
+        processingContext.runOnPrepareCommit { batch.flush() }
+        return batch
+    }
+}
+
+/**
+ * The rows of one [BatchedTable] touched while handling one batch of events.
+ *
+ * Rows are read once per batch and then served from an identity map, so successive events on the same row
+ * change the same copy. Changed rows are only written on [flush], as one upsert per batch no matter how many
+ * events changed them, and deleted rows are removed with one delete, so a row saved and deleted within the same
+ * batch is never written.
+ */
+class ProjectionBatch<K : Any, R : Any>(private val table: BatchedTable<K, R>) {
+
+    // A null value records that the row is known not to exist
+    private val rows = HashMap<K, R?>()
+    private val dirty = LinkedHashSet<K>()
+    private val deleted = LinkedHashSet<K>()
+
+    val pendingWrites: Int
+        get() = dirty.size + deleted.size
+
+    fun find(id: K): R? {
+        if (id !in rows) {
+            prefetch(listOf(id))
+        }
+        return rows[id]
+    }
+
+    /**
+     * Reads the rows with the given IDs that are not in the batch yet, in one query.
+     */
+    fun prefetch(ids: Collection<K>) {
+        val missing = ids.filterNot(rows::containsKey).distinct()
+        if (missing.isEmpty()) {
+            return
+        }
+        missing.forEach { rows[it] = null }
+        table.load(missing).forEach { row -> rows[table.idOf(row)] = row }
+    }
+
+    fun save(row: R) {
+        val id = table.idOf(row)
+        rows[id] = row
+        dirty += id
+        deleted -= id
+    }
+
+    /**
+     * Deletes the row with the given ID, whether it was read or not.
+     */
+    fun delete(id: K) {
+        rows[id] = null
+        dirty -= id
+        deleted += id
+    }
+
+    /**
+     * Applies [change] to the row with the given ID and saves the result. Returns null when the row does not exist.
+     */
+    fun update(id: K, change: (R) -> R): R? =
+        find(id)?.let(change)?.also(::save)
+
+    /**
+     * Writes the changed rows, deletes the deleted ones, and returns how many rows were written or deleted.
+     */
+    fun flush(): Int {
+        val pending = dirty.map { rows.getValue(it)!! }
+        if (pending.isNotEmpty()) {
+            table.upsert(pending)
+        }
+        if (deleted.isNotEmpty()) {
+            table.delete(deleted.toList())
+        }
+        val flushed = pending.size + deleted.size
+        dirty.clear()
+        deleted.clear()
+        return flushed
+    }
+}
@@ -0,0 +1,146 @@
+package io.axoniq.build.caretrack.account_purge
+
+import io.axoniq.build.caretrack.appointment_view.DayAgendaCache
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.ArgumentMatchers.startsWith
+import org.mockito.Mockito.inOrder
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.SimpleTransactionStatus
+import org.springframework.transaction.support.TransactionTemplate
+import java.sql.Timestamp
+import java.time.Duration
+import java.time.Instant
+
+/**
+ * Test class for purging the data of deleted accounts in checkpointed chunks
+ */
+class AccountPurgePipelineTest {
+
+    private val jobRepository = mock(AccountPurgeJobRepository::class.java)
+    private val tombstones = mock(AccountTombstones::class.java)
+    private val dayAgendaCache = mock(DayAgendaCache::class.java)
+    private val jdbcTemplate = mock(JdbcTemplate::class.java)
+    private val pipeline = AccountPurgePipeline(
+        jobRepository, tombstones, dayAgendaCache, jdbcTemplate,
+        TransactionTemplate(transactionManager()), 2, Duration.ZERO, Duration.ofSeconds(10)
+    )
+
+    private val patientTables = listOf(
+        "permitted_diagnoses", "permitted_treatments", "permitted_appointments", "family_health_permissions",
+        "family_member_view", "invitations", "notifications", "notification_counter", "appointment", "appointments",
+        "diagnoses", "treatments", "patient_health"
+    )
+
+    private fun transactionManager(): PlatformTransactionManager {
+        val transactionManager = mock(PlatformTransactionManager::class.java)
+        `when`(transactionManager.getTransaction(any())).thenReturn(SimpleTransactionStatus())
+        return transactionManager
+    }
+
+    private fun job(accountType: String, accountId: String, step: Int = 0) = AccountPurgeJob(
+        AccountPurgeJob.jobId(accountType, accountId), accountType, accountId, step, 0, Instant.now()
+    )
+
+    private fun givenPending(vararg jobs: AccountPurgeJob) {
+        `when`(jobRepository.findByCompletedAtIsNullOrderByRequestedAtAsc()).thenReturn(jobs.toList())
+    }
+
+    private fun deleteChunk(table: String, accountId: String) =
+        jdbcTemplate.update(startsWith("DELETE FROM $table WHERE"), eq(accountId), eq(2))
+
+    @Test
+    fun `given a step with more rows than a chunk, when purged, then it is deleted chunk by chunk, checkpointing each`() {
+        givenPending(job(AccountPurgeJob.DOCTOR, "doctor-1"))
+        `when`(deleteChunk("appointment", "doctor-1")).thenReturn(2, 2, 1)
+
+        pipeline.purgePending()
+
+        val order = inOrder(jdbcTemplate, tombstones)
+        order.verify(tombstones).refresh()
+        order.verify(jdbcTemplate).update(CHECKPOINT, 0, 2, "DOCTOR:doctor-1")
+        order.verify(jdbcTemplate).update(CHECKPOINT, 0, 2, "DOCTOR:doctor-1")
+        order.verify(jdbcTemplate).update(CHECKPOINT, 1, 1, "DOCTOR:doctor-1")
+        order.verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("DOCTOR:doctor-1"))
+        order.verify(tombstones).bumpViews()
+        verify(dayAgendaCache, never()).clear()
+    }
+
+    @Test
+    fun `given a chunk that fills up exactly, when purged, then the step is only left after an empty chunk`() {
+        givenPending(job(AccountPurgeJob.DOCTOR, "doctor-1"))
+        `when`(deleteChunk("appointment", "doctor-1")).thenReturn(2, 0)
+
+        pipeline.purgePending()
+
+        val order = inOrder(jdbcTemplate)
+        order.verify(jdbcTemplate).update(CHECKPOINT, 0, 2, "DOCTOR:doctor-1")
+        order.verify(jdbcTemplate).update(CHECKPOINT, 1, 0, "DOCTOR:doctor-1")
+        order.verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("DOCTOR:doctor-1"))
+    }
+
+    @Test
+    fun `given a patient job, when purged, then every step is taken in order and the day agendas are dropped`() {
+        givenPending(job(AccountPurgeJob.PATIENT, "patient-1"))
+
+        pipeline.purgePending()
+
+        val order = inOrder(jdbcTemplate, dayAgendaCache, tombstones)
+        patientTables.forEachIndexed { index, table ->
+            order.verify(jdbcTemplate).update(startsWith("DELETE FROM $table WHERE"), eq("patient-1"), eq(2))
+            order.verify(jdbcTemplate).update(CHECKPOINT, index + 1, 0, "PATIENT:patient-1")
+        }
+        order.verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("PATIENT:patient-1"))
+        order.verify(dayAgendaCache).clear()
+        order.verify(tombstones).bumpViews()
+    }
+
+    @Test
+    fun `given a job checkpointed at a later step, when purged, then it resumes at that step`() {
+        givenPending(job(AccountPurgeJob.PATIENT, "patient-1", step = patientTables.size - 1))
+        `when`(deleteChunk("patient_health", "patient-1")).thenReturn(1)
+
+        pipeline.purgePending()
+
+        patientTables.dropLast(1).forEach { table ->
+            verify(jdbcTemplate, never()).update(startsWith("DELETE FROM $table WHERE"), eq("patient-1"), anyInt())
+        }
+        verify(jdbcTemplate).update(CHECKPOINT, patientTables.size, 1, "PATIENT:patient-1")
+        verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("PATIENT:patient-1"))
+    }
+
+    @Test
+    fun `given a job checkpointed past its last step, when purged, then it is only completed`() {
+        givenPending(job(AccountPurgeJob.DOCTOR, "doctor-1", step = 1))
+
+        pipeline.purgePending()
+
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM"), eq("doctor-1"), anyInt())
+        verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("DOCTOR:doctor-1"))
+        verify(tombstones).bumpViews()
+    }
+
+    @Test
+    fun `given several pending jobs, when purged, then each is run to completion in turn`() {
+        givenPending(job(AccountPurgeJob.DOCTOR, "doctor-1"), job(AccountPurgeJob.DOCTOR, "doctor-2"))
+
+        pipeline.purgePending()
+
+        val order = inOrder(jdbcTemplate)
+        order.verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("DOCTOR:doctor-1"))
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM appointment WHERE"), eq("doctor-2"), eq(2))
+        order.verify(jdbcTemplate).update(eq(COMPLETE), any(Timestamp::class.java), eq("DOCTOR:doctor-2"))
+    }
+
+    private companion object {
+        const val CHECKPOINT = "UPDATE account_purge_job SET step = ?, deleted_rows = deleted_rows + ? WHERE job_id = ?"
+        const val COMPLETE = "UPDATE account_purge_job SET completed_at = ? WHERE job_id = ?"
+    }
+}
@@ -0,0 +1,90 @@
+package io.axoniq.build.caretrack.account_purge
+
+import io.axoniq.build.caretrack.appointment_view.AppointmentQueryComponent
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.anyString
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.time.Duration
+import java.time.Instant
+
+/**
+ * Test class for the in-process set of deleted accounts and its incremental refresh
+ */
+class AccountTombstonesTest {
+
+    private val jobRepository = mock(AccountPurgeJobRepository::class.java)
+    private val projectionVersions = mock(ProjectionVersions::class.java)
+    private val tombstones = AccountTombstones(jobRepository, projectionVersions)
+
+    @Test
+    fun `given no refresh yet, when refreshed, then every job is loaded and the views move on`() {
+        `when`(jobRepository.findAllJobIds()).thenReturn(listOf("PATIENT:patient-1", "DOCTOR:doctor-1"))
+
+        tombstones.refresh()
+
+        assertThat(tombstones.isPatientDeleted("patient-1")).isTrue()
+        assertThat(tombstones.isDoctorDeleted("doctor-1")).isTrue()
+        assertThat(tombstones.isPatientDeleted("doctor-1")).isFalse()
+        verify(projectionVersions).bump(AppointmentQueryComponent.VIEW_KEY)
+        verify(projectionVersions, times(7)).bump(anyString())
+    }
+
+    @Test
+    fun `given a previous refresh, when refreshed, then only the jobs requested since it, less an overlap, are loaded`() {
+        `when`(jobRepository.findAllJobIds()).thenReturn(listOf("PATIENT:patient-1"))
+        val before = Instant.now()
+        tombstones.refresh()
+        val after = Instant.now()
+        `when`(jobRepository.findJobIdsRequestedSince(anyInstant())).thenReturn(listOf("PATIENT:patient-2"))
+
+        tombstones.refresh()
+
+        val since = ArgumentCaptor.forClass(Instant::class.java)
+        verify(jobRepository).findJobIdsRequestedSince(since.capture() ?: Instant.EPOCH)
+        assertThat(since.value).isBetween(before.minus(Duration.ofMinutes(1)), after.minus(Duration.ofMinutes(1)))
+        verify(jobRepository, times(1)).findAllJobIds()
+        assertThat(tombstones.isPatientDeleted("patient-1")).isTrue()
+        assertThat(tombstones.isPatientDeleted("patient-2")).isTrue()
+        verify(projectionVersions, times(2)).bump(AppointmentQueryComponent.VIEW_KEY)
+    }
+
+    @Test
+    fun `given only known jobs since the previous refresh, when refreshed, then the views keep their versions`() {
+        `when`(jobRepository.findAllJobIds()).thenReturn(listOf("PATIENT:patient-1"))
+        tombstones.refresh()
+        `when`(jobRepository.findJobIdsRequestedSince(anyInstant())).thenReturn(listOf("PATIENT:patient-1"))
+
+        tombstones.refresh()
+
+        verify(projectionVersions, times(1)).bump(AppointmentQueryComponent.VIEW_KEY)
+    }
+
+    @Test
+    fun `given no jobs, when refreshed, then the views keep their versions`() {
+        `when`(jobRepository.findAllJobIds()).thenReturn(emptyList())
+
+        tombstones.refresh()
+
+        verify(projectionVersions, never()).bump(anyString())
+    }
+
+    @Test
+    fun `given a known account, when added again, then the views keep their versions`() {
+        tombstones.add(AccountPurgeJob.DOCTOR, "doctor-1")
+        tombstones.add(AccountPurgeJob.DOCTOR, "doctor-1")
+
+        assertThat(tombstones.isDoctorDeleted("doctor-1")).isTrue()
+        verify(projectionVersions, times(1)).bump(AppointmentQueryComponent.VIEW_KEY)
+    }
+
+    // Kotlin rejects the null the matchers return for a non-null parameter
+    private fun anyInstant(): Instant = any(Instant::class.java) ?: Instant.EPOCH
+}
@@ -0,0 +1,227 @@
+package io.axoniq.build.caretrack.appointment_view
+
+import io.axoniq.build.caretrack.appointment_view.api.TodayAppointmentInfo
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+/**
+ * Test class for the day agendas cached by the Appointment View component
+ */
+class DayAgendaCacheTest {
+
+    private class MovableClock(var instant: Instant) : Clock() {
+        override fun getZone(): ZoneId = ZoneOffset.UTC
+        override fun withZone(zone: ZoneId): Clock = this
+        override fun instant(): Instant = instant
+    }
+
+    private val today = LocalDate.of(2026, 3, 10)
+    private val tomorrow = today.plusDays(1)
+    private val clock = MovableClock(today.atTime(9, 0).toInstant(ZoneOffset.UTC))
+    private val appointmentRepository = mock(AppointmentRepository::class.java)
+    private val projectionVersions = mock(ProjectionVersions::class.java)
+
+    private fun cache(maxDoctors: Int = 100, maxAge: Duration = Duration.ofMinutes(1)) =
+        DayAgendaCache(appointmentRepository, projectionVersions, maxDoctors, maxAge, clock)
+
+    private fun appointment(id: String, doctorId: String, time: LocalDateTime) =
+        AppointmentEntity(id, "patient-1", doctorId, "Checkup", time, "SCHEDULED", patientName = "Jane Doe")
+
+    private fun info(id: String, time: LocalDateTime) = TodayAppointmentInfo("Checkup", "Jane Doe", time, id)
+
+    private fun givenAgenda(doctorId: String, day: LocalDate, vararg appointments: AppointmentEntity) {
+        `when`(appointmentRepository.findTodaysAppointmentsByDoctorId(doctorId, day.atStartOfDay(), day.atTime(LocalTime.MAX)))
+            .thenReturn(appointments.toList())
+    }
+
+    private fun verifyLoads(doctorId: String, day: LocalDate, count: Int) {
+        verify(appointmentRepository, times(count))
+            .findTodaysAppointmentsByDoctorId(doctorId, day.atStartOfDay(), day.atTime(LocalTime.MAX))
+    }
+
+    @Test
+    fun `given a loaded agenda of today, when asked for again, then it is served from memory`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today, appointment("appointment-1", "doctor-1", today.atTime(10, 0)))
+
+        cache.agenda("doctor-1", today)
+        val agenda = cache.agenda("doctor-1", today)
+
+        assertThat(agenda).containsExactly(info("appointment-1", today.atTime(10, 0)))
+        verifyLoads("doctor-1", today, 1)
+    }
+
+    @Test
+    fun `given an agenda of another day, when asked for again, then it is loaded every time`() {
+        val cache = cache()
+        givenAgenda("doctor-1", tomorrow)
+
+        cache.agenda("doctor-1", tomorrow)
+        cache.agenda("doctor-1", tomorrow)
+
+        verifyLoads("doctor-1", tomorrow, 2)
+    }
+
+    @Test
+    fun `given a cached agenda, when an appointment is scheduled, then it is added in time order`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today, appointment("appointment-1", "doctor-1", today.atTime(11, 0)))
+        cache.agenda("doctor-1", today)
+
+        cache.scheduled("doctor-1", info("appointment-2", today.atTime(10, 0)))
+
+        assertThat(cache.agenda("doctor-1", today)).containsExactly(
+            info("appointment-2", today.atTime(10, 0)),
+            info("appointment-1", today.atTime(11, 0))
+        )
+        verifyLoads("doctor-1", today, 1)
+    }
+
+    @Test
+    fun `given a cached agenda, when one of its appointments is scheduled again, then it replaces the old one`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today, appointment("appointment-1", "doctor-1", today.atTime(11, 0)))
+        cache.agenda("doctor-1", today)
+
+        cache.scheduled("doctor-1", info("appointment-1", today.atTime(14, 0)))
+
+        assertThat(cache.agenda("doctor-1", today)).containsExactly(info("appointment-1", today.atTime(14, 0)))
+    }
+
+    @Test
+    fun `given a cached agenda, when an appointment of another day is scheduled, then the agenda is unchanged`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today)
+        cache.agenda("doctor-1", today)
+
+        cache.scheduled("doctor-1", info("appointment-1", tomorrow.atTime(10, 0)))
+
+        assertThat(cache.agenda("doctor-1", today)).isEmpty()
+    }
+
+    @Test
+    fun `given an agenda older than the max age, when asked for, then it is loaded again`() {
+        val cache = cache(maxAge = Duration.ZERO)
+        givenAgenda("doctor-1", today)
+
+        cache.agenda("doctor-1", today)
+        cache.agenda("doctor-1", today)
+
+        verifyLoads("doctor-1", today, 2)
+    }
+
+    @Test
+    fun `given more doctors than the maximum, when cached, then the least recently used agenda is dropped`() {
+        val cache = cache(maxDoctors = 2)
+        listOf("doctor-1", "doctor-2", "doctor-3").forEach { givenAgenda(it, today) }
+        cache.agenda("doctor-1", today)
+        cache.agenda("doctor-2", today)
+        cache.agenda("doctor-1", today)
+
+        cache.agenda("doctor-3", today)
+        cache.agenda("doctor-1", today)
+        cache.agenda("doctor-2", today)
+
+        verifyLoads("doctor-1", today, 1)
+        verifyLoads("doctor-2", today, 2)
+        verifyLoads("doctor-3", today, 1)
+    }
+
+    @Test
+    fun `given an appointment scheduled while an agenda loads, when asked for again, then the load was not cached`() {
+        val cache = cache()
+        val raced = info("appointment-2", today.atTime(10, 0))
+        `when`(appointmentRepository.findTodaysAppointmentsByDoctorId("doctor-1", today.atStartOfDay(), today.atTime(LocalTime.MAX)))
+            .thenAnswer {
+                cache.scheduled("doctor-1", raced)
+                listOf(appointment("appointment-1", "doctor-1", today.atTime(11, 0)))
+            }
+            .thenReturn(listOf(
+                appointment("appointment-2", "doctor-1", today.atTime(10, 0)),
+                appointment("appointment-1", "doctor-1", today.atTime(11, 0))
+            ))
+
+        val first = cache.agenda("doctor-1", today)
+        val second = cache.agenda("doctor-1", today)
+
+        assertThat(first).containsExactly(info("appointment-1", today.atTime(11, 0)))
+        assertThat(second).containsExactly(raced, info("appointment-1", today.atTime(11, 0)))
+        verifyLoads("doctor-1", today, 2)
+    }
+
+    @Test
+    fun `given cached agendas, when cleared, then they are loaded again`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today)
+        cache.agenda("doctor-1", today)
+
+        cache.clear()
+        cache.agenda("doctor-1", today)
+
+        verifyLoads("doctor-1", today, 2)
+    }
+
+    @Test
+    fun `given the same day, when rolled over, then the agendas are kept and the view version stays`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today)
+        cache.agenda("doctor-1", today)
+
+        cache.rollover()
+        cache.agenda("doctor-1", today)
+
+        verifyLoads("doctor-1", today, 1)
+        verify(projectionVersions, never()).bump(AppointmentQueryComponent.VIEW_KEY)
+    }
+
+    @Test
+    fun `given past midnight, when rolled over, then the agendas of the new day are preloaded and the view version moves on`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today)
+        givenAgenda("doctor-2", today)
+        cache.agenda("doctor-1", today)
+        cache.agenda("doctor-2", today)
+        `when`(appointmentRepository.findAppointmentsByDoctorIdsBetween(
+            listOf("doctor-1", "doctor-2"), tomorrow.atStartOfDay(), tomorrow.atTime(LocalTime.MAX)
+        )).thenReturn(listOf(appointment("appointment-1", "doctor-1", tomorrow.atTime(9, 30))))
+        clock.instant = tomorrow.atTime(0, 0, 1).toInstant(ZoneOffset.UTC)
+
+        cache.rollover()
+
+        assertThat(cache.agenda("doctor-1", tomorrow)).containsExactly(info("appointment-1", tomorrow.atTime(9, 30)))
+        assertThat(cache.agenda("doctor-2", tomorrow)).isEmpty()
+        verifyLoads("doctor-1", tomorrow, 0)
+        verifyLoads("doctor-2", tomorrow, 0)
+        verify(projectionVersions).bump(AppointmentQueryComponent.VIEW_KEY)
+    }
+
+    @Test
+    fun `given past midnight, when rolled over, then the agendas of the previous day are no longer cached`() {
+        val cache = cache()
+        givenAgenda("doctor-1", today)
+        cache.agenda("doctor-1", today)
+        `when`(appointmentRepository.findAppointmentsByDoctorIdsBetween(
+            listOf("doctor-1"), tomorrow.atStartOfDay(), tomorrow.atTime(LocalTime.MAX)
+        )).thenReturn(emptyList())
+        clock.instant = tomorrow.atTime(0, 0, 1).toInstant(ZoneOffset.UTC)
+
+        cache.rollover()
+        cache.agenda("doctor-1", today)
+
+        verifyLoads("doctor-1", today, 2)
+    }
+}
@@ -0,0 +1,152 @@
+package io.axoniq.build.caretrack.metrics
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.axonframework.configuration.ComponentDecorator
+import org.axonframework.configuration.ComponentRegistry
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventhandling.GenericEventMessage
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.EventStoreTransaction
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.eventstreaming.EventCriteria
+import org.axonframework.eventstreaming.Tag
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.modelling.StateManager
+import org.axonframework.modelling.repository.ManagedEntity
+import org.axonframework.modelling.repository.Repository
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import org.springframework.beans.factory.support.DefaultListableBeanFactory
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the entity load timers and the number of events replayed per load
+ */
+class EntityLoadMetricsTest {
+
+    private class PatientState
+
+    private val meterRegistry = SimpleMeterRegistry()
+    private val entityLoadMetrics = EntityLoadMetrics(
+        DefaultListableBeanFactory().apply { registerSingleton("meterRegistry", meterRegistry) }
+            .getBeanProvider(MeterRegistry::class.java)
+    )
+    private val unitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+
+    private val stateManager = mock(StateManager::class.java)
+    private val eventStore = mock(EventStore::class.java)
+    private val transaction = mock(EventStoreTransaction::class.java)
+
+    @Suppress("UNCHECKED_CAST")
+    private val repository = mock(Repository.LifecycleManagement::class.java) as Repository.LifecycleManagement<String, PatientState>
+
+    @Suppress("UNCHECKED_CAST")
+    private val entity = mock(ManagedEntity::class.java) as ManagedEntity<String, PatientState>
+
+    private val decoratedStateManager: StateManager
+    private val decoratedEventStore: EventStore
+
+    init {
+        val registry = mock(ComponentRegistry::class.java)
+        entityLoadMetrics.enhance(registry)
+        decoratedStateManager = decorate(registry, StateManager::class.java, stateManager)
+        decoratedEventStore = decorate(registry, EventStore::class.java, eventStore)
+        doReturn(PatientState::class.java).`when`(repository).entityType()
+        `when`(eventStore.transaction(any())).thenReturn(transaction)
+    }
+
+    private fun <C> decorate(registry: ComponentRegistry, type: Class<C>, delegate: C): C {
+        @Suppress("UNCHECKED_CAST")
+        val decorator = ArgumentCaptor.forClass(ComponentDecorator::class.java) as ArgumentCaptor<ComponentDecorator<C, C>>
+        verify(registry).registerDecorator(eq(type), eq(-1), decorator.capture())
+        return decorator.value.decorate(mock(Configuration::class.java), type.simpleName, delegate)
+    }
+
+    private fun meteredRepository(): Repository.LifecycleManagement<String, PatientState> {
+        decoratedStateManager.register(repository)
+        @Suppress("UNCHECKED_CAST")
+        val registered = ArgumentCaptor.forClass(Repository::class.java) as ArgumentCaptor<Repository<String, PatientState>>
+        verify(stateManager).register(registered.capture())
+        return registered.value as Repository.LifecycleManagement<String, PatientState>
+    }
+
+    private fun sourcing(events: Int) {
+        val messages = (1..events).map { GenericEventMessage(MessageType(String::class.java), "event-$it") }
+        `when`(transaction.source(any())).thenAnswer { MessageStream.fromIterable<EventMessage>(messages) }
+    }
+
+    private fun sourceEvents(context: ProcessingContext) {
+        val condition = SourcingCondition.conditionFor(EventCriteria.havingTags(Tag.of("Patient", "patient-1")))
+        decoratedEventStore.transaction(context).source(condition).reduce(0) { count, _ -> count + 1 }.join()
+    }
+
+    private fun <R> inUnitOfWork(action: (ProcessingContext) -> R): R =
+        unitOfWorkFactory.create().executeWithResult { context -> CompletableFuture.completedFuture(action(context)) }.join()
+
+    private fun timerCount(outcome: String): Long =
+        meterRegistry.find("caretrack.entity.load").tags("entity", "PatientState", "outcome", outcome).timer()?.count() ?: 0
+
+    @Test
+    fun `given an entity sourced from events, when loaded, then the load is timed and its events are counted`() {
+        sourcing(3)
+        `when`(repository.load(anyString(), any())).thenAnswer { invocation ->
+            sourceEvents(invocation.getArgument(1))
+            CompletableFuture.completedFuture(entity)
+        }
+        val metered = meteredRepository()
+
+        inUnitOfWork { context -> metered.load("patient-1", context).join() }
+
+        val replayed = meterRegistry.find("caretrack.entity.load.events").tags("entity", "PatientState").summary()
+        assertThat(timerCount("success")).isEqualTo(1)
+        assertThat(replayed?.count()).isEqualTo(1)
+        assertThat(replayed?.totalAmount()).isEqualTo(3.0)
+    }
+
+    @Test
+    fun `given events sourced before a load in the same context, when loaded, then only its own events are counted`() {
+        sourcing(2)
+        `when`(repository.loadOrCreate(anyString(), any())).thenAnswer { invocation ->
+            sourceEvents(invocation.getArgument(1))
+            CompletableFuture.completedFuture(entity)
+        }
+        val metered = meteredRepository()
+
+        inUnitOfWork { context ->
+            sourceEvents(context)
+            metered.loadOrCreate("patient-1", context).join()
+        }
+
+        val replayed = meterRegistry.find("caretrack.entity.load.events").summary()
+        assertThat(replayed?.totalAmount()).isEqualTo(2.0)
+    }
+
+    @Test
+    fun `given a failing load, when loaded, then its failure is timed without counting events`() {
+        `when`(repository.load(anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(IllegalStateException("event store unavailable")))
+        val metered = meteredRepository()
+
+        assertThatThrownBy { inUnitOfWork { context -> metered.load("patient-1", context).join() } }
+            .hasRootCauseInstanceOf(IllegalStateException::class.java)
+
+        assertThat(timerCount("failure")).isEqualTo(1)
+        assertThat(timerCount("success")).isZero()
+        assertThat(meterRegistry.find("caretrack.entity.load.events").summary()).isNull()
+    }
+}
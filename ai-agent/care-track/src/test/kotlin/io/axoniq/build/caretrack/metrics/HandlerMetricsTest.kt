@@ -0,0 +1,181 @@
+package io.axoniq.build.caretrack.metrics
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.axonframework.commandhandling.annotations.CommandHandler
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.GenericMessage
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.annotations.MessageHandlingMember
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.queryhandling.annotations.QueryHandler
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.beans.factory.support.DefaultListableBeanFactory
+import java.lang.reflect.Method
+import java.util.Optional
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the handler timers, event batch sizes and query result sizes
+ */
+class HandlerMetricsTest {
+
+    private data class Patients(val ids: List<String>, val names: Map<String, String>, val page: Int)
+
+    private data class Patient(val id: String)
+
+    private class PatientHandlers {
+        @CommandHandler
+        fun handle(command: String) = Unit
+
+        @EventHandler
+        fun on(event: String) = Unit
+
+        @QueryHandler
+        fun find(query: String): Patients = Patients(emptyList(), emptyMap(), 0)
+
+        fun helper(value: String) = Unit
+    }
+
+    private val meterRegistry = SimpleMeterRegistry()
+    private val handlerMetrics = HandlerMetrics(
+        DefaultListableBeanFactory().apply { registerSingleton("meterRegistry", meterRegistry) }
+            .getBeanProvider(MeterRegistry::class.java)
+    )
+    private val unitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val message: Message = GenericMessage(MessageType(String::class.java), "patient-1")
+    private val target = PatientHandlers()
+
+    private fun member(methodName: String): MessageHandlingMember<PatientHandlers> {
+        @Suppress("UNCHECKED_CAST")
+        val member = mock(MessageHandlingMember::class.java) as MessageHandlingMember<PatientHandlers>
+        val method: Method = PatientHandlers::class.java.getDeclaredMethod(methodName, String::class.java)
+        `when`(member.unwrap(Method::class.java)).thenReturn(Optional.of(method))
+        doReturn(String::class.java).`when`(member).payloadType()
+        return member
+    }
+
+    private fun stream(payload: Any?): MessageStream<*> =
+        MessageStream.just(GenericMessage(MessageType(Patients::class.java), payload))
+
+    private fun <R> inUnitOfWork(action: (ProcessingContext) -> R): R =
+        unitOfWorkFactory.create().executeWithResult { context -> CompletableFuture.completedFuture(action(context)) }.join()
+
+    private fun drain(stream: MessageStream<*>): Int = stream.reduce(0) { count, _ -> count + 1 }.join()
+
+    private fun timerCount(name: String, outcome: String): Long =
+        meterRegistry.find(name).tags("handler", "PatientHandlers", "outcome", outcome).timer()?.count() ?: 0
+
+    @Test
+    fun `given a method without a handler annotation, when wrapped, then it is left unmetered`() {
+        val member = member("helper")
+
+        assertThat(handlerMetrics.wrapHandler(member)).isSameAs(member)
+    }
+
+    @Test
+    fun `given a command handler, when it succeeds, then its success timer is recorded with the command name`() {
+        val member = member("handle")
+        `when`(member.handle(any(), any(), any())).thenReturn(MessageStream.empty())
+        val metered = handlerMetrics.wrapHandler(member)
+
+        inUnitOfWork { context -> drain(metered.handle(message, context, target)) }
+
+        val timer = meterRegistry.find("caretrack.command.handling")
+            .tags("handler", "PatientHandlers", "command", "String", "outcome", "success").timer()
+        assertThat(timer?.count()).isEqualTo(1)
+        assertThat(timerCount("caretrack.command.handling", "failure")).isZero()
+    }
+
+    @Test
+    fun `given a command handler, when it returns a failed stream, then its failure timer is recorded`() {
+        val member = member("handle")
+        `when`(member.handle(any(), any(), any())).thenReturn(MessageStream.failed<Message>(IllegalStateException("rejected")))
+        val metered = handlerMetrics.wrapHandler(member)
+
+        inUnitOfWork { context -> metered.handle(message, context, target) }
+
+        assertThat(timerCount("caretrack.command.handling", "failure")).isEqualTo(1)
+        assertThat(timerCount("caretrack.command.handling", "success")).isZero()
+    }
+
+    @Test
+    fun `given a command handler, when it throws, then its failure timer is recorded and the exception rethrown`() {
+        val member = member("handle")
+        `when`(member.handle(any(), any(), any())).thenThrow(IllegalStateException("rejected"))
+        val metered = handlerMetrics.wrapHandler(member)
+
+        assertThatThrownBy { inUnitOfWork { context -> metered.handle(message, context, target) } }
+            .hasRootCauseInstanceOf(IllegalStateException::class.java)
+
+        assertThat(timerCount("caretrack.command.handling", "failure")).isEqualTo(1)
+    }
+
+    @Test
+    fun `given a synchronously invoked handler, when it throws, then its failure timer is recorded`() {
+        val member = member("handle")
+        `when`(member.handleSync(any(), any(), any())).thenThrow(IllegalStateException("rejected"))
+        val metered = handlerMetrics.wrapHandler(member)
+
+        assertThatThrownBy { metered.handleSync(message, mock(ProcessingContext::class.java), target) }
+            .isInstanceOf(IllegalStateException::class.java)
+
+        assertThat(timerCount("caretrack.command.handling", "failure")).isEqualTo(1)
+    }
+
+    @Test
+    fun `given event handlers of one class, when a batch commits, then the events they handled are recorded once`() {
+        val on = member("on")
+        `when`(on.handle(any(), any(), any())).thenReturn(MessageStream.empty())
+        val metered = handlerMetrics.wrapHandler(on)
+
+        inUnitOfWork { context -> repeat(3) { drain(metered.handle(message, context, target)) } }
+        inUnitOfWork { context -> drain(metered.handle(message, context, target)) }
+
+        val batchSize = meterRegistry.find("caretrack.event.batch.size").tags("handler", "PatientHandlers").summary()
+        assertThat(batchSize?.count()).isEqualTo(2)
+        assertThat(batchSize?.totalAmount()).isEqualTo(4.0)
+        assertThat(batchSize?.max()).isEqualTo(3.0)
+        assertThat(timerCount("caretrack.event.handling", "success")).isEqualTo(4)
+    }
+
+    @Test
+    fun `given a query result holding collections, when handled, then their summed size is recorded`() {
+        val member = member("find")
+        val result = Patients(listOf("patient-1", "patient-2"), mapOf("patient-1" to "Ann"), 0)
+        `when`(member.handle(any(), any(), any())).thenReturn(stream(result))
+        val metered = handlerMetrics.wrapHandler(member)
+
+        inUnitOfWork { context -> drain(metered.handle(message, context, target)) }
+
+        val results = meterRegistry.find("caretrack.query.results").tags("query", "String").summary()
+        assertThat(results?.count()).isEqualTo(1)
+        assertThat(results?.totalAmount()).isEqualTo(3.0)
+        assertThat(timerCount("caretrack.query.handling", "success")).isEqualTo(1)
+    }
+
+    @Test
+    fun `given query results of other shapes, when handled synchronously, then their cardinality is recorded`() {
+        val member = member("find")
+        `when`(member.handleSync(any(), any(), any()))
+            .thenReturn(listOf(Patient("patient-1"), Patient("patient-2")), Patient("patient-1"), arrayOf(1, 2, 3), null)
+        val metered = handlerMetrics.wrapHandler(member)
+
+        repeat(4) { metered.handleSync(message, mock(ProcessingContext::class.java), target) }
+
+        val results = meterRegistry.find("caretrack.query.results").summary()
+        assertThat(results?.count()).isEqualTo(4)
+        assertThat(results?.totalAmount()).isEqualTo(6.0)
+        assertThat(results?.max()).isEqualTo(3.0)
+    }
+}
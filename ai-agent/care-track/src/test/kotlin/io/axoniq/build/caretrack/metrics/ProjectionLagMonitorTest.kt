@@ -0,0 +1,119 @@
+package io.axoniq.build.caretrack.metrics
+
+import io.axoniq.build.caretrack.family_health_view.FamilyHealthViewComponent
+import io.axoniq.build.caretrack.medical_history_view.MedicalHistoryViewComponent
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.segmenting.EventTrackerStatus
+import org.axonframework.eventhandling.processors.streaming.token.GlobalSequenceTrackingToken
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.context.ApplicationContext
+import java.time.Duration
+import java.util.Optional
+import java.util.OptionalLong
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the projection lag sampling of the event processors
+ */
+class ProjectionLagMonitorTest {
+
+    private val familyHealthGroup = FamilyHealthViewComponent::class.java.packageName
+    private val medicalHistoryGroup = MedicalHistoryViewComponent::class.java.packageName
+
+    private val eventStore = mock(EventStore::class.java)
+    private val configuration = mock(AxonConfiguration::class.java)
+    private val module = mock(Configuration::class.java)
+    private val applicationContext = mock(ApplicationContext::class.java)
+    private val meterRegistry = SimpleMeterRegistry()
+    private val processors = mapOf(
+        familyHealthGroup to mock(PooledStreamingEventProcessor::class.java),
+        medicalHistoryGroup to mock(PooledStreamingEventProcessor::class.java)
+    )
+
+    private val monitor = ProjectionLagMonitor(configuration, applicationContext, meterRegistry, Duration.ofSeconds(5))
+
+    init {
+        `when`(configuration.getComponent(EventStore::class.java)).thenReturn(eventStore)
+        `when`(configuration.getOptionalComponent(PooledStreamingEventProcessor::class.java, familyHealthGroup))
+            .thenReturn(Optional.of(processors.getValue(familyHealthGroup)))
+        `when`(configuration.getOptionalComponent(PooledStreamingEventProcessor::class.java, medicalHistoryGroup))
+            .thenReturn(Optional.empty())
+        `when`(configuration.moduleConfigurations).thenReturn(listOf(module))
+        `when`(module.getOptionalComponent(PooledStreamingEventProcessor::class.java, medicalHistoryGroup))
+            .thenReturn(Optional.of(processors.getValue(medicalHistoryGroup)))
+        `when`(module.getOptionalComponent(PooledStreamingEventProcessor::class.java, familyHealthGroup))
+            .thenReturn(Optional.empty())
+        `when`(module.moduleConfigurations).thenReturn(emptyList())
+        `when`(applicationContext.beanDefinitionNames).thenReturn(arrayOf("familyHealth", "medicalHistory", "monitor"))
+        doReturn(FamilyHealthViewComponent::class.java).`when`(applicationContext).getType("familyHealth")
+        doReturn(MedicalHistoryViewComponent::class.java).`when`(applicationContext).getType("medicalHistory")
+        doReturn(ProjectionLagMonitor::class.java).`when`(applicationContext).getType("monitor")
+    }
+
+    private fun positions(head: Long, vararg processed: Pair<String, List<Long?>>) {
+        `when`(eventStore.latestToken(isNull())).thenReturn(CompletableFuture.completedFuture(GlobalSequenceTrackingToken(head)))
+        processed.forEach { (name, segments) ->
+            val statuses = segments.mapIndexed { segment, position ->
+                val status = mock(EventTrackerStatus::class.java)
+                `when`(status.currentPosition).thenReturn(position?.let { OptionalLong.of(it) } ?: OptionalLong.empty())
+                segment to status
+            }.toMap()
+            `when`(processors.getValue(name).processingStatus()).thenReturn(statuses)
+        }
+    }
+
+    private fun lag(processor: String): Double? =
+        meterRegistry.find("caretrack.projection.lag").tag("processor", processor).gauge()?.value()
+
+    @Test
+    fun `given processors behind the head, when sampled, then each reports the lag of its slowest segment`() {
+        positions(500, familyHealthGroup to listOf(495L, 480L), medicalHistoryGroup to listOf(120L))
+
+        monitor.sample()
+
+        assertThat(lag("family_health_view")).isEqualTo(20.0)
+        assertThat(lag("medical_history_view")).isEqualTo(380.0)
+    }
+
+    @Test
+    fun `given a segment that processed nothing yet, when sampled, then its processor trails by the whole store`() {
+        positions(500, familyHealthGroup to listOf(495L, null), medicalHistoryGroup to listOf(500L))
+
+        monitor.sample()
+
+        assertThat(lag("family_health_view")).isEqualTo(500.0)
+        assertThat(lag("medical_history_view")).isZero()
+    }
+
+    @Test
+    fun `given a processor without segments, when sampled, then no lag is reported for it`() {
+        positions(500, familyHealthGroup to emptyList(), medicalHistoryGroup to listOf(450L))
+
+        monitor.sample()
+
+        assertThat(lag("family_health_view")).isNull()
+        assertThat(lag("medical_history_view")).isEqualTo(50.0)
+        assertThat(meterRegistry.find("caretrack.projection.lag").tag("processor", "metrics").gauge()).isNull()
+    }
+
+    @Test
+    fun `given a processor catching up, when sampled again, then the same gauge reports the new lag`() {
+        positions(500, familyHealthGroup to listOf(400L), medicalHistoryGroup to listOf(500L))
+        monitor.sample()
+        positions(600, familyHealthGroup to listOf(590L), medicalHistoryGroup to listOf(600L))
+
+        monitor.sample()
+
+        assertThat(lag("family_health_view")).isEqualTo(10.0)
+        assertThat(meterRegistry.find("caretrack.projection.lag").gauges()).hasSize(2)
+    }
+}
@@ -0,0 +1,71 @@
+package io.axoniq.build.caretrack.notification_view
+
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.ArgumentMatchers.contains
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.time.YearMonth
+
+/**
+ * Test class for the retention period and the monthly maintenance of the notification partitions
+ */
+class NotificationPartitionManagerTest {
+
+    private val jdbcTemplate = mock(JdbcTemplate::class.java)
+    private val projectionVersions = mock(ProjectionVersions::class.java)
+    private val manager = NotificationPartitionManager(
+        jdbcTemplate, TransactionTemplate(mock(PlatformTransactionManager::class.java)), projectionVersions,
+        3, 24, Duration.ofHours(6)
+    )
+
+    @Test
+    fun `retains the current month and the 23 months before it`() {
+        val oldest = YearMonth.now().minusMonths(23)
+
+        assertThat(manager.retainedSince()).isEqualTo(oldest.atDay(1).atStartOfDay())
+    }
+
+    @Test
+    fun `creates the partitions of the current and next months`() {
+        `when`(jdbcTemplate.queryForList(anyString(), eq(String::class.java), eq("notifications"))).thenReturn(emptyList())
+
+        manager.maintain()
+
+        (0L..3L).map { YearMonth.now().plusMonths(it) }.forEach { month ->
+            verify(jdbcTemplate).execute(
+                "CREATE TABLE IF NOT EXISTS ${name(month)} PARTITION OF notifications " +
+                    "FOR VALUES FROM ('${month.atDay(1)}') TO ('${month.plusMonths(1).atDay(1)}')"
+            )
+        }
+        verify(projectionVersions, never()).bump(anyString())
+    }
+
+    @Test
+    fun `drops the partitions past the retention period after uncounting them, moving the view version on`() {
+        val expired = YearMonth.now().minusMonths(24)
+        val retained = YearMonth.now().minusMonths(23)
+        `when`(jdbcTemplate.queryForList(anyString(), eq(String::class.java), eq("notifications")))
+            .thenReturn(listOf(name(expired), name(retained), "notifications_archive"))
+
+        manager.maintain()
+
+        verify(jdbcTemplate).update(contains("FROM ${name(expired)} GROUP BY patient_id"))
+        verify(jdbcTemplate).execute("ALTER TABLE notifications DETACH PARTITION ${name(expired)}")
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS ${name(expired)}")
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS ${name(retained)}")
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS notifications_archive")
+        verify(projectionVersions).bump(NotificationViewComponent.VIEW_KEY)
+    }
+
+    private fun name(month: YearMonth) = "notifications_y%04dm%02d".format(month.year, month.monthValue)
+}
@@ -0,0 +1,118 @@
+package io.axoniq.build.caretrack.notification_view
+
+import io.axoniq.build.caretrack.account_purge.AccountTombstones
+import io.axoniq.build.caretrack.notification_view.api.*
+import io.axoniq.build.caretrack.query.ProjectionVersions
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.anyInt
+import org.mockito.Mockito.anyString
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.verifyNoInteractions
+import org.mockito.Mockito.`when`
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.Optional
+
+/**
+ * Test class for the notification read model: creation times, unacknowledged counters and retention
+ */
+class NotificationViewComponentTest {
+
+    private val retainedSince = LocalDate.now().withDayOfMonth(1).minusMonths(23).atStartOfDay()
+
+    private val notificationRepository = mock(NotificationRepository::class.java)
+    private val counterRepository = mock(NotificationCounterRepository::class.java)
+    private val partitionManager = mock(NotificationPartitionManager::class.java)
+    private val tombstones = mock(AccountTombstones::class.java)
+    private val processingContext = mock(ProcessingContext::class.java)
+
+    private val component = NotificationViewComponent(
+        notificationRepository, counterRepository, partitionManager, tombstones,
+        mock(ProjectionVersions::class.java), 100
+    )
+
+    init {
+        `when`(partitionManager.retainedSince()).thenReturn(retainedSince)
+    }
+
+    @Test
+    fun `dates a notification by the timestamp of its event`() {
+        val timestamp = Instant.now().minusSeconds(3600)
+
+        component.on(TreatmentNotificationCreated("patient-1", "notification-1", "Take your medication"), timestamp, processingContext)
+
+        val saved = savedNotification()
+        assertThat(saved.createdDate).isEqualTo(LocalDateTime.ofInstant(timestamp, ZoneId.systemDefault()))
+        assertThat(saved.notificationType).isEqualTo("treatment")
+    }
+
+    @Test
+    fun `counts a new urgent notification as unread and urgent`() {
+        component.on(UrgentHealthNotificationCreated("patient-1", "Call now", "notification-1", "urgent"), Instant.now(), processingContext)
+
+        verify(counterRepository).add("patient-1", 1, 1)
+    }
+
+    @Test
+    fun `counts a new normal notification as unread only`() {
+        component.on(TreatmentNotificationCreated("patient-1", "notification-1", "Take your medication"), Instant.now(), processingContext)
+
+        verify(counterRepository).add("patient-1", 1, 0)
+    }
+
+    @Test
+    fun `does not count a replayed notification again`() {
+        `when`(notificationRepository.existsById("notification-1")).thenReturn(true)
+
+        component.on(UrgentHealthNotificationCreated("patient-1", "Call now", "notification-1", "urgent"), Instant.now(), processingContext)
+
+        savedNotification()
+        verify(counterRepository, never()).add(anyString(), anyInt(), anyInt())
+    }
+
+    @Test
+    fun `uncounts an acknowledged urgent notification once`() {
+        val notification = NotificationEntity(
+            notificationId = "notification-1", patientId = "patient-1", message = "Call now", priority = "urgent"
+        )
+        `when`(notificationRepository.findById("notification-1"))
+            .thenReturn(Optional.of(notification), Optional.of(notification.copy(acknowledged = true)))
+
+        component.on(UrgentNotificationAcknowledged("family@example.com", "notification-1"), processingContext)
+        component.on(UrgentNotificationAcknowledged("family@example.com", "notification-1"), processingContext)
+
+        verify(counterRepository).add("patient-1", -1, -1)
+    }
+
+    @Test
+    fun `skips a notification created before the retention period`() {
+        val timestamp = retainedSince.minusDays(1).atZone(ZoneId.systemDefault()).toInstant()
+
+        component.on(UrgentHealthNotificationCreated("patient-1", "Call now", "notification-1", "urgent"), timestamp, processingContext)
+
+        verifyNoInteractions(notificationRepository, counterRepository)
+    }
+
+    @Test
+    fun `keeps a notification created at the start of the retention period`() {
+        val timestamp = retainedSince.atZone(ZoneId.systemDefault()).toInstant()
+
+        component.on(UrgentHealthNotificationCreated("patient-1", "Call now", "notification-1", "urgent"), timestamp, processingContext)
+
+        assertThat(savedNotification().createdDate).isEqualTo(retainedSince)
+        verify(counterRepository).add("patient-1", 1, 1)
+    }
+
+    private fun savedNotification(): NotificationEntity {
+        val captor = ArgumentCaptor.forClass(NotificationEntity::class.java)
+        verify(notificationRepository).save(captor.capture())
+        return captor.value
+    }
+}
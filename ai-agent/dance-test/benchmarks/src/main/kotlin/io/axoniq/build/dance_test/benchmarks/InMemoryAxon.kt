@@ -0,0 +1,34 @@
+package io.axoniq.build.dance_test.benchmarks
+
+import io.axoniq.build.dance_test.session_booking.SessionBookingCommandHandler
+import io.axoniq.build.dance_test.session_booking.SessionBookingState
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Session Booking fixture test: the annotated entity and command
+ * handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun sessionBooking(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(String::class.java, SessionBookingState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("SessionBooking")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { c -> SessionBookingCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
@@ -0,0 +1,71 @@
+package io.axoniq.build.dance_test.benchmarks
+
+import io.axoniq.build.dance_test.session_booking.api.CreateNegativeBalanceSession
+import io.axoniq.build.dance_test.session_booking.api.CreateSessionBooking
+import io.axoniq.build.dance_test.session_booking.api.NegativeBalanceSessionResult
+import io.axoniq.build.dance_test.session_booking.api.SessionBookingResult
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.configuration.AxonConfiguration
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the Session Booking command handlers, dispatched through the command gateway.
+ * Every invocation targets a new session, so the measurement covers dispatch, loading an empty entity,
+ * running the handler and appending the resulting event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class SessionBookingCommandBenchmark {
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var commandGateway: CommandGateway
+    private val sequence = AtomicLong()
+    private val sessionDate = LocalDateTime.now().plusDays(7)
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.sessionBooking()
+        commandGateway = configuration.getComponent(CommandGateway::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun createSessionBooking(): SessionBookingResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            CreateSessionBooking("instructor-${id % 10}", 60, sessionDate, "student-${id % 100}", "session-$id"),
+            SessionBookingResult::class.java
+        )
+    }
+
+    @Benchmark
+    fun createNegativeBalanceSession(): NegativeBalanceSessionResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            CreateNegativeBalanceSession("instructor-${id % 10}", 60, sessionDate, "student-${id % 100}", "session-$id"),
+            NegativeBalanceSessionResult::class.java
+        )
+    }
+}
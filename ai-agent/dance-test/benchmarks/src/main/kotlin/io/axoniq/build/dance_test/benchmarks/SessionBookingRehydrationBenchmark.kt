@@ -0,0 +1,85 @@
+package io.axoniq.build.dance_test.benchmarks
+
+import io.axoniq.build.dance_test.session_booking.SessionBookingState
+import io.axoniq.build.dance_test.session_booking.api.CancellationDecisionRecorded
+import io.axoniq.build.dance_test.session_booking.api.SessionScheduled
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventhandling.gateway.EventGateway
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.axonframework.modelling.StateManager
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cost of rehydrating a [SessionBookingState] from its event stream, as a function of the stream length.
+ * The stream is appended once per trial; each invocation sources it in a fresh unit of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class SessionBookingRehydrationBenchmark {
+
+    @Param("1", "10", "100", "1000")
+    var streamLength: Int = 0
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var unitOfWorkFactory: UnitOfWorkFactory
+    private lateinit var stateManager: StateManager
+    private val sessionId = "session-rehydration"
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.sessionBooking()
+        unitOfWorkFactory = configuration.getComponent(UnitOfWorkFactory::class.java)
+        stateManager = configuration.getComponent(StateManager::class.java)
+
+        val eventGateway = configuration.getComponent(EventGateway::class.java)
+        val events = ArrayList<Any>(streamLength)
+        events.add(SessionScheduled("instructor-1", 60, LocalDateTime.now().plusDays(7), "student-1", sessionId))
+        repeat(streamLength - 1) { i ->
+            events.add(CancellationDecisionRecorded(i % 2 == 0, "decision $i", sessionId))
+        }
+        // Appended in batches to keep the seeding unit of work small
+        events.chunked(100).forEach { batch ->
+            unitOfWorkFactory.create().executeWithResult { ctx -> eventGateway.publish(ctx, batch) }.join()
+        }
+
+        // A load that sources fewer events than were appended would time the wrong thing, so the trial fails instead
+        val eventStore = configuration.getComponent(EventStore::class.java)
+        val sourced = unitOfWorkFactory.create().executeWithResult { ctx ->
+            eventStore.transaction(ctx)
+                .source(SourcingCondition.conditionFor(SessionBookingState.resolveCriteria(sessionId)))
+                .reduce(0) { count, _ -> count + 1 }
+        }.join()
+        check(sourced == streamLength) { "The entity criteria source $sourced of the $streamLength appended events" }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun loadEntity(): SessionBookingState =
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            stateManager.loadEntity(SessionBookingState::class.java, sessionId, ctx)
+        }.join()
+}
@@ -0,0 +1,126 @@
+package io.axoniq.build.dance_test.benchmarks
+
+import io.axoniq.build.dance_test.query.ProjectionVersions
+import io.axoniq.build.dance_test.transaction_history_view.TransactionHistoryViewComponent
+import io.axoniq.build.dance_test.transaction_history_view.TransactionHistoryWatermark
+import io.axoniq.build.dance_test.transaction_history_view.api.PaymentRecorded
+import io.axoniq.build.dance_test.transaction_history_view.api.SessionScheduled
+import io.axoniq.build.dance_test.transaction_history_view.entity.TransactionEntity
+import io.axoniq.build.dance_test.transaction_history_view.repository.TransactionRepository
+import org.axonframework.eventhandling.GenericEventMessage
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [TransactionHistoryViewComponent] event handlers writing to PostgreSQL, started in a
+ * throwaway container, through the application's JPA repositories. Only the projection's own entities and
+ * repositories are loaded, not the whole application context. Each event is handled in its own unit of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class TransactionHistoryProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [TransactionEntity::class])
+    @EnableJpaRepositories(basePackageClasses = [TransactionRepository::class])
+    @Import(TransactionHistoryViewComponent::class, TransactionHistoryWatermark::class, ProjectionVersions::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<*>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: TransactionHistoryViewComponent
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+    private val sessionDate = LocalDateTime.now().plusDays(7)
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(TransactionHistoryViewComponent::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onSessionScheduled() {
+        val id = sequence.incrementAndGet()
+        val event = SessionScheduled("instructor-${id % 10}", 60, sessionDate, "student-${id % 100}", "session-$id")
+        handle(event) { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun onPaymentRecorded() {
+        val id = sequence.incrementAndGet()
+        val event = PaymentRecorded(50.0, "CARD", LocalDate.now(), "student-${id % 100}")
+        handle(event) { ctx -> component.on(event, ctx) }
+    }
+
+    /**
+     * Handles [event] in its own unit of work, with its message in the processing context as an event processor
+     * would put it there, since the handlers key the rows they write by the event identifier.
+     */
+    private fun handle(event: Any, handler: (ProcessingContext) -> Unit) {
+        val message = GenericEventMessage(MessageType(event.javaClass), event)
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            handler(Message.addToContext(ctx, message))
+            CompletableFuture.completedFuture(null)
+        }.join()
+    }
+}
@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.booking_access_management
 
 import io.axoniq.build.dance_test.booking_access_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * BookingAccessManagementController - REST controller for booking access management
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/booking-access")
 class BookingAccessManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BookingAccessManagementController::class.java)
@@ -25,45 +27,42 @@ class BookingAccessManagementController(
      * Blocks booking access for a student
      */
     @PostMapping("/block")
-    fun blockStudentBookingAccess(@RequestBody command: BlockStudentBookingAccess): ResponseEntity<String> {
+    fun blockStudentBookingAccess(@RequestBody command: BlockStudentBookingAccess): Mono<ResponseEntity<String>> {
         logger.info("Dispatching BlockStudentBookingAccess command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Booking access blocked successfully")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch BlockStudentBookingAccess command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to block booking access")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Booking access blocked successfully"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch BlockStudentBookingAccess command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to block booking access"))
+            }
     }
 
     /**
      * Updates booking access status for a student
      */
     @PutMapping("/update")
-    fun updateBookingAccess(@RequestBody command: UpdateBookingAccess): ResponseEntity<String> {
+    fun updateBookingAccess(@RequestBody command: UpdateBookingAccess): Mono<ResponseEntity<String>> {
         logger.info("Dispatching UpdateBookingAccess command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Booking access updated successfully")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch UpdateBookingAccess command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update booking access")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Booking access updated successfully"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch UpdateBookingAccess command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update booking access"))
+            }
     }
 
     /**
      * Handles balance preservation decision during blocking
      */
     @PostMapping("/handle-balances")
-    fun handleBlockingWithBalances(@RequestBody command: HandleBlockingWithBalances): ResponseEntity<String> {
+    fun handleBlockingWithBalances(@RequestBody command: HandleBlockingWithBalances): Mono<ResponseEntity<String>> {
         logger.info("Dispatching HandleBlockingWithBalances command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Balance handling decision recorded successfully")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch HandleBlockingWithBalances command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to handle balance decision")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Balance handling decision recorded successfully"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch HandleBlockingWithBalances command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to handle balance decision"))
+            }
     }
 }
 
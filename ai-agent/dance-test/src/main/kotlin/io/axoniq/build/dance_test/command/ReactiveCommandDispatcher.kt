@@ -0,0 +1,64 @@
+package io.axoniq.build.dance_test.command
+
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.http.HttpStatus
+import org.springframework.stereotype.Component
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.function.Supplier
+
+/**
+ * Non-blocking command dispatch for the WebFlux controllers.
+ *
+ * Commands are sent through the [CommandGateway] and their result future is exposed as a [Mono], so no event-loop
+ * thread waits for a command round-trip. Every command type, and so every endpoint, may have at most [maxInFlight]
+ * commands outstanding; further requests are rejected with 503 right away instead of queueing behind slow ones.
+ * A command that takes longer than [timeout] fails with 504. Timeouts and client disconnects cancel the result
+ * future and free the in-flight slot; a command already being handled still runs to completion.
+ */
+@Component
+class ReactiveCommandDispatcher(
+    private val commandGateway: CommandGateway,
+    @Value("\${dance-test.commands.timeout:PT10S}") private val timeout: Duration,
+    @Value("\${dance-test.commands.max-in-flight:64}") private val maxInFlight: Int
+) {
+
+    private val inFlight = ConcurrentHashMap<Class<*>, Semaphore>()
+
+    /**
+     * Sends [command] and completes once it has been handled, or fails with the handler's exception.
+     */
+    fun send(command: Any): Mono<Void> = Mono.defer {
+        val commandName = command.javaClass.simpleName
+        val permits = inFlight.computeIfAbsent(command.javaClass) { Semaphore(maxInFlight) }
+        if (!permits.tryAcquire()) {
+            return@defer Mono.error(
+                ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many $commandName commands in flight")
+            )
+        }
+        val release = releaseOnce(permits)
+        Mono.fromFuture(Supplier { commandGateway.send(command, null).resultMessage }, false)
+            .timeout(timeout)
+            .onErrorMap(TimeoutException::class.java) {
+                ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "$commandName was not handled within $timeout")
+            }
+            .doOnTerminate(release)
+            .doOnCancel(release)
+            .then()
+    }
+
+    /**
+     * Releases the slot before the outcome reaches the subscriber, so a request that follows a failed one
+     * never sees its slot still taken. Guarded because a terminated mono may still be cancelled.
+     */
+    private fun releaseOnce(permits: Semaphore): Runnable {
+        val released = AtomicBoolean()
+        return Runnable { if (released.compareAndSet(false, true)) permits.release() }
+    }
+}
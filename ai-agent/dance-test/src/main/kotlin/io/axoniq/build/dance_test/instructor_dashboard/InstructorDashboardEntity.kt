@@ -1,14 +1,15 @@
 package io.axoniq.build.dance_test.instructor_dashboard
 
 import jakarta.persistence.*
+import java.io.Serializable
 import java.time.LocalDate
 import java.time.LocalDateTime
 
 /**
  * JPA entity representing the instructor dashboard data for the Instructor Dashboard component.
  * This entity stores aggregated information about an instructor's dashboard including
- * recent bookings count, upcoming sessions count, students with negative balances count,
- * and total active students count.
+ * students with negative balances count and total active students count.
+ * Session and activity counts are kept in [DashboardCounterEntity] rows.
  */
 @Entity
 @Table(name = "instructor_dashboard")
@@ -16,12 +17,55 @@ data class InstructorDashboardEntity(
     @Id
     val instructorId: String,
     
-    val recentBookings: Int = 0,
-    val upcomingSessions: Int = 0,
     val studentsWithNegativeBalances: Int = 0,
     val totalActiveStudents: Int = 0
 )
 
+/**
+ * Kinds of dashboard counters maintained per instructor.
+ * SCHEDULED_SESSIONS is bucketed by session date, the others by the date the event occurred.
+ */
+enum class DashboardCounterKind {
+    SCHEDULED_SESSIONS,
+    BOOKINGS,
+    ACTIVITIES
+}
+
+/**
+ * Composite key of a dashboard counter row.
+ */
+data class DashboardCounterId(
+    val instructorId: String = "",
+    val counterKind: DashboardCounterKind = DashboardCounterKind.SCHEDULED_SESSIONS,
+    val bucketDate: LocalDate = LocalDate.MIN
+) : Serializable
+
+/**
+ * JPA entity representing one day bucket of an instructor dashboard counter.
+ * Events apply +1/-1 deltas to a single row; the processed events of the dashboard make sure redelivered
+ * or replayed events are not counted twice.
+ */
+@Entity
+@Table(name = "instructor_dashboard_counters")
+@IdClass(DashboardCounterId::class)
+data class DashboardCounterEntity(
+    @Id
+    @Column(name = "instructor_id")
+    val instructorId: String = "",
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "counter_kind")
+    val counterKind: DashboardCounterKind = DashboardCounterKind.SCHEDULED_SESSIONS,
+
+    @Id
+    @Column(name = "bucket_date")
+    val bucketDate: LocalDate = LocalDate.MIN,
+
+    @Column(name = "counter_value", nullable = false)
+    val counterValue: Long = 0
+)
+
 /**
  * JPA entity representing session information for dashboard queries.
  * Stores session details needed for dashboard views and analytics.
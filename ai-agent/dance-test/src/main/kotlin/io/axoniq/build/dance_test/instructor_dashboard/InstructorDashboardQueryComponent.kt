@@ -1,12 +1,19 @@
 package io.axoniq.build.dance_test.instructor_dashboard
 
 import io.axoniq.build.dance_test.instructor_dashboard.api.*
+import io.axoniq.build.dance_test.projection.ProcessedEvents
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.annotations.Timestamp
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
+import org.springframework.transaction.annotation.Transactional
+import java.time.Instant
+import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.ZoneId
 
 /**
  * Query component for the Instructor Dashboard.
@@ -19,11 +26,19 @@ class InstructorDashboardQueryComponent(
     private val sessionRepository: DashboardSessionRepository,
     private val paymentRepository: DashboardStudentPaymentRepository,
     private val activityRepository: DashboardStudentActivityRepository,
-    private val notificationRepository: DashboardBookingNotificationRepository
+    private val notificationRepository: DashboardBookingNotificationRepository,
+    private val counterRepository: DashboardCounterRepository,
+    private val processedEvents: ProcessedEvents
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(InstructorDashboardQueryComponent::class.java)
+        private const val RECENT_DAYS = 7L
+        private const val PROJECTION = "InstructorDashboard"
+    }
+
+    init {
+        processedEvents.register(PROJECTION, InstructorDashboardQueryComponent::class.java.packageName)
     }
 
     /**
@@ -110,11 +125,24 @@ class InstructorDashboardQueryComponent(
         // Get dashboard entity for active student count
         val dashboardEntity = instructorDashboardRepository.findById(query.instructorId)
             .orElse(InstructorDashboardEntity(query.instructorId))
-        
+
+        // Counters are summed from day buckets rather than counted from the sessions and activities
+        val today = currentTime.toLocalDate()
+        val recentFrom = today.minusDays(RECENT_DAYS)
+
         return InstructorDashboardData(
             upcomingSessions = sessionSummaries,
             recentActivity = activitySummaries,
-            totalActiveStudents = dashboardEntity.totalActiveStudents
+            totalActiveStudents = dashboardEntity.totalActiveStudents,
+            upcomingSessionCount = counterRepository.sumFrom(
+                query.instructorId, DashboardCounterKind.SCHEDULED_SESSIONS, today
+            ),
+            recentBookingCount = counterRepository.sumBetween(
+                query.instructorId, DashboardCounterKind.BOOKINGS, recentFrom, today
+            ),
+            recentActivityCount = counterRepository.sumBetween(
+                query.instructorId, DashboardCounterKind.ACTIVITIES, recentFrom, today
+            )
         )
     }
 
@@ -145,76 +173,86 @@ class InstructorDashboardQueryComponent(
      * Creates session entity and updates dashboard counters.
      */
     @EventHandler
-    fun on(event: SessionScheduled) {
-        logger.info("Processing SessionScheduled event for session: ${event.sessionId}")
-
-        // Create session entity
-        val sessionEntity = DashboardSessionEntity(
-            sessionId = event.sessionId,
-            instructorId = event.instructorId,
-            studentId = event.studentId,
-            sessionDate = event.sessionDate,
-            duration = event.duration,
-            studentName = "Student-${event.studentId}" // Mock student name
-        )
-        sessionRepository.save(sessionEntity)
+    @Transactional
+    fun on(event: SessionScheduled, @Timestamp timestamp: Instant, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Processing SessionScheduled event for session: ${event.sessionId}")
+
+            // Create session entity
+            val sessionEntity = DashboardSessionEntity(
+                sessionId = event.sessionId,
+                instructorId = event.instructorId,
+                studentId = event.studentId,
+                sessionDate = event.sessionDate,
+                duration = event.duration,
+                studentName = "Student-${event.studentId}" // Mock student name
+            )
+            sessionRepository.save(sessionEntity)
 
-        // Update dashboard counters
-        updateDashboardCounters(event.instructorId)
+            // Update dashboard counters
+            val eventDate = toLocalDate(timestamp)
+            applyCounterDelta(event.instructorId, DashboardCounterKind.SCHEDULED_SESSIONS, event.sessionDate.toLocalDate(), 1)
+            applyCounterDelta(event.instructorId, DashboardCounterKind.BOOKINGS, eventDate, 1)
+            applyCounterDelta(event.instructorId, DashboardCounterKind.ACTIVITIES, eventDate, 1)
         
-        // Create booking notification
-        val notification = DashboardBookingNotificationEntity(
-            instructorId = event.instructorId,
-            sessionId = event.sessionId,
-            sessionDate = event.sessionDate,
-            notificationDate = LocalDateTime.now(),
-            studentName = sessionEntity.studentName
-        )
-        notificationRepository.save(notification)
+            // Create booking notification
+            val notification = DashboardBookingNotificationEntity(
+                instructorId = event.instructorId,
+                sessionId = event.sessionId,
+                sessionDate = event.sessionDate,
+                notificationDate = LocalDateTime.now(),
+                studentName = sessionEntity.studentName
+            )
+            notificationRepository.save(notification)
 
-        // Create activity record
-        val activity = DashboardStudentActivityEntity(
-            instructorId = event.instructorId,
-            studentId = event.studentId,
-            activityType = "SESSION_SCHEDULED",
-            description = "Session scheduled for ${event.sessionDate}",
-            activityDate = LocalDateTime.now(),
-            studentName = sessionEntity.studentName
-        )
-        activityRepository.save(activity)
-    }
+            // Create activity record
+            val activity = DashboardStudentActivityEntity(
+                instructorId = event.instructorId,
+                studentId = event.studentId,
+                activityType = "SESSION_SCHEDULED",
+                description = "Session scheduled for ${event.sessionDate}",
+                activityDate = LocalDateTime.now(),
+                studentName = sessionEntity.studentName
+            )
+            activityRepository.save(activity)
+        }
 
     /**
      * Handles SessionCancelled event to update dashboard data when a session is cancelled.
      * Updates session entity and dashboard counters.
      */
     @EventHandler
-    fun on(event: SessionCancelled) {
-        logger.info("Processing SessionCancelled event for session: ${event.sessionId}")
+    @Transactional
+    fun on(event: SessionCancelled, @Timestamp timestamp: Instant, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Processing SessionCancelled event for session: ${event.sessionId}")
         
-        // Update session entity
-        sessionRepository.findById(event.sessionId).ifPresent { session ->
-            val updatedSession = session.copy(
-                cancelled = true,
-                cancellationTime = event.cancellationTime
-            )
-            sessionRepository.save(updatedSession)
+            // Update session entity
+            sessionRepository.findById(event.sessionId).ifPresent { session ->
+                val updatedSession = session.copy(
+                    cancelled = true,
+                    cancellationTime = event.cancellationTime
+                )
+                sessionRepository.save(updatedSession)
             
-            // Update dashboard counters
-            updateDashboardCounters(session.instructorId)
+                // Update dashboard counters
+                if (!session.cancelled) {
+                    applyCounterDelta(session.instructorId, DashboardCounterKind.SCHEDULED_SESSIONS, session.sessionDate.toLocalDate(), -1)
+                }
+                applyCounterDelta(session.instructorId, DashboardCounterKind.ACTIVITIES, toLocalDate(timestamp), 1)
             
-            // Create activity record
-            val activity = DashboardStudentActivityEntity(
-                instructorId = session.instructorId,
-                studentId = session.studentId,
-                activityType = "SESSION_CANCELLED",
-                description = "Session cancelled at ${event.cancellationTime}",
-                activityDate = event.cancellationTime,
-                studentName = session.studentName
-            )
-            activityRepository.save(activity)
+                // Create activity record
+                val activity = DashboardStudentActivityEntity(
+                    instructorId = session.instructorId,
+                    studentId = session.studentId,
+                    activityType = "SESSION_CANCELLED",
+                    description = "Session cancelled at ${event.cancellationTime}",
+                    activityDate = event.cancellationTime,
+                    studentName = session.studentName
+                )
+                activityRepository.save(activity)
+            }
         }
-    }
 
     /**
      * Handles PaymentRecorded event to update payment tracking for balance calculations.
@@ -250,50 +288,50 @@ class InstructorDashboardQueryComponent(
      * Records blocking activity for dashboard display.
      */
     @EventHandler
-    fun on(event: BookingAccessBlocked) {
-        logger.info("Processing BookingAccessBlocked event for student: ${event.studentId}")
+    @Transactional
+    fun on(event: BookingAccessBlocked, @Timestamp timestamp: Instant, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Processing BookingAccessBlocked event for student: ${event.studentId}")
         
-        val activity = DashboardStudentActivityEntity(
-            instructorId = event.instructorId,
-            studentId = event.studentId,
-            activityType = "BOOKING_ACCESS_BLOCKED",
-            description = "Booking access blocked: ${event.blockingReason}",
-            activityDate = LocalDateTime.now(),
-            studentName = "Student-${event.studentId}" // Mock student name
-        )
-        activityRepository.save(activity)
+            val activity = DashboardStudentActivityEntity(
+                instructorId = event.instructorId,
+                studentId = event.studentId,
+                activityType = "BOOKING_ACCESS_BLOCKED",
+                description = "Booking access blocked: ${event.blockingReason}",
+                activityDate = LocalDateTime.now(),
+                studentName = "Student-${event.studentId}" // Mock student name
+            )
+            activityRepository.save(activity)
 
-        // Update dashboard counters
-        updateDashboardCounters(event.instructorId)
-    }
+            // Update dashboard counters
+            applyCounterDelta(event.instructorId, DashboardCounterKind.ACTIVITIES, toLocalDate(timestamp), 1)
+        }
 
     /**
-     * Updates dashboard counters for an instructor based on current data.
-     * Recalculates upcoming sessions, recent bookings, and student counts.
+     * Applies a delta to one day bucket of an instructor's dashboard counter.
+     * Write cost is a single upsert regardless of how much history the instructor has.
      */
-    private fun updateDashboardCounters(instructorId: String) {
-        logger.debug("Updating dashboard counters for instructor: $instructorId")
-        
-        val currentTime = LocalDateTime.now()
-        val recentDate = currentTime.minusDays(7)
-
-        val upcomingSessionsCount = sessionRepository.findUpcomingSessionsByInstructor(instructorId, currentTime).size
-        val recentSessionsCount = sessionRepository.findRecentSessionsByInstructor(instructorId, recentDate).size
-        val recentActivitiesCount = activityRepository.findRecentActivitiesByInstructor(instructorId, recentDate).size
-
-        // Mock calculation for students with negative balances and active students
-        val studentsWithNegativeBalances = 2 // Mock value
-        val totalActiveStudents = 15 // Mock value
-
-        val dashboardEntity = InstructorDashboardEntity(
-            instructorId = instructorId,
-            recentBookings = recentSessionsCount,
-            upcomingSessions = upcomingSessionsCount,
-            studentsWithNegativeBalances = studentsWithNegativeBalances,
-            totalActiveStudents = totalActiveStudents
-        )
+    private fun applyCounterDelta(instructorId: String, counterKind: DashboardCounterKind, bucketDate: LocalDate, delta: Long) {
+        ensureDashboardEntity(instructorId)
+        counterRepository.applyDelta(instructorId, counterKind.name, bucketDate, delta)
+    }
 
-        instructorDashboardRepository.save(dashboardEntity)
+    /**
+     * Creates the dashboard entity for an instructor the first time one of their events is seen.
+     */
+    private fun ensureDashboardEntity(instructorId: String) {
+        if (!instructorDashboardRepository.existsById(instructorId)) {
+            // Mock values for students with negative balances and active students
+            instructorDashboardRepository.save(
+                InstructorDashboardEntity(
+                    instructorId = instructorId,
+                    studentsWithNegativeBalances = 2,
+                    totalActiveStudents = 15
+                )
+            )
+        }
     }
+
+    private fun toLocalDate(timestamp: Instant): LocalDate = timestamp.atZone(ZoneId.systemDefault()).toLocalDate()
 }
 
@@ -1,8 +1,10 @@
 package io.axoniq.build.dance_test.instructor_dashboard
 
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
 import org.springframework.data.repository.query.Param
+import java.time.LocalDate
 import java.time.LocalDateTime
 
 /**
@@ -11,6 +13,56 @@ import java.time.LocalDateTime
  */
 interface InstructorDashboardRepository : JpaRepository<InstructorDashboardEntity, String>
 
+/**
+ * Repository interface for DashboardCounterEntity operations.
+ * Applies counter deltas as single-row upserts and sums counters over ranges of day buckets.
+ */
+interface DashboardCounterRepository : JpaRepository<DashboardCounterEntity, DashboardCounterId> {
+
+    /**
+     * Adds [delta] to the counter bucket, creating it when absent. Callers apply each event only once.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO instructor_dashboard_counters AS c " +
+            "(instructor_id, counter_kind, bucket_date, counter_value) " +
+            "VALUES (:instructorId, :counterKind, :bucketDate, :delta) " +
+            "ON CONFLICT (instructor_id, counter_kind, bucket_date) DO UPDATE " +
+            "SET counter_value = c.counter_value + EXCLUDED.counter_value",
+        nativeQuery = true
+    )
+    fun applyDelta(
+        @Param("instructorId") instructorId: String,
+        @Param("counterKind") counterKind: String,
+        @Param("bucketDate") bucketDate: LocalDate,
+        @Param("delta") delta: Long
+    ): Int
+
+    /**
+     * Sums the counter buckets of one kind for an instructor between two dates, inclusive.
+     */
+    @Query("SELECT COALESCE(SUM(c.counterValue), 0) FROM DashboardCounterEntity c WHERE c.instructorId = :instructorId AND c.counterKind = :counterKind AND c.bucketDate BETWEEN :fromDate AND :toDate")
+    fun sumBetween(
+        @Param("instructorId") instructorId: String,
+        @Param("counterKind") counterKind: DashboardCounterKind,
+        @Param("fromDate") fromDate: LocalDate,
+        @Param("toDate") toDate: LocalDate
+    ): Long
+
+    /**
+     * Sums the counter buckets of one kind for an instructor from a date onwards.
+     * An instructor has at most one bucket per day, so summing the upcoming scheduled sessions reads one row per
+     * future day with sessions, at most the booking horizon in days, as a range of the primary key index. It never
+     * reads the buckets of past days, however long the instructor's history.
+     */
+    @Query("SELECT COALESCE(SUM(c.counterValue), 0) FROM DashboardCounterEntity c WHERE c.instructorId = :instructorId AND c.counterKind = :counterKind AND c.bucketDate >= :fromDate")
+    fun sumFrom(
+        @Param("instructorId") instructorId: String,
+        @Param("counterKind") counterKind: DashboardCounterKind,
+        @Param("fromDate") fromDate: LocalDate
+    ): Long
+}
+
 /**
  * Repository interface for DashboardSessionEntity operations.
  * Handles session-related queries for dashboard analytics.
@@ -22,12 +74,6 @@ interface DashboardSessionRepository : JpaRepository<DashboardSessionEntity, Str
      */
     @Query("SELECT s FROM DashboardSessionEntity s WHERE s.instructorId = :instructorId AND s.sessionDate > :currentTime AND s.cancelled = false ORDER BY s.sessionDate ASC")
     fun findUpcomingSessionsByInstructor(@Param("instructorId") instructorId: String, @Param("currentTime") currentTime: LocalDateTime): List<DashboardSessionEntity>
-
-    /**
-     * Finds recent sessions for activity tracking.
-     */
-    @Query("SELECT s FROM DashboardSessionEntity s WHERE s.instructorId = :instructorId AND s.sessionDate >= :sinceDate ORDER BY s.sessionDate DESC")
-    fun findRecentSessionsByInstructor(@Param("instructorId") instructorId: String, @Param("sinceDate") sinceDate: LocalDateTime): List<DashboardSessionEntity>
 }
 
 /**
@@ -1,10 +1,14 @@
 package io.axoniq.build.dance_test.instructor_dashboard.api
 
 import kotlin.Int
+import kotlin.Long
 import kotlin.collections.List
 
 public data class InstructorDashboardData(
   public val upcomingSessions: List<SessionSummary>,
   public val recentActivity: List<ActivitySummary>,
   public val totalActiveStudents: Int,
+  public val upcomingSessionCount: Long,
+  public val recentBookingCount: Long,
+  public val recentActivityCount: Long,
 )
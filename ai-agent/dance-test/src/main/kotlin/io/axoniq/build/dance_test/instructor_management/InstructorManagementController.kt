@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.instructor_management
 
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import io.axoniq.build.dance_test.instructor_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * InstructorManagementController - REST controller for Instructor Management operations.
@@ -16,7 +18,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/instructors")
 class InstructorManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(InstructorManagementController::class.java)
@@ -29,16 +31,15 @@ class InstructorManagementController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/profile")
-    fun createInstructorProfile(@RequestBody request: CreateInstructorProfile): ResponseEntity<String> {
+    fun createInstructorProfile(@RequestBody request: CreateInstructorProfile): Mono<ResponseEntity<String>> {
         logger.info("Received CreateInstructorProfile request for instructor: ${request.instructorId}")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Instructor profile creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateInstructorProfile command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create instructor profile")
-        }
+        return commandDispatcher.send(request)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Instructor profile creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateInstructorProfile command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create instructor profile"))
+            }
     }
 
     /**
@@ -48,16 +49,15 @@ class InstructorManagementController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/calendly/connect")
-    fun connectCalendlyIntegration(@RequestBody request: ConnectCalendlyIntegration): ResponseEntity<String> {
+    fun connectCalendlyIntegration(@RequestBody request: ConnectCalendlyIntegration): Mono<ResponseEntity<String>> {
         logger.info("Received ConnectCalendlyIntegration request for instructor: ${request.instructorId}")
         
-        return try {
-            commandGateway.sendAndWait(request)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Calendly integration connection accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ConnectCalendlyIntegration command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to connect Calendly integration")
-        }
+        return commandDispatcher.send(request)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Calendly integration connection accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ConnectCalendlyIntegration command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to connect Calendly integration"))
+            }
     }
 
     /**
@@ -67,16 +67,15 @@ class InstructorManagementController(
      * @return ResponseEntity indicating success or failure
      */
     @PostMapping("/calendly/settings")
-    fun updateCalendlySettings(@RequestBody request: UpdateCalendlySettings): ResponseEntity<String> {
+    fun updateCalendlySettings(@RequestBody request: UpdateCalendlySettings): Mono<ResponseEntity<String>> {
         logger.info("Received UpdateCalendlySettings request for instructor: ${request.instructorId}")
 
-        return try {
-            commandGateway.sendAndWait(request)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Calendly settings update accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch UpdateCalendlySettings command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update Calendly settings")
-        }
+        return commandDispatcher.send(request)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Calendly settings update accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch UpdateCalendlySettings command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update Calendly settings"))
+            }
     }
 }
 
@@ -1,7 +1,9 @@
 package io.axoniq.build.dance_test.instructor_profile_view
 
 import io.axoniq.build.dance_test.instructor_profile_view.api.*
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -15,10 +17,16 @@ import java.time.LocalDate
 @Component
 class InstructorProfileViewComponent(
     private val instructorProfileRepository: InstructorProfileRepository,
-    private val lessonPackageRepository: LessonPackageRepository
+    private val lessonPackageRepository: LessonPackageRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(InstructorProfileViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "instructor-profile-view"
     }
 
     /**
@@ -71,8 +79,9 @@ class InstructorProfileViewComponent(
      * Creates a new instructor profile entity when InstructorProfileCreated event is received.
      */
     @EventHandler
-    fun on(event: InstructorProfileCreated) {
+    fun on(event: InstructorProfileCreated, processingContext: ProcessingContext) {
         logger.info("Handling InstructorProfileCreated event for instructorId: ${event.instructorId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val profile = InstructorProfileEntity(
             instructorId = event.instructorId,
@@ -92,8 +101,9 @@ class InstructorProfileViewComponent(
      * Updates instructor profile when CalendlyIntegrationConnected event is received.
      */
     @EventHandler
-    fun on(event: CalendlyIntegrationConnected) {
+    fun on(event: CalendlyIntegrationConnected, processingContext: ProcessingContext) {
         logger.info("Handling CalendlyIntegrationConnected event for instructorId: ${event.instructorId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val profile = instructorProfileRepository.findById(event.instructorId).orElse(null)
         profile?.let {
@@ -111,8 +121,9 @@ class InstructorProfileViewComponent(
      * Updates instructor profile Calendly settings when CalendlySettingsUpdated event is received.
      */
     @EventHandler
-    fun on(event: CalendlySettingsUpdated) {
+    fun on(event: CalendlySettingsUpdated, processingContext: ProcessingContext) {
         logger.info("Handling CalendlySettingsUpdated event for instructorId: ${event.instructorId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val profile = instructorProfileRepository.findById(event.instructorId).orElse(null)
         profile?.let {
@@ -129,8 +140,9 @@ class InstructorProfileViewComponent(
      * Creates a new lesson package entity when CustomLessonPackageCreated event is received.
      */
     @EventHandler
-    fun on(event: CustomLessonPackageCreated) {
+    fun on(event: CustomLessonPackageCreated, processingContext: ProcessingContext) {
         logger.info("Handling CustomLessonPackageCreated event for packageId: ${event.packageId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val packageEntity = LessonPackageEntity(
             packageId = event.packageId,
@@ -152,8 +164,9 @@ class InstructorProfileViewComponent(
      * Marks a lesson package as inactive when LessonPackageDeleted event is received.
      */
     @EventHandler
-    fun on(event: LessonPackageDeleted) {
+    fun on(event: LessonPackageDeleted, processingContext: ProcessingContext) {
         logger.info("Handling LessonPackageDeleted event for packageId: ${event.packageId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val packageEntity = lessonPackageRepository.findById(event.packageId).orElse(null)
         packageEntity?.let {
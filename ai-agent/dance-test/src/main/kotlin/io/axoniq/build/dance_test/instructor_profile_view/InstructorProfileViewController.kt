@@ -1,9 +1,12 @@
 package io.axoniq.build.dance_test.instructor_profile_view
 
 import io.axoniq.build.dance_test.instructor_profile_view.api.*
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/instructor-profiles")
 class InstructorProfileViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(InstructorProfileViewController::class.java)
@@ -24,19 +28,29 @@ class InstructorProfileViewController(
      * REST endpoint to retrieve instructor profile settings by instructor ID.
      */
     @GetMapping("/{instructorId}")
-    fun getInstructorProfile(@PathVariable instructorId: String): CompletableFuture<InstructorProfileData> {
+    fun getInstructorProfile(
+        @PathVariable instructorId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<InstructorProfileData>> {
         logger.info("REST request for instructor profile with ID: $instructorId")
-        val query = InstructorProfileSettings(instructorId)
-        return queryGateway.query(query, InstructorProfileData::class.java, null)
+        return projectionVersions.conditionalGet(InstructorProfileViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = InstructorProfileSettings(instructorId)
+            queryGateway.query(query, InstructorProfileData::class.java, null)
+        }
     }
 
     /**
      * REST endpoint to retrieve package details by package ID.
      */
     @GetMapping("/packages/{packageId}")
-    fun getPackageDetails(@PathVariable packageId: String): CompletableFuture<PackageDetailsData> {
+    fun getPackageDetails(
+        @PathVariable packageId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PackageDetailsData>> {
         logger.info("REST request for package details with ID: $packageId")
-        val query = PackageDetails(packageId)
-        return queryGateway.query(query, PackageDetailsData::class.java, null)
+        return projectionVersions.conditionalGet(InstructorProfileViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PackageDetails(packageId)
+            queryGateway.query(query, PackageDetailsData::class.java, null)
+        }
     }
 }
\ No newline at end of file
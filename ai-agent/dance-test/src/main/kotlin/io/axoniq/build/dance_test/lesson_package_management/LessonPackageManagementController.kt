@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.lesson_package_management
 
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import io.axoniq.build.dance_test.lesson_package_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Lesson Package Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/lesson-packages")
 class LessonPackageManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(LessonPackageManagementController::class.java)
@@ -25,7 +27,7 @@ class LessonPackageManagementController(
      * Creates a custom lesson package for a student with a specific instructor.
      */
     @PostMapping("/create")
-    fun createCustomLessonPackage(@RequestBody request: CreateCustomLessonPackageRequest): ResponseEntity<String> {
+    fun createCustomLessonPackage(@RequestBody request: CreateCustomLessonPackageRequest): Mono<ResponseEntity<String>> {
         val command = CreateCustomLessonPackage(
             packageId = request.packageId,
             studentId = request.studentId,
@@ -36,13 +38,12 @@ class LessonPackageManagementController(
         )
         logger.info("Dispatching CreateCustomLessonPackage command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Custom lesson package creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateCustomLessonPackage command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create custom lesson package")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Custom lesson package creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateCustomLessonPackage command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create custom lesson package"))
+            }
     }
     
     /**
@@ -52,20 +53,19 @@ class LessonPackageManagementController(
     fun deleteLessonPackage(
         @PathVariable packageId: String,
         @RequestParam studentId: String
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = DeleteLessonPackage(
             packageId = packageId,
             studentId = studentId
         )
         logger.info("Dispatching DeleteLessonPackage command: $command")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Lesson package deletion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch DeleteLessonPackage command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete lesson package")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Lesson package deletion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch DeleteLessonPackage command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete lesson package"))
+            }
     }
 }
 
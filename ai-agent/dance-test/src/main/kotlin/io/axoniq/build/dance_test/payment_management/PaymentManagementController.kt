@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.payment_management
 
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import io.axoniq.build.dance_test.payment_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Payment Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/payment-management")
 class PaymentManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PaymentManagementController::class.java)
@@ -28,15 +30,14 @@ class PaymentManagementController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping("/record-payment")
-    fun recordStudentPayment(@RequestBody command: RecordStudentPayment): ResponseEntity<String> {
+    fun recordStudentPayment(@RequestBody command: RecordStudentPayment): Mono<ResponseEntity<String>> {
         logger.info("Dispatching RecordStudentPayment command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Payment recording accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RecordStudentPayment command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to record student payment")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Payment recording accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RecordStudentPayment command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to record student payment"))
+            }
     }
 
     /**
@@ -46,15 +47,14 @@ class PaymentManagementController(
      * @return ResponseEntity with success or error message
      */
     @PostMapping("/adjust-balance")
-    fun adjustStudentBalance(@RequestBody command: AdjustStudentBalance): ResponseEntity<String> {
+    fun adjustStudentBalance(@RequestBody command: AdjustStudentBalance): Mono<ResponseEntity<String>> {
         logger.info("Dispatching AdjustStudentBalance command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Balance adjustment accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch AdjustStudentBalance command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to adjust student balance")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Balance adjustment accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch AdjustStudentBalance command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to adjust student balance"))
+            }
     }
 }
 
@@ -0,0 +1,21 @@
+package io.axoniq.build.dance_test.projection
+
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.messaging.Context
+
+/**
+ * Global positions of the events handled by the projections.
+ */
+object EventPositions {
+
+    /**
+     * Resolves the global position of the event being handled, or null when it is not delivered
+     * by a streaming processor.
+     */
+    fun of(context: Context): Long? =
+        TrackingToken.fromContext(context)
+            .map { token -> token.position() }
+            .filter { position -> position.isPresent }
+            .map { position -> position.asLong }
+            .orElse(null)
+}
@@ -0,0 +1,40 @@
+package io.axoniq.build.dance_test.projection
+
+import jakarta.persistence.*
+import java.io.Serializable
+import java.time.Instant
+
+/**
+ * Composite key of a processed event: the projection that applied it and the identifier of the event message.
+ */
+data class ProcessedEventId(
+    val projection: String = "",
+    val eventId: String = ""
+) : Serializable
+
+/**
+ * JPA entity recording that a projection applied an event. Written in the transaction of the projection's
+ * own updates, so an event is recorded exactly when its effects are. The global position of the event lets the
+ * [ProcessedEventsPruner] drop the records every segment of the projection's processor has committed past.
+ */
+@Entity
+@Table(
+    name = "processed_events",
+    indexes = [Index(name = "idx_processed_events_position", columnList = "projection, event_position")]
+)
+@IdClass(ProcessedEventId::class)
+data class ProcessedEventEntity(
+    @Id
+    @Column(name = "projection")
+    val projection: String = "",
+
+    @Id
+    @Column(name = "event_id")
+    val eventId: String = "",
+
+    @Column(name = "event_position")
+    val eventPosition: Long? = null,
+
+    @Column(name = "processed_at", nullable = false)
+    val processedAt: Instant = Instant.now()
+)
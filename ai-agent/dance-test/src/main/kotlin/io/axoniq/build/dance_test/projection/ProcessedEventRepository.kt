@@ -0,0 +1,40 @@
+package io.axoniq.build.dance_test.projection
+
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+
+/**
+ * Repository for the events the projections applied.
+ */
+@Repository
+interface ProcessedEventRepository : JpaRepository<ProcessedEventEntity, ProcessedEventId> {
+
+    /**
+     * Records that [projection] applied the event, unless it was recorded before.
+     * Returns the number of rows written, so zero means the event was already applied.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO processed_events (projection, event_id, event_position, processed_at) " +
+            "VALUES (:projection, :eventId, :position, now()) ON CONFLICT (projection, event_id) DO NOTHING",
+        nativeQuery = true
+    )
+    fun markProcessed(
+        @Param("projection") projection: String,
+        @Param("eventId") eventId: String,
+        @Param("position") position: Long?
+    ): Int
+
+    /**
+     * Deletes the records of [projection] for the events before [position].
+     * Returns the number of records deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedEventEntity e WHERE e.projection = :projection AND e.eventPosition < :position")
+    fun deleteBefore(@Param("projection") projection: String, @Param("position") position: Long): Int
+}
@@ -0,0 +1,58 @@
+package io.axoniq.build.dance_test.projection
+
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Per-event idempotency for projections that apply deltas, such as counters and rollups.
+ *
+ * The identifier of every event a projection applies is recorded in the projection's transaction, and an event
+ * whose identifier was already recorded is skipped. Unlike a position watermark this holds however the events
+ * are spread over segments, and whatever the order in which the segments write shared rows.
+ *
+ * Each projection registers the event processor it runs in, so the [ProcessedEventsPruner] can drop the records
+ * of the events all of the processor's segments have committed past, which can no longer be redelivered.
+ */
+@Component
+class ProcessedEvents(
+    private val processedEventRepository: ProcessedEventRepository
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProcessedEvents::class.java)
+    }
+
+    private val processors = ConcurrentHashMap<String, String>()
+
+    /**
+     * Registers the event processor [projection] runs in, by its processing group name.
+     */
+    fun register(projection: String, processorName: String) {
+        processors[projection] = processorName
+    }
+
+    /**
+     * The registered projections, with the name of the event processor each runs in.
+     */
+    fun projections(): Map<String, String> = processors.toMap()
+
+    /**
+     * Runs [apply] unless [projection] already applied the event being handled. Must be called within the
+     * transaction of the projection's updates.
+     */
+    fun applyOnce(projection: String, processingContext: ProcessingContext, apply: () -> Unit) {
+        val eventId = checkNotNull(Message.fromContext(processingContext)?.identifier()) {
+            "$projection can only apply events handled with their event message"
+        }
+        val position = EventPositions.of(processingContext)
+        if (processedEventRepository.markProcessed(projection, eventId, position) == 0) {
+            logger.debug("Skipping event {} already applied by {}", eventId, projection)
+            return
+        }
+        apply()
+    }
+}
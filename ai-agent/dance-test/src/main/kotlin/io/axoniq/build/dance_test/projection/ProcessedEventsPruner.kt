@@ -0,0 +1,99 @@
+package io.axoniq.build.dance_test.projection
+
+import jakarta.annotation.PreDestroy
+import jakarta.persistence.EntityManager
+import org.axonframework.eventhandling.processors.streaming.token.store.TokenStore
+import org.axonframework.eventhandling.processors.streaming.token.store.jpa.JpaTokenStore
+import org.axonframework.eventhandling.processors.streaming.token.store.jpa.TokenEntry
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Drops the [ProcessedEvents] records that can no longer be needed, so `processed_events` does not grow with
+ * every event ever applied.
+ *
+ * An event is only redelivered to a segment whose committed token is not past it yet. Every
+ * `dance-test.processed-events.prune-interval` the tokens of all segments of each projection's processor are read
+ * from the token store, whichever instance owns them, and the records of the events before the lowest committed
+ * position are deleted. Nothing is pruned while a segment has no token yet. Resetting a processor replays events
+ * that were pruned, so its projection tables are to be cleared along with the reset.
+ */
+@Component
+class ProcessedEventsPruner(
+    private val processedEvents: ProcessedEvents,
+    private val processedEventRepository: ProcessedEventRepository,
+    private val tokenStore: TokenStore,
+    private val entityManager: EntityManager,
+    private val transactionTemplate: TransactionTemplate,
+    @Value("\${dance-test.processed-events.prune-interval:PT10M}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProcessedEventsPruner::class.java)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "processed-events-pruner").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::pruneSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Deletes the records of every projection below the lowest position its processor's segments committed.
+     */
+    fun prune() {
+        processedEvents.projections().forEach { (projection, processorName) ->
+            val position = committedPosition(processorName) ?: return@forEach
+            val deleted = processedEventRepository.deleteBefore(projection, position)
+            if (deleted > 0) {
+                logger.info("Pruned {} processed events of {} before position {}", deleted, projection, position)
+            }
+        }
+    }
+
+    /**
+     * The lowest position committed by the segments of the processor, or null when it has no segments yet, when
+     * one of them has no token yet, or when the tokens are not kept in the JPA token store.
+     */
+    fun committedPosition(processorName: String): Long? {
+        val serializer = (tokenStore as? JpaTokenStore)?.serializer() ?: return null
+        val entries = transactionTemplate.execute {
+            entityManager.createQuery(
+                "SELECT te FROM TokenEntry te WHERE te.processorName = :processorName", TokenEntry::class.java
+            ).setParameter("processorName", processorName).resultList
+        }.orEmpty()
+        if (entries.isEmpty()) {
+            return null
+        }
+        return entries.minOf { entry ->
+            val position = entry.getToken(serializer)?.position()
+            if (position == null || !position.isPresent) return null
+            position.asLong
+        }
+    }
+
+    private fun pruneSafely() {
+        try {
+            prune()
+        } catch (e: Exception) {
+            logger.error("Failed to prune processed events", e)
+        }
+    }
+}
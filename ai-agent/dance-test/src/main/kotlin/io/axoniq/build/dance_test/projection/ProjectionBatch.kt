@@ -0,0 +1,100 @@
+package io.axoniq.build.dance_test.projection
+
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.unitofwork.ProcessingContext
+
+/**
+ * The table of a projection, written through [ProjectionBatch]es: rows are read by ID in one query, and written
+ * back with one JDBC batch upsert.
+ */
+abstract class BatchedTable<K : Any, R : Any>(val table: String) {
+
+    internal val batchKey: Context.ResourceKey<ProjectionBatch<K, R>> =
+        Context.ResourceKey.withLabel("projectionBatch:$table")
+
+    abstract fun idOf(row: R): K
+
+    /**
+     * Reads the rows with the given IDs. IDs without a row are left out.
+     */
+    abstract fun load(ids: Collection<K>): List<R>
+
+    /**
+     * Inserts or replaces the given rows.
+     */
+    abstract fun upsert(rows: Collection<R>)
+
+    /**
+     * Returns the batch of this table for the unit of work of [processingContext], creating it on first use.
+     * The batch is flushed when the unit of work prepares to commit, inside the transaction of the event
+     * processing batch, so rolled back events leave no rows behind.
+     */
+    fun batch(processingContext: ProcessingContext): ProjectionBatch<K, R> {
+        processingContext.getResource(batchKey)?.let { return it }
+        val batch = ProjectionBatch(this)
+        processingContext.putResource(batchKey, batch)
+        processingContext.runOnPrepareCommit { batch.flush() }
+        return batch
+    }
+}
+
+/**
+ * The rows of one [BatchedTable] touched while handling one batch of events.
+ *
+ * Rows are read once per batch and then served from an identity map, so successive events on the same row
+ * change the same copy. Changed rows are only written on [flush], as one upsert per batch no matter how many
+ * events changed them.
+ */
+class ProjectionBatch<K : Any, R : Any>(private val table: BatchedTable<K, R>) {
+
+    // A null value records that the row is known not to exist
+    private val rows = HashMap<K, R?>()
+    private val dirty = LinkedHashSet<K>()
+
+    val pendingWrites: Int
+        get() = dirty.size
+
+    fun find(id: K): R? {
+        if (id !in rows) {
+            prefetch(listOf(id))
+        }
+        return rows[id]
+    }
+
+    /**
+     * Reads the rows with the given IDs that are not in the batch yet, in one query.
+     */
+    fun prefetch(ids: Collection<K>) {
+        val missing = ids.filterNot(rows::containsKey).distinct()
+        if (missing.isEmpty()) {
+            return
+        }
+        missing.forEach { rows[it] = null }
+        table.load(missing).forEach { row -> rows[table.idOf(row)] = row }
+    }
+
+    fun save(row: R) {
+        val id = table.idOf(row)
+        rows[id] = row
+        dirty += id
+    }
+
+    /**
+     * Applies [change] to the row with the given ID and saves the result. Returns null when the row does not exist.
+     */
+    fun update(id: K, change: (R) -> R): R? =
+        find(id)?.let(change)?.also(::save)
+
+    /**
+     * Writes the changed rows and returns how many were written.
+     */
+    fun flush(): Int {
+        if (dirty.isEmpty()) {
+            return 0
+        }
+        val pending = dirty.map { rows.getValue(it)!! }
+        table.upsert(pending)
+        dirty.clear()
+        return pending.size
+    }
+}
@@ -1,7 +1,10 @@
 package io.axoniq.build.dance_test.reporting_analytics_view
 
 import jakarta.persistence.*
+import java.io.Serializable
 import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
 
 /**
  * JPA Entity representing the Reporting Analytics View for instructors.
@@ -33,3 +36,205 @@ data class ReportingAnalyticsEntity(
     val totalActiveStudents: Int = 0
 )
 
+/**
+ * Granularity of a reporting rollup bucket. DAY buckets are written by the event handlers;
+ * MONTH buckets are compacted from them once the month has closed.
+ */
+enum class RollupGranularity(val postgresUnit: String) {
+    DAY("day"),
+    MONTH("month")
+}
+
+/**
+ * Composite key of a reporting rollup bucket.
+ */
+data class ReportingRollupId(
+    val instructorId: String = "",
+    val granularity: RollupGranularity = RollupGranularity.DAY,
+    val bucketStart: LocalDate = LocalDate.MIN
+) : Serializable
+
+/**
+ * JPA entity holding the pre-aggregated activity of one instructor in one time bucket.
+ * Completed sessions are also counted in a histogram of their actual duration.
+ * The processed events of the reporting view make sure redelivered or replayed events are not counted twice.
+ * A DAY bucket's [revision] counts the deltas applied to it and its [compactedRevision] is the revision last summed
+ * into its MONTH bucket, so the compactor rebuilds the closed periods where the two differ. Both stay 0 on the
+ * MONTH buckets.
+ */
+@Entity
+@Table(name = "reporting_rollups")
+@IdClass(ReportingRollupId::class)
+data class ReportingRollupEntity(
+    @Id
+    @Column(name = "instructor_id")
+    val instructorId: String = "",
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity")
+    val granularity: RollupGranularity = RollupGranularity.DAY,
+
+    @Id
+    @Column(name = "bucket_start")
+    val bucketStart: LocalDate = LocalDate.MIN,
+
+    @Column(name = "sessions_scheduled", nullable = false)
+    val sessionsScheduled: Long = 0,
+
+    @Column(name = "scheduled_minutes", nullable = false)
+    val scheduledMinutes: Long = 0,
+
+    @Column(name = "sessions_completed", nullable = false)
+    val sessionsCompleted: Long = 0,
+
+    @Column(name = "completed_minutes", nullable = false)
+    val completedMinutes: Long = 0,
+
+    @Column(name = "completed_under_45", nullable = false)
+    val completedUnder45: Long = 0,
+
+    @Column(name = "completed_45_to_60", nullable = false)
+    val completed45To60: Long = 0,
+
+    @Column(name = "completed_60_to_90", nullable = false)
+    val completed60To90: Long = 0,
+
+    @Column(name = "completed_90_and_over", nullable = false)
+    val completed90AndOver: Long = 0,
+
+    @Column(name = "new_students", nullable = false)
+    val newStudents: Long = 0,
+
+    @Column(name = "payment_count", nullable = false)
+    val paymentCount: Long = 0,
+
+    @Column(name = "payment_revenue", nullable = false, precision = 19, scale = 2)
+    val paymentRevenue: BigDecimal = BigDecimal.ZERO,
+
+    @Column(name = "transaction_count", nullable = false)
+    val transactionCount: Long = 0,
+
+    @Column(name = "transaction_amount", nullable = false, precision = 19, scale = 2)
+    val transactionAmount: BigDecimal = BigDecimal.ZERO,
+
+    @Column(name = "revision", nullable = false)
+    val revision: Long = 0,
+
+    @Column(name = "compacted_revision", nullable = false)
+    val compactedRevision: Long = 0
+)
+
+/**
+ * Composite key of a revenue-by-payment-method bucket.
+ */
+data class ReportingRevenueByMethodId(
+    val instructorId: String = "",
+    val granularity: RollupGranularity = RollupGranularity.DAY,
+    val bucketStart: LocalDate = LocalDate.MIN,
+    val paymentMethod: String = ""
+) : Serializable
+
+/**
+ * JPA entity holding the payments of one instructor's students per payment method in one time bucket.
+ * Maintained like [ReportingRollupEntity], including its revisions, but only compacted into MONTH buckets.
+ */
+@Entity
+@Table(name = "reporting_revenue_by_method")
+@IdClass(ReportingRevenueByMethodId::class)
+data class ReportingRevenueByMethodEntity(
+    @Id
+    @Column(name = "instructor_id")
+    val instructorId: String = "",
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity")
+    val granularity: RollupGranularity = RollupGranularity.DAY,
+
+    @Id
+    @Column(name = "bucket_start")
+    val bucketStart: LocalDate = LocalDate.MIN,
+
+    @Id
+    @Column(name = "payment_method")
+    val paymentMethod: String = "",
+
+    @Column(name = "payment_count", nullable = false)
+    val paymentCount: Long = 0,
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    val amount: BigDecimal = BigDecimal.ZERO,
+
+    @Column(name = "revision", nullable = false)
+    val revision: Long = 0,
+
+    @Column(name = "compacted_revision", nullable = false)
+    val compactedRevision: Long = 0
+)
+
+/**
+ * Composite key of a session-hour bucket.
+ */
+data class ReportingSessionHourId(
+    val instructorId: String = "",
+    val bucketDate: LocalDate = LocalDate.MIN,
+    val hourOfDay: Int = 0
+) : Serializable
+
+/**
+ * JPA entity counting the sessions an instructor has scheduled in one hour of one day,
+ * used for the weekly session patterns and peak days.
+ */
+@Entity
+@Table(name = "reporting_session_hours")
+@IdClass(ReportingSessionHourId::class)
+data class ReportingSessionHourEntity(
+    @Id
+    @Column(name = "instructor_id")
+    val instructorId: String = "",
+
+    @Id
+    @Column(name = "bucket_date")
+    val bucketDate: LocalDate = LocalDate.MIN,
+
+    @Id
+    @Column(name = "hour_of_day")
+    val hourOfDay: Int = 0,
+
+    @Column(name = "sessions", nullable = false)
+    val sessions: Long = 0
+)
+
+/**
+ * JPA entity mapping a student to their instructor, so payments and transactions,
+ * which only carry the student, can be attributed to an instructor's buckets.
+ */
+@Entity
+@Table(name = "reporting_students")
+data class ReportingStudentEntity(
+    @Id
+    @Column(name = "student_id")
+    val studentId: String = "",
+
+    @Column(name = "instructor_id", nullable = false)
+    val instructorId: String = ""
+)
+
+/**
+ * JPA entity mapping a session to its instructor, so completions,
+ * which only carry the session, can be attributed to an instructor's buckets.
+ */
+@Entity
+@Table(name = "reporting_sessions")
+data class ReportingSessionEntity(
+    @Id
+    @Column(name = "session_id")
+    val sessionId: String = "",
+
+    @Column(name = "instructor_id", nullable = false)
+    val instructorId: String = "",
+
+    @Column(name = "session_date", nullable = false)
+    val sessionDate: LocalDateTime = LocalDateTime.MIN
+)
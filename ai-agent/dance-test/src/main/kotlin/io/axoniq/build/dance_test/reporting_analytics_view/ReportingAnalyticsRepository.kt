@@ -1,7 +1,13 @@
 package io.axoniq.build.dance_test.reporting_analytics_view
 
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+import java.math.BigDecimal
+import java.time.LocalDate
 import java.util.Optional
 
 /**
@@ -19,3 +25,266 @@ interface ReportingAnalyticsRepository : JpaRepository<ReportingAnalyticsEntity,
     override fun findById(instructorId: String): Optional<ReportingAnalyticsEntity>
 }
 
+/**
+ * Repository for ReportingRollupEntity buckets.
+ * Events add deltas to DAY buckets with single-row upserts; the compactor rebuilds MONTH buckets
+ * from them, and queries read a bounded range of buckets.
+ */
+@Repository
+interface ReportingRollupRepository : JpaRepository<ReportingRollupEntity, ReportingRollupId> {
+
+    /**
+     * Adds the given deltas to a DAY bucket, creating it when absent, and raises its revision so the compactor
+     * rebuilds its period. Callers apply each event only once.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO reporting_rollups AS r " +
+            "(instructor_id, granularity, bucket_start, sessions_scheduled, scheduled_minutes, sessions_completed, " +
+            "completed_minutes, completed_under_45, completed_45_to_60, completed_60_to_90, completed_90_and_over, " +
+            "new_students, payment_count, payment_revenue, transaction_count, transaction_amount, revision, " +
+            "compacted_revision) " +
+            "VALUES (:instructorId, 'DAY', :bucketStart, :sessionsScheduled, :scheduledMinutes, :sessionsCompleted, " +
+            ":completedMinutes, :completedUnder45, :completed45To60, :completed60To90, :completed90AndOver, " +
+            ":newStudents, :paymentCount, :paymentRevenue, :transactionCount, :transactionAmount, 1, 0) " +
+            "ON CONFLICT (instructor_id, granularity, bucket_start) DO UPDATE SET " +
+            "sessions_scheduled = r.sessions_scheduled + EXCLUDED.sessions_scheduled, " +
+            "scheduled_minutes = r.scheduled_minutes + EXCLUDED.scheduled_minutes, " +
+            "sessions_completed = r.sessions_completed + EXCLUDED.sessions_completed, " +
+            "completed_minutes = r.completed_minutes + EXCLUDED.completed_minutes, " +
+            "completed_under_45 = r.completed_under_45 + EXCLUDED.completed_under_45, " +
+            "completed_45_to_60 = r.completed_45_to_60 + EXCLUDED.completed_45_to_60, " +
+            "completed_60_to_90 = r.completed_60_to_90 + EXCLUDED.completed_60_to_90, " +
+            "completed_90_and_over = r.completed_90_and_over + EXCLUDED.completed_90_and_over, " +
+            "new_students = r.new_students + EXCLUDED.new_students, " +
+            "payment_count = r.payment_count + EXCLUDED.payment_count, " +
+            "payment_revenue = r.payment_revenue + EXCLUDED.payment_revenue, " +
+            "transaction_count = r.transaction_count + EXCLUDED.transaction_count, " +
+            "transaction_amount = r.transaction_amount + EXCLUDED.transaction_amount, " +
+            "revision = r.revision + 1",
+        nativeQuery = true
+    )
+    fun applyDayDelta(
+        @Param("instructorId") instructorId: String,
+        @Param("bucketStart") bucketStart: LocalDate,
+        @Param("sessionsScheduled") sessionsScheduled: Long = 0,
+        @Param("scheduledMinutes") scheduledMinutes: Long = 0,
+        @Param("sessionsCompleted") sessionsCompleted: Long = 0,
+        @Param("completedMinutes") completedMinutes: Long = 0,
+        @Param("completedUnder45") completedUnder45: Long = 0,
+        @Param("completed45To60") completed45To60: Long = 0,
+        @Param("completed60To90") completed60To90: Long = 0,
+        @Param("completed90AndOver") completed90AndOver: Long = 0,
+        @Param("newStudents") newStudents: Long = 0,
+        @Param("paymentCount") paymentCount: Long = 0,
+        @Param("paymentRevenue") paymentRevenue: BigDecimal = BigDecimal.ZERO,
+        @Param("transactionCount") transactionCount: Long = 0,
+        @Param("transactionAmount") transactionAmount: BigDecimal = BigDecimal.ZERO
+    ): Int
+
+    /**
+     * Rebuilds the buckets of a coarser granularity from the DAY buckets, for every period that ended before
+     * [closedBefore] and has a DAY bucket whose revision was not compacted yet. [unit] is the PostgreSQL date_trunc
+     * unit of the granularity. Returns the number of buckets written.
+     *
+     * The rebuilt sums and the revisions marked as compacted are read in one statement, so they come from the same
+     * snapshot. A delta that commits while the statement runs raises a revision past the one marked, and leaves its
+     * period to the next run, whatever the order in which the transactions started or committed.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "WITH changed AS (" +
+            "SELECT DISTINCT c.instructor_id, CAST(date_trunc(:unit, CAST(c.bucket_start AS timestamp)) AS date) AS period_start " +
+            "FROM reporting_rollups c " +
+            "WHERE c.granularity = 'DAY' AND c.bucket_start < :closedBefore AND c.revision <> c.compacted_revision), " +
+            "days AS (" +
+            "SELECT d.*, ch.period_start FROM reporting_rollups d JOIN changed ch ON ch.instructor_id = d.instructor_id " +
+            "AND ch.period_start = CAST(date_trunc(:unit, CAST(d.bucket_start AS timestamp)) AS date) " +
+            "WHERE d.granularity = 'DAY'), " +
+            "marked AS (" +
+            "UPDATE reporting_rollups m SET compacted_revision = days.revision FROM days " +
+            "WHERE m.instructor_id = days.instructor_id AND m.granularity = 'DAY' AND m.bucket_start = days.bucket_start) " +
+            "INSERT INTO reporting_rollups AS r " +
+            "(instructor_id, granularity, bucket_start, sessions_scheduled, scheduled_minutes, sessions_completed, " +
+            "completed_minutes, completed_under_45, completed_45_to_60, completed_60_to_90, completed_90_and_over, " +
+            "new_students, payment_count, payment_revenue, transaction_count, transaction_amount, revision, " +
+            "compacted_revision) " +
+            "SELECT days.instructor_id, :granularity, days.period_start, " +
+            "SUM(days.sessions_scheduled), SUM(days.scheduled_minutes), SUM(days.sessions_completed), SUM(days.completed_minutes), " +
+            "SUM(days.completed_under_45), SUM(days.completed_45_to_60), SUM(days.completed_60_to_90), SUM(days.completed_90_and_over), " +
+            "SUM(days.new_students), SUM(days.payment_count), SUM(days.payment_revenue), SUM(days.transaction_count), " +
+            "SUM(days.transaction_amount), 0, 0 " +
+            "FROM days GROUP BY days.instructor_id, days.period_start " +
+            "ON CONFLICT (instructor_id, granularity, bucket_start) DO UPDATE SET " +
+            "sessions_scheduled = EXCLUDED.sessions_scheduled, scheduled_minutes = EXCLUDED.scheduled_minutes, " +
+            "sessions_completed = EXCLUDED.sessions_completed, completed_minutes = EXCLUDED.completed_minutes, " +
+            "completed_under_45 = EXCLUDED.completed_under_45, completed_45_to_60 = EXCLUDED.completed_45_to_60, " +
+            "completed_60_to_90 = EXCLUDED.completed_60_to_90, completed_90_and_over = EXCLUDED.completed_90_and_over, " +
+            "new_students = EXCLUDED.new_students, payment_count = EXCLUDED.payment_count, " +
+            "payment_revenue = EXCLUDED.payment_revenue, transaction_count = EXCLUDED.transaction_count, " +
+            "transaction_amount = EXCLUDED.transaction_amount",
+        nativeQuery = true
+    )
+    fun compact(
+        @Param("granularity") granularity: String,
+        @Param("unit") unit: String,
+        @Param("closedBefore") closedBefore: LocalDate
+    ): Int
+
+    /**
+     * Finds an instructor's buckets of one granularity starting between two dates, inclusive.
+     */
+    fun findByInstructorIdAndGranularityAndBucketStartBetween(
+        instructorId: String,
+        granularity: RollupGranularity,
+        fromDate: LocalDate,
+        toDate: LocalDate
+    ): List<ReportingRollupEntity>
+
+    /**
+     * Finds an instructor's latest bucket of one granularity.
+     */
+    fun findFirstByInstructorIdAndGranularityOrderByBucketStartDesc(
+        instructorId: String,
+        granularity: RollupGranularity
+    ): ReportingRollupEntity?
+
+    /**
+     * Sums the new students of an instructor over the buckets of one granularity before a date.
+     */
+    @Query("SELECT COALESCE(SUM(r.newStudents), 0) FROM ReportingRollupEntity r WHERE r.instructorId = :instructorId AND r.granularity = :granularity AND r.bucketStart < :beforeDate")
+    fun sumNewStudentsBefore(
+        @Param("instructorId") instructorId: String,
+        @Param("granularity") granularity: RollupGranularity,
+        @Param("beforeDate") beforeDate: LocalDate
+    ): Long
+
+    /**
+     * Sums the new students of an instructor over the buckets of one granularity starting from a date and before another.
+     */
+    @Query("SELECT COALESCE(SUM(r.newStudents), 0) FROM ReportingRollupEntity r WHERE r.instructorId = :instructorId AND r.granularity = :granularity AND r.bucketStart >= :fromDate AND r.bucketStart < :beforeDate")
+    fun sumNewStudentsBetween(
+        @Param("instructorId") instructorId: String,
+        @Param("granularity") granularity: RollupGranularity,
+        @Param("fromDate") fromDate: LocalDate,
+        @Param("beforeDate") beforeDate: LocalDate
+    ): Long
+}
+
+/**
+ * Repository for ReportingRevenueByMethodEntity buckets, maintained like the rollups.
+ */
+@Repository
+interface ReportingRevenueByMethodRepository : JpaRepository<ReportingRevenueByMethodEntity, ReportingRevenueByMethodId> {
+
+    /**
+     * Adds a payment to the DAY bucket of its payment method and raises the bucket's revision. Callers apply each
+     * event only once.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO reporting_revenue_by_method AS r " +
+            "(instructor_id, granularity, bucket_start, payment_method, payment_count, amount, revision, compacted_revision) " +
+            "VALUES (:instructorId, 'DAY', :bucketStart, :paymentMethod, 1, :amount, 1, 0) " +
+            "ON CONFLICT (instructor_id, granularity, bucket_start, payment_method) DO UPDATE SET " +
+            "payment_count = r.payment_count + EXCLUDED.payment_count, amount = r.amount + EXCLUDED.amount, " +
+            "revision = r.revision + 1",
+        nativeQuery = true
+    )
+    fun applyDayPayment(
+        @Param("instructorId") instructorId: String,
+        @Param("bucketStart") bucketStart: LocalDate,
+        @Param("paymentMethod") paymentMethod: String,
+        @Param("amount") amount: BigDecimal
+    ): Int
+
+    /**
+     * Rebuilds the MONTH buckets of the months that ended before [closedBefore] and have a DAY bucket whose revision
+     * was not compacted yet, marking the revisions it read in the same statement, like
+     * [ReportingRollupRepository.compact]. Returns the number of buckets written.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "WITH changed AS (" +
+            "SELECT DISTINCT c.instructor_id, CAST(date_trunc('month', CAST(c.bucket_start AS timestamp)) AS date) AS period_start, " +
+            "c.payment_method FROM reporting_revenue_by_method c " +
+            "WHERE c.granularity = 'DAY' AND c.bucket_start < :closedBefore AND c.revision <> c.compacted_revision), " +
+            "days AS (" +
+            "SELECT d.*, ch.period_start FROM reporting_revenue_by_method d JOIN changed ch ON ch.instructor_id = d.instructor_id " +
+            "AND ch.period_start = CAST(date_trunc('month', CAST(d.bucket_start AS timestamp)) AS date) " +
+            "AND ch.payment_method = d.payment_method " +
+            "WHERE d.granularity = 'DAY'), " +
+            "marked AS (" +
+            "UPDATE reporting_revenue_by_method m SET compacted_revision = days.revision FROM days " +
+            "WHERE m.instructor_id = days.instructor_id AND m.granularity = 'DAY' AND m.bucket_start = days.bucket_start " +
+            "AND m.payment_method = days.payment_method) " +
+            "INSERT INTO reporting_revenue_by_method AS r " +
+            "(instructor_id, granularity, bucket_start, payment_method, payment_count, amount, revision, compacted_revision) " +
+            "SELECT days.instructor_id, 'MONTH', days.period_start, days.payment_method, " +
+            "SUM(days.payment_count), SUM(days.amount), 0, 0 " +
+            "FROM days GROUP BY days.instructor_id, days.period_start, days.payment_method " +
+            "ON CONFLICT (instructor_id, granularity, bucket_start, payment_method) DO UPDATE SET " +
+            "payment_count = EXCLUDED.payment_count, amount = EXCLUDED.amount",
+        nativeQuery = true
+    )
+    fun compactMonths(@Param("closedBefore") closedBefore: LocalDate): Int
+
+    /**
+     * Finds an instructor's payment method buckets of one granularity starting between two dates, inclusive.
+     */
+    fun findByInstructorIdAndGranularityAndBucketStartBetween(
+        instructorId: String,
+        granularity: RollupGranularity,
+        fromDate: LocalDate,
+        toDate: LocalDate
+    ): List<ReportingRevenueByMethodEntity>
+}
+
+/**
+ * Repository for ReportingSessionHourEntity buckets.
+ */
+@Repository
+interface ReportingSessionHourRepository : JpaRepository<ReportingSessionHourEntity, ReportingSessionHourId> {
+
+    /**
+     * Adds [delta] sessions to an hour bucket. Callers apply each event only once.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO reporting_session_hours AS h " +
+            "(instructor_id, bucket_date, hour_of_day, sessions) " +
+            "VALUES (:instructorId, :bucketDate, :hourOfDay, :delta) " +
+            "ON CONFLICT (instructor_id, bucket_date, hour_of_day) DO UPDATE SET " +
+            "sessions = h.sessions + EXCLUDED.sessions",
+        nativeQuery = true
+    )
+    fun applyDelta(
+        @Param("instructorId") instructorId: String,
+        @Param("bucketDate") bucketDate: LocalDate,
+        @Param("hourOfDay") hourOfDay: Int,
+        @Param("delta") delta: Long
+    ): Int
+
+    /**
+     * Finds an instructor's hour buckets between two dates, inclusive.
+     */
+    fun findByInstructorIdAndBucketDateBetween(
+        instructorId: String,
+        fromDate: LocalDate,
+        toDate: LocalDate
+    ): List<ReportingSessionHourEntity>
+}
+
+/**
+ * Repository for the student to instructor mapping of the reporting view.
+ */
+@Repository
+interface ReportingStudentRepository : JpaRepository<ReportingStudentEntity, String>
+
+/**
+ * Repository for the session to instructor mapping of the reporting view.
+ */
+@Repository
+interface ReportingSessionRepository : JpaRepository<ReportingSessionEntity, String>
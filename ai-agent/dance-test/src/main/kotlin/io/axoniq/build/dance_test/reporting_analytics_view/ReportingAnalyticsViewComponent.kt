@@ -1,47 +1,98 @@
 package io.axoniq.build.dance_test.reporting_analytics_view
 
+import io.axoniq.build.dance_test.projection.ProcessedEvents
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.reporting_analytics_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.annotations.Timestamp
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
+import org.springframework.transaction.annotation.Transactional
 import java.math.BigDecimal
+import java.time.DayOfWeek
+import java.time.Instant
 import java.time.LocalDate
-import java.time.LocalDateTime
+import java.time.YearMonth
+import java.time.ZoneId
 import java.time.format.DateTimeFormatter
-import java.time.temporal.WeekFields
-import java.util.*
+import java.time.format.TextStyle
+import java.time.temporal.TemporalAdjusters
+import java.util.Locale
 
 /**
  * View component for Reporting Analytics.
  * Handles queries for business analytics and reporting views for instructors.
  * Maintains read models through event handlers and responds to analytical queries.
+ *
+ * Events add their counts and sums to per-instructor DAY buckets; [ReportingRollupCompactor] folds the days of
+ * closed months into MONTH buckets. Monthly reports read the compacted bucket of every closed month in range and
+ * only sum DAY buckets for the current, still open, month. Weekly reports need the split per weekday, so they sum
+ * the DAY buckets of their window. Either way a report reads a number of rows bounded by its range rather than
+ * by the instructor's history.
  */
 @Component
 class ReportingAnalyticsViewComponent(
-    private val repository: ReportingAnalyticsRepository
+    private val repository: ReportingAnalyticsRepository,
+    private val rollupRepository: ReportingRollupRepository,
+    private val revenueByMethodRepository: ReportingRevenueByMethodRepository,
+    private val sessionHourRepository: ReportingSessionHourRepository,
+    private val studentRepository: ReportingStudentRepository,
+    private val sessionRepository: ReportingSessionRepository,
+    private val processedEvents: ProcessedEvents,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${dance-test.reporting.weekly-session-capacity:30}") private val weeklySessionCapacity: Int
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ReportingAnalyticsViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "reporting-analytics-view"
+
+        private val MONTH_FORMAT: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM")
+        private const val MAX_PERIOD_MONTHS = 120
+        private const val MAX_PERIOD_WEEKS = 520
+        private const val MAX_PERIOD_YEARS = 20
+        private const val PEAK_HOURS = 3
+        private const val PEAK_DAYS = 3
+        private const val PROJECTION = "ReportingAnalytics"
+    }
+
+    init {
+        processedEvents.register(PROJECTION, ReportingAnalyticsViewComponent::class.java.packageName)
     }
 
     /**
      * Query handler for StudentCountTrends query.
-     * Returns student count trends data for the specified instructor and period.
+     * Returns the new and cumulative student counts per month for the specified instructor and period.
      */
     @QueryHandler
     fun handle(query: StudentCountTrends): StudentCountData {
         logger.info("Handling StudentCountTrends query for instructor: ${query.instructorId}, period: ${query.periodMonths} months")
 
-        // For demonstration purposes, creating mock trend data
-        // In a real implementation, this would calculate actual trends from historical data
-        val monthlyStudentCounts = generateMonthlyStudentCounts(query.periodMonths)
-        val growthTrend = calculateGrowthTrend(monthlyStudentCounts)
+        val toMonth = YearMonth.now()
+        val fromMonth = toMonth.minusMonths(query.periodMonths.coerceIn(1, MAX_PERIOD_MONTHS) - 1L)
+        val monthly = monthlyRollups(query.instructorId, fromMonth, toMonth)
+
+        var activeStudents = newStudentsBefore(query.instructorId, fromMonth.atDay(1))
+        val monthlyStudentCounts = months(fromMonth, toMonth).map { month ->
+            val newStudents = monthly[month]?.newStudents ?: 0L
+            activeStudents += newStudents
+            MonthlyStudentCount(
+                newStudents.toInt(),
+                month.format(MONTH_FORMAT),
+                activeStudents.toInt()
+            )
+        }
 
         return StudentCountData(
             monthlyStudentCounts = monthlyStudentCounts,
-            growthTrend = growthTrend
+            growthTrend = calculateGrowthTrend(monthlyStudentCounts)
         )
     }
 
@@ -77,214 +128,360 @@ class ReportingAnalyticsViewComponent(
 
     /**
      * Query handler for WorkloadAnalysis query.
-     * Returns workload analysis data for the specified instructor and period.
+     * Returns the scheduled workload of the specified instructor over the last weeks, measured against the
+     * configured weekly session capacity.
      */
     @QueryHandler
     fun handle(query: WorkloadAnalysis): WorkloadAnalysisData {
         logger.info("Handling WorkloadAnalysis query for instructor: ${query.instructorId}, period: ${query.periodWeeks} weeks")
 
-        val analytics = repository.findById(query.instructorId)
-
-        return if (analytics.isPresent) {
-            val entity = analytics.get()
-            WorkloadAnalysisData(
-                capacityUtilization = 0.75, // Mock calculation
-                averageSessionsPerDay = entity.averageSessionsPerWeek.toDouble() / 7,
-                totalSessionsPerWeek = entity.averageSessionsPerWeek.toDouble(),
-                peakDays = listOf("Tuesday", "Thursday", "Saturday"),
-                availableCapacity = 20 // Mock data
-            )
-        } else {
-            WorkloadAnalysisData(
-                capacityUtilization = 0.0,
-                averageSessionsPerDay = 0.0,
-                totalSessionsPerWeek = 0.0,
-                peakDays = emptyList(),
-                availableCapacity = 0
-            )
-        }
+        val weeks = query.periodWeeks.coerceIn(1, MAX_PERIOD_WEEKS)
+        val (fromDate, toDate) = weekWindow(weeks)
+        val sessionsByDay = rollupRepository
+            .findByInstructorIdAndGranularityAndBucketStartBetween(query.instructorId, RollupGranularity.DAY, fromDate, toDate)
+            .groupBy({ it.bucketStart.dayOfWeek }, { it.sessionsScheduled })
+            .mapValues { (_, sessions) -> sessions.sum() }
+
+        val totalSessionsPerWeek = sessionsByDay.values.sum().toDouble() / weeks
+        val peakDays = sessionsByDay.entries
+            .filter { it.value > 0 }
+            .sortedWith(compareByDescending<Map.Entry<DayOfWeek, Long>> { it.value }.thenBy { it.key })
+            .take(PEAK_DAYS)
+            .map { dayName(it.key) }
+
+        return WorkloadAnalysisData(
+            capacityUtilization = if (weeklySessionCapacity > 0) totalSessionsPerWeek / weeklySessionCapacity else 0.0,
+            averageSessionsPerDay = totalSessionsPerWeek / 7,
+            totalSessionsPerWeek = totalSessionsPerWeek,
+            peakDays = peakDays,
+            availableCapacity = (weeklySessionCapacity - Math.ceil(totalSessionsPerWeek).toInt()).coerceAtLeast(0)
+        )
     }
 
     /**
      * Query handler for YearlyRevenueComparison query.
-     * Returns yearly revenue comparison data for the specified instructor and year range.
+     * Returns the monthly payment revenue per year for the specified instructor and year range.
      */
     @QueryHandler
     fun handle(query: YearlyRevenueComparison): YearlyRevenueData {
         logger.info("Handling YearlyRevenueComparison query for instructor: ${query.instructorId}, years: ${query.startYear}-${query.endYear}")
 
-        val yearlyComparisons = generateYearlyComparisons(query.startYear, query.endYear)
-        val growthRate = calculateYearOverYearGrowth(yearlyComparisons)
+        require(query.endYear - query.startYear < MAX_PERIOD_YEARS) {
+            "A revenue comparison spans at most $MAX_PERIOD_YEARS years"
+        }
+        if (query.endYear < query.startYear) {
+            return YearlyRevenueData(yearlyComparisons = emptyList(), growthRate = 0.0)
+        }
+
+        val monthly = monthlyRollups(query.instructorId, YearMonth.of(query.startYear, 1), YearMonth.of(query.endYear, 12))
+        val yearlyComparisons = (query.startYear..query.endYear).map { year ->
+            val monthlyBreakdown = (1..12).map { month ->
+                MonthlyRevenue(monthly[YearMonth.of(year, month)]?.paymentRevenue?.toDouble() ?: 0.0, month)
+            }
+            YearlyRevenue(
+                monthlyBreakdown = monthlyBreakdown,
+                year = year,
+                totalRevenue = monthlyBreakdown.sumOf { it.revenue }
+            )
+        }
 
         return YearlyRevenueData(
             yearlyComparisons = yearlyComparisons,
-            growthRate = growthRate
+            growthRate = calculateYearOverYearGrowth(yearlyComparisons)
         )
     }
 
     /**
      * Query handler for MonthlyRevenueReport query.
-     * Returns monthly revenue report data for the specified instructor, month and year.
+     * Returns the payment revenue of the specified instructor, month and year, split by payment method.
      */
     @QueryHandler
     fun handle(query: MonthlyRevenueReport): MonthlyRevenueData {
         logger.info("Handling MonthlyRevenueReport query for instructor: ${query.instructorId}, month: ${query.month}, year: ${query.year}")
 
-        val analytics = repository.findById(query.instructorId)
-
-        return if (analytics.isPresent) {
-            val entity = analytics.get()
-            MonthlyRevenueData(
-                revenueByPaymentMethod = listOf(
-                    PaymentMethodRevenue("Credit Card", entity.totalMonthlyRevenue.toDouble() * 0.6),
-                    PaymentMethodRevenue("Cash", entity.totalMonthlyRevenue.toDouble() * 0.3),
-                    PaymentMethodRevenue("Bank Transfer", entity.totalMonthlyRevenue.toDouble() * 0.1)
-                ),
-                totalRevenue = entity.totalMonthlyRevenue.toDouble(),
-                totalTransactions = entity.totalSessionsThisMonth,
-                averageTransactionValue = if (entity.totalSessionsThisMonth > 0) entity.totalMonthlyRevenue.toDouble() / entity.totalSessionsThisMonth else 0.0
-            )
-        } else {
-            MonthlyRevenueData(
-                revenueByPaymentMethod = emptyList(),
-                totalRevenue = 0.0,
-                totalTransactions = 0,
-                averageTransactionValue = 0.0
-            )
-        }
+        val month = YearMonth.of(query.year, query.month)
+        val totals = monthlyRollups(query.instructorId, month, month)[month]
+        val revenueByPaymentMethod = revenueByMethod(query.instructorId, month)
+            .map { (paymentMethod, amount) -> PaymentMethodRevenue(paymentMethod, amount.toDouble()) }
+            .sortedByDescending { it.amount }
+
+        val totalRevenue = totals?.paymentRevenue?.toDouble() ?: 0.0
+        val totalTransactions = totals?.paymentCount?.toInt() ?: 0
+        return MonthlyRevenueData(
+            revenueByPaymentMethod = revenueByPaymentMethod,
+            totalRevenue = totalRevenue,
+            totalTransactions = totalTransactions,
+            averageTransactionValue = if (totalTransactions > 0) totalRevenue / totalTransactions else 0.0
+        )
     }
 
     /**
      * Query handler for WeeklySessionPatterns query.
-     * Returns weekly session patterns data for the specified instructor and period.
+     * Returns the average sessions and busiest hours per weekday of the specified instructor over the last weeks.
      */
     @QueryHandler
     fun handle(query: WeeklySessionPatterns): WeeklySessionData {
         logger.info("Handling WeeklySessionPatterns query for instructor: ${query.instructorId}, period: ${query.periodWeeks} weeks")
 
-        val analytics = repository.findById(query.instructorId)
-        val totalWeeklySessions = analytics.map { it.averageSessionsPerWeek.toInt() }.orElse(0)
-
-        val weeklyPatterns = listOf(
-            WeeklyPattern(2.5, "Monday", listOf("18:00", "19:00")),
-            WeeklyPattern(3.0, "Tuesday", listOf("17:00", "18:00", "19:00")),
-            WeeklyPattern(2.0, "Wednesday", listOf("18:00", "19:00")),
-            WeeklyPattern(3.5, "Thursday", listOf("17:00", "18:00", "19:00", "20:00")),
-            WeeklyPattern(1.5, "Friday", listOf("18:00")),
-            WeeklyPattern(4.0, "Saturday", listOf("10:00", "11:00", "14:00", "15:00")),
-            WeeklyPattern(1.0, "Sunday", listOf("15:00"))
-        )
+        val weeks = query.periodWeeks.coerceIn(1, MAX_PERIOD_WEEKS)
+        val (fromDate, toDate) = weekWindow(weeks)
+        val hoursByDay = sessionHourRepository
+            .findByInstructorIdAndBucketDateBetween(query.instructorId, fromDate, toDate)
+            .groupBy { it.bucketDate.dayOfWeek }
+
+        val weeklyPatterns = DayOfWeek.values().map { day ->
+            val sessionsByHour = hoursByDay[day].orEmpty()
+                .groupBy({ it.hourOfDay }, { it.sessions })
+                .mapValues { (_, sessions) -> sessions.sum() }
+            val peakHours = sessionsByHour.entries
+                .filter { it.value > 0 }
+                .sortedWith(compareByDescending<Map.Entry<Int, Long>> { it.value }.thenBy { it.key })
+                .take(PEAK_HOURS)
+                .map { "%02d:00".format(it.key) }
+                .sorted()
+            WeeklyPattern(sessionsByHour.values.sum().toDouble() / weeks, dayName(day), peakHours)
+        }
 
         return WeeklySessionData(
-            totalWeeklySessions = totalWeeklySessions,
+            totalWeeklySessions = Math.round(weeklyPatterns.sumOf { it.averageSessions }).toInt(),
             weeklyPatterns = weeklyPatterns
         )
     }
 
     /**
      * Event handler for SessionCompleted events.
-     * Updates analytics when a session is completed.
+     * Adds the completed session and its duration band to the bucket of the completion day.
      */
     @EventHandler
-    fun on(event: SessionCompleted) {
-        logger.info("Handling SessionCompleted event for session: ${event.sessionId}")
-        // Implementation would update session completion metrics
-        // This is a placeholder for actual analytics calculation logic
-    }
+    @Transactional
+    fun on(event: SessionCompleted, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Handling SessionCompleted event for session: ${event.sessionId}")
+            processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+            val session = sessionRepository.findById(event.sessionId).orElse(null)
+            if (session == null) {
+                logger.debug("Skipping SessionCompleted for unknown session: ${event.sessionId}")
+                return@applyOnce
+            }
+            val duration = event.actualDuration.toLong()
+            rollupRepository.applyDayDelta(
+                instructorId = session.instructorId,
+                bucketStart = event.completionDate.toLocalDate(),
+                sessionsCompleted = 1,
+                completedMinutes = duration,
+                completedUnder45 = if (duration < 45) 1 else 0,
+                completed45To60 = if (duration in 45 until 60) 1 else 0,
+                completed60To90 = if (duration in 60 until 90) 1 else 0,
+                completed90AndOver = if (duration >= 90) 1 else 0
+            )
+        }
 
     /**
      * Event handler for StudentProfileCreated events.
      * Updates student count analytics when a new student profile is created.
      */
     @EventHandler
-    fun on(event: StudentProfileCreated) {
-        logger.info("Handling StudentProfileCreated event for student: ${event.studentId}, instructor: ${event.instructorId}")
-        val existing = repository.findById(event.instructorId)
-        val analytics = if (existing.isPresent) {
-            val current = existing.get()
-            current.copy(totalActiveStudents = current.totalActiveStudents + 1)
-        } else {
-            ReportingAnalyticsEntity(
+    @Transactional
+    fun on(event: StudentProfileCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Handling StudentProfileCreated event for student: ${event.studentId}, instructor: ${event.instructorId}")
+            processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+            val existing = repository.findById(event.instructorId)
+            val analytics = if (existing.isPresent) {
+                val current = existing.get()
+                current.copy(totalActiveStudents = current.totalActiveStudents + 1)
+            } else {
+                ReportingAnalyticsEntity(
+                    instructorId = event.instructorId,
+                    totalActiveStudents = 1
+                )
+            }
+
+            repository.save(analytics)
+            studentRepository.save(ReportingStudentEntity(event.studentId, event.instructorId))
+            rollupRepository.applyDayDelta(
                 instructorId = event.instructorId,
-                totalActiveStudents = 1
+                bucketStart = toLocalDate(timestamp),
+                newStudents = 1
             )
         }
 
-        repository.save(analytics)
-    }
-
     /**
      * Event handler for SessionScheduled events.
      * Updates session-related analytics when a session is scheduled.
      */
     @EventHandler
-    fun on(event: SessionScheduled) {
-        logger.info("Handling SessionScheduled event for session: ${event.sessionId}, instructor: ${event.instructorId}")
-
-        val existing = repository.findById(event.instructorId)
-        val analytics = if (existing.isPresent) {
-            val current = existing.get()
-            val currentMonth = LocalDate.now().monthValue
-            val sessionMonth = event.sessionDate.monthValue
-
-            if (currentMonth == sessionMonth) {
-                current.copy(totalSessionsThisMonth = current.totalSessionsThisMonth + 1)
+    @Transactional
+    fun on(event: SessionScheduled, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Handling SessionScheduled event for session: ${event.sessionId}, instructor: ${event.instructorId}")
+            processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+            val existing = repository.findById(event.instructorId)
+            val analytics = if (existing.isPresent) {
+                val current = existing.get()
+                val currentMonth = LocalDate.now().monthValue
+                val sessionMonth = event.sessionDate.monthValue
+
+                if (currentMonth == sessionMonth) {
+                    current.copy(totalSessionsThisMonth = current.totalSessionsThisMonth + 1)
+                } else {
+                    current
+                }
             } else {
-                current
+                ReportingAnalyticsEntity(
+                    instructorId = event.instructorId,
+                    totalSessionsThisMonth = 1
+                )
             }
-        } else {
-            ReportingAnalyticsEntity(
+
+            repository.save(analytics)
+            sessionRepository.save(ReportingSessionEntity(event.sessionId, event.instructorId, event.sessionDate))
+
+            rollupRepository.applyDayDelta(
                 instructorId = event.instructorId,
-                totalSessionsThisMonth = 1
+                bucketStart = event.sessionDate.toLocalDate(),
+                sessionsScheduled = 1,
+                scheduledMinutes = event.duration.toLong()
             )
+            sessionHourRepository.applyDelta(event.instructorId, event.sessionDate.toLocalDate(), event.sessionDate.hour, 1)
         }
 
-        repository.save(analytics)
-    }
-
     /**
      * Event handler for TransactionRecordCreated events.
-     * Updates financial analytics when a transaction is recorded.
+     * Adds the transaction to the bucket of the day it was recorded.
      */
     @EventHandler
-    fun on(event: TransactionRecordCreated) {
-        logger.info("Handling TransactionRecordCreated event for student: ${event.studentId}, amount: ${event.amount}")
-        // Implementation would update transaction-related metrics
-        // This is a placeholder for actual analytics calculation logic
-    }
+    @Transactional
+    fun on(event: TransactionRecordCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Handling TransactionRecordCreated event for student: ${event.studentId}, amount: ${event.amount}")
+            processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+            val student = studentRepository.findById(event.studentId).orElse(null)
+            if (student == null) {
+                logger.debug("Skipping TransactionRecordCreated for unknown student: ${event.studentId}")
+                return@applyOnce
+            }
+            rollupRepository.applyDayDelta(
+                instructorId = student.instructorId,
+                bucketStart = toLocalDate(timestamp),
+                transactionCount = 1,
+                transactionAmount = BigDecimal.valueOf(event.amount)
+            )
+        }
 
     /**
      * Event handler for PaymentRecorded events.
-     * Updates revenue analytics when a payment is recorded.
+     * Adds the payment to the revenue buckets of its payment date, in total and per payment method.
      */
     @EventHandler
-    fun on(event: PaymentRecorded) {
-        logger.info("Handling PaymentRecorded event for student: ${event.studentId}, amount: ${event.amount}")
-        // Implementation would update payment and revenue metrics
-        // This is a placeholder for actual analytics calculation logic
+    @Transactional
+    fun on(event: PaymentRecorded, processingContext: ProcessingContext) =
+        processedEvents.applyOnce(PROJECTION, processingContext) {
+            logger.info("Handling PaymentRecorded event for student: ${event.studentId}, amount: ${event.amount}")
+            processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+
+            val student = studentRepository.findById(event.studentId).orElse(null)
+            if (student == null) {
+                logger.debug("Skipping PaymentRecorded for unknown student: ${event.studentId}")
+                return@applyOnce
+            }
+            val amount = BigDecimal.valueOf(event.amount)
+            rollupRepository.applyDayDelta(
+                instructorId = student.instructorId,
+                bucketStart = event.paymentDate,
+                paymentCount = 1,
+                paymentRevenue = amount
+            )
+            revenueByMethodRepository.applyDayPayment(student.instructorId, event.paymentDate, event.paymentMethod, amount)
+        }
+
+    /**
+     * Returns the totals per month between two months, inclusive. Months that were compacted are read from their
+     * MONTH bucket; the others, normally only the current month, are summed from their DAY buckets.
+     */
+    private fun monthlyRollups(instructorId: String, fromMonth: YearMonth, toMonth: YearMonth): Map<YearMonth, ReportingRollupEntity> {
+        val compacted = rollupRepository
+            .findByInstructorIdAndGranularityAndBucketStartBetween(instructorId, RollupGranularity.MONTH, fromMonth.atDay(1), toMonth.atDay(1))
+            .associateBy { YearMonth.from(it.bucketStart) }
+        val open = months(fromMonth, toMonth).filterNot { it in compacted }
+        if (open.isEmpty()) {
+            return compacted
+        }
+        val fromDay = open.first().atDay(1)
+        val toDay = open.last().atEndOfMonth()
+        val summed = rollupRepository
+            .findByInstructorIdAndGranularityAndBucketStartBetween(instructorId, RollupGranularity.DAY, fromDay, toDay)
+            .groupBy { YearMonth.from(it.bucketStart) }
+            .filterKeys { it in open }
+            .mapValues { (_, days) -> days.reduce(::sumRollups) }
+        return compacted + summed
     }
 
     /**
-     * Helper method to generate monthly student count data for trend analysis.
+     * Returns the number of new students of an instructor before a month. Compacted months are summed from their
+     * MONTH buckets and the closed months that were not compacted yet from their DAY buckets. The compactor folds
+     * every closed month in one statement, so the months that were not compacted all follow the latest MONTH bucket.
      */
-    private fun generateMonthlyStudentCounts(periodMonths: Int): List<MonthlyStudentCount> {
-        val counts = mutableListOf<MonthlyStudentCount>()
-        val now = LocalDate.now()
-
-        for (i in 0 until periodMonths) {
-            val month = now.minusMonths(i.toLong())
-            counts.add(
-                MonthlyStudentCount(
-                    (5..15).random(),
-                    month.format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                    (20..50).random()
-                )
+    private fun newStudentsBefore(instructorId: String, beforeDate: LocalDate): Long {
+        val compacted = rollupRepository.sumNewStudentsBefore(instructorId, RollupGranularity.MONTH, beforeDate)
+        val lastCompacted = rollupRepository.findFirstByInstructorIdAndGranularityOrderByBucketStartDesc(instructorId, RollupGranularity.MONTH)
+        val uncompacted = if (lastCompacted == null) {
+            rollupRepository.sumNewStudentsBefore(instructorId, RollupGranularity.DAY, beforeDate)
+        } else {
+            rollupRepository.sumNewStudentsBetween(instructorId, RollupGranularity.DAY, lastCompacted.bucketStart.plusMonths(1), beforeDate)
+        }
+        return compacted + uncompacted
+    }
+
+    /**
+     * Returns the payment revenue per payment method of a month, from its MONTH buckets once compacted
+     * and from its DAY buckets before that.
+     */
+    private fun revenueByMethod(instructorId: String, month: YearMonth): Map<String, BigDecimal> {
+        val compacted = revenueByMethodRepository
+            .findByInstructorIdAndGranularityAndBucketStartBetween(instructorId, RollupGranularity.MONTH, month.atDay(1), month.atDay(1))
+        val buckets = compacted.ifEmpty {
+            revenueByMethodRepository.findByInstructorIdAndGranularityAndBucketStartBetween(
+                instructorId, RollupGranularity.DAY, month.atDay(1), month.atEndOfMonth()
             )
         }
+        return buckets.groupBy({ it.paymentMethod }, { it.amount })
+            .mapValues { (_, amounts) -> amounts.fold(BigDecimal.ZERO, BigDecimal::add) }
+    }
+
+    private fun sumRollups(a: ReportingRollupEntity, b: ReportingRollupEntity): ReportingRollupEntity =
+        a.copy(
+            sessionsScheduled = a.sessionsScheduled + b.sessionsScheduled,
+            scheduledMinutes = a.scheduledMinutes + b.scheduledMinutes,
+            sessionsCompleted = a.sessionsCompleted + b.sessionsCompleted,
+            completedMinutes = a.completedMinutes + b.completedMinutes,
+            completedUnder45 = a.completedUnder45 + b.completedUnder45,
+            completed45To60 = a.completed45To60 + b.completed45To60,
+            completed60To90 = a.completed60To90 + b.completed60To90,
+            completed90AndOver = a.completed90AndOver + b.completed90AndOver,
+            newStudents = a.newStudents + b.newStudents,
+            paymentCount = a.paymentCount + b.paymentCount,
+            paymentRevenue = a.paymentRevenue + b.paymentRevenue,
+            transactionCount = a.transactionCount + b.transactionCount,
+            transactionAmount = a.transactionAmount + b.transactionAmount
+        )
+
+    private fun months(fromMonth: YearMonth, toMonth: YearMonth): List<YearMonth> =
+        generateSequence(fromMonth) { it.plusMonths(1) }.takeWhile { it <= toMonth }.toList()
 
-        return counts.reversed()
+    /**
+     * The dates of the given number of whole weeks ending with the current week.
+     */
+    private fun weekWindow(weeks: Int): Pair<LocalDate, LocalDate> {
+        val endOfWeek = LocalDate.now().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY))
+        return endOfWeek.minusWeeks(weeks.toLong()).plusDays(1) to endOfWeek
     }
 
+    private fun dayName(day: DayOfWeek): String = day.getDisplayName(TextStyle.FULL, Locale.ENGLISH)
+
     /**
      * Helper method to calculate growth trend from monthly student counts.
      */
@@ -301,34 +498,6 @@ class ReportingAnalyticsViewComponent(
         }
     }
 
-    /**
-     * Helper method to generate yearly revenue comparisons.
-     */
-    private fun generateYearlyComparisons(startYear: Int, endYear: Int): List<YearlyRevenue> {
-        val comparisons = mutableListOf<YearlyRevenue>()
-
-        for (year in startYear..endYear) {
-            val monthlyBreakdown = mutableListOf<MonthlyRevenue>()
-            var totalRevenue = 0.0
-
-            for (month in 1..12) {
-                val revenue = (1000..5000).random().toDouble()
-                monthlyBreakdown.add(MonthlyRevenue(revenue, month))
-                totalRevenue += revenue
-            }
-
-            comparisons.add(
-                YearlyRevenue(
-                    monthlyBreakdown = monthlyBreakdown,
-                    year = year,
-                    totalRevenue = totalRevenue
-                )
-            )
-        }
-
-        return comparisons
-    }
-
     /**
      * Helper method to calculate year-over-year growth rate.
      */
@@ -344,4 +513,6 @@ class ReportingAnalyticsViewComponent(
             0.0
         }
     }
-}
\ No newline at end of file
+
+    private fun toLocalDate(timestamp: Instant): LocalDate = timestamp.atZone(ZoneId.systemDefault()).toLocalDate()
+}
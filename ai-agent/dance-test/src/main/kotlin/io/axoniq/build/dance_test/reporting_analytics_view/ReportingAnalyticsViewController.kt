@@ -1,9 +1,12 @@
 package io.axoniq.build.dance_test.reporting_analytics_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.reporting_analytics_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/reporting-analytics")
 class ReportingAnalyticsViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ReportingAnalyticsViewController::class.java)
@@ -27,11 +31,14 @@ class ReportingAnalyticsViewController(
     @GetMapping("/student-count-trends/{instructorId}")
     fun getStudentCountTrends(
         @PathVariable instructorId: String,
-        @RequestParam(defaultValue = "6") periodMonths: Int
-    ): CompletableFuture<StudentCountData> {
+        @RequestParam(defaultValue = "6") periodMonths: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<StudentCountData>> {
         logger.info("REST request for student count trends - instructor: $instructorId, period: $periodMonths months")
-        val query = StudentCountTrends(instructorId, periodMonths)
-        return queryGateway.query(query, StudentCountData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = StudentCountTrends(instructorId, periodMonths)
+            queryGateway.query(query, StudentCountData::class.java, null)
+        }
     }
 
     /**
@@ -41,11 +48,14 @@ class ReportingAnalyticsViewController(
     @GetMapping("/student-retention/{instructorId}")
     fun getStudentRetentionAnalytics(
         @PathVariable instructorId: String,
-        @RequestParam(defaultValue = "12") periodMonths: Int
-    ): CompletableFuture<StudentRetentionData> {
+        @RequestParam(defaultValue = "12") periodMonths: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<StudentRetentionData>> {
         logger.info("REST request for student retention analytics - instructor: $instructorId, period: $periodMonths months")
-        val query = StudentRetentionAnalytics(instructorId, periodMonths)
-        return queryGateway.query(query, StudentRetentionData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = StudentRetentionAnalytics(instructorId, periodMonths)
+            queryGateway.query(query, StudentRetentionData::class.java, null)
+        }
     }
 
     /**
@@ -55,11 +65,14 @@ class ReportingAnalyticsViewController(
     @GetMapping("/workload-analysis/{instructorId}")
     fun getWorkloadAnalysis(
         @PathVariable instructorId: String,
-        @RequestParam(defaultValue = "4") periodWeeks: Int
-    ): CompletableFuture<WorkloadAnalysisData> {
+        @RequestParam(defaultValue = "4") periodWeeks: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<WorkloadAnalysisData>> {
         logger.info("REST request for workload analysis - instructor: $instructorId, period: $periodWeeks weeks")
-        val query = WorkloadAnalysis(instructorId, periodWeeks)
-        return queryGateway.query(query, WorkloadAnalysisData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = WorkloadAnalysis(instructorId, periodWeeks)
+            queryGateway.query(query, WorkloadAnalysisData::class.java, null)
+        }
     }
 
     /**
@@ -70,11 +83,14 @@ class ReportingAnalyticsViewController(
     fun getYearlyRevenueComparison(
         @PathVariable instructorId: String,
         @RequestParam startYear: Int,
-        @RequestParam endYear: Int
-    ): CompletableFuture<YearlyRevenueData> {
+        @RequestParam endYear: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<YearlyRevenueData>> {
         logger.info("REST request for yearly revenue comparison - instructor: $instructorId, years: $startYear-$endYear")
-        val query = YearlyRevenueComparison(instructorId, endYear, startYear)
-        return queryGateway.query(query, YearlyRevenueData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = YearlyRevenueComparison(instructorId, endYear, startYear)
+            queryGateway.query(query, YearlyRevenueData::class.java, null)
+        }
     }
 
     /**
@@ -85,11 +101,14 @@ class ReportingAnalyticsViewController(
     fun getMonthlyRevenueReport(
         @PathVariable instructorId: String,
         @RequestParam month: Int,
-        @RequestParam year: Int
-    ): CompletableFuture<MonthlyRevenueData> {
+        @RequestParam year: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<MonthlyRevenueData>> {
         logger.info("REST request for monthly revenue report - instructor: $instructorId, month: $month, year: $year")
-        val query = MonthlyRevenueReport(instructorId, month, year)
-        return queryGateway.query(query, MonthlyRevenueData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = MonthlyRevenueReport(instructorId, month, year)
+            queryGateway.query(query, MonthlyRevenueData::class.java, null)
+        }
     }
 
     /**
@@ -99,10 +118,13 @@ class ReportingAnalyticsViewController(
     @GetMapping("/weekly-session-patterns/{instructorId}")
     fun getWeeklySessionPatterns(
         @PathVariable instructorId: String,
-        @RequestParam(defaultValue = "8") periodWeeks: Int
-    ): CompletableFuture<WeeklySessionData> {
+        @RequestParam(defaultValue = "8") periodWeeks: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<WeeklySessionData>> {
         logger.info("REST request for weekly session patterns - instructor: $instructorId, period: $periodWeeks weeks")
-        val query = WeeklySessionPatterns(instructorId, periodWeeks)
-        return queryGateway.query(query, WeeklySessionData::class.java, null)
+        return projectionVersions.conditionalGet(ReportingAnalyticsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = WeeklySessionPatterns(instructorId, periodWeeks)
+            queryGateway.query(query, WeeklySessionData::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package io.axoniq.build.dance_test.reporting_analytics_view
+
+import jakarta.annotation.PreDestroy
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.LocalDate
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compacts the reporting DAY buckets into MONTH buckets. Weeks are not compacted: the weekly reports split
+ * their window per weekday, which only the DAY buckets can answer.
+ *
+ * Only closed months are compacted: a month is rebuilt from its DAY buckets when one of them has a revision that
+ * was not compacted yet. That is the case for new buckets and for buckets that received a delta after the last
+ * compaction, e.g. by a payment recorded with an earlier payment date. Revisions rather than timestamps decide
+ * this, so a delta committing during a compaction is picked up by the next one. The open month is summed from its
+ * DAY buckets at query time. DAY buckets are kept, as the source of truth.
+ */
+@Component
+class ReportingRollupCompactor(
+    private val rollupRepository: ReportingRollupRepository,
+    private val revenueByMethodRepository: ReportingRevenueByMethodRepository,
+    @Value("\${dance-test.reporting.compaction-interval:PT5M}") private val interval: Duration
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ReportingRollupCompactor::class.java)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "reporting-rollup-compactor").apply { isDaemon = true }
+    }
+
+    /**
+     * Starts compacting once the application is ready. The first run catches up on every period that closed
+     * while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        logger.info("Starting reporting rollup compaction every {}", interval)
+        executor.scheduleWithFixedDelay(::compactSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * Rebuilds the MONTH buckets of the closed months whose DAY buckets changed.
+     */
+    fun compact(today: LocalDate = LocalDate.now()) {
+        val monthStart = today.withDayOfMonth(1)
+        val months = rollupRepository.compact(RollupGranularity.MONTH.name, RollupGranularity.MONTH.postgresUnit, monthStart)
+        val methodMonths = revenueByMethodRepository.compactMonths(monthStart)
+        if (months + methodMonths > 0) {
+            logger.info("Compacted {} month and {} payment method buckets", months, methodMonths)
+        }
+    }
+
+    private fun compactSafely() {
+        try {
+            compact()
+        } catch (e: Exception) {
+            logger.error("Failed to compact reporting rollups", e)
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package io.axoniq.build.dance_test.session_calendar_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.session_calendar_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
-import org.springframework.transaction.annotation.Transactional
 
 /**
  * Session Calendar View Component - Provides instructor calendar and session scheduling views.
  * This query component handles session-related events and provides calendar and session detail queries.
+ *
+ * Event handlers write through a [io.axoniq.build.dance_test.projection.ProjectionBatch] of [SessionTable]:
+ * a session is read at most once per event processing batch, and all changed sessions are written with one batch
+ * upsert when the batch commits.
  */
 @Component
 class SessionCalendarViewComponent(
-    private val sessionRepository: SessionRepository
+    private val sessionRepository: SessionRepository,
+    private val sessionTable: SessionTable,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(SessionCalendarViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "session-calendar-view"
     }
 
     /**
@@ -72,9 +84,9 @@ class SessionCalendarViewComponent(
      * Handles SessionScheduled event to create a new session entry in the view.
      */
     @EventHandler
-    @Transactional
-    fun on(event: SessionScheduled) {
+    fun on(event: SessionScheduled, processingContext: ProcessingContext) {
         logger.info("Handling SessionScheduled event for sessionId: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         // Note: We need to get student name from somewhere - for now using placeholder
         // In a real system, this might require a lookup to another service
@@ -92,82 +104,74 @@ class SessionCalendarViewComponent(
             actualDuration = null
         )
 
-        sessionRepository.save(session)
+        sessionTable.batch(processingContext).save(session)
     }
 
     /**
      * Handles SessionCompleted event to update session status and actual duration.
      */
     @EventHandler
-    @Transactional
-    fun on(event: SessionCompleted) {
+    fun on(event: SessionCompleted, processingContext: ProcessingContext) {
         logger.info("Handling SessionCompleted event for sessionId: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val session = sessionRepository.findById(event.sessionId)
-            .orElseThrow { IllegalArgumentException("Session not found: ${event.sessionId}") }
-        
-        val updatedSession = session.copy(
-            status = "COMPLETED",
-            actualDuration = event.actualDuration
-        )
-
-        sessionRepository.save(updatedSession)
+        update(event.sessionId, processingContext) { session ->
+            session.copy(
+                status = "COMPLETED",
+                actualDuration = event.actualDuration
+            )
+        }
     }
 
     /**
      * Handles SessionDetailsModified event to update session details like duration and date.
      */
     @EventHandler
-    @Transactional
-    fun on(event: SessionDetailsModified) {
+    fun on(event: SessionDetailsModified, processingContext: ProcessingContext) {
         logger.info("Handling SessionDetailsModified event for sessionId: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val session = sessionRepository.findById(event.sessionId)
-            .orElseThrow { IllegalArgumentException("Session not found: ${event.sessionId}") }
-
-        val updatedSession = session.copy(
-            duration = event.newDuration ?: session.duration,
-            sessionDate = event.newSessionDate ?: session.sessionDate
-        )
-
-        sessionRepository.save(updatedSession)
+        update(event.sessionId, processingContext) { session ->
+            session.copy(
+                duration = event.newDuration ?: session.duration,
+                sessionDate = event.newSessionDate ?: session.sessionDate
+            )
+        }
     }
 
     /**
      * Handles SessionMarkedAsNoShow event to update session status to no-show.
      */
     @EventHandler
-    @Transactional
-    fun on(event: SessionMarkedAsNoShow) {
+    fun on(event: SessionMarkedAsNoShow, processingContext: ProcessingContext) {
         logger.info("Handling SessionMarkedAsNoShow event for sessionId: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val session = sessionRepository.findById(event.sessionId)
-            .orElseThrow { IllegalArgumentException("Session not found: ${event.sessionId}") }
-        
-        val updatedSession = session.copy(
-            status = "NO_SHOW",
-            notes = event.reason
-        )
-
-        sessionRepository.save(updatedSession)
+        update(event.sessionId, processingContext) { session ->
+            session.copy(
+                status = "NO_SHOW",
+                notes = event.reason
+            )
+        }
     }
 
     /**
      * Handles SessionCancelled event to update session status to cancelled.
      */
     @EventHandler
-    @Transactional
-    fun on(event: SessionCancelled) {
+    fun on(event: SessionCancelled, processingContext: ProcessingContext) {
         logger.info("Handling SessionCancelled event for sessionId: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val session = sessionRepository.findById(event.sessionId)
-            .orElseThrow { IllegalArgumentException("Session not found: ${event.sessionId}") }
-
-        val updatedSession = session.copy(
-            status = "CANCELLED"
-        )
+        update(event.sessionId, processingContext) { session ->
+            session.copy(
+                status = "CANCELLED"
+            )
+        }
+    }
 
-        sessionRepository.save(updatedSession)
+    private fun update(sessionId: String, processingContext: ProcessingContext, change: (SessionEntity) -> SessionEntity) {
+        sessionTable.batch(processingContext).update(sessionId, change)
+            ?: throw IllegalArgumentException("Session not found: $sessionId")
     }
 }
-
@@ -1,10 +1,13 @@
 package io.axoniq.build.dance_test.session_calendar_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.session_calendar_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.format.annotation.DateTimeFormat
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.time.LocalDate
 import java.util.concurrent.CompletableFuture
@@ -16,7 +19,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/session-calendar")
 class SessionCalendarViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(SessionCalendarViewController::class.java)
@@ -26,11 +30,15 @@ class SessionCalendarViewController(
      * Get detailed information about a specific session.
      */
     @GetMapping("/sessions/{sessionId}")
-    fun getSessionDetails(@PathVariable sessionId: String): CompletableFuture<SessionDetailsData> {
+    fun getSessionDetails(
+        @PathVariable sessionId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<SessionDetailsData>> {
         logger.info("REST request for session details: $sessionId")
-
-        val query = SessionDetails(sessionId = sessionId)
-        return queryGateway.query(query, SessionDetailsData::class.java, null)
+        return projectionVersions.conditionalGet(SessionCalendarViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = SessionDetails(sessionId = sessionId)
+            queryGateway.query(query, SessionDetailsData::class.java, null)
+        }
     }
 
     /**
@@ -40,15 +48,17 @@ class SessionCalendarViewController(
     fun getInstructorCalendar(
         @PathVariable instructorId: String,
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) startDate: LocalDate,
-        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) endDate: LocalDate
-    ): CompletableFuture<InstructorCalendarData> {
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) endDate: LocalDate,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<InstructorCalendarData>> {
         logger.info("REST request for instructor calendar: $instructorId from $startDate to $endDate")
-
-        val query = InstructorCalendar(
-            instructorId = instructorId,
-            startDate = startDate,
-            endDate = endDate
-        )
-        return queryGateway.query(query, InstructorCalendarData::class.java, null)
+        return projectionVersions.conditionalGet(SessionCalendarViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = InstructorCalendar(
+                instructorId = instructorId,
+                startDate = startDate,
+                endDate = endDate
+            )
+            queryGateway.query(query, InstructorCalendarData::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package io.axoniq.build.dance_test.session_calendar_view
+
+import io.axoniq.build.dance_test.projection.BatchedTable
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.stereotype.Repository
+import java.sql.ResultSet
+import java.sql.Timestamp
+
+/**
+ * Batched JDBC access to the sessions table of the Session Calendar View component, see [BatchedTable].
+ * Upserts are sent as one JDBC batch per flush, which the driver rewrites into multi-row inserts.
+ */
+@Repository
+class SessionTable(
+    private val jdbcTemplate: NamedParameterJdbcTemplate
+) : BatchedTable<String, SessionEntity>("sessions") {
+
+    companion object {
+        private val COLUMNS = listOf(
+            "session_id", "instructor_id", "duration", "session_date", "student_id", "notes", "status", "student_name",
+            "actual_duration"
+        )
+    }
+
+    override fun idOf(row: SessionEntity): String = row.sessionId
+
+    override fun load(ids: Collection<String>): List<SessionEntity> =
+        jdbcTemplate.query(
+            "SELECT ${COLUMNS.joinToString(", ")} FROM $table WHERE session_id IN (:ids)",
+            mapOf("ids" to ids)
+        ) { rs, _ -> rs.toSession() }
+
+    override fun upsert(rows: Collection<SessionEntity>) {
+        jdbcTemplate.jdbcTemplate.batchUpdate(
+            "INSERT INTO $table (${COLUMNS.joinToString(", ")}) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (session_id) DO UPDATE SET instructor_id = EXCLUDED.instructor_id, " +
+                "duration = EXCLUDED.duration, session_date = EXCLUDED.session_date, student_id = EXCLUDED.student_id, " +
+                "notes = EXCLUDED.notes, status = EXCLUDED.status, student_name = EXCLUDED.student_name, " +
+                "actual_duration = EXCLUDED.actual_duration",
+            rows.map { session -> session.columns().toTypedArray() }
+        )
+    }
+
+    private fun SessionEntity.columns(): List<Any?> = listOf(
+        sessionId,
+        instructorId,
+        duration,
+        Timestamp.valueOf(sessionDate),
+        studentId,
+        notes,
+        status,
+        studentName,
+        actualDuration
+    )
+
+    private fun ResultSet.toSession(): SessionEntity = SessionEntity(
+        sessionId = getString("session_id"),
+        instructorId = getString("instructor_id"),
+        duration = getInt("duration"),
+        sessionDate = getTimestamp("session_date").toLocalDateTime(),
+        studentId = getString("student_id"),
+        notes = getString("notes"),
+        status = getString("status"),
+        studentName = getString("student_name"),
+        actualDuration = getObject("actual_duration", Integer::class.java)?.toInt()
+    )
+}
@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.session_management
 
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import io.axoniq.build.dance_test.session_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Session Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/sessions")
 class SessionManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(SessionManagementController::class.java)
@@ -29,20 +31,19 @@ class SessionManagementController(
     fun completeTrainingSession(
         @PathVariable sessionId: String,
         @RequestBody request: CompleteTrainingSessionRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = CompleteTrainingSession(
             sessionId = sessionId,
             actualDuration = request.actualDuration,
             notes = request.notes
         )
         logger.info("Dispatching CompleteTrainingSession command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Session completion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CompleteTrainingSession command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete training session")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Session completion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CompleteTrainingSession command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete training session"))
+            }
     }
 
     /**
@@ -53,20 +54,19 @@ class SessionManagementController(
     fun modifySessionDetails(
         @PathVariable sessionId: String,
         @RequestBody request: ModifySessionDetailsRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = ModifySessionDetails(
             sessionId = sessionId,
             newDuration = request.newDuration,
             newSessionDate = request.newSessionDate
         )
         logger.info("Dispatching ModifySessionDetails command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Session modification accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ModifySessionDetails command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to modify session details")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Session modification accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ModifySessionDetails command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to modify session details"))
+            }
     }
 
     /**
@@ -77,20 +77,19 @@ class SessionManagementController(
     fun markSessionAsNoShow(
         @PathVariable sessionId: String,
         @RequestBody request: MarkSessionAsNoShowRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = MarkSessionAsNoShow(
             sessionId = sessionId,
             reason = request.reason,
             chargeStudent = request.chargeStudent
         )
         logger.info("Dispatching MarkSessionAsNoShow command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("No-show marking accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch MarkSessionAsNoShow command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark session as no-show")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("No-show marking accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch MarkSessionAsNoShow command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to mark session as no-show"))
+            }
     }
 
     /**
@@ -101,20 +100,19 @@ class SessionManagementController(
     fun completeSessionWithReducedTime(
         @PathVariable sessionId: String,
         @RequestBody request: CompleteSessionWithReducedTimeRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = CompleteSessionWithReducedTime(
             sessionId = sessionId,
             actualDuration = request.actualDuration,
             notes = request.notes
         )
         logger.info("Dispatching CompleteSessionWithReducedTime command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Reduced time session completion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CompleteSessionWithReducedTime command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete session with reduced time")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Reduced time session completion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CompleteSessionWithReducedTime command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to complete session with reduced time"))
+            }
     }
 }
 
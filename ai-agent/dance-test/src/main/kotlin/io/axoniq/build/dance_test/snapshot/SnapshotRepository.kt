@@ -0,0 +1,42 @@
+package io.axoniq.build.dance_test.snapshot
+
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+import java.time.Instant
+
+/**
+ * Repository for entity snapshots.
+ */
+@Repository
+interface SnapshotRepository : JpaRepository<SnapshotEntity, SnapshotId> {
+
+    /**
+     * Inserts or replaces the snapshot for the given entity type and criteria. An existing snapshot is only
+     * replaced by one taken at a later position, so a slow writer never overwrites a newer snapshot.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "INSERT INTO entity_snapshots AS s " +
+            "(entity_type, criteria_hash, entity_id, criteria, position, payload, created_at) " +
+            "VALUES (:entityType, :criteriaHash, :entityId, :criteria, :position, :payload, :createdAt) " +
+            "ON CONFLICT (entity_type, criteria_hash) DO UPDATE " +
+            "SET entity_id = EXCLUDED.entity_id, criteria = EXCLUDED.criteria, position = EXCLUDED.position, " +
+            "payload = EXCLUDED.payload, created_at = EXCLUDED.created_at " +
+            "WHERE s.position < EXCLUDED.position",
+        nativeQuery = true
+    )
+    fun upsert(
+        @Param("entityType") entityType: String,
+        @Param("criteriaHash") criteriaHash: String,
+        @Param("entityId") entityId: String,
+        @Param("criteria") criteria: String,
+        @Param("position") position: Long,
+        @Param("payload") payload: String,
+        @Param("createdAt") createdAt: Instant
+    ): Int
+}
@@ -0,0 +1,113 @@
+package io.axoniq.build.dance_test.snapshot
+
+import org.axonframework.configuration.ComponentRegistry
+import org.axonframework.configuration.Configuration
+import org.axonframework.configuration.ConfigurationEnhancer
+import org.axonframework.eventhandling.conversion.EventConverter
+import org.axonframework.eventsourcing.annotations.AnnotationBasedEventCriteriaResolver
+import org.axonframework.eventsourcing.annotations.EventSourcedEntity
+import org.axonframework.eventsourcing.annotations.reflection.AnnotationBasedEventSourcedEntityFactory
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.messaging.MessageTypeResolver
+import org.axonframework.messaging.annotations.ParameterResolverFactory
+import org.axonframework.messaging.conversion.MessageConverter
+import org.axonframework.modelling.StateManager
+import org.axonframework.modelling.entity.annotations.AnnotatedEntityMetamodel
+import org.axonframework.modelling.repository.Repository
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.core.env.Environment
+import org.springframework.stereotype.Component
+
+/**
+ * Enables snapshotting and in-memory state caching for event-sourced entities.
+ *
+ * Decorates the [StateManager] so that the repository registered for an `@EventSourcedEntity` is replaced by a
+ * [SnapshottingEventSourcingRepository] built from the same annotated criteria, factory and evolver.
+ * Thresholds are read per entity from `dance-test.snapshots.thresholds.<EntitySimpleName>`, falling back
+ * to `dance-test.snapshots.default-threshold`; a threshold of zero leaves the entity without snapshots.
+ * Entity states are cached through the [EntityStateCache] unless `dance-test.entity-cache.enabled` is false.
+ */
+@Component
+class SnapshottingConfigurationEnhancer(
+    private val snapshotStore: ObjectProvider<SnapshotStore>,
+    private val stateCache: ObjectProvider<EntityStateCache>,
+    private val environment: Environment
+) : ConfigurationEnhancer {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(SnapshottingConfigurationEnhancer::class.java)
+        private const val PROPERTY_PREFIX = "dance-test.snapshots"
+    }
+
+    override fun enhance(registry: ComponentRegistry) {
+        registry.registerDecorator(StateManager::class.java, 0) { config, _, delegate ->
+            SnapshottingStateManager(delegate, config)
+        }
+    }
+
+    private fun cacheEnabled(): Boolean =
+        environment.getProperty("dance-test.entity-cache.enabled", Boolean::class.java, true)
+
+    internal fun thresholdFor(entityType: Class<*>): Int =
+        environment.getProperty("$PROPERTY_PREFIX.thresholds.${entityType.simpleName}", Int::class.java)
+            ?: environment.getProperty("$PROPERTY_PREFIX.default-threshold", Int::class.java, 0)
+
+    private inner class SnapshottingStateManager(
+        private val delegate: StateManager,
+        private val config: Configuration
+    ) : StateManager {
+
+        override fun <ID, T> register(repository: Repository<ID, T>): StateManager {
+            val entityType = repository.entityType()
+            val threshold = thresholdFor(entityType)
+            val cache = stateCache.getObject().takeIf { cacheEnabled() && it.enabled }
+            if ((threshold <= 0 && cache == null) || !entityType.isAnnotationPresent(EventSourcedEntity::class.java)) {
+                delegate.register(repository)
+                return this
+            }
+            logger.info(
+                "Sourcing {} with snapshots every {} events, state cache {}",
+                entityType.simpleName, threshold, if (cache != null) "enabled" else "disabled"
+            )
+            delegate.register(snapshottingRepository(repository.idType(), entityType, threshold, cache))
+            return this
+        }
+
+        private fun <ID, T> snapshottingRepository(idType: Class<ID>, entityType: Class<T>, threshold: Int, cache: EntityStateCache?): Repository<ID, T> {
+            val parameterResolverFactory = config.getComponent(ParameterResolverFactory::class.java)
+            val messageTypeResolver = config.getComponent(MessageTypeResolver::class.java)
+            val eventConverter = config.getComponent(EventConverter::class.java)
+            @Suppress("UNCHECKED_CAST")
+            return SnapshottingEventSourcingRepository(
+                idType as Class<Any>,
+                entityType,
+                config.getComponent(EventStore::class.java),
+                AnnotationBasedEventSourcedEntityFactory(entityType, idType, parameterResolverFactory, messageTypeResolver, eventConverter),
+                AnnotationBasedEventCriteriaResolver(entityType, idType, config),
+                AnnotatedEntityMetamodel.forConcreteType(
+                    entityType,
+                    parameterResolverFactory,
+                    messageTypeResolver,
+                    config.getComponent(MessageConverter::class.java),
+                    eventConverter
+                ),
+                snapshotStore.getObject(),
+                threshold,
+                cache
+            ) as Repository<ID, T>
+        }
+
+        override fun <ID, T> loadManagedEntity(type: Class<T>, id: ID, context: ProcessingContext) =
+            delegate.loadManagedEntity(type, id, context)
+
+        override fun registeredEntities(): Set<Class<*>> = delegate.registeredEntities()
+
+        override fun registeredIdsFor(type: Class<*>): Set<Class<*>> = delegate.registeredIdsFor(type)
+
+        override fun <ID, T> repository(type: Class<T>, idType: Class<ID>): Repository<ID, T>? =
+            delegate.repository(type, idType)
+    }
+}
@@ -1,12 +1,14 @@
 package io.axoniq.build.dance_test.student_management
 
+import io.axoniq.build.dance_test.command.ReactiveCommandDispatcher
 import io.axoniq.build.dance_test.student_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Student Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/student-management")
 class StudentManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(StudentManagementController::class.java)
@@ -25,7 +27,7 @@ class StudentManagementController(
      * Endpoint to create a new student profile.
      */
     @PostMapping("/students")
-    fun createStudentProfile(@RequestBody request: CreateStudentProfileRequest): ResponseEntity<String> {
+    fun createStudentProfile(@RequestBody request: CreateStudentProfileRequest): Mono<ResponseEntity<String>> {
         val command = CreateStudentProfile(
             instructorId = request.instructorId,
             name = request.name,
@@ -33,13 +35,12 @@ class StudentManagementController(
             phone = request.phone
         )
         logger.info("Dispatching CreateStudentProfile command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Student profile creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateStudentProfile command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create student profile")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Student profile creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateStudentProfile command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create student profile"))
+            }
     }
 
     /**
@@ -49,19 +50,18 @@ class StudentManagementController(
     fun deleteStudentProfile(
         @PathVariable studentId: String,
         @RequestBody request: DeleteStudentProfileRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = DeleteStudentProfile(
             instructorId = request.instructorId,
             studentId = studentId
         )
         logger.info("Dispatching DeleteStudentProfile command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Student profile deletion accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch DeleteStudentProfile command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete student profile")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Student profile deletion accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch DeleteStudentProfile command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to delete student profile"))
+            }
     }
 }
 
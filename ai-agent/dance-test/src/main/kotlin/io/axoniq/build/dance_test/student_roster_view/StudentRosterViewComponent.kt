@@ -1,7 +1,9 @@
 package io.axoniq.build.dance_test.student_roster_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.student_roster_view.api.*
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -15,11 +17,17 @@ import java.time.LocalDate
  */
 @Component
 class StudentRosterViewComponent(
-    private val studentRosterRepository: StudentRosterRepository
+    private val studentRosterRepository: StudentRosterRepository,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(StudentRosterViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "student-roster-view"
     }
 
     /**
@@ -96,8 +104,9 @@ class StudentRosterViewComponent(
      * Event handler for StudentProfileCreated - creates a new student entry in the view.
      */
     @EventHandler
-    fun on(event: StudentProfileCreated) {
+    fun on(event: StudentProfileCreated, processingContext: ProcessingContext) {
         logger.info("Handling StudentProfileCreated event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val entity = StudentRosterEntity(
             studentId = event.studentId,
@@ -120,8 +129,9 @@ class StudentRosterViewComponent(
      * Event handler for SessionScheduled - updates last booking date when a session is scheduled.
      */
     @EventHandler
-    fun on(event: SessionScheduled) {
+    fun on(event: SessionScheduled, processingContext: ProcessingContext) {
         logger.info("Handling SessionScheduled event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -137,8 +147,9 @@ class StudentRosterViewComponent(
      * Event handler for LessonBalanceIncreasedFromPackage - increases lesson balance.
      */
     @EventHandler
-    fun on(event: LessonBalanceIncreasedFromPackage) {
+    fun on(event: LessonBalanceIncreasedFromPackage, processingContext: ProcessingContext) {
         logger.info("Handling LessonBalanceIncreasedFromPackage event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -153,8 +164,9 @@ class StudentRosterViewComponent(
      * Event handler for PaymentRecorded - updates total lifetime payments.
      */
     @EventHandler
-    fun on(event: PaymentRecorded) {
+    fun on(event: PaymentRecorded, processingContext: ProcessingContext) {
         logger.info("Handling PaymentRecorded event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -169,8 +181,9 @@ class StudentRosterViewComponent(
      * Event handler for MonetaryBalanceIncreasedFromPayment - increases monetary balance.
      */
     @EventHandler
-    fun on(event: MonetaryBalanceIncreasedFromPayment) {
+    fun on(event: MonetaryBalanceIncreasedFromPayment, processingContext: ProcessingContext) {
         logger.info("Handling MonetaryBalanceIncreasedFromPayment event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -185,8 +198,9 @@ class StudentRosterViewComponent(
      * Event handler for BookingAccessStatusUpdated - updates booking access status.
      */
     @EventHandler
-    fun on(event: BookingAccessStatusUpdated) {
+    fun on(event: BookingAccessStatusUpdated, processingContext: ProcessingContext) {
         logger.info("Handling BookingAccessStatusUpdated event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -201,8 +215,9 @@ class StudentRosterViewComponent(
      * Event handler for LessonBalanceDecreasedFromSession - decreases lesson balance.
      */
     @EventHandler
-    fun on(event: LessonBalanceDecreasedFromSession) {
+    fun on(event: LessonBalanceDecreasedFromSession, processingContext: ProcessingContext) {
         logger.info("Handling LessonBalanceDecreasedFromSession event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val entity = studentRosterRepository.findById(event.studentId)
         if (entity.isPresent) {
@@ -217,8 +232,9 @@ class StudentRosterViewComponent(
      * Event handler for StudentProfileDeleted - removes student from the view.
      */
     @EventHandler
-    fun on(event: StudentProfileDeleted) {
+    fun on(event: StudentProfileDeleted, processingContext: ProcessingContext) {
         logger.info("Handling StudentProfileDeleted event for studentId: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
         
         studentRosterRepository.deleteById(event.studentId)
     }
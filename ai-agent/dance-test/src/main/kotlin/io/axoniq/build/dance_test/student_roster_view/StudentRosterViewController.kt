@@ -1,9 +1,12 @@
 package io.axoniq.build.dance_test.student_roster_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.student_roster_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +17,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/student-roster")
 class StudentRosterViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -25,20 +29,30 @@ class StudentRosterViewController(
      * GET endpoint to retrieve basic student details by student ID.
      */
     @GetMapping("/student/{studentId}")
-    fun getStudentDetails(@PathVariable studentId: String): CompletableFuture<StudentDetailsData> {
+    fun getStudentDetails(
+        @PathVariable studentId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<StudentDetailsData>> {
         logger.info("REST request for student details, studentId: $studentId")
-        val query = StudentDetails(studentId)
-        return queryGateway.query(query, StudentDetailsData::class.java, null)
+        return projectionVersions.conditionalGet(StudentRosterViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = StudentDetails(studentId)
+            queryGateway.query(query, StudentDetailsData::class.java, null)
+        }
     }
 
     /**
      * GET endpoint to retrieve student roster for a specific instructor.
      */
     @GetMapping("/instructor/{instructorId}")
-    fun getStudentRoster(@PathVariable instructorId: String): CompletableFuture<StudentRosterData> {
+    fun getStudentRoster(
+        @PathVariable instructorId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<StudentRosterData>> {
         logger.info("REST request for student roster, instructorId: $instructorId")
-        val query = StudentRoster(instructorId)
-        return queryGateway.query(query, StudentRosterData::class.java, null)
+        return projectionVersions.conditionalGet(StudentRosterViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = StudentRoster(instructorId)
+            queryGateway.query(query, StudentRosterData::class.java, null)
+        }
     }
 
     /**
@@ -47,10 +61,13 @@ class StudentRosterViewController(
     @GetMapping("/instructor/{instructorId}/student/{studentId}")
     fun getDetailedStudentInformation(
         @PathVariable instructorId: String,
-        @PathVariable studentId: String
-    ): CompletableFuture<DetailedStudentData> {
+        @PathVariable studentId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<DetailedStudentData>> {
         logger.info("REST request for detailed student information, instructorId: $instructorId, studentId: $studentId")
-        val query = DetailedStudentInformation(instructorId, studentId)
-        return queryGateway.query(query, DetailedStudentData::class.java, null)
+        return projectionVersions.conditionalGet(StudentRosterViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DetailedStudentInformation(instructorId, studentId)
+            queryGateway.query(query, DetailedStudentData::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -1,30 +1,49 @@
 package io.axoniq.build.dance_test.transaction_history_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.transaction_history_view.api.*
 import io.axoniq.build.dance_test.transaction_history_view.entity.SessionEntity
 import io.axoniq.build.dance_test.transaction_history_view.entity.TransactionEntity
 import io.axoniq.build.dance_test.transaction_history_view.repository.SessionRepository
 import io.axoniq.build.dance_test.transaction_history_view.repository.TransactionRepository
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.annotations.Timestamp
+import org.axonframework.eventhandling.replay.annotations.ResetHandler
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
+import org.springframework.transaction.annotation.Transactional
+import java.time.Instant
 import java.time.LocalDate
-import java.time.LocalDateTime
-import java.util.*
+import java.time.ZoneId
 
 /**
  * Transaction History View component that handles transaction and session history queries.
  * Maintains read models for financial transactions and student session data.
+ *
+ * Every event handler is idempotent, so redelivered and replayed events leave the read model unchanged.
+ * A transaction row is keyed by the identifier of the event that recorded it and dated by the event, not by
+ * the time it was projected, and it is inserted only if absent. On top of that, [TransactionHistoryWatermark]
+ * skips events the view already applied without touching the read model at all. The idempotency of this view is
+ * owned by the watermark and the event keys alone, not by the per-event records of the delta projections.
  */
 @Component
 class TransactionHistoryViewComponent(
     private val transactionRepository: TransactionRepository,
-    private val sessionRepository: SessionRepository
+    private val sessionRepository: SessionRepository,
+    private val watermark: TransactionHistoryWatermark,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TransactionHistoryViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "transaction-history-view"
     }
 
     /**
@@ -116,24 +135,37 @@ class TransactionHistoryViewComponent(
         )
     }
 
+    /**
+     * Reset handler clearing the processed-position watermark, which would otherwise skip the replayed events.
+     * The rows of the read model are kept: they are keyed by event, so the replay inserts none of them twice.
+     */
+    @ResetHandler
+    @Transactional
+    fun onReset() {
+        logger.info("Resetting the Transaction History View watermark")
+        watermark.clear()
+    }
+
     /**
      * Event handler for TransactionRecordCreated events.
      * Creates a new transaction record in the read model.
      */
     @EventHandler
-    fun on(event: TransactionRecordCreated) {
+    @Transactional
+    fun on(event: TransactionRecordCreated, @Timestamp timestamp: Instant, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling TransactionRecordCreated event for student: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val transaction = TransactionEntity(
-            transactionId = UUID.randomUUID().toString(),
-            studentId = event.studentId,
-            transactionType = event.transactionType,
-            amount = event.amount,
-            description = event.description,
-            transactionDate = LocalDate.now()
+        insertTransaction(
+            TransactionEntity(
+                transactionId = transactionId(processingContext),
+                studentId = event.studentId,
+                transactionType = event.transactionType,
+                amount = event.amount,
+                description = event.description,
+                transactionDate = timestamp.atZone(ZoneId.systemDefault()).toLocalDate()
+            )
         )
-
-        transactionRepository.save(transaction)
     }
 
     /**
@@ -141,19 +173,21 @@ class TransactionHistoryViewComponent(
      * Creates a payment transaction record in the read model.
      */
     @EventHandler
-    fun on(event: PaymentRecorded) {
+    @Transactional
+    fun on(event: PaymentRecorded, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling PaymentRecorded event for student: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val transaction = TransactionEntity(
-            transactionId = UUID.randomUUID().toString(),
-            studentId = event.studentId,
-            transactionType = "PAYMENT",
-            amount = event.amount,
-            description = "Payment via ${event.paymentMethod}",
-            transactionDate = event.paymentDate
+        insertTransaction(
+            TransactionEntity(
+                transactionId = transactionId(processingContext),
+                studentId = event.studentId,
+                transactionType = "PAYMENT",
+                amount = event.amount,
+                description = "Payment via ${event.paymentMethod}",
+                transactionDate = event.paymentDate
+            )
         )
-
-        transactionRepository.save(transaction)
     }
 
     /**
@@ -161,19 +195,21 @@ class TransactionHistoryViewComponent(
      * Creates a balance adjustment transaction record in the read model.
      */
     @EventHandler
-    fun on(event: BalanceAdjustmentRecorded) {
+    @Transactional
+    fun on(event: BalanceAdjustmentRecorded, @Timestamp timestamp: Instant, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling BalanceAdjustmentRecorded event for student: ${event.studentId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
-        val transaction = TransactionEntity(
-            transactionId = UUID.randomUUID().toString(),
-            studentId = event.studentId,
-            transactionType = "ADJUSTMENT",
-            amount = event.adjustmentAmount,
-            description = event.adjustmentReason,
-            transactionDate = LocalDate.now()
+        insertTransaction(
+            TransactionEntity(
+                transactionId = transactionId(processingContext),
+                studentId = event.studentId,
+                transactionType = "ADJUSTMENT",
+                amount = event.adjustmentAmount,
+                description = event.adjustmentReason,
+                transactionDate = timestamp.atZone(ZoneId.systemDefault()).toLocalDate()
+            )
         )
-
-        transactionRepository.save(transaction)
     }
 
     /**
@@ -181,8 +217,10 @@ class TransactionHistoryViewComponent(
      * Creates a new session record in the read model.
      */
     @EventHandler
-    fun on(event: SessionScheduled) {
+    @Transactional
+    fun on(event: SessionScheduled, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling SessionScheduled event for session: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val session = SessionEntity(
             sessionId = event.sessionId,
@@ -203,8 +241,10 @@ class TransactionHistoryViewComponent(
      * Updates session record with completion data.
      */
     @EventHandler
-    fun on(event: SessionCompleted) {
+    @Transactional
+    fun on(event: SessionCompleted, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling SessionCompleted event for session: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         sessionRepository.findById(event.sessionId).ifPresent { session ->
             val updatedSession = session.copy(
@@ -220,8 +260,10 @@ class TransactionHistoryViewComponent(
      * Updates session record with cancellation status.
      */
     @EventHandler
-    fun on(event: SessionCancelled) {
+    @Transactional
+    fun on(event: SessionCancelled, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling SessionCancelled event for session: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         sessionRepository.findById(event.sessionId).ifPresent { session ->
             val updatedSession = session.copy(
@@ -237,8 +279,10 @@ class TransactionHistoryViewComponent(
      * Updates session record with no-show status and reason.
      */
     @EventHandler
-    fun on(event: SessionMarkedAsNoShow) {
+    @Transactional
+    fun on(event: SessionMarkedAsNoShow, processingContext: ProcessingContext) = watermark.applyOnce(processingContext) {
         logger.info("Handling SessionMarkedAsNoShow event for session: ${event.sessionId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         sessionRepository.findById(event.sessionId).ifPresent { session ->
             val updatedSession = session.copy(
@@ -248,5 +292,24 @@ class TransactionHistoryViewComponent(
             sessionRepository.save(updatedSession)
         }
     }
-}
 
+    /**
+     * Identifier of the event being handled, which keys the transaction it records. A random key would turn
+     * every redelivery of the event into another transaction, so handling it without its message fails.
+     */
+    private fun transactionId(processingContext: ProcessingContext): String =
+        checkNotNull(Message.fromContext(processingContext)) {
+            "No event message in the processing context to key the transaction by"
+        }.identifier()
+
+    private fun insertTransaction(transaction: TransactionEntity) {
+        transactionRepository.insertIfAbsent(
+            transaction.transactionId,
+            transaction.studentId,
+            transaction.transactionType,
+            transaction.amount,
+            transaction.description,
+            transaction.transactionDate
+        )
+    }
+}
@@ -1,9 +1,12 @@
 package io.axoniq.build.dance_test.transaction_history_view
 
+import io.axoniq.build.dance_test.query.ProjectionVersions
 import io.axoniq.build.dance_test.transaction_history_view.api.*
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.time.LocalDate
 import java.util.concurrent.CompletableFuture
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/transaction-history")
 class TransactionHistoryViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(TransactionHistoryViewController::class.java)
@@ -30,18 +34,20 @@ class TransactionHistoryViewController(
         @PathVariable studentId: String,
         @RequestParam(required = false) transactionType: String?,
         @RequestParam(required = false) startDate: LocalDate?,
-        @RequestParam(required = false) endDate: LocalDate?
-    ): CompletableFuture<TransactionHistoryData> {
+        @RequestParam(required = false) endDate: LocalDate?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<TransactionHistoryData>> {
         logger.info("REST request for transaction history - Student: $studentId, Type: $transactionType, Start: $startDate, End: $endDate")
-        
-        val query = TransactionHistory(
-            studentId = studentId,
-            transactionType = transactionType,
-            startDate = startDate,
-            endDate = endDate
-        )
-        
-        return queryGateway.query(query, TransactionHistoryData::class.java, null)
+        return projectionVersions.conditionalGet(TransactionHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = TransactionHistory(
+                studentId = studentId,
+                transactionType = transactionType,
+                startDate = startDate,
+                endDate = endDate
+            )
+
+            queryGateway.query(query, TransactionHistoryData::class.java, null)
+        }
     }
 
     /**
@@ -52,16 +58,18 @@ class TransactionHistoryViewController(
     fun getStudentSessionHistory(
         @PathVariable studentId: String,
         @RequestParam(required = false) startDate: LocalDate?,
-        @RequestParam(required = false) endDate: LocalDate?
-    ): CompletableFuture<StudentSessionHistoryData> {
+        @RequestParam(required = false) endDate: LocalDate?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<StudentSessionHistoryData>> {
         logger.info("REST request for session history - Student: $studentId, Start: $startDate, End: $endDate")
+        return projectionVersions.conditionalGet(TransactionHistoryViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = StudentSessionHistory(
+                studentId = studentId,
+                startDate = startDate,
+                endDate = endDate
+            )
 
-        val query = StudentSessionHistory(
-            studentId = studentId,
-            startDate = startDate,
-            endDate = endDate
-        )
-
-        return queryGateway.query(query, StudentSessionHistoryData::class.java, null)
+            queryGateway.query(query, StudentSessionHistoryData::class.java, null)
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package io.axoniq.build.dance_test.transaction_history_view
+
+import io.axoniq.build.dance_test.projection.EventPositions
+import io.axoniq.build.dance_test.transaction_history_view.entity.ProcessedPositionId
+import io.axoniq.build.dance_test.transaction_history_view.repository.ProcessedPositionRepository
+import org.axonframework.eventhandling.processors.streaming.segmenting.Segment
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.springframework.stereotype.Component
+
+/**
+ * Processed-position watermark of the Transaction History View.
+ *
+ * The watermark of a segment is read once per batch of events and written once, when the batch commits,
+ * after the rows the batch wrote. Events at or before it were applied by an earlier batch and are skipped
+ * without touching the read model, so replays and retried batches only cost the events that are new.
+ * A batch that fails between writing its rows and advancing the watermark is applied again, which the
+ * idempotent writes of the view make harmless; the same holds for events delivered without a tracking
+ * token or segment, which are always applied.
+ *
+ * The watermark is what makes this view idempotent, together with the event-keyed rows it writes; the view does
+ * not record its events in [io.axoniq.build.dance_test.projection.ProcessedEvents]. A reset of the view's
+ * processor moves its tokens back, so the watermarks are cleared with it, see [clear].
+ */
+@Component
+class TransactionHistoryWatermark(
+    private val processedPositionRepository: ProcessedPositionRepository
+) {
+
+    private class BatchWatermark(val segment: Segment, var position: Long, var advanced: Boolean = false)
+
+    private val batchWatermarkKey = Context.ResourceKey.withLabel<BatchWatermark>("transactionHistoryWatermark")
+
+    /**
+     * Runs [apply] unless the event being handled was already applied.
+     */
+    fun applyOnce(processingContext: ProcessingContext, apply: () -> Unit) {
+        val position = EventPositions.of(processingContext)
+        val segment = Segment.fromContext(processingContext).orElse(null)
+        if (position == null || segment == null) {
+            apply()
+            return
+        }
+        val watermark = batchWatermark(processingContext, segment)
+        if (position <= watermark.position) {
+            return
+        }
+        apply()
+        watermark.position = position
+        watermark.advanced = true
+    }
+
+    /**
+     * Forgets the watermarks of all segments, so the events replayed after a reset are applied again.
+     */
+    fun clear() {
+        processedPositionRepository.deleteAllInBatch()
+    }
+
+    private fun batchWatermark(processingContext: ProcessingContext, segment: Segment): BatchWatermark {
+        processingContext.getResource(batchWatermarkKey)?.let { return it }
+        val stored = processedPositionRepository.findById(ProcessedPositionId(segment.segmentId, segment.mask))
+            .map { it.lastPosition }
+            .orElse(-1)
+        val watermark = BatchWatermark(segment, stored)
+        processingContext.putResource(batchWatermarkKey, watermark)
+        processingContext.runOnPrepareCommit {
+            if (watermark.advanced) {
+                processedPositionRepository.advance(segment.segmentId, segment.mask, watermark.position)
+            }
+        }
+        return watermark
+    }
+}
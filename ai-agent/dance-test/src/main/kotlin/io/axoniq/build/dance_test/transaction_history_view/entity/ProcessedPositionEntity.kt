@@ -0,0 +1,33 @@
+package io.axoniq.build.dance_test.transaction_history_view.entity
+
+import jakarta.persistence.*
+import java.io.Serializable
+
+/**
+ * Composite key of a processed-position watermark: the segment of the event processor, identified by
+ * its ID and mask, since segments are split and merged over time.
+ */
+data class ProcessedPositionId(
+    val segmentId: Int = 0,
+    val segmentMask: Int = 0
+) : Serializable
+
+/**
+ * JPA entity recording the position of the last event the Transaction History View applied in one segment.
+ * Events at or before that position were already applied and are skipped when redelivered or replayed.
+ */
+@Entity
+@Table(name = "transaction_history_processed_positions")
+@IdClass(ProcessedPositionId::class)
+data class ProcessedPositionEntity(
+    @Id
+    @Column(name = "segment_id")
+    val segmentId: Int = 0,
+
+    @Id
+    @Column(name = "segment_mask")
+    val segmentMask: Int = 0,
+
+    @Column(name = "last_position", nullable = false)
+    val lastPosition: Long = -1
+)
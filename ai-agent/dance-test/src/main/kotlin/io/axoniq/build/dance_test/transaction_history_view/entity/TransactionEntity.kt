@@ -8,7 +8,10 @@ import java.time.LocalDate
  * Stores all financial transactions including payments, charges, and balance adjustments.
  */
 @Entity
-@Table(name = "transactions")
+@Table(
+    name = "transactions",
+    indexes = [Index(name = "idx_transactions_student_date", columnList = "student_id, transaction_date")]
+)
 data class TransactionEntity(
     @Id
     @Column(name = "transaction_id")
@@ -0,0 +1,35 @@
+package io.axoniq.build.dance_test.transaction_history_view.repository
+
+import io.axoniq.build.dance_test.transaction_history_view.entity.ProcessedPositionEntity
+import io.axoniq.build.dance_test.transaction_history_view.entity.ProcessedPositionId
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+
+/**
+ * JPA repository for the processed-position watermarks of the Transaction History View component.
+ */
+@Repository
+interface ProcessedPositionRepository : JpaRepository<ProcessedPositionEntity, ProcessedPositionId> {
+
+    /**
+     * Moves the watermark of the segment forward to [position]; a watermark is never moved back.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "INSERT INTO transaction_history_processed_positions AS p (segment_id, segment_mask, last_position) " +
+            "VALUES (:segmentId, :segmentMask, :position) " +
+            "ON CONFLICT (segment_id, segment_mask) DO UPDATE " +
+            "SET last_position = GREATEST(p.last_position, EXCLUDED.last_position)",
+        nativeQuery = true
+    )
+    fun advance(
+        @Param("segmentId") segmentId: Int,
+        @Param("segmentMask") segmentMask: Int,
+        @Param("position") position: Long
+    ): Int
+}
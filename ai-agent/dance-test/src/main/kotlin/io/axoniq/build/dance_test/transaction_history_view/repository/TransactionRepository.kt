@@ -2,7 +2,11 @@ package io.axoniq.build.dance_test.transaction_history_view.repository
 
 import io.axoniq.build.dance_test.transaction_history_view.entity.TransactionEntity
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
 import java.time.LocalDate
 
 /**
@@ -43,5 +47,24 @@ interface TransactionRepository : JpaRepository<TransactionEntity, String> {
      * Find all transactions by student ID.
      */
     fun findByStudentIdOrderByTransactionDateDesc(studentId: String): List<TransactionEntity>
-}
 
+    /**
+     * Inserts a transaction unless one with the same ID exists, which makes recording it idempotent.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "INSERT INTO transactions (transaction_id, student_id, transaction_type, amount, description, transaction_date) " +
+            "VALUES (:transactionId, :studentId, :transactionType, :amount, :description, :transactionDate) " +
+            "ON CONFLICT (transaction_id) DO NOTHING",
+        nativeQuery = true
+    )
+    fun insertIfAbsent(
+        @Param("transactionId") transactionId: String,
+        @Param("studentId") studentId: String,
+        @Param("transactionType") transactionType: String,
+        @Param("amount") amount: Double,
+        @Param("description") description: String,
+        @Param("transactionDate") transactionDate: LocalDate
+    ): Int
+}
@@ -0,0 +1,84 @@
+package io.axoniq.build.dance_test.projection
+
+import jakarta.persistence.EntityManager
+import jakarta.persistence.TypedQuery
+import org.axonframework.eventhandling.processors.streaming.token.GlobalSequenceTrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.store.jpa.JpaTokenStore
+import org.axonframework.eventhandling.processors.streaming.token.store.jpa.TokenEntry
+import org.axonframework.serialization.Serializer
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.SimpleTransactionStatus
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+
+/**
+ * Test class for the pruning of processed events below the committed tokens
+ */
+class ProcessedEventsPrunerTest {
+
+    private val serializer = mock(Serializer::class.java)
+    private val tokenStore = mock(JpaTokenStore::class.java)
+    private val entityManager = mock(EntityManager::class.java)
+    private val repository = mock(ProcessedEventRepository::class.java)
+    private val processedEvents = ProcessedEvents(repository)
+
+    private val transactionManager = mock(PlatformTransactionManager::class.java).also {
+        `when`(it.getTransaction(any())).thenReturn(SimpleTransactionStatus())
+    }
+    private val pruner = ProcessedEventsPruner(
+        processedEvents, repository, tokenStore, entityManager, TransactionTemplate(transactionManager), Duration.ofMinutes(10)
+    )
+
+    init {
+        `when`(tokenStore.serializer()).thenReturn(serializer)
+        processedEvents.register("Dashboard", "io.axoniq.build.dance_test.dashboard")
+    }
+
+    private fun tokens(vararg tokens: TrackingToken?) {
+        val entries = tokens.map { token ->
+            mock(TokenEntry::class.java).also { `when`(it.getToken(serializer)).thenReturn(token) }
+        }
+        @Suppress("UNCHECKED_CAST")
+        val query = mock(TypedQuery::class.java) as TypedQuery<TokenEntry>
+        `when`(entityManager.createQuery(anyString(), eq(TokenEntry::class.java))).thenReturn(query)
+        `when`(query.setParameter("processorName", "io.axoniq.build.dance_test.dashboard")).thenReturn(query)
+        `when`(query.resultList).thenReturn(entries)
+    }
+
+    @Test
+    fun `given segments at different positions, when pruned, then records before the slowest segment are deleted`() {
+        tokens(GlobalSequenceTrackingToken(120), GlobalSequenceTrackingToken(45))
+
+        pruner.prune()
+
+        verify(repository).deleteBefore("Dashboard", 45)
+    }
+
+    @Test
+    fun `given a segment without a token, when pruned, then nothing is deleted`() {
+        tokens(GlobalSequenceTrackingToken(120), null)
+
+        pruner.prune()
+
+        verify(repository, never()).deleteBefore(anyString(), anyLong())
+    }
+
+    @Test
+    fun `given a processor without segments, when pruned, then nothing is deleted`() {
+        tokens()
+
+        pruner.prune()
+
+        verify(repository, never()).deleteBefore(anyString(), anyLong())
+    }
+}
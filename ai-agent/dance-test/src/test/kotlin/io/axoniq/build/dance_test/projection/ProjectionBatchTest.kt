@@ -0,0 +1,106 @@
+package io.axoniq.build.dance_test.projection
+
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.util.function.Consumer
+
+/**
+ * Test class for the projection batches that coalesce event handler writes
+ */
+class ProjectionBatchTest {
+
+    private data class Counter(val id: String, val value: Int)
+
+    private class CounterTable(vararg existing: Counter) : BatchedTable<String, Counter>("counters") {
+        val stored = existing.associateBy { it.id }.toMutableMap()
+        val loads = mutableListOf<Collection<String>>()
+        val upserts = mutableListOf<Collection<Counter>>()
+
+        override fun idOf(row: Counter): String = row.id
+
+        override fun load(ids: Collection<String>): List<Counter> {
+            loads += ids
+            return ids.mapNotNull(stored::get)
+        }
+
+        override fun upsert(rows: Collection<Counter>) {
+            upserts += rows
+            rows.forEach { stored[it.id] = it }
+        }
+    }
+
+    @Test
+    fun `given several updates of one row, when flushing, then the row is read once and written once`() {
+        val table = CounterTable(Counter("a", 0))
+        val batch = ProjectionBatch(table)
+
+        repeat(5) { batch.update("a") { it.copy(value = it.value + 1) } }
+
+        assertThat(batch.flush()).isEqualTo(1)
+        assertThat(table.loads).hasSize(1)
+        assertThat(table.upserts.single()).containsExactly(Counter("a", 5))
+    }
+
+    @Test
+    fun `given prefetched rows, when updating them, then they are read in one query and missing rows are not reread`() {
+        val table = CounterTable(Counter("a", 1), Counter("b", 2))
+        val batch = ProjectionBatch(table)
+
+        batch.prefetch(listOf("a", "b", "missing"))
+        batch.update("a") { it.copy(value = 10) }
+        batch.update("b") { it.copy(value = 20) }
+        val missing = batch.update("missing") { it.copy(value = 30) }
+
+        assertThat(missing).isNull()
+        assertThat(table.loads).containsExactly(listOf("a", "b", "missing"))
+        batch.flush()
+        assertThat(table.upserts.single()).containsExactly(Counter("a", 10), Counter("b", 20))
+    }
+
+    @Test
+    fun `given a flushed row, when reading it again, then it is served from the batch`() {
+        val table = CounterTable(Counter("a", 1))
+        val batch = ProjectionBatch(table)
+
+        batch.update("a") { it.copy(value = 2) }
+        batch.flush()
+
+        assertThat(batch.find("a")).isEqualTo(Counter("a", 2))
+        assertThat(batch.pendingWrites).isZero()
+        assertThat(table.loads).hasSize(1)
+    }
+
+    @Test
+    fun `given no changes, when flushing, then nothing is written`() {
+        val table = CounterTable(Counter("a", 1))
+        val batch = ProjectionBatch(table)
+
+        batch.find("a")
+
+        assertThat(batch.flush()).isZero()
+        assertThat(table.upserts).isEmpty()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    @Test
+    fun `given a processing context, when getting the batch, then one batch is created and flushed on prepare commit`() {
+        val table = CounterTable()
+        val processingContext = mock(ProcessingContext::class.java)
+
+        val batch = table.batch(processingContext)
+        `when`(processingContext.getResource(table.batchKey)).thenReturn(batch)
+        batch.save(Counter("a", 1))
+
+        assertThat(table.batch(processingContext)).isSameAs(batch)
+        val prepareCommit = ArgumentCaptor.forClass(Consumer::class.java) as ArgumentCaptor<Consumer<ProcessingContext>>
+        verify(processingContext, times(1)).runOnPrepareCommit(prepareCommit.capture())
+        prepareCommit.value.accept(processingContext)
+        assertThat(table.stored).containsEntry("a", Counter("a", 1))
+    }
+}
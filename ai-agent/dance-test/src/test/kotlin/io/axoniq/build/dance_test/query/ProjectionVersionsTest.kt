@@ -0,0 +1,168 @@
+package io.axoniq.build.dance_test.query
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.http.HttpStatus
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Test class for answering query endpoints conditionally with read model versions
+ */
+class ProjectionVersionsTest {
+
+    private data class Row(val id: String, val version: Long)
+
+    private val projectionVersions = ProjectionVersions(100, Duration.ofMinutes(1))
+    private val queries = AtomicInteger()
+
+    private fun query(row: Row): () -> CompletableFuture<Row> = {
+        queries.incrementAndGet()
+        CompletableFuture.completedFuture(row)
+    }
+
+    @Test
+    fun `given an If-None-Match header, when matched, then strong, weak and wildcard tags match the version`() {
+        assertThat(ProjectionVersions.matches("\"3\"", 3)).isTrue()
+        assertThat(ProjectionVersions.matches("W/\"3\"", 3)).isTrue()
+        assertThat(ProjectionVersions.matches("\"1\", W/\"3\"", 3)).isTrue()
+        assertThat(ProjectionVersions.matches("*", 3)).isTrue()
+        assertThat(ProjectionVersions.matches("\"2\"", 3)).isFalse()
+        assertThat(ProjectionVersions.matches(null, 3)).isFalse()
+    }
+
+    @Test
+    fun `given no remembered version, when requested, then the result is served with its version as ETag`() {
+        val response = projectionVersions.conditionalGet("row-1", null, Row::version, query(Row("row-1", 4))).join()
+
+        assertThat(response.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(response.headers.eTag).isEqualTo("\"4\"")
+        assertThat(response.headers.cacheControl).isEqualTo("no-cache")
+        assertThat(response.body).isEqualTo(Row("row-1", 4))
+        assertThat(projectionVersions.current("row-1")).isEqualTo(4)
+    }
+
+    @Test
+    fun `given a remembered version, when requested with a matching tag, then 304 is answered before the query`() {
+        projectionVersions.advance("row-1", 4)
+
+        val response = projectionVersions.conditionalGet("row-1", "W/\"4\"", Row::version, query(Row("row-1", 4))).join()
+
+        assertThat(response.statusCode).isEqualTo(HttpStatus.NOT_MODIFIED)
+        assertThat(response.headers.eTag).isEqualTo("\"4\"")
+        assertThat(response.body).isNull()
+        assertThat(queries.get()).isZero()
+    }
+
+    @Test
+    fun `given a remembered version, when requested with a wildcard, then 304 is answered before the query`() {
+        projectionVersions.advance("row-1", 4)
+
+        val response = projectionVersions.conditionalGet("row-1", "*", Row::version, query(Row("row-1", 4))).join()
+
+        assertThat(response.statusCode).isEqualTo(HttpStatus.NOT_MODIFIED)
+        assertThat(queries.get()).isZero()
+    }
+
+    @Test
+    fun `given an unknown version, when the queried result matches the tag, then 304 is answered without a body`() {
+        val response = projectionVersions.conditionalGet("row-1", "\"4\"", Row::version, query(Row("row-1", 4))).join()
+
+        assertThat(response.statusCode).isEqualTo(HttpStatus.NOT_MODIFIED)
+        assertThat(response.body).isNull()
+        assertThat(queries.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun `given an advanced version, when requested with the old tag, then the newer result is served`() {
+        projectionVersions.advance("row-1", 4)
+        projectionVersions.advance("row-1", 5)
+        projectionVersions.advance("row-1", 3)
+
+        val response = projectionVersions.conditionalGet("row-1", "\"4\"", Row::version, query(Row("row-1", 5))).join()
+
+        assertThat(response.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(response.headers.eTag).isEqualTo("\"5\"")
+        assertThat(projectionVersions.current("row-1")).isEqualTo(5)
+    }
+
+    @Test
+    fun `given a version older than the max age, when requested with its tag, then the query is sent`() {
+        val expiring = ProjectionVersions(100, Duration.ZERO)
+        expiring.advance("row-1", 4)
+
+        val response = expiring.conditionalGet("row-1", "\"4\"", Row::version, query(Row("row-1", 6))).join()
+
+        assertThat(expiring.current("row-1")).isNull()
+        assertThat(response.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(response.headers.eTag).isEqualTo("\"6\"")
+        assertThat(queries.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun `given a forgotten version, when requested with its tag, then the query is sent`() {
+        projectionVersions.advance("row-1", 4)
+        projectionVersions.forget("row-1")
+
+        projectionVersions.conditionalGet("row-1", "\"4\"", Row::version, query(Row("row-1", 4))).join()
+
+        assertThat(queries.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun `given more rows than the maximum, when remembered, then the least recently used row is forgotten`() {
+        val bounded = ProjectionVersions(2, Duration.ofMinutes(1))
+        bounded.advance("row-1", 1)
+        bounded.advance("row-2", 2)
+        bounded.current("row-1")
+        bounded.advance("row-3", 3)
+
+        assertThat(bounded.current("row-1")).isEqualTo(1)
+        assertThat(bounded.current("row-2")).isNull()
+        assertThat(bounded.current("row-3")).isEqualTo(3)
+    }
+
+    @Test
+    fun `given an unchanged view, when requested with its tag, then 304 is answered before the query`() {
+        val first = projectionVersions.conditionalGet("view", null, query(Row("row-1", 0))).join()
+
+        val second = projectionVersions.conditionalGet("view", first.headers.eTag, query(Row("row-1", 0))).join()
+
+        assertThat(first.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(second.statusCode).isEqualTo(HttpStatus.NOT_MODIFIED)
+        assertThat(second.headers.eTag).isEqualTo(first.headers.eTag)
+        assertThat(queries.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun `given a bumped view, when requested with the old tag, then the result is served with a new tag`() {
+        val first = projectionVersions.conditionalGet("view", null, query(Row("row-1", 0))).join()
+        projectionVersions.bump("view")
+
+        val second = projectionVersions.conditionalGet("view", first.headers.eTag, query(Row("row-1", 1))).join()
+
+        assertThat(second.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(second.headers.eTag).isNotEqualTo(first.headers.eTag)
+        assertThat(second.body).isEqualTo(Row("row-1", 1))
+    }
+
+    @Test
+    fun `given a view version older than the max age, when requested with its tag, then it moves on and is queried`() {
+        val expiring = ProjectionVersions(100, Duration.ZERO)
+        val first = expiring.conditionalGet("view", null, query(Row("row-1", 0))).join()
+
+        val second = expiring.conditionalGet("view", first.headers.eTag, query(Row("row-1", 0))).join()
+
+        assertThat(second.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(second.headers.eTag).isNotEqualTo(first.headers.eTag)
+        assertThat(queries.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun `given two instances, when a view is first requested, then their tags differ`() {
+        val other = ProjectionVersions(100, Duration.ofMinutes(1))
+
+        assertThat(projectionVersions.viewVersion("view")).isNotEqualTo(other.viewVersion("view"))
+    }
+}
@@ -0,0 +1,80 @@
+package io.axoniq.build.dance_test.reporting_analytics_view
+
+import io.axoniq.build.dance_test.projection.ProcessedEventRepository
+import io.axoniq.build.dance_test.projection.ProcessedEvents
+import io.axoniq.build.dance_test.query.ProjectionVersions
+import io.axoniq.build.dance_test.reporting_analytics_view.api.StudentCountTrends
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import java.time.YearMonth
+
+/**
+ * Test class for reading the reporting rollups, compacted or not
+ */
+class ReportingAnalyticsViewComponentTest {
+
+    private val rollupRepository = mock(ReportingRollupRepository::class.java)
+    private val component = ReportingAnalyticsViewComponent(
+        mock(ReportingAnalyticsRepository::class.java),
+        rollupRepository,
+        mock(ReportingRevenueByMethodRepository::class.java),
+        mock(ReportingSessionHourRepository::class.java),
+        mock(ReportingStudentRepository::class.java),
+        mock(ReportingSessionRepository::class.java),
+        ProcessedEvents(mock(ProcessedEventRepository::class.java)),
+        mock(ProjectionVersions::class.java),
+        30
+    )
+
+    private val thisMonth = YearMonth.now()
+    private val fromMonth = thisMonth.minusMonths(2)
+
+    private fun month(month: YearMonth, newStudents: Long) =
+        ReportingRollupEntity("instructor-1", RollupGranularity.MONTH, month.atDay(1), newStudents = newStudents)
+
+    private fun day(month: YearMonth, day: Int, newStudents: Long) =
+        ReportingRollupEntity("instructor-1", RollupGranularity.DAY, month.atDay(day), newStudents = newStudents)
+
+    @Test
+    fun `given compacted and uncompacted months in the period, when counting students, then each month is counted once`() {
+        `when`(rollupRepository.findByInstructorIdAndGranularityAndBucketStartBetween(
+            "instructor-1", RollupGranularity.MONTH, fromMonth.atDay(1), thisMonth.atDay(1)
+        )).thenReturn(listOf(month(fromMonth, 2)))
+        `when`(rollupRepository.findByInstructorIdAndGranularityAndBucketStartBetween(
+            "instructor-1", RollupGranularity.DAY, fromMonth.plusMonths(1).atDay(1), thisMonth.atEndOfMonth()
+        )).thenReturn(listOf(day(fromMonth.plusMonths(1), 3, 1), day(fromMonth.plusMonths(1), 20, 1), day(thisMonth, 1, 1)))
+
+        val counts = component.handle(StudentCountTrends("instructor-1", 3)).monthlyStudentCounts
+
+        assertThat(counts.map { it.newStudents }).containsExactly(2, 2, 1)
+        assertThat(counts.map { it.activeStudents }).containsExactly(2, 4, 5)
+    }
+
+    @Test
+    fun `given closed months not compacted yet before the period, when counting students, then their days are included`() {
+        val lastCompacted = fromMonth.minusMonths(3)
+        `when`(rollupRepository.findFirstByInstructorIdAndGranularityOrderByBucketStartDesc("instructor-1", RollupGranularity.MONTH))
+            .thenReturn(month(lastCompacted, 4))
+        `when`(rollupRepository.sumNewStudentsBefore("instructor-1", RollupGranularity.MONTH, fromMonth.atDay(1)))
+            .thenReturn(10L)
+        `when`(rollupRepository.sumNewStudentsBetween(
+            "instructor-1", RollupGranularity.DAY, lastCompacted.plusMonths(1).atDay(1), fromMonth.atDay(1)
+        )).thenReturn(3L)
+
+        val counts = component.handle(StudentCountTrends("instructor-1", 3)).monthlyStudentCounts
+
+        assertThat(counts.first().activeStudents).isEqualTo(13)
+    }
+
+    @Test
+    fun `given no compacted month yet, when counting students, then every day before the period is included`() {
+        `when`(rollupRepository.sumNewStudentsBefore("instructor-1", RollupGranularity.DAY, fromMonth.atDay(1)))
+            .thenReturn(7L)
+
+        val counts = component.handle(StudentCountTrends("instructor-1", 3)).monthlyStudentCounts
+
+        assertThat(counts.first().activeStudents).isEqualTo(7)
+    }
+}
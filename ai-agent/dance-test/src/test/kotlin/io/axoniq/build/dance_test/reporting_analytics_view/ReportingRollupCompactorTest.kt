@@ -0,0 +1,25 @@
+package io.axoniq.build.dance_test.reporting_analytics_view
+
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verify
+import java.time.Duration
+import java.time.LocalDate
+
+/**
+ * Test class for the compaction of the reporting DAY buckets into MONTH buckets
+ */
+class ReportingRollupCompactorTest {
+
+    private val rollupRepository = mock(ReportingRollupRepository::class.java)
+    private val revenueByMethodRepository = mock(ReportingRevenueByMethodRepository::class.java)
+    private val compactor = ReportingRollupCompactor(rollupRepository, revenueByMethodRepository, Duration.ofMinutes(5))
+
+    @Test
+    fun `given a day in the month, when compacted, then only the months closed before it are rebuilt`() {
+        compactor.compact(LocalDate.of(2025, 3, 14))
+
+        verify(rollupRepository).compact("MONTH", "month", LocalDate.of(2025, 3, 1))
+        verify(revenueByMethodRepository).compactMonths(LocalDate.of(2025, 3, 1))
+    }
+}
@@ -0,0 +1,51 @@
+package io.axoniq.build.dance_test.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.axoniq.build.dance_test.session_booking.SessionBookingState
+import io.axoniq.build.dance_test.session_booking.api.SessionCancelled
+import io.axoniq.build.dance_test.session_booking.api.SessionScheduled
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.eventstreaming.EventCriteria
+import org.axonframework.eventstreaming.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import java.time.LocalDateTime
+
+/**
+ * Test class for serializing event-sourced entity state into snapshots
+ */
+class SnapshotStoreTest {
+
+    private val snapshotStore = SnapshotStore(mock(SnapshotRepository::class.java), ObjectMapper().findAndRegisterModules())
+
+    @Test
+    fun `given evolved session booking state, when serialized and deserialized, then state is restored`() {
+        val sessionDate = LocalDateTime.of(2025, 3, 14, 18, 0)
+        val cancellationTime = LocalDateTime.of(2025, 3, 13, 9, 30)
+        val state = SessionBookingState()
+        state.evolve(SessionScheduled("instructor-1", 60, sessionDate, "student-1", "session-1"))
+        state.evolve(SessionCancelled(cancellationTime, "session-1"))
+
+        val restored = snapshotStore.deserialize(snapshotStore.serialize(state), SessionBookingState::class.java)
+
+        assertThat(restored.getSessionId()).isEqualTo("session-1")
+        assertThat(restored.getInstructorId()).isEqualTo("instructor-1")
+        assertThat(restored.getStudentId()).isEqualTo("student-1")
+        assertThat(restored.getDuration()).isEqualTo(60)
+        assertThat(restored.getSessionDate()).isEqualTo(sessionDate)
+        assertThat(restored.getCancellationTime()).isEqualTo(cancellationTime)
+        assertThat(restored.getStatus()).isEqualTo("CANCELLED")
+    }
+
+    @Test
+    fun `given equal criteria built in different order, when canonicalized, then representations match`() {
+        val first = EventCriteria.havingTags(Tag.of("Session", "session-1"))
+            .andBeingOneOfTypes(SessionScheduled::class.java.name, SessionCancelled::class.java.name)
+        val second = EventCriteria.havingTags(Tag.of("Session", "session-1"))
+            .andBeingOneOfTypes(SessionCancelled::class.java.name, SessionScheduled::class.java.name)
+        val other = SessionBookingState.resolveCriteria("session-2")
+
+        assertThat(snapshotStore.canonicalCriteria(first)).isEqualTo(snapshotStore.canonicalCriteria(second))
+        assertThat(snapshotStore.canonicalCriteria(first)).isNotEqualTo(snapshotStore.canonicalCriteria(other))
+    }
+}
@@ -0,0 +1,86 @@
+package io.axoniq.build.dance_test.snapshot
+
+import io.axoniq.build.dance_test.session_booking.SessionBookingState
+import io.axoniq.build.dance_test.student_management.StudentManagementState
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.eventsourcing.annotations.EventSourcedEntity
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.env.YamlPropertySourceLoader
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider
+import org.springframework.core.env.EnumerablePropertySource
+import org.springframework.core.env.Environment
+import org.springframework.core.env.StandardEnvironment
+import org.springframework.core.io.ClassPathResource
+import org.springframework.core.type.filter.AnnotationTypeFilter
+import org.springframework.mock.env.MockEnvironment
+
+/**
+ * Test class for resolving the snapshot thresholds of event-sourced entities
+ */
+class SnapshottingConfigurationEnhancerTest {
+
+    companion object {
+        private const val PREFIX = "dance-test.snapshots"
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun enhancerWith(environment: Environment) = SnapshottingConfigurationEnhancer(
+        mock(ObjectProvider::class.java) as ObjectProvider<SnapshotStore>,
+        mock(ObjectProvider::class.java) as ObjectProvider<EntityStateCache>,
+        environment
+    )
+
+    private fun applicationEnvironment() = StandardEnvironment().apply {
+        YamlPropertySourceLoader().load("application", ClassPathResource("application.yml"))
+            .forEach { propertySources.addLast(it) }
+    }
+
+    @Test
+    fun `given a threshold for the entity, when resolved, then the entity threshold is used`() {
+        val environment = MockEnvironment()
+            .withProperty("dance-test.snapshots.default-threshold", "50")
+            .withProperty("dance-test.snapshots.thresholds.SessionBookingState", "100")
+
+        assertThat(enhancerWith(environment).thresholdFor(SessionBookingState::class.java)).isEqualTo(100)
+    }
+
+    @Test
+    fun `given only a default threshold, when resolved for another entity, then the default is used`() {
+        val environment = MockEnvironment()
+            .withProperty("dance-test.snapshots.default-threshold", "50")
+            .withProperty("dance-test.snapshots.thresholds.SessionBookingState", "100")
+
+        assertThat(enhancerWith(environment).thresholdFor(StudentManagementState::class.java)).isEqualTo(50)
+    }
+
+    @Test
+    fun `given no thresholds configured, when resolved, then snapshots are disabled`() {
+        assertThat(enhancerWith(MockEnvironment()).thresholdFor(SessionBookingState::class.java)).isZero()
+    }
+
+    @Test
+    fun `given the application configuration, when resolved, then session booking is snapshotted`() {
+        val enhancer = enhancerWith(applicationEnvironment())
+
+        assertThat(SessionBookingState::class.java.isAnnotationPresent(EventSourcedEntity::class.java)).isTrue()
+        assertThat(enhancer.thresholdFor(SessionBookingState::class.java)).isPositive()
+    }
+
+    @Test
+    fun `given the application configuration, when read, then every threshold names an event-sourced entity`() {
+        val scanner = ClassPathScanningCandidateComponentProvider(false)
+        scanner.addIncludeFilter(AnnotationTypeFilter(EventSourcedEntity::class.java))
+        val entities = scanner.findCandidateComponents("io.axoniq.build.dance_test")
+            .map { it.beanClassName!!.substringAfterLast('.') }
+        val configured = applicationEnvironment().propertySources
+            .filterIsInstance<EnumerablePropertySource<*>>()
+            .flatMap { it.propertyNames.toList() }
+            .filter { it.startsWith("$PREFIX.thresholds.") }
+            .map { it.removePrefix("$PREFIX.thresholds.") }
+
+        assertThat(configured).isNotEmpty
+        assertThat(entities).containsAll(configured)
+    }
+}
@@ -0,0 +1,127 @@
+package io.axoniq.build.dance_test.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventhandling.GenericEventMessage
+import org.axonframework.eventsourcing.CriteriaResolver
+import org.axonframework.eventsourcing.EventSourcedEntityFactory
+import org.axonframework.eventsourcing.eventstore.AppendEventsTransactionRejectedException
+import org.axonframework.eventsourcing.eventstore.ConsistencyMarker
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.EventStoreTransaction
+import org.axonframework.eventsourcing.eventstore.GlobalIndexConsistencyMarker
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.eventstreaming.EventCriteria
+import org.axonframework.eventstreaming.Tag
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.modelling.EntityEvolver
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for sourcing event-sourced entities from their cached state. The snapshot package is copied unchanged
+ * into apex-racing-labs and axoniq-meta-challenge-jg, which only test their own entities and configuration.
+ */
+class SnapshottingEventSourcingRepositoryTest {
+
+    data class Tally(val events: Int = 0)
+
+    private val events = mutableListOf<EventMessage>()
+    private val sourcedFrom = mutableListOf<Long>()
+    private val stateCache = EntityStateCache(maxEntries = 10, maxWeight = 1000)
+    private val snapshotStore = SnapshotStore(mock(SnapshotRepository::class.java), ObjectMapper().findAndRegisterModules())
+    private val unitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val criteriaResolver = CriteriaResolver<String> { id, _ -> EventCriteria.havingTags(Tag.of("Tally", id)) }
+    private val repository = SnapshottingEventSourcingRepository(
+        String::class.java,
+        Tally::class.java,
+        eventStore(),
+        EventSourcedEntityFactory { _, _, _ -> Tally() },
+        criteriaResolver,
+        EntityEvolver { tally, _, _ -> tally.copy(events = tally.events + 1) },
+        snapshotStore,
+        0,
+        stateCache
+    )
+
+    /**
+     * Event store of a single entity; the event at index i is at global position i + 1.
+     */
+    private fun eventStore(): EventStore {
+        val transaction = mock(EventStoreTransaction::class.java)
+        `when`(transaction.source(any())).thenAnswer { invocation ->
+            val condition = invocation.getArgument<SourcingCondition>(0)
+            val start = maxOf(condition.start(), 1)
+            sourcedFrom.add(start)
+            MessageStream.fromIterable(events.drop((start - 1).toInt())) { event ->
+                Context.with(ConsistencyMarker.RESOURCE_KEY, GlobalIndexConsistencyMarker(events.indexOf(event) + 1L))
+            }
+        }
+        val eventStore = mock(EventStore::class.java)
+        `when`(eventStore.transaction(any())).thenReturn(transaction)
+        return eventStore
+    }
+
+    private fun append(count: Int) {
+        repeat(count) { events.add(GenericEventMessage(MessageType("TallyCounted"), "counted-${events.size}")) }
+    }
+
+    private fun load(id: String): Tally? =
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            repository.load(id, ctx).thenApply { it.entity() }
+        }.join()
+
+    private fun loadFailing(id: String, error: Throwable) {
+        assertThatThrownBy {
+            unitOfWorkFactory.create().executeWithResult { ctx ->
+                repository.load(id, ctx).thenCompose { CompletableFuture.failedFuture<Any>(error) }
+            }.join()
+        }.hasRootCause(error)
+    }
+
+    private fun cacheKey(id: String): String =
+        stateCache.key(Tally::class.java, snapshotStore.canonicalCriteria(criteriaResolver.resolve(id, null)))
+
+    @Test
+    fun `given a cached state, when loaded again, then only the events after it are sourced`() {
+        append(3)
+        assertThat(load("tally-1")).isEqualTo(Tally(3))
+
+        append(2)
+
+        assertThat(load("tally-1")).isEqualTo(Tally(5))
+        assertThat(sourcedFrom).containsExactly(1L, 4L)
+        assertThat(stateCache.get(cacheKey("tally-1"))?.position).isEqualTo(5L)
+    }
+
+    @Test
+    fun `given a cached state, when an append is rejected as conflicting, then the state is evicted`() {
+        append(3)
+        load("tally-1")
+
+        loadFailing("tally-1", AppendEventsTransactionRejectedException.conflictingEventsDetected(GlobalIndexConsistencyMarker(3)))
+
+        assertThat(stateCache.get(cacheKey("tally-1"))).isNull()
+        assertThat(load("tally-1")).isEqualTo(Tally(3))
+        assertThat(sourcedFrom).containsExactly(1L, 4L, 1L)
+    }
+
+    @Test
+    fun `given a cached state, when handling fails otherwise, then the state stays cached`() {
+        append(3)
+        load("tally-1")
+
+        loadFailing("tally-1", IllegalStateException("rejected by the command handler"))
+
+        assertThat(stateCache.get(cacheKey("tally-1"))?.position).isEqualTo(3L)
+    }
+}
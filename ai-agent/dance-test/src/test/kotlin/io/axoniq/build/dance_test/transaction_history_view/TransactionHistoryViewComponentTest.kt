@@ -0,0 +1,122 @@
+package io.axoniq.build.dance_test.transaction_history_view
+
+import io.axoniq.build.dance_test.query.ProjectionVersions
+import io.axoniq.build.dance_test.transaction_history_view.api.PaymentRecorded
+import io.axoniq.build.dance_test.transaction_history_view.entity.ProcessedPositionEntity
+import io.axoniq.build.dance_test.transaction_history_view.entity.ProcessedPositionId
+import io.axoniq.build.dance_test.transaction_history_view.repository.ProcessedPositionRepository
+import io.axoniq.build.dance_test.transaction_history_view.repository.SessionRepository
+import io.axoniq.build.dance_test.transaction_history_view.repository.TransactionRepository
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.axonframework.eventhandling.GenericEventMessage
+import org.axonframework.eventhandling.processors.streaming.segmenting.Segment
+import org.axonframework.eventhandling.processors.streaming.token.GlobalSequenceTrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.time.LocalDate
+import java.util.Optional
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the redelivery of events to the Transaction History View
+ */
+class TransactionHistoryViewComponentTest {
+
+    private val transactionRepository = mock(TransactionRepository::class.java)
+    private val processedPositionRepository = mock(ProcessedPositionRepository::class.java)
+    private val component = TransactionHistoryViewComponent(
+        transactionRepository,
+        mock(SessionRepository::class.java),
+        TransactionHistoryWatermark(processedPositionRepository),
+        mock(ProjectionVersions::class.java)
+    )
+    private val unitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+
+    private val paymentDate = LocalDate.of(2025, 3, 14)
+    private val event = PaymentRecorded(50.0, "CARD", paymentDate, "student-1")
+    private val message = GenericEventMessage(MessageType(PaymentRecorded::class.java), event)
+
+    private fun handle(context: (ProcessingContext) -> ProcessingContext) {
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            component.on(event, context(Message.addToContext(ctx, message)))
+            CompletableFuture.completedFuture(null)
+        }.join()
+    }
+
+    private fun streamed(ctx: ProcessingContext, position: Long): ProcessingContext =
+        ctx.withResource(TrackingToken.RESOURCE_KEY, GlobalSequenceTrackingToken(position))
+            .withResource(Segment.RESOURCE_KEY, Segment.ROOT_SEGMENT)
+
+    private fun verifyPaymentInserted(times: Int) {
+        verify(transactionRepository, times(times)).insertIfAbsent(
+            message.identifier(), "student-1", "PAYMENT", 50.0, "Payment via CARD", paymentDate
+        )
+    }
+
+    @Test
+    fun `given an event delivered twice without a tracking token, when handled, then both deliveries insert the same transaction`() {
+        handle { it }
+        handle { it }
+
+        verifyPaymentInserted(times = 2)
+    }
+
+    @Test
+    fun `given an event redelivered after its batch committed, when handled again, then the read model is not touched`() {
+        `when`(processedPositionRepository.findById(ProcessedPositionId(0, 0)))
+            .thenReturn(Optional.empty(), Optional.of(ProcessedPositionEntity(0, 0, 7)))
+
+        handle { streamed(it, 7) }
+        handle { streamed(it, 7) }
+
+        verifyPaymentInserted(times = 1)
+        verify(processedPositionRepository).advance(0, 0, 7)
+    }
+
+    @Test
+    fun `given an event redelivered within its batch, when handled again, then it is applied once`() {
+        `when`(processedPositionRepository.findById(ProcessedPositionId(0, 0))).thenReturn(Optional.empty())
+
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            val streamed = streamed(Message.addToContext(ctx, message), 7)
+            component.on(event, streamed)
+            component.on(event, streamed)
+            CompletableFuture.completedFuture(null)
+        }.join()
+
+        verifyPaymentInserted(times = 1)
+    }
+
+    @Test
+    fun `given an applied event, when the view is reset and the event replayed, then it is applied again`() {
+        `when`(processedPositionRepository.findById(ProcessedPositionId(0, 0)))
+            .thenReturn(Optional.of(ProcessedPositionEntity(0, 0, 7)), Optional.empty())
+
+        handle { streamed(it, 7) }
+        component.onReset()
+        handle { streamed(it, 7) }
+
+        verify(processedPositionRepository).deleteAllInBatch()
+        verifyPaymentInserted(times = 1)
+        verify(processedPositionRepository).advance(0, 0, 7)
+    }
+
+    @Test
+    fun `given no event message in the context, when a payment is handled, then it fails instead of keying it randomly`() {
+        assertThatThrownBy {
+            unitOfWorkFactory.create().executeWithResult { ctx ->
+                component.on(event, ctx)
+                CompletableFuture.completedFuture(null)
+            }.join()
+        }.hasRootCauseInstanceOf(IllegalStateException::class.java)
+    }
+}
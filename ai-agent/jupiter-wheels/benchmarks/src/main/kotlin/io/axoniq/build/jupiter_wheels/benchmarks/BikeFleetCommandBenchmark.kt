@@ -0,0 +1,58 @@
+package io.axoniq.build.jupiter_wheels.benchmarks
+
+import io.axoniq.build.jupiter_wheels.bike_fleet_management.api.BikeCreationResult
+import io.axoniq.build.jupiter_wheels.bike_fleet_management.api.CreateNewBike
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.configuration.AxonConfiguration
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the Bike Fleet Management command handler, dispatched through the command gateway.
+ * Every invocation creates a new bike, so the measurement covers dispatch, running the handler and
+ * appending the resulting events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class BikeFleetCommandBenchmark {
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var commandGateway: CommandGateway
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.bikeFleetManagement()
+        commandGateway = configuration.getComponent(CommandGateway::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun createNewBike(): BikeCreationResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            CreateNewBike("station-${id % 10}", "Electric", "Good"),
+            BikeCreationResult::class.java
+        )
+    }
+}
@@ -0,0 +1,165 @@
+package io.axoniq.build.jupiter_wheels.benchmarks
+
+import io.axoniq.build.jupiter_wheels.bikes_view.BikeEntity
+import io.axoniq.build.jupiter_wheels.bikes_view.BikeProjection
+import io.axoniq.build.jupiter_wheels.bikes_view.BikeRepository
+import io.axoniq.build.jupiter_wheels.bikes_view.BikeTable
+import io.axoniq.build.jupiter_wheels.bikes_view.BikesViewComponent
+import io.axoniq.build.jupiter_wheels.bikes_view.api.BikeCreated
+import io.axoniq.build.jupiter_wheels.bikes_view.api.BikeMarkedAsAvailable
+import io.axoniq.build.jupiter_wheels.bikes_view.api.BikeRentalRequested
+import io.axoniq.build.jupiter_wheels.paging.KeysetPaging
+import io.axoniq.build.jupiter_wheels.projection.PostgresCopy
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [BikesViewComponent] event handlers writing to PostgreSQL, started in a throwaway container,
+ * through the batched [BikeTable]. Only the projection's own tables and beans are loaded, not the whole application
+ * context. Each unit of work runs in a transaction, as in an event processor, and flushes its batch on commit:
+ * [onBikeCreated] handles one event per unit of work, [onRentalEvents] handles [Batch.size] events on the same
+ * fleet of bikes in one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class BikesViewProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        JdbcTemplateAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [BikeEntity::class])
+    @EnableJpaRepositories(basePackageClasses = [BikeRepository::class])
+    @Import(
+        BikesViewComponent::class,
+        BikeTable::class,
+        BikeProjection::class,
+        KeysetPaging::class,
+        PostgresCopy::class,
+        ProjectionVersions::class
+    )
+    class ProjectionContext
+
+    /**
+     * Number of events per unit of work, in its own state so it only multiplies the batched benchmark.
+     */
+    @State(Scope.Benchmark)
+    class Batch {
+        @Param("1", "10", "100")
+        var size: Int = 0
+    }
+
+    private lateinit var postgres: PostgreSQLContainer<Nothing>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: BikesViewComponent
+    private lateinit var transactionTemplate: TransactionTemplate
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(BikesViewComponent::class.java)
+        transactionTemplate = TransactionTemplate(context.getBean(PlatformTransactionManager::class.java))
+        (0 until FLEET_SIZE).chunked(100).forEach { ids ->
+            handle { ctx -> ids.forEach { id -> component.on(bikeCreated("fleet-$id"), ctx) } }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onBikeCreated() {
+        val event = bikeCreated("bike-${sequence.incrementAndGet()}")
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun onRentalEvents(batch: Batch) {
+        handle { ctx ->
+            repeat(batch.size) {
+                val id = sequence.incrementAndGet()
+                val bikeId = "fleet-${id % FLEET_SIZE}"
+                if (id % 2 == 0L) {
+                    component.on(BikeRentalRequested("user-${id % 100}", "rental-$id", bikeId), ctx)
+                } else {
+                    component.on(BikeMarkedAsAvailable(bikeId), ctx)
+                }
+            }
+        }
+    }
+
+    private fun bikeCreated(bikeId: String): BikeCreated {
+        val id = bikeId.hashCode().toLong() and 0xffff
+        return BikeCreated("${52.30 + (id % 150) / 1000.0},${4.80 + (id / 150 % 200) / 1000.0}", "Electric", "Good", bikeId)
+    }
+
+    private fun handle(handler: (ProcessingContext) -> Unit) {
+        transactionTemplate.executeWithoutResult {
+            unitOfWorkFactory.create().executeWithResult { ctx ->
+                handler(ctx)
+                CompletableFuture.completedFuture(null)
+            }.join()
+        }
+    }
+
+    private companion object {
+        const val FLEET_SIZE = 1000
+    }
+}
@@ -0,0 +1,34 @@
+package io.axoniq.build.jupiter_wheels.benchmarks
+
+import io.axoniq.build.jupiter_wheels.bike_fleet_management.BikeFleetManagementCommandHandler
+import io.axoniq.build.jupiter_wheels.bike_fleet_management.BikeFleetManagementState
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Bike Fleet Management fixture test: the annotated entity and
+ * command handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun bikeFleetManagement(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(String::class.java, BikeFleetManagementState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("BikeFleetManagement")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { BikeFleetManagementCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
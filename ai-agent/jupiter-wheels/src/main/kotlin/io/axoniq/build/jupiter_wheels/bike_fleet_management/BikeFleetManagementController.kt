@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bike_fleet_management
 
 import io.axoniq.build.jupiter_wheels.bike_fleet_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST Controller for Bike Fleet Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/bike-fleet")
 class BikeFleetManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeFleetManagementController::class.java)
@@ -25,20 +27,19 @@ class BikeFleetManagementController(
      * Endpoint to create a new bike in the fleet
      */
     @PostMapping("/bikes")
-    fun createNewBike(@RequestBody request: CreateNewBikeRequest): ResponseEntity<String> {
+    fun createNewBike(@RequestBody request: CreateNewBikeRequest): Mono<ResponseEntity<String>> {
         val command = CreateNewBike(
             location = request.location,
             bikeType = request.bikeType,
             condition = request.condition
         )
         logger.info("Dispatching CreateNewBike command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike creation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch CreateNewBike command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create new bike")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike creation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch CreateNewBike command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create new bike"))
+            }
     }
 
     /**
@@ -48,19 +49,18 @@ class BikeFleetManagementController(
     fun removeBikeFromFleet(
         @PathVariable bikeId: String,
         @RequestBody request: RemoveBikeFromFleetRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = RemoveBikeFromFleet(
             bikeId = bikeId,
             removalReason = request.removalReason
         )
         logger.info("Dispatching RemoveBikeFromFleet command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike removal accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RemoveBikeFromFleet command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove bike from fleet")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike removal accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RemoveBikeFromFleet command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to remove bike from fleet"))
+            }
     }
 
     /**
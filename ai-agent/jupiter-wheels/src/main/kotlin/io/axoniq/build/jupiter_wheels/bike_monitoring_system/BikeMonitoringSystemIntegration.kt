@@ -18,6 +18,10 @@ import org.springframework.stereotype.Service
  *
  * When a bike is marked as in use, this component simulates monitoring the bike's condition
  * and may trigger a bike replacement request if issues are detected.
+ *
+ * Replacement requests are micro-batched by the command bus, see
+ * [io.axoniq.build.jupiter_wheels.command.BatchingCommandBus]: requests for the same bike that arrive
+ * within one batching window are handled with a single load of the bike.
  */
 @Service
 class BikeMonitoringSystemIntegration(
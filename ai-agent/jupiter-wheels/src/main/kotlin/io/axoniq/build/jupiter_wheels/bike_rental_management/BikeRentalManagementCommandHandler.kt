@@ -2,8 +2,8 @@ package io.axoniq.build.jupiter_wheels.bike_rental_management
 
 import io.axoniq.build.jupiter_wheels.bike_rental_management.api.*
 import io.axoniq.build.jupiter_wheels.bike_rental_management.exception.BikeAlreadyReserved
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import org.axonframework.commandhandling.annotations.CommandHandler
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.eventhandling.gateway.EventAppender
 import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.modelling.annotations.InjectEntity
@@ -11,19 +11,17 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.time.Duration
 import java.util.UUID
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 /**
  * Command handler for the Bike Rental Management component
  * Handles bike rental request validation and processing
  */
 class BikeRentalManagementCommandHandler(
-    private val commandGateway: CommandGateway
+    private val deadlineScheduler: DeadlineScheduler
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeRentalManagementCommandHandler::class.java)
-        private val executor: ExecutorService = Executors.newVirtualThreadPerTaskExecutor()
+        private val PAYMENT_TIMEOUT: Duration = Duration.ofMinutes(10)
     }
 
     /**
@@ -65,17 +63,8 @@ class BikeRentalManagementCommandHandler(
         eventAppender.append(event)
 
         // Schedule payment timeout deadline
-        executor.submit {
-            try {
-                Thread.sleep(Duration.ofMinutes(10).toMillis())
-                val timeoutDeadline = PaymentTimeout(rentalId = rentalId)
-                commandGateway.send(timeoutDeadline, processingContext)
-                logger.info("Payment timeout deadline scheduled for rentalId: $rentalId")
-            } catch (e: InterruptedException) {
-                Thread.currentThread().interrupt()
-                logger.warn("Payment timeout scheduling interrupted for rentalId: $rentalId")
-            }
-        }
+        deadlineScheduler.schedule(rentalId, PAYMENT_TIMEOUT, PaymentTimeout(rentalId = rentalId), processingContext)
+        logger.info("Payment timeout deadline scheduled for rentalId: $rentalId")
 
         logger.info("Bike rental requested successfully. RentalId: $rentalId")
         return BikeRentalRequestResult(rentalId = rentalId, bikeId = command.bikeId)
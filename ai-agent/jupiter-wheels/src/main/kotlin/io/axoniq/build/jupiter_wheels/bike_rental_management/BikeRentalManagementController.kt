@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bike_rental_management
 
 import io.axoniq.build.jupiter_wheels.bike_rental_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Bike Rental Management component
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/bike-rental")
 class BikeRentalManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeRentalManagementController::class.java)
@@ -33,7 +35,7 @@ class BikeRentalManagementController(
      * Endpoint to request a bike rental
      */
     @PostMapping("/request")
-    fun requestBikeRental(@RequestBody request: RequestBikeRentalRequest): ResponseEntity<String> {
+    fun requestBikeRental(@RequestBody request: RequestBikeRentalRequest): Mono<ResponseEntity<String>> {
         val command = RequestBikeRental(
             userId = request.userId,
             bikeId = request.bikeId
@@ -41,13 +43,12 @@ class BikeRentalManagementController(
         
         logger.info("Dispatching RequestBikeRental command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike rental request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RequestBikeRental command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request bike rental: ${ex.message}")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike rental request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RequestBikeRental command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request bike rental: ${ex.message}"))
+            }
     }
 }
 
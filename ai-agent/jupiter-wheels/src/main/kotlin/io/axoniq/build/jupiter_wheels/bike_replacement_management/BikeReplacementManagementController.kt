@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bike_replacement_management
 
 import io.axoniq.build.jupiter_wheels.bike_replacement_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Bike Replacement Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/bike-replacements")
 class BikeReplacementManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeReplacementManagementController::class.java)
@@ -26,20 +28,19 @@ class BikeReplacementManagementController(
      * Accepts bike replacement request details.
      */
     @PostMapping("/request")
-    fun requestBikeReplacement(@RequestBody request: RequestBikeReplacementRequest): ResponseEntity<String> {
+    fun requestBikeReplacement(@RequestBody request: RequestBikeReplacementRequest): Mono<ResponseEntity<String>> {
         val command = RequestBikeReplacement(
             originalBikeId = request.originalBikeId,
             rentalId = request.rentalId,
             issueDescription = request.issueDescription
         )
         logger.info("Dispatching RequestBikeReplacement command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike replacement request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RequestBikeReplacement command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request bike replacement")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike replacement request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RequestBikeReplacement command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request bike replacement"))
+            }
     }
     
     /**
@@ -47,19 +48,18 @@ class BikeReplacementManagementController(
      * Accepts replacement bike assignment details.
      */
     @PostMapping("/assign")
-    fun assignReplacementBike(@RequestBody request: AssignReplacementBikeRequest): ResponseEntity<String> {
+    fun assignReplacementBike(@RequestBody request: AssignReplacementBikeRequest): Mono<ResponseEntity<String>> {
         val command = AssignReplacementBike(
             replacementBikeId = request.replacementBikeId,
             rentalId = request.rentalId
         )
         logger.info("Dispatching AssignReplacementBike command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Replacement bike assignment accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch AssignReplacementBike command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to assign replacement bike")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Replacement bike assignment accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch AssignReplacementBike command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to assign replacement bike"))
+            }
     }
 
     /**
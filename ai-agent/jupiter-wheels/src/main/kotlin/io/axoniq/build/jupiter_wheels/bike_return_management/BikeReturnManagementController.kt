@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bike_return_management
 
 import io.axoniq.build.jupiter_wheels.bike_return_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST Controller for the Bike Return Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/bike-return")
 class BikeReturnManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeReturnManagementController::class.java)
@@ -28,19 +30,18 @@ class BikeReturnManagementController(
     fun approveOrRejectPhoto(
         @PathVariable rentalId: String,
         @RequestParam approved: Boolean
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = ApproveOrRejectPhoto(
             approved = approved,
             rentalId = rentalId
         )
         logger.info("Dispatching ApproveOrRejectPhoto command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Photo approval processed")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ApproveOrRejectPhoto command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to process photo approval")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Photo approval processed"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ApproveOrRejectPhoto command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to process photo approval"))
+            }
     }
 
     /**
@@ -51,20 +52,19 @@ class BikeReturnManagementController(
         @PathVariable rentalId: String,
         @RequestParam inspectionPassed: Boolean,
         @RequestParam(required = false) issues: String?
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = ReportInspectionResults(
             inspectionPassed = inspectionPassed,
             issues = issues,
             rentalId = rentalId
         )
         logger.info("Dispatching ReportInspectionResults command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Inspection results reported")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ReportInspectionResults command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to report inspection results")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Inspection results reported"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ReportInspectionResults command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to report inspection results"))
+            }
     }
 
     /**
@@ -74,19 +74,18 @@ class BikeReturnManagementController(
     fun submitBikePhoto(
         @PathVariable rentalId: String,
         @RequestParam photoUrl: String
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = SubmitBikePhoto(
             photoUrl = photoUrl,
             rentalId = rentalId
         )
         logger.info("Dispatching SubmitBikePhoto command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike photo submitted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch SubmitBikePhoto command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit bike photo")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike photo submitted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch SubmitBikePhoto command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit bike photo"))
+            }
     }
 
     /**
@@ -97,20 +96,19 @@ class BikeReturnManagementController(
         @PathVariable rentalId: String,
         @RequestParam rating: Int,
         @RequestParam(required = false) feedback: String?
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = SubmitReturnSurvey(
             feedback = feedback,
             rating = rating,
             rentalId = rentalId
         )
         logger.info("Dispatching SubmitReturnSurvey command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Return survey submitted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch SubmitReturnSurvey command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit return survey")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Return survey submitted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch SubmitReturnSurvey command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to submit return survey"))
+            }
     }
 
     /**
@@ -120,19 +118,18 @@ class BikeReturnManagementController(
     fun returnBikeAtLocation(
         @PathVariable rentalId: String,
         @RequestParam returnLocation: String
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = ReturnBikeAtLocation(
             returnLocation = returnLocation,
             rentalId = rentalId
         )
         logger.info("Dispatching ReturnBikeAtLocation command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike return confirmed")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ReturnBikeAtLocation command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to return bike")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Bike return confirmed"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ReturnBikeAtLocation command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to return bike"))
+            }
     }
 }
 
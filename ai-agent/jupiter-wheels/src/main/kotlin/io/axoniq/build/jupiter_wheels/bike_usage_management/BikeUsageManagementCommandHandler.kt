@@ -1,8 +1,8 @@
 package io.axoniq.build.jupiter_wheels.bike_usage_management
 
 import io.axoniq.build.jupiter_wheels.bike_usage_management.api.*
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import org.axonframework.commandhandling.annotations.CommandHandler
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.eventhandling.gateway.EventAppender
 import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.modelling.annotations.InjectEntity
@@ -10,19 +10,17 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.time.Duration
 import java.time.LocalDateTime
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 /**
  * Command handler for the Bike Usage Management component.
  * Handles bike usage lifecycle during rentals including pause/resume operations and early rental termination.
  */
 class BikeUsageManagementCommandHandler(
-    private val commandGateway: CommandGateway
+    private val deadlineScheduler: DeadlineScheduler
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeUsageManagementCommandHandler::class.java)
-        private val executor: ExecutorService = Executors.newVirtualThreadPerTaskExecutor()
+        private val PAUSE_TIMEOUT: Duration = Duration.ofMinutes(30)
     }
 
     /**
@@ -51,16 +49,8 @@ class BikeUsageManagementCommandHandler(
         eventAppender.append(event)
         logger.info("Rental paused for rental: ${command.rentalId}")
 
-        // Set deadline for pause timeout (simulated)
-        executor.submit {
-            try {
-                Thread.sleep(Duration.ofMinutes(30).toMillis()) // 30 minute pause limit
-                val timeoutDeadline = RentalPauseTimeout(rentalId = command.rentalId)
-                commandGateway.send(timeoutDeadline, processingContext)
-            } catch (e: InterruptedException) {
-                Thread.currentThread().interrupt()
-            }
-        }
+        // Set deadline for pause timeout
+        deadlineScheduler.schedule(command.rentalId, PAUSE_TIMEOUT, RentalPauseTimeout(rentalId = command.rentalId), processingContext)
 
         return RentalPauseResult(pauseConfirmed = true)
     }
@@ -72,7 +62,8 @@ class BikeUsageManagementCommandHandler(
     fun handle(
         command: EndRentalEarlyDueToProblem,
         @InjectEntity state: BikeUsageManagementState,
-        eventAppender: EventAppender
+        eventAppender: EventAppender,
+        processingContext: ProcessingContext
     ): EarlyRentalEndResult {
         logger.info("Handling EndRentalEarlyDueToProblem command for rental: ${command.rentalId}")
 
@@ -89,6 +80,7 @@ class BikeUsageManagementCommandHandler(
 
         eventAppender.append(event)
         logger.info("Rental ended early for rental: ${command.rentalId} due to: ${command.problemDescription}")
+        deadlineScheduler.cancel(command.rentalId, RentalPauseTimeout::class.java, processingContext)
 
         return EarlyRentalEndResult(rentalEnded = true)
     }
@@ -100,7 +92,8 @@ class BikeUsageManagementCommandHandler(
     fun handle(
         command: ResumeRental,
         @InjectEntity state: BikeUsageManagementState,
-        eventAppender: EventAppender
+        eventAppender: EventAppender,
+        processingContext: ProcessingContext
     ): RentalResumeResult {
         logger.info("Handling ResumeRental command for rental: ${command.rentalId}")
 
@@ -121,6 +114,7 @@ class BikeUsageManagementCommandHandler(
 
         eventAppender.append(event)
         logger.info("Rental resumed for rental: ${command.rentalId} after ${pauseDuration} minutes")
+        deadlineScheduler.cancel(command.rentalId, RentalPauseTimeout::class.java, processingContext)
 
         return RentalResumeResult(resumeConfirmed = true)
     }
@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bike_usage_management
 
 import io.axoniq.build.jupiter_wheels.bike_usage_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Bike Usage Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/bike-usage")
 class BikeUsageManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikeUsageManagementController::class.java)
@@ -25,17 +27,16 @@ class BikeUsageManagementController(
      * Pauses an active rental
      */
     @PostMapping("/{rentalId}/pause")
-    fun pauseRental(@PathVariable rentalId: String): ResponseEntity<String> {
+    fun pauseRental(@PathVariable rentalId: String): Mono<ResponseEntity<String>> {
         val command = PauseRental(rentalId = rentalId)
         logger.info("Dispatching PauseRental command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental pause accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch PauseRental command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to pause rental")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental pause accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch PauseRental command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to pause rental"))
+            }
     }
 
     /**
@@ -45,37 +46,35 @@ class BikeUsageManagementController(
     fun endRentalEarly(
         @PathVariable rentalId: String,
         @RequestBody request: EndRentalEarlyRequest
-    ): ResponseEntity<String> {
+    ): Mono<ResponseEntity<String>> {
         val command = EndRentalEarlyDueToProblem(
             problemDescription = request.problemDescription,
             rentalId = rentalId
         )
         logger.info("Dispatching EndRentalEarlyDueToProblem command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Early rental termination accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch EndRentalEarlyDueToProblem command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to end rental early")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Early rental termination accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch EndRentalEarlyDueToProblem command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to end rental early"))
+            }
     }
 
     /**
      * Resumes a paused rental
      */
     @PostMapping("/{rentalId}/resume")
-    fun resumeRental(@PathVariable rentalId: String): ResponseEntity<String> {
+    fun resumeRental(@PathVariable rentalId: String): Mono<ResponseEntity<String>> {
         val command = ResumeRental(rentalId = rentalId)
         logger.info("Dispatching ResumeRental command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental resume accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ResumeRental command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to resume rental")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental resume accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ResumeRental command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to resume rental"))
+            }
     }
 }
 
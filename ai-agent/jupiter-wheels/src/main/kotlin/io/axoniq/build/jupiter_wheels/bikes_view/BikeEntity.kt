@@ -8,7 +8,7 @@ import java.time.LocalDateTime
  * This entity stores the read model data for bike-related queries.
  */
 @Entity
-@Table(name = "bikes")
+@Table(name = "bikes", indexes = [Index(name = "idx_bikes_coordinates", columnList = "latitude, longitude")])
 data class BikeEntity(
     @Id
     val bikeId: String = "",
@@ -28,6 +28,11 @@ data class BikeEntity(
     @Column(name = "maintenance_record")
     val maintenanceHistory: MutableList<String> = mutableListOf(),
 
-    val lastInspection: LocalDateTime? = null
+    val lastInspection: LocalDateTime? = null,
+
+    // Parsed from the location when it is a "latitude,longitude" pair, used to rebuild the spatial index
+    val latitude: Double? = null,
+
+    val longitude: Double? = null
 )
 
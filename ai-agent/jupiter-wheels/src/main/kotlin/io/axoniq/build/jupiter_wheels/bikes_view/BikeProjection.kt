@@ -0,0 +1,72 @@
+package io.axoniq.build.jupiter_wheels.bikes_view
+
+import io.axoniq.build.jupiter_wheels.bikes_view.api.*
+import io.axoniq.build.jupiter_wheels.geo.GeoPoint
+import io.axoniq.build.jupiter_wheels.projection.RebuildableProjection
+import org.springframework.stereotype.Component
+
+/**
+ * How the bike events change the rows of the Bikes View component.
+ * Applied by [BikesViewComponent] as events arrive, and by the projection rebuilder when replaying them.
+ */
+@Component
+class BikeProjection(
+    override val table: BikeTable
+) : RebuildableProjection<String, BikeRow> {
+
+    override val name: String = "bikes"
+
+    override val processorName: String = BikeProjection::class.java.packageName
+
+    override val eventTypes: List<Class<*>> = listOf(
+        BikeCreated::class.java,
+        BikeRentalRequested::class.java,
+        ReplacementBikeAssigned::class.java,
+        RentalRequestRejectedTimeout::class.java,
+        RentalRequestRejectedCancellation::class.java,
+        BikeMarkedAsAvailable::class.java,
+        BikeRemovedFromFleet::class.java
+    )
+
+    override fun idsOf(event: Any): Collection<String> = when (event) {
+        is BikeCreated -> listOf(event.bikeId)
+        is BikeRentalRequested -> listOf(event.bikeId)
+        is ReplacementBikeAssigned -> listOf(event.originalBikeId, event.replacementBikeId)
+        is RentalRequestRejectedTimeout -> listOf(event.bikeId)
+        is RentalRequestRejectedCancellation -> listOf(event.bikeId)
+        is BikeMarkedAsAvailable -> listOf(event.bikeId)
+        is BikeRemovedFromFleet -> listOf(event.bikeId)
+        else -> emptyList()
+    }
+
+    override fun evolve(id: String, row: BikeRow?, event: Any): BikeRow? = when (event) {
+        is BikeCreated -> {
+            val point = GeoPoint.parse(event.location)
+            BikeRow(
+                bikeId = event.bikeId,
+                location = event.location,
+                bikeType = event.bikeType,
+                userRating = null,
+                condition = event.condition,
+                status = "AVAILABLE",
+                lastInspection = null,
+                latitude = point?.latitude,
+                longitude = point?.longitude
+            )
+        }
+        is BikeRentalRequested -> row?.copy(status = "RENTED")
+        is ReplacementBikeAssigned -> when (id) {
+            event.originalBikeId -> row?.copy(status = "OUT_OF_SERVICE")
+            event.replacementBikeId -> row?.copy(status = "RENTED")
+            else -> row
+        }
+        is RentalRequestRejectedTimeout -> row?.copy(status = "AVAILABLE")
+        is RentalRequestRejectedCancellation -> row?.copy(status = "AVAILABLE")
+        is BikeMarkedAsAvailable -> row?.copy(status = "AVAILABLE")
+        is BikeRemovedFromFleet -> row?.copy(
+            status = "REMOVED",
+            newMaintenanceRecords = row.newMaintenanceRecords + "Removed from fleet: ${event.removalReason}"
+        )
+        else -> row
+    }
+}
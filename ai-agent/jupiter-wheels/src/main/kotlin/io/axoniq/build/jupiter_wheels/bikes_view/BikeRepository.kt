@@ -1,5 +1,6 @@
 package io.axoniq.build.jupiter_wheels.bikes_view
 
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
 import org.springframework.stereotype.Repository
 
@@ -29,5 +30,15 @@ interface BikeRepository : JpaRepository<BikeEntity, String> {
      * Find all bikes with specific status.
      */
     fun findByStatus(status: String): List<BikeEntity>
+
+    /**
+     * Find all bikes with known coordinates, used to rebuild the spatial index.
+     */
+    fun findByLatitudeIsNotNullAndLongitudeIsNotNull(): List<BikeEntity>
+
+    /**
+     * Find the next keyset page of the fleet, ordered by bike ID.
+     */
+    fun findByBikeIdGreaterThanOrderByBikeId(bikeId: String, pageable: Pageable): List<BikeEntity>
 }
 
@@ -0,0 +1,108 @@
+package io.axoniq.build.jupiter_wheels.bikes_view
+
+import io.axoniq.build.jupiter_wheels.projection.BatchedTable
+import io.axoniq.build.jupiter_wheels.projection.PostgresCopy
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate
+import org.springframework.stereotype.Repository
+import java.sql.ResultSet
+import java.sql.Timestamp
+import java.time.LocalDateTime
+
+/**
+ * A row of the bikes table as written by the Bikes View event handlers.
+ * Maintenance records added while handling a batch are kept in [newMaintenanceRecords] until the batch is flushed;
+ * the existing maintenance history is not read.
+ */
+data class BikeRow(
+    val bikeId: String,
+    val location: String,
+    val bikeType: String,
+    val userRating: Double?,
+    val condition: String,
+    val status: String,
+    val lastInspection: LocalDateTime?,
+    val latitude: Double?,
+    val longitude: Double?,
+    val newMaintenanceRecords: List<String> = emptyList()
+)
+
+/**
+ * Batched JDBC access to the bikes tables of the Bikes View component, see [BatchedTable].
+ * Upserts are sent as one JDBC batch per flush, which the driver rewrites into multi-row inserts;
+ * rebuilds bulk load the tables with COPY.
+ */
+@Repository
+class BikeTable(
+    private val jdbcTemplate: NamedParameterJdbcTemplate,
+    private val postgresCopy: PostgresCopy
+) : BatchedTable<String, BikeRow>(listOf(BIKES, MAINTENANCE_HISTORY)) {
+
+    companion object {
+        private const val BIKES = "bikes"
+        private const val MAINTENANCE_HISTORY = "bike_maintenance_history"
+        private val BIKE_COLUMNS = listOf(
+            "bike_id", "location", "bike_type", "user_rating", "condition", "status", "last_inspection", "latitude", "longitude"
+        )
+        private val MAINTENANCE_HISTORY_COLUMNS = listOf("bike_id", "maintenance_record")
+    }
+
+    override fun idOf(row: BikeRow): String = row.bikeId
+
+    override fun loadFrom(tableName: (String) -> String, ids: Collection<String>): List<BikeRow> =
+        jdbcTemplate.query(
+            "SELECT ${BIKE_COLUMNS.joinToString(", ")} FROM ${tableName(BIKES)} WHERE bike_id IN (:ids)",
+            mapOf("ids" to ids)
+        ) { rs, _ -> rs.toBikeRow() }
+
+    override fun upsertInto(tableName: (String) -> String, rows: Collection<BikeRow>) {
+        jdbcTemplate.jdbcTemplate.batchUpdate(
+            "INSERT INTO ${tableName(BIKES)} (${BIKE_COLUMNS.joinToString(", ")}) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (bike_id) DO UPDATE SET location = EXCLUDED.location, bike_type = EXCLUDED.bike_type, " +
+                "user_rating = EXCLUDED.user_rating, condition = EXCLUDED.condition, status = EXCLUDED.status, " +
+                "last_inspection = EXCLUDED.last_inspection, latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude",
+            rows.map { bike -> bike.columns().toTypedArray() }
+        )
+        val maintenanceRecords = rows.flatMap { bike -> bike.newMaintenanceRecords.map { arrayOf<Any?>(bike.bikeId, it) } }
+        if (maintenanceRecords.isNotEmpty()) {
+            jdbcTemplate.jdbcTemplate.batchUpdate(
+                "INSERT INTO ${tableName(MAINTENANCE_HISTORY)} (${MAINTENANCE_HISTORY_COLUMNS.joinToString(", ")}) VALUES (?, ?)",
+                maintenanceRecords
+            )
+        }
+    }
+
+    override fun copyInto(tableName: (String) -> String, rows: Collection<BikeRow>) {
+        postgresCopy.copy(tableName(BIKES), BIKE_COLUMNS, rows.asSequence().map { it.columns() })
+        postgresCopy.copy(
+            tableName(MAINTENANCE_HISTORY),
+            MAINTENANCE_HISTORY_COLUMNS,
+            rows.asSequence().flatMap { bike -> bike.newMaintenanceRecords.asSequence().map { listOf(bike.bikeId, it) } }
+        )
+    }
+
+    override fun written(row: BikeRow): BikeRow = row.copy(newMaintenanceRecords = emptyList())
+
+    private fun BikeRow.columns(): List<Any?> = listOf(
+        bikeId,
+        location,
+        bikeType,
+        userRating,
+        condition,
+        status,
+        lastInspection?.let(Timestamp::valueOf),
+        latitude,
+        longitude
+    )
+
+    private fun ResultSet.toBikeRow(): BikeRow = BikeRow(
+        bikeId = getString("bike_id"),
+        location = getString("location"),
+        bikeType = getString("bike_type"),
+        userRating = getObject("user_rating", java.lang.Double::class.java)?.toDouble(),
+        condition = getString("condition"),
+        status = getString("status"),
+        lastInspection = getTimestamp("last_inspection")?.toLocalDateTime(),
+        latitude = getObject("latitude", java.lang.Double::class.java)?.toDouble(),
+        longitude = getObject("longitude", java.lang.Double::class.java)?.toDouble()
+    )
+}
@@ -1,24 +1,84 @@
 package io.axoniq.build.jupiter_wheels.bikes_view
 
 import io.axoniq.build.jupiter_wheels.bikes_view.api.*
+import io.axoniq.build.jupiter_wheels.geo.GeoPoint
+import io.axoniq.build.jupiter_wheels.geo.SpatialIndex
+import io.axoniq.build.jupiter_wheels.paging.KeysetPaging
+import io.axoniq.build.jupiter_wheels.projection.ProjectionSwapped
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
+import jakarta.annotation.PostConstruct
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.event.EventListener
+import org.springframework.data.domain.PageRequest
 import org.springframework.stereotype.Component
+import reactor.core.publisher.Flux
 
 /**
  * Bikes View component that handles bike-related queries and displays.
  * This component maintains a read model by listening to bike-related events
  * and provides query handlers for various bike queries.
+ *
+ * Bikes whose location is a "latitude,longitude" pair are also kept in an in-memory [SpatialIndex],
+ * which serves the nearby and nearest bike queries without scanning the fleet. The index is rebuilt
+ * from the read model on startup and after the projection was rebuilt, and updated after each handled event commits.
+ * The version of the view moves on once the index was updated, so no tag stands for a result read from an index
+ * that was not updated yet.
+ *
+ * Event handlers write through a [io.axoniq.build.jupiter_wheels.projection.ProjectionBatch] of [BikeTable]:
+ * a bike is read at most once per event processing batch, and all changed bikes are written with one batch
+ * upsert when the batch commits.
  */
 @Component
 class BikesViewComponent(
-    private val bikeRepository: BikeRepository
+    private val bikeRepository: BikeRepository,
+    private val bikeTable: BikeTable,
+    private val bikeProjection: BikeProjection,
+    private val keysetPaging: KeysetPaging,
+    private val projectionVersions: ProjectionVersions,
+    @Value("\${jupiter-wheels.spatial.cell-degrees:0.01}") cellDegrees: Double,
+    @param:Value("\${jupiter-wheels.spatial.max-results:50}") private val maxResults: Int,
+    @param:Value("\${jupiter-wheels.spatial.max-radius-meters:25000}") private val maxRadiusMeters: Double,
+    @param:Value("\${jupiter-wheels.spatial.similar-radius-meters:2000}") private val similarRadiusMeters: Double
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikesViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "bikes-view"
+    }
+
+    private val bikeIndex = SpatialIndex<BikeItem>(cellDegrees)
+
+    /**
+     * Rebuilds the spatial index from the read model before any events are handled.
+     */
+    @PostConstruct
+    fun rebuildIndex() {
+        val bikes = bikeRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull()
+            .filter { it.status != "REMOVED" }
+            .associate { bike -> bike.bikeId to (GeoPoint(bike.latitude!!, bike.longitude!!) to bike.toItem()) }
+        bikeIndex.reload(bikes)
+        logger.info("Rebuilt bike spatial index with ${bikes.size} bikes")
+    }
+
+    /**
+     * Rebuilds the spatial index from the swapped in tables once the projection was rebuilt,
+     * before its event processor resumes, and moves the version of the view on.
+     */
+    @EventListener
+    fun on(event: ProjectionSwapped) {
+        if (event.projection == bikeProjection.name) {
+            rebuildIndex()
+            projectionVersions.bump(VIEW_KEY)
+        }
     }
 
     /**
@@ -29,6 +89,14 @@ class BikesViewComponent(
     fun handle(query: SimilarNearbyBikes): SimilarNearbyBikesList {
         logger.info("Handling SimilarNearbyBikes query for location: ${query.location}, bikeType: ${query.bikeType}")
 
+        val point = GeoPoint.parse(query.location)
+        if (point != null) {
+            val nearby = bikeIndex.nearest(point, maxResults, similarRadiusMeters) { bike ->
+                query.bikeType == null || bike.bikeType == query.bikeType
+            }
+            return SimilarNearbyBikesList(nearby.map { it.value })
+        }
+
         val bikes = if (query.bikeType != null) {
             bikeRepository.findByLocationAndBikeType(query.location, query.bikeType)
         } else {
@@ -47,6 +115,46 @@ class BikesViewComponent(
         return SimilarNearbyBikesList(bikeItems)
     }
     
+    /**
+     * Query handler for BikesNearLocation query.
+     * Returns the bikes within the requested radius, nearest first, capped at the configured maximum.
+     */
+    @QueryHandler
+    fun handle(query: BikesNearLocation): NearbyBikesList {
+        logger.info("Handling BikesNearLocation query for ${query.latitude},${query.longitude} within ${query.radiusMeters}m")
+
+        val limit = (query.limit ?: maxResults).coerceIn(1, maxResults)
+        val radius = query.radiusMeters.coerceIn(0.0, maxRadiusMeters)
+        return findNearby(GeoPoint(query.latitude, query.longitude), limit, radius, query.bikeType, query.availableOnly)
+    }
+
+    /**
+     * Query handler for NearestBikes query.
+     * Returns the requested number of bikes closest to the given coordinates, capped at the configured maximum.
+     */
+    @QueryHandler
+    fun handle(query: NearestBikes): NearbyBikesList {
+        logger.info("Handling NearestBikes query for ${query.latitude},${query.longitude}, count: ${query.count}")
+
+        val limit = query.count.coerceIn(1, maxResults)
+        return findNearby(GeoPoint(query.latitude, query.longitude), limit, maxRadiusMeters, query.bikeType, query.availableOnly)
+    }
+
+    private fun findNearby(center: GeoPoint, limit: Int, radiusMeters: Double, bikeType: String?, availableOnly: Boolean): NearbyBikesList {
+        val matches = bikeIndex.nearest(center, limit, radiusMeters) { bike ->
+            (bikeType == null || bike.bikeType == bikeType) && (!availableOnly || bike.status == "AVAILABLE")
+        }
+        return NearbyBikesList(matches.map { match ->
+            NearbyBikeItem(
+                location = match.value.location,
+                bikeType = match.value.bikeType,
+                status = match.value.status,
+                bikeId = match.value.bikeId,
+                distanceMeters = match.distanceMeters
+            )
+        })
+    }
+
     /**
      * Query handler for AvailableBikes query.
      * Returns available bikes, optionally filtered by location.
@@ -94,24 +202,26 @@ class BikesViewComponent(
 
     /**
      * Query handler for AllBikesInFleet query.
-     * Returns all bikes in the fleet.
+     * Returns one keyset page of the fleet, ordered by bike ID.
      */
     @QueryHandler
     fun handle(query: AllBikesInFleet): AllBikesInFleetList {
-        logger.info("Handling AllBikesInFleet query")
-        
-        val bikes = bikeRepository.findAll()
+        logger.info("Handling AllBikesInFleet query after cursor: ${query.cursor}")
 
-        val bikeItems = bikes.map { bike ->
-            BikeItem(
-                location = bike.location,
-                bikeType = bike.bikeType,
-                status = bike.status,
-                bikeId = bike.bikeId
-            )
-        }
+        val page = keysetPaging.page(query.cursor, query.pageSize, keyColumns = 1, ::findFleetPage) { bike -> listOf(bike.bikeId) }
 
-        return AllBikesInFleetList(bikeItems)
+        return AllBikesInFleetList(page.items.map { it.toItem() }, page.nextCursor)
+    }
+
+    /**
+     * Streaming query handler for StreamAllBikesInFleet query.
+     * Emits the whole fleet ordered by bike ID, reading it one page at a time as the subscriber consumes it.
+     */
+    @QueryHandler
+    fun handle(query: StreamAllBikesInFleet): Flux<BikeItem> {
+        logger.info("Handling StreamAllBikesInFleet query")
+        return keysetPaging.stream(::findFleetPage) { bike -> listOf(bike.bikeId) }
+            .map { it.toItem() }
     }
 
     /**
@@ -158,14 +268,14 @@ class BikesViewComponent(
      * Updates bike status when a rental is requested.
      */
     @EventHandler
-    fun on(event: BikeRentalRequested) {
+    fun on(event: BikeRentalRequested, processingContext: ProcessingContext) {
         logger.info("Handling BikeRentalRequested event for bikeId: ${event.bikeId}")
 
-        bikeRepository.findById(event.bikeId).ifPresent { bike ->
-            val updatedBike = bike.copy(status = "RENTED")
-            bikeRepository.save(updatedBike)
+        evolve(event.bikeId, event, processingContext)?.let { updatedBike ->
+            updateIndexAfterCommit(updatedBike, processingContext)
             logger.debug("Updated bike status to RENTED for bikeId: ${event.bikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
 
     /**
@@ -173,22 +283,23 @@ class BikesViewComponent(
      * Updates status for both original and replacement bikes.
      */
     @EventHandler
-    fun on(event: ReplacementBikeAssigned) {
+    fun on(event: ReplacementBikeAssigned, processingContext: ProcessingContext) {
         logger.info("Handling ReplacementBikeAssigned event for originalBikeId: ${event.originalBikeId}, replacementBikeId: ${event.replacementBikeId}")
 
+        bikeTable.batch(processingContext).prefetch(listOf(event.originalBikeId, event.replacementBikeId))
+
         // Update original bike status
-        bikeRepository.findById(event.originalBikeId).ifPresent { originalBike ->
-            val updatedOriginalBike = originalBike.copy(status = "OUT_OF_SERVICE")
-            bikeRepository.save(updatedOriginalBike)
+        evolve(event.originalBikeId, event, processingContext)?.let { updatedOriginalBike ->
+            updateIndexAfterCommit(updatedOriginalBike, processingContext)
             logger.debug("Updated original bike status to OUT_OF_SERVICE for bikeId: ${event.originalBikeId}")
         }
 
         // Update replacement bike status
-        bikeRepository.findById(event.replacementBikeId).ifPresent { replacementBike ->
-            val updatedReplacementBike = replacementBike.copy(status = "RENTED")
-            bikeRepository.save(updatedReplacementBike)
+        evolve(event.replacementBikeId, event, processingContext)?.let { updatedReplacementBike ->
+            updateIndexAfterCommit(updatedReplacementBike, processingContext)
             logger.debug("Updated replacement bike status to RENTED for bikeId: ${event.replacementBikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
     
     /**
@@ -196,19 +307,14 @@ class BikesViewComponent(
      * Creates a new bike entry in the view when a bike is created.
      */
     @EventHandler
-    fun on(event: BikeCreated) {
+    fun on(event: BikeCreated, processingContext: ProcessingContext) {
         logger.info("Handling BikeCreated event for bikeId: ${event.bikeId}")
 
-        val bikeEntity = BikeEntity(
-            bikeId = event.bikeId,
-            location = event.location,
-            bikeType = event.bikeType,
-            condition = event.condition,
-            status = "AVAILABLE"
-        )
-
-        bikeRepository.save(bikeEntity)
+        val bike = bikeProjection.evolve(event.bikeId, null, event)!!
+        bikeTable.batch(processingContext).save(bike)
+        updateIndexAfterCommit(bike, processingContext)
         logger.debug("Created new bike entity for bikeId: ${event.bikeId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
 
     /**
@@ -216,14 +322,14 @@ class BikesViewComponent(
      * Updates bike status when rental request is rejected due to timeout.
      */
     @EventHandler
-    fun on(event: RentalRequestRejectedTimeout) {
+    fun on(event: RentalRequestRejectedTimeout, processingContext: ProcessingContext) {
         logger.info("Handling RentalRequestRejectedTimeout event for bikeId: ${event.bikeId}")
 
-        bikeRepository.findById(event.bikeId).ifPresent { bike ->
-            val updatedBike = bike.copy(status = "AVAILABLE")
-            bikeRepository.save(updatedBike)
+        evolve(event.bikeId, event, processingContext)?.let { updatedBike ->
+            updateIndexAfterCommit(updatedBike, processingContext)
             logger.debug("Updated bike status to AVAILABLE after timeout for bikeId: ${event.bikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
 
     /**
@@ -231,14 +337,14 @@ class BikesViewComponent(
      * Updates bike status when rental request is rejected due to cancellation.
      */
     @EventHandler
-    fun on(event: RentalRequestRejectedCancellation) {
+    fun on(event: RentalRequestRejectedCancellation, processingContext: ProcessingContext) {
         logger.info("Handling RentalRequestRejectedCancellation event for bikeId: ${event.bikeId}")
 
-        bikeRepository.findById(event.bikeId).ifPresent { bike ->
-            val updatedBike = bike.copy(status = "AVAILABLE")
-            bikeRepository.save(updatedBike)
+        evolve(event.bikeId, event, processingContext)?.let { updatedBike ->
+            updateIndexAfterCommit(updatedBike, processingContext)
             logger.debug("Updated bike status to AVAILABLE after cancellation for bikeId: ${event.bikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
     
     /**
@@ -246,14 +352,14 @@ class BikesViewComponent(
      * Updates bike status when marked as available.
      */
     @EventHandler
-    fun on(event: BikeMarkedAsAvailable) {
+    fun on(event: BikeMarkedAsAvailable, processingContext: ProcessingContext) {
         logger.info("Handling BikeMarkedAsAvailable event for bikeId: ${event.bikeId}")
 
-        bikeRepository.findById(event.bikeId).ifPresent { bike ->
-            val updatedBike = bike.copy(status = "AVAILABLE")
-            bikeRepository.save(updatedBike)
+        evolve(event.bikeId, event, processingContext)?.let { updatedBike ->
+            updateIndexAfterCommit(updatedBike, processingContext)
             logger.debug("Updated bike status to AVAILABLE for bikeId: ${event.bikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
     }
 
     /**
@@ -261,19 +367,43 @@ class BikesViewComponent(
      * Removes or updates bike status when removed from fleet.
      */
     @EventHandler
-    fun on(event: BikeRemovedFromFleet) {
+    fun on(event: BikeRemovedFromFleet, processingContext: ProcessingContext) {
         logger.info("Handling BikeRemovedFromFleet event for bikeId: ${event.bikeId}, reason: ${event.removalReason}")
 
-        bikeRepository.findById(event.bikeId).ifPresent { bike ->
-            val updatedBike = bike.copy(
-                status = "REMOVED",
-                maintenanceHistory = bike.maintenanceHistory.apply {
-                    add("Removed from fleet: ${event.removalReason}")
-                }
-            )
-            bikeRepository.save(updatedBike)
+        evolve(event.bikeId, event, processingContext)?.let {
+            processingContext.runOnAfterCommit { bikeIndex.remove(event.bikeId) }
             logger.debug("Updated bike status to REMOVED for bikeId: ${event.bikeId}")
         }
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
+    }
+
+    /**
+     * Applies [event] to the bike with [bikeId] through [BikeProjection], and returns the changed bike,
+     * or null when the bike does not exist.
+     */
+    private fun evolve(bikeId: String, event: Any, processingContext: ProcessingContext): BikeRow? {
+        val bikes = bikeTable.batch(processingContext)
+        val bike = bikes.find(bikeId) ?: return null
+        return bikeProjection.evolve(bikeId, bike, event)?.also(bikes::save)
     }
-}
 
+    /**
+     * Reflects the saved bike in the spatial index once the event's unit of work commits,
+     * so a rolled back update never becomes visible to location queries.
+     */
+    private fun updateIndexAfterCommit(bike: BikeRow, processingContext: ProcessingContext) {
+        val point = GeoPoint.of(bike.latitude, bike.longitude) ?: return
+        val item = BikeItem(location = bike.location, bikeType = bike.bikeType, status = bike.status, bikeId = bike.bikeId)
+        processingContext.runOnAfterCommit { bikeIndex.put(bike.bikeId, point, item) }
+    }
+
+    private fun findFleetPage(cursor: List<String>?, limit: Int): List<BikeEntity> =
+        bikeRepository.findByBikeIdGreaterThanOrderByBikeId(cursor?.single() ?: "", PageRequest.of(0, limit))
+
+    private fun BikeEntity.toItem(): BikeItem = BikeItem(
+        location = location,
+        bikeType = bikeType,
+        status = status,
+        bikeId = bikeId
+    )
+}
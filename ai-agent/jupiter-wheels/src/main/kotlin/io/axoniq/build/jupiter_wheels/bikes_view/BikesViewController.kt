@@ -1,10 +1,16 @@
 package io.axoniq.build.jupiter_wheels.bikes_view
 
 import io.axoniq.build.jupiter_wheels.bikes_view.api.*
+import io.axoniq.build.jupiter_wheels.geo.GeoPoint
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import reactor.core.publisher.Flux
 import java.util.concurrent.CompletableFuture
 
 /**
@@ -14,7 +20,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/bikes")
 class BikesViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(BikesViewController::class.java)
@@ -26,60 +33,139 @@ class BikesViewController(
     @GetMapping("/similar")
     fun getSimilarNearbyBikes(
         @RequestParam location: String,
-        @RequestParam(required = false) bikeType: String?
-    ): CompletableFuture<SimilarNearbyBikesList> {
+        @RequestParam(required = false) bikeType: String?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<SimilarNearbyBikesList>> {
         logger.info("REST request for similar nearby bikes at location: $location, bikeType: $bikeType")
-        val query = SimilarNearbyBikes(location, bikeType)
-        return queryGateway.query(query, SimilarNearbyBikesList::class.java, null)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = SimilarNearbyBikes(location, bikeType)
+            queryGateway.query(query, SimilarNearbyBikesList::class.java, null)
+        }
+    }
+
+    /**
+     * Get bikes within a radius of the given coordinates, nearest first.
+     */
+    @GetMapping("/nearby")
+    fun getBikesNearLocation(
+        @RequestParam latitude: Double,
+        @RequestParam longitude: Double,
+        @RequestParam(defaultValue = "1000") radiusMeters: Double,
+        @RequestParam(required = false) bikeType: String?,
+        @RequestParam(defaultValue = "true") availableOnly: Boolean,
+        @RequestParam(required = false) limit: Int?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<NearbyBikesList>> {
+        logger.info("REST request for bikes within ${radiusMeters}m of $latitude,$longitude, bikeType: $bikeType")
+        GeoPoint.validate(latitude, longitude)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = BikesNearLocation(latitude, longitude, radiusMeters, bikeType, availableOnly, limit)
+            queryGateway.query(query, NearbyBikesList::class.java, null)
+        }
+    }
+
+    /**
+     * Get the bikes closest to the given coordinates.
+     */
+    @GetMapping("/nearest")
+    fun getNearestBikes(
+        @RequestParam latitude: Double,
+        @RequestParam longitude: Double,
+        @RequestParam(defaultValue = "5") count: Int,
+        @RequestParam(required = false) bikeType: String?,
+        @RequestParam(defaultValue = "true") availableOnly: Boolean,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<NearbyBikesList>> {
+        logger.info("REST request for $count nearest bikes to $latitude,$longitude, bikeType: $bikeType")
+        GeoPoint.validate(latitude, longitude)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = NearestBikes(latitude, longitude, count, bikeType, availableOnly)
+            queryGateway.query(query, NearbyBikesList::class.java, null)
+        }
     }
 
     /**
      * Get available bikes endpoint.
      */
     @GetMapping("/available")
-    fun getAvailableBikes(@RequestParam(required = false) location: String?): CompletableFuture<AvailableBikesList> {
+    fun getAvailableBikes(
+        @RequestParam(required = false) location: String?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AvailableBikesList>> {
         logger.info("REST request for available bikes at location: $location")
-        val query = AvailableBikes(location)
-        return queryGateway.query(query, AvailableBikesList::class.java, null)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AvailableBikes(location)
+            queryGateway.query(query, AvailableBikesList::class.java, null)
+        }
     }
 
     /**
      * Get replacement bike details endpoint.
      */
     @GetMapping("/replacement/{replacementBikeId}")
-    fun getReplacementBikeDetails(@PathVariable replacementBikeId: String): CompletableFuture<ReplacementBikeDetailsResult> {
+    fun getReplacementBikeDetails(
+        @PathVariable replacementBikeId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ReplacementBikeDetailsResult>> {
         logger.info("REST request for replacement bike details: $replacementBikeId")
-        val query = ReplacementBikeDetails(replacementBikeId)
-        return queryGateway.query(query, ReplacementBikeDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = ReplacementBikeDetails(replacementBikeId)
+            queryGateway.query(query, ReplacementBikeDetailsResult::class.java, null)
+        }
     }
 
     /**
-     * Get all bikes in fleet endpoint.
+     * Get one page of the bikes in the fleet. Pass the returned nextCursor to get the following page.
      */
     @GetMapping("/fleet")
-    fun getAllBikesInFleet(): CompletableFuture<AllBikesInFleetList> {
-        logger.info("REST request for all bikes in fleet")
-        val query = AllBikesInFleet()
-        return queryGateway.query(query, AllBikesInFleetList::class.java, null)
+    fun getAllBikesInFleet(
+        @RequestParam(required = false) cursor: String?,
+        @RequestParam(required = false) pageSize: Int?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AllBikesInFleetList>> {
+        logger.info("REST request for bikes in fleet after cursor: $cursor")
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AllBikesInFleet(cursor, pageSize)
+            queryGateway.query(query, AllBikesInFleetList::class.java, null)
+        }
+    }
+
+    /**
+     * Stream all bikes in the fleet as newline-delimited JSON.
+     */
+    @GetMapping("/fleet/stream", produces = [MediaType.APPLICATION_NDJSON_VALUE])
+    fun streamAllBikesInFleet(): Flux<BikeItem> {
+        logger.info("REST request to stream all bikes in fleet")
+        return Flux.from(queryGateway.streamingQuery(StreamAllBikesInFleet(), BikeItem::class.java, null))
     }
 
     /**
      * Get bike details endpoint.
      */
     @GetMapping("/{bikeId}")
-    fun getBikeDetails(@PathVariable bikeId: String): CompletableFuture<BikeDetailsResult> {
+    fun getBikeDetails(
+        @PathVariable bikeId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<BikeDetailsResult>> {
         logger.info("REST request for bike details: $bikeId")
-        val query = BikeDetails(bikeId)
-        return queryGateway.query(query, BikeDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = BikeDetails(bikeId)
+            queryGateway.query(query, BikeDetailsResult::class.java, null)
+        }
     }
 
     /**
      * Get bike maintenance details endpoint.
      */
     @GetMapping("/{bikeId}/maintenance")
-    fun getBikeMaintenanceDetails(@PathVariable bikeId: String): CompletableFuture<BikeMaintenanceDetailsResult> {
+    fun getBikeMaintenanceDetails(
+        @PathVariable bikeId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<BikeMaintenanceDetailsResult>> {
         logger.info("REST request for bike maintenance details: $bikeId")
-        val query = BikeMaintenanceDetails(bikeId)
-        return queryGateway.query(query, BikeMaintenanceDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(BikesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = BikeMaintenanceDetails(bikeId)
+            queryGateway.query(query, BikeMaintenanceDetailsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
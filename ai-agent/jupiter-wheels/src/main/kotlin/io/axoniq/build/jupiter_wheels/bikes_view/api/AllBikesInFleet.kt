@@ -1,9 +1,14 @@
 package io.axoniq.build.jupiter_wheels.bikes_view.api
 
+import kotlin.Int
+import kotlin.String
 import org.axonframework.queryhandling.annotations.Query
 
 @Query(
   name = "AllBikesInFleet",
   namespace = "jupiter-wheels",
 )
-public class AllBikesInFleet()
+public data class AllBikesInFleet(
+  public val cursor: String?,
+  public val pageSize: Int?,
+)
@@ -1,7 +1,9 @@
 package io.axoniq.build.jupiter_wheels.bikes_view.api
 
+import kotlin.String
 import kotlin.collections.List
 
 public data class AllBikesInFleetList(
   public val bikes: List<BikeItem>,
+  public val nextCursor: String?,
 )
@@ -0,0 +1,20 @@
+package io.axoniq.build.jupiter_wheels.bikes_view.api
+
+import kotlin.Boolean
+import kotlin.Double
+import kotlin.Int
+import kotlin.String
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "BikesNearLocation",
+  namespace = "jupiter-wheels",
+)
+public data class BikesNearLocation(
+  public val latitude: Double,
+  public val longitude: Double,
+  public val radiusMeters: Double,
+  public val bikeType: String?,
+  public val availableOnly: Boolean,
+  public val limit: Int?,
+)
@@ -0,0 +1,12 @@
+package io.axoniq.build.jupiter_wheels.bikes_view.api
+
+import kotlin.Double
+import kotlin.String
+
+public data class NearbyBikeItem(
+  public val location: String,
+  public val bikeType: String,
+  public val status: String,
+  public val bikeId: String,
+  public val distanceMeters: Double,
+)
@@ -0,0 +1,7 @@
+package io.axoniq.build.jupiter_wheels.bikes_view.api
+
+import kotlin.collections.List
+
+public data class NearbyBikesList(
+  public val bikes: List<NearbyBikeItem>,
+)
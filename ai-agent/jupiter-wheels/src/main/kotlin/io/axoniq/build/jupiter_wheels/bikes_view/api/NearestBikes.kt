@@ -0,0 +1,19 @@
+package io.axoniq.build.jupiter_wheels.bikes_view.api
+
+import kotlin.Boolean
+import kotlin.Double
+import kotlin.Int
+import kotlin.String
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "NearestBikes",
+  namespace = "jupiter-wheels",
+)
+public data class NearestBikes(
+  public val latitude: Double,
+  public val longitude: Double,
+  public val count: Int,
+  public val bikeType: String?,
+  public val availableOnly: Boolean,
+)
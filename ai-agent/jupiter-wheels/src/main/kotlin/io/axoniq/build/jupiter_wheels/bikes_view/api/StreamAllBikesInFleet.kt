@@ -0,0 +1,9 @@
+package io.axoniq.build.jupiter_wheels.bikes_view.api
+
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "StreamAllBikesInFleet",
+  namespace = "jupiter-wheels",
+)
+public class StreamAllBikesInFleet()
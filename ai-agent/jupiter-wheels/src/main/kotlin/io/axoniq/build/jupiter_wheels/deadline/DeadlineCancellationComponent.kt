@@ -0,0 +1,42 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import io.axoniq.build.jupiter_wheels.bike_rental_management.api.PaymentTimeout
+import io.axoniq.build.jupiter_wheels.deadline.api.PaymentCompleted
+import io.axoniq.build.jupiter_wheels.deadline.api.RentalRequestRejectedCancellation
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Component
+
+/**
+ * Cancels pending deadlines when the outcome they guard against is settled by another component.
+ * Once a rental's payment completes or the request is cancelled, its payment timeout no longer applies.
+ */
+@Component
+class DeadlineCancellationComponent(
+    private val deadlineScheduler: DeadlineScheduler
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(DeadlineCancellationComponent::class.java)
+    }
+
+    /**
+     * Cancels the payment timeout for a rental whose payment completed.
+     */
+    @EventHandler
+    fun on(event: PaymentCompleted, processingContext: ProcessingContext) {
+        logger.debug("Payment completed for rental ${event.rentalId}, cancelling payment timeout")
+        deadlineScheduler.cancel(event.rentalId, PaymentTimeout::class.java, processingContext)
+    }
+
+    /**
+     * Cancels the payment timeout for a rental request that was cancelled.
+     */
+    @EventHandler
+    fun on(event: RentalRequestRejectedCancellation, processingContext: ProcessingContext) {
+        logger.debug("Rental request ${event.rentalId} cancelled, cancelling payment timeout")
+        deadlineScheduler.cancel(event.rentalId, PaymentTimeout::class.java, processingContext)
+    }
+}
@@ -0,0 +1,41 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import jakarta.persistence.*
+import java.time.Instant
+
+/**
+ * JPA entity representing a pending deadline.
+ * A row exists from the moment a deadline is scheduled until it is fired or cancelled,
+ * so pending deadlines survive restarts and redeploys.
+ */
+@Entity
+@Table(
+    name = "scheduled_deadlines",
+    indexes = [Index(name = "idx_scheduled_deadlines_due", columnList = "due_at, deadline_id")]
+)
+data class DeadlineEntity(
+    @Id
+    @Column(name = "deadline_id")
+    val deadlineId: String,
+
+    @Column(name = "deadline_name", nullable = false)
+    val deadlineName: String,
+
+    @Column(name = "scope_id", nullable = false)
+    val scopeId: String,
+
+    @Column(name = "payload_type", nullable = false)
+    val payloadType: String,
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    val payload: String,
+
+    @Column(name = "due_at", nullable = false)
+    val dueAt: Instant,
+
+    @Column(name = "scheduled_at", nullable = false)
+    val scheduledAt: Instant
+) {
+    // No-arg constructor required by JPA
+    constructor() : this("", "", "", "", "", Instant.EPOCH, Instant.EPOCH)
+}
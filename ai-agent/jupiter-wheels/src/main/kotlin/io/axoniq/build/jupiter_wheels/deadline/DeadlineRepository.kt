@@ -0,0 +1,52 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import org.springframework.data.domain.Pageable
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.annotation.Transactional
+import java.time.Instant
+
+/**
+ * Repository for pending deadlines.
+ * Provides the keyset-paged due-time scan used by the scheduler's batched polling.
+ */
+@Repository
+interface DeadlineRepository : JpaRepository<DeadlineEntity, String> {
+
+    /**
+     * Finds deadlines due no later than [until] that sort after the ([afterDueAt], [afterId]) cursor,
+     * ordered by due time. Backed by the (due_at, deadline_id) index.
+     */
+    @Query(
+        "SELECT d FROM DeadlineEntity d WHERE d.dueAt <= :until " +
+            "AND (d.dueAt > :afterDueAt OR (d.dueAt = :afterDueAt AND d.deadlineId > :afterId)) " +
+            "ORDER BY d.dueAt, d.deadlineId"
+    )
+    fun findDueBatch(
+        @Param("until") until: Instant,
+        @Param("afterDueAt") afterDueAt: Instant,
+        @Param("afterId") afterId: String,
+        pageable: Pageable
+    ): List<DeadlineEntity>
+
+    /**
+     * Removes the deadline row if it is still due at [dueAt], returning the number of rows deleted.
+     * A result of one means the caller claimed the deadline and is responsible for firing it;
+     * zero means it was cancelled, rescheduled or claimed by another instance.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DeadlineEntity d WHERE d.deadlineId = :deadlineId AND d.dueAt = :dueAt")
+    fun claim(@Param("deadlineId") deadlineId: String, @Param("dueAt") dueAt: Instant): Int
+
+    /**
+     * Removes the deadline row regardless of its due time, returning the number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DeadlineEntity d WHERE d.deadlineId = :deadlineId")
+    fun cancel(@Param("deadlineId") deadlineId: String): Int
+}
@@ -0,0 +1,22 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import java.time.Duration
+
+/**
+ * Schedules deadline messages that are dispatched as commands once they are due.
+ * Deadlines are identified by their payload type and a scope identifier (for example a rental ID),
+ * so scheduling the same deadline for the same scope again replaces the pending one.
+ */
+interface DeadlineScheduler {
+
+    /**
+     * Schedules [deadline] to be sent as a command after [delay], once [processingContext] commits.
+     */
+    fun schedule(scopeId: String, delay: Duration, deadline: Any, processingContext: ProcessingContext)
+
+    /**
+     * Cancels the pending deadline of [deadlineType] for [scopeId], once [processingContext] commits.
+     */
+    fun cancel(scopeId: String, deadlineType: Class<*>, processingContext: ProcessingContext)
+}
@@ -0,0 +1,189 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import jakarta.annotation.PreDestroy
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.data.domain.PageRequest
+import org.springframework.stereotype.Component
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Deadline scheduler backed by the scheduled_deadlines table and an in-memory [TimingWheel].
+ *
+ * Every deadline is persisted when the scheduling unit of work commits. The wheel only holds the deadlines
+ * due within the look-ahead window, loaded by batched keyset polls over the due-time index, so memory stays
+ * bounded by the window and the configured capacity rather than by the number of pending deadlines.
+ * A single scheduler thread advances the wheel every tick; due deadlines are claimed by deleting their row,
+ * which keeps firing at-most-once across instances, and then dispatched through the [CommandGateway].
+ *
+ * On startup the poll cursor begins at the epoch, so deadlines that became due while the application was down
+ * are recovered and fired on the first poll. Deadlines scheduled by other instances inside the already polled
+ * window are picked up by the periodic full rescan.
+ */
+@Component
+class PersistentDeadlineScheduler(
+    private val deadlineRepository: DeadlineRepository,
+    private val commandGateway: CommandGateway,
+    private val objectMapper: ObjectMapper,
+    @param:Value("\${jupiter-wheels.deadlines.tick:PT1S}") private val tick: Duration,
+    @param:Value("\${jupiter-wheels.deadlines.wheel-size:64}") private val wheelSize: Int,
+    @param:Value("\${jupiter-wheels.deadlines.poll-interval:PT15S}") private val pollInterval: Duration,
+    @param:Value("\${jupiter-wheels.deadlines.look-ahead:PT2M}") private val lookAhead: Duration,
+    @param:Value("\${jupiter-wheels.deadlines.batch-size:500}") private val batchSize: Int,
+    @param:Value("\${jupiter-wheels.deadlines.capacity:50000}") private val capacity: Int,
+    @param:Value("\${jupiter-wheels.deadlines.rescan-every:20}") private val rescanEvery: Int,
+    @param:Value("\${jupiter-wheels.deadlines.retry-delay:PT30S}") private val retryDelay: Duration
+) : DeadlineScheduler {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(PersistentDeadlineScheduler::class.java)
+    }
+
+    private val clock: Clock = Clock.systemUTC()
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "deadline-scheduler").apply { isDaemon = true }
+    }
+    private val wheel = TimingWheel<DeadlineEntity>(tick.toMillis(), wheelSize, clock.millis())
+
+    // Keyset cursor of the last row loaded into the wheel, and the upper bound of the last poll
+    private var cursorDueAt: Instant = Instant.EPOCH
+    private var cursorId: String = ""
+    private var polledUntil: Instant = Instant.EPOCH
+    private var pollCount: Long = 0
+
+    /**
+     * Starts polling once the application, including the command bus, is ready.
+     * The first poll recovers every deadline that is already overdue.
+     */
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        logger.info("Starting deadline scheduler with tick {}, look-ahead {}, batch size {}", tick, lookAhead, batchSize)
+        executor.scheduleWithFixedDelay(::pollSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS)
+        executor.scheduleAtFixedRate(::advanceSafely, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    override fun schedule(scopeId: String, delay: Duration, deadline: Any, processingContext: ProcessingContext) {
+        val now = clock.instant()
+        val deadlineName = deadline.javaClass.simpleName
+        val entity = DeadlineEntity(
+            deadlineId = deadlineId(deadlineName, scopeId),
+            deadlineName = deadlineName,
+            scopeId = scopeId,
+            payloadType = deadline.javaClass.name,
+            payload = objectMapper.writeValueAsString(deadline),
+            dueAt = now.plus(delay),
+            scheduledAt = now
+        )
+        processingContext.runOnAfterCommit {
+            deadlineRepository.save(entity)
+            logger.info("Scheduled deadline {} for scope {} due at {}", deadlineName, scopeId, entity.dueAt)
+            // Rows due inside the already polled window would otherwise wait for the next rescan
+            val loadNow = synchronized(this) { !entity.dueAt.isAfter(polledUntil) }
+            if (loadNow) {
+                executor.execute { load(entity) }
+            }
+        }
+    }
+
+    override fun cancel(scopeId: String, deadlineType: Class<*>, processingContext: ProcessingContext) {
+        val deadlineId = deadlineId(deadlineType.simpleName, scopeId)
+        processingContext.runOnAfterCommit {
+            synchronized(this) { wheel.cancel(deadlineId) }
+            if (deadlineRepository.cancel(deadlineId) > 0) {
+                logger.info("Cancelled deadline {} for scope {}", deadlineType.simpleName, scopeId)
+            }
+        }
+    }
+
+    private fun deadlineId(deadlineName: String, scopeId: String): String = "$deadlineName:$scopeId"
+
+    private fun pollSafely() {
+        try {
+            poll()
+        } catch (e: Exception) {
+            logger.error("Failed to poll pending deadlines", e)
+        }
+    }
+
+    private fun advanceSafely() {
+        try {
+            val expired = synchronized(this) { wheel.advance(clock.millis()) }
+            expired.forEach(::fire)
+        } catch (e: Exception) {
+            logger.error("Failed to advance deadline timing wheel", e)
+        }
+    }
+
+    /**
+     * Loads the deadlines due within the look-ahead window into the wheel, one keyset page at a time,
+     * until the window is exhausted or the wheel reaches its capacity.
+     */
+    private fun poll() {
+        if (++pollCount % rescanEvery == 0L) {
+            synchronized(this) {
+                cursorDueAt = Instant.EPOCH
+                cursorId = ""
+            }
+        }
+        val until = clock.instant().plus(lookAhead)
+        while (true) {
+            if (synchronized(this) { wheel.size } >= capacity) {
+                logger.warn("Deadline wheel at capacity {}, deferring remaining deadlines to the next poll", capacity)
+                return
+            }
+            val batch = deadlineRepository.findDueBatch(until, cursorDueAt, cursorId, PageRequest.of(0, batchSize))
+            batch.forEach(::load)
+            if (batch.isNotEmpty()) {
+                synchronized(this) {
+                    cursorDueAt = batch.last().dueAt
+                    cursorId = batch.last().deadlineId
+                }
+            }
+            if (batch.size < batchSize) {
+                synchronized(this) { polledUntil = until }
+                return
+            }
+        }
+    }
+
+    private fun load(entity: DeadlineEntity) {
+        // Replaces any entry loaded earlier, so a rescheduled deadline moves to its new due time
+        val scheduled = synchronized(this) { wheel.schedule(entity.deadlineId, entity.dueAt.toEpochMilli(), entity) }
+        if (!scheduled) {
+            fire(entity)
+        }
+    }
+
+    private fun fire(entity: DeadlineEntity) {
+        if (deadlineRepository.claim(entity.deadlineId, entity.dueAt) == 0) {
+            // Cancelled, rescheduled or already fired by another instance
+            return
+        }
+        val deadline = objectMapper.readValue(entity.payload, Class.forName(entity.payloadType))
+        logger.info("Firing deadline {} for scope {}", entity.deadlineName, entity.scopeId)
+        commandGateway.send(deadline, null)
+            .getResultMessage()
+            .exceptionally { error ->
+                logger.error("Deadline {} for scope {} failed, retrying in {}", entity.deadlineName, entity.scopeId, retryDelay, error)
+                val retry = deadlineRepository.save(entity.copy(dueAt = clock.instant().plus(retryDelay)))
+                executor.execute { load(retry) }
+                null
+            }
+    }
+}
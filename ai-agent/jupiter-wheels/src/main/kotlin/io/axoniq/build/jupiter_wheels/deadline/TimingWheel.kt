@@ -0,0 +1,123 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+/**
+ * Hierarchical timing wheel holding the deadlines that are due within the scheduler's look-ahead window.
+ *
+ * The lowest level has [wheelSize] buckets of [tickMillis] each. Deadlines further away are kept in lazily
+ * created overflow levels whose tick equals the full span of the level below, and are cascaded down as the
+ * clock reaches their bucket. Scheduling and cancelling are O(1); advancing costs one bucket per elapsed tick.
+ * Deadlines fire at most one tick late and never early.
+ *
+ * Cancelled entries are dropped from the key index immediately and skipped when their bucket is drained.
+ * The class is not thread-safe; callers synchronize access.
+ */
+class TimingWheel<T>(
+    private val tickMillis: Long,
+    private val wheelSize: Int,
+    startMillis: Long
+) {
+
+    private class Entry<T>(val key: String, val dueMillis: Long, val value: T)
+
+    private class Level<T>(val tickMillis: Long, val wheelSize: Int, startMillis: Long) {
+        val intervalMillis: Long = tickMillis * wheelSize
+        var currentTime: Long = startMillis - startMillis % tickMillis
+        val buckets: Array<MutableList<Entry<T>>> = Array(wheelSize) { mutableListOf() }
+        var overflow: Level<T>? = null
+
+        fun bucket(timeMillis: Long): MutableList<Entry<T>> =
+            buckets[((timeMillis / tickMillis) % wheelSize).toInt()]
+
+        fun overflow(): Level<T> =
+            overflow ?: Level<T>(intervalMillis, wheelSize, currentTime).also { overflow = it }
+    }
+
+    init {
+        require(tickMillis > 0) { "Tick must be positive" }
+        require(wheelSize > 1) { "Wheel size must be greater than one" }
+    }
+
+    private val root = Level<T>(tickMillis, wheelSize, startMillis)
+    private val entries = HashMap<String, Entry<T>>()
+
+    /**
+     * Number of pending, non-cancelled deadlines held by the wheel.
+     */
+    val size: Int
+        get() = entries.size
+
+    fun contains(key: String): Boolean = entries.containsKey(key)
+
+    /**
+     * Schedules [value] under [key], replacing any pending entry with the same key.
+     * Returns false when the due time has already passed, in which case the caller should fire it directly.
+     */
+    fun schedule(key: String, dueMillis: Long, value: T): Boolean {
+        entries.remove(key)
+        val entry = Entry(key, dueMillis, value)
+        if (!insert(entry)) {
+            return false
+        }
+        entries[key] = entry
+        return true
+    }
+
+    /**
+     * Cancels the pending entry for [key]. Returns true when an entry was pending.
+     */
+    fun cancel(key: String): Boolean = entries.remove(key) != null
+
+    /**
+     * Advances the wheel clock to [nowMillis] and returns the values whose deadline has passed, in due order
+     * per tick.
+     */
+    fun advance(nowMillis: Long): List<T> {
+        val expired = mutableListOf<T>()
+        while (nowMillis >= root.currentTime + tickMillis) {
+            val bucket = root.bucket(root.currentTime)
+            bucket.sortBy { it.dueMillis }
+            bucket.forEach { expire(it, expired) }
+            bucket.clear()
+            root.currentTime += tickMillis
+            cascade(root.overflow, root.currentTime, expired)
+        }
+        return expired
+    }
+
+    private fun insert(entry: Entry<T>): Boolean {
+        if (entry.dueMillis < root.currentTime) {
+            return false
+        }
+        var level = root
+        while (entry.dueMillis >= level.currentTime + level.intervalMillis) {
+            level = level.overflow()
+        }
+        level.bucket(entry.dueMillis).add(entry)
+        return true
+    }
+
+    private fun cascade(level: Level<T>?, timeMillis: Long, expired: MutableList<T>) {
+        if (level == null) {
+            return
+        }
+        while (timeMillis >= level.currentTime + level.tickMillis) {
+            level.currentTime += level.tickMillis
+            cascade(level.overflow, level.currentTime, expired)
+            val bucket = level.bucket(level.currentTime)
+            val drained = bucket.toList()
+            bucket.clear()
+            drained.forEach { entry ->
+                if (entries[entry.key] === entry && !insert(entry)) {
+                    expire(entry, expired)
+                }
+            }
+        }
+    }
+
+    private fun expire(entry: Entry<T>, expired: MutableList<T>) {
+        if (entries[entry.key] === entry) {
+            entries.remove(entry.key)
+            expired.add(entry.value)
+        }
+    }
+}
@@ -5,7 +5,8 @@ import jakarta.persistence.*
 /**
  * JPA Entity representing a drop-off zone in the Drop-off Zones View component.
  * This entity stores the state of drop-off zones including location, capacity,
- * available spaces, zone name, and zone identifier.
+ * available spaces, zone name, and zone identifier. Zones with coordinates are also
+ * served from the spatial index of the view component.
  */
 @Entity
 @Table(name = "drop_off_zones")
@@ -24,7 +25,13 @@ data class DropOffZoneEntity(
     val availableSpaces: Int,
 
     @Column(name = "zone_name", nullable = false)
-    val zoneName: String
+    val zoneName: String,
+
+    @Column(name = "latitude")
+    val latitude: Double? = null,
+
+    @Column(name = "longitude")
+    val longitude: Double? = null
 ) {
     // No-arg constructor required by JPA
     constructor() : this("", "", 0, 0, "")
@@ -15,5 +15,10 @@ interface DropOffZoneRepository : JpaRepository<DropOffZoneEntity, String> {
      * Used for querying available drop-off zones.
      */
     fun findByAvailableSpacesGreaterThan(spaces: Int): List<DropOffZoneEntity>
+
+    /**
+     * Finds all drop-off zones with known coordinates, used to rebuild the spatial index.
+     */
+    fun findByLatitudeIsNotNullAndLongitudeIsNotNull(): List<DropOffZoneEntity>
 }
 
@@ -1,50 +1,150 @@
 package io.axoniq.build.jupiter_wheels.drop_off_zones_view
 
 import io.axoniq.build.jupiter_wheels.drop_off_zones_view.api.*
+import io.axoniq.build.jupiter_wheels.geo.GeoPoint
+import io.axoniq.build.jupiter_wheels.geo.SpatialIndex
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
+import jakarta.annotation.PostConstruct
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
+import java.time.Duration
 
 /**
  * Drop-off Zones View component that handles location and zone queries.
  * This component provides query handlers for retrieving available drop-off zones
  * and specific zone details.
+ *
+ * Zones with coordinates are served from an in-memory [SpatialIndex]. No events in this application
+ * change zone capacity, so the index is rebuilt from the drop_off_zones table on startup and again
+ * whenever it is older than the configured refresh interval.
  */
 @Component
 class DropOffZonesViewComponent(
-    private val dropOffZoneRepository: DropOffZoneRepository
+    private val dropOffZoneRepository: DropOffZoneRepository,
+    @Value("\${jupiter-wheels.spatial.cell-degrees:0.01}") cellDegrees: Double,
+    @param:Value("\${jupiter-wheels.spatial.max-results:50}") private val maxResults: Int,
+    @param:Value("\${jupiter-wheels.spatial.max-radius-meters:25000}") private val maxRadiusMeters: Double,
+    @param:Value("\${jupiter-wheels.spatial.zone-refresh-interval:PT1M}") private val zoneRefreshInterval: Duration
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DropOffZonesViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "drop-off-zones-view"
+    }
+
+    private val zoneIndex = SpatialIndex<DropOffZone>(cellDegrees)
+
+    @Volatile
+    private var indexedAt: Long = 0
+
+    /**
+     * Rebuilds the spatial index from the drop-off zones table.
+     */
+    @PostConstruct
+    fun rebuildIndex() {
+        val zones = dropOffZoneRepository.findAll()
+            .mapNotNull { entity ->
+                val point = GeoPoint.of(entity.latitude, entity.longitude) ?: GeoPoint.parse(entity.location)
+                point?.let { entity.zoneId to (it to entity.toDropOffZone()) }
+            }
+            .toMap()
+        zoneIndex.reload(zones)
+        indexedAt = System.currentTimeMillis()
+        logger.info("Rebuilt drop-off zone spatial index with ${zones.size} zones")
     }
 
     /**
      * Query handler for AvailableDropOffZones query.
      * Returns a list of available drop-off zones based on the user location.
-     * Currently returns all zones with available spaces regardless of user location.
+     * When the user location is a "latitude,longitude" pair the nearest zones with space are returned,
+     * nearest first; otherwise all zones with available spaces are returned.
      */
     @QueryHandler
     fun handle(query: AvailableDropOffZones): AvailableDropOffZonesList {
         logger.info("Handling AvailableDropOffZones query for user location: ${query.userLocation}")
 
+        val point = GeoPoint.parse(query.userLocation)
+        if (point != null) {
+            val nearby = findNearby(point, maxResults, maxRadiusMeters)
+            logger.debug("Found ${nearby.size} available drop-off zones near ${query.userLocation}")
+            return AvailableDropOffZonesList(zones = nearby.map { it.value })
+        }
+
         // Find all zones with available spaces (> 0)
         val availableZones = dropOffZoneRepository.findByAvailableSpacesGreaterThan(0)
 
         // Convert entities to API objects
-        val zones = availableZones.map { entity ->
-            DropOffZone(
-                location = entity.location,
-                availableSpaces = entity.availableSpaces,
-                zoneName = entity.zoneName,
-                zoneId = entity.zoneId
-            )
-        }
+        val zones = availableZones.map { entity -> entity.toDropOffZone() }
 
         logger.debug("Found ${zones.size} available drop-off zones")
         return AvailableDropOffZonesList(zones = zones)
     }
 
+    /**
+     * Query handler for DropOffZonesNearLocation query.
+     * Returns the zones with available spaces within the requested radius, nearest first.
+     */
+    @QueryHandler
+    fun handle(query: DropOffZonesNearLocation): NearbyDropOffZonesList {
+        logger.info("Handling DropOffZonesNearLocation query for ${query.latitude},${query.longitude} within ${query.radiusMeters}m")
+
+        val limit = (query.limit ?: maxResults).coerceIn(1, maxResults)
+        val radius = query.radiusMeters.coerceIn(0.0, maxRadiusMeters)
+        return toNearbyList(findNearby(GeoPoint(query.latitude, query.longitude), limit, radius))
+    }
+
+    /**
+     * Query handler for NearestDropOffZones query.
+     * Returns the requested number of zones with available spaces closest to the given coordinates.
+     */
+    @QueryHandler
+    fun handle(query: NearestDropOffZones): NearbyDropOffZonesList {
+        logger.info("Handling NearestDropOffZones query for ${query.latitude},${query.longitude}, count: ${query.count}")
+
+        val limit = query.count.coerceIn(1, maxResults)
+        return toNearbyList(findNearby(GeoPoint(query.latitude, query.longitude), limit, maxRadiusMeters))
+    }
+
+    private fun findNearby(center: GeoPoint, limit: Int, radiusMeters: Double): List<SpatialIndex.Match<DropOffZone>> {
+        refreshIndexIfStale()
+        return zoneIndex.nearest(center, limit, radiusMeters) { zone -> zone.availableSpaces > 0 }
+    }
+
+    private fun refreshIndexIfStale() {
+        if (System.currentTimeMillis() - indexedAt <= zoneRefreshInterval.toMillis()) {
+            return
+        }
+        synchronized(this) {
+            if (System.currentTimeMillis() - indexedAt > zoneRefreshInterval.toMillis()) {
+                rebuildIndex()
+            }
+        }
+    }
+
+    private fun toNearbyList(matches: List<SpatialIndex.Match<DropOffZone>>): NearbyDropOffZonesList =
+        NearbyDropOffZonesList(zones = matches.map { match ->
+            NearbyDropOffZone(
+                location = match.value.location,
+                availableSpaces = match.value.availableSpaces,
+                zoneName = match.value.zoneName,
+                zoneId = match.value.zoneId,
+                distanceMeters = match.distanceMeters
+            )
+        })
+
+    private fun DropOffZoneEntity.toDropOffZone(): DropOffZone = DropOffZone(
+        location = location,
+        availableSpaces = availableSpaces,
+        zoneName = zoneName,
+        zoneId = zoneId
+    )
+
     /**
      * Query handler for ZoneDetails query.
      * Returns detailed information about a specific drop-off zone.
@@ -1,9 +1,13 @@
 package io.axoniq.build.jupiter_wheels.drop_off_zones_view
 
 import io.axoniq.build.jupiter_wheels.drop_off_zones_view.api.*
+import io.axoniq.build.jupiter_wheels.geo.GeoPoint
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -14,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/drop-off-zones")
 class DropOffZonesViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(DropOffZonesViewController::class.java)
@@ -26,22 +31,67 @@ class DropOffZonesViewController(
      */
     @GetMapping("/available")
     fun getAvailableDropOffZones(
-        @RequestParam(required = false) userLocation: String?
-    ): CompletableFuture<AvailableDropOffZonesList> {
+        @RequestParam(required = false) userLocation: String?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<AvailableDropOffZonesList>> {
         logger.info("REST request for available drop-off zones with user location: $userLocation")
+        return projectionVersions.conditionalGet(DropOffZonesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = AvailableDropOffZones(userLocation = userLocation)
+            queryGateway.query(query, AvailableDropOffZonesList::class.java, null)
+        }
+    }
+
+    /**
+     * GET endpoint to retrieve drop-off zones with space within a radius of the given coordinates.
+     */
+    @GetMapping("/nearby")
+    fun getDropOffZonesNearLocation(
+        @RequestParam latitude: Double,
+        @RequestParam longitude: Double,
+        @RequestParam(defaultValue = "2000") radiusMeters: Double,
+        @RequestParam(required = false) limit: Int?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<NearbyDropOffZonesList>> {
+        logger.info("REST request for drop-off zones within ${radiusMeters}m of $latitude,$longitude")
+
+        GeoPoint.validate(latitude, longitude)
+        return projectionVersions.conditionalGet(DropOffZonesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = DropOffZonesNearLocation(latitude, longitude, radiusMeters, limit)
+            queryGateway.query(query, NearbyDropOffZonesList::class.java, null)
+        }
+    }
+
+    /**
+     * GET endpoint to retrieve the drop-off zones with space closest to the given coordinates.
+     */
+    @GetMapping("/nearest")
+    fun getNearestDropOffZones(
+        @RequestParam latitude: Double,
+        @RequestParam longitude: Double,
+        @RequestParam(defaultValue = "3") count: Int,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<NearbyDropOffZonesList>> {
+        logger.info("REST request for $count nearest drop-off zones to $latitude,$longitude")
 
-        val query = AvailableDropOffZones(userLocation = userLocation)
-        return queryGateway.query(query, AvailableDropOffZonesList::class.java, null)
+        GeoPoint.validate(latitude, longitude)
+        return projectionVersions.conditionalGet(DropOffZonesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = NearestDropOffZones(latitude, longitude, count)
+            queryGateway.query(query, NearbyDropOffZonesList::class.java, null)
+        }
     }
 
     /**
      * GET endpoint to retrieve details of a specific drop-off zone.
      */
     @GetMapping("/{zoneId}")
-    fun getZoneDetails(@PathVariable zoneId: String): CompletableFuture<ZoneDetailsResult?> {
+    fun getZoneDetails(
+        @PathVariable zoneId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<ZoneDetailsResult?>> {
         logger.info("REST request for zone details with zone ID: $zoneId")
-        
-        val query = ZoneDetails(zoneId = zoneId)
-        return queryGateway.query(query, ZoneDetailsResult::class.java, null)
+        return projectionVersions.conditionalGet(DropOffZonesViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = ZoneDetails(zoneId = zoneId)
+            queryGateway.query(query, ZoneDetailsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
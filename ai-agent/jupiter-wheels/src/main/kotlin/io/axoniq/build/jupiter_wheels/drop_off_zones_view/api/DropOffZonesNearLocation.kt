@@ -0,0 +1,16 @@
+package io.axoniq.build.jupiter_wheels.drop_off_zones_view.api
+
+import kotlin.Double
+import kotlin.Int
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "DropOffZonesNearLocation",
+  namespace = "jupiter-wheels",
+)
+public data class DropOffZonesNearLocation(
+  public val latitude: Double,
+  public val longitude: Double,
+  public val radiusMeters: Double,
+  public val limit: Int?,
+)
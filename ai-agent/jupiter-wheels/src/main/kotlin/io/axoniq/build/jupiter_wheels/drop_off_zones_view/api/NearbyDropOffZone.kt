@@ -0,0 +1,13 @@
+package io.axoniq.build.jupiter_wheels.drop_off_zones_view.api
+
+import kotlin.Double
+import kotlin.Int
+import kotlin.String
+
+public data class NearbyDropOffZone(
+  public val location: String,
+  public val availableSpaces: Int,
+  public val zoneName: String,
+  public val zoneId: String,
+  public val distanceMeters: Double,
+)
@@ -0,0 +1,7 @@
+package io.axoniq.build.jupiter_wheels.drop_off_zones_view.api
+
+import kotlin.collections.List
+
+public data class NearbyDropOffZonesList(
+  public val zones: List<NearbyDropOffZone>,
+)
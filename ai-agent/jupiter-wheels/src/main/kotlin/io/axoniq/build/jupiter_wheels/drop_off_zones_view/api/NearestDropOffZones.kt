@@ -0,0 +1,15 @@
+package io.axoniq.build.jupiter_wheels.drop_off_zones_view.api
+
+import kotlin.Double
+import kotlin.Int
+import org.axonframework.queryhandling.annotations.Query
+
+@Query(
+  name = "NearestDropOffZones",
+  namespace = "jupiter-wheels",
+)
+public data class NearestDropOffZones(
+  public val latitude: Double,
+  public val longitude: Double,
+  public val count: Int,
+)
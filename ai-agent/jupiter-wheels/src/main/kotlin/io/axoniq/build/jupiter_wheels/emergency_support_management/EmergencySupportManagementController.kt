@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.emergency_support_management
 
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import io.axoniq.build.jupiter_wheels.emergency_support_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * EmergencySupportManagementController - REST controller for emergency support operations
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/emergency-support")
 class EmergencySupportManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(EmergencySupportManagementController::class.java)
@@ -26,19 +28,18 @@ class EmergencySupportManagementController(
      * Accepts emergency support requests and dispatches ContactEmergencySupport command
      */
     @PostMapping("/contact")
-    fun contactEmergencySupport(@RequestBody request: ContactEmergencySupportRequest): ResponseEntity<String> {
+    fun contactEmergencySupport(@RequestBody request: ContactEmergencySupportRequest): Mono<ResponseEntity<String>> {
         val command = ContactEmergencySupport(
             emergencyType = request.emergencyType,
             rentalId = request.rentalId
         )
         logger.info("Dispatching ContactEmergencySupport command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Emergency support contact request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ContactEmergencySupport command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to contact emergency support")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Emergency support contact request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ContactEmergencySupport command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to contact emergency support"))
+            }
     }
 
     /**
@@ -46,20 +47,19 @@ class EmergencySupportManagementController(
      * Accepts GPS coordinates and dispatches ProvideGPSLocation command
      */
     @PostMapping("/gps-location")
-    fun provideGPSLocation(@RequestBody request: ProvideGPSLocationRequest): ResponseEntity<String> {
+    fun provideGPSLocation(@RequestBody request: ProvideGPSLocationRequest): Mono<ResponseEntity<String>> {
         val command = ProvideGPSLocation(
             latitude = request.latitude,
             longitude = request.longitude,
             rentalId = request.rentalId
         )
         logger.info("Dispatching ProvideGPSLocation command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("GPS location provided successfully")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ProvideGPSLocation command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to provide GPS location")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("GPS location provided successfully"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ProvideGPSLocation command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to provide GPS location"))
+            }
     }
 
     /**
@@ -0,0 +1,26 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.ExceptionHandler
+import org.springframework.web.bind.annotation.RestControllerAdvice
+
+/**
+ * Answers requests with out-of-range coordinates with 400 Bad Request. The controllers validate the coordinates
+ * before dispatching a spatial query; a query sent by other means fails in its handler instead, and reaches the
+ * controllers as the cause of the failed query, which Spring matches as well.
+ */
+@RestControllerAdvice
+class GeoExceptionHandler {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(GeoExceptionHandler::class.java)
+    }
+
+    @ExceptionHandler(InvalidCoordinates::class)
+    fun handle(exception: InvalidCoordinates): ResponseEntity<String> {
+        logger.warn("Rejected request: ${exception.message}")
+        return ResponseEntity.badRequest().body(exception.message)
+    }
+}
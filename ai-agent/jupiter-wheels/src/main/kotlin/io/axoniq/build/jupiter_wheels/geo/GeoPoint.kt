@@ -0,0 +1,66 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+import kotlin.math.asin
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * WGS84 coordinate used by the spatial read models.
+ */
+data class GeoPoint(
+    val latitude: Double,
+    val longitude: Double
+) {
+
+    init {
+        validate(latitude, longitude)
+    }
+
+    /**
+     * Great-circle distance to [other] in metres, using the haversine formula.
+     */
+    fun distanceMeters(other: GeoPoint): Double {
+        val dLat = Math.toRadians(other.latitude - latitude)
+        val dLon = Math.toRadians(other.longitude - longitude)
+        val a = sin(dLat / 2) * sin(dLat / 2) +
+            cos(Math.toRadians(latitude)) * cos(Math.toRadians(other.latitude)) * sin(dLon / 2) * sin(dLon / 2)
+        return 2 * EARTH_RADIUS_METERS * asin(sqrt(a.coerceAtMost(1.0)))
+    }
+
+    companion object {
+        const val EARTH_RADIUS_METERS = 6_371_008.8
+
+        /**
+         * Parses a "latitude,longitude" location string. Returns null for named locations such as
+         * "Central Station", which have no coordinates and are therefore not spatially indexed.
+         */
+        fun parse(location: String?): GeoPoint? {
+            val parts = location?.split(',')?.map { it.trim() } ?: return null
+            if (parts.size != 2) {
+                return null
+            }
+            val latitude = parts[0].toDoubleOrNull() ?: return null
+            val longitude = parts[1].toDoubleOrNull() ?: return null
+            if (latitude !in -90.0..90.0 || longitude !in -180.0..180.0) {
+                return null
+            }
+            return GeoPoint(latitude, longitude)
+        }
+
+        /**
+         * Rejects coordinates outside the WGS84 range with [InvalidCoordinates], which is answered with 400.
+         */
+        fun validate(latitude: Double, longitude: Double) {
+            if (latitude !in -90.0..90.0) {
+                throw InvalidCoordinates("Latitude out of range: $latitude")
+            }
+            if (longitude !in -180.0..180.0) {
+                throw InvalidCoordinates("Longitude out of range: $longitude")
+            }
+        }
+
+        fun of(latitude: Double?, longitude: Double?): GeoPoint? =
+            if (latitude != null && longitude != null) GeoPoint(latitude, longitude) else null
+    }
+}
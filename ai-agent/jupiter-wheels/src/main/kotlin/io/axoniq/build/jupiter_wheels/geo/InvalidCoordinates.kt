@@ -0,0 +1,6 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+/**
+ * Thrown when a latitude or longitude lies outside the WGS84 range.
+ */
+class InvalidCoordinates(message: String) : IllegalArgumentException(message)
@@ -0,0 +1,186 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+import java.util.PriorityQueue
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.cos
+import kotlin.math.floor
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * In-memory grid index over [GeoPoint]s, keyed by an id.
+ *
+ * The globe is divided into cells of [cellDegrees] by [cellDegrees]. A query starts in the cell containing the
+ * search centre and visits the surrounding rings of cells outwards, stopping as soon as the next ring cannot
+ * hold anything closer than the current k-th result or lies beyond the search radius. For the city-scale
+ * radii used by the views this costs a handful of cell probes instead of a scan over every indexed entry.
+ *
+ * The index is safe for concurrent use: updates take a write lock, queries a read lock.
+ */
+class SpatialIndex<T>(private val cellDegrees: Double) {
+
+    /**
+     * A value returned by a query together with its distance to the search centre.
+     */
+    data class Match<T>(val value: T, val distanceMeters: Double)
+
+    private class Entry<T>(val point: GeoPoint, val cell: Long, val value: T)
+
+    init {
+        require(cellDegrees > 0 && cellDegrees <= 10) { "Cell size must be between 0 and 10 degrees" }
+    }
+
+    private val lock = ReentrantReadWriteLock()
+    private val entries = HashMap<String, Entry<T>>()
+    private val cells = HashMap<Long, MutableMap<String, Entry<T>>>()
+    private val latitudeCells = ceil(180 / cellDegrees - 1e-9).toInt()
+    private val longitudeCells = ceil(360 / cellDegrees - 1e-9).toInt()
+    private val cellHeightMeters = Math.toRadians(cellDegrees) * GeoPoint.EARTH_RADIUS_METERS
+
+    val size: Int
+        get() = lock.read { entries.size }
+
+    fun get(id: String): T? = lock.read { entries[id]?.value }
+
+    /**
+     * Adds or replaces the entry for [id].
+     */
+    fun put(id: String, point: GeoPoint, value: T) {
+        lock.write {
+            removeEntry(id)
+            insertEntry(id, point, value)
+        }
+    }
+
+    /**
+     * Replaces the value for [id] at its current position. Does nothing when [id] is not indexed.
+     */
+    fun update(id: String, transform: (T) -> T) {
+        lock.write {
+            val entry = entries[id] ?: return
+            val updated = Entry(entry.point, entry.cell, transform(entry.value))
+            entries[id] = updated
+            cells[entry.cell]?.put(id, updated)
+        }
+    }
+
+    fun remove(id: String) {
+        lock.write { removeEntry(id) }
+    }
+
+    /**
+     * Replaces the whole content of the index, e.g. when rebuilding it from the read model.
+     */
+    fun reload(values: Map<String, Pair<GeoPoint, T>>) {
+        lock.write {
+            entries.clear()
+            cells.clear()
+            values.forEach { (id, pair) -> insertEntry(id, pair.first, pair.second) }
+        }
+    }
+
+    /**
+     * Returns at most [limit] entries accepted by [filter] within [radiusMeters] of [center], nearest first.
+     * With a small limit and a large radius this is a k-nearest query; with a large limit a radius query.
+     */
+    fun nearest(center: GeoPoint, limit: Int, radiusMeters: Double, filter: (T) -> Boolean = { true }): List<Match<T>> {
+        if (limit <= 0 || radiusMeters < 0) {
+            return emptyList()
+        }
+        // Max-heap on distance holding the best candidates found so far
+        val best = PriorityQueue<Match<T>>(limit, compareByDescending { it.distanceMeters })
+        val centerLat = latitudeIndex(center.latitude)
+        val centerLon = longitudeIndex(center.longitude)
+        val maxRing = longitudeCells / 2
+        lock.read {
+            var ring = 0
+            while (ring <= maxRing) {
+                val ringDistance = ringLowerBoundMeters(center, ring)
+                if (ringDistance > radiusMeters) {
+                    break
+                }
+                if (best.size == limit && ringDistance > best.peek().distanceMeters) {
+                    break
+                }
+                forEachCellInRing(centerLat, centerLon, ring) { cell ->
+                    cells[cell]?.values?.forEach { entry ->
+                        val distance = center.distanceMeters(entry.point)
+                        if (distance <= radiusMeters && filter(entry.value)) {
+                            if (best.size < limit) {
+                                best.add(Match(entry.value, distance))
+                            } else if (distance < best.peek().distanceMeters) {
+                                best.poll()
+                                best.add(Match(entry.value, distance))
+                            }
+                        }
+                    }
+                }
+                ring++
+            }
+        }
+        return best.sortedBy { it.distanceMeters }
+    }
+
+    private fun insertEntry(id: String, point: GeoPoint, value: T) {
+        val entry = Entry(point, cellKey(latitudeIndex(point.latitude), longitudeIndex(point.longitude)), value)
+        entries[id] = entry
+        cells.getOrPut(entry.cell) { HashMap() }[id] = entry
+    }
+
+    private fun removeEntry(id: String) {
+        val previous = entries.remove(id) ?: return
+        cells[previous.cell]?.let { cell ->
+            cell.remove(id)
+            if (cell.isEmpty()) {
+                cells.remove(previous.cell)
+            }
+        }
+    }
+
+    /**
+     * Lower bound of the distance between [center] and any point in ring [ring]. The centre may lie anywhere in
+     * its own cell, so only ring - 1 full cells are guaranteed in between; longitude cells are narrowest at the
+     * highest latitude the ring reaches.
+     */
+    private fun ringLowerBoundMeters(center: GeoPoint, ring: Int): Double {
+        if (ring <= 1) {
+            return 0.0
+        }
+        val maxLatitude = min(abs(center.latitude) + ring * cellDegrees, 89.999)
+        val cellWidthMeters = cellHeightMeters * max(cos(Math.toRadians(maxLatitude)), 1e-5)
+        return (ring - 1) * min(cellHeightMeters, cellWidthMeters)
+    }
+
+    private inline fun forEachCellInRing(centerLat: Int, centerLon: Int, ring: Int, action: (Long) -> Unit) {
+        for (dLat in -ring..ring) {
+            val lat = centerLat + dLat
+            if (lat < 0 || lat >= latitudeCells) {
+                continue
+            }
+            if (abs(dLat) == ring) {
+                for (dLon in -ring..ring) {
+                    action(cellKey(lat, wrapLongitude(centerLon + dLon)))
+                }
+            } else {
+                action(cellKey(lat, wrapLongitude(centerLon - ring)))
+                if (ring > 0) {
+                    action(cellKey(lat, wrapLongitude(centerLon + ring)))
+                }
+            }
+        }
+    }
+
+    private fun latitudeIndex(latitude: Double): Int =
+        floor((latitude + 90) / cellDegrees).toInt().coerceIn(0, latitudeCells - 1)
+
+    private fun longitudeIndex(longitude: Double): Int = wrapLongitude(floor((longitude + 180) / cellDegrees).toInt())
+
+    private fun wrapLongitude(index: Int): Int = Math.floorMod(index, longitudeCells)
+
+    private fun cellKey(latitudeIndex: Int, longitudeIndex: Int): Long =
+        (latitudeIndex.toLong() shl 32) or (longitudeIndex.toLong() and 0xffffffffL)
+}
@@ -0,0 +1,175 @@
+package io.axoniq.build.jupiter_wheels.metrics
+
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import org.axonframework.commandhandling.annotations.CommandHandler
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.annotations.HandlerEnhancerDefinition
+import org.axonframework.messaging.annotations.MessageHandlingMember
+import org.axonframework.messaging.annotations.WrappedMessageHandlingMember
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.queryhandling.annotations.QueryHandler
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.stereotype.Component
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Times the `@CommandHandler`, `@EventHandler` and `@QueryHandler` methods of the application.
+ *
+ * Axon wraps every annotated handler method with this enhancer when it inspects a handler class. Meters are tagged
+ * with the simple name of the handler class, the handled message and the outcome; the `application` tag is added to
+ * every meter through `management.metrics.tags`.
+ *
+ * - `jupiterwheels.command.handling`: latency of each command handler, with a percentile histogram.
+ * - `jupiterwheels.event.handling`: processing time of each event handler, and `jupiterwheels.event.batch.size`: the
+ *   number of events a handler class handled in one batch of its event processor.
+ * - `jupiterwheels.query.handling`: latency of each query handler, with a percentile histogram, and
+ *   `jupiterwheels.query.results`: the number of items in its result, the summed size of the collections in it.
+ *
+ * The registry is looked up lazily, as handler definitions are created before the metrics infrastructure.
+ */
+@Component
+class HandlerMetrics(private val meterRegistry: ObjectProvider<MeterRegistry>) : HandlerEnhancerDefinition {
+
+    override fun <T> wrapHandler(original: MessageHandlingMember<T>): MessageHandlingMember<T> {
+        val method = original.unwrap(Method::class.java).orElse(null) ?: return original
+        return when {
+            method.isAnnotationPresent(CommandHandler::class.java) -> MeteredHandler(original, method, HandlerKind.COMMAND)
+            method.isAnnotationPresent(EventHandler::class.java) -> MeteredHandler(original, method, HandlerKind.EVENT)
+            method.isAnnotationPresent(QueryHandler::class.java) -> MeteredHandler(original, method, HandlerKind.QUERY)
+            else -> original
+        }
+    }
+
+    private enum class HandlerKind(val meterPrefix: String, val messageTag: String) {
+        COMMAND("jupiterwheels.command", "command"),
+        EVENT("jupiterwheels.event", "event"),
+        QUERY("jupiterwheels.query", "query")
+    }
+
+    private inner class MeteredHandler<T>(
+        delegate: MessageHandlingMember<T>,
+        method: Method,
+        private val kind: HandlerKind
+    ) : WrappedMessageHandlingMember<T>(delegate) {
+
+        private val handlerName = method.declaringClass.simpleName
+        private val messageName = delegate.payloadType().simpleName
+        private val successTimer by lazy { timer("success") }
+        private val failureTimer by lazy { timer("failure") }
+        private val resultSize by lazy {
+            DistributionSummary.builder("jupiterwheels.query.results")
+                .description("Number of items in the result of a query handler")
+                .tags("handler", handlerName, kind.messageTag, messageName)
+                .register(meterRegistry.getObject())
+        }
+        private val batchSize by lazy {
+            DistributionSummary.builder("jupiterwheels.event.batch.size")
+                .description("Number of events a handler class handled in one batch of its event processor")
+                .tags("handler", handlerName)
+                .register(meterRegistry.getObject())
+        }
+        private val batchKey = Context.ResourceKey.withLabel<IntArray>("eventBatchSize:${method.declaringClass.name}")
+
+        override fun handleSync(message: Message, context: ProcessingContext, target: T): Any? {
+            val start = System.nanoTime()
+            val result = try {
+                super.handleSync(message, context, target)
+            } catch (e: Exception) {
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+                throw e
+            }
+            successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+            if (kind == HandlerKind.QUERY) {
+                resultSize.record(cardinality(result).toDouble())
+            }
+            return result
+        }
+
+        override fun handle(message: Message, context: ProcessingContext, target: T): MessageStream<*> {
+            if (kind == HandlerKind.EVENT) {
+                countInBatch(context)
+            }
+            val start = System.nanoTime()
+            @Suppress("UNCHECKED_CAST")
+            val result = try {
+                super.handle(message, context, target) as MessageStream<Message>
+            } catch (e: RuntimeException) {
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+                throw e
+            }
+            if (result.error().isPresent) {
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+                return result
+            }
+            // onNext and whenComplete keep single-result streams single, which the buses rely on
+            val metered = if (kind == HandlerKind.QUERY) {
+                result.onNext { entry -> resultSize.record(cardinality(entry.message()?.payload()).toDouble()) }
+            } else {
+                result
+            }
+            return metered.whenComplete { successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS) }
+        }
+
+        /**
+         * Counts the events this handler class handles in the batch of the [context], recording the count once
+         * the batch commits. Every event handler method of the class shares the count.
+         */
+        private fun countInBatch(context: ProcessingContext) {
+            val existing = context.getResource(batchKey)
+            if (existing != null) {
+                existing[0]++
+                return
+            }
+            val count = intArrayOf(1)
+            context.putResource(batchKey, count)
+            context.runOnPrepareCommit { batchSize.record(count[0].toDouble()) }
+        }
+
+        private fun timer(outcome: String): Timer =
+            Timer.builder("${kind.meterPrefix}.handling")
+                .description("Time spent in a ${kind.messageTag} handler")
+                .tags("handler", handlerName, kind.messageTag, messageName, "outcome", outcome)
+                .publishPercentileHistogram(kind != HandlerKind.EVENT)
+                .register(meterRegistry.getObject())
+    }
+
+    private companion object {
+        val collectionFields = ConcurrentHashMap<Class<*>, List<Field>>()
+
+        /**
+         * Number of items in a query result: the size of a collection, the summed size of the collections held by
+         * a result object, or one for a result without collections.
+         */
+        fun cardinality(result: Any?): Int = when (result) {
+            null -> 0
+            is Collection<*> -> result.size
+            is Map<*, *> -> result.size
+            is Array<*> -> result.size
+            else -> {
+                val fields = collectionFields.computeIfAbsent(result.javaClass, ::collectionFieldsOf)
+                if (fields.isEmpty()) 1 else fields.sumOf { field ->
+                    when (val value = field.get(result)) {
+                        is Collection<*> -> value.size
+                        is Map<*, *> -> value.size
+                        else -> 0
+                    }
+                }
+            }
+        }
+
+        private fun collectionFieldsOf(type: Class<*>): List<Field> =
+            type.declaredFields
+                .filter { !Modifier.isStatic(it.modifiers) }
+                .filter { Collection::class.java.isAssignableFrom(it.type) || Map::class.java.isAssignableFrom(it.type) }
+                .onEach { it.isAccessible = true }
+    }
+}
@@ -2,6 +2,7 @@ package io.axoniq.build.jupiter_wheels.payment_options_view
 
 import io.axoniq.build.jupiter_wheels.payment_options_view.api.PaymentRetryOptions
 import io.axoniq.build.jupiter_wheels.payment_options_view.api.PaymentRetryOptionsResult
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -18,6 +19,11 @@ class PaymentOptionsViewComponent(
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PaymentOptionsViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "payment-options-view"
     }
 
     /**
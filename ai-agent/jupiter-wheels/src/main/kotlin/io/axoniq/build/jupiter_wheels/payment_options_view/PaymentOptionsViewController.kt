@@ -2,9 +2,12 @@ package io.axoniq.build.jupiter_wheels.payment_options_view
 
 import io.axoniq.build.jupiter_wheels.payment_options_view.api.PaymentRetryOptions
 import io.axoniq.build.jupiter_wheels.payment_options_view.api.PaymentRetryOptionsResult
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
 import java.util.concurrent.CompletableFuture
 
@@ -15,7 +18,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/payment-options")
 class PaymentOptionsViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -27,10 +31,14 @@ class PaymentOptionsViewController(
      * Returns available payment methods and original payment method for payment retry.
      */
     @GetMapping("/{rentalId}/retry-options")
-    fun getPaymentRetryOptions(@PathVariable rentalId: String): CompletableFuture<PaymentRetryOptionsResult> {
+    fun getPaymentRetryOptions(
+        @PathVariable rentalId: String,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PaymentRetryOptionsResult>> {
         logger.info("REST request for payment retry options for rental ID: $rentalId")
-
-        val query = PaymentRetryOptions(rentalId)
-        return queryGateway.query(query, PaymentRetryOptionsResult::class.java, null)
+        return projectionVersions.conditionalGet(PaymentOptionsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PaymentRetryOptions(rentalId)
+            queryGateway.query(query, PaymentRetryOptionsResult::class.java, null)
+        }
     }
 }
\ No newline at end of file
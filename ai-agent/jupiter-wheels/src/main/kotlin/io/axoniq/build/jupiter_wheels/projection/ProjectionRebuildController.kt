@@ -0,0 +1,43 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.*
+
+/**
+ * REST controller for rebuilding projections.
+ * A rebuild runs in the background; its outcome is logged.
+ */
+@RestController
+@RequestMapping("/api/projections")
+class ProjectionRebuildController(
+    private val projectionRebuilder: ProjectionRebuilder
+) {
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProjectionRebuildController::class.java)
+    }
+
+    /**
+     * List the projections that can be rebuilt.
+     */
+    @GetMapping
+    fun getProjections(): Set<String> = projectionRebuilder.projectionNames
+
+    /**
+     * Start rebuilding a projection into shadow tables, which replace the live tables once caught up.
+     */
+    @PostMapping("/{name}/rebuild")
+    fun rebuild(@PathVariable name: String): ResponseEntity<String> {
+        logger.info("REST request to rebuild projection $name")
+        return try {
+            projectionRebuilder.rebuild(name)
+            ResponseEntity.status(HttpStatus.ACCEPTED).body("Rebuild of projection $name started")
+        } catch (e: IllegalArgumentException) {
+            ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.message)
+        } catch (e: IllegalStateException) {
+            ResponseEntity.status(HttpStatus.CONFLICT).body(e.message)
+        }
+    }
+}
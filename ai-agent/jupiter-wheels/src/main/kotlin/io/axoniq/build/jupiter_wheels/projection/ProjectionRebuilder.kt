@@ -0,0 +1,321 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+import jakarta.annotation.PreDestroy
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventhandling.annotations.Event
+import org.axonframework.eventhandling.conversion.EventConverter
+import org.axonframework.eventhandling.processors.streaming.StreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.store.TokenStore
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventstreaming.StreamingCondition
+import org.axonframework.messaging.QualifiedName
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Rebuilds [RebuildableProjection]s from the event store into shadow tables, while the live tables keep serving
+ * reads and the projection's event processor keeps them up to date.
+ *
+ * A rebuild takes four steps:
+ * 1. The events up to the current head of the event store are folded. The events are routed by row ID to
+ *    [workers] worker threads, each owning the rows of its [RebuildPartition]. A worker holds at most
+ *    [rowsPerWorker] rows in memory and writes them to the shadow tables whenever it reaches that bound.
+ * 2. Each worker writes the rows it still holds into the shadow tables, in parallel.
+ * 3. The event processor is paused, and the events appended meanwhile are folded. The rows they changed are
+ *    upserted into the shadow tables.
+ * 4. In one transaction the shadow tables replace the live tables, and the foreign keys of the live tables, as
+ *    well as those of other tables referencing them, are recreated on them. The processor's tokens are then moved
+ *    to the position the shadow tables were built up to, and [ProjectionSwapped] is published, so components
+ *    holding state derived from the tables reload it before the processor resumes.
+ *
+ * The processor is only paused for the last two steps, which cover the events appended during the bulk load.
+ * Its tokens are written to the token store directly, as the processors of this Axon version do not support
+ * resetting their tokens yet.
+ *
+ * Only the projections implementing [RebuildableProjection] are rebuilt this way, which is the Bikes View of
+ * jupiter-wheels. The other read models, here and in the other applications, are still rebuilt by replaying
+ * the event store through their event handlers.
+ */
+@Component
+class ProjectionRebuilder(
+    private val configuration: AxonConfiguration,
+    private val jdbcTemplate: JdbcTemplate,
+    private val transactionTemplate: TransactionTemplate,
+    private val eventPublisher: ApplicationEventPublisher,
+    private val tokenStore: TokenStore,
+    projections: List<RebuildableProjection<*, *>>,
+    @param:Value("\${jupiter-wheels.rebuild.workers:4}") private val workers: Int,
+    @param:Value("\${jupiter-wheels.rebuild.rows-per-worker:100000}") private val rowsPerWorker: Int
+) {
+
+    /**
+     * Outcome of a rebuild: the number of events folded and of rows written.
+     */
+    data class RebuildResult(val projection: String, val events: Long, val rows: Int, val duration: Duration)
+
+    // "CREATE TABLE ... (LIKE ...)" copies no foreign keys, so they are recreated after the swap; the keys of other
+    // tables referencing the swapped ones are recreated as well, as they would keep the retired tables referenced
+    private data class ForeignKey(val table: String, val name: String, val definition: String)
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProjectionRebuilder::class.java)
+        private const val QUEUE_CAPACITY = 1024
+        private const val SHADOW_SUFFIX = "_rebuild"
+        private const val RETIRED_SUFFIX = "_retired"
+    }
+
+    init {
+        require(workers >= 1) { "A rebuild needs at least one worker" }
+        require(rowsPerWorker >= 1) { "A rebuild worker must hold at least one row" }
+    }
+
+    private val projections = projections.associateBy { it.name }
+    private val rebuilding = ConcurrentHashMap.newKeySet<String>()
+    private val executor: ExecutorService = Executors.newCachedThreadPool { runnable ->
+        Thread(runnable, "projection-rebuild").apply { isDaemon = true }
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    val projectionNames: Set<String>
+        get() = projections.keys
+
+    /**
+     * Starts rebuilding the projection named [name] in the background.
+     *
+     * @throws IllegalArgumentException when there is no such projection
+     * @throws IllegalStateException when the projection is already being rebuilt
+     */
+    fun rebuild(name: String): CompletableFuture<RebuildResult> {
+        val projection = projections[name] ?: throw IllegalArgumentException("Unknown projection: $name")
+        check(rebuilding.add(name)) { "Projection $name is already being rebuilt" }
+        return CompletableFuture.supplyAsync({ rebuild(projection) }, executor)
+            .whenComplete { result, error ->
+                rebuilding.remove(name)
+                if (error != null) {
+                    logger.error("Failed to rebuild projection {}", name, error)
+                } else {
+                    logger.info("Rebuilt projection {} from {} events into {} rows in {}", name, result.events, result.rows, result.duration)
+                }
+            }
+    }
+
+    private fun <K : Any, R : Any> rebuild(projection: RebuildableProjection<K, R>): RebuildResult {
+        val started = System.nanoTime()
+        val table = projection.table
+        val eventStore = configuration.getComponent(EventStore::class.java)
+        val shadow: (String) -> String = { it + SHADOW_SUFFIX }
+        val replay = Replay(projection, eventStore, configuration.getComponent(EventConverter::class.java), shadow)
+        logger.info("Rebuilding projection {} with {} workers", projection.name, workers)
+
+        val foreignKeys = foreignKeys(table.tables)
+        createShadowTables(table.tables)
+        try {
+            val head = eventStore.latestToken(null).join()
+            var events = replay.fold(eventStore.firstToken(null).join(), head)
+            replay.partitions.map { partition -> CompletableFuture.runAsync(partition::flush, executor) }.forEach { it.join() }
+            logger.info("Bulk loaded projection {} up to {}, swapping it in", projection.name, head)
+
+            val processor = processor(projection.processorName)
+            processor.shutdown().join()
+            try {
+                val finalHead = eventStore.latestToken(null).join()
+                events += replay.fold(head, finalHead)
+                val changed = replay.partitions.flatMap { it.changedRows() }
+                transactionTemplate.executeWithoutResult {
+                    if (changed.isNotEmpty()) {
+                        table.upsertInto(shadow, changed)
+                    }
+                    swapShadowTables(table.tables, foreignKeys)
+                }
+                moveTokens(projection.processorName, finalHead)
+                eventPublisher.publishEvent(ProjectionSwapped(projection.name))
+            } finally {
+                processor.start().join()
+            }
+            return RebuildResult(
+                projection.name,
+                events,
+                replay.partitions.sumOf { it.size },
+                Duration.ofNanos(System.nanoTime() - started)
+            )
+        } catch (e: Exception) {
+            dropTables(table.tables.map(shadow))
+            throw e
+        }
+    }
+
+    private fun createShadowTables(tables: List<String>) {
+        dropTables(tables.map { it + SHADOW_SUFFIX })
+        tables.forEach { table -> jdbcTemplate.execute("CREATE TABLE $table$SHADOW_SUFFIX (LIKE $table INCLUDING ALL)") }
+    }
+
+    private fun swapShadowTables(tables: List<String>, foreignKeys: List<ForeignKey>) {
+        foreignKeys.filter { it.table !in tables }.forEach { key ->
+            jdbcTemplate.execute("ALTER TABLE ${key.table} DROP CONSTRAINT \"${key.name}\"")
+        }
+        tables.forEach { table ->
+            jdbcTemplate.execute("ALTER TABLE $table RENAME TO $table$RETIRED_SUFFIX")
+            jdbcTemplate.execute("ALTER TABLE $table$SHADOW_SUFFIX RENAME TO $table")
+        }
+        // Child tables first, they may reference the parent tables
+        tables.asReversed().forEach { table -> jdbcTemplate.execute("DROP TABLE $table$RETIRED_SUFFIX") }
+        // The definitions name the referenced tables, which now resolve to the swapped in ones
+        foreignKeys.forEach { key ->
+            jdbcTemplate.execute("ALTER TABLE ${key.table} ADD CONSTRAINT \"${key.name}\" ${key.definition}")
+        }
+    }
+
+    /**
+     * The foreign keys of the [tables], and those of other tables referencing them.
+     */
+    private fun foreignKeys(tables: List<String>): List<ForeignKey> {
+        val names = tables.joinToString { "?" }
+        return jdbcTemplate.query(
+            "SELECT conrelid::regclass::text AS table_name, conname, pg_get_constraintdef(oid) AS definition " +
+                "FROM pg_constraint WHERE contype = 'f' " +
+                "AND (conrelid::regclass::text IN ($names) OR confrelid::regclass::text IN ($names))",
+            { rs, _ -> ForeignKey(rs.getString("table_name"), rs.getString("conname"), rs.getString("definition")) },
+            *(tables + tables).toTypedArray()
+        )
+    }
+
+    /**
+     * Stores [token] as the token of every segment of the stopped processor named [processorName].
+     */
+    private fun moveTokens(processorName: String, token: TrackingToken) {
+        tokenStore.fetchSegments(processorName, null).join().forEach { segment ->
+            transactionTemplate.executeWithoutResult {
+                tokenStore.storeToken(token, processorName, segment, null).join()
+                tokenStore.releaseClaim(processorName, segment, null).join()
+            }
+        }
+    }
+
+    private fun dropTables(tables: List<String>) {
+        tables.asReversed().forEach { table -> jdbcTemplate.execute("DROP TABLE IF EXISTS $table") }
+    }
+
+    private fun processor(name: String): StreamingEventProcessor {
+        fun search(config: Configuration): Sequence<StreamingEventProcessor> =
+            sequenceOf(config.getOptionalComponent(PooledStreamingEventProcessor::class.java, name).orElse(null))
+                .filterNotNull<StreamingEventProcessor>() + config.moduleConfigurations.asSequence().flatMap(::search)
+        return search(configuration).firstOrNull()
+            ?: throw IllegalStateException("No streaming event processor named $name")
+    }
+
+    // A fold without ID marks the end of a replayed range
+    private class Fold<K : Any>(val id: K?, val event: Any)
+
+    /**
+     * Folds event store ranges into the worker partitions of one rebuild.
+     */
+    private inner class Replay<K : Any, R : Any>(
+        private val projection: RebuildableProjection<K, R>,
+        private val eventStore: EventStore,
+        private val converter: EventConverter,
+        tableName: (String) -> String
+    ) {
+        val partitions = List(workers) { RebuildPartition(projection, tableName, rowsPerWorker) }
+
+        private val eventTypes: Map<QualifiedName, Class<*>> = projection.eventTypes.associateBy { type ->
+            val event = type.getAnnotation(Event::class.java)
+                ?: throw IllegalArgumentException("${type.name} is not annotated with @Event")
+            QualifiedName(event.namespace, event.name)
+        }
+
+        /**
+         * Folds the events after [from] up to and including [to], and returns how many were folded.
+         */
+        fun fold(from: TrackingToken, to: TrackingToken): Long {
+            if (from.covers(to)) {
+                return 0
+            }
+            val failure = AtomicReference<Throwable>()
+            val queues = partitions.map { ArrayBlockingQueue<Fold<K>>(QUEUE_CAPACITY) }
+            val end = Fold<K>(null, Unit)
+            val folding = partitions.indices.map { index ->
+                CompletableFuture.runAsync({ drain(queues[index], partitions[index], end, failure) }, executor)
+            }
+            var events = 0L
+            try {
+                read(from, to) { event ->
+                    failure.get()?.let { throw it }
+                    projection.idsOf(event).forEach { id -> queues[Math.floorMod(id.hashCode(), workers)].put(Fold(id, event)) }
+                    events++
+                }
+            } finally {
+                queues.forEach { it.put(end) }
+                folding.forEach { it.join() }
+            }
+            failure.get()?.let { throw it }
+            return events
+        }
+
+        private fun drain(queue: BlockingQueue<Fold<K>>, partition: RebuildPartition<K, R>, end: Fold<K>, failure: AtomicReference<Throwable>) {
+            while (true) {
+                val fold = queue.take()
+                if (fold === end) {
+                    return
+                }
+                // After a failure the queue is still drained, so the reader never blocks on it
+                if (failure.get() == null) {
+                    try {
+                        partition.apply(fold.id!!, fold.event)
+                    } catch (e: Exception) {
+                        failure.compareAndSet(null, e)
+                    }
+                }
+            }
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        private fun read(from: TrackingToken, to: TrackingToken, handle: (Any) -> Unit) {
+            val stream = eventStore.open(StreamingCondition.startingFrom(from), null)
+            val available = Semaphore(0)
+            stream.onAvailable { available.release() }
+            try {
+                while (true) {
+                    val entry = stream.next().orElse(null)
+                    if (entry == null) {
+                        stream.error().ifPresent { throw it }
+                        check(!stream.isCompleted) { "Event stream ended before reaching $to" }
+                        available.tryAcquire(1, TimeUnit.SECONDS)
+                        continue
+                    }
+                    val message: EventMessage = entry.message()
+                    eventTypes[message.type().qualifiedName()]?.let { type ->
+                        converter.convertPayload<EventMessage, Any>(message, type as Class<Any>)?.let(handle)
+                    }
+                    if (TrackingToken.fromContext(entry).map { it.covers(to) }.orElse(false)) {
+                        return
+                    }
+                }
+            } finally {
+                stream.close()
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+/**
+ * Published by [ProjectionRebuilder] once the rebuilt tables of the projection named [projection] replaced its live
+ * tables, before its event processor resumes. Components that keep state derived from those tables reload it.
+ */
+data class ProjectionSwapped(val projection: String)
@@ -0,0 +1,67 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+/**
+ * The rows of one [ProjectionRebuilder] worker, folded from the replayed events and written to the shadow tables
+ * named by [tableName].
+ *
+ * At most [maxRows] rows are held in memory. When that many are held, the changed ones are written and all are
+ * evicted: rows not written before are bulk loaded, the others upserted. A row evicted earlier is read back from
+ * the shadow tables when its next event arrives. Only the IDs of the written rows stay in memory for the whole
+ * rebuild.
+ */
+internal class RebuildPartition<K : Any, R : Any>(
+    private val projection: RebuildableProjection<K, R>,
+    private val tableName: (String) -> String,
+    private val maxRows: Int
+) {
+    private val table = projection.table
+    private val rows = HashMap<K, R>()
+    private val changed = LinkedHashSet<K>()
+    private val written = HashSet<K>()
+
+    /**
+     * Number of rows of the partition, written or not.
+     */
+    val size: Int
+        get() = written.size + rows.keys.count { it !in written }
+
+    fun apply(id: K, event: Any) {
+        val current = rows[id] ?: reload(id)
+        val next = projection.evolve(id, current, event) ?: return
+        if (next != current) {
+            rows[id] = next
+            changed += id
+        }
+        if (rows.size >= maxRows) {
+            flush()
+        }
+    }
+
+    /**
+     * Writes the rows changed since the last flush to the shadow tables and evicts every row from memory.
+     */
+    fun flush() {
+        val (existing, new) = changed.map(rows::getValue).partition { table.idOf(it) in written }
+        if (new.isNotEmpty()) {
+            table.copyInto(tableName, new)
+            new.mapTo(written, table::idOf)
+        }
+        if (existing.isNotEmpty()) {
+            table.upsertInto(tableName, existing)
+        }
+        rows.clear()
+        changed.clear()
+    }
+
+    /**
+     * Rows changed since the last flush.
+     */
+    fun changedRows(): List<R> = changed.map(rows::getValue)
+
+    private fun reload(id: K): R? {
+        if (id !in written) {
+            return null
+        }
+        return table.loadFrom(tableName, listOf(id)).singleOrNull()?.also { rows[id] = it }
+    }
+}
@@ -0,0 +1,39 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+/**
+ * A projection that [ProjectionRebuilder] can rebuild from the event store.
+ *
+ * The rebuild folds the events with [evolve], the same function the live event handlers apply, so a rebuilt
+ * projection matches the one maintained event by event.
+ */
+interface RebuildableProjection<K : Any, R : Any> {
+
+    /**
+     * Name used to request a rebuild.
+     */
+    val name: String
+
+    /**
+     * Name of the event processor that maintains the projection; it is paused while the rebuilt tables are swapped in.
+     */
+    val processorName: String
+
+    val table: BatchedTable<K, R>
+
+    /**
+     * Payload types of the events the projection handles, annotated with their message name.
+     */
+    val eventTypes: List<Class<*>>
+
+    /**
+     * IDs of the rows [event] changes. Events are routed to rebuild workers by row ID, so every row is folded
+     * by one worker, in event order.
+     */
+    fun idsOf(event: Any): Collection<K>
+
+    /**
+     * Applies [event] to the row with [id], which is null when it does not exist yet. Returns the changed row,
+     * or [row] itself when the event does not apply.
+     */
+    fun evolve(id: K, row: R?, event: Any): R?
+}
@@ -0,0 +1,166 @@
+package io.axoniq.build.jupiter_wheels.query
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.http.CacheControl
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Conditional GETs for the query endpoints, based on the versions of the read models.
+ *
+ * Every read model row or view that supports them carries a version its event handlers bump, and its query result
+ * exposes that version, which the endpoint returns as the ETag. A view over a whole table is versioned by the sum of
+ * the versions of its rows, which grows with every change to any of them; a missing row has version 0. The latest
+ * version of each row is remembered here, advanced by the event handlers once their transaction committed and by every
+ * query result served. A request whose `If-None-Match` holds the remembered version is answered with 304 without
+ * sending the query, so a polling client costs neither a query handler nor a database round-trip while nothing changed.
+ * Versions only move forward, so a query that read a row just before an update cannot hide it. An event handler that
+ * cannot tell the new version of a view without reading it, such as one over a whole table, forgets its version
+ * instead, so the next request queries. A query that read such a view just before the change may remember its old
+ * version again, for the max age below.
+ *
+ * Only the events handled by this instance advance the versions, so a remembered version is trusted for
+ * `jupiter-wheels.etags.max-age` at most; after that the next request queries the read model again.
+ * The least recently used rows are forgotten beyond `jupiter-wheels.etags.max-entries`.
+ *
+ * A view whose rows carry no version is versioned as a whole instead: its event handlers [bump] its version once
+ * their transaction committed, and its endpoints are tagged with the version the view had when the request arrived.
+ * Such a version is only known to this instance, so it starts from a random base, and it moves on by itself once it
+ * is older than the max age, so changes handled by other instances are picked up as well.
+ */
+@Component
+class ProjectionVersions(
+    @param:Value("\${jupiter-wheels.etags.max-entries:10000}") private val maxEntries: Int,
+    @param:Value("\${jupiter-wheels.etags.max-age:PT30S}") private val maxAge: Duration
+) {
+
+    private class KnownVersion(val version: Long, val recordedAt: Long)
+
+    companion object {
+        /**
+         * Formats a version as a (strong) entity tag.
+         */
+        fun eTag(version: Long): String = "\"$version\""
+
+        /**
+         * Whether an `If-None-Match` header matches the given version; weak tags compare as strong ones.
+         */
+        fun matches(ifNoneMatch: String?, version: Long): Boolean =
+            ifNoneMatch != null && ifNoneMatch.split(',').map { it.trim().removePrefix("W/") }
+                .any { it == "*" || it == eTag(version) }
+    }
+
+    // Base of the versions of whole views, so that tags handed out by another instance or before a restart never match
+    private val viewBase = ThreadLocalRandom.current().nextLong(1L shl 40, 1L shl 62)
+
+    private val versions = object : LinkedHashMap<String, KnownVersion>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, KnownVersion>): Boolean =
+            size > maxEntries
+    }
+
+    /**
+     * Records that the row identified by [key] is at least at [version].
+     */
+    fun advance(key: String, version: Long) {
+        val now = System.nanoTime()
+        synchronized(versions) {
+            val known = versions[key]
+            if (known == null || known.version <= version) {
+                versions[key] = KnownVersion(version, now)
+            }
+        }
+    }
+
+    /**
+     * Forgets the version of the row identified by [key], after it changed to a version that is not known here.
+     */
+    fun forget(key: String) {
+        synchronized(versions) {
+            versions.remove(key)
+        }
+    }
+
+    /**
+     * Records that the view identified by [key] changed, so that the tags handed out for it no longer match.
+     */
+    fun bump(key: String) {
+        val now = System.nanoTime()
+        synchronized(versions) {
+            versions[key] = KnownVersion((versions[key]?.version ?: viewBase) + 1, now)
+        }
+    }
+
+    /**
+     * The remembered version of the row identified by [key], or null when it is unknown or no longer trusted.
+     */
+    fun current(key: String): Long? {
+        val known = synchronized(versions) { versions[key] } ?: return null
+        return known.version.takeIf { isTrusted(known, System.nanoTime()) }
+    }
+
+    /**
+     * The version of the view identified by [key], which moves on when it is unknown or no longer trusted.
+     */
+    fun viewVersion(key: String): Long {
+        val now = System.nanoTime()
+        synchronized(versions) {
+            val known = versions[key]
+            if (known != null && isTrusted(known, now)) {
+                return known.version
+            }
+            return ((known?.version ?: viewBase) + 1).also { versions[key] = KnownVersion(it, now) }
+        }
+    }
+
+    private fun isTrusted(known: KnownVersion, now: Long): Boolean = now - known.recordedAt < maxAge.toNanos()
+
+    /**
+     * Answers a GET of the row identified by [key] conditionally: with 304 right away when [ifNoneMatch] holds its
+     * remembered version, and otherwise with the result of [query], tagged with its [version]. A result that turns
+     * out to match [ifNoneMatch] is answered with 304 as well, without its body.
+     */
+    fun <T> conditionalGet(
+        key: String,
+        ifNoneMatch: String?,
+        version: (T) -> Long,
+        query: () -> CompletableFuture<T>
+    ): CompletableFuture<ResponseEntity<T>> {
+        current(key)?.takeIf { matches(ifNoneMatch, it) }?.let {
+            return CompletableFuture.completedFuture(notModified(it))
+        }
+        return query().thenApply { result ->
+            val resultVersion = version(result)
+            advance(key, resultVersion)
+            if (matches(ifNoneMatch, resultVersion)) {
+                notModified(resultVersion)
+            } else {
+                ResponseEntity.ok().eTag(eTag(resultVersion)).cacheControl(CacheControl.noCache()).body(result)
+            }
+        }
+    }
+
+    /**
+     * Answers a GET of the view identified by [key] conditionally: with 304 right away when [ifNoneMatch] holds the
+     * version of the view, and otherwise with the result of [query], tagged with the version the view had before it.
+     */
+    fun <T> conditionalGet(
+        key: String,
+        ifNoneMatch: String?,
+        query: () -> CompletableFuture<T>
+    ): CompletableFuture<ResponseEntity<T>> {
+        val version = viewVersion(key)
+        if (matches(ifNoneMatch, version)) {
+            return CompletableFuture.completedFuture(notModified(version))
+        }
+        return query().thenApply { result ->
+            ResponseEntity.ok().eTag(eTag(version)).cacheControl(CacheControl.noCache()).body(result)
+        }
+    }
+
+    private fun <T> notModified(version: Long): ResponseEntity<T> =
+        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(version)).cacheControl(CacheControl.noCache()).build()
+}
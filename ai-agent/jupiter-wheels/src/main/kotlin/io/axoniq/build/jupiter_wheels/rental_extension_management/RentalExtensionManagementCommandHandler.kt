@@ -1,8 +1,8 @@
 package io.axoniq.build.jupiter_wheels.rental_extension_management
 
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import io.axoniq.build.jupiter_wheels.rental_extension_management.api.*
 import org.axonframework.commandhandling.annotations.CommandHandler
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.eventhandling.gateway.EventAppender
 import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.modelling.annotations.InjectEntity
@@ -10,20 +10,18 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.time.Duration
 import java.time.LocalDateTime
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 /**
  * Command handler for Rental Extension Management component.
  * Handles rental time extension requests and processing.
  */
 class RentalExtensionManagementCommandHandler(
-    private val commandGateway: CommandGateway
+    private val deadlineScheduler: DeadlineScheduler
 ) {
 
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RentalExtensionManagementCommandHandler::class.java)
-        private val executor: ExecutorService = Executors.newVirtualThreadPerTaskExecutor()
+        private val EXTENSION_PROCESSING_TIMEOUT: Duration = Duration.ofMinutes(30)
     }
 
     /**
@@ -47,16 +45,12 @@ class RentalExtensionManagementCommandHandler(
         eventAppender.append(event)
 
         // Set timeout deadline for extension processing
-        executor.submit {
-            try {
-                Thread.sleep(Duration.ofMinutes(30).toMillis()) // 30 minute timeout
-                val timeoutDeadline = RentalExtensionProcessingTimeout(rentalId = command.rentalId)
-                commandGateway.send(timeoutDeadline, processingContext)
-            } catch (e: InterruptedException) {
-                Thread.currentThread().interrupt()
-                logger.warn("Extension processing timeout interrupted for rental: ${command.rentalId}")
-            }
-        }
+        deadlineScheduler.schedule(
+            command.rentalId,
+            EXTENSION_PROCESSING_TIMEOUT,
+            RentalExtensionProcessingTimeout(rentalId = command.rentalId),
+            processingContext
+        )
         
         return RentalExtensionRequestResult(
             extensionRequestId = "ext-${command.rentalId}-${System.currentTimeMillis()}"
@@ -72,7 +66,8 @@ class RentalExtensionManagementCommandHandler(
     fun handle(
         command: ApproveRentalExtension,
         @InjectEntity state: RentalExtensionManagementState,
-        eventAppender: EventAppender
+        eventAppender: EventAppender,
+        processingContext: ProcessingContext
     ): RentalExtensionApprovalResult {
         logger.info("Processing rental extension approval for rental ID: ${command.rentalId}")
 
@@ -90,6 +85,9 @@ class RentalExtensionManagementCommandHandler(
         )
         eventAppender.append(event)
 
+        // Extension is settled, so the processing timeout no longer applies
+        deadlineScheduler.cancel(command.rentalId, RentalExtensionProcessingTimeout::class.java, processingContext)
+
         return RentalExtensionApprovalResult(approvalConfirmed = true)
     }
 
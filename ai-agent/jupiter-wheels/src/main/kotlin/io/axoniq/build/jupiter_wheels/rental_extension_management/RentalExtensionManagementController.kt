@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.rental_extension_management
 
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import io.axoniq.build.jupiter_wheels.rental_extension_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for Rental Extension Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/rental-extensions")
 class RentalExtensionManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(RentalExtensionManagementController::class.java)
@@ -25,38 +27,36 @@ class RentalExtensionManagementController(
      * Request rental extension endpoint
      */
     @PostMapping("/request")
-    fun requestRentalExtension(@RequestBody request: RequestRentalExtensionRequest): ResponseEntity<String> {
+    fun requestRentalExtension(@RequestBody request: RequestRentalExtensionRequest): Mono<ResponseEntity<String>> {
         val command = RequestRentalExtension(
             additionalTime = request.additionalTime,
             rentalId = request.rentalId
         )
         logger.info("Dispatching RequestRentalExtension command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental extension request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RequestRentalExtension command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request rental extension")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental extension request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RequestRentalExtension command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to request rental extension"))
+            }
     }
     
     /**
      * Approve rental extension endpoint
      */
     @PostMapping("/approve")
-    fun approveRentalExtension(@RequestBody request: ApproveRentalExtensionRequest): ResponseEntity<String> {
+    fun approveRentalExtension(@RequestBody request: ApproveRentalExtensionRequest): Mono<ResponseEntity<String>> {
         val command = ApproveRentalExtension(
             approvedTime = request.approvedTime,
             rentalId = request.rentalId
         )
         logger.info("Dispatching ApproveRentalExtension command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental extension approval accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ApproveRentalExtension command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to approve rental extension")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Rental extension approval accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ApproveRentalExtension command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to approve rental extension"))
+            }
     }
 }
 
@@ -1,12 +1,14 @@
 package io.axoniq.build.jupiter_wheels.user_account_management
 
+import io.axoniq.build.jupiter_wheels.command.ReactiveCommandDispatcher
 import io.axoniq.build.jupiter_wheels.user_account_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for User Account Management component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/user-account")
 class UserAccountManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(UserAccountManagementController::class.java)
@@ -26,7 +28,7 @@ class UserAccountManagementController(
      * Accepts user registration data and dispatches RegisterAccount command.
      */
     @PostMapping("/register")
-    fun registerAccount(@RequestBody request: RegisterAccountRequest): ResponseEntity<String> {
+    fun registerAccount(@RequestBody request: RegisterAccountRequest): Mono<ResponseEntity<String>> {
         val command = RegisterAccount(
             email = request.email,
             phoneNumber = request.phoneNumber,
@@ -35,13 +37,12 @@ class UserAccountManagementController(
 
         logger.info("Dispatching RegisterAccount command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Account registration accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RegisterAccount command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register account")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Account registration accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RegisterAccount command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register account"))
+            }
     }
 
     /**
@@ -49,7 +50,7 @@ class UserAccountManagementController(
      * Accepts verification data and dispatches VerifyEmail command.
      */
     @PostMapping("/verify-email")
-    fun verifyEmail(@RequestBody request: VerifyEmailRequest): ResponseEntity<String> {
+    fun verifyEmail(@RequestBody request: VerifyEmailRequest): Mono<ResponseEntity<String>> {
         val command = VerifyEmail(
             userId = request.userId,
             verificationToken = request.verificationToken
@@ -57,13 +58,12 @@ class UserAccountManagementController(
 
         logger.info("Dispatching VerifyEmail command: $command")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Email verification accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch VerifyEmail command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to verify email")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Email verification accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch VerifyEmail command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to verify email"))
+            }
     }
 
     /**
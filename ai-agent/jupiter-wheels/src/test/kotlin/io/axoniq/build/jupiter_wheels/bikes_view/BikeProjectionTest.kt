@@ -0,0 +1,60 @@
+package io.axoniq.build.jupiter_wheels.bikes_view
+
+import io.axoniq.build.jupiter_wheels.bikes_view.api.*
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+
+/**
+ * Test class for the bike row changes shared by the bikes view handlers and projection rebuilds
+ */
+class BikeProjectionTest {
+
+    private val projection = BikeProjection(mock(BikeTable::class.java))
+
+    private fun replay(vararg events: Any): Map<String, BikeRow> {
+        val rows = HashMap<String, BikeRow>()
+        events.forEach { event ->
+            projection.idsOf(event).forEach { id -> projection.evolve(id, rows[id], event)?.let { rows[id] = it } }
+        }
+        return rows
+    }
+
+    @Test
+    fun `given a created bike with coordinates, when replaying, then the bike is available at those coordinates`() {
+        val bike = replay(BikeCreated("52.37,4.89", "CITY", "GOOD", "bike-1")).getValue("bike-1")
+
+        assertThat(bike.status).isEqualTo("AVAILABLE")
+        assertThat(bike.latitude).isEqualTo(52.37)
+        assertThat(bike.longitude).isEqualTo(4.89)
+    }
+
+    @Test
+    fun `given a replacement, when replaying, then the original bike is out of service and the replacement rented`() {
+        val bikes = replay(
+            BikeCreated("depot", "CITY", "GOOD", "bike-1"),
+            BikeCreated("depot", "CITY", "GOOD", "bike-2"),
+            BikeRentalRequested("user-1", "rental-1", "bike-1"),
+            ReplacementBikeAssigned("bike-1", "bike-2", "rental-1")
+        )
+
+        assertThat(bikes.getValue("bike-1").status).isEqualTo("OUT_OF_SERVICE")
+        assertThat(bikes.getValue("bike-2").status).isEqualTo("RENTED")
+    }
+
+    @Test
+    fun `given a removed bike, when replaying, then the removal is recorded in its maintenance history`() {
+        val bike = replay(
+            BikeCreated("depot", "CITY", "GOOD", "bike-1"),
+            BikeRemovedFromFleet("Frame damage", "bike-1")
+        ).getValue("bike-1")
+
+        assertThat(bike.status).isEqualTo("REMOVED")
+        assertThat(bike.newMaintenanceRecords).containsExactly("Removed from fleet: Frame damage")
+    }
+
+    @Test
+    fun `given an event for an unknown bike, when replaying, then no bike is created`() {
+        assertThat(replay(BikeMarkedAsAvailable("bike-unknown"))).isEmpty()
+    }
+}
@@ -0,0 +1,72 @@
+package io.axoniq.build.jupiter_wheels.command
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.commandhandling.gateway.CommandResult
+import org.axonframework.messaging.Message
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.http.HttpStatus
+import org.springframework.web.server.ResponseStatusException
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the non-blocking command dispatch used by the controllers
+ */
+class ReactiveCommandDispatcherTest {
+
+    private val commandGateway: CommandGateway = mock(CommandGateway::class.java)
+
+    private fun resultOf(future: CompletableFuture<Message>): CommandResult = CommandResult { future }
+
+    @Test
+    fun `given a handled command, when sending, then the mono completes`() {
+        `when`(commandGateway.send(any(), isNull())).thenReturn(resultOf(CompletableFuture.completedFuture(mock(Message::class.java))))
+        val dispatcher = ReactiveCommandDispatcher(commandGateway, Duration.ofSeconds(1), 1)
+
+        dispatcher.send("command").block()
+    }
+
+    @Test
+    fun `given a failing command, when sending, then the handler exception is propagated`() {
+        `when`(commandGateway.send(any(), isNull())).thenReturn(resultOf(CompletableFuture.failedFuture(IllegalStateException("rejected"))))
+        val dispatcher = ReactiveCommandDispatcher(commandGateway, Duration.ofSeconds(1), 1)
+
+        assertThatThrownBy { dispatcher.send("command").block() }
+            .isInstanceOf(IllegalStateException::class.java)
+    }
+
+    @Test
+    fun `given the in-flight limit is reached, when sending, then the command is rejected as unavailable`() {
+        `when`(commandGateway.send(any(), isNull())).thenReturn(resultOf(CompletableFuture()))
+        val dispatcher = ReactiveCommandDispatcher(commandGateway, Duration.ofSeconds(10), 1)
+        val pending = dispatcher.send("command").subscribe()
+
+        assertThatThrownBy { dispatcher.send("other command").block() }
+            .isInstanceOfSatisfying(ResponseStatusException::class.java) {
+                assertThat(it.statusCode).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+            }
+        pending.dispose()
+    }
+
+    @Test
+    fun `given a slow command, when the timeout passes, then it fails as a gateway timeout and frees its slot`() {
+        val slow = CompletableFuture<Message>()
+        `when`(commandGateway.send(any(), isNull()))
+            .thenReturn(resultOf(slow))
+            .thenReturn(resultOf(CompletableFuture.completedFuture(mock(Message::class.java))))
+        val dispatcher = ReactiveCommandDispatcher(commandGateway, Duration.ofMillis(50), 1)
+
+        assertThatThrownBy { dispatcher.send("command").block() }
+            .isInstanceOfSatisfying(ResponseStatusException::class.java) {
+                assertThat(it.statusCode).isEqualTo(HttpStatus.GATEWAY_TIMEOUT)
+            }
+        assertThat(slow).isCancelled()
+        dispatcher.send("command").block()
+    }
+}
@@ -0,0 +1,64 @@
+package io.axoniq.build.jupiter_wheels.deadline
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+/**
+ * Test class for the hierarchical timing wheel used by the deadline scheduler
+ */
+class TimingWheelTest {
+
+    private val start = 1_000_000L
+
+    @Test
+    fun `given deadline within first level, when clock passes due time, then deadline expires`() {
+        val wheel = TimingWheel<String>(tickMillis = 100, wheelSize = 8, startMillis = start)
+
+        assertThat(wheel.schedule("a", start + 250, "a")).isTrue()
+
+        assertThat(wheel.advance(start + 200)).isEmpty()
+        assertThat(wheel.advance(start + 300)).containsExactly("a")
+        assertThat(wheel.size).isZero()
+    }
+
+    @Test
+    fun `given deadline beyond first level, when clock advances, then deadline cascades and expires on time`() {
+        val wheel = TimingWheel<String>(tickMillis = 100, wheelSize = 8, startMillis = start)
+
+        wheel.schedule("far", start + 5_050, "far")
+        wheel.schedule("farther", start + 70_000, "farther")
+
+        assertThat(wheel.advance(start + 5_000)).isEmpty()
+        assertThat(wheel.advance(start + 5_100)).containsExactly("far")
+        assertThat(wheel.advance(start + 69_900)).isEmpty()
+        assertThat(wheel.advance(start + 70_100)).containsExactly("farther")
+    }
+
+    @Test
+    fun `given cancelled deadline, when clock passes due time, then nothing expires`() {
+        val wheel = TimingWheel<String>(tickMillis = 100, wheelSize = 8, startMillis = start)
+        wheel.schedule("a", start + 2_000, "a")
+
+        assertThat(wheel.cancel("a")).isTrue()
+
+        assertThat(wheel.advance(start + 3_000)).isEmpty()
+    }
+
+    @Test
+    fun `given rescheduled deadline, when clock passes old due time, then only new due time fires`() {
+        val wheel = TimingWheel<String>(tickMillis = 100, wheelSize = 8, startMillis = start)
+        wheel.schedule("a", start + 500, "first")
+        wheel.schedule("a", start + 1_500, "second")
+
+        assertThat(wheel.advance(start + 600)).isEmpty()
+        assertThat(wheel.advance(start + 1_600)).containsExactly("second")
+    }
+
+    @Test
+    fun `given overdue deadline, when scheduling, then wheel rejects it for direct firing`() {
+        val wheel = TimingWheel<String>(tickMillis = 100, wheelSize = 8, startMillis = start)
+
+        assertThat(wheel.schedule("late", start - 1, "late")).isFalse()
+        assertThat(wheel.contains("late")).isFalse()
+    }
+}
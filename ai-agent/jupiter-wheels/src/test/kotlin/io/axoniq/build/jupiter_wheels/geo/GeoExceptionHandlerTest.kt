@@ -0,0 +1,60 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+import io.axoniq.build.jupiter_wheels.bikes_view.BikesViewController
+import io.axoniq.build.jupiter_wheels.bikes_view.api.NearbyBikesList
+import io.axoniq.build.jupiter_wheels.drop_off_zones_view.DropOffZonesViewController
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
+import org.axonframework.queryhandling.QueryExecutionException
+import org.axonframework.queryhandling.QueryGateway
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verifyNoInteractions
+import org.mockito.Mockito.`when`
+import org.springframework.test.web.reactive.server.WebTestClient
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for answering requests with out-of-range coordinates
+ */
+class GeoExceptionHandlerTest {
+
+    private val queryGateway: QueryGateway = mock(QueryGateway::class.java)
+    private val projectionVersions = ProjectionVersions(100, Duration.ofMinutes(1))
+    private val client = WebTestClient
+        .bindToController(
+            BikesViewController(queryGateway, projectionVersions),
+            DropOffZonesViewController(queryGateway, projectionVersions)
+        )
+        .controllerAdvice(GeoExceptionHandler())
+        .build()
+
+    @Test
+    fun `given a latitude out of range, when bikes nearby are requested, then the response is bad request`() {
+        client.get().uri("/api/bikes/nearby?latitude=91&longitude=4.9").exchange()
+            .expectStatus().isBadRequest
+
+        verifyNoInteractions(queryGateway)
+    }
+
+    @Test
+    fun `given a longitude out of range, when the nearest drop-off zones are requested, then the response is bad request`() {
+        client.get().uri("/api/drop-off-zones/nearest?latitude=52.37&longitude=-181").exchange()
+            .expectStatus().isBadRequest
+
+        verifyNoInteractions(queryGateway)
+    }
+
+    @Test
+    fun `given a query failing on bad coordinates, when requested over http, then the response is bad request`() {
+        `when`(queryGateway.query(any(), eq(NearbyBikesList::class.java), isNull())).thenReturn(
+            CompletableFuture.failedFuture(QueryExecutionException("Query failed", InvalidCoordinates("Latitude out of range: NaN")))
+        )
+
+        client.get().uri("/api/bikes/nearest?latitude=52.37&longitude=4.9").exchange()
+            .expectStatus().isBadRequest
+    }
+}
@@ -0,0 +1,76 @@
+package io.axoniq.build.jupiter_wheels.geo
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+
+/**
+ * Test class for the grid based spatial index used by the bike and drop-off zone views
+ */
+class SpatialIndexTest {
+
+    private val amsterdam = GeoPoint(52.3676, 4.9041)
+
+    @Test
+    fun `given indexed points, when querying nearest, then closest points are returned in distance order`() {
+        val index = SpatialIndex<String>(cellDegrees = 0.01)
+        index.put("near", GeoPoint(52.3680, 4.9045), "near")
+        index.put("middle", GeoPoint(52.3750, 4.9100), "middle")
+        index.put("far", GeoPoint(52.4500, 5.0000), "far")
+
+        val result = index.nearest(amsterdam, limit = 2, radiusMeters = 25_000.0)
+
+        assertThat(result.map { it.value }).containsExactly("near", "middle")
+        assertThat(result[0].distanceMeters).isLessThan(result[1].distanceMeters)
+    }
+
+    @Test
+    fun `given points outside the radius, when querying, then they are excluded`() {
+        val index = SpatialIndex<String>(cellDegrees = 0.01)
+        index.put("inside", GeoPoint(52.3700, 4.9041), "inside")
+        index.put("outside", GeoPoint(52.4000, 4.9041), "outside")
+
+        val result = index.nearest(amsterdam, limit = 10, radiusMeters = 1_000.0)
+
+        assertThat(result.map { it.value }).containsExactly("inside")
+    }
+
+    @Test
+    fun `given moved, updated and removed entries, when querying, then the latest state is returned`() {
+        val index = SpatialIndex<String>(cellDegrees = 0.01)
+        index.put("bike", GeoPoint(52.3680, 4.9045), "AVAILABLE")
+        index.put("other", GeoPoint(52.3690, 4.9050), "AVAILABLE")
+
+        index.put("bike", GeoPoint(48.8566, 2.3522), "AVAILABLE")
+        index.update("other") { "RENTED" }
+
+        assertThat(index.nearest(amsterdam, 10, 5_000.0) { it == "AVAILABLE" }).isEmpty()
+        assertThat(index.nearest(amsterdam, 10, 5_000.0).map { it.value }).containsExactly("RENTED")
+
+        index.remove("other")
+        assertThat(index.size).isEqualTo(1)
+        assertThat(index.nearest(amsterdam, 10, 5_000.0)).isEmpty()
+    }
+
+    @Test
+    fun `given random points, when querying nearest, then result matches a full scan`() {
+        val random = Random(42)
+        val index = SpatialIndex<GeoPoint>(cellDegrees = 0.005)
+        val points = (0 until 2_000).map {
+            GeoPoint(52.3 + random.nextDouble() * 0.15, 4.8 + random.nextDouble() * 0.2)
+        }
+        points.forEachIndexed { i, point -> index.put("p$i", point, point) }
+
+        val expected = points.sortedBy { amsterdam.distanceMeters(it) }.take(7)
+
+        assertThat(index.nearest(amsterdam, 7, 25_000.0).map { it.value }).containsExactlyElementsOf(expected)
+    }
+
+    @Test
+    fun `given coordinate and named locations, when parsing, then only coordinates are recognised`() {
+        assertThat(GeoPoint.parse("52.3676, 4.9041")).isEqualTo(amsterdam)
+        assertThat(GeoPoint.parse("Central Station")).isNull()
+        assertThat(GeoPoint.parse("95.0,4.9")).isNull()
+        assertThat(GeoPoint.parse(null)).isNull()
+    }
+}
@@ -0,0 +1,71 @@
+package io.axoniq.build.jupiter_wheels.metrics
+
+import io.axoniq.build.jupiter_wheels.bikes_view.BikesViewComponent
+import io.axoniq.build.jupiter_wheels.support_system.SupportSystemIntegration
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.segmenting.EventTrackerStatus
+import org.axonframework.eventhandling.processors.streaming.token.GlobalSequenceTrackingToken
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.context.ApplicationContext
+import java.time.Duration
+import java.util.Optional
+import java.util.OptionalLong
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the projection lag sampling of the event processors of this application
+ */
+class ProjectionLagMonitorTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+
+    private fun processor(position: Long): PooledStreamingEventProcessor {
+        val status = mock(EventTrackerStatus::class.java)
+        `when`(status.currentPosition).thenReturn(OptionalLong.of(position))
+        return mock(PooledStreamingEventProcessor::class.java).also {
+            `when`(it.processingStatus()).thenReturn(mapOf(0 to status))
+        }
+    }
+
+    private fun lag(processor: String): Double? =
+        meterRegistry.find("jupiterwheels.projection.lag").tag("processor", processor).gauge()?.value()
+
+    @Test
+    fun `given the event handling beans, when sampled, then the lag of their processors is reported per package`() {
+        val configuration = mock(AxonConfiguration::class.java)
+        val module = mock(Configuration::class.java)
+        val eventStore = mock(EventStore::class.java)
+        val applicationContext = mock(ApplicationContext::class.java)
+        val first = BikesViewComponent::class.java.packageName
+        val second = SupportSystemIntegration::class.java.packageName
+        val firstProcessor = processor(480)
+        val secondProcessor = processor(120)
+        `when`(configuration.getComponent(EventStore::class.java)).thenReturn(eventStore)
+        `when`(eventStore.latestToken(isNull())).thenReturn(CompletableFuture.completedFuture(GlobalSequenceTrackingToken(500)))
+        `when`(configuration.getOptionalComponent(PooledStreamingEventProcessor::class.java, first))
+            .thenReturn(Optional.of(firstProcessor))
+        `when`(configuration.getOptionalComponent(PooledStreamingEventProcessor::class.java, second))
+            .thenReturn(Optional.empty())
+        `when`(configuration.moduleConfigurations).thenReturn(listOf(module))
+        `when`(module.getOptionalComponent(PooledStreamingEventProcessor::class.java, second))
+            .thenReturn(Optional.of(secondProcessor))
+        `when`(module.moduleConfigurations).thenReturn(emptyList())
+        `when`(applicationContext.beanDefinitionNames).thenReturn(arrayOf("first", "second"))
+        doReturn(BikesViewComponent::class.java).`when`(applicationContext).getType("first")
+        doReturn(SupportSystemIntegration::class.java).`when`(applicationContext).getType("second")
+
+        ProjectionLagMonitor(configuration, applicationContext, meterRegistry, Duration.ofSeconds(5)).sample()
+
+        assertThat(lag("bikes_view")).isEqualTo(20.0)
+        assertThat(lag("support_system")).isEqualTo(380.0)
+    }
+}
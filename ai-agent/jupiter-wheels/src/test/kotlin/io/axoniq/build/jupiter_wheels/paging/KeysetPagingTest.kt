@@ -0,0 +1,69 @@
+package io.axoniq.build.jupiter_wheels.paging
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+
+/**
+ * Test class for the keyset pagination used by the catalog views
+ */
+class KeysetPagingTest {
+
+    private val rows = (1..25).map { "bike-%02d".format(it) }
+    private val fetch: (List<String>?, Int) -> List<String> = { cursor, limit ->
+        rows.filter { it > (cursor?.single() ?: "") }.take(limit)
+    }
+
+    @Test
+    fun `given more rows than a page, when following cursors, then every row is returned once in key order`() {
+        val paging = KeysetPaging(defaultPageSize = 10, maxPageSize = 20)
+        val result = mutableListOf<String>()
+        var cursor: String? = null
+        var pages = 0
+        do {
+            val page = paging.page(cursor, null, 1, fetch) { listOf(it) }
+            result += page.items
+            cursor = page.nextCursor
+            pages++
+        } while (cursor != null)
+
+        assertThat(result).isEqualTo(rows)
+        assertThat(pages).isEqualTo(3)
+    }
+
+    @Test
+    fun `given a page size above the maximum, when paging, then the page is capped`() {
+        val paging = KeysetPaging(defaultPageSize = 10, maxPageSize = 20)
+
+        val page = paging.page(null, 1000, 1, fetch) { listOf(it) }
+
+        assertThat(page.items).hasSize(20)
+        assertThat(page.nextCursor).isNotNull()
+    }
+
+    @Test
+    fun `given a malformed cursor, when paging, then the request is rejected`() {
+        val paging = KeysetPaging(defaultPageSize = 10, maxPageSize = 20)
+
+        assertThatThrownBy { paging.page("not base64!", null, 1, fetch) { listOf(it) } }
+            .isInstanceOf(InvalidPageCursor::class.java)
+    }
+
+    @Test
+    fun `given a cursor with another number of key columns, when paging, then the request is rejected`() {
+        val paging = KeysetPaging(defaultPageSize = 10, maxPageSize = 20)
+        val cursor = paging.page(null, 5, 2, { _, limit -> rows.take(limit) }) { listOf(it, "2025-01-01") }.nextCursor
+
+        assertThatThrownBy { paging.page(cursor, null, 1, fetch) { listOf(it) } }
+            .isInstanceOf(InvalidPageCursor::class.java)
+    }
+
+    @Test
+    fun `given a catalog, when streaming, then all rows are emitted in key order`() {
+        val paging = KeysetPaging(defaultPageSize = 5, maxPageSize = 10)
+
+        val streamed = paging.stream(fetch) { listOf(it) }.collectList().block()
+
+        assertThat(streamed).isEqualTo(rows)
+    }
+}
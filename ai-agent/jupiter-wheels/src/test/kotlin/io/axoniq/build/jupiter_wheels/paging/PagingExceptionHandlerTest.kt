@@ -0,0 +1,48 @@
+package io.axoniq.build.jupiter_wheels.paging
+
+import io.axoniq.build.jupiter_wheels.bikes_view.BikesViewController
+import io.axoniq.build.jupiter_wheels.bikes_view.api.AllBikesInFleetList
+import io.axoniq.build.jupiter_wheels.query.ProjectionVersions
+import org.axonframework.queryhandling.QueryExecutionException
+import org.axonframework.queryhandling.QueryGateway
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.test.web.reactive.server.WebTestClient
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for answering requests with a bad page cursor
+ */
+class PagingExceptionHandlerTest {
+
+    private val queryGateway: QueryGateway = mock(QueryGateway::class.java)
+    private val client = WebTestClient
+        .bindToController(BikesViewController(queryGateway, ProjectionVersions(100, Duration.ofMinutes(1))))
+        .controllerAdvice(PagingExceptionHandler())
+        .build()
+
+    @Test
+    fun `given a query failing on a bad cursor, when requested over http, then the response is bad request`() {
+        `when`(queryGateway.query(any(), eq(AllBikesInFleetList::class.java), isNull())).thenReturn(
+            CompletableFuture.failedFuture(QueryExecutionException("Query failed", InvalidPageCursor("Invalid page cursor: x")))
+        )
+
+        client.get().uri("/api/bikes/fleet?cursor=x").exchange()
+            .expectStatus().isBadRequest
+    }
+
+    @Test
+    fun `given a query failing otherwise, when requested over http, then the response is a server error`() {
+        `when`(queryGateway.query(any(), eq(AllBikesInFleetList::class.java), isNull())).thenReturn(
+            CompletableFuture.failedFuture(QueryExecutionException("Query failed", IllegalStateException("database down")))
+        )
+
+        client.get().uri("/api/bikes/fleet").exchange()
+            .expectStatus().is5xxServerError
+    }
+}
@@ -0,0 +1,79 @@
+package io.axoniq.build.jupiter_wheels.projection
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+/**
+ * Test class for the bounded rows of a projection rebuild worker
+ */
+class RebuildPartitionTest {
+
+    private data class Counter(val id: String, val value: Int)
+
+    private class CounterTable : BatchedTable<String, Counter>(listOf("counters")) {
+        val stored = mutableMapOf<String, Counter>()
+        val copies = mutableListOf<List<String>>()
+        val upserts = mutableListOf<List<String>>()
+        val loads = mutableListOf<String>()
+
+        override fun idOf(row: Counter): String = row.id
+
+        override fun loadFrom(tableName: (String) -> String, ids: Collection<String>): List<Counter> {
+            assertThat(tableName("counters")).isEqualTo("counters_rebuild")
+            loads += ids
+            return ids.mapNotNull(stored::get)
+        }
+
+        override fun upsertInto(tableName: (String) -> String, rows: Collection<Counter>) {
+            upserts += rows.map { it.id }
+            rows.forEach { stored[it.id] = it }
+        }
+
+        override fun copyInto(tableName: (String) -> String, rows: Collection<Counter>) {
+            assertThat(rows.map { it.id }).noneMatch(stored::containsKey)
+            copies += rows.map { it.id }
+            rows.forEach { stored[it.id] = it }
+        }
+    }
+
+    private class CounterProjection(override val table: CounterTable) : RebuildableProjection<String, Counter> {
+        override val name = "counters"
+        override val processorName = "counters"
+        override val eventTypes = emptyList<Class<*>>()
+        override fun idsOf(event: Any): Collection<String> = listOf(event as String)
+        override fun evolve(id: String, row: Counter?, event: Any): Counter = Counter(id, (row?.value ?: 0) + 1)
+    }
+
+    private val table = CounterTable()
+    private val partition = RebuildPartition(CounterProjection(table), { it + "_rebuild" }, maxRows = 2)
+
+    private fun fold(vararg ids: String) = ids.forEach { partition.apply(it, it) }
+
+    @Test
+    fun `given more rows than the worker holds, when folding, then rows are written in bounded chunks`() {
+        fold("a", "b", "c", "d", "e")
+        partition.flush()
+
+        assertThat(table.copies).containsExactly(listOf("a", "b"), listOf("c", "d"), listOf("e"))
+        assertThat(partition.size).isEqualTo(5)
+    }
+
+    @Test
+    fun `given an evicted row, when its next event arrives, then it is read back and upserted`() {
+        fold("a", "b", "a", "c")
+        partition.flush()
+
+        assertThat(table.loads).containsExactly("a")
+        assertThat(table.upserts).containsExactly(listOf("a"))
+        assertThat(table.stored.values).containsExactlyInAnyOrder(Counter("a", 2), Counter("b", 1), Counter("c", 1))
+        assertThat(partition.size).isEqualTo(3)
+    }
+
+    @Test
+    fun `given a new row, when its first event arrives, then the shadow tables are not read`() {
+        fold("a")
+
+        assertThat(table.loads).isEmpty()
+        assertThat(partition.changedRows()).containsExactly(Counter("a", 1))
+    }
+}
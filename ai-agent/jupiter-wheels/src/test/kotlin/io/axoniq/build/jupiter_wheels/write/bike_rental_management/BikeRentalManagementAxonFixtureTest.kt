@@ -3,16 +3,17 @@ package io.axoniq.build.jupiter_wheels.write.bike_rental_management
 import io.axoniq.build.jupiter_wheels.bike_rental_management.*
 import io.axoniq.build.jupiter_wheels.bike_rental_management.api.*
 import io.axoniq.build.jupiter_wheels.bike_rental_management.exception.BikeAlreadyReserved
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import org.assertj.core.api.Assertions.assertThat
 import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
 import org.axonframework.commandhandling.configuration.CommandHandlingModule
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
 import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
 import org.axonframework.test.fixture.AxonTestFixture
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
 
 /**
  * Test class for Bike Rental Management component using Axon Framework fixture
@@ -31,7 +32,7 @@ class BikeRentalManagementAxonFixtureTest {
             .named("BikeRentalManagement")
             .commandHandlers()
             .annotatedCommandHandlingComponent { c -> 
-                BikeRentalManagementCommandHandler(c.getComponent(CommandGateway::class.java))
+                BikeRentalManagementCommandHandler(mock(DeadlineScheduler::class.java))
             }
         
         configurer = configurer.registerEntity(stateEntity)
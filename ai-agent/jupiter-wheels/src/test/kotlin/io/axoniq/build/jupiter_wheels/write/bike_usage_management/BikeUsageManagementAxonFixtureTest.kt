@@ -2,9 +2,9 @@ package io.axoniq.build.jupiter_wheels.write.bike_usage_management
 
 import io.axoniq.build.jupiter_wheels.bike_usage_management.*
 import io.axoniq.build.jupiter_wheels.bike_usage_management.api.*
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
 import org.axonframework.commandhandling.configuration.CommandHandlingModule
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
 import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
 import org.axonframework.test.fixture.AxonTestFixture
@@ -28,11 +28,11 @@ class BikeUsageManagementAxonFixtureTest {
         var configurer = EventSourcingConfigurer.create()
         val stateEntity = EventSourcedEntityModule
             .annotated(String::class.java, BikeUsageManagementState::class.java)
-        val commandGateway = mock(CommandGateway::class.java)
+        val deadlineScheduler = mock(DeadlineScheduler::class.java)
         val commandHandlingModule = CommandHandlingModule
             .named("BikeUsageManagement")
             .commandHandlers()
-            .annotatedCommandHandlingComponent { c -> BikeUsageManagementCommandHandler(commandGateway) }
+            .annotatedCommandHandlingComponent { c -> BikeUsageManagementCommandHandler(deadlineScheduler) }
 
         configurer = configurer.registerEntity(stateEntity)
             .registerCommandHandlingModule(commandHandlingModule)
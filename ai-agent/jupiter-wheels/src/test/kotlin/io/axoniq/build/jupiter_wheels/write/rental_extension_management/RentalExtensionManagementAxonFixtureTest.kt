@@ -1,5 +1,6 @@
 package io.axoniq.build.jupiter_wheels.write.rental_extension_management
 
+import io.axoniq.build.jupiter_wheels.deadline.DeadlineScheduler
 import io.axoniq.build.jupiter_wheels.rental_extension_management.*
 import io.axoniq.build.jupiter_wheels.rental_extension_management.api.*
 import org.assertj.core.api.Assertions.assertThat
@@ -11,6 +12,7 @@ import org.axonframework.test.fixture.AxonTestFixture
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
 
 /**
  * Test class for Rental Extension Management component using AxonTestFixture.
@@ -29,7 +31,7 @@ class RentalExtensionManagementAxonFixtureTest {
         val commandHandlingModule = CommandHandlingModule
             .named("RentalExtensionManagement")
             .commandHandlers()
-            .annotatedCommandHandlingComponent { c -> RentalExtensionManagementCommandHandler(c.getComponent(org.axonframework.commandhandling.gateway.CommandGateway::class.java)) }
+            .annotatedCommandHandlingComponent { c -> RentalExtensionManagementCommandHandler(mock(DeadlineScheduler::class.java)) }
         
         configurer = configurer.registerEntity(stateEntity)
             .registerCommandHandlingModule(commandHandlingModule)
@@ -0,0 +1,124 @@
+package io.axoniq.build.pet_clinic.benchmarks
+
+import io.axoniq.build.pet_clinic.paging.KeysetPaging
+import io.axoniq.build.pet_clinic.pets_view.PetEntity
+import io.axoniq.build.pet_clinic.pets_view.PetRepository
+import io.axoniq.build.pet_clinic.pets_view.PetsViewComponent
+import io.axoniq.build.pet_clinic.pets_view.api.PetRegistered
+import io.axoniq.build.pet_clinic.pets_view.api.PetsList
+import io.axoniq.build.pet_clinic.pets_view.api.PetsListResult
+import io.axoniq.build.pet_clinic.query.ProjectionVersions
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.util.Date
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [PetsViewComponent] writing to and paging through PostgreSQL, started in a throwaway container,
+ * through the application's JPA repository. Only the view's own table and beans are loaded, not the whole
+ * application context. [onPetRegistered] saves a new pet per invocation; [petsList] reads the first page of a
+ * catalog of pets registered in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class PetsViewProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [PetEntity::class])
+    @EnableJpaRepositories(basePackageClasses = [PetRepository::class])
+    @Import(PetsViewComponent::class, KeysetPaging::class, ProjectionVersions::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<Nothing>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: PetsViewComponent
+    private val unitOfWorkFactory: UnitOfWorkFactory = SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE)
+    private val sequence = AtomicLong()
+    private val birthday = Date()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(PetsViewComponent::class.java)
+        repeat(CATALOG_SIZE) { id ->
+            val event = petRegistered("catalog-$id")
+            handle { ctx -> component.on(event, ctx) }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onPetRegistered() {
+        val event = petRegistered("pet-${sequence.incrementAndGet()}")
+        handle { ctx -> component.on(event, ctx) }
+    }
+
+    @Benchmark
+    fun petsList(): PetsListResult = component.handle(PetsList())
+
+    private fun petRegistered(petId: String) = PetRegistered(petId, "Pet $petId", birthday, "Dog")
+
+    private fun handle(handler: (ProcessingContext) -> Unit) {
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            handler(ctx)
+            CompletableFuture.completedFuture(null)
+        }.join()
+    }
+
+    private companion object {
+        const val CATALOG_SIZE = 1000
+    }
+}
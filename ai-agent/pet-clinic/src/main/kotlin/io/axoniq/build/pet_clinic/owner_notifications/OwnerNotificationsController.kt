@@ -1,12 +1,14 @@
 package io.axoniq.build.pet_clinic.owner_notifications
 
+import io.axoniq.build.pet_clinic.command.ReactiveCommandDispatcher
 import io.axoniq.build.pet_clinic.owner_notifications.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * Owner Notifications - REST controller for owner notification operations
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/owner-notifications")
 class OwnerNotificationsController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(OwnerNotificationsController::class.java)
@@ -26,20 +28,19 @@ class OwnerNotificationsController(
      * Accepts a NotifyOwner command and dispatches it for processing
      */
     @PostMapping("/notify")
-    fun notifyOwner(@RequestBody request: NotifyOwnerRequest): ResponseEntity<String> {
+    fun notifyOwner(@RequestBody request: NotifyOwnerRequest): Mono<ResponseEntity<String>> {
         val command = NotifyOwner(
             ownerEmail = request.ownerEmail,
             petId = request.petId
         )
 
         logger.info("Dispatching NotifyOwner command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Owner notification request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch NotifyOwner command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to process owner notification")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Owner notification request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch NotifyOwner command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to process owner notification"))
+            }
     }
 }
 
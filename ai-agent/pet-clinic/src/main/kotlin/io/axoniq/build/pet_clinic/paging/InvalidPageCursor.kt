@@ -0,0 +1,9 @@
+package io.axoniq.build.pet_clinic.paging
+
+/**
+ * Thrown when a page cursor was not issued by [KeysetPaging] for the queried view.
+ */
+class InvalidPageCursor(
+    message: String,
+    cause: Throwable? = null
+) : IllegalArgumentException(message, cause)
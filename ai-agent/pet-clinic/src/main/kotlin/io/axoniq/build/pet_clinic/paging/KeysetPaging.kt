@@ -0,0 +1,89 @@
+package io.axoniq.build.pet_clinic.paging
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Schedulers
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+
+/**
+ * One page of a keyset-paginated query. [nextCursor] is null on the last page.
+ */
+data class KeysetPage<T>(val items: List<T>, val nextCursor: String?)
+
+/**
+ * Keyset pagination for the catalog views.
+ *
+ * A page is read with "key greater than the cursor, ordered by key, limit n", so every page costs one index range
+ * scan regardless of how deep the client has paged, and rows inserted meanwhile never shift the pages. Cursors are
+ * opaque to clients: the key columns of the last row, base64 encoded. A cursor that does not decode to the queried
+ * view's number of key columns is rejected with [InvalidPageCursor].
+ *
+ * Page sizes are capped, so a single request never materializes more than [maxPageSize] rows. Clients that need
+ * a whole catalog use [stream], which reads it page by page as the subscriber asks for more.
+ */
+@Component
+class KeysetPaging(
+    @Value("\${pet-clinic.paging.default-page-size:100}") private val defaultPageSize: Int,
+    @Value("\${pet-clinic.paging.max-page-size:500}") private val maxPageSize: Int
+) {
+
+    init {
+        require(defaultPageSize in 1..maxPageSize) { "Default page size must be between 1 and $maxPageSize" }
+    }
+
+    fun pageSize(requested: Int?): Int = (requested ?: defaultPageSize).coerceIn(1, maxPageSize)
+
+    /**
+     * Reads one page of a view keyed by [keyColumns] columns. [fetch] receives the decoded cursor, or null for the
+     * first page, and the number of rows to read; one extra row is requested to find out whether another page follows.
+     */
+    fun <T> page(
+        cursor: String?,
+        requestedPageSize: Int?,
+        keyColumns: Int,
+        fetch: (List<String>?, Int) -> List<T>,
+        keyOf: (T) -> List<String>
+    ): KeysetPage<T> {
+        val pageSize = pageSize(requestedPageSize)
+        val rows = fetch(cursor?.let { decode(it, keyColumns) }, pageSize + 1)
+        val items = rows.take(pageSize)
+        val nextCursor = if (rows.size > pageSize) encode(keyOf(items.last())) else null
+        return KeysetPage(items, nextCursor)
+    }
+
+    /**
+     * Streams all rows in key order. The next page is only read once the subscriber has consumed the previous
+     * one, and reads run on the bounded elastic scheduler since the repositories block.
+     */
+    fun <T> stream(fetch: (List<String>?, Int) -> List<T>, keyOf: (T) -> List<String>): Flux<T> {
+        val pageSize = maxPageSize
+        fun read(key: List<String>?): Mono<List<T>> =
+            Mono.fromCallable { fetch(key, pageSize) }.subscribeOn(Schedulers.boundedElastic())
+        return read(null)
+            .expand { rows -> if (rows.size < pageSize) Mono.empty() else read(keyOf(rows.last())) }
+            .flatMapIterable({ it }, 1)
+    }
+
+    private fun encode(key: List<String>): String =
+        Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(key.joinToString(SEPARATOR).toByteArray(StandardCharsets.UTF_8))
+
+    private fun decode(cursor: String, keyColumns: Int): List<String> {
+        val key = try {
+            String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR)
+        } catch (e: IllegalArgumentException) {
+            throw InvalidPageCursor("Invalid page cursor: $cursor", e)
+        }
+        if (key.size != keyColumns) {
+            throw InvalidPageCursor("Invalid page cursor: $cursor")
+        }
+        return key
+    }
+
+    private companion object {
+        const val SEPARATOR = "\u0000"
+    }
+}
@@ -0,0 +1,25 @@
+package io.axoniq.build.pet_clinic.paging
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.ExceptionHandler
+import org.springframework.web.bind.annotation.RestControllerAdvice
+
+/**
+ * Answers requests with a bad page cursor with 400 Bad Request. The cursor is decoded by the query handler, so the
+ * exception reaches the controllers as the cause of the failed query, which Spring matches as well.
+ */
+@RestControllerAdvice
+class PagingExceptionHandler {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(PagingExceptionHandler::class.java)
+    }
+
+    @ExceptionHandler(InvalidPageCursor::class)
+    fun handle(exception: InvalidPageCursor): ResponseEntity<String> {
+        logger.warn("Rejected request: ${exception.message}")
+        return ResponseEntity.badRequest().body(exception.message)
+    }
+}
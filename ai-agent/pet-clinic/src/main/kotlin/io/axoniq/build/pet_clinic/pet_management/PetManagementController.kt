@@ -1,12 +1,14 @@
 package io.axoniq.build.pet_clinic.pet_management
 
+import io.axoniq.build.pet_clinic.command.ReactiveCommandDispatcher
 import io.axoniq.build.pet_clinic.pet_management.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 import java.util.*
 
 /**
@@ -16,7 +18,7 @@ import java.util.*
 @RestController
 @RequestMapping("/api/pet-management")
 class PetManagementController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PetManagementController::class.java)
@@ -27,7 +29,7 @@ class PetManagementController(
      * Accepts pet registration data and dispatches RegisterPet command.
      */
     @PostMapping("/register")
-    fun registerPet(@RequestBody request: RegisterPetRequest): ResponseEntity<String> {
+    fun registerPet(@RequestBody request: RegisterPetRequest): Mono<ResponseEntity<String>> {
         val command = RegisterPet(
             petId = request.petId,
             email = request.email,
@@ -38,13 +40,12 @@ class PetManagementController(
 
         logger.info("Dispatching RegisterPet command for pet: ${request.name}")
         
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Pet registration accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch RegisterPet command for pet: ${request.name}", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register pet")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Pet registration accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch RegisterPet command for pet: ${request.name}", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register pet"))
+            }
     }
 }
 
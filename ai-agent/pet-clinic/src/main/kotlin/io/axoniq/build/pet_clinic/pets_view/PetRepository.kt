@@ -1,5 +1,6 @@
 package io.axoniq.build.pet_clinic.pets_view
 
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
 import org.springframework.stereotype.Repository
 
@@ -19,5 +20,10 @@ interface PetRepository : JpaRepository<PetEntity, String> {
      * Find pets by name
      */
     fun findByName(name: String): List<PetEntity>
+
+    /**
+     * Find the next keyset page of pets, ordered by pet ID
+     */
+    fun findByPetIdGreaterThanOrderByPetId(petId: String, pageable: Pageable): List<PetEntity>
 }
 
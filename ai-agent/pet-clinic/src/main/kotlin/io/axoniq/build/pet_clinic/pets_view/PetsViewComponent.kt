@@ -1,11 +1,16 @@
 package io.axoniq.build.pet_clinic.pets_view
 
+import io.axoniq.build.pet_clinic.paging.KeysetPaging
 import io.axoniq.build.pet_clinic.pets_view.api.*
+import io.axoniq.build.pet_clinic.query.ProjectionVersions
 import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.messaging.unitofwork.ProcessingContext
 import org.axonframework.queryhandling.annotations.QueryHandler
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.data.domain.PageRequest
 import org.springframework.stereotype.Component
+import reactor.core.publisher.Flux
 
 /**
  * Pets View component that handles queries for pet information and maintains a read model
@@ -14,34 +19,45 @@ import org.springframework.stereotype.Component
  */
 @Component
 class PetsViewComponent(
-    private val petRepository: PetRepository
+    private val petRepository: PetRepository,
+    private val keysetPaging: KeysetPaging,
+    private val projectionVersions: ProjectionVersions
 ) {
     
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(PetsViewComponent::class.java)
+
+        /**
+         * Key of this view in the [ProjectionVersions].
+         */
+        const val VIEW_KEY = "pets-view"
     }
 
     /**
-     * Handles the PetsList query to retrieve all registered pets.
-     * This query handler supports the Pets View component's capability
-     * to provide a list of all pets in the system.
+     * Handles the PetsList query to retrieve a page of registered pets.
+     * Pages are read by pet ID from the cursor onwards, so each page costs the same
+     * however many pets are registered.
      */
     @QueryHandler
     fun handle(query: PetsList): PetsListResult {
-        logger.info("Handling PetsList query for Pets View component")
+        logger.info("Handling PetsList query for Pets View component after cursor: ${query.cursor}")
 
-        val pets = petRepository.findAll()
-        val petDetails = pets.map { pet ->
-            PetDetails(
-                petId = pet.petId,
-                name = pet.name,
-                birthday = pet.birthday,
-                type = pet.type
-            )
-        }
+        val page = keysetPaging.page(query.cursor, query.pageSize, keyColumns = 1, ::findPage) { pet -> listOf(pet.petId) }
+        val petDetails = page.items.map { it.toDetails() }
 
         logger.info("Retrieved ${petDetails.size} pets for PetsList query")
-        return PetsListResult(pets = petDetails)
+        return PetsListResult(pets = petDetails, nextCursor = page.nextCursor)
+    }
+
+    /**
+     * Handles the StreamPets streaming query by emitting all registered pets ordered by pet ID.
+     * The read model is read page by page as the subscriber consumes the stream.
+     */
+    @QueryHandler
+    fun handle(query: StreamPets): Flux<PetDetails> {
+        logger.info("Handling StreamPets query for Pets View component")
+        return keysetPaging.stream(::findPage) { pet -> listOf(pet.petId) }
+            .map { it.toDetails() }
     }
 
     /**
@@ -50,8 +66,9 @@ class PetsViewComponent(
      * to maintain an up-to-date view of all registered pets.
      */
     @EventHandler
-    fun on(event: PetRegistered) {
+    fun on(event: PetRegistered, processingContext: ProcessingContext) {
         logger.info("Handling PetRegistered event for pet: ${event.petId}")
+        processingContext.runOnAfterCommit { projectionVersions.bump(VIEW_KEY) }
 
         val petEntity = PetEntity(
             petId = event.petId,
@@ -63,5 +80,14 @@ class PetsViewComponent(
         petRepository.save(petEntity)
         logger.info("Successfully saved pet ${event.petId} to read model")
     }
-}
 
+    private fun findPage(cursor: List<String>?, limit: Int): List<PetEntity> =
+        petRepository.findByPetIdGreaterThanOrderByPetId(cursor?.single() ?: "", PageRequest.of(0, limit))
+
+    private fun PetEntity.toDetails(): PetDetails = PetDetails(
+        petId = petId,
+        name = name,
+        birthday = birthday,
+        type = type
+    )
+}
@@ -1,10 +1,15 @@
 package io.axoniq.build.pet_clinic.pets_view
 
 import io.axoniq.build.pet_clinic.pets_view.api.*
+import io.axoniq.build.pet_clinic.query.ProjectionVersions
 import org.axonframework.queryhandling.QueryGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import reactor.core.publisher.Flux
 import java.util.concurrent.CompletableFuture
 
 /**
@@ -15,7 +20,8 @@ import java.util.concurrent.CompletableFuture
 @RestController
 @RequestMapping("/api/pets")
 class PetsViewController(
-    private val queryGateway: QueryGateway
+    private val queryGateway: QueryGateway,
+    private val projectionVersions: ProjectionVersions
 ) {
 
     companion object {
@@ -23,13 +29,29 @@ class PetsViewController(
     }
 
     /**
-     * Endpoint to retrieve all registered pets.
-     * Uses the PetsList query to fetch all pets from the Pets View component.
+     * Endpoint to retrieve a page of registered pets.
+     * Uses the PetsList query; pass the returned nextCursor to fetch the following page.
      */
     @GetMapping
-    fun getAllPets(): CompletableFuture<PetsListResult> {
-        logger.info("REST request to get all pets via Pets View component")
-        val query = PetsList()
-        return queryGateway.query(query, PetsListResult::class.java, null)
+    fun getAllPets(
+        @RequestParam(required = false) cursor: String?,
+        @RequestParam(required = false) pageSize: Int?,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?
+    ): CompletableFuture<ResponseEntity<PetsListResult>> {
+        logger.info("REST request to get pets via Pets View component after cursor: $cursor")
+        return projectionVersions.conditionalGet(PetsViewComponent.VIEW_KEY, ifNoneMatch) {
+            val query = PetsList(cursor, pageSize)
+            queryGateway.query(query, PetsListResult::class.java, null)
+        }
+    }
+
+    /**
+     * Endpoint streaming all registered pets as newline-delimited JSON.
+     * Uses the StreamPets streaming query, so the pets are never collected in one response object.
+     */
+    @GetMapping("/stream", produces = [MediaType.APPLICATION_NDJSON_VALUE])
+    fun streamAllPets(): Flux<PetDetails> {
+        logger.info("REST request to stream all pets via Pets View component")
+        return Flux.from(queryGateway.streamingQuery(StreamPets(), PetDetails::class.java, null))
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package io.axoniq.build.pet_clinic.pets_view.api
 
 /**
- * Query to retrieve all registered pets from the Pets View component.
+ * Query to retrieve one page of registered pets from the Pets View component.
+ * Leave the cursor empty for the first page and pass the previous result's nextCursor for the following ones.
  */
 data class PetsList(
-    val dummy: String = ""
+    val cursor: String? = null,
+    val pageSize: Int? = null
 )
 
@@ -1,9 +1,11 @@
 package io.axoniq.build.pet_clinic.pets_view.api
 
 /**
- * Result containing a list of pets from the Pets View component.
+ * Result containing a page of pets from the Pets View component.
+ * The nextCursor is null on the last page.
  */
 data class PetsListResult(
-    val pets: List<PetDetails>
+    val pets: List<PetDetails>,
+    val nextCursor: String? = null
 )
 
@@ -0,0 +1,7 @@
+package io.axoniq.build.pet_clinic.pets_view.api
+
+/**
+ * Streaming query emitting all registered pets from the Pets View component, one PetDetails at a time.
+ */
+class StreamPets
+
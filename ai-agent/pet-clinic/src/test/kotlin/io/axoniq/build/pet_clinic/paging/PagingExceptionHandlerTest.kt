@@ -0,0 +1,48 @@
+package io.axoniq.build.pet_clinic.paging
+
+import io.axoniq.build.pet_clinic.pets_view.PetsViewController
+import io.axoniq.build.pet_clinic.pets_view.api.PetsListResult
+import io.axoniq.build.pet_clinic.query.ProjectionVersions
+import org.axonframework.queryhandling.QueryExecutionException
+import org.axonframework.queryhandling.QueryGateway
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.test.web.reactive.server.WebTestClient
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for answering requests with a bad page cursor
+ */
+class PagingExceptionHandlerTest {
+
+    private val queryGateway: QueryGateway = mock(QueryGateway::class.java)
+    private val client = WebTestClient
+        .bindToController(PetsViewController(queryGateway, ProjectionVersions(100, Duration.ofMinutes(1))))
+        .controllerAdvice(PagingExceptionHandler())
+        .build()
+
+    @Test
+    fun `given a query failing on a bad cursor, when requested over http, then the response is bad request`() {
+        `when`(queryGateway.query(any(), eq(PetsListResult::class.java), isNull())).thenReturn(
+            CompletableFuture.failedFuture(QueryExecutionException("Query failed", InvalidPageCursor("Invalid page cursor: x")))
+        )
+
+        client.get().uri("/api/pets?cursor=x").exchange()
+            .expectStatus().isBadRequest
+    }
+
+    @Test
+    fun `given a query failing otherwise, when requested over http, then the response is a server error`() {
+        `when`(queryGateway.query(any(), eq(PetsListResult::class.java), isNull())).thenReturn(
+            CompletableFuture.failedFuture(QueryExecutionException("Query failed", IllegalStateException("database down")))
+        )
+
+        client.get().uri("/api/pets").exchange()
+            .expectStatus().is5xxServerError
+    }
+}
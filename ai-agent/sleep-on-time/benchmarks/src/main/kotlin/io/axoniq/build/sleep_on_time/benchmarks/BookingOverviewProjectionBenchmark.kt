@@ -0,0 +1,113 @@
+package io.axoniq.build.sleep_on_time.benchmarks
+
+import io.axoniq.build.sleep_on_time.booking_overview.BookingOverviewEntity
+import io.axoniq.build.sleep_on_time.booking_overview.BookingOverviewQueryComponent
+import io.axoniq.build.sleep_on_time.booking_overview.BookingOverviewRepository
+import io.axoniq.build.sleep_on_time.booking_overview.api.ContainerObtained
+import io.axoniq.build.sleep_on_time.booking_overview.api.GuestCheckedIn
+import io.axoniq.build.sleep_on_time.booking_overview.api.GuestCheckedOut
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.boot.WebApplicationType
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.domain.EntityScan
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration
+import org.springframework.boot.builder.SpringApplicationBuilder
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.Import
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.testcontainers.containers.PostgreSQLContainer
+import org.testcontainers.utility.DockerImageName
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the [BookingOverviewQueryComponent] event handlers writing to PostgreSQL, started in a throwaway
+ * container, through the application's JPA repositories. Only the projection's own entities and repositories are
+ * loaded, not the whole application context. [onContainerObtained] creates a booking per event, [onCheckInAndOut]
+ * updates the bookings created during setup, each looked up by booking and guest first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class BookingOverviewProjectionBenchmark {
+
+    @Configuration
+    @ImportAutoConfiguration(
+        DataSourceAutoConfiguration::class,
+        HibernateJpaAutoConfiguration::class,
+        TransactionAutoConfiguration::class
+    )
+    @EntityScan(basePackageClasses = [BookingOverviewEntity::class])
+    @EnableJpaRepositories(basePackageClasses = [BookingOverviewRepository::class])
+    @Import(BookingOverviewQueryComponent::class)
+    class ProjectionContext
+
+    private lateinit var postgres: PostgreSQLContainer<*>
+    private lateinit var context: ConfigurableApplicationContext
+    private lateinit var component: BookingOverviewQueryComponent
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        postgres = PostgreSQLContainer<Nothing>(DockerImageName.parse("postgres:17-alpine")).also { it.start() }
+        context = SpringApplicationBuilder(ProjectionContext::class.java)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=${postgres.jdbcUrl}",
+                "spring.datasource.username=${postgres.username}",
+                "spring.datasource.password=${postgres.password}",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.docker.compose.enabled=false"
+            )
+            .run()
+        component = context.getBean(BookingOverviewQueryComponent::class.java)
+        repeat(BOOKINGS) { id ->
+            component.on(ContainerObtained("stay-$id", "guest-$id", LocalDateTime.now(), "container-${id % 50}"))
+        }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        context.close()
+        postgres.stop()
+    }
+
+    @Benchmark
+    fun onContainerObtained() {
+        val id = sequence.incrementAndGet()
+        component.on(ContainerObtained("booking-$id", "guest-$id", LocalDateTime.now(), "container-${id % 50}"))
+    }
+
+    @Benchmark
+    fun onCheckInAndOut() {
+        val id = sequence.incrementAndGet()
+        val booking = id % BOOKINGS
+        if (id % 2 == 0L) {
+            component.on(GuestCheckedIn(LocalDateTime.now(), "stay-$booking", "guest-$booking", "container-${booking % 50}"))
+        } else {
+            component.on(GuestCheckedOut("stay-$booking", "guest-$booking", LocalDateTime.now(), "container-${booking % 50}"))
+        }
+    }
+
+    private companion object {
+        const val BOOKINGS = 1000
+    }
+}
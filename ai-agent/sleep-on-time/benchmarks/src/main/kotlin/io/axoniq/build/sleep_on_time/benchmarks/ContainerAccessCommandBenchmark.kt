@@ -0,0 +1,59 @@
+package io.axoniq.build.sleep_on_time.benchmarks
+
+import io.axoniq.build.sleep_on_time.container_access.api.ContainerDoorOpenResult
+import io.axoniq.build.sleep_on_time.container_access.api.OpenContainerDoor
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.configuration.AxonConfiguration
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Throughput of the Container Access door opening command handler, dispatched through the command gateway.
+ * Every invocation targets a new booking, guest and container, so the measurement covers dispatch, planning the
+ * entity's criteria, loading an empty entity, running the handler and appending the resulting event. The entity is
+ * registered with the identifier of [OpenContainerDoor] only, as in the fixture test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class ContainerAccessCommandBenchmark {
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var commandGateway: CommandGateway
+    private val sequence = AtomicLong()
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.containerAccess()
+        commandGateway = configuration.getComponent(CommandGateway::class.java)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun openContainerDoor(): ContainerDoorOpenResult {
+        val id = sequence.incrementAndGet()
+        return commandGateway.sendAndWait(
+            OpenContainerDoor("booking-$id", "guest-$id", 42, "container-$id"),
+            ContainerDoorOpenResult::class.java
+        )
+    }
+}
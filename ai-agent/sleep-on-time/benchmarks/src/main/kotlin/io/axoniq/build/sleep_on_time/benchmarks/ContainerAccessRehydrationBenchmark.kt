@@ -0,0 +1,89 @@
+package io.axoniq.build.sleep_on_time.benchmarks
+
+import io.axoniq.build.sleep_on_time.container_access.ContainerAccessState
+import io.axoniq.build.sleep_on_time.container_access.api.DoorOpeningRequested
+import io.axoniq.build.sleep_on_time.container_access.api.GuestCheckedIn
+import io.axoniq.build.sleep_on_time.container_access.api.OpenContainerDoor
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventhandling.gateway.EventGateway
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.axonframework.modelling.StateManager
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cost of rehydrating a [ContainerAccessState] from its event stream, as a function of the stream length.
+ * The stream is a check-in followed by door openings, all tagged with the same booking, guest and container, so
+ * the planned criteria match every event once. It is appended once per trial; each invocation sources it in a fresh
+ * unit of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = ["-Daxoniq.update-checker.disabled=true"])
+class ContainerAccessRehydrationBenchmark {
+
+    @Param("1", "10", "100", "1000")
+    var streamLength: Int = 0
+
+    private lateinit var configuration: AxonConfiguration
+    private lateinit var unitOfWorkFactory: UnitOfWorkFactory
+    private lateinit var stateManager: StateManager
+    private val id = OpenContainerDoor.TargetIdentifier("booking-rehydration", "guest-rehydration", "container-rehydration")
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        configuration = InMemoryAxon.containerAccess()
+        unitOfWorkFactory = configuration.getComponent(UnitOfWorkFactory::class.java)
+        stateManager = configuration.getComponent(StateManager::class.java)
+
+        val eventGateway = configuration.getComponent(EventGateway::class.java)
+        val checkedInAt = LocalDateTime.now()
+        val events = ArrayList<Any>(streamLength)
+        events.add(GuestCheckedIn(checkedInAt, id.bookingId, id.guestId, id.containerId))
+        repeat(streamLength - 1) { i ->
+            events.add(DoorOpeningRequested(id.bookingId, id.guestId, checkedInAt.plusMinutes(i.toLong()), id.containerId))
+        }
+        // Appended in batches to keep the seeding unit of work small
+        events.chunked(100).forEach { batch ->
+            unitOfWorkFactory.create().executeWithResult { ctx -> eventGateway.publish(ctx, batch) }.join()
+        }
+
+        // A load that sources fewer events than were appended would time the wrong thing, so the trial fails instead
+        val eventStore = configuration.getComponent(EventStore::class.java)
+        val sourced = unitOfWorkFactory.create().executeWithResult { ctx ->
+            eventStore.transaction(ctx)
+                .source(SourcingCondition.conditionFor(ContainerAccessState.resolveCriteria(id)))
+                .reduce(0) { count, _ -> count + 1 }
+        }.join()
+        check(sourced == streamLength) { "The entity criteria source $sourced of the $streamLength appended events" }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        configuration.shutdown()
+    }
+
+    @Benchmark
+    fun loadEntity(): ContainerAccessState =
+        unitOfWorkFactory.create().executeWithResult { ctx ->
+            stateManager.loadEntity(ContainerAccessState::class.java, id, ctx)
+        }.join()
+}
@@ -0,0 +1,35 @@
+package io.axoniq.build.sleep_on_time.benchmarks
+
+import io.axoniq.build.sleep_on_time.container_access.ContainerAccessCommandHandler
+import io.axoniq.build.sleep_on_time.container_access.ContainerAccessState
+import io.axoniq.build.sleep_on_time.container_access.api.OpenContainerDoor
+import org.axonframework.axonserver.connector.AxonServerConfigurationEnhancer
+import org.axonframework.commandhandling.configuration.CommandHandlingModule
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventsourcing.configuration.EventSourcedEntityModule
+import org.axonframework.eventsourcing.configuration.EventSourcingConfigurer
+
+/**
+ * Builds the same in-memory configuration as the Container Access fixture test: the annotated entity and command
+ * handler on top of the default in-memory event store, with the Axon Server connector disabled.
+ */
+object InMemoryAxon {
+
+    fun containerAccess(): AxonConfiguration {
+        val stateEntity = EventSourcedEntityModule
+            .annotated(OpenContainerDoor.TargetIdentifier::class.java, ContainerAccessState::class.java)
+
+        val commandHandlingModule = CommandHandlingModule
+            .named("ContainerAccess")
+            .commandHandlers()
+            .annotatedCommandHandlingComponent { ContainerAccessCommandHandler() }
+
+        val configuration = EventSourcingConfigurer.create()
+            .registerEntity(stateEntity)
+            .registerCommandHandlingModule(commandHandlingModule)
+            .componentRegistry { cr -> cr.disableEnhancer(AxonServerConfigurationEnhancer::class.java) }
+            .build()
+        configuration.start()
+        return configuration
+    }
+}
@@ -0,0 +1,222 @@
+package io.axoniq.build.sleep_on_time.command
+
+import org.axonframework.commandhandling.CommandBus
+import org.axonframework.commandhandling.CommandHandler
+import org.axonframework.commandhandling.CommandMessage
+import org.axonframework.commandhandling.CommandResultMessage
+import org.axonframework.commandhandling.InterceptingCommandBus
+import org.axonframework.common.infra.ComponentDescriptor
+import org.axonframework.messaging.QualifiedName
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.ProcessingLifecycleHandlerRegistrar
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.axonframework.modelling.annotations.AnnotationBasedEntityIdResolver
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Command bus that handles high-frequency commands in micro-batches.
+ *
+ * Commands named in [batchedCommands] are not handled right away: they are collected for at most [window], or until
+ * [maxBatchSize] of them are pending, and then grouped by the entity they target. Each group is handled in a single
+ * unit of work, so its entity is loaded once and the events of all its commands are appended together when the unit
+ * of work commits. Every dispatcher still gets the result of its own command. When a group fails, its commands are
+ * handled again one by one, with the processing context they were dispatched in, so a rejected command does not fail
+ * the others of its group.
+ *
+ * Decorates the bus below the [InterceptingCommandBus]: batched commands pass the dispatch interceptors when they are
+ * sent and the handler interceptors when they are handled. Other commands are passed to the delegate unchanged.
+ * A single background thread collects the batches; the groups of a batch are handled concurrently by up to
+ * [concurrency] threads, so commands for unrelated entities never wait for each other. The groups of one entity
+ * from successive batches are handled in the order they were collected.
+ */
+class BatchingCommandBus(
+    private val delegate: CommandBus,
+    private val unitOfWorkFactory: UnitOfWorkFactory,
+    private val lifecycleRegistrars: List<ProcessingLifecycleHandlerRegistrar>,
+    private val batchedCommands: Set<String>,
+    private val window: Duration,
+    private val maxBatchSize: Int,
+    private val concurrency: Int
+) : CommandBus {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(BatchingCommandBus::class.java)
+        private val SHUTDOWN_TIMEOUT: Duration = Duration.ofSeconds(5)
+    }
+
+    private val handlers = ConcurrentHashMap<QualifiedName, CommandHandler>()
+    private val entityIdResolver = AnnotationBasedEntityIdResolver<Any>()
+    private val pending = ArrayList<PendingCommand>()
+
+    // The handling of the latest group of each entity, which the entity's next group waits for
+    private val inFlight = ConcurrentHashMap<Any, CompletableFuture<Unit>>()
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "command-batcher").apply { isDaemon = true }
+    }
+
+    private val groupExecutor: ExecutorService = Executors.newFixedThreadPool(concurrency) { runnable ->
+        Thread(runnable, "command-batch-handler").apply { isDaemon = true }
+    }
+
+    init {
+        require(maxBatchSize > 0) { "The command batch size must be positive" }
+        require(concurrency > 0) { "The command batch concurrency must be positive" }
+    }
+
+    override fun subscribe(name: QualifiedName, commandHandler: CommandHandler): BatchingCommandBus {
+        delegate.subscribe(name, commandHandler)
+        handlers[name] = commandHandler
+        return this
+    }
+
+    override fun dispatch(command: CommandMessage, processingContext: ProcessingContext?): CompletableFuture<CommandResultMessage> {
+        val name = command.type().qualifiedName()
+        val handler = handlers[name]
+        if (handler == null || name.localName() !in batchedCommands) {
+            return delegate.dispatch(command, processingContext)
+        }
+        val queued = PendingCommand(command, processingContext, handler)
+        synchronized(pending) {
+            if (executor.isShutdown) {
+                return delegate.dispatch(command, processingContext)
+            }
+            pending.add(queued)
+            if (pending.size == maxBatchSize) {
+                executor.execute(::flushSafely)
+            } else if (pending.size == 1) {
+                executor.schedule(::flushSafely, window.toMillis(), TimeUnit.MILLISECONDS)
+            }
+        }
+        return queued.result
+    }
+
+    override fun describeTo(descriptor: ComponentDescriptor) {
+        descriptor.describeWrapperOf(delegate)
+        descriptor.describeProperty("batchedCommands", batchedCommands)
+        descriptor.describeProperty("window", window.toMillis())
+        descriptor.describeProperty("maxBatchSize", maxBatchSize.toLong())
+        descriptor.describeProperty("concurrency", concurrency.toLong())
+    }
+
+    /**
+     * Handles the commands still pending and stops batching; commands dispatched afterwards are handled right away.
+     */
+    fun shutdown() {
+        synchronized(pending) {
+            executor.execute(::flushSafely)
+            executor.shutdown()
+        }
+        executor.awaitTermination(window.toMillis() + SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+        try {
+            CompletableFuture.allOf(*inFlight.values.toTypedArray()).get(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+        } catch (e: Exception) {
+            logger.warn("Batched commands were still being handled at shutdown", e)
+        }
+        groupExecutor.shutdown()
+    }
+
+    /**
+     * Starts handling all pending commands, one unit of work per targeted entity. The returned future completes once
+     * every group of the batch was handled.
+     */
+    fun flush(): CompletableFuture<Void> {
+        val batch = synchronized(pending) { ArrayList(pending).also { pending.clear() } }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null)
+        }
+        val groups = batch.groupBy { targetOf(it.command) }
+        logger.debug("Handling {} batched commands for {} entities", batch.size, groups.size)
+        return CompletableFuture.allOf(*groups.map { (target, group) -> schedule(target, group) }.toTypedArray())
+    }
+
+    /**
+     * Handles the group on the group executor once the entity's previous group was handled.
+     */
+    private fun schedule(target: Any, group: List<PendingCommand>): CompletableFuture<Unit> {
+        val handled = inFlight.compute(target) { _, previous ->
+            (previous ?: CompletableFuture.completedFuture(Unit)).thenComposeAsync({ handleSafely(group) }, groupExecutor)
+        }!!
+        handled.whenComplete { _, _ -> inFlight.remove(target, handled) }
+        return handled
+    }
+
+    private fun handleSafely(group: List<PendingCommand>): CompletableFuture<Unit> =
+        try {
+            if (group.size == 1) handleAlone(group.single()) else handleTogether(group)
+        } catch (e: Exception) {
+            group.forEach { it.result.completeExceptionally(e) }
+            CompletableFuture.completedFuture(Unit)
+        }
+
+    private fun handleTogether(group: List<PendingCommand>): CompletableFuture<Unit> {
+        val results = arrayOfNulls<CommandResultMessage>(group.size)
+        val unitOfWork = unitOfWorkFactory.create()
+        lifecycleRegistrars.forEach { it.registerHandlers(unitOfWork) }
+        return unitOfWork.executeWithResult { context ->
+            group.foldIndexed(CompletableFuture.completedFuture(Unit)) { index, previous, queued ->
+                previous.thenCompose {
+                    queued.handler.handle(queued.command, context).first().asCompletableFuture()
+                        .thenApply { entry -> results[index] = entry?.message() }
+                }
+            }
+        }.handle { _, error -> error }.thenCompose { error ->
+            if (error == null) {
+                group.forEachIndexed { index, queued -> queued.result.complete(results[index]) }
+                CompletableFuture.completedFuture(Unit)
+            } else {
+                logger.debug("Batch of {} commands failed, handling them one by one", group.size, error)
+                group.fold(CompletableFuture.completedFuture(Unit)) { previous, queued ->
+                    previous.thenCompose { handleAlone(queued) }
+                }
+            }
+        }
+    }
+
+    private fun handleAlone(queued: PendingCommand): CompletableFuture<Unit> =
+        try {
+            delegate.dispatch(queued.command, queued.processingContext).handle { result, error ->
+                if (error != null) queued.result.completeExceptionally(error) else queued.result.complete(result)
+                Unit
+            }
+        } catch (e: Exception) {
+            queued.result.completeExceptionally(e)
+            CompletableFuture.completedFuture(Unit)
+        }
+
+    /**
+     * The identifier of the entity the command targets, or the command's own identifier when it names none, which
+     * puts it in a group of its own. The resolver only reads the payload, so no processing context is needed.
+     */
+    @Suppress("NULLABILITY_MISMATCH_BASED_ON_JAVA_ANNOTATIONS")
+    private fun targetOf(command: CommandMessage): Any =
+        try {
+            entityIdResolver.resolve(command, null) ?: command.identifier()
+        } catch (e: Exception) {
+            command.identifier()
+        }
+
+    private fun flushSafely() {
+        try {
+            flush()
+        } catch (e: Exception) {
+            logger.warn("Failed to handle a batch of commands", e)
+        }
+    }
+
+    private class PendingCommand(
+        val command: CommandMessage,
+        val processingContext: ProcessingContext?,
+        val handler: CommandHandler
+    ) {
+        val result = CompletableFuture<CommandResultMessage>()
+    }
+}
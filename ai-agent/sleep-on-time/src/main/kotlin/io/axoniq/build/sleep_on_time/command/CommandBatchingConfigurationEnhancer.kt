@@ -0,0 +1,59 @@
+package io.axoniq.build.sleep_on_time.command
+
+import jakarta.annotation.PreDestroy
+import org.axonframework.commandhandling.CommandBus
+import org.axonframework.commandhandling.InterceptingCommandBus
+import org.axonframework.common.transaction.TransactionManager
+import org.axonframework.configuration.ComponentRegistry
+import org.axonframework.configuration.ConfigurationEnhancer
+import org.axonframework.messaging.unitofwork.UnitOfWorkFactory
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+/**
+ * Handles the commands listed in `sleep-on-time.commands.batching.commands` in micro-batches, see
+ * [BatchingCommandBus]. Commands are named by their local name, such as `ConfirmDoorUnlocked`; without any the
+ * command bus is left as it is.
+ */
+@Component
+class CommandBatchingConfigurationEnhancer(
+    @Value("\${sleep-on-time.commands.batching.commands:}") private val batchedCommands: Set<String>,
+    @Value("\${sleep-on-time.commands.batching.window:PT0.05S}") private val window: Duration,
+    @Value("\${sleep-on-time.commands.batching.max-batch-size:100}") private val maxBatchSize: Int,
+    @Value("\${sleep-on-time.commands.batching.concurrency:8}") private val concurrency: Int
+) : ConfigurationEnhancer {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(CommandBatchingConfigurationEnhancer::class.java)
+    }
+
+    private val buses = CopyOnWriteArrayList<BatchingCommandBus>()
+
+    override fun enhance(registry: ComponentRegistry) {
+        val commands = batchedCommands.filter { it.isNotBlank() }.toSet()
+        if (commands.isEmpty()) {
+            return
+        }
+        registry.registerDecorator(CommandBus::class.java, InterceptingCommandBus.DECORATION_ORDER - 1) { config, _, delegate ->
+            logger.info("Batching {} commands every {} or {} commands, handled by {} threads", commands, window, maxBatchSize, concurrency)
+            BatchingCommandBus(
+                delegate,
+                config.getComponent(UnitOfWorkFactory::class.java),
+                listOfNotNull(config.getOptionalComponent(TransactionManager::class.java).orElse(null)),
+                commands,
+                window,
+                maxBatchSize,
+                concurrency
+            ).also(buses::add)
+        }
+    }
+
+    @PreDestroy
+    fun stop() {
+        buses.forEach(BatchingCommandBus::shutdown)
+    }
+}
@@ -1,12 +1,14 @@
 package io.axoniq.build.sleep_on_time.container_access
 
+import io.axoniq.build.sleep_on_time.command.ReactiveCommandDispatcher
 import io.axoniq.build.sleep_on_time.container_access.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 import java.time.LocalDateTime
 
 /**
@@ -16,7 +18,7 @@ import java.time.LocalDateTime
 @RestController
 @RequestMapping("/api/container-access")
 class ContainerAccessController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(ContainerAccessController::class.java)
@@ -26,7 +28,7 @@ class ContainerAccessController(
      * Opens container door for guest access
      */
     @PostMapping("/open-door")
-    fun openContainerDoor(@RequestBody request: OpenContainerDoorRequest): ResponseEntity<String> {
+    fun openContainerDoor(@RequestBody request: OpenContainerDoorRequest): Mono<ResponseEntity<String>> {
         val command = OpenContainerDoor(
             bookingId = request.bookingId,
             guestId = request.guestId,
@@ -34,20 +36,19 @@ class ContainerAccessController(
             containerId = request.containerId
         )
         logger.info("Dispatching OpenContainerDoor command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Door opening request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch OpenContainerDoor command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to open container door")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Door opening request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch OpenContainerDoor command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to open container door"))
+            }
     }
     
     /**
      * Confirms that container door has been unlocked
      */
     @PostMapping("/confirm-unlocked")
-    fun confirmDoorUnlocked(@RequestBody request: ConfirmDoorUnlockedRequest): ResponseEntity<String> {
+    fun confirmDoorUnlocked(@RequestBody request: ConfirmDoorUnlockedRequest): Mono<ResponseEntity<String>> {
         val command = ConfirmDoorUnlocked(
             bookingId = request.bookingId,
             guestId = request.guestId,
@@ -55,33 +56,31 @@ class ContainerAccessController(
             containerId = request.containerId
         )
         logger.info("Dispatching ConfirmDoorUnlocked command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Door unlock confirmation accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ConfirmDoorUnlocked command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to confirm door unlock")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Door unlock confirmation accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ConfirmDoorUnlocked command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to confirm door unlock"))
+            }
     }
 
     /**
      * Obtains/reserves a container for guest
      */
     @PostMapping("/obtain")
-    fun obtainContainer(@RequestBody request: ObtainContainerRequest): ResponseEntity<String> {
+    fun obtainContainer(@RequestBody request: ObtainContainerRequest): Mono<ResponseEntity<String>> {
         val command = ObtainContainer(
             bookingId = request.bookingId,
             guestId = request.guestId,
             containerId = request.containerId
         )
         logger.info("Dispatching ObtainContainer command: $command")
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Container obtain request accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ObtainContainer command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to obtain container")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Container obtain request accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ObtainContainer command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to obtain container"))
+            }
     }
 
     // Request DTOs
@@ -82,118 +82,38 @@ class ContainerAccessState {
          * Loads events based on booking, guest, and container identifiers
          */
         @EventCriteriaBuilder
-        fun resolveCriteria(id: OpenContainerDoor.TargetIdentifier): EventCriteria {
-            val bookingId = id.bookingId
-            val guestId = id.guestId
-            val containerId = id.containerId
-            
-            return EventCriteria.either(
-                EventCriteria
-                    .havingTags(Tag.of("Booking", bookingId))
-                    .andBeingOneOfTypes(
-                        GuestCheckedIn::class.java.name,
-                        GuestCheckedOut::class.java.name,
-                        DoorOpeningRequested::class.java.name,
-                        ContainerObtained::class.java.name
-                    ),
-                EventCriteria.either(
-                    EventCriteria
-                        .havingTags(Tag.of("Guest", guestId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        ),
-                    EventCriteria
-                        .havingTags(Tag.of("Container", containerId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        )
-                )
-            )
-        }
+        fun resolveCriteria(id: OpenContainerDoor.TargetIdentifier): EventCriteria =
+            containerAccessCriteria(id.bookingId, id.guestId, id.containerId)
 
         /**
          * Event criteria builder for ConfirmDoorUnlocked command
          */
         @EventCriteriaBuilder
-        fun resolveCriteria(id: ConfirmDoorUnlocked.TargetIdentifier): EventCriteria {
-            val bookingId = id.bookingId
-            val guestId = id.guestId
-            val containerId = id.containerId
+        fun resolveCriteria(id: ConfirmDoorUnlocked.TargetIdentifier): EventCriteria =
+            containerAccessCriteria(id.bookingId, id.guestId, id.containerId)
 
-            return EventCriteria.either(
-                EventCriteria
-                    .havingTags(Tag.of("Booking", bookingId))
-                    .andBeingOneOfTypes(
-                        GuestCheckedIn::class.java.name,
-                        GuestCheckedOut::class.java.name,
-                        DoorOpeningRequested::class.java.name,
-                        ContainerObtained::class.java.name
-                    ),
-                EventCriteria.either(
-                    EventCriteria
-                        .havingTags(Tag.of("Guest", guestId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        ),
-                    EventCriteria
-                        .havingTags(Tag.of("Container", containerId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        )
-                )
-            )
-        }
-        
         /**
          * Event criteria builder for ObtainContainer command
          */
         @EventCriteriaBuilder
-        fun resolveCriteria(id: ObtainContainer.TargetIdentifier): EventCriteria {
-            val bookingId = id.bookingId
-            val guestId = id.guestId
-            val containerId = id.containerId
+        fun resolveCriteria(id: ObtainContainer.TargetIdentifier): EventCriteria =
+            containerAccessCriteria(id.bookingId, id.guestId, id.containerId)
 
+        /**
+         * The container access events of a booking, guest or container
+         */
+        private fun containerAccessCriteria(bookingId: String, guestId: String, containerId: String): EventCriteria {
+            val types = arrayOf(
+                GuestCheckedIn::class.java.name,
+                GuestCheckedOut::class.java.name,
+                DoorOpeningRequested::class.java.name,
+                ContainerObtained::class.java.name
+            )
             return EventCriteria.either(
-                EventCriteria
-                    .havingTags(Tag.of("Booking", bookingId))
-                    .andBeingOneOfTypes(
-                        GuestCheckedIn::class.java.name,
-                        GuestCheckedOut::class.java.name,
-                        DoorOpeningRequested::class.java.name,
-                        ContainerObtained::class.java.name
-                    ),
-                EventCriteria.either(
-                    EventCriteria
-                        .havingTags(Tag.of("Guest", guestId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        ),
-                    EventCriteria
-                        .havingTags(Tag.of("Container", containerId))
-                        .andBeingOneOfTypes(
-                            GuestCheckedIn::class.java.name,
-                            GuestCheckedOut::class.java.name,
-                            DoorOpeningRequested::class.java.name,
-                            ContainerObtained::class.java.name
-                        )
-                )
+                EventCriteria.havingTags(Tag.of("Booking", bookingId)).andBeingOneOfTypes(*types),
+                EventCriteria.havingTags(Tag.of("Guest", guestId)).andBeingOneOfTypes(*types),
+                EventCriteria.havingTags(Tag.of("Container", containerId)).andBeingOneOfTypes(*types)
             )
         }
     }
 }
-
@@ -1,12 +1,14 @@
 package io.axoniq.build.sleep_on_time.guest_checkout_service
 
+import io.axoniq.build.sleep_on_time.command.ReactiveCommandDispatcher
 import io.axoniq.build.sleep_on_time.guest_checkout_service.api.*
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Guest Checkout Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/guest-checkout")
 class GuestCheckoutServiceController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
 
     companion object {
@@ -29,7 +31,7 @@ class GuestCheckoutServiceController(
      * @return ResponseEntity indicating the result of the checkout initiation
      */
     @PostMapping("/initiate")
-    fun initiateCheckout(@RequestBody request: InitiateCheckOutRequest): ResponseEntity<String> {
+    fun initiateCheckout(@RequestBody request: InitiateCheckOutRequest): Mono<ResponseEntity<String>> {
         val command = InitiateCheckOut(
             bookingId = request.bookingId,
             guestId = request.guestId,
@@ -38,13 +40,12 @@ class GuestCheckoutServiceController(
 
         logger.info("Dispatching InitiateCheckOut command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Checkout initiated successfully")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch InitiateCheckOut command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to initiate checkout")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Checkout initiated successfully"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch InitiateCheckOut command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to initiate checkout"))
+            }
     }
 }
 
@@ -1,12 +1,14 @@
 package io.axoniq.build.sleep_on_time.issue_reporting
 
+import io.axoniq.build.sleep_on_time.command.ReactiveCommandDispatcher
 import io.axoniq.build.sleep_on_time.issue_reporting.api.ReportContainerIssue
-import org.axonframework.commandhandling.gateway.CommandGateway
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.*
+import org.springframework.web.server.ResponseStatusException
+import reactor.core.publisher.Mono
 
 /**
  * REST controller for the Issue Reporting Service component.
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*
 @RestController
 @RequestMapping("/api/issue-reporting")
 class IssueReportingController(
-    private val commandGateway: CommandGateway
+    private val commandDispatcher: ReactiveCommandDispatcher
 ) {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(IssueReportingController::class.java)
@@ -26,7 +28,7 @@ class IssueReportingController(
      * Accepts issue report data and dispatches ReportContainerIssue command.
      */
     @PostMapping("/report")
-    fun reportContainerIssue(@RequestBody request: ReportContainerIssueRequest): ResponseEntity<String> {
+    fun reportContainerIssue(@RequestBody request: ReportContainerIssueRequest): Mono<ResponseEntity<String>> {
         val command = ReportContainerIssue(
             bookingId = request.bookingId,
             issueType = request.issueType,
@@ -38,13 +40,12 @@ class IssueReportingController(
 
         logger.info("Dispatching ReportContainerIssue command: $command")
 
-        return try {
-            commandGateway.sendAndWait(command)
-            ResponseEntity.status(HttpStatus.ACCEPTED).body("Issue report accepted")
-        } catch (ex: Exception) {
-            logger.error("Failed to dispatch ReportContainerIssue command", ex)
-            ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to report container issue")
-        }
+        return commandDispatcher.send(command)
+            .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).body("Issue report accepted"))
+            .onErrorResume({ it !is ResponseStatusException }) { ex ->
+                logger.error("Failed to dispatch ReportContainerIssue command", ex)
+                Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to report container issue"))
+            }
     }
 }
 
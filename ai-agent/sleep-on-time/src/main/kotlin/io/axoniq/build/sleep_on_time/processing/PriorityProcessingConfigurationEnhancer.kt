@@ -0,0 +1,68 @@
+package io.axoniq.build.sleep_on_time.processing
+
+import org.axonframework.configuration.ComponentRegistry
+import org.axonframework.configuration.Configuration
+import org.axonframework.configuration.ConfigurationEnhancer
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessorConfiguration
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessorModule
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+/**
+ * Runs the event processors listed in `sleep-on-time.processing.priority-groups` as a priority lane, for handlers
+ * whose latency a guest notices, such as the door unlocks of
+ * [io.axoniq.build.sleep_on_time.xesar_door_control.XesarDoorControlComponent].
+ *
+ * Event processors are named after the package of their event handlers. A priority processor without tokens starts
+ * at the head of the event store instead of its tail, so a new deployment does not replay the door openings
+ * requested in the past before reacting to the ones requested now. Once it has tokens it resumes from them as usual,
+ * unless it trails so far behind that [ProcessingLagMonitor] moves it to the head again.
+ * Its threads, segments and batch size are set like those of any processor, under `axon.eventhandling.processors`;
+ * every processor has its own worker threads, so a backlog in the reporting views never delays the priority lane.
+ */
+@Component
+class PriorityProcessingConfigurationEnhancer(
+    @Value("\${sleep-on-time.processing.priority-groups:}") private val priorityGroups: Set<String>
+) : ConfigurationEnhancer {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(PriorityProcessingConfigurationEnhancer::class.java)
+    }
+
+    override fun enhance(registry: ComponentRegistry) {
+        val groups = priorityGroups.filter { it.isNotBlank() }.toSet()
+        if (groups.isEmpty()) {
+            return
+        }
+        val customization = PooledStreamingEventProcessorModule.Customization { config, processorConfig ->
+            tailHead(config, processorConfig, groups)
+        }
+        if (registry.hasComponent(PooledStreamingEventProcessorModule.Customization::class.java)) {
+            registry.registerDecorator(PooledStreamingEventProcessorModule.Customization::class.java, 0) { _, _, delegate ->
+                delegate.andThen(customization)
+            }
+        } else {
+            registry.registerComponent(PooledStreamingEventProcessorModule.Customization::class.java) { customization }
+        }
+    }
+
+    /**
+     * Starts the processor at the head of the event store when it is a priority group. The customization is shared
+     * by all processors and only gets the configuration of the processor's module; the processor itself cannot be
+     * looked up, as it is being built from this configuration. Processor modules are registered under the
+     * processor's name, so the module is a priority group when its parent holds it under that group's name.
+     */
+    private fun tailHead(
+        config: Configuration,
+        processorConfig: PooledStreamingEventProcessorConfiguration,
+        groups: Set<String>
+    ): PooledStreamingEventProcessorConfiguration {
+        val parent = config.parent ?: return processorConfig
+        val group = groups.firstOrNull { parent.getModuleConfiguration(it).orElse(null) === config }
+            ?: return processorConfig
+        logger.info("Processing {} in the priority lane, starting at the head of the event store", group)
+        return processorConfig.initialToken { source -> source.latestToken(null) }
+    }
+}
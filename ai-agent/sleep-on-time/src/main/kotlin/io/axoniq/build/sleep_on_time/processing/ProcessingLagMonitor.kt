@@ -0,0 +1,158 @@
+package io.axoniq.build.sleep_on_time.processing
+
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import jakarta.annotation.PreDestroy
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.configuration.Configuration
+import org.axonframework.eventhandling.annotations.EventHandler
+import org.axonframework.eventhandling.processors.streaming.StreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.store.TokenStore
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.ApplicationContext
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionTemplate
+import org.springframework.util.ClassUtils
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Publishes how far each event processor trails the head of the event store, as the gauge
+ * `sleepontime.processing.lag`: the head position minus the position of the processor's slowest segment, tagged with
+ * the processor name and its lane, `priority` for the groups in `sleep-on-time.processing.priority-groups` and
+ * `standard` for the others.
+ *
+ * The event processors are named after the packages of the beans with `@EventHandler` methods and looked up in the
+ * Axon configuration and its modules. Positions are sampled every `sleep-on-time.processing.lag-interval` on a
+ * background thread. A priority group trailing by more than `sleep-on-time.processing.priority-lag-warning` events
+ * is logged as a warning, as guests are waiting for it. One trailing by more than
+ * `sleep-on-time.processing.priority-skip-lag` events is moved to the head of the event store: the door openings it
+ * has not handled yet, such as those requested while the application was down, were requested too long ago for a
+ * guest to still be waiting at the door, and working through them would delay the ones requested now. The first
+ * sample is taken as soon as the application is ready, so a lane restarted on stale tokens skips them right away.
+ */
+@Component
+class ProcessingLagMonitor(
+    private val configuration: AxonConfiguration,
+    private val applicationContext: ApplicationContext,
+    private val meterRegistry: MeterRegistry,
+    private val tokenStore: TokenStore,
+    private val transactionTemplate: TransactionTemplate,
+    @Value("\${sleep-on-time.processing.priority-groups:}") private val priorityGroups: Set<String>,
+    @Value("\${sleep-on-time.processing.lag-interval:PT5S}") private val interval: Duration,
+    @Value("\${sleep-on-time.processing.priority-lag-warning:10}") private val priorityLagWarning: Long,
+    @Value("\${sleep-on-time.processing.priority-skip-lag:1000}") private val prioritySkipLag: Long
+) {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(ProcessingLagMonitor::class.java)
+    }
+
+    private val lags = ConcurrentHashMap<String, AtomicLong>()
+
+    private val processorNames: List<String> by lazy {
+        applicationContext.beanDefinitionNames
+            .mapNotNull { name -> applicationContext.getType(name)?.let(ClassUtils::getUserClass) }
+            .filter { type -> type.declaredMethods.any { it.isAnnotationPresent(EventHandler::class.java) } }
+            .map { it.packageName }
+            .distinct()
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "processing-lag-monitor").apply { isDaemon = true }
+    }
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun start() {
+        executor.scheduleWithFixedDelay(::sampleSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS)
+    }
+
+    @PreDestroy
+    fun stop() {
+        executor.shutdownNow()
+    }
+
+    /**
+     * The number of events each event processor trailed the head of the event store by when last sampled.
+     */
+    fun lag(): Map<String, Long> = lags.mapValues { (_, lag) -> lag.get() }
+
+    /**
+     * Samples the head of the event store and the position of every event processor.
+     */
+    fun sample() {
+        val headToken = configuration.getComponent(EventStore::class.java).latestToken(null).join()
+        val head = headToken.position().orElse(0)
+        processorNames.forEach { name ->
+            val processor = processor(name) ?: return@forEach
+            val processed = processor.processingStatus().values
+                .map { status -> status.currentPosition.orElse(0) }
+                .minOrNull() ?: return@forEach
+            val lag = maxOf(0, head - processed)
+            lagGauge(name).set(lag)
+            if (name in priorityGroups && lag > prioritySkipLag) {
+                skipToHead(name, processor, headToken, lag)
+            } else if (name in priorityGroups && lag > priorityLagWarning) {
+                logger.warn("Priority processor {} trails the event store by {} events", name, lag)
+            }
+        }
+    }
+
+    /**
+     * Stops the processor, stores the head of the event store as the token of each of its segments and starts it
+     * again, so the handlers only see the events appended afterwards. The tokens are written to the token store
+     * directly, as the processors of this Axon version do not support resetting their tokens yet. A segment
+     * another instance claimed in the meantime is left to that instance, and the processor is started again even
+     * when storing a token fails.
+     */
+    private fun skipToHead(name: String, processor: StreamingEventProcessor, head: TrackingToken, lag: Long) {
+        logger.warn("Priority processor {} trails the event store by {} events, skipping to its head", name, lag)
+        processor.shutdown().join()
+        try {
+            tokenStore.fetchSegments(name, null).join().forEach { segment ->
+                transactionTemplate.executeWithoutResult {
+                    tokenStore.storeToken(head, name, segment, null).join()
+                    tokenStore.releaseClaim(name, segment, null).join()
+                }
+            }
+        } finally {
+            processor.start().join()
+        }
+    }
+
+    private fun lagGauge(processorName: String): AtomicLong =
+        lags.computeIfAbsent(processorName) { name ->
+            AtomicLong().also { lag ->
+                Gauge.builder("sleepontime.processing.lag", lag) { it.get().toDouble() }
+                    .description("Number of events in the event store an event processor has not processed yet")
+                    .tags("processor", name.substringAfterLast('.'), "lane", if (name in priorityGroups) "priority" else "standard")
+                    .register(meterRegistry)
+            }
+        }
+
+    private fun processor(name: String): StreamingEventProcessor? {
+        fun search(config: Configuration): Sequence<StreamingEventProcessor> =
+            sequenceOf(config.getOptionalComponent(PooledStreamingEventProcessor::class.java, name).orElse(null))
+                .filterNotNull<StreamingEventProcessor>() + config.moduleConfigurations.asSequence().flatMap(::search)
+        return search(configuration).firstOrNull()
+    }
+
+    private fun sampleSafely() {
+        try {
+            sample()
+        } catch (e: Exception) {
+            logger.warn("Failed to sample processing lag", e)
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.axoniq.build.sleep_on_time.snapshot
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+/**
+ * In-memory cache of the serialized state of event-sourced entities, keyed by entity type and the event criteria
+ * the entity is sourced from.
+ *
+ * An entry holds the state as it was right after loading, together with the position it was sourced up to, so
+ * the next load only reads the events appended after that position. States are cached serialized: entities are
+ * mutable, and each load must start from its own copy. The cache is bounded by the number of entries and by
+ * their weight, the summed length of the serialized states, evicting the least recently used entries first.
+ */
+@Component
+class EntityStateCache(
+    @Value("\${sleep-on-time.entity-cache.max-entries:10000}") private val maxEntries: Int,
+    @Value("\${sleep-on-time.entity-cache.max-weight:50000000}") private val maxWeight: Long
+) {
+
+    /**
+     * Serialized state of an entity, the position it was sourced up to, and the number of events it was evolved
+     * with since its last snapshot.
+     */
+    data class CachedState(val payload: String, val position: Long, val eventsSinceSnapshot: Int)
+
+    private val entries = LinkedHashMap<String, CachedState>(16, 0.75f, true)
+    private var weight = 0L
+
+    init {
+        require(maxEntries >= 0) { "The entity cache size cannot be negative" }
+    }
+
+    val enabled: Boolean get() = maxEntries > 0 && maxWeight > 0
+
+    fun key(entityType: Class<*>, canonicalCriteria: String): String = "${entityType.name}|$canonicalCriteria"
+
+    @Synchronized
+    fun get(key: String): CachedState? = entries[key]
+
+    /**
+     * Caches [state] unless it is older than the cached one; loads may complete out of order.
+     */
+    @Synchronized
+    fun put(key: String, state: CachedState) {
+        if (!enabled || state.payload.length > maxWeight) {
+            return
+        }
+        val previous = entries[key]
+        if (previous != null && previous.position > state.position) {
+            return
+        }
+        entries[key] = state
+        weight += state.payload.length - (previous?.payload?.length ?: 0)
+        val eldest = entries.entries.iterator()
+        while ((entries.size > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().value.payload.length
+            eldest.remove()
+        }
+    }
+
+    @Synchronized
+    fun evict(key: String) {
+        entries.remove(key)?.let { weight -= it.payload.length }
+    }
+
+    @Synchronized
+    fun size(): Int = entries.size
+}
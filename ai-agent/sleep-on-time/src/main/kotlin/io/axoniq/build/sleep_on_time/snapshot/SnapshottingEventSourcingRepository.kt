@@ -0,0 +1,234 @@
+package io.axoniq.build.sleep_on_time.snapshot
+
+import org.axonframework.common.infra.ComponentDescriptor
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventhandling.processors.streaming.token.TrackingToken
+import org.axonframework.eventsourcing.CriteriaResolver
+import org.axonframework.eventsourcing.EntityMissingAfterLoadOrCreateException
+import org.axonframework.eventsourcing.EventSourcedEntityFactory
+import org.axonframework.eventsourcing.eventstore.AppendEventsTransactionRejectedException
+import org.axonframework.eventsourcing.eventstore.ConsistencyMarker
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.axonframework.eventsourcing.eventstore.GlobalIndexConsistencyMarker
+import org.axonframework.eventsourcing.eventstore.SourcingCondition
+import org.axonframework.eventstreaming.EventCriteria
+import org.axonframework.messaging.Context
+import org.axonframework.messaging.MessageStream
+import org.axonframework.modelling.EntityEvolver
+import org.axonframework.modelling.repository.ManagedEntity
+import org.axonframework.modelling.repository.Repository
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
+import java.util.function.UnaryOperator
+
+/**
+ * Event sourcing repository that starts from the most recent known state of an entity and only replays the events
+ * appended after it. Behaves like the default event sourcing repository otherwise: entities are cached per
+ * processing context and evolved with the events appended while handling the command.
+ *
+ * Loading starts from the state held in the [stateCache] when there is one, and from the latest snapshot otherwise.
+ * The loaded state is put back into the cache together with the position it was sourced up to. An append that is
+ * rejected because other events matching the criteria were appended concurrently evicts the entity from the cache.
+ *
+ * A new snapshot is taken when at least [threshold] events were replayed on top of the previous one, whether by
+ * this load or by the loads the cached state was built from; a threshold of zero disables snapshots. The state is
+ * serialized right after loading, before the command changes it, and written once the processing context commits.
+ */
+class SnapshottingEventSourcingRepository<ID : Any, E>(
+    private val idType: Class<ID>,
+    private val entityType: Class<E>,
+    private val eventStore: EventStore,
+    private val entityFactory: EventSourcedEntityFactory<ID, E>,
+    private val criteriaResolver: CriteriaResolver<ID>,
+    private val entityEvolver: EntityEvolver<E>,
+    private val snapshotStore: SnapshotStore,
+    private val threshold: Int,
+    private val stateCache: EntityStateCache?
+) : Repository.LifecycleManagement<ID, E> {
+
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(SnapshottingEventSourcingRepository::class.java)
+    }
+
+    private val managedEntitiesKey =
+        Context.ResourceKey.withLabel<MutableMap<ID, CompletableFuture<SourcedEntity>>>("managedEntities")
+
+    override fun entityType(): Class<E> = entityType
+
+    override fun idType(): Class<ID> = idType
+
+    override fun load(identifier: ID, processingContext: ProcessingContext): CompletableFuture<ManagedEntity<ID, E>> {
+        val managedEntities = processingContext.computeResourceIfAbsent(managedEntitiesKey) { ConcurrentHashMap() }
+        return managedEntities.computeIfAbsent(identifier) {
+            doLoad(identifier, processingContext).whenComplete { entity, error ->
+                if (error != null) {
+                    managedEntities.remove(identifier)
+                } else {
+                    updateActiveEntity(entity, processingContext)
+                }
+            }
+        }.thenApply { it }
+    }
+
+    override fun loadOrCreate(identifier: ID, processingContext: ProcessingContext): CompletableFuture<ManagedEntity<ID, E>> =
+        load(identifier, processingContext).thenApply { managed ->
+            if (managed.entity() == null) {
+                managed.applyStateChange {
+                    entityFactory.create(identifier, null, processingContext)
+                        ?: throw EntityMissingAfterLoadOrCreateException(identifier)
+                }
+            }
+            managed
+        }
+
+    override fun persist(identifier: ID, entity: E, processingContext: ProcessingContext): ManagedEntity<ID, E> {
+        val managedEntities = processingContext.computeResourceIfAbsent(managedEntitiesKey) { ConcurrentHashMap() }
+        return managedEntities.computeIfAbsent(identifier) {
+            val managed = SourcedEntity(identifier, entity)
+            updateActiveEntity(managed, processingContext)
+            CompletableFuture.completedFuture(managed)
+        }.resultNow()
+    }
+
+    override fun attach(entity: ManagedEntity<ID, E>, processingContext: ProcessingContext): ManagedEntity<ID, E> =
+        persist(entity.identifier(), entity.entity(), processingContext)
+
+    override fun describeTo(descriptor: ComponentDescriptor) {
+        descriptor.describeProperty("idType", idType)
+        descriptor.describeProperty("entityType", entityType)
+        descriptor.describeProperty("eventStore", eventStore)
+        descriptor.describeProperty("entityFactory", entityFactory)
+        descriptor.describeProperty("criteriaResolver", criteriaResolver)
+        descriptor.describeProperty("entityEvolver", entityEvolver)
+        descriptor.describeProperty("snapshotThreshold", threshold.toLong())
+        descriptor.describeProperty("stateCached", stateCache != null)
+    }
+
+    private fun doLoad(identifier: ID, processingContext: ProcessingContext): CompletableFuture<SourcedEntity> {
+        val criteria = criteriaResolver.resolve(identifier, processingContext)
+        val cacheKey = stateCache?.key(entityType, snapshotStore.canonicalCriteria(criteria))
+        val base = cacheKey?.let { cached(it, identifier) } ?: snapshot(criteria)
+        val entity = SourcedEntity(identifier, base.entity)
+        var position: Long? = base.position
+        var replayed = 0
+        val condition = if (base.position != null) {
+            SourcingCondition.conditionFor(base.position + 1, criteria)
+        } else {
+            SourcingCondition.conditionFor(criteria)
+        }
+        return eventStore.transaction(processingContext)
+            .source(condition)
+            .reduce(entity) { current, entry ->
+                positionOf(entry)?.let { position = maxOf(position ?: it, it) }
+                current.evolve(entry.message(), processingContext)
+                replayed++
+                current
+            }
+            .thenApply { loaded ->
+                val sourcedUpTo = position
+                val state = loaded.entity()
+                var sinceSnapshot = base.eventsSinceSnapshot + replayed
+                val payload = if (state != null && sourcedUpTo != null && (replayed > 0 || !base.fromCache)) {
+                    serialize(state, identifier)
+                } else {
+                    null
+                }
+                if (threshold > 0 && sinceSnapshot >= threshold) {
+                    if (payload != null && sourcedUpTo != null) {
+                        processingContext.runOnAfterCommit {
+                            snapshotStore.store(entityType, identifier.toString(), criteria, sourcedUpTo, payload)
+                        }
+                        sinceSnapshot = 0
+                    } else if (sourcedUpTo == null) {
+                        logger.debug("Not snapshotting {} {}: no global position available", entityType.simpleName, identifier)
+                    }
+                }
+                if (cacheKey != null) {
+                    if (payload != null && sourcedUpTo != null) {
+                        stateCache!!.put(cacheKey, EntityStateCache.CachedState(payload, sourcedUpTo, sinceSnapshot))
+                    }
+                    processingContext.onError { _, _, error ->
+                        if (isAppendConflict(error)) {
+                            stateCache!!.evict(cacheKey)
+                        }
+                    }
+                }
+                loaded
+            }
+    }
+
+    private fun cached(cacheKey: String, identifier: ID): BaseState<E>? {
+        val cached = stateCache?.get(cacheKey) ?: return null
+        return try {
+            BaseState(snapshotStore.deserialize(cached.payload, entityType), cached.position, cached.eventsSinceSnapshot, true)
+        } catch (e: Exception) {
+            logger.warn("Evicting unreadable cached state of {} {}", entityType.simpleName, identifier, e)
+            stateCache.evict(cacheKey)
+            null
+        }
+    }
+
+    private fun snapshot(criteria: EventCriteria): BaseState<E> {
+        val snapshot = if (threshold > 0) snapshotStore.load(entityType, criteria) else null
+        @Suppress("UNCHECKED_CAST")
+        return BaseState(snapshot?.entity as E, snapshot?.position, 0, false)
+    }
+
+    private fun serialize(state: E & Any, identifier: ID): String? =
+        try {
+            snapshotStore.serialize(state)
+        } catch (e: Exception) {
+            logger.warn("Cannot serialize {} {}; it is neither cached nor snapshotted", entityType.simpleName, identifier, e)
+            null
+        }
+
+    private fun isAppendConflict(error: Throwable): Boolean =
+        generateSequence(error) { it.cause }.take(10).any { it is AppendEventsTransactionRejectedException }
+
+    private fun updateActiveEntity(entity: SourcedEntity, processingContext: ProcessingContext) {
+        eventStore.transaction(processingContext).onAppend { event -> entity.evolve(event, processingContext) }
+    }
+
+    private fun positionOf(entry: MessageStream.Entry<out EventMessage>): Long? {
+        val marker = entry.getResource(ConsistencyMarker.RESOURCE_KEY)
+        if (marker is GlobalIndexConsistencyMarker) {
+            return marker.position()
+        }
+        val token = TrackingToken.fromContext(entry).orElse(null)?.position()
+        return if (token != null && token.isPresent) token.asLong else null
+    }
+
+    /**
+     * State a load starts from: the cached state or the latest snapshot, or none, with the position it was sourced
+     * up to and the number of events it was evolved with since its last snapshot.
+     */
+    private class BaseState<E>(val entity: E, val position: Long?, val eventsSinceSnapshot: Int, val fromCache: Boolean)
+
+    /**
+     * Entity managed within a processing context; the state is null until the first event creates it.
+     */
+    private inner class SourcedEntity(
+        private val identifier: ID,
+        initial: E
+    ) : ManagedEntity<ID, E> {
+
+        private val state = AtomicReference(initial)
+
+        override fun identifier(): ID = identifier
+
+        override fun entity(): E = state.get()
+
+        override fun applyStateChange(change: UnaryOperator<E>): E = state.updateAndGet(change)
+
+        fun evolve(event: EventMessage, processingContext: ProcessingContext) {
+            applyStateChange { current ->
+                val initial = current ?: entityFactory.create(identifier, event, processingContext)
+                entityEvolver.evolve(initial, event, processingContext)
+            }
+        }
+    }
+}
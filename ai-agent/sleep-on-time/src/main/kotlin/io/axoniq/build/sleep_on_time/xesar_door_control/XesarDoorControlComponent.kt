@@ -16,6 +16,11 @@ import java.time.LocalDateTime
  * 
  * This component processes door opening requests and communicates with the Xesar system
  * to perform actual door unlock operations for guest access to sleeping containers.
+ *
+ * Door opening requests are handled in the priority lane, see
+ * [io.axoniq.build.sleep_on_time.processing.PriorityProcessingConfigurationEnhancer]. The unlock confirmations it
+ * sends are therefore not micro-batched by [io.axoniq.build.sleep_on_time.command.BatchingCommandBus], whose
+ * window would add to the time a guest waits at the door.
  */
 @Service
 class XesarDoorControlComponent(
@@ -0,0 +1,190 @@
+package io.axoniq.build.sleep_on_time.command
+
+import io.axoniq.build.sleep_on_time.container_access.api.ConfirmDoorUnlocked
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.commandhandling.CommandBus
+import org.axonframework.commandhandling.CommandHandler
+import org.axonframework.commandhandling.CommandMessage
+import org.axonframework.commandhandling.CommandResultMessage
+import org.axonframework.commandhandling.GenericCommandMessage
+import org.axonframework.commandhandling.GenericCommandResultMessage
+import org.axonframework.messaging.EmptyApplicationContext
+import org.axonframework.messaging.MessageStream
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.QualifiedName
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.axonframework.messaging.unitofwork.SimpleUnitOfWorkFactory
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.Collections
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test class for the micro-batching of high-frequency commands
+ */
+class BatchingCommandBusTest {
+
+    private val name = QualifiedName("sleep-on-time", "ConfirmDoorUnlocked")
+    private val delegate: CommandBus = mock(CommandBus::class.java)
+    private val contexts: MutableSet<ProcessingContext> = ConcurrentHashMap.newKeySet()
+
+    private fun bus(maxBatchSize: Int = 10, handler: CommandHandler = recordingHandler()): BatchingCommandBus =
+        BatchingCommandBus(
+            delegate,
+            SimpleUnitOfWorkFactory(EmptyApplicationContext.INSTANCE),
+            emptyList(),
+            setOf("ConfirmDoorUnlocked"),
+            Duration.ofSeconds(10),
+            maxBatchSize,
+            4
+        ).subscribe(name, handler)
+
+    private fun recordingHandler() = CommandHandler { command, context ->
+        contexts.add(context)
+        MessageStream.just<CommandResultMessage>(GenericCommandResultMessage(MessageType("result"), command.identifier()))
+    }
+
+    private fun command(containerId: String): CommandMessage =
+        GenericCommandMessage(MessageType(name), ConfirmDoorUnlocked("booking-1", "guest-1", LocalDateTime.now(), containerId))
+
+    @Test
+    fun `given commands for the same container, when the batch is flushed, then they are handled in one unit of work`() {
+        val bus = bus()
+        val first = command("container-1")
+        val second = command("container-1")
+        val firstResult = bus.dispatch(first, null)
+        val secondResult = bus.dispatch(second, null)
+
+        bus.flush().join()
+
+        assertThat(contexts).hasSize(1)
+        assertThat(firstResult.join().payload()).isEqualTo(first.identifier())
+        assertThat(secondResult.join().payload()).isEqualTo(second.identifier())
+        verify(delegate, never()).dispatch(any(), isNull())
+    }
+
+    @Test
+    fun `given commands for different containers, when the batch is flushed, then each container gets its own unit of work`() {
+        `when`(delegate.dispatch(any(), isNull())).thenReturn(CompletableFuture.completedFuture(null))
+        val bus = bus()
+        bus.dispatch(command("container-1"), null)
+        bus.dispatch(command("container-1"), null)
+        bus.dispatch(command("container-2"), null)
+
+        bus.flush().join()
+
+        assertThat(contexts).hasSize(1)
+        verify(delegate, times(1)).dispatch(any(), isNull())
+    }
+
+    @Test
+    fun `given a failing command in a group, when the batch is flushed, then its commands are handled one by one`() {
+        val failing = CommandHandler { _, _ -> MessageStream.failed<CommandResultMessage>(IllegalStateException("rejected")) }
+        `when`(delegate.dispatch(any(), isNull()))
+            .thenReturn(CompletableFuture.failedFuture(IllegalStateException("rejected")))
+            .thenReturn(CompletableFuture.completedFuture(null))
+        val bus = bus(handler = failing)
+        val rejected = bus.dispatch(command("container-1"), null)
+        val accepted = bus.dispatch(command("container-1"), null)
+
+        bus.flush().join()
+
+        assertThat(rejected).isCompletedExceptionally()
+        assertThat(accepted).isCompleted().isNotCompletedExceptionally()
+        verify(delegate, times(2)).dispatch(any(), isNull())
+    }
+
+    @Test
+    fun `given the maximum batch size is reached, when dispatching, then the batch is flushed right away`() {
+        val bus = bus(maxBatchSize = 2)
+        bus.dispatch(command("container-1"), null)
+
+        bus.dispatch(command("container-1"), null).get(5, TimeUnit.SECONDS)
+
+        assertThat(contexts).hasSize(1)
+    }
+
+    @Test
+    fun `given a command that is not batched, when dispatching, then it is passed to the delegate`() {
+        val other = GenericCommandMessage(MessageType(QualifiedName("sleep-on-time", "OpenContainerDoor")), "container-1")
+        `when`(delegate.dispatch(any(), isNull())).thenReturn(CompletableFuture.completedFuture(null))
+
+        bus().dispatch(other, null)
+
+        verify(delegate).dispatch(other, null)
+    }
+
+    @Test
+    fun `given a slow container, when the batch is flushed, then the commands for other containers do not wait for it`() {
+        val released = CountDownLatch(1)
+        val handler = CommandHandler { command, context ->
+            if ((command.payload() as ConfirmDoorUnlocked).containerId == "container-1") {
+                released.await(10, TimeUnit.SECONDS)
+            }
+            recordingHandler().handle(command, context)
+        }
+        val bus = bus(handler = handler)
+        val slow = listOf(bus.dispatch(command("container-1"), null), bus.dispatch(command("container-1"), null))
+        val fast = listOf(bus.dispatch(command("container-2"), null), bus.dispatch(command("container-2"), null))
+
+        val flushed = bus.flush()
+
+        CompletableFuture.allOf(*fast.toTypedArray()).get(5, TimeUnit.SECONDS)
+        assertThat(slow).allSatisfy { assertThat(it).isNotDone() }
+        released.countDown()
+        flushed.get(5, TimeUnit.SECONDS)
+        assertThat(slow).allSatisfy { assertThat(it).isCompleted() }
+    }
+
+    @Test
+    fun `given commands for a container in successive batches, when flushed, then the later batch waits for the earlier one`() {
+        val released = CountDownLatch(1)
+        val order: MutableList<String> = Collections.synchronizedList(ArrayList())
+        val handler = CommandHandler { command, context ->
+            if (order.isEmpty()) {
+                released.await(10, TimeUnit.SECONDS)
+            }
+            order.add(command.identifier())
+            recordingHandler().handle(command, context)
+        }
+        `when`(delegate.dispatch(any(), isNull())).thenReturn(CompletableFuture.completedFuture(null))
+        val bus = bus(handler = handler)
+        val first = listOf(command("container-1"), command("container-1"))
+        val second = listOf(command("container-1"), command("container-1"))
+        first.forEach { bus.dispatch(it, null) }
+        val earlier = bus.flush()
+        second.forEach { bus.dispatch(it, null) }
+        val later = bus.flush()
+
+        released.countDown()
+        CompletableFuture.allOf(earlier, later).get(5, TimeUnit.SECONDS)
+
+        assertThat(order).containsExactlyElementsOf((first + second).map { it.identifier() })
+    }
+
+    @Test
+    fun `given a lone command dispatched in a processing context, when the batch is flushed, then the delegate gets that context`() {
+        val context = mock(ProcessingContext::class.java)
+        val lone = command("container-1")
+        `when`(delegate.dispatch(any(), eq(context))).thenReturn(CompletableFuture.completedFuture(null))
+        val bus = bus()
+        val result = bus.dispatch(lone, context)
+
+        bus.flush().join()
+
+        assertThat(result).isCompleted()
+        verify(delegate).dispatch(lone, context)
+    }
+}
@@ -0,0 +1,54 @@
+package io.axoniq.build.sleep_on_time.metrics
+
+import io.axoniq.build.sleep_on_time.booking_overview.BookingOverviewQueryComponent
+import io.axoniq.build.sleep_on_time.booking_overview.api.GetBookingOverview
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.messaging.GenericMessage
+import org.axonframework.messaging.MessageType
+import org.axonframework.messaging.annotations.MessageHandlingMember
+import org.axonframework.messaging.unitofwork.ProcessingContext
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.springframework.beans.factory.support.DefaultListableBeanFactory
+import java.lang.reflect.Method
+import java.util.Optional
+
+/**
+ * Test class for the handler meters of this application
+ */
+class HandlerMetricsTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+    private val handlerMetrics = HandlerMetrics(
+        DefaultListableBeanFactory().apply { registerSingleton("meterRegistry", meterRegistry) }
+            .getBeanProvider(MeterRegistry::class.java)
+    )
+
+    @Test
+    fun `given the booking overview query handler, when it finds no booking, then it is timed with an empty result`() {
+        @Suppress("UNCHECKED_CAST")
+        val member = mock(MessageHandlingMember::class.java) as MessageHandlingMember<BookingOverviewQueryComponent>
+        val method = BookingOverviewQueryComponent::class.java.getDeclaredMethod("handle", GetBookingOverview::class.java)
+        `when`(member.unwrap(Method::class.java)).thenReturn(Optional.of(method))
+        doReturn(GetBookingOverview::class.java).`when`(member).payloadType()
+        `when`(member.handleSync(any(), any(), any())).thenReturn(null)
+        val query = GenericMessage(MessageType(GetBookingOverview::class.java), GetBookingOverview("booking-1", "guest-1"))
+
+        handlerMetrics.wrapHandler(member)
+            .handleSync(query, mock(ProcessingContext::class.java), mock(BookingOverviewQueryComponent::class.java))
+
+        val timer = meterRegistry.find("sleepontime.query.handling")
+            .tags("handler", "BookingOverviewQueryComponent", "query", "GetBookingOverview", "outcome", "success")
+            .timer()
+        val results = meterRegistry.find("sleepontime.query.results").tags("handler", "BookingOverviewQueryComponent")
+            .summary()
+        assertThat(timer?.count()).isEqualTo(1)
+        assertThat(results?.count()).isEqualTo(1)
+        assertThat(results?.totalAmount()).isZero()
+    }
+}
@@ -0,0 +1,23 @@
+package io.axoniq.build.sleep_on_time.processing
+
+import io.axoniq.build.sleep_on_time.xesar_door_control.api.ConfirmDoorUnlocked
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.boot.env.YamlPropertySourceLoader
+import org.springframework.core.io.ClassPathResource
+
+/**
+ * Test class for keeping the commands of the priority lane out of the command micro-batching
+ */
+class PriorityLaneBatchingTest {
+
+    @Test
+    fun `given the application configuration, when read, then door unlock confirmations are not batched`() {
+        val properties = YamlPropertySourceLoader().load("application", ClassPathResource("application.yml")).single()
+
+        val batched = properties.getProperty("sleep-on-time.commands.batching.commands")?.toString().orEmpty()
+            .split(',').map(String::trim)
+
+        assertThat(batched).doesNotContain(ConfirmDoorUnlocked::class.java.simpleName)
+    }
+}
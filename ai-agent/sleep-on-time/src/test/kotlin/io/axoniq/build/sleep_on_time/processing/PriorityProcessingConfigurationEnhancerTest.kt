@@ -0,0 +1,67 @@
+package io.axoniq.build.sleep_on_time.processing
+
+import org.axonframework.configuration.Configuration
+import org.axonframework.configuration.MessagingConfigurer
+import org.axonframework.eventhandling.SimpleEventHandlingComponent
+import org.axonframework.eventhandling.configuration.EventProcessorModule
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessorConfiguration
+import org.axonframework.eventstreaming.TrackingTokenSource
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for starting the priority processors at the head of the event store
+ */
+class PriorityProcessingConfigurationEnhancerTest {
+
+    private val configuration = MessagingConfigurer.create()
+        .componentRegistry { registry ->
+            registry.disableEnhancerScanning()
+            registry.registerEnhancer(PriorityProcessingConfigurationEnhancer(setOf("lanes.priority")))
+        }
+        .eventProcessing { processing ->
+            processing.pooledStreaming { pooled ->
+                listOf("lanes.priority", "lanes.standard").fold(pooled) { configurer, name ->
+                    configurer.processor(
+                        EventProcessorModule.pooledStreaming(name)
+                            .eventHandlingComponents { it.declarative { SimpleEventHandlingComponent() } }
+                            .notCustomized()
+                    )
+                }
+            }
+        }
+        .build()
+
+    private fun processorConfiguration(name: String): PooledStreamingEventProcessorConfiguration {
+        fun search(config: Configuration): Sequence<Configuration> =
+            sequenceOf(config.getModuleConfiguration(name).orElse(null)).filterNotNull() +
+                config.moduleConfigurations.asSequence().flatMap(::search)
+        return search(configuration).first().getComponent(PooledStreamingEventProcessorConfiguration::class.java)
+    }
+
+    @Test
+    fun `given a priority group, when its processor has no tokens, then it starts at the head of the event store`() {
+        val source = mock(TrackingTokenSource::class.java)
+
+        processorConfiguration("lanes.priority").initialToken().apply(source)
+
+        verify(source).latestToken(isNull())
+        verify(source, never()).firstToken(isNull())
+    }
+
+    @Test
+    fun `given another processor, when it has no tokens, then it starts at the tail of the event store`() {
+        val source = mock(TrackingTokenSource::class.java)
+        `when`(source.firstToken(isNull())).thenReturn(CompletableFuture.completedFuture(null))
+
+        processorConfiguration("lanes.standard").initialToken().apply(source)
+
+        verify(source).firstToken(isNull())
+        verify(source, never()).latestToken(isNull())
+    }
+}
@@ -0,0 +1,137 @@
+package io.axoniq.build.sleep_on_time.processing
+
+import io.axoniq.build.sleep_on_time.booking_overview.BookingOverviewQueryComponent
+import io.axoniq.build.sleep_on_time.xesar_door_control.XesarDoorControlComponent
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.configuration.AxonConfiguration
+import org.axonframework.eventhandling.processors.streaming.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.processors.streaming.segmenting.EventTrackerStatus
+import org.axonframework.eventhandling.processors.streaming.token.GlobalSequenceTrackingToken
+import org.axonframework.eventhandling.processors.streaming.token.store.TokenStore
+import org.axonframework.eventhandling.processors.streaming.token.store.UnableToClaimTokenException
+import org.axonframework.eventsourcing.eventstore.EventStore
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito.RETURNS_DEFAULTS
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.mockingDetails
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when`
+import org.springframework.context.ApplicationContext
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.util.Optional
+import java.util.OptionalLong
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Test class for the processing lag sampling and the skipping of a priority lane's backlog
+ */
+class ProcessingLagMonitorTest {
+
+    private val priorityGroup = XesarDoorControlComponent::class.java.packageName
+    private val standardGroup = BookingOverviewQueryComponent::class.java.packageName
+
+    private val eventStore = mock(EventStore::class.java)
+    private val configuration = mock(AxonConfiguration::class.java)
+    private val applicationContext = mock(ApplicationContext::class.java)
+    private val tokenStore = mock(TokenStore::class.java) { CompletableFuture.completedFuture(null) }
+    private val processors = mapOf(priorityGroup to processor(), standardGroup to processor())
+
+    private val monitor = ProcessingLagMonitor(
+        configuration, applicationContext, SimpleMeterRegistry(), tokenStore,
+        TransactionTemplate(mock(PlatformTransactionManager::class.java)),
+        setOf(priorityGroup), Duration.ofSeconds(5), 10, 1000
+    )
+
+    init {
+        `when`(configuration.getComponent(EventStore::class.java)).thenReturn(eventStore)
+        `when`(configuration.moduleConfigurations).thenReturn(emptyList())
+        processors.forEach { (name, processor) ->
+            `when`(configuration.getOptionalComponent(PooledStreamingEventProcessor::class.java, name))
+                .thenReturn(Optional.of(processor))
+        }
+        `when`(tokenStore.fetchSegments(priorityGroup, null)).thenReturn(CompletableFuture.completedFuture(intArrayOf(0, 1)))
+        `when`(applicationContext.beanDefinitionNames).thenReturn(arrayOf("doorControl", "bookingOverview"))
+        doReturn(XesarDoorControlComponent::class.java).`when`(applicationContext).getType("doorControl")
+        doReturn(BookingOverviewQueryComponent::class.java).`when`(applicationContext).getType("bookingOverview")
+    }
+
+    private fun processor(): PooledStreamingEventProcessor =
+        mock(PooledStreamingEventProcessor::class.java) { invocation ->
+            if (invocation.method.returnType == CompletableFuture::class.java) {
+                CompletableFuture.completedFuture(null)
+            } else {
+                RETURNS_DEFAULTS.answer(invocation)
+            }
+        }
+
+    private fun positions(head: Long, vararg processed: Pair<String, Long>) {
+        `when`(eventStore.latestToken(isNull())).thenReturn(CompletableFuture.completedFuture(GlobalSequenceTrackingToken(head)))
+        processed.forEach { (name, position) ->
+            val status = mock(EventTrackerStatus::class.java)
+            `when`(status.currentPosition).thenReturn(OptionalLong.of(position))
+            `when`(processors.getValue(name).processingStatus()).thenReturn(mapOf(0 to status))
+        }
+    }
+
+    private fun lifecycleCalls(name: String): List<String> =
+        mockingDetails(processors.getValue(name)).invocations
+            .map { it.method.name }
+            .filter { it in setOf("shutdown", "resetTokens", "start") }
+
+    @Test
+    fun `given processors behind the head, when sampled, then their lag is reported`() {
+        positions(500, priorityGroup to 495, standardGroup to 120)
+
+        monitor.sample()
+
+        assertThat(monitor.lag()).containsEntry(priorityGroup, 5).containsEntry(standardGroup, 380)
+    }
+
+    @Test
+    fun `given a priority lane beyond the skip lag, when sampled, then it is restarted at the head of the event store`() {
+        positions(5000, priorityGroup to 100, standardGroup to 4990)
+
+        monitor.sample()
+
+        assertThat(lifecycleCalls(priorityGroup)).containsExactly("shutdown", "start")
+        listOf(0, 1).forEach { segment ->
+            verify(tokenStore).storeToken(GlobalSequenceTrackingToken(5000), priorityGroup, segment, null)
+            verify(tokenStore).releaseClaim(priorityGroup, segment, null)
+        }
+    }
+
+    @Test
+    fun `given a segment claimed elsewhere, when skipping to the head, then the priority lane is started again`() {
+        positions(5000, priorityGroup to 100, standardGroup to 4990)
+        `when`(tokenStore.storeToken(GlobalSequenceTrackingToken(5000), priorityGroup, 0, null))
+            .thenThrow(UnableToClaimTokenException("claimed by another instance"))
+
+        assertThatThrownBy { monitor.sample() }.isInstanceOf(UnableToClaimTokenException::class.java)
+
+        assertThat(lifecycleCalls(priorityGroup)).containsExactly("shutdown", "start")
+    }
+
+    @Test
+    fun `given a priority lane within the skip lag, when sampled, then it keeps its tokens`() {
+        positions(5000, priorityGroup to 4500, standardGroup to 4990)
+
+        monitor.sample()
+
+        assertThat(lifecycleCalls(priorityGroup)).isEmpty()
+    }
+
+    @Test
+    fun `given a standard processor beyond the skip lag, when sampled, then it works through its backlog`() {
+        positions(5000, priorityGroup to 4999, standardGroup to 0)
+
+        monitor.sample()
+
+        assertThat(lifecycleCalls(standardGroup)).isEmpty()
+    }
+}
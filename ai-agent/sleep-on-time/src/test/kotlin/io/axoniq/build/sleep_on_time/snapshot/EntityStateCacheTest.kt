@@ -0,0 +1,80 @@
+package io.axoniq.build.sleep_on_time.snapshot
+
+import io.axoniq.build.sleep_on_time.snapshot.EntityStateCache.CachedState
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+/**
+ * Test class for the bounded in-memory cache of entity states
+ */
+class EntityStateCacheTest {
+
+    @Test
+    fun `given a cached state, when looked up, then the state is returned`() {
+        val cache = EntityStateCache(maxEntries = 10, maxWeight = 1000)
+        val state = CachedState("{\"count\":3}", 3, 3)
+
+        cache.put("container-1", state)
+
+        assertThat(cache.get("container-1")).isEqualTo(state)
+        assertThat(cache.get("container-2")).isNull()
+    }
+
+    @Test
+    fun `given a newer cached state, when an older state is put, then the newer state is kept`() {
+        val cache = EntityStateCache(maxEntries = 10, maxWeight = 1000)
+        cache.put("container-1", CachedState("newer", 7, 0))
+
+        cache.put("container-1", CachedState("older", 5, 0))
+
+        assertThat(cache.get("container-1")?.payload).isEqualTo("newer")
+    }
+
+    @Test
+    fun `given a cached state, when evicted, then the next lookup misses`() {
+        val cache = EntityStateCache(maxEntries = 10, maxWeight = 1000)
+        cache.put("container-1", CachedState("state", 3, 0))
+
+        cache.evict("container-1")
+
+        assertThat(cache.get("container-1")).isNull()
+        assertThat(cache.size()).isZero()
+    }
+
+    @Test
+    fun `given a full cache, when another state is put, then the least recently used state is evicted`() {
+        val cache = EntityStateCache(maxEntries = 2, maxWeight = 1000)
+        cache.put("container-1", CachedState("one", 1, 0))
+        cache.put("container-2", CachedState("two", 2, 0))
+        cache.get("container-1")
+
+        cache.put("container-3", CachedState("three", 3, 0))
+
+        assertThat(cache.size()).isEqualTo(2)
+        assertThat(cache.get("container-2")).isNull()
+        assertThat(cache.get("container-1")).isNotNull()
+        assertThat(cache.get("container-3")).isNotNull()
+    }
+
+    @Test
+    fun `given states exceeding the weight, when put, then the least recently used states are evicted`() {
+        val cache = EntityStateCache(maxEntries = 10, maxWeight = 10)
+        cache.put("container-1", CachedState("12345", 1, 0))
+        cache.put("container-2", CachedState("12345", 2, 0))
+
+        cache.put("container-3", CachedState("1234", 3, 0))
+
+        assertThat(cache.get("container-1")).isNull()
+        assertThat(cache.get("container-2")).isNotNull()
+        assertThat(cache.get("container-3")).isNotNull()
+    }
+
+    @Test
+    fun `given a state heavier than the cache, when put, then it is not cached`() {
+        val cache = EntityStateCache(maxEntries = 10, maxWeight = 4)
+
+        cache.put("container-1", CachedState("12345", 1, 0))
+
+        assertThat(cache.size()).isZero()
+    }
+}
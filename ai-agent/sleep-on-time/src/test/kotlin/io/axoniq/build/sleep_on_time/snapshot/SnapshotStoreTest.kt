@@ -0,0 +1,53 @@
+package io.axoniq.build.sleep_on_time.snapshot
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.axoniq.build.sleep_on_time.container_access.ContainerAccessState
+import io.axoniq.build.sleep_on_time.container_access.api.GuestCheckedIn
+import io.axoniq.build.sleep_on_time.container_access.api.GuestCheckedOut
+import io.axoniq.build.sleep_on_time.container_access.api.ObtainContainer
+import org.assertj.core.api.Assertions.assertThat
+import org.axonframework.eventstreaming.EventCriteria
+import org.axonframework.eventstreaming.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import java.time.LocalDateTime
+
+/**
+ * Test class for serializing event-sourced entity state into snapshots
+ */
+class SnapshotStoreTest {
+
+    private val snapshotStore = SnapshotStore(mock(SnapshotRepository::class.java), ObjectMapper().findAndRegisterModules())
+
+    @Test
+    fun `given evolved container access state, when serialized and deserialized, then state is restored`() {
+        val checkedInAt = LocalDateTime.of(2025, 3, 14, 18, 0)
+        val checkedOutAt = LocalDateTime.of(2025, 3, 15, 9, 30)
+        val state = ContainerAccessState()
+        state.evolve(GuestCheckedIn(checkedInAt, "booking-1", "guest-1", "container-1"))
+        state.evolve(GuestCheckedOut("booking-1", "guest-1", checkedOutAt, "container-1"))
+
+        val restored = snapshotStore.deserialize(snapshotStore.serialize(state), ContainerAccessState::class.java)
+
+        assertThat(restored.getGuestId()).isEqualTo("guest-1")
+        assertThat(restored.getContainerId()).isEqualTo("container-1")
+        assertThat(restored.getCheckedInAt()).isEqualTo(checkedInAt)
+        assertThat(restored.getCheckedOutAt()).isEqualTo(checkedOutAt)
+        assertThat(restored.getStatus()).isEqualTo("AVAILABLE")
+        assertThat(restored.getAccessKeyStatus()).isEqualTo("INACTIVE")
+    }
+
+    @Test
+    fun `given equal criteria built in different order, when canonicalized, then representations match`() {
+        val first = EventCriteria.havingTags(Tag.of("Container", "container-1"))
+            .andBeingOneOfTypes(GuestCheckedIn::class.java.name, GuestCheckedOut::class.java.name)
+        val second = EventCriteria.havingTags(Tag.of("Container", "container-1"))
+            .andBeingOneOfTypes(GuestCheckedOut::class.java.name, GuestCheckedIn::class.java.name)
+        val other = ContainerAccessState.resolveCriteria(
+            ObtainContainer.TargetIdentifier("booking-2", "guest-2", "container-2")
+        )
+
+        assertThat(snapshotStore.canonicalCriteria(first)).isEqualTo(snapshotStore.canonicalCriteria(second))
+        assertThat(snapshotStore.canonicalCriteria(first)).isNotEqualTo(snapshotStore.canonicalCriteria(other))
+    }
+}
@@ -0,0 +1,67 @@
+package io.axoniq.quickstart.benchmarks;
+
+import io.axoniq.quickstart.giftcard.command.IssueGiftCardCommand;
+import io.axoniq.quickstart.giftcard.command.RedeemGiftCardCommand;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the gift card command handlers, dispatched through the command gateway. Every issue targets a new
+ * gift card, so it covers dispatch, creating the aggregate and appending its event. Redemptions spread over a fixed
+ * set of cards issued in setup, so each one also sources the stream of its card.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Daxoniq.update-checker.disabled=true")
+public class GiftCardCommandBenchmark {
+
+    private static final int REDEEMABLE_CARDS = 100;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private Configuration configuration;
+    private CommandGateway commandGateway;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuration = InMemoryAxon.giftCards();
+        commandGateway = configuration.commandGateway();
+        for (int card = 0; card < REDEEMABLE_CARDS; card++) {
+            commandGateway.sendAndWait(new IssueGiftCardCommand("redeemable-" + card, BigDecimal.valueOf(Long.MAX_VALUE)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configuration.shutdown();
+    }
+
+    @Benchmark
+    public Object issueGiftCard() {
+        return commandGateway.sendAndWait(new IssueGiftCardCommand("card-" + sequence.incrementAndGet(), BigDecimal.TEN));
+    }
+
+    @Benchmark
+    public Object redeemGiftCard() {
+        long id = sequence.incrementAndGet();
+        return commandGateway.sendAndWait(new RedeemGiftCardCommand("redeemable-" + id % REDEEMABLE_CARDS, BigDecimal.ONE));
+    }
+}
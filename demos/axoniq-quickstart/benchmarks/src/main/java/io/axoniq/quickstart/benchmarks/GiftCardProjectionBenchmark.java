@@ -0,0 +1,77 @@
+package io.axoniq.quickstart.benchmarks;
+
+import io.axoniq.quickstart.giftcard.event.GiftCardIssuedEvent;
+import io.axoniq.quickstart.giftcard.event.GiftCardRedeemedEvent;
+import io.axoniq.quickstart.giftcard.query.GiftCardProjection;
+import io.axoniq.quickstart.giftcard.query.GiftCardUpdateRegistry;
+import io.axoniq.quickstart.giftcard.query.GiftCardUpdateRegistry.GiftCardSubscription;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link GiftCardProjection} handling a redemption and pushing it through the
+ * {@link GiftCardUpdateRegistry}, as a function of the number of clients watching other gift cards. One client
+ * watches the redeemed card and consumes every update; the others never receive one, so with the registry indexed
+ * by gift card ID the throughput should not depend on their number. Each event is handled in its own unit of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Daxoniq.update-checker.disabled=true")
+public class GiftCardProjectionBenchmark {
+
+    private static final String GIFT_CARD_ID = "card-watched";
+
+    @Param({"0", "100", "10000"})
+    public int otherSubscribers;
+
+    private final List<GiftCardSubscription> subscriptions = new ArrayList<>();
+    private final GiftCardRedeemedEvent redeemed = new GiftCardRedeemedEvent(GIFT_CARD_ID, BigDecimal.ONE);
+    private GiftCardProjection projection;
+    private long delivered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(256);
+        projection = new GiftCardProjection(registry);
+        for (int i = 0; i < otherSubscribers; i++) {
+            projection.on(new GiftCardIssuedEvent("card-" + i, BigDecimal.TEN));
+            subscriptions.add(registry.subscribe("card-" + i));
+        }
+        projection.on(new GiftCardIssuedEvent(GIFT_CARD_ID, BigDecimal.valueOf(Long.MAX_VALUE)));
+
+        GiftCardSubscription watched = registry.subscribe(GIFT_CARD_ID);
+        watched.updates().subscribe(giftCard -> delivered++);
+        subscriptions.add(watched);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(GiftCardSubscription::close);
+    }
+
+    @Benchmark
+    public long onGiftCardRedeemed() {
+        DefaultUnitOfWork.startAndGet(null).execute(() -> projection.on(redeemed));
+        return delivered;
+    }
+}
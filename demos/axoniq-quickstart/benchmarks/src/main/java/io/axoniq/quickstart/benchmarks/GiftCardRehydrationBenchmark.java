@@ -0,0 +1,82 @@
+package io.axoniq.quickstart.benchmarks;
+
+import io.axoniq.quickstart.giftcard.aggregate.GiftCardAggregate;
+import io.axoniq.quickstart.giftcard.command.IssueGiftCardCommand;
+import io.axoniq.quickstart.giftcard.command.RedeemGiftCardCommand;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.Configuration;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.modelling.command.Aggregate;
+import org.axonframework.modelling.command.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rehydrating a {@link GiftCardAggregate} from its event stream, as a function of the stream length.
+ * The stream is an issued card followed by redemptions of it. It is appended once per trial through the command
+ * handlers; each invocation sources it in a fresh unit of work, which is rolled back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Daxoniq.update-checker.disabled=true")
+public class GiftCardRehydrationBenchmark {
+
+    private static final String GIFT_CARD_ID = "card-rehydration";
+
+    @Param({"1", "10", "100", "1000"})
+    public int streamLength;
+
+    private Configuration configuration;
+    private Repository<GiftCardAggregate> repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuration = InMemoryAxon.giftCards();
+        repository = configuration.repository(GiftCardAggregate.class);
+
+        CommandGateway commandGateway = configuration.commandGateway();
+        commandGateway.sendAndWait(new IssueGiftCardCommand(GIFT_CARD_ID, BigDecimal.valueOf(streamLength)));
+        for (int i = 1; i < streamLength; i++) {
+            commandGateway.sendAndWait(new RedeemGiftCardCommand(GIFT_CARD_ID, BigDecimal.ONE));
+        }
+
+        // A load that sources fewer events than were appended would time the wrong thing, so the trial fails instead
+        long version = loadAggregate().version();
+        if (version != streamLength - 1) {
+            throw new IllegalStateException(
+                    "Loading the gift card sources " + (version + 1) + " of the " + streamLength + " appended events");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configuration.shutdown();
+    }
+
+    @Benchmark
+    public Aggregate<GiftCardAggregate> loadAggregate() {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            return repository.load(GIFT_CARD_ID);
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.axoniq.quickstart.benchmarks;
+
+import io.axoniq.quickstart.giftcard.aggregate.GiftCardAggregate;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+
+/**
+ * Builds an in-memory configuration of the gift card aggregate: the annotated aggregate on top of an embedded event
+ * store with an in-memory storage engine. Configurer modules on the classpath are not located, so the Axon Server
+ * connector and the console client stay out of the measurements.
+ */
+final class InMemoryAxon {
+
+    private InMemoryAxon() {
+    }
+
+    static Configuration giftCards() {
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine())
+                .configureAggregate(GiftCardAggregate.class)
+                .buildConfiguration();
+        configuration.start();
+        return configuration;
+    }
+}
@@ -7,9 +7,10 @@ package io.axoniq.quickstart.giftcard.query;
  * currently stored in the read model. The query is handled by the {@link GiftCardProjection}
  * which maintains an in-memory projection of all gift card states.</p>
  *
- * <p>The query supports both synchronous retrieval and subscription queries for real-time updates.
- * As a subscription query, clients will receive the initial list of all gift cards followed by
- * real-time notifications whenever any gift card is issued, redeemed, or modified.</p>
+ * <p>The query serves synchronous retrieval and the initial state of real-time update streams.
+ * Clients of such a stream receive the initial list of all gift cards followed by real-time
+ * notifications, published through the {@link GiftCardUpdateRegistry}, whenever any gift card
+ * is issued, redeemed, or modified.</p>
  *
  * <p>Query characteristics:</p>
  * <ul>
@@ -7,9 +7,9 @@ package io.axoniq.quickstart.giftcard.query;
  * current state from the read model. The query is handled by the
  * {@link GiftCardProjection} which maintains an in-memory projection of all gift cards.</p>
  *
- * <p>The query supports both synchronous retrieval and subscription queries for real-time updates.
- * When used as a subscription query, clients will receive the initial state followed by
- * live updates whenever the gift card state changes due to redemptions.</p>
+ * <p>The query serves synchronous retrieval and the initial state of real-time update streams.
+ * Clients of such a stream receive the initial state followed by live updates, published
+ * through the {@link GiftCardUpdateRegistry}, whenever the gift card state changes due to redemptions.</p>
  *
  * <p>Query characteristics:</p>
  * <ul>
@@ -3,8 +3,8 @@ package io.axoniq.quickstart.giftcard.query;
 import io.axoniq.quickstart.giftcard.event.GiftCardIssuedEvent;
 import io.axoniq.quickstart.giftcard.event.GiftCardRedeemedEvent;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.queryhandling.QueryHandler;
-import org.axonframework.queryhandling.QueryUpdateEmitter;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -17,22 +17,22 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>This component implements the CQRS query side by maintaining a denormalized,
  * eventually consistent view of gift card states. It listens to domain events from
  * the {@link io.axoniq.quickstart.giftcard.aggregate.GiftCardAggregate} and updates
- * the read model accordingly, while also supporting real-time query subscriptions
- * through the Axon Framework's query update mechanism.</p>
+ * the read model accordingly, while also pushing every change to the clients that
+ * subscribed to it through the {@link GiftCardUpdateRegistry}.</p>
  *
  * <p><strong>Architecture patterns implemented:</strong></p>
  * <ul>
  *   <li><strong>CQRS Query Side</strong>: Separates read operations from write operations</li>
  *   <li><strong>Event Sourcing Projection</strong>: Rebuilds state from event stream</li>
  *   <li><strong>In-Memory Read Model</strong>: Fast query performance using ConcurrentHashMap</li>
- *   <li><strong>Subscription Queries</strong>: Real-time updates to connected clients</li>
+ *   <li><strong>Indexed Update Fan-out</strong>: Real-time updates to the interested clients only</li>
  * </ul>
  *
  * <p><strong>Event handling responsibilities:</strong></p>
  * <ul>
  *   <li>Creates new {@link GiftCardSummary} records when gift cards are issued</li>
  *   <li>Updates existing records when redemptions occur</li>
- *   <li>Emits query updates for real-time client notifications</li>
+ *   <li>Publishes updates for real-time client notifications</li>
  *   <li>Maintains referential integrity and data consistency</li>
  * </ul>
  *
@@ -40,14 +40,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * <ul>
  *   <li>Single gift card lookup by ID ({@link FindGiftCardQuery})</li>
  *   <li>Complete gift card collection retrieval ({@link FindAllGiftCardsQuery})</li>
- *   <li>Subscription query support for both query types</li>
+ *   <li>Initial results for the real-time update streams of both query types</li>
  *   <li>Thread-safe concurrent access using ConcurrentHashMap</li>
  * </ul>
  *
  * <p><strong>Real-time update mechanism:</strong></p>
- * <p>Uses {@link QueryUpdateEmitter} to push updates to active subscription queries,
- * enabling real-time UI updates without polling. When events are processed, relevant
- * subscribers are notified immediately with the updated data.</p>
+ * <p>Publishes every changed gift card to the {@link GiftCardUpdateRegistry}, which indexes
+ * subscribers by gift card ID. An update is handed only to the subscribers of that gift card
+ * and to the subscribers of all gift cards, instead of evaluating a filter predicate for every
+ * open subscription, so the cost of an update follows the number of interested clients. It is
+ * published after the unit of work that handled its event commits, so an update of an event
+ * whose handling is rolled back never reaches a client.</p>
  *
  * <p><strong>Performance characteristics:</strong></p>
  * <ul>
@@ -65,6 +68,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @see GiftCardSummary
  * @see FindGiftCardQuery
  * @see FindAllGiftCardsQuery
+ * @see GiftCardUpdateRegistry
  * @see <a href="https://docs.axoniq.io/reference-guide/">Axon Framework Reference Guide</a>
  *
  * @author AxonIQ Quickstart
@@ -81,18 +85,18 @@ public class GiftCardProjection {
     private final Map<String, GiftCardSummary> giftCards = new ConcurrentHashMap<>();
 
     /**
-     * Axon Framework component for emitting query updates to subscription queries.
+     * Registry of the clients subscribed to gift card updates, indexed by gift card ID.
      * Enables real-time notifications to connected clients.
      */
-    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final GiftCardUpdateRegistry updateRegistry;
 
     /**
      * Constructs a new GiftCardProjection with the required dependencies.
      *
-     * @param queryUpdateEmitter the Axon Framework component for emitting query updates
+     * @param updateRegistry the registry of clients subscribed to gift card updates
      */
-    public GiftCardProjection(QueryUpdateEmitter queryUpdateEmitter) {
-        this.queryUpdateEmitter = queryUpdateEmitter;
+    public GiftCardProjection(GiftCardUpdateRegistry updateRegistry) {
+        this.updateRegistry = updateRegistry;
     }
 
     /**
@@ -100,14 +104,14 @@ public class GiftCardProjection {
      *
      * <p>This method is automatically invoked by the Axon Framework when a
      * {@link GiftCardIssuedEvent} is published. It creates a new {@link GiftCardSummary}
-     * record in the read model and notifies any active subscription queries.</p>
+     * record in the read model and notifies the subscribed clients.</p>
      *
      * <p>Processing steps:</p>
      * <ul>
      *   <li>Creates a new GiftCardSummary with initial and remaining values equal</li>
      *   <li>Stores the summary in the in-memory map</li>
-     *   <li>Emits update to FindGiftCardQuery subscribers for this specific ID</li>
-     *   <li>Emits update to FindAllGiftCardsQuery subscribers (all gift cards list)</li>
+     *   <li>Publishes the new gift card to its subscribers and to the subscribers of all gift cards,
+     *       once the event's unit of work commits</li>
      * </ul>
      *
      * @param event the gift card issued event containing ID and initial amount
@@ -121,13 +125,7 @@ public class GiftCardProjection {
         );
         giftCards.put(event.giftCardId(), giftCard);
 
-        queryUpdateEmitter.emit(FindGiftCardQuery.class,
-                query -> query.giftCardId().equals(event.giftCardId()),
-                giftCard);
-
-        queryUpdateEmitter.emit(FindAllGiftCardsQuery.class,
-                query -> true,
-                giftCard);
+        publishAfterCommit(giftCard);
     }
 
     /**
@@ -136,7 +134,7 @@ public class GiftCardProjection {
      * <p>This method is automatically invoked by the Axon Framework when a
      * {@link GiftCardRedeemedEvent} is published. It updates the existing
      * {@link GiftCardSummary} record by reducing the remaining balance and
-     * notifies subscription query subscribers.</p>
+     * notifies the subscribed clients.</p>
      *
      * <p>Processing steps:</p>
      * <ul>
@@ -144,7 +142,7 @@ public class GiftCardProjection {
      *   <li>Creates an updated summary with reduced remaining balance</li>
      *   <li>Preserves the original initial value for historical reference</li>
      *   <li>Updates the in-memory store with the new summary</li>
-     *   <li>Emits updates to relevant subscription query subscribers</li>
+     *   <li>Publishes the updated gift card to its subscribers, once the event's unit of work commits</li>
      * </ul>
      *
      * <p><strong>Defensive programming:</strong> The method includes a null check
@@ -164,23 +162,31 @@ public class GiftCardProjection {
             );
             giftCards.put(event.giftCardId(), updatedGiftCard);
 
-            queryUpdateEmitter.emit(FindGiftCardQuery.class,
-                    query -> query.giftCardId().equals(event.giftCardId()),
-                    updatedGiftCard);
+            publishAfterCommit(updatedGiftCard);
+        }
+    }
 
-            queryUpdateEmitter.emit(FindAllGiftCardsQuery.class,
-                    query -> true,
-                    updatedGiftCard);
+    /**
+     * Publishes a changed gift card to its subscribers once the unit of work handling the event commits, so
+     * clients never see an update of an event whose handling is rolled back. Outside a unit of work the gift
+     * card is published right away.
+     *
+     * @param giftCard the changed gift card summary
+     */
+    private void publishAfterCommit(GiftCardSummary giftCard) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> updateRegistry.publish(giftCard));
+        } else {
+            updateRegistry.publish(giftCard);
         }
     }
 
     /**
      * Query handler for retrieving a specific gift card by ID.
      *
-     * <p>This method handles {@link FindGiftCardQuery} requests and supports both
-     * synchronous queries and subscription queries. For subscription queries,
-     * clients will receive the initial result immediately, followed by real-time
-     * updates whenever the gift card state changes.</p>
+     * <p>This method handles {@link FindGiftCardQuery} requests. It also provides the
+     * initial result of the real-time update streams, which continue with the updates
+     * published to the {@link GiftCardUpdateRegistry}.</p>
      *
      * @param query the query containing the gift card ID to lookup
      * @return the gift card summary if found, null if no gift card exists with the given ID
@@ -194,8 +200,8 @@ public class GiftCardProjection {
      * Query handler for retrieving all gift cards in the system.
      *
      * <p>This method handles {@link FindAllGiftCardsQuery} requests and returns
-     * all gift cards currently stored in the read model. The method supports
-     * both synchronous queries and subscription queries for real-time updates.</p>
+     * all gift cards currently stored in the read model. It also provides the initial
+     * result of the real-time stream of all gift card updates.</p>
      *
      * <p><strong>Performance note:</strong> This operation has O(n) time complexity
      * where n is the number of gift cards. For production systems with large
@@ -22,7 +22,7 @@ import java.math.BigDecimal;
  * <ul>
  *   <li>Returned by {@link FindGiftCardQuery} for individual gift card lookups</li>
  *   <li>Contained within {@link GiftCardSummaryList} for bulk queries</li>
- *   <li>Used in subscription query updates for real-time UI updates</li>
+ *   <li>Published through {@link GiftCardUpdateRegistry} for real-time UI updates</li>
  *   <li>Serialized to JSON for REST API responses</li>
  * </ul>
  *
@@ -0,0 +1,213 @@
+package io.axoniq.quickstart.giftcard.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the clients subscribed to gift card updates, indexed by gift card ID.
+ *
+ * <p>The {@link GiftCardProjection} publishes every changed {@link GiftCardSummary} here
+ * instead of emitting it to all subscription queries. Subscribers to a single gift card are
+ * looked up by its ID and subscribers to all gift cards are kept in a set of their own, so
+ * publishing an update costs one map lookup plus one delivery per interested subscriber. No
+ * predicate is evaluated for subscribers that are watching other gift cards.</p>
+ *
+ * <p><strong>Delivery guarantees:</strong></p>
+ * <ul>
+ *   <li>Updates are buffered per subscriber from the moment it subscribes, so an update
+ *       published while the initial result is being read is not lost</li>
+ *   <li>A subscriber that falls behind receives only the latest state of each gift card:
+ *       successive updates of a card that were not yet delivered are coalesced into one</li>
+ *   <li>The buffer of a subscriber holds at most {@code bufferSize} gift cards; when it is
+ *       full, the oldest pending card is dropped to make room for the newest</li>
+ * </ul>
+ *
+ * <p>A slow client therefore never blocks the event handlers that publish updates, and never
+ * holds more than a bounded number of pending updates in memory.</p>
+ *
+ * @see GiftCardProjection
+ * @see GiftCardSubscription
+ *
+ * @author AxonIQ Quickstart
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class GiftCardUpdateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(GiftCardUpdateRegistry.class);
+
+    /**
+     * Subscribers to a single gift card, keyed by gift card ID.
+     */
+    private final Map<String, Set<GiftCardSubscription>> giftCardSubscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribers to all gift cards.
+     */
+    private final Set<GiftCardSubscription> allGiftCardsSubscriptions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Maximum number of gift cards with pending updates buffered per subscriber.
+     */
+    private final int bufferSize;
+
+    /**
+     * Constructs a new GiftCardUpdateRegistry.
+     *
+     * @param bufferSize the maximum number of gift cards with pending updates per subscriber
+     */
+    public GiftCardUpdateRegistry(@Value("${quickstart.giftcard.updates.buffer-size:256}") int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Update buffer size must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Subscribes to the updates of a single gift card. Updates are buffered until
+     * {@link GiftCardSubscription#updates()} is subscribed to.
+     *
+     * @param giftCardId the unique identifier of the gift card to watch
+     * @return the subscription, which must be closed when the client disconnects
+     */
+    public GiftCardSubscription subscribe(String giftCardId) {
+        GiftCardSubscription subscription = new GiftCardSubscription(giftCardId);
+        giftCardSubscriptions.computeIfAbsent(giftCardId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Subscribes to the updates of all gift cards. Updates are buffered until
+     * {@link GiftCardSubscription#updates()} is subscribed to.
+     *
+     * @return the subscription, which must be closed when the client disconnects
+     */
+    public GiftCardSubscription subscribeToAll() {
+        GiftCardSubscription subscription = new GiftCardSubscription(null);
+        allGiftCardsSubscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Delivers the new state of a gift card to the subscribers of that gift card and to the
+     * subscribers of all gift cards.
+     *
+     * @param giftCard the updated gift card summary
+     */
+    public void publish(GiftCardSummary giftCard) {
+        Set<GiftCardSubscription> subscriptions = giftCardSubscriptions.get(giftCard.giftCardId());
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> subscription.offer(giftCard));
+        }
+        allGiftCardsSubscriptions.forEach(subscription -> subscription.offer(giftCard));
+    }
+
+    /**
+     * Number of open subscriptions, to a single gift card or to all of them.
+     *
+     * @return the number of open subscriptions
+     */
+    public int subscriptionCount() {
+        int count = allGiftCardsSubscriptions.size();
+        for (Set<GiftCardSubscription> subscriptions : giftCardSubscriptions.values()) {
+            count += subscriptions.size();
+        }
+        return count;
+    }
+
+    private void unregister(GiftCardSubscription subscription) {
+        if (subscription.giftCardId == null) {
+            allGiftCardsSubscriptions.remove(subscription);
+            return;
+        }
+        giftCardSubscriptions.computeIfPresent(subscription.giftCardId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    /**
+     * One client's subscription to gift card updates, with its own bounded, coalescing buffer.
+     *
+     * <p>Pending updates are kept in arrival order, one entry per gift card. An update of a card
+     * that is already pending replaces the pending state in place; an update of another card is
+     * appended, dropping the oldest pending card when the buffer is full. Pending updates are
+     * emitted as the client requests them.</p>
+     */
+    public final class GiftCardSubscription {
+
+        private final String giftCardId;
+        private final LinkedHashMap<String, GiftCardSummary> pending = new LinkedHashMap<>();
+        private FluxSink<GiftCardSummary> sink;
+        private boolean closed;
+
+        private GiftCardSubscription(String giftCardId) {
+            this.giftCardId = giftCardId;
+        }
+
+        /**
+         * The stream of updates of this subscription, starting with the ones buffered since it
+         * was created. Can be subscribed to once; cancelling it closes the subscription.
+         *
+         * @return Flux stream of gift card summary updates
+         */
+        public Flux<GiftCardSummary> updates() {
+            return Flux.create(this::attach);
+        }
+
+        /**
+         * Stops receiving updates and discards the pending ones.
+         */
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            unregister(this);
+        }
+
+        private void attach(FluxSink<GiftCardSummary> sink) {
+            synchronized (this) {
+                if (this.sink != null) {
+                    sink.error(new IllegalStateException("Gift card updates can only be subscribed to once"));
+                    return;
+                }
+                this.sink = sink;
+            }
+            sink.onRequest(requested -> drain());
+            sink.onDispose(this::close);
+        }
+
+        private synchronized void offer(GiftCardSummary giftCard) {
+            if (closed) {
+                return;
+            }
+            if (pending.put(giftCard.giftCardId(), giftCard) == null && pending.size() > bufferSize) {
+                Iterator<GiftCardSummary> oldest = pending.values().iterator();
+                logger.debug("Dropping pending update of gift card {} for a slow subscriber", oldest.next().giftCardId());
+                oldest.remove();
+            }
+            drain();
+        }
+
+        private synchronized void drain() {
+            while (sink != null && !closed && !pending.isEmpty() && sink.requestedFromDownstream() > 0) {
+                Iterator<GiftCardSummary> next = pending.values().iterator();
+                GiftCardSummary giftCard = next.next();
+                next.remove();
+                sink.next(giftCard);
+            }
+        }
+    }
+}
@@ -6,9 +6,10 @@ import io.axoniq.quickstart.giftcard.query.FindAllGiftCardsQuery;
 import io.axoniq.quickstart.giftcard.query.FindGiftCardQuery;
 import io.axoniq.quickstart.giftcard.query.GiftCardSummary;
 import io.axoniq.quickstart.giftcard.query.GiftCardSummaryList;
+import io.axoniq.quickstart.giftcard.query.GiftCardUpdateRegistry;
+import io.axoniq.quickstart.giftcard.query.GiftCardUpdateRegistry.GiftCardSubscription;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.queryhandling.QueryGateway;
-import org.axonframework.queryhandling.SubscriptionQueryResult;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -36,7 +38,7 @@ import java.util.concurrent.CompletableFuture;
  * <p><strong>Architecture integration:</strong></p>
  * <ul>
  *   <li><strong>Command Side</strong>: Uses {@link CommandGateway} for dispatching commands</li>
- *   <li><strong>Query Side</strong>: Uses {@link QueryGateway} for both synchronous and subscription queries</li>
+ *   <li><strong>Query Side</strong>: Uses {@link QueryGateway} for queries and {@link GiftCardUpdateRegistry} for live updates</li>
  *   <li><strong>Reactive Streams</strong>: Leverages Spring WebFlux and Project Reactor for SSE</li>
  *   <li><strong>CORS Support</strong>: Enables cross-origin requests for web client integration</li>
  * </ul>
@@ -86,20 +88,30 @@ public class GiftCardController {
     private final CommandGateway commandGateway;
 
     /**
-     * Axon Framework query gateway for executing queries and subscription queries.
-     * Supports both synchronous queries and real-time subscription queries.
+     * Axon Framework query gateway for executing queries.
+     * Provides the initial results of the real-time update streams.
      */
     private final QueryGateway queryGateway;
 
+    /**
+     * Registry of the clients subscribed to gift card updates, indexed by gift card ID.
+     * Feeds the Server-Sent Events streams.
+     */
+    private final GiftCardUpdateRegistry updateRegistry;
+
     /**
      * Constructs a new GiftCardController with required Axon Framework gateways.
      *
      * @param commandGateway the command gateway for dispatching commands
-     * @param queryGateway the query gateway for executing queries and subscriptions
+     * @param queryGateway the query gateway for executing queries
+     * @param updateRegistry the registry of clients subscribed to gift card updates
      */
-    public GiftCardController(CommandGateway commandGateway, QueryGateway queryGateway) {
+    public GiftCardController(CommandGateway commandGateway,
+                              QueryGateway queryGateway,
+                              GiftCardUpdateRegistry updateRegistry) {
         this.commandGateway = commandGateway;
         this.queryGateway = queryGateway;
+        this.updateRegistry = updateRegistry;
     }
 
     /**
@@ -259,25 +271,23 @@ public class GiftCardController {
      *   <li>Immediate UI updates without polling</li>
      * </ul>
      *
-     * <p><strong>Connection management:</strong> The subscription is automatically closed
-     * when the client disconnects, preventing resource leaks.</p>
+     * <p><strong>Connection management:</strong> The subscription is registered before the
+     * initial state is queried, so no update is missed in between, and it is automatically
+     * closed when the client disconnects, preventing resource leaks. A client that cannot
+     * keep up receives the latest state instead of every intermediate one.</p>
      *
      * @param giftCardId the unique identifier of the gift card to monitor
      * @return Flux stream of gift card summary updates
      */
     @GetMapping(value = "/{giftCardId}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<GiftCardSummary> getGiftCardUpdates(@PathVariable("giftCardId") String giftCardId) {
-        SubscriptionQueryResult<GiftCardSummary, GiftCardSummary> subscriptionQuery =
-                queryGateway.subscriptionQuery(new FindGiftCardQuery(giftCardId),
-                                               org.axonframework.messaging.responsetypes.ResponseTypes.instanceOf(
-                                                       GiftCardSummary.class),
-                                               org.axonframework.messaging.responsetypes.ResponseTypes.instanceOf(
-                                                       GiftCardSummary.class));
-
-        return subscriptionQuery
-                .initialResult()
-                .concatWith(subscriptionQuery.updates())
-                .doFinally(signal -> subscriptionQuery.close());
+        return Flux.defer(() -> {
+            GiftCardSubscription subscription = updateRegistry.subscribe(giftCardId);
+            return Mono.fromFuture(() -> queryGateway.query(new FindGiftCardQuery(giftCardId),
+                                                            GiftCardSummary.class))
+                       .concatWith(subscription.updates())
+                       .doFinally(signal -> subscription.close());
+        });
     }
 
     /**
@@ -308,23 +318,22 @@ public class GiftCardController {
      * </ul>
      *
      * <p><strong>Performance considerations:</strong> This endpoint streams all gift card
-     * changes. For systems with high transaction volumes, consider implementing filtering
-     * or pagination mechanisms.</p>
+     * changes. Updates are buffered per client in a bounded buffer that coalesces successive
+     * updates of the same gift card and drops the oldest pending card when full, so a slow
+     * client sees the latest balances without holding back the other clients.</p>
      *
      * @return Flux stream of gift card summary updates for all gift cards
      */
     @GetMapping(value = "/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<GiftCardSummary> getAllGiftCardUpdates() {
-        SubscriptionQueryResult<GiftCardSummaryList, GiftCardSummary> subscriptionQuery =
-                queryGateway.subscriptionQuery(new FindAllGiftCardsQuery(),
-                                               GiftCardSummaryList.class,
-                                               GiftCardSummary.class);
-
-        return subscriptionQuery
-                .initialResult()
-                .flatMapMany(list -> Flux.fromIterable(list.giftCards()))
-                .concatWith(subscriptionQuery.updates())
-                .doFinally(signal -> subscriptionQuery.close());
+        return Flux.defer(() -> {
+            GiftCardSubscription subscription = updateRegistry.subscribeToAll();
+            return Mono.fromFuture(() -> queryGateway.query(new FindAllGiftCardsQuery(),
+                                                            GiftCardSummaryList.class))
+                       .flatMapMany(list -> Flux.fromIterable(list.giftCards()))
+                       .concatWith(subscription.updates())
+                       .doFinally(signal -> subscription.close());
+        });
     }
 
     /**
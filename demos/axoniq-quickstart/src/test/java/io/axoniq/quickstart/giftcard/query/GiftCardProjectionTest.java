@@ -0,0 +1,66 @@
+package io.axoniq.quickstart.giftcard.query;
+
+import io.axoniq.quickstart.giftcard.event.GiftCardIssuedEvent;
+import io.axoniq.quickstart.giftcard.event.GiftCardRedeemedEvent;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for {@link GiftCardProjection}: gift card updates reach subscribers only once the
+ * unit of work handling their event commits.
+ */
+class GiftCardProjectionTest {
+
+    private GiftCardProjection projection;
+    private List<GiftCardSummary> received;
+
+    @BeforeEach
+    void setUp() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        projection = new GiftCardProjection(registry);
+        received = new CopyOnWriteArrayList<>();
+        registry.subscribeToAll().updates().subscribe(received::add);
+    }
+
+    @Test
+    void givenEventHandledInAUnitOfWork_whenTheUnitOfWorkCommits_thenTheUpdateIsPublished() {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        projection.on(new GiftCardIssuedEvent("card-1", BigDecimal.TEN));
+        assertTrue(received.isEmpty());
+
+        unitOfWork.commit();
+
+        assertEquals(List.of(new GiftCardSummary("card-1", BigDecimal.TEN, BigDecimal.TEN)), received);
+    }
+
+    @Test
+    void givenEventHandledInAUnitOfWork_whenTheUnitOfWorkRollsBack_thenNoUpdateIsPublished() {
+        projection.on(new GiftCardIssuedEvent("card-1", BigDecimal.TEN));
+        received.clear();
+
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        projection.on(new GiftCardRedeemedEvent("card-1", BigDecimal.ONE));
+        unitOfWork.rollback();
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void givenNoUnitOfWork_whenAnEventIsHandled_thenTheUpdateIsPublishedRightAway() {
+        projection.on(new GiftCardIssuedEvent("card-1", BigDecimal.TEN));
+        projection.on(new GiftCardRedeemedEvent("card-1", BigDecimal.ONE));
+
+        assertEquals(List.of(
+                new GiftCardSummary("card-1", BigDecimal.TEN, BigDecimal.TEN),
+                new GiftCardSummary("card-1", BigDecimal.valueOf(9), BigDecimal.TEN)
+        ), received);
+    }
+}
@@ -0,0 +1,214 @@
+package io.axoniq.quickstart.giftcard.query;
+
+import io.axoniq.quickstart.giftcard.query.GiftCardUpdateRegistry.GiftCardSubscription;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for {@link GiftCardUpdateRegistry}: routing of updates by gift card ID, and the
+ * coalescing, bounded buffer of each subscription that is drained as the client requests updates.
+ */
+class GiftCardUpdateRegistryTest {
+
+    @Test
+    void givenSubscriptionToOneGiftCard_whenOtherGiftCardsArePublished_thenOnlyItsUpdatesAreDelivered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        GiftCardSubscription subscription = registry.subscribe("card-1");
+        RecordingSubscriber subscriber = subscribe(subscription, Long.MAX_VALUE);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        registry.publish(giftCard("card-1", 5));
+
+        assertEquals(List.of(giftCard("card-1", 10), giftCard("card-1", 5)), subscriber.received);
+    }
+
+    @Test
+    void givenSubscriptionToAllGiftCards_whenGiftCardsArePublished_thenEveryUpdateIsDelivered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), Long.MAX_VALUE);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+
+        assertEquals(List.of(giftCard("card-1", 10), giftCard("card-2", 20)), subscriber.received);
+    }
+
+    @Test
+    void givenUpdatesPublishedBeforeTheStreamIsSubscribedTo_whenItIsSubscribedTo_thenTheBufferedUpdatesAreDelivered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        GiftCardSubscription subscription = registry.subscribeToAll();
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        RecordingSubscriber subscriber = subscribe(subscription, Long.MAX_VALUE);
+
+        assertEquals(List.of(giftCard("card-1", 10), giftCard("card-2", 20)), subscriber.received);
+    }
+
+    @Test
+    void givenPendingUpdateOfAGiftCard_whenTheSameGiftCardIsPublishedAgain_thenOnlyItsLatestStateIsDelivered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), 0);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        registry.publish(giftCard("card-1", 5));
+        subscriber.request(Long.MAX_VALUE);
+
+        // The coalesced update keeps the position of the first pending one
+        assertEquals(List.of(giftCard("card-1", 5), giftCard("card-2", 20)), subscriber.received);
+    }
+
+    @Test
+    void givenFullBuffer_whenAnotherGiftCardIsPublished_thenTheOldestPendingGiftCardIsDropped() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(2);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), 0);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        registry.publish(giftCard("card-3", 30));
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(giftCard("card-2", 20), giftCard("card-3", 30)), subscriber.received);
+    }
+
+    @Test
+    void givenFullBuffer_whenAPendingGiftCardIsPublishedAgain_thenNothingIsDropped() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(2);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), 0);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        registry.publish(giftCard("card-1", 5));
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(giftCard("card-1", 5), giftCard("card-2", 20)), subscriber.received);
+    }
+
+    @Test
+    void givenPendingUpdates_whenTheClientRequestsThemOneByOne_thenOneIsDeliveredPerRequest() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), 0);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+        registry.publish(giftCard("card-3", 30));
+        assertTrue(subscriber.received.isEmpty());
+
+        subscriber.request(1);
+        assertEquals(List.of(giftCard("card-1", 10)), subscriber.received);
+
+        subscriber.request(2);
+        assertEquals(List.of(giftCard("card-1", 10), giftCard("card-2", 20), giftCard("card-3", 30)),
+                subscriber.received);
+    }
+
+    @Test
+    void givenOutstandingDemand_whenAGiftCardIsPublished_thenItIsDeliveredRightAway() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        RecordingSubscriber subscriber = subscribe(registry.subscribeToAll(), 1);
+
+        registry.publish(giftCard("card-1", 10));
+        registry.publish(giftCard("card-2", 20));
+
+        assertEquals(List.of(giftCard("card-1", 10)), subscriber.received);
+    }
+
+    @Test
+    void givenSubscribedStream_whenItIsCancelled_thenTheSubscriptionIsClosedAndUnregistered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        RecordingSubscriber single = subscribe(registry.subscribe("card-1"), Long.MAX_VALUE);
+        RecordingSubscriber all = subscribe(registry.subscribeToAll(), Long.MAX_VALUE);
+        assertEquals(2, registry.subscriptionCount());
+
+        single.cancel();
+        all.cancel();
+        registry.publish(giftCard("card-1", 10));
+
+        assertEquals(0, registry.subscriptionCount());
+        assertTrue(single.received.isEmpty());
+        assertTrue(all.received.isEmpty());
+    }
+
+    @Test
+    void givenClosedSubscription_whenItsStreamIsSubscribedTo_thenNoBufferedUpdateIsDelivered() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        GiftCardSubscription subscription = registry.subscribe("card-1");
+
+        registry.publish(giftCard("card-1", 10));
+        subscription.close();
+        RecordingSubscriber subscriber = subscribe(subscription, Long.MAX_VALUE);
+
+        assertEquals(0, registry.subscriptionCount());
+        assertTrue(subscriber.received.isEmpty());
+    }
+
+    @Test
+    void givenSubscribedStream_whenItIsSubscribedToAgain_thenTheSecondSubscriberGetsAnError() {
+        GiftCardUpdateRegistry registry = new GiftCardUpdateRegistry(16);
+        GiftCardSubscription subscription = registry.subscribe("card-1");
+        subscribe(subscription, Long.MAX_VALUE);
+
+        RecordingSubscriber second = subscribe(subscription, Long.MAX_VALUE);
+
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    void givenBufferSizeBelowOne_whenTheRegistryIsCreated_thenItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GiftCardUpdateRegistry(0));
+    }
+
+    private static RecordingSubscriber subscribe(GiftCardSubscription subscription, long initialDemand) {
+        RecordingSubscriber subscriber = new RecordingSubscriber(initialDemand);
+        subscription.updates().subscribe(subscriber);
+        return subscriber;
+    }
+
+    private static GiftCardSummary giftCard(String giftCardId, long remainingValue) {
+        return new GiftCardSummary(giftCardId, BigDecimal.valueOf(remainingValue), BigDecimal.valueOf(100));
+    }
+
+    /**
+     * Records the updates it receives and requests only the initial demand, so the test controls
+     * when more updates may be delivered.
+     */
+    private static final class RecordingSubscriber extends BaseSubscriber<GiftCardSummary> {
+
+        private final long initialDemand;
+        private final List<GiftCardSummary> received = new ArrayList<>();
+        private Throwable error;
+
+        private RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(GiftCardSummary giftCard) {
+            received.add(giftCard);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}